@@ -0,0 +1,129 @@
+package rocks.inspectit.agent.java.sdk.opentracing.internal.impl;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.opentracing.SpanContext;
+import io.opentracing.propagation.Format;
+import io.opentracing.propagation.TextMap;
+import io.opentracing.tag.Tags;
+import rocks.inspectit.agent.java.sdk.opentracing.noop.NoopReporter;
+import rocks.inspectit.agent.java.sdk.opentracing.util.SystemTimer;
+
+/**
+ * JMH test for the span life-cycle in the {@link TracerImpl}. Tests the start and finish of the
+ * spans with different depth of the thread span stack, as well as the injection and extraction of
+ * the span context.
+ *
+ * @author agent
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Thread)
+public class TracerImplPerfTest {
+
+	/**
+	 * Amount of active spans in the thread before the tested span is started.
+	 */
+	@Param({ "0", "1", "8" })
+	private int depth;
+
+	private TracerImpl tracer;
+
+	private SpanImpl[] activeSpans;
+
+	private SpanContextImpl context;
+
+	private MapCarrier injectCarrier;
+
+	private MapCarrier extractCarrier;
+
+	@Setup(Level.Trial)
+	public void init() {
+		tracer = new TracerImpl(new SystemTimer(), new NoopReporter(), false);
+
+		activeSpans = new SpanImpl[depth];
+		for (int i = 0; i < depth; i++) {
+			activeSpans[i] = tracer.buildSpan("active").start();
+		}
+
+		context = SpanContextImpl.build();
+		injectCarrier = new MapCarrier();
+		extractCarrier = new MapCarrier();
+		tracer.inject(context, Format.Builtin.TEXT_MAP, extractCarrier);
+	}
+
+	@TearDown(Level.Trial)
+	public void close() {
+		for (int i = depth - 1; i >= 0; i--) {
+			activeSpans[i].finish();
+		}
+	}
+
+	@Benchmark
+	public SpanImpl startFinish() {
+		SpanImpl span = tracer.buildSpan("operation").start();
+		span.finish();
+		return span;
+	}
+
+	@Benchmark
+	public SpanImpl startFinishWithTags() {
+		SpanImpl span = tracer.buildSpan("operation").withTag(Tags.SPAN_KIND.getKey(), Tags.SPAN_KIND_CLIENT).withTag(Tags.HTTP_URL.getKey(), "http://localhost/path").withTag(Tags.HTTP_METHOD.getKey(), "GET").start();
+		span.setTag(Tags.HTTP_STATUS.getKey(), 200);
+		span.finish();
+		return span;
+	}
+
+	@Benchmark
+	public int inject() {
+		injectCarrier.map.clear();
+		tracer.inject(context, Format.Builtin.TEXT_MAP, injectCarrier);
+		return injectCarrier.map.size();
+	}
+
+	@Benchmark
+	public SpanContext extract() {
+		return tracer.extract(Format.Builtin.TEXT_MAP, extractCarrier);
+	}
+
+	/**
+	 * Simple text map carrier backed by the hash map.
+	 */
+	private static class MapCarrier implements TextMap {
+
+		private final Map<String, String> map = new HashMap<String, String>();
+
+		@Override
+		public Iterator<Entry<String, String>> iterator() {
+			return map.entrySet().iterator();
+		}
+
+		@Override
+		public void put(String key, String value) {
+			map.put(key, value);
+		}
+	}
+
+}
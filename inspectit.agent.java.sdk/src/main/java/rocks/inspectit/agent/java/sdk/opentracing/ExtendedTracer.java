@@ -4,6 +4,7 @@ import io.opentracing.SpanContext;
 import io.opentracing.Tracer;
 import io.opentracing.propagation.Format;
 import rocks.inspectit.agent.java.sdk.opentracing.propagation.Propagator;
+import rocks.inspectit.agent.java.sdk.opentracing.sampling.TailSampler;
 
 /**
  * This interface defines additional methods that inspectIT tracer provides for usage.
@@ -56,6 +57,31 @@ public interface ExtendedTracer extends Tracer {
 	 */
 	void setTimer(Timer timer) throws IllegalArgumentException;
 
+	/**
+	 * Sets the {@link Sampler} that decides if a new trace is sampled. Spans of not sampled traces
+	 * are not reported and the decision is propagated to the called services.
+	 * <p>
+	 * By default inspectIT tracer samples all traces. The SDK provides probabilistic, rate limiting
+	 * and adaptive per-operation samplers in the
+	 * {@link rocks.inspectit.agent.java.sdk.opentracing.sampling} package.
+	 *
+	 * @param sampler
+	 *            {@link Sampler} to set. Must not be <code>null</code>.
+	 * @throws IllegalArgumentException
+	 *             If sampler provided is <code>null</code>.
+	 */
+	void setSampler(Sampler sampler) throws IllegalArgumentException;
+
+	/**
+	 * Sets the {@link TailSampler} that holds back the spans of sampled traces and reports only
+	 * slow or erroneous traces. By default no tail sampler is used.
+	 *
+	 * @param tailSampler
+	 *            {@link TailSampler} to set or <code>null</code> to report all spans of sampled
+	 *            traces.
+	 */
+	void setTailSampler(TailSampler tailSampler);
+
 	/**
 	 * Builds span with no operation name. The thread context reference will added if the one exists
 	 * as the CHILD_OF reference.
@@ -0,0 +1,28 @@
+package rocks.inspectit.agent.java.sdk.opentracing;
+
+/**
+ * Sampler decides if a new trace should be sampled. The decision is made once, when the first span
+ * of the trace is created, and is carried by the span context to all spans of the trace, including
+ * the ones in other processes the context is propagated to. Spans of not sampled traces are never
+ * reported.
+ * <p>
+ * The SDK provides the implementations in the
+ * {@link rocks.inspectit.agent.java.sdk.opentracing.sampling} package. Implementations must be
+ * thread-safe.
+ *
+ * @author agent
+ *
+ */
+public interface Sampler {
+
+	/**
+	 * Returns if the trace with given id should be sampled.
+	 *
+	 * @param traceId
+	 *            Id of the new trace.
+	 * @param operationName
+	 *            Operation name of the first span in the trace. Can be <code>null</code>.
+	 * @return <code>true</code> if the trace should be sampled.
+	 */
+	boolean isSampled(long traceId, String operationName);
+}
@@ -23,6 +23,21 @@ public interface PropagationConstants {
 	 */
 	String TRACE_ID = INSPECTIT_PREFIX + "traceid";
 
+	/**
+	 * Header name for the sampling decision.
+	 */
+	String SAMPLED = INSPECTIT_PREFIX + "sampled";
+
+	/**
+	 * Value of the {@link #SAMPLED} header for the not sampled traces.
+	 */
+	String NOT_SAMPLED_VALUE = "0";
+
+	/**
+	 * Value of the {@link #SAMPLED} header for the sampled traces.
+	 */
+	String SAMPLED_VALUE = "1";
+
 	/**
 	 * Prefix for the propagation baggage.
 	 */
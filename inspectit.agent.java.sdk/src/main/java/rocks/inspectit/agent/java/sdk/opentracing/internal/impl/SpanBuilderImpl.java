@@ -1,5 +1,6 @@
 package rocks.inspectit.agent.java.sdk.opentracing.internal.impl;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -8,6 +9,7 @@ import io.opentracing.References;
 import io.opentracing.Span;
 import io.opentracing.SpanContext;
 import io.opentracing.Tracer.SpanBuilder;
+import rocks.inspectit.agent.java.sdk.opentracing.Sampler;
 import rocks.inspectit.agent.java.sdk.opentracing.Timer;
 
 /**
@@ -34,9 +36,14 @@ public class SpanBuilderImpl implements SpanBuilder {
 	private final Timer timer;
 
 	/**
-	 * Collected baggage from all parents.
+	 * Sampler to use if the span starts a new trace.
 	 */
-	private final Map<String, String> baggage = new HashMap<String, String>();
+	private final Sampler sampler;
+
+	/**
+	 * Collected baggage from all parents. Created only if any of the parents has baggage.
+	 */
+	private Map<String, String> baggage;
 
 	/**
 	 * Manually specified timestamp.
@@ -63,6 +70,7 @@ public class SpanBuilderImpl implements SpanBuilder {
 	 */
 	public SpanBuilderImpl(TracerImpl tracer, String operationName) {
 		this.timer = tracer.getTimer();
+		this.sampler = tracer.getSampler();
 		this.span = new SpanImpl(tracer);
 		this.span.setOperationName(operationName);
 	}
@@ -72,6 +80,9 @@ public class SpanBuilderImpl implements SpanBuilder {
 	 */
 	@Override
 	public Iterable<Entry<String, String>> baggageItems() {
+		if (null == baggage) {
+			return Collections.<Entry<String, String>> emptySet();
+		}
 		return baggage.entrySet();
 	}
 
@@ -182,6 +193,9 @@ public class SpanBuilderImpl implements SpanBuilder {
 		}
 
 		for (Entry<String, String> baggageItem : baggageItems) {
+			if (null == baggage) {
+				baggage = new HashMap<String, String>(4);
+			}
 			baggage.put(baggageItem.getKey(), baggageItem.getValue());
 		}
 	}
@@ -209,13 +223,18 @@ public class SpanBuilderImpl implements SpanBuilder {
 
 	/**
 	 * Builds (resolves the context) the span but does not start it. The method returns the built
-	 * span.
+	 * span. If the span starts a new trace, the sampling decision for the trace is made here.
 	 *
 	 * @return the span which has been built
 	 */
 	public SpanImpl build() {
 		// resolve context
-		SpanContextImpl context = SpanContextImpl.build(parent, referenceType, baggage);
+		SpanContextImpl context;
+		if (null != parent) {
+			context = SpanContextImpl.build(parent, referenceType, baggage);
+		} else {
+			context = SpanContextImpl.build(baggage, sampler, span.getOperationName());
+		}
 		span.setSpanContext(context);
 
 		return span;
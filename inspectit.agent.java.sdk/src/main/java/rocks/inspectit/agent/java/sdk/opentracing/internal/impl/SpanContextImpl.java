@@ -6,12 +6,12 @@ import java.util.Map;
 import java.util.Map.Entry;
 
 import io.opentracing.SpanContext;
+import rocks.inspectit.agent.java.sdk.opentracing.Sampler;
 import rocks.inspectit.agent.java.sdk.opentracing.internal.util.RandomUtils;
 
 /**
  * Implementation of the {@link io.opentracing.SpanContext}. Keeps information about span id, trace
- * id and span parent id. Sampling flag is not included in the moment as it's not explicitly defined
- * by the opentracing API.
+ * id, span parent id and the sampling decision of the trace.
  *
  * @author Ivan Senic
  *
@@ -39,12 +39,18 @@ public class SpanContextImpl implements SpanContext {
 	private final String referenceType;
 
 	/**
-	 * Baggage.
+	 * Baggage. Created only when first baggage item is added, as most of the contexts do not carry
+	 * any baggage.
 	 */
-	private final Map<String, String> baggage;
+	private Map<String, String> baggage;
 
 	/**
-	 * Constructor. Use build methods.
+	 * If the trace this context belongs to is sampled.
+	 */
+	private final boolean sampled;
+
+	/**
+	 * Constructor for the sampled context. Use build methods.
 	 *
 	 * @param id
 	 *            Unique ID of the span.
@@ -58,6 +64,26 @@ public class SpanContextImpl implements SpanContext {
 	 *            Additional baggage
 	 */
 	public SpanContextImpl(long id, long traceId, long parentId, String referenceType, Map<String, String> baggage) {
+		this(id, traceId, parentId, referenceType, baggage, true);
+	}
+
+	/**
+	 * Constructor. Use build methods.
+	 *
+	 * @param id
+	 *            Unique ID of the span.
+	 * @param traceId
+	 *            ID of the trace that span belongs to.
+	 * @param parentId
+	 *            ID of the span's parent.
+	 * @param referenceType
+	 *            Reference to the parent.
+	 * @param baggage
+	 *            Additional baggage
+	 * @param sampled
+	 *            If the trace is sampled.
+	 */
+	public SpanContextImpl(long id, long traceId, long parentId, String referenceType, Map<String, String> baggage, boolean sampled) {
 		// ids
 		this.id = id;
 		this.traceId = traceId;
@@ -66,9 +92,8 @@ public class SpanContextImpl implements SpanContext {
 		// baggage handling
 		if ((null != baggage) && !baggage.isEmpty()) {
 			this.baggage = new HashMap<String, String>(baggage);
-		} else {
-			this.baggage = new HashMap<String, String>(0, 1f);
 		}
+		this.sampled = sampled;
 	}
 
 	/**
@@ -76,7 +101,8 @@ public class SpanContextImpl implements SpanContext {
 	 * <code>null</code> then {@link #build(Map)} will be used and new trace context will be
 	 * created.
 	 * <p>
-	 * Passed baggage will be the baggage of this span context.
+	 * Passed baggage will be the baggage of this span context. The sampling decision is taken over
+	 * from the parent.
 	 *
 	 * @param parent
 	 *            Context that will be use to determine to which trace/parent new context belongs.
@@ -92,7 +118,7 @@ public class SpanContextImpl implements SpanContext {
 			return build(baggage);
 		} else {
 			long id = RandomUtils.randomLong();
-			SpanContextImpl spanContextImpl = new SpanContextImpl(id, parent.getTraceId(), parent.getId(), referenceType, baggage);
+			SpanContextImpl spanContextImpl = new SpanContextImpl(id, parent.getTraceId(), parent.getId(), referenceType, baggage, parent.isSampled());
 			return spanContextImpl;
 		}
 	}
@@ -109,6 +135,23 @@ public class SpanContextImpl implements SpanContext {
 		return new SpanContextImpl(id, id, id, null, baggage);
 	}
 
+	/**
+	 * Builds new {@link SpanContextImpl} with new trace context and given baggage. The sampler
+	 * decides if the new trace is sampled.
+	 *
+	 * @param baggage
+	 *            Context baggage.
+	 * @param sampler
+	 *            Sampler to decide if the trace is sampled.
+	 * @param operationName
+	 *            Operation name of the span the context is created for.
+	 * @return {@link SpanContextImpl}. Never <code>null</code>.
+	 */
+	public static SpanContextImpl build(Map<String, String> baggage, Sampler sampler, String operationName) {
+		long id = RandomUtils.randomLong();
+		return new SpanContextImpl(id, id, id, null, baggage, sampler.isSampled(id, operationName));
+	}
+
 	/**
 	 * Builds new {@link SpanContextImpl} with new trace context and no baggage.
 	 *
@@ -133,7 +176,25 @@ public class SpanContextImpl implements SpanContext {
 	 * @return Context representing the context of the calling span.
 	 */
 	public static SpanContextImpl buildExtractedContext(long passedId, long passedTraceId, Map<String, String> passedBaggage) {
-		return new SpanContextImpl(passedId, passedTraceId, passedId, null, passedBaggage);
+		return buildExtractedContext(passedId, passedTraceId, passedBaggage, true);
+	}
+
+	/**
+	 * This method is used when building context that is extracted from the propagation (like HTTP
+	 * headers) together with the sampling decision of the caller.
+	 *
+	 * @param passedId
+	 *            calling span id
+	 * @param passedTraceId
+	 *            calling span trace id
+	 * @param passedBaggage
+	 *            passage traveling along
+	 * @param passedSampled
+	 *            if the trace of the calling span is sampled
+	 * @return Context representing the context of the calling span.
+	 */
+	public static SpanContextImpl buildExtractedContext(long passedId, long passedTraceId, Map<String, String> passedBaggage, boolean passedSampled) {
+		return new SpanContextImpl(passedId, passedTraceId, passedId, null, passedBaggage, passedSampled);
 	}
 
 	/**
@@ -141,6 +202,9 @@ public class SpanContextImpl implements SpanContext {
 	 */
 	@Override
 	public Iterable<Entry<String, String>> baggageItems() {
+		if (null == baggage) {
+			return Collections.<Entry<String, String>> emptySet();
+		}
 		return Collections.unmodifiableMap(baggage).entrySet();
 	}
 
@@ -153,6 +217,9 @@ public class SpanContextImpl implements SpanContext {
 	 *            value
 	 */
 	public void setBaggageItem(String key, String value) {
+		if (null == baggage) {
+			baggage = new HashMap<String, String>(1, 1f);
+		}
 		baggage.put(key, value);
 	}
 
@@ -164,6 +231,9 @@ public class SpanContextImpl implements SpanContext {
 	 * @return Baggage item or <code>null</code> if the one does not exist.
 	 */
 	public String getBaggageItem(String key) {
+		if (null == baggage) {
+			return null;
+		}
 		return baggage.get(key);
 	}
 
@@ -203,6 +273,15 @@ public class SpanContextImpl implements SpanContext {
 		return this.parentId;
 	}
 
+	/**
+	 * Gets {@link #sampled}.
+	 *
+	 * @return {@link #sampled}
+	 */
+	public boolean isSampled() {
+		return this.sampled;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -210,10 +289,12 @@ public class SpanContextImpl implements SpanContext {
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
+		// empty map has hash code 0 as well
 		result = (prime * result) + ((this.baggage == null) ? 0 : this.baggage.hashCode());
 		result = (prime * result) + (int) (this.id ^ (this.id >>> 32));
 		result = (prime * result) + (int) (this.parentId ^ (this.parentId >>> 32));
 		result = (prime * result) + ((this.referenceType == null) ? 0 : this.referenceType.hashCode());
+		result = (prime * result) + (this.sampled ? 1231 : 1237);
 		result = (prime * result) + (int) (this.traceId ^ (this.traceId >>> 32));
 		return result;
 	}
@@ -233,8 +314,13 @@ public class SpanContextImpl implements SpanContext {
 			return false;
 		}
 		SpanContextImpl other = (SpanContextImpl) obj;
+		// no baggage equals to empty baggage
 		if (this.baggage == null) {
-			if (other.baggage != null) {
+			if ((other.baggage != null) && !other.baggage.isEmpty()) {
+				return false;
+			}
+		} else if (other.baggage == null) {
+			if (!this.baggage.isEmpty()) {
 				return false;
 			}
 		} else if (!this.baggage.equals(other.baggage)) {
@@ -253,6 +339,9 @@ public class SpanContextImpl implements SpanContext {
 		} else if (!this.referenceType.equals(other.referenceType)) {
 			return false;
 		}
+		if (this.sampled != other.sampled) {
+			return false;
+		}
 		if (this.traceId != other.traceId) {
 			return false;
 		}
@@ -264,7 +353,7 @@ public class SpanContextImpl implements SpanContext {
 	 */
 	@Override
 	public String toString() {
-		return "SpanContextImpl [id=" + this.id + ", traceId=" + this.traceId + ", parentId=" + this.parentId + ", referenceType=" + this.referenceType + ", baggage=" + this.baggage + "]";
+		return "SpanContextImpl [id=" + this.id + ", traceId=" + this.traceId + ", parentId=" + this.parentId + ", referenceType=" + this.referenceType + ", sampled=" + this.sampled + ", baggage=" + this.baggage + "]";
 	}
 
 }
\ No newline at end of file
@@ -20,6 +20,13 @@ import rocks.inspectit.agent.java.sdk.opentracing.Reporter;
  */
 public class SpanImpl implements Span {
 
+	/**
+	 * Initial capacity of the tags map. Spans created by inspectIT usually have up to eight tags
+	 * (span kind, propagation type, method and sensor id plus the request information), so that
+	 * with this capacity and load factor of 1 the tags map is never resized for them.
+	 */
+	private static final int TAGS_INITIAL_CAPACITY = 8;
+
 	/**
 	 * Tracer.
 	 */
@@ -57,7 +64,13 @@ public class SpanImpl implements Span {
 	private boolean report = true;
 
 	/**
-	 * Tags of this span. We save all tag values as string.
+	 * Reporter to report this span to instead of the reporter of the tracer. <code>null</code> if
+	 * the tracer's reporter is used.
+	 */
+	private Reporter reporter;
+
+	/**
+	 * Tags of this span. We save all tag values as string. Created with the first tag.
 	 */
 	private Map<String, String> tags;
 
@@ -212,7 +225,7 @@ public class SpanImpl implements Span {
 	 */
 	private Span setTagInternal(String key, String value) {
 		if (null == tags) {
-			tags = new HashMap<String, String>(1, 1f);
+			tags = new HashMap<String, String>(TAGS_INITIAL_CAPACITY, 1f);
 		}
 		tags.put(key, value);
 		return this;
@@ -430,6 +443,32 @@ public class SpanImpl implements Span {
 		this.report = report;
 	}
 
+	/**
+	 * Sets the reporter this span is reported to instead of the reporter of the tracer. The span is
+	 * reported even if it was created with {@link SpanBuilderImpl#doNotReport()}, but only if the
+	 * sampling decisions of the tracer allow it. This way inspectIT reports the spans it creates
+	 * itself without bypassing the tail sampling. Must be called before the span is finished.
+	 *
+	 * @param reporter
+	 *            Reporter to report this span to. Must not be <code>null</code>.
+	 */
+	public void reportTo(Reporter reporter) {
+		if (null == reporter) {
+			throw new IllegalArgumentException("Reporter must not be null.");
+		}
+		this.reporter = reporter;
+		this.report = true;
+	}
+
+	/**
+	 * Gets {@link #reporter}.
+	 *
+	 * @return {@link #reporter}
+	 */
+	Reporter getReporter() {
+		return this.reporter;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -0,0 +1,98 @@
+package rocks.inspectit.agent.java.sdk.opentracing.internal.impl;
+
+import java.util.Arrays;
+
+/**
+ * Array backed stack of the active spans of one thread. As opposed to the {@link java.util.Stack}
+ * this implementation is not synchronized, as it's always bound to a single thread, and does not
+ * allocate anything on push/pop as long as the stack depth does not exceed the current capacity.
+ * <p>
+ * Spans are compared by identity.
+ *
+ * @author agent
+ *
+ */
+final class SpanStack {
+
+	/**
+	 * Initial capacity of the stack.
+	 */
+	private static final int INITIAL_CAPACITY = 8;
+
+	/**
+	 * Spans in the stack, the last active one is at the position {@link #size} - 1.
+	 */
+	private SpanImpl[] spans = new SpanImpl[INITIAL_CAPACITY];
+
+	/**
+	 * Current size of the stack.
+	 */
+	private int size;
+
+	/**
+	 * Pushes the span to the top of the stack.
+	 *
+	 * @param span
+	 *            Span to push.
+	 */
+	void push(SpanImpl span) {
+		if (size == spans.length) {
+			spans = Arrays.copyOf(spans, size << 1);
+		}
+		spans[size++] = span;
+	}
+
+	/**
+	 * Returns the span on the top of the stack without removing it.
+	 *
+	 * @return Span on the top of the stack or <code>null</code> if stack is empty.
+	 */
+	SpanImpl peek() {
+		if (0 == size) {
+			return null;
+		}
+		return spans[size - 1];
+	}
+
+	/**
+	 * Removes the given span and all spans that have been pushed after it. If the span is not in
+	 * the stack, stack is not changed.
+	 *
+	 * @param span
+	 *            Span to remove.
+	 * @return Number of removed spans. <code>0</code> means that span was not in the stack, while
+	 *         any number bigger than <code>1</code> means that spans on top of the given span were
+	 *         removed as well.
+	 */
+	int popTo(SpanImpl span) {
+		for (int i = size - 1; i >= 0; i--) {
+			if (spans[i] == span) { // NOPMD == on purpose
+				int removed = size - i;
+				// release references so that spans can be collected
+				Arrays.fill(spans, i, size, null);
+				size = i;
+				return removed;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Returns if the stack is empty.
+	 *
+	 * @return Returns if the stack is empty.
+	 */
+	boolean isEmpty() {
+		return 0 == size;
+	}
+
+	/**
+	 * Gets {@link #size}.
+	 *
+	 * @return {@link #size}
+	 */
+	int size() {
+		return this.size;
+	}
+
+}
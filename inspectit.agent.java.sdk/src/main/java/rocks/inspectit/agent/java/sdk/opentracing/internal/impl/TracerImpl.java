@@ -1,7 +1,6 @@
 package rocks.inspectit.agent.java.sdk.opentracing.internal.impl;
 
 import java.util.Map;
-import java.util.Stack;
 import java.util.concurrent.ConcurrentHashMap;
 
 import io.opentracing.References;
@@ -9,6 +8,7 @@ import io.opentracing.SpanContext;
 import io.opentracing.propagation.Format;
 import rocks.inspectit.agent.java.sdk.opentracing.ExtendedTracer;
 import rocks.inspectit.agent.java.sdk.opentracing.Reporter;
+import rocks.inspectit.agent.java.sdk.opentracing.Sampler;
 import rocks.inspectit.agent.java.sdk.opentracing.Timer;
 import rocks.inspectit.agent.java.sdk.opentracing.TracerProvider;
 import rocks.inspectit.agent.java.sdk.opentracing.internal.TracerLogger;
@@ -16,6 +16,8 @@ import rocks.inspectit.agent.java.sdk.opentracing.internal.propagation.TextMapPr
 import rocks.inspectit.agent.java.sdk.opentracing.internal.propagation.UrlEncodingPropagator;
 import rocks.inspectit.agent.java.sdk.opentracing.noop.NoopReporter;
 import rocks.inspectit.agent.java.sdk.opentracing.propagation.Propagator;
+import rocks.inspectit.agent.java.sdk.opentracing.sampling.ConstantSampler;
+import rocks.inspectit.agent.java.sdk.opentracing.sampling.TailSampler;
 import rocks.inspectit.agent.java.sdk.opentracing.util.SystemTimer;
 
 /**
@@ -29,7 +31,12 @@ import rocks.inspectit.agent.java.sdk.opentracing.util.SystemTimer;
  * The tracer uses {@link Reporter} for reporting finished spans. In inspectIT SDK there is an
  * option to explicitly state that span should not be reported, as inspectIT itself adds other
  * information to the span it creates and reports them itself. User created spans will always be
- * reported if not explicitly stated otherwise.
+ * reported if not explicitly stated otherwise. A span can also be given an own reporter with
+ * {@link SpanImpl#reportTo(Reporter)}, such spans follow the same sampling decisions.
+ * <p>
+ * The tracer uses {@link Sampler} to decide if a new trace is sampled. Spans of not sampled traces
+ * are never reported. By default all traces are sampled. Optionally, the {@link TailSampler} can be
+ * set to report only slow or erroneous traces.
  *
  * @author Ivan Senic
  *
@@ -44,14 +51,14 @@ public class TracerImpl implements ExtendedTracer {
 	/**
 	 * Span stack.
 	 */
-	private final ThreadLocal<Stack<SpanImpl>> spanStack = new ThreadLocal<Stack<SpanImpl>>() {
+	private final ThreadLocal<SpanStack> spanStack = new ThreadLocal<SpanStack>() {
 
 		/**
 		 * {@inheritDoc}
 		 */
 		@Override
-		protected Stack<SpanImpl> initialValue() {
-			return new Stack<SpanImpl>();
+		protected SpanStack initialValue() {
+			return new SpanStack();
 		}
 	};
 
@@ -65,6 +72,36 @@ public class TracerImpl implements ExtendedTracer {
 	 */
 	private final Reporter reporter;
 
+	/**
+	 * Reporter that reports each span to its own reporter if one is set, otherwise to the
+	 * {@link #reporter}.
+	 */
+	private final Reporter spanReporter = new Reporter() {
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void report(SpanImpl span) {
+			Reporter ownReporter = span.getReporter();
+			if (null != ownReporter) {
+				ownReporter.report(span);
+			} else {
+				reporter.report(span);
+			}
+		}
+	};
+
+	/**
+	 * Sampler for the new traces.
+	 */
+	private volatile Sampler sampler = ConstantSampler.ALWAYS;
+
+	/**
+	 * Tail sampler, <code>null</code> if not used.
+	 */
+	private volatile TailSampler tailSampler;
+
 	/**
 	 * Usable propagators.
 	 */
@@ -244,9 +281,9 @@ public class TracerImpl implements ExtendedTracer {
 	 */
 	@Override
 	public SpanContextImpl getCurrentContext() {
-		Stack<SpanImpl> stack = spanStack.get();
-		if (!stack.isEmpty()) {
-			return stack.peek().context();
+		SpanImpl span = spanStack.get().peek();
+		if (null != span) {
+			return span.context();
 		}
 		return null;
 	}
@@ -289,20 +326,13 @@ public class TracerImpl implements ExtendedTracer {
 			return;
 		}
 
-		// check if we have the span in the stack
-		Stack<SpanImpl> stack = spanStack.get();
-		if (stack.contains(span)) {
-			// if so clear the stack until we reach it
-			// it should be the first one, but just for safety
-			// (users might forget to finish spans or could finish them in wrong order)
-			SpanImpl removed = stack.pop();
-			boolean wrongEndOrder = false;
-			while (!stack.isEmpty() && !removed.equals(span)) {
-				wrongEndOrder = true;
-				stack.pop();
-			}
-
-			if (wrongEndOrder && LOGGER.isWarnEnabled()) {
+		// remove the span from the stack together with all spans started after it
+		// it should be the last one, but just for safety
+		// (users might forget to finish spans or could finish them in wrong order)
+		SpanStack stack = spanStack.get();
+		int removed = stack.popTo(span);
+		if (removed > 0) {
+			if ((removed > 1) && LOGGER.isWarnEnabled()) {
 				LOGGER.warn("Finishing of spans is not done in starting order, span " + span.toString() + " is not the last started one by current thread. Thread context state can be affected.");
 			}
 
@@ -310,10 +340,21 @@ public class TracerImpl implements ExtendedTracer {
 				LOGGER.debug("Span finished " + span);
 			}
 		}
+		// with empty stack the span was the first one of the trace in this thread
+		boolean segmentFinished = stack.isEmpty();
+
+		// spans of not sampled traces are never reported
+		SpanContextImpl context = span.context();
+		if ((null != context) && !context.isSampled()) {
+			return;
+		}
 
 		// check if we need to report the span
-		if (span.isReport()) {
-			reporter.report(span);
+		TailSampler currentTailSampler = tailSampler;
+		if ((null != currentTailSampler) && (null != context)) {
+			currentTailSampler.spanFinished(span, span.isReport(), segmentFinished, spanReporter);
+		} else if (span.isReport()) {
+			spanReporter.report(span);
 		}
 	}
 
@@ -326,6 +367,15 @@ public class TracerImpl implements ExtendedTracer {
 		return this.timer;
 	}
 
+	/**
+	 * Gets {@link #sampler}.
+	 *
+	 * @return {@link #sampler}
+	 */
+	Sampler getSampler() {
+		return this.sampler;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -337,4 +387,23 @@ public class TracerImpl implements ExtendedTracer {
 		this.timer = timer;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setSampler(Sampler sampler) {
+		if (null == sampler) {
+			throw new IllegalArgumentException("Sampler must not be null.");
+		}
+		this.sampler = sampler;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setTailSampler(TailSampler tailSampler) {
+		this.tailSampler = tailSampler;
+	}
+
 }
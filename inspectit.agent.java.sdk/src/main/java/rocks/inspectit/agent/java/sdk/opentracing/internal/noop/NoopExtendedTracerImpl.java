@@ -9,8 +9,10 @@ import io.opentracing.NoopTracerFactory;
 import io.opentracing.SpanContext;
 import io.opentracing.propagation.Format;
 import rocks.inspectit.agent.java.sdk.opentracing.ExtendedTracer;
+import rocks.inspectit.agent.java.sdk.opentracing.Sampler;
 import rocks.inspectit.agent.java.sdk.opentracing.Timer;
 import rocks.inspectit.agent.java.sdk.opentracing.propagation.Propagator;
+import rocks.inspectit.agent.java.sdk.opentracing.sampling.TailSampler;
 
 /**
  * No-operation tracer that implement the {@link ExtendedTracer} interface. Simply delegates calls
@@ -86,6 +88,20 @@ public final class NoopExtendedTracerImpl implements ExtendedTracer, NoopTracer
 	public void setTimer(Timer timer) throws IllegalArgumentException {
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setSampler(Sampler sampler) throws IllegalArgumentException {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setTailSampler(TailSampler tailSampler) {
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
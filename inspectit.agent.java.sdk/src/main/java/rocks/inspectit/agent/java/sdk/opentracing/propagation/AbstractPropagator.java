@@ -64,6 +64,7 @@ public abstract class AbstractPropagator<C> implements Propagator<C> {
 
 		injectBaggage(carrier, PropagationConstants.SPAN_ID, ConversionUtils.toHexString(spanContext.getId()));
 		injectBaggage(carrier, PropagationConstants.TRACE_ID, ConversionUtils.toHexString(spanContext.getTraceId()));
+		injectBaggage(carrier, PropagationConstants.SAMPLED, spanContext.isSampled() ? PropagationConstants.SAMPLED_VALUE : PropagationConstants.NOT_SAMPLED_VALUE);
 		Iterable<Entry<String, String>> baggageItems = spanContext.baggageItems();
 		if (null != baggageItems) {
 			for (Map.Entry<String, String> e : baggageItems) {
@@ -83,9 +84,12 @@ public abstract class AbstractPropagator<C> implements Propagator<C> {
 			return null;
 		}
 
-		Map<String, String> passedBaggage = new HashMap<String, String>();
+		// created only if baggage is passed
+		Map<String, String> passedBaggage = null;
 		String idFromBaggage = null;
 		String traceIdFromBaggage = null;
+		// callers not propagating the decision sample all traces
+		boolean sampled = true;
 		// iterate over the baggage
 		for (Entry<String, String> e : iterable) {
 			String key = e.getKey();
@@ -93,8 +97,13 @@ public abstract class AbstractPropagator<C> implements Propagator<C> {
 				idFromBaggage = e.getValue();
 			} else if (PropagationConstants.TRACE_ID.equals(key)) {
 				traceIdFromBaggage = e.getValue();
+			} else if (PropagationConstants.SAMPLED.equals(key)) {
+				sampled = !PropagationConstants.NOT_SAMPLED_VALUE.equals(e.getValue());
 			} else if (key.startsWith(PropagationConstants.INSPECTIT_BAGGAGE_PREFIX)) {
 				String realKey = key.substring(PropagationConstants.INSPECTIT_BAGGAGE_PREFIX.length());
+				if (null == passedBaggage) {
+					passedBaggage = new HashMap<String, String>(4);
+				}
 				passedBaggage.put(realKey, e.getValue());
 			}
 		}
@@ -104,7 +113,7 @@ public abstract class AbstractPropagator<C> implements Propagator<C> {
 			try {
 				long id = ConversionUtils.parseHexStringSafe(idFromBaggage);
 				long traceId = ConversionUtils.parseHexStringSafe(traceIdFromBaggage);
-				return SpanContextImpl.buildExtractedContext(id, traceId, passedBaggage);
+				return SpanContextImpl.buildExtractedContext(id, traceId, passedBaggage, sampled);
 			} catch (NumberFormatException e) {
 				if (LOGGER.isWarnEnabled()) {
 					LOGGER.warn("Failed converting span and trace id. These are expected in the hexadecimal format, but were " + idFromBaggage + " and " + traceIdFromBaggage + ".", e);
@@ -0,0 +1,54 @@
+package rocks.inspectit.agent.java.sdk.opentracing.sampling;
+
+import rocks.inspectit.agent.java.sdk.opentracing.Sampler;
+
+/**
+ * Sampler that always returns the same decision.
+ *
+ * @author agent
+ *
+ */
+public class ConstantSampler implements Sampler {
+
+	/**
+	 * Sampler that samples all traces.
+	 */
+	public static final ConstantSampler ALWAYS = new ConstantSampler(true);
+
+	/**
+	 * Sampler that samples no traces.
+	 */
+	public static final ConstantSampler NEVER = new ConstantSampler(false);
+
+	/**
+	 * Decision to return.
+	 */
+	private final boolean sampled;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param sampled
+	 *            Decision to return.
+	 */
+	public ConstantSampler(boolean sampled) {
+		this.sampled = sampled;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isSampled(long traceId, String operationName) {
+		return sampled;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "ConstantSampler [sampled=" + this.sampled + "]";
+	}
+
+}
@@ -0,0 +1,235 @@
+package rocks.inspectit.agent.java.sdk.opentracing.sampling;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import rocks.inspectit.agent.java.sdk.opentracing.Sampler;
+import rocks.inspectit.agent.java.sdk.opentracing.Timer;
+import rocks.inspectit.agent.java.sdk.opentracing.util.SystemTimer;
+
+/**
+ * Adaptive sampler that samples approximately the given amount of traces per second for each
+ * operation. For every operation the sampler counts the traces started in one second window and
+ * adapts the sampling probability for the next window, so that rarely called operations are
+ * always sampled and frequently called ones are sampled with the low probability. In addition, the
+ * amount of sampled traces in one window is limited, so that load peaks do not increase the amount
+ * of reported traces.
+ * <p>
+ * The amount of tracked operations is limited. Traces of the operations that exceed the limit or
+ * have no operation name are sampled with the default probability.
+ *
+ * @author agent
+ *
+ */
+public class PerOperationSampler implements Sampler {
+
+	/**
+	 * Default maximum amount of tracked operations.
+	 */
+	public static final int DEFAULT_MAX_OPERATIONS = 2000;
+
+	/**
+	 * Window length in nanoseconds.
+	 */
+	private static final long WINDOW_NANOS = 1000000000L;
+
+	/**
+	 * Wanted amount of sampled traces per second and operation.
+	 */
+	private final double targetTracesPerSecond;
+
+	/**
+	 * Maximum amount of tracked operations.
+	 */
+	private final int maxOperations;
+
+	/**
+	 * Sampler for the not tracked operations.
+	 */
+	private final ProbabilisticSampler defaultSampler;
+
+	/**
+	 * Timer to use.
+	 */
+	private final Timer timer;
+
+	/**
+	 * Sampling state per operation name.
+	 */
+	private final ConcurrentHashMap<String, OperationState> operations = new ConcurrentHashMap<String, OperationState>();
+
+	/**
+	 * Creates the sampler with {@link #DEFAULT_MAX_OPERATIONS} and {@link SystemTimer}.
+	 *
+	 * @param targetTracesPerSecond
+	 *            Wanted amount of sampled traces per second and operation.
+	 * @param defaultProbability
+	 *            Sampling probability for the not tracked operations.
+	 */
+	public PerOperationSampler(double targetTracesPerSecond, double defaultProbability) {
+		this(targetTracesPerSecond, defaultProbability, DEFAULT_MAX_OPERATIONS, new SystemTimer());
+	}
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param targetTracesPerSecond
+	 *            Wanted amount of sampled traces per second and operation. Must be positive.
+	 * @param defaultProbability
+	 *            Sampling probability for the not tracked operations, between 0 and 1.
+	 * @param maxOperations
+	 *            Maximum amount of tracked operations.
+	 * @param timer
+	 *            Timer to use. Must not be <code>null</code>.
+	 * @throws IllegalArgumentException
+	 *             If any of the arguments is not valid.
+	 */
+	public PerOperationSampler(double targetTracesPerSecond, double defaultProbability, int maxOperations, Timer timer) throws IllegalArgumentException {
+		if (targetTracesPerSecond <= 0d) {
+			throw new IllegalArgumentException("Target traces per second must be positive, but was " + targetTracesPerSecond + ".");
+		}
+		if (null == timer) {
+			throw new IllegalArgumentException("Timer can not be null.");
+		}
+		this.targetTracesPerSecond = targetTracesPerSecond;
+		this.defaultSampler = new ProbabilisticSampler(defaultProbability);
+		this.maxOperations = maxOperations;
+		this.timer = timer;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isSampled(long traceId, String operationName) {
+		if (null == operationName) {
+			return defaultSampler.isSampled(traceId, operationName);
+		}
+
+		OperationState state = operations.get(operationName);
+		if (null == state) {
+			if (operations.size() >= maxOperations) {
+				return defaultSampler.isSampled(traceId, operationName);
+			}
+			state = new OperationState(timer.getCurrentNanoTime());
+			OperationState existing = operations.putIfAbsent(operationName, state);
+			if (null != existing) {
+				state = existing;
+			}
+		}
+		return state.isSampled(traceId, timer.getCurrentNanoTime());
+	}
+
+	/**
+	 * Returns the current sampling probability of the operation.
+	 *
+	 * @param operationName
+	 *            Operation name.
+	 * @return Current sampling probability of the operation or the default probability if the
+	 *         operation is not tracked.
+	 */
+	public double getProbability(String operationName) {
+		OperationState state = (null != operationName) ? operations.get(operationName) : null;
+		if (null == state) {
+			return defaultSampler.getProbability();
+		}
+		return state.getProbability();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "PerOperationSampler [targetTracesPerSecond=" + this.targetTracesPerSecond + ", defaultSampler=" + this.defaultSampler + ", maxOperations=" + this.maxOperations + ", operations=" + this.operations.size() + "]";
+	}
+
+	/**
+	 * Sampling state of one operation.
+	 *
+	 * @author agent
+	 *
+	 */
+	private class OperationState {
+
+		/**
+		 * Start of the current window in nanoseconds.
+		 */
+		private long windowStart;
+
+		/**
+		 * Traces started in the current window.
+		 */
+		private long started;
+
+		/**
+		 * Traces sampled in the current window.
+		 */
+		private long sampled;
+
+		/**
+		 * Sampling probability in the current window.
+		 */
+		private double probability = 1d;
+
+		/**
+		 * Trace ids in the range <code>(-boundary, boundary)</code> are sampled.
+		 */
+		private long boundary = Long.MAX_VALUE;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param windowStart
+		 *            Start of the first window in nanoseconds.
+		 */
+		OperationState(long windowStart) {
+			this.windowStart = windowStart;
+		}
+
+		/**
+		 * Returns if the trace should be sampled.
+		 *
+		 * @param traceId
+		 *            Id of the trace.
+		 * @param now
+		 *            Current nano time.
+		 * @return <code>true</code> if the trace should be sampled.
+		 */
+		synchronized boolean isSampled(long traceId, long now) {
+			long elapsed = now - windowStart;
+			if (elapsed >= WINDOW_NANOS) {
+				// adapt to the rate in the last window, if no calls in more windows start with
+				// sampling everything again
+				if ((started > 0) && (elapsed < (2 * WINDOW_NANOS))) {
+					probability = Math.min(1d, targetTracesPerSecond / started);
+				} else {
+					probability = 1d;
+				}
+				boundary = (probability >= 1d) ? Long.MAX_VALUE : (long) (Long.MAX_VALUE * probability);
+				windowStart = now;
+				started = 0;
+				sampled = 0;
+			}
+
+			started++;
+			if (sampled >= Math.max(1d, targetTracesPerSecond)) {
+				return false;
+			}
+			if ((probability >= 1d) || ((traceId < boundary) && (traceId > -boundary))) {
+				sampled++;
+				return true;
+			}
+			return false;
+		}
+
+		/**
+		 * Gets {@link #probability}.
+		 *
+		 * @return {@link #probability}
+		 */
+		synchronized double getProbability() {
+			return this.probability;
+		}
+	}
+
+}
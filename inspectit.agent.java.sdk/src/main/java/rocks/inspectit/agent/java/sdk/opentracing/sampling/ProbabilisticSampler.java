@@ -0,0 +1,69 @@
+package rocks.inspectit.agent.java.sdk.opentracing.sampling;
+
+import rocks.inspectit.agent.java.sdk.opentracing.Sampler;
+
+/**
+ * Sampler that samples the given fraction of the traces. The decision is based on the trace id,
+ * which is random, so no additional random number is created and the same trace id always gets
+ * the same decision.
+ *
+ * @author agent
+ *
+ */
+public class ProbabilisticSampler implements Sampler {
+
+	/**
+	 * Probability of sampling, between 0 and 1.
+	 */
+	private final double probability;
+
+	/**
+	 * Trace ids in the range <code>(-boundary, boundary)</code> are sampled.
+	 */
+	private final long boundary;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param probability
+	 *            Probability of sampling, between 0 and 1.
+	 * @throws IllegalArgumentException
+	 *             If probability is not between 0 and 1.
+	 */
+	public ProbabilisticSampler(double probability) throws IllegalArgumentException {
+		if ((probability < 0d) || (probability > 1d)) {
+			throw new IllegalArgumentException("Sampling probability must be between 0 and 1, but was " + probability + ".");
+		}
+		this.probability = probability;
+		this.boundary = (long) (Long.MAX_VALUE * probability);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isSampled(long traceId, String operationName) {
+		if (probability >= 1d) {
+			return true;
+		}
+		return (traceId < boundary) && (traceId > -boundary);
+	}
+
+	/**
+	 * Gets {@link #probability}.
+	 *
+	 * @return {@link #probability}
+	 */
+	public double getProbability() {
+		return this.probability;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "ProbabilisticSampler [probability=" + this.probability + "]";
+	}
+
+}
@@ -0,0 +1,114 @@
+package rocks.inspectit.agent.java.sdk.opentracing.sampling;
+
+import rocks.inspectit.agent.java.sdk.opentracing.Sampler;
+import rocks.inspectit.agent.java.sdk.opentracing.Timer;
+import rocks.inspectit.agent.java.sdk.opentracing.util.SystemTimer;
+
+/**
+ * Sampler that samples at most the given amount of traces per second. The sampler works as a token
+ * bucket that is refilled with the given rate and can hold at most the tokens for one second, so
+ * that bursts are also bounded.
+ *
+ * @author agent
+ *
+ */
+public class RateLimitingSampler implements Sampler {
+
+	/**
+	 * Nanoseconds in one second.
+	 */
+	private static final double NANOS_IN_SECOND = 1000000000d;
+
+	/**
+	 * Maximum amount of traces sampled per second.
+	 */
+	private final double maxTracesPerSecond;
+
+	/**
+	 * Maximum amount of tokens the bucket can hold. At least one token when rate is positive, so
+	 * that rates smaller than one trace per second can be sampled.
+	 */
+	private final double maxBalance;
+
+	/**
+	 * Timer to use.
+	 */
+	private final Timer timer;
+
+	/**
+	 * Currently available tokens.
+	 */
+	private double balance;
+
+	/**
+	 * Nano time of the last balance update.
+	 */
+	private long lastTick;
+
+	/**
+	 * Creates the sampler that uses the {@link SystemTimer}.
+	 *
+	 * @param maxTracesPerSecond
+	 *            Maximum amount of traces sampled per second.
+	 */
+	public RateLimitingSampler(double maxTracesPerSecond) {
+		this(maxTracesPerSecond, new SystemTimer());
+	}
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param maxTracesPerSecond
+	 *            Maximum amount of traces sampled per second. Must not be negative.
+	 * @param timer
+	 *            Timer to use. Must not be <code>null</code>.
+	 * @throws IllegalArgumentException
+	 *             If max traces per second is negative or timer is <code>null</code>.
+	 */
+	public RateLimitingSampler(double maxTracesPerSecond, Timer timer) throws IllegalArgumentException {
+		if (maxTracesPerSecond < 0d) {
+			throw new IllegalArgumentException("Max traces per second must not be negative, but was " + maxTracesPerSecond + ".");
+		}
+		if (null == timer) {
+			throw new IllegalArgumentException("Timer can not be null.");
+		}
+		this.maxTracesPerSecond = maxTracesPerSecond;
+		this.timer = timer;
+		this.maxBalance = (maxTracesPerSecond > 0d) ? Math.max(1d, maxTracesPerSecond) : 0d;
+		this.balance = maxBalance;
+		this.lastTick = timer.getCurrentNanoTime();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized boolean isSampled(long traceId, String operationName) {
+		long now = timer.getCurrentNanoTime();
+		balance = Math.min(maxBalance, balance + (((now - lastTick) / NANOS_IN_SECOND) * maxTracesPerSecond));
+		lastTick = now;
+		if (balance >= 1d) {
+			balance -= 1d;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Gets {@link #maxTracesPerSecond}.
+	 *
+	 * @return {@link #maxTracesPerSecond}
+	 */
+	public double getMaxTracesPerSecond() {
+		return this.maxTracesPerSecond;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "RateLimitingSampler [maxTracesPerSecond=" + this.maxTracesPerSecond + "]";
+	}
+
+}
@@ -0,0 +1,211 @@
+package rocks.inspectit.agent.java.sdk.opentracing.sampling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.opentracing.tag.Tags;
+import rocks.inspectit.agent.java.sdk.opentracing.Reporter;
+import rocks.inspectit.agent.java.sdk.opentracing.internal.impl.SpanImpl;
+
+/**
+ * Tail sampler keeps only the slow or erroneous traces. Finished spans of a sampled trace are held
+ * back until the decision for the trace is made:
+ * <ul>
+ * <li>as soon as one span of the trace is slower than the threshold or is tagged with the
+ * {@link Tags#ERROR} the trace is kept and all held spans are reported,
+ * <li>when the span that started the trace in the current thread finishes and no such span was
+ * found the trace is dropped.
+ * </ul>
+ * Decisions are remembered for the {@link #maxTraces} last traces, so that spans finishing after
+ * the decision (for example in other threads) are handled in the same way.
+ * <p>
+ * The amount of held spans is bounded. If the trace holds more than {@link #maxSpansPerTrace}
+ * spans, the trace is kept. If more than {@link #maxTraces} traces are waiting for the decision,
+ * spans of the new traces are reported without holding them back.
+ *
+ * @author agent
+ *
+ */
+public class TailSampler {
+
+	/**
+	 * Default maximum amount of traces waiting for the decision.
+	 */
+	public static final int DEFAULT_MAX_TRACES = 1000;
+
+	/**
+	 * Default maximum amount of spans held for one trace.
+	 */
+	public static final int DEFAULT_MAX_SPANS_PER_TRACE = 500;
+
+	/**
+	 * Spans with duration equal or higher than this threshold keep the trace.
+	 */
+	private final double latencyThresholdMicros;
+
+	/**
+	 * Maximum amount of traces waiting for the decision.
+	 */
+	private final int maxTraces;
+
+	/**
+	 * Maximum amount of spans held for one trace.
+	 */
+	private final int maxSpansPerTrace;
+
+	/**
+	 * Held spans by the trace id.
+	 */
+	private final Map<Long, List<SpanImpl>> pending = new HashMap<Long, List<SpanImpl>>();
+
+	/**
+	 * Decisions for the last traces.
+	 */
+	private final Map<Long, Boolean> decisions;
+
+	/**
+	 * Creates the tail sampler with {@link #DEFAULT_MAX_TRACES} and
+	 * {@link #DEFAULT_MAX_SPANS_PER_TRACE}.
+	 *
+	 * @param latencyThresholdMicros
+	 *            Spans with duration equal or higher than this threshold in microseconds keep the
+	 *            trace.
+	 */
+	public TailSampler(long latencyThresholdMicros) {
+		this(latencyThresholdMicros, DEFAULT_MAX_TRACES, DEFAULT_MAX_SPANS_PER_TRACE);
+	}
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param latencyThresholdMicros
+	 *            Spans with duration equal or higher than this threshold in microseconds keep the
+	 *            trace.
+	 * @param maxTraces
+	 *            Maximum amount of traces waiting for the decision. Must be positive.
+	 * @param maxSpansPerTrace
+	 *            Maximum amount of spans held for one trace. Must be positive.
+	 * @throws IllegalArgumentException
+	 *             If max traces or max spans per trace are not positive.
+	 */
+	public TailSampler(long latencyThresholdMicros, final int maxTraces, int maxSpansPerTrace) throws IllegalArgumentException {
+		if ((maxTraces <= 0) || (maxSpansPerTrace <= 0)) {
+			throw new IllegalArgumentException("Max traces and max spans per trace must be positive.");
+		}
+		this.latencyThresholdMicros = latencyThresholdMicros;
+		this.maxTraces = maxTraces;
+		this.maxSpansPerTrace = maxSpansPerTrace;
+		this.decisions = new LinkedHashMap<Long, Boolean>(16, 0.75f, true) {
+
+			/**
+			 * Generated UID.
+			 */
+			private static final long serialVersionUID = -3567401342370916577L;
+
+			/**
+			 * {@inheritDoc}
+			 */
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+				return size() > maxTraces;
+			}
+		};
+	}
+
+	/**
+	 * Handles the finished span. Reports the span and all held spans of the trace to the reporter
+	 * if the trace is kept. Spans that should not be reported take part in the decision only.
+	 *
+	 * @param span
+	 *            Finished span.
+	 * @param report
+	 *            If the span should be reported when the trace is kept.
+	 * @param segmentFinished
+	 *            If the span is the one that started the trace in the current thread.
+	 * @param reporter
+	 *            Reporter to report the kept spans to.
+	 */
+	public void spanFinished(SpanImpl span, boolean report, boolean segmentFinished, Reporter reporter) {
+		List<SpanImpl> toReport = null;
+		Long traceId = Long.valueOf(span.context().getTraceId());
+
+		synchronized (this) {
+			Boolean decision = decisions.get(traceId);
+			if (null != decision) {
+				if (decision.booleanValue() && report) {
+					toReport = Collections.singletonList(span);
+				}
+			} else {
+				List<SpanImpl> spans = pending.get(traceId);
+				if (null == spans) {
+					if (pending.size() >= maxTraces) {
+						// can not hold more, report directly
+						if (report) {
+							toReport = Collections.singletonList(span);
+						}
+					} else {
+						spans = new ArrayList<SpanImpl>(4);
+						pending.put(traceId, spans);
+					}
+				}
+
+				if (null != spans) {
+					if (report) {
+						spans.add(span);
+					}
+					boolean keep = isKept(span) || (spans.size() >= maxSpansPerTrace);
+					if (keep || segmentFinished) {
+						pending.remove(traceId);
+						decisions.put(traceId, Boolean.valueOf(keep));
+						if (keep) {
+							toReport = spans;
+						}
+					}
+				}
+			}
+		}
+
+		if (null != toReport) {
+			for (SpanImpl spanToReport : toReport) {
+				reporter.report(spanToReport);
+			}
+		}
+	}
+
+	/**
+	 * Returns the amount of traces waiting for the decision.
+	 *
+	 * @return Returns the amount of traces waiting for the decision.
+	 */
+	public synchronized int getPendingTraceCount() {
+		return pending.size();
+	}
+
+	/**
+	 * Returns if the span keeps its trace.
+	 *
+	 * @param span
+	 *            Span.
+	 * @return <code>true</code> if span is slower than threshold or has an error.
+	 */
+	private boolean isKept(SpanImpl span) {
+		if (span.getDuration() >= latencyThresholdMicros) {
+			return true;
+		}
+		Map<String, String> tags = span.getTags();
+		return (null != tags) && Boolean.TRUE.toString().equals(tags.get(Tags.ERROR.getKey()));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "TailSampler [latencyThresholdMicros=" + this.latencyThresholdMicros + ", maxTraces=" + this.maxTraces + ", maxSpansPerTrace=" + this.maxSpansPerTrace + "]";
+	}
+
+}
@@ -0,0 +1,17 @@
+/**
+ * Contains the {@link rocks.inspectit.agent.java.sdk.opentracing.Sampler} implementations and the
+ * {@link rocks.inspectit.agent.java.sdk.opentracing.sampling.TailSampler} that can be set to the
+ * {@link rocks.inspectit.agent.java.sdk.opentracing.ExtendedTracer}.
+ * <p>
+ * Typical usage:
+ * <p>
+ * <code>
+ * ExtendedTracer tracer = TracerProvider.get();<br>
+ * tracer.setSampler(new PerOperationSampler(0.01d, 1d));<br>
+ * tracer.setTailSampler(new TailSampler(500000L));
+ * </code>
+ *
+ * @author agent
+ *
+ */
+package rocks.inspectit.agent.java.sdk.opentracing.sampling;
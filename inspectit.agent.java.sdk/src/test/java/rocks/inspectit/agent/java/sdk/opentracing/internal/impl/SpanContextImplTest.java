@@ -4,6 +4,11 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.util.Collections;
 import java.util.Map.Entry;
@@ -11,6 +16,7 @@ import java.util.Map.Entry;
 import org.testng.annotations.Test;
 
 import io.opentracing.References;
+import rocks.inspectit.agent.java.sdk.opentracing.Sampler;
 
 /**
  * @author Ivan Senic
@@ -103,6 +109,36 @@ public class SpanContextImplTest {
 			assertThat(context.getReferenceType(), is(nullValue()));
 		}
 
+		@Test
+		public void rootContextSampler() {
+			Sampler sampler = mock(Sampler.class);
+			when(sampler.isSampled(anyLong(), eq("op"))).thenReturn(false);
+
+			SpanContextImpl context = SpanContextImpl.build(null, sampler, "op");
+
+			assertThat(context.getTraceId(), is(context.getId()));
+			assertThat(context.isSampled(), is(false));
+			verify(sampler).isSampled(context.getTraceId(), "op");
+		}
+
+		@Test
+		public void childContextNotSampled() {
+			SpanContextImpl parent = new SpanContextImpl(1L, 2L, 1L, null, null, false);
+
+			SpanContextImpl context = SpanContextImpl.build(parent, References.CHILD_OF, Collections.<String, String> emptyMap());
+
+			assertThat(context.getTraceId(), is(2L));
+			assertThat(context.isSampled(), is(false));
+		}
+
+		@Test
+		public void extractedContextNotSampled() {
+			SpanContextImpl context = SpanContextImpl.buildExtractedContext(1L, 2L, null, false);
+
+			assertThat(context.getTraceId(), is(2L));
+			assertThat(context.isSampled(), is(false));
+		}
+
 		@Test
 		public void extractedContext() {
 			long id = 1;
@@ -120,4 +156,40 @@ public class SpanContextImplTest {
 		}
 	}
 
+	public static class SetBaggageItem extends SpanContextImplTest {
+
+		@Test
+		public void noBaggage() {
+			SpanContextImpl context = SpanContextImpl.build();
+
+			context.setBaggageItem("k", "v");
+
+			assertThat(context.getBaggageItem("k"), is("v"));
+			assertThat(context.baggageItems().iterator().hasNext(), is(true));
+		}
+
+		@Test
+		public void getNoBaggage() {
+			SpanContextImpl context = SpanContextImpl.build();
+
+			assertThat(context.getBaggageItem("k"), is(nullValue()));
+		}
+	}
+
+	public static class Equals extends SpanContextImplTest {
+
+		@Test
+		public void noBaggageEqualsEmptyBaggage() {
+			SpanContextImpl context1 = new SpanContextImpl(1L, 2L, 3L, null, null);
+			SpanContextImpl context2 = new SpanContextImpl(1L, 2L, 3L, null, Collections.<String, String> emptyMap());
+			context2.setBaggageItem("k", "v");
+			SpanContextImpl context3 = new SpanContextImpl(1L, 2L, 3L, null, null);
+
+			assertThat(context1, is(context3));
+			assertThat(context1.hashCode(), is(context3.hashCode()));
+			assertThat(context1, is(not(context2)));
+			assertThat(context2, is(not(context1)));
+		}
+	}
+
 }
@@ -0,0 +1,125 @@
+package rocks.inspectit.agent.java.sdk.opentracing.internal.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import org.mockito.Mock;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class SpanStackTest extends TestBase {
+
+	SpanStack stack;
+
+	@Mock
+	TracerImpl tracer;
+
+	@BeforeMethod
+	public void init() {
+		stack = new SpanStack();
+	}
+
+	public static class Push extends SpanStackTest {
+
+		@Test
+		public void empty() {
+			assertThat(stack.isEmpty(), is(true));
+			assertThat(stack.size(), is(0));
+			assertThat(stack.peek(), is(nullValue()));
+		}
+
+		@Test
+		public void pushed() {
+			SpanImpl span1 = new SpanImpl(tracer);
+			SpanImpl span2 = new SpanImpl(tracer);
+
+			stack.push(span1);
+			stack.push(span2);
+
+			assertThat(stack.isEmpty(), is(false));
+			assertThat(stack.size(), is(2));
+			assertThat(stack.peek(), is(span2));
+		}
+
+		@Test
+		public void overCapacity() {
+			SpanImpl last = null;
+			for (int i = 0; i < 100; i++) {
+				last = new SpanImpl(tracer);
+				stack.push(last);
+			}
+
+			assertThat(stack.size(), is(100));
+			assertThat(stack.peek(), is(last));
+		}
+	}
+
+	public static class PopTo extends SpanStackTest {
+
+		@Test
+		public void last() {
+			SpanImpl span1 = new SpanImpl(tracer);
+			SpanImpl span2 = new SpanImpl(tracer);
+			stack.push(span1);
+			stack.push(span2);
+
+			int removed = stack.popTo(span2);
+
+			assertThat(removed, is(1));
+			assertThat(stack.size(), is(1));
+			assertThat(stack.peek(), is(span1));
+		}
+
+		@Test
+		public void middle() {
+			SpanImpl span1 = new SpanImpl(tracer);
+			SpanImpl span2 = new SpanImpl(tracer);
+			SpanImpl span3 = new SpanImpl(tracer);
+			stack.push(span1);
+			stack.push(span2);
+			stack.push(span3);
+
+			int removed = stack.popTo(span2);
+
+			assertThat(removed, is(2));
+			assertThat(stack.size(), is(1));
+			assertThat(stack.peek(), is(span1));
+		}
+
+		@Test
+		public void notInStack() {
+			SpanImpl span1 = new SpanImpl(tracer);
+			stack.push(span1);
+
+			int removed = stack.popTo(new SpanImpl(tracer));
+
+			assertThat(removed, is(0));
+			assertThat(stack.size(), is(1));
+			assertThat(stack.peek(), is(span1));
+		}
+
+		@Test
+		public void comparedByIdentity() {
+			SpanImpl span1 = new SpanImpl(tracer);
+			span1.setSpanContext(new SpanContextImpl(1L, 1L, 1L, null, null));
+			SpanImpl span2 = new SpanImpl(tracer);
+			span2.setSpanContext(new SpanContextImpl(1L, 1L, 1L, null, null));
+			stack.push(span1);
+			stack.push(span2);
+
+			int removed = stack.popTo(span1);
+
+			assertThat(removed, is(2));
+			assertThat(stack.isEmpty(), is(true));
+		}
+	}
+
+}
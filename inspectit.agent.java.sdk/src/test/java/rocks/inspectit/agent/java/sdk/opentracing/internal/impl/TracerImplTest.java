@@ -18,11 +18,14 @@ import io.opentracing.References;
 import io.opentracing.SpanContext;
 import io.opentracing.propagation.Format;
 import io.opentracing.propagation.TextMap;
+import io.opentracing.tag.Tags;
 import rocks.inspectit.agent.java.sdk.opentracing.ExtendedTracer;
 import rocks.inspectit.agent.java.sdk.opentracing.Reporter;
+import rocks.inspectit.agent.java.sdk.opentracing.Sampler;
 import rocks.inspectit.agent.java.sdk.opentracing.Timer;
 import rocks.inspectit.agent.java.sdk.opentracing.TracerProvider;
 import rocks.inspectit.agent.java.sdk.opentracing.propagation.Propagator;
+import rocks.inspectit.agent.java.sdk.opentracing.sampling.TailSampler;
 import rocks.inspectit.shared.all.testbase.TestBase;
 
 /**
@@ -361,6 +364,26 @@ public class TracerImplTest extends TestBase {
 			verifyNoMoreInteractions(reporter);
 		}
 
+		@Test
+		public void threeSpansMiddleEnds() {
+			SpanImpl span1 = new SpanImpl(tracer);
+			span1.setSpanContext(SpanContextImpl.build());
+			SpanImpl span2 = new SpanImpl(tracer);
+			span2.setSpanContext(SpanContextImpl.build());
+			SpanImpl span3 = new SpanImpl(tracer);
+			span3.setSpanContext(SpanContextImpl.build());
+			tracer.spanStarted(span1);
+			tracer.spanStarted(span2);
+			tracer.spanStarted(span3);
+
+			tracer.spanEnded(span2);
+
+			assertThat(tracer.getCurrentContext(), is(span1.context()));
+			assertThat(tracer.isCurrentContextExisting(), is(true));
+			verify(reporter).report(span2);
+			verifyNoMoreInteractions(reporter);
+		}
+
 		@Test
 		public void twoSpansOneNotStarted() {
 			SpanImpl span1 = new SpanImpl(tracer);
@@ -376,6 +399,166 @@ public class TracerImplTest extends TestBase {
 			verify(reporter).report(span2);
 			verifyNoMoreInteractions(reporter);
 		}
+
+		@Test
+		public void notSampled() {
+			SpanImpl span = new SpanImpl(tracer);
+			span.setSpanContext(new SpanContextImpl(1L, 1L, 1L, null, null, false));
+			tracer.spanStarted(span);
+
+			tracer.spanEnded(span);
+
+			assertThat(tracer.isCurrentContextExisting(), is(false));
+			verifyZeroInteractions(reporter);
+		}
+
+		@Test
+		public void tailSamplerDropsFastTrace() {
+			tracer.setTailSampler(new TailSampler(1000L));
+			SpanImpl span1 = new SpanImpl(tracer);
+			span1.setSpanContext(new SpanContextImpl(1L, 1L, 1L, null, null, true));
+			SpanImpl span2 = new SpanImpl(tracer);
+			span2.setSpanContext(new SpanContextImpl(2L, 1L, 1L, null, null, true));
+			tracer.spanStarted(span1);
+			tracer.spanStarted(span2);
+
+			tracer.spanEnded(span2);
+			tracer.spanEnded(span1);
+
+			verifyZeroInteractions(reporter);
+		}
+
+		@Test
+		public void tailSamplerKeepsErroneousTrace() {
+			tracer.setTailSampler(new TailSampler(1000L));
+			SpanImpl span1 = new SpanImpl(tracer);
+			span1.setSpanContext(new SpanContextImpl(1L, 1L, 1L, null, null, true));
+			span1.setReport(false);
+			SpanImpl span2 = new SpanImpl(tracer);
+			span2.setSpanContext(new SpanContextImpl(2L, 1L, 1L, null, null, true));
+			tracer.spanStarted(span1);
+			tracer.spanStarted(span2);
+
+			tracer.spanEnded(span2);
+			verifyZeroInteractions(reporter);
+			span1.setTag(Tags.ERROR.getKey(), true);
+			tracer.spanEnded(span1);
+
+			verify(reporter).report(span2);
+			verifyNoMoreInteractions(reporter);
+		}
+
+		@Test
+		public void ownReporter() {
+			Reporter ownReporter = mock(Reporter.class);
+			SpanImpl span = new SpanImpl(tracer);
+			span.setSpanContext(SpanContextImpl.build());
+			span.setReport(false);
+			span.reportTo(ownReporter);
+			tracer.spanStarted(span);
+
+			tracer.spanEnded(span);
+
+			verify(ownReporter).report(span);
+			verifyNoMoreInteractions(ownReporter);
+			verifyZeroInteractions(reporter);
+		}
+
+		@Test
+		public void ownReporterNotSampled() {
+			Reporter ownReporter = mock(Reporter.class);
+			SpanImpl span = new SpanImpl(tracer);
+			span.setSpanContext(new SpanContextImpl(1L, 1L, 1L, null, null, false));
+			span.reportTo(ownReporter);
+			tracer.spanStarted(span);
+
+			tracer.spanEnded(span);
+
+			verifyZeroInteractions(ownReporter, reporter);
+		}
+
+		@Test
+		public void tailSamplerDropsOwnReporterSpans() {
+			Reporter ownReporter = mock(Reporter.class);
+			tracer.setTailSampler(new TailSampler(1000L));
+			SpanImpl span1 = new SpanImpl(tracer);
+			span1.setSpanContext(new SpanContextImpl(1L, 1L, 1L, null, null, true));
+			span1.reportTo(ownReporter);
+			SpanImpl span2 = new SpanImpl(tracer);
+			span2.setSpanContext(new SpanContextImpl(2L, 1L, 1L, null, null, true));
+			span2.reportTo(ownReporter);
+			tracer.spanStarted(span1);
+			tracer.spanStarted(span2);
+
+			tracer.spanEnded(span2);
+			tracer.spanEnded(span1);
+
+			verifyZeroInteractions(ownReporter, reporter);
+		}
+
+		@Test
+		public void tailSamplerKeepsOwnReporterSpans() {
+			Reporter ownReporter = mock(Reporter.class);
+			tracer.setTailSampler(new TailSampler(1000L));
+			SpanImpl span1 = new SpanImpl(tracer);
+			span1.setSpanContext(new SpanContextImpl(1L, 1L, 1L, null, null, true));
+			span1.reportTo(ownReporter);
+			SpanImpl span2 = new SpanImpl(tracer);
+			span2.setSpanContext(new SpanContextImpl(2L, 1L, 1L, null, null, true));
+			tracer.spanStarted(span1);
+			tracer.spanStarted(span2);
+
+			tracer.spanEnded(span2);
+			span1.setTag(Tags.ERROR.getKey(), true);
+			tracer.spanEnded(span1);
+
+			verify(reporter).report(span2);
+			verify(ownReporter).report(span1);
+			verifyNoMoreInteractions(reporter, ownReporter);
+		}
+	}
+
+	public static class SetSampler extends TracerImplTest {
+
+		@Test(expectedExceptions = IllegalArgumentException.class)
+		public void samplerNull() {
+			tracer.setSampler(null);
+		}
+
+		@Test
+		public void defaultSamplesAll() {
+			when(timer.getCurrentTimeMicroseconds()).thenReturn(1L);
+
+			SpanImpl span = tracer.buildSpan("op").start();
+
+			assertThat(span.context().isSampled(), is(true));
+		}
+
+		@Test
+		public void newTraceDecidedBySampler() {
+			when(timer.getCurrentTimeMicroseconds()).thenReturn(1L);
+			Sampler sampler = mock(Sampler.class);
+			tracer.setSampler(sampler);
+
+			SpanImpl span = tracer.buildSpan("op").start();
+
+			assertThat(span.context().isSampled(), is(false));
+			verify(sampler).isSampled(span.context().getTraceId(), "op");
+		}
+
+		@Test
+		public void childTakesParentDecision() {
+			when(timer.getCurrentTimeMicroseconds()).thenReturn(1L);
+			Sampler sampler = mock(Sampler.class);
+			SpanImpl parent = tracer.buildSpan("parent").start();
+			tracer.setSampler(sampler);
+
+			SpanImpl span = tracer.buildSpan("op").start();
+
+			assertThat(span.context().isSampled(), is(parent.context().isSampled()));
+			verifyZeroInteractions(sampler);
+		}
+
 	}
 
 	public static class SetTimer extends TracerImplTest {
@@ -45,9 +45,19 @@ public class UrlEncodingPropagatorTest extends TestBase {
 
 			verify(carrier).put(PropagationConstants.SPAN_ID, ConversionUtils.toHexString(context.getId()));
 			verify(carrier).put(PropagationConstants.TRACE_ID, ConversionUtils.toHexString(context.getTraceId()));
+			verify(carrier).put(PropagationConstants.SAMPLED, PropagationConstants.SAMPLED_VALUE);
 			verifyNoMoreInteractions(carrier);
 		}
 
+		@Test
+		public void notSampled() {
+			SpanContextImpl context = new SpanContextImpl(1L, 2L, 1L, null, null, false);
+
+			propagator.inject(context, carrier);
+
+			verify(carrier).put(PropagationConstants.SAMPLED, PropagationConstants.NOT_SAMPLED_VALUE);
+		}
+
 		@Test
 		public void baggage() {
 			SpanContextImpl context = SpanContextImpl.build();
@@ -80,6 +90,22 @@ public class UrlEncodingPropagatorTest extends TestBase {
 
 			assertThat(context.getId(), is(1L));
 			assertThat(context.getTraceId(), is(2L));
+			assertThat(context.isSampled(), is(true));
+			assertThat(context.baggageItems().iterator().hasNext(), is(false));
+		}
+
+		@Test
+		public void notSampled() {
+			Map<String, String> map = new HashMap<String, String>();
+			map.put(PropagationConstants.SPAN_ID, ConversionUtils.toHexString(1L));
+			map.put(PropagationConstants.TRACE_ID, ConversionUtils.toHexString(2L));
+			map.put(PropagationConstants.SAMPLED, PropagationConstants.NOT_SAMPLED_VALUE);
+			when(carrier.iterator()).thenReturn(map.entrySet().iterator());
+
+			SpanContextImpl context = propagator.extract(carrier);
+
+			assertThat(context.getId(), is(1L));
+			assertThat(context.isSampled(), is(false));
 			assertThat(context.baggageItems().iterator().hasNext(), is(false));
 		}
 
@@ -0,0 +1,98 @@
+package rocks.inspectit.agent.java.sdk.opentracing.sampling;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+
+import org.mockito.Mock;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.agent.java.sdk.opentracing.Timer;
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class PerOperationSamplerTest extends TestBase {
+
+	private static final long SECOND = 1000000000L;
+
+	@Mock
+	Timer timer;
+
+	public static class IsSampled extends PerOperationSamplerTest {
+
+		@Test
+		public void rareOperationAlwaysSampled() {
+			when(timer.getCurrentNanoTime()).thenReturn(0L);
+			PerOperationSampler sampler = new PerOperationSampler(2d, 0d, 10, timer);
+
+			assertThat(sampler.isSampled(Long.MAX_VALUE, "op"), is(true));
+			assertThat(sampler.isSampled(Long.MAX_VALUE, "op"), is(true));
+			assertThat(sampler.getProbability("op"), is(1d));
+		}
+
+		@Test
+		public void limitedInWindow() {
+			when(timer.getCurrentNanoTime()).thenReturn(0L);
+			PerOperationSampler sampler = new PerOperationSampler(2d, 0d, 10, timer);
+
+			assertThat(sampler.isSampled(1L, "op"), is(true));
+			assertThat(sampler.isSampled(2L, "op"), is(true));
+			assertThat(sampler.isSampled(3L, "op"), is(false));
+			// other operation has own budget
+			assertThat(sampler.isSampled(4L, "other"), is(true));
+		}
+
+		@Test
+		public void probabilityAdapted() {
+			when(timer.getCurrentNanoTime()).thenReturn(0L);
+			PerOperationSampler sampler = new PerOperationSampler(2d, 0d, 10, timer);
+			for (int i = 0; i < 8; i++) {
+				sampler.isSampled(i, "op");
+			}
+
+			when(timer.getCurrentNanoTime()).thenReturn(SECOND);
+
+			assertThat(sampler.isSampled(Long.MAX_VALUE / 8, "op"), is(true));
+			assertThat(sampler.getProbability("op"), is(closeTo(0.25d, 0.0001d)));
+			assertThat(sampler.isSampled(Long.MAX_VALUE / 2, "op"), is(false));
+		}
+
+		@Test
+		public void probabilityResetAfterIdle() {
+			when(timer.getCurrentNanoTime()).thenReturn(0L);
+			PerOperationSampler sampler = new PerOperationSampler(2d, 0d, 10, timer);
+			for (int i = 0; i < 8; i++) {
+				sampler.isSampled(i, "op");
+			}
+
+			when(timer.getCurrentNanoTime()).thenReturn(5 * SECOND);
+
+			assertThat(sampler.isSampled(Long.MAX_VALUE / 2, "op"), is(true));
+			assertThat(sampler.getProbability("op"), is(1d));
+		}
+
+		@Test
+		public void maxOperationsExceeded() {
+			when(timer.getCurrentNanoTime()).thenReturn(0L);
+			PerOperationSampler sampler = new PerOperationSampler(2d, 0d, 1, timer);
+			sampler.isSampled(1L, "op");
+
+			assertThat(sampler.isSampled(2L, "other"), is(false));
+			assertThat(sampler.getProbability("other"), is(0d));
+		}
+
+		@Test
+		public void noOperationName() {
+			when(timer.getCurrentNanoTime()).thenReturn(0L);
+			PerOperationSampler sampler = new PerOperationSampler(2d, 0d, 10, timer);
+
+			assertThat(sampler.isSampled(1L, null), is(false));
+		}
+	}
+
+}
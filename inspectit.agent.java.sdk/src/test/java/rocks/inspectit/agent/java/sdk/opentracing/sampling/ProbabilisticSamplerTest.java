@@ -0,0 +1,54 @@
+package rocks.inspectit.agent.java.sdk.opentracing.sampling;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import org.testng.annotations.Test;
+
+/**
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class ProbabilisticSamplerTest {
+
+	public static class IsSampled extends ProbabilisticSamplerTest {
+
+		@Test
+		public void all() {
+			ProbabilisticSampler sampler = new ProbabilisticSampler(1d);
+
+			assertThat(sampler.isSampled(Long.MAX_VALUE, null), is(true));
+			assertThat(sampler.isSampled(Long.MIN_VALUE, null), is(true));
+		}
+
+		@Test
+		public void none() {
+			ProbabilisticSampler sampler = new ProbabilisticSampler(0d);
+
+			assertThat(sampler.isSampled(0L, null), is(false));
+			assertThat(sampler.isSampled(Long.MAX_VALUE, null), is(false));
+		}
+
+		@Test
+		public void half() {
+			ProbabilisticSampler sampler = new ProbabilisticSampler(0.5d);
+
+			assertThat(sampler.isSampled(Long.MAX_VALUE / 4, null), is(true));
+			assertThat(sampler.isSampled(Long.MIN_VALUE / 4, null), is(true));
+			assertThat(sampler.isSampled((Long.MAX_VALUE / 4) * 3, null), is(false));
+			assertThat(sampler.isSampled((Long.MIN_VALUE / 4) * 3, null), is(false));
+		}
+
+		@Test(expectedExceptions = IllegalArgumentException.class)
+		public void probabilityTooHigh() {
+			new ProbabilisticSampler(1.1d);
+		}
+
+		@Test(expectedExceptions = IllegalArgumentException.class)
+		public void probabilityNegative() {
+			new ProbabilisticSampler(-0.1d);
+		}
+	}
+
+}
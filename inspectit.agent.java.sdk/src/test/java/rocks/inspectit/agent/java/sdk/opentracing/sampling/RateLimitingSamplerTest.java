@@ -0,0 +1,80 @@
+package rocks.inspectit.agent.java.sdk.opentracing.sampling;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+
+import org.mockito.Mock;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.agent.java.sdk.opentracing.Timer;
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class RateLimitingSamplerTest extends TestBase {
+
+	private static final long SECOND = 1000000000L;
+
+	@Mock
+	Timer timer;
+
+	public static class IsSampled extends RateLimitingSamplerTest {
+
+		@Test
+		public void limited() {
+			when(timer.getCurrentNanoTime()).thenReturn(0L);
+			RateLimitingSampler sampler = new RateLimitingSampler(2d, timer);
+
+			assertThat(sampler.isSampled(1L, null), is(true));
+			assertThat(sampler.isSampled(2L, null), is(true));
+			assertThat(sampler.isSampled(3L, null), is(false));
+		}
+
+		@Test
+		public void refilled() {
+			when(timer.getCurrentNanoTime()).thenReturn(0L);
+			RateLimitingSampler sampler = new RateLimitingSampler(2d, timer);
+			sampler.isSampled(1L, null);
+			sampler.isSampled(2L, null);
+
+			when(timer.getCurrentNanoTime()).thenReturn(SECOND / 2);
+
+			assertThat(sampler.isSampled(3L, null), is(true));
+			assertThat(sampler.isSampled(4L, null), is(false));
+		}
+
+		@Test
+		public void burstBounded() {
+			when(timer.getCurrentNanoTime()).thenReturn(0L);
+			RateLimitingSampler sampler = new RateLimitingSampler(2d, timer);
+
+			when(timer.getCurrentNanoTime()).thenReturn(10 * SECOND);
+
+			assertThat(sampler.isSampled(1L, null), is(true));
+			assertThat(sampler.isSampled(2L, null), is(true));
+			assertThat(sampler.isSampled(3L, null), is(false));
+		}
+
+		@Test
+		public void lessThanOnePerSecond() {
+			when(timer.getCurrentNanoTime()).thenReturn(0L);
+			RateLimitingSampler sampler = new RateLimitingSampler(0.5d, timer);
+
+			assertThat(sampler.isSampled(1L, null), is(true));
+			when(timer.getCurrentNanoTime()).thenReturn(SECOND);
+			assertThat(sampler.isSampled(2L, null), is(false));
+			when(timer.getCurrentNanoTime()).thenReturn(2 * SECOND);
+			assertThat(sampler.isSampled(3L, null), is(true));
+		}
+
+		@Test(expectedExceptions = IllegalArgumentException.class)
+		public void negativeRate() {
+			new RateLimitingSampler(-1d, timer);
+		}
+	}
+
+}
@@ -0,0 +1,153 @@
+package rocks.inspectit.agent.java.sdk.opentracing.sampling;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.testng.annotations.Test;
+
+import io.opentracing.tag.Tags;
+import rocks.inspectit.agent.java.sdk.opentracing.Reporter;
+import rocks.inspectit.agent.java.sdk.opentracing.internal.impl.SpanContextImpl;
+import rocks.inspectit.agent.java.sdk.opentracing.internal.impl.SpanImpl;
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class TailSamplerTest extends TestBase {
+
+	private static final long THRESHOLD = 1000L;
+
+	@Mock
+	Reporter reporter;
+
+	/**
+	 * Creates span mock for the given trace with given duration.
+	 */
+	SpanImpl span(long traceId, double duration) {
+		SpanImpl span = mock(SpanImpl.class);
+		when(span.context()).thenReturn(new SpanContextImpl(traceId, traceId, traceId, null, null));
+		when(span.getDuration()).thenReturn(duration);
+		return span;
+	}
+
+	public static class SpanFinished extends TailSamplerTest {
+
+		@Test
+		public void fastTraceDropped() {
+			TailSampler sampler = new TailSampler(THRESHOLD);
+			SpanImpl child = span(1L, 10d);
+			SpanImpl root = span(1L, 20d);
+
+			sampler.spanFinished(child, true, false, reporter);
+			sampler.spanFinished(root, true, true, reporter);
+
+			verifyZeroInteractions(reporter);
+			assertThat(sampler.getPendingTraceCount(), is(0));
+		}
+
+		@Test
+		public void slowTraceKept() {
+			TailSampler sampler = new TailSampler(THRESHOLD);
+			SpanImpl child = span(1L, 10d);
+			SpanImpl root = span(1L, THRESHOLD);
+
+			sampler.spanFinished(child, true, false, reporter);
+			sampler.spanFinished(root, true, true, reporter);
+
+			InOrder inOrder = inOrder(reporter);
+			inOrder.verify(reporter).report(child);
+			inOrder.verify(reporter).report(root);
+			verifyNoMoreInteractions(reporter);
+		}
+
+		@Test
+		public void errorKeepsImmediately() {
+			TailSampler sampler = new TailSampler(THRESHOLD);
+			SpanImpl child = span(1L, 10d);
+			SpanImpl error = span(1L, 10d);
+			when(error.getTags()).thenReturn(Collections.singletonMap(Tags.ERROR.getKey(), "true"));
+			SpanImpl late = span(1L, 10d);
+
+			sampler.spanFinished(child, true, false, reporter);
+			sampler.spanFinished(error, true, false, reporter);
+
+			verify(reporter).report(child);
+			verify(reporter).report(error);
+
+			// decision remembered
+			sampler.spanFinished(late, true, true, reporter);
+			verify(reporter).report(late);
+			verifyNoMoreInteractions(reporter);
+		}
+
+		@Test
+		public void dropDecisionRemembered() {
+			TailSampler sampler = new TailSampler(THRESHOLD);
+			sampler.spanFinished(span(1L, 10d), true, true, reporter);
+
+			sampler.spanFinished(span(1L, THRESHOLD * 2), true, true, reporter);
+
+			verifyZeroInteractions(reporter);
+		}
+
+		@Test
+		public void notReportedSpanDecides() {
+			TailSampler sampler = new TailSampler(THRESHOLD);
+			SpanImpl child = span(1L, 10d);
+			SpanImpl root = span(1L, THRESHOLD);
+
+			sampler.spanFinished(child, true, false, reporter);
+			sampler.spanFinished(root, false, true, reporter);
+
+			verify(reporter).report(child);
+			verifyNoMoreInteractions(reporter);
+		}
+
+		@Test
+		public void maxSpansPerTraceKeeps() {
+			TailSampler sampler = new TailSampler(THRESHOLD, 10, 2);
+			SpanImpl span1 = span(1L, 10d);
+			SpanImpl span2 = span(1L, 10d);
+
+			sampler.spanFinished(span1, true, false, reporter);
+			sampler.spanFinished(span2, true, false, reporter);
+
+			verify(reporter).report(span1);
+			verify(reporter).report(span2);
+			verifyNoMoreInteractions(reporter);
+		}
+
+		@Test
+		public void maxTracesReportsDirectly() {
+			TailSampler sampler = new TailSampler(THRESHOLD, 1, 10);
+			SpanImpl span1 = span(1L, 10d);
+			SpanImpl span2 = span(2L, 10d);
+
+			sampler.spanFinished(span1, true, false, reporter);
+			sampler.spanFinished(span2, true, false, reporter);
+
+			verify(reporter).report(span2);
+			verifyNoMoreInteractions(reporter);
+			assertThat(sampler.getPendingTraceCount(), is(1));
+		}
+
+		@Test(expectedExceptions = IllegalArgumentException.class)
+		public void maxTracesNotPositive() {
+			new TailSampler(THRESHOLD, 0, 10);
+		}
+	}
+
+}
@@ -0,0 +1,171 @@
+package rocks.inspectit.agent.java.connection.impl;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+
+import com.esotericsoftware.kryo.io.Output;
+
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+import rocks.inspectit.shared.all.communication.data.SqlStatementData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.kryonet.CompressionMode;
+import rocks.inspectit.shared.all.kryonet.FrameCompressor;
+import rocks.inspectit.shared.all.serializer.SerializationException;
+import rocks.inspectit.shared.all.serializer.impl.SerializationManager;
+import rocks.inspectit.shared.all.serializer.schema.ClassSchemaManager;
+import rocks.inspectit.shared.all.util.KryoNetNetwork;
+
+/**
+ * JMH test for the compression of the data batches sent by the agent to the CMR. Compares the
+ * plain serialization with the serialization plus the {@link FrameCompressor} compression for
+ * batches of {@link TimerData} and {@link InvocationSequenceData} with SQL statements.
+ *
+ * @author agent
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Thread)
+public class BatchCompressionPerfTest {
+
+	private static final int CHILDREN_PER_INVOCATION = 50;
+
+	@Param({ "timer", "invocation" })
+	private String batchType;
+
+	@Param({ "16", "128" })
+	private int batchSize;
+
+	private SerializationManager serializationManager;
+
+	private FrameCompressor frameCompressor;
+
+	private Output output;
+
+	private List<DefaultData> batch;
+
+	private byte[] frame;
+
+	private int frameLength;
+
+	@Setup(Level.Trial)
+	public void init() throws Exception {
+		ClassSchemaManager schemaManager = new ClassSchemaManager();
+		schemaManager.setLog(LoggerFactory.getLogger(ClassSchemaManager.class));
+		schemaManager.setSchemaListFile(new ClassPathResource(ClassSchemaManager.SCHEMA_DIR + "/" + ClassSchemaManager.SCHEMA_LIST_FILE, ClassSchemaManager.class.getClassLoader()));
+		schemaManager.loadSchemasFromLocations();
+
+		serializationManager = new SerializationManager();
+		serializationManager.setSchemaManager(schemaManager);
+		serializationManager.setKryoNetNetwork(new KryoNetNetwork());
+		serializationManager.initKryo();
+
+		frameCompressor = new FrameCompressor();
+		output = new Output(4096, -1);
+
+		batch = new ArrayList<DefaultData>(batchSize);
+		for (int i = 0; i < batchSize; i++) {
+			if ("timer".equals(batchType)) {
+				batch.add(createTimerData(i));
+			} else {
+				batch.add(createInvocation(i));
+			}
+		}
+
+		// prepare frame for the decompression
+		serialize();
+		frameCompressor.compress(CompressionMode.DEFLATE, output.getBuffer(), 0, output.position());
+		frameLength = frameCompressor.getLength();
+		frame = new byte[frameLength];
+		System.arraycopy(frameCompressor.getBuffer(), 0, frame, 0, frameLength);
+	}
+
+	@TearDown(Level.Trial)
+	public void close() {
+		frameCompressor.close();
+	}
+
+	@Benchmark
+	public int serialize() throws SerializationException {
+		output.clear();
+		serializationManager.serialize(batch, output);
+		return output.position();
+	}
+
+	@Benchmark
+	public int serializeAndCompress() throws SerializationException {
+		int size = serialize();
+		if (frameCompressor.compress(CompressionMode.DEFLATE, output.getBuffer(), 0, size)) {
+			return frameCompressor.getLength();
+		}
+		return size;
+	}
+
+	@Benchmark
+	public byte[] decompress() throws DataFormatException {
+		return frameCompressor.decompress(frame, 0, frameLength);
+	}
+
+	private TimerData createTimerData(int i) {
+		TimerData timerData = new TimerData(new Timestamp(System.currentTimeMillis()), 1L, 2L, i % 32);
+		timerData.setCount(10L);
+		timerData.setDuration(123.45d);
+		timerData.calculateMin(1.2d);
+		timerData.calculateMax(43.1d);
+		timerData.setCpuDuration(100.3d);
+		timerData.calculateCpuMin(1.1d);
+		timerData.calculateCpuMax(40.5d);
+		return timerData;
+	}
+
+	private InvocationSequenceData createInvocation(int i) {
+		Timestamp timestamp = new Timestamp(System.currentTimeMillis());
+		InvocationSequenceData root = new InvocationSequenceData(timestamp, 1L, 2L, i % 32);
+		root.setDuration(120.5d);
+		List<InvocationSequenceData> children = new ArrayList<InvocationSequenceData>(CHILDREN_PER_INVOCATION);
+		for (int j = 0; j < CHILDREN_PER_INVOCATION; j++) {
+			InvocationSequenceData child = new InvocationSequenceData(timestamp, 1L, 2L, j);
+			child.setParentSequence(root);
+			child.setDuration(2.3d);
+			child.setPosition(j);
+			if (0 == (j % 2)) {
+				TimerData timerData = createTimerData(j);
+				child.setTimerData(timerData);
+			} else {
+				SqlStatementData sqlData = new SqlStatementData(timestamp, 1L, 3L, j, "SELECT o.id, o.name, o.created FROM orders o WHERE o.customer_id = ? AND o.status = ?");
+				sqlData.setCount(1L);
+				sqlData.setDuration(1.7d);
+				sqlData.setPreparedStatement(true);
+				child.setSqlStatementData(sqlData);
+			}
+			children.add(child);
+		}
+		root.setNestedSequences(children);
+		root.setChildCount(CHILDREN_PER_INVOCATION);
+		return root;
+	}
+
+}
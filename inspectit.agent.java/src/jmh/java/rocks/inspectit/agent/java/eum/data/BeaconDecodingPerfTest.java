@@ -0,0 +1,97 @@
+package rocks.inspectit.agent.java.eum.data;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import rocks.inspectit.shared.all.communication.data.eum.Beacon;
+
+/**
+ * JMH test for the decoding of the EUM beacons. Compares the binding of the complete beacon with
+ * the Jackson databind, the streaming {@link BeaconDecoder} and the header only decoding done in
+ * the request thread when beacons are processed asynchronously. The payload is a page load beacon
+ * holding the session info, the page load request with the navigation timings and the given
+ * amount of resource load requests, plus a few AJAX requests.
+ *
+ * @author agent
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Thread)
+public class BeaconDecodingPerfTest {
+
+	private static final String BASE_URL = "http://shop.example.com/catalog/index.html";
+
+	@Param({ "10", "100" })
+	private int resourceCount;
+
+	private ObjectMapper objectMapper;
+
+	private BeaconDecoder beaconDecoder;
+
+	private String beacon;
+
+	@Setup(Level.Trial)
+	public void init() {
+		objectMapper = new ObjectMapper();
+		beaconDecoder = new BeaconDecoder();
+
+		long traceId = 0x7a3b91f2c4d5e6L;
+		StringBuilder json = new StringBuilder();
+		json.append("{\"sessionID\":\"2f4a8c1e9b3d5f7\",\"tabID\":\"-1\",\"activeAgentModules\":\"m12a\",\"data\":[");
+		json.append("{\"type\":\"metaInfo\",\"browser\":\"Firefox\",\"device\":\"Windows\",\"language\":\"de\"},");
+		json.append("{\"type\":\"pageLoadRequest\",\"id\":\"").append(Long.toHexString(traceId)).append("\",\"enterTimestamp\":1507021123456.25,\"duration\":1523.5,");
+		json.append("\"url\":\"").append(BASE_URL).append("\",\"resourceCount\":").append(resourceCount).append(",\"navigationTimings\":{");
+		json.append("\"navigationStart\":1507021123456,\"fetchStart\":1507021123460,\"domainLookupStart\":1507021123462,\"domainLookupEnd\":1507021123470,");
+		json.append("\"connectStart\":1507021123470,\"connectEnd\":1507021123501,\"requestStart\":1507021123502,\"responseStart\":1507021123640,");
+		json.append("\"responseEnd\":1507021123655,\"domLoading\":1507021123660,\"domInteractive\":1507021124020,\"domContentLoadedEventStart\":1507021124021,");
+		json.append("\"domContentLoadedEventEnd\":1507021124040,\"domComplete\":1507021124950,\"loadEventStart\":1507021124951,\"loadEventEnd\":1507021124979}}");
+		for (int i = 0; i < resourceCount; i++) {
+			json.append(",{\"type\":\"resourceLoadRequest\",\"id\":\"").append(Long.toHexString(traceId + i + 1)).append("\",\"parentId\":\"").append(Long.toHexString(traceId));
+			json.append("\",\"traceId\":\"").append(Long.toHexString(traceId)).append("\",\"enterTimestamp\":").append(1507021123700L + i).append(".5,\"duration\":").append(20 + (i % 40));
+			json.append(".75,\"url\":\"/static/img/product-").append(i).append(".jpg\",\"initiatorType\":\"img\",\"transferSize\":").append(4096 + (i * 17));
+			json.append(",\"baseUrl\":\"").append(BASE_URL).append("\"}");
+		}
+		for (int i = 0; i < 3; i++) {
+			json.append(",{\"type\":\"ajaxRequest\",\"id\":\"").append(Long.toHexString(traceId + resourceCount + i + 1)).append("\",\"parentId\":\"").append(Long.toHexString(traceId));
+			json.append("\",\"traceId\":\"").append(Long.toHexString(traceId)).append("\",\"enterTimestamp\":").append(1507021125000L + i).append(",\"duration\":85.5,");
+			json.append("\"url\":\"/api/cart?item=").append(i).append("\",\"method\":\"GET\",\"status\":200,\"baseUrl\":\"").append(BASE_URL).append("\"}");
+		}
+		json.append("]}");
+		beacon = json.toString();
+	}
+
+	@Benchmark
+	public Beacon databind() throws IOException {
+		return objectMapper.readValue(beacon, Beacon.class);
+	}
+
+	@Benchmark
+	public Beacon decode() throws IOException {
+		return beaconDecoder.decode(beacon);
+	}
+
+	@Benchmark
+	public Beacon decodeHeader() throws IOException {
+		return beaconDecoder.decodeHeader(beacon);
+	}
+
+}
@@ -0,0 +1,74 @@
+package rocks.inspectit.agent.java.eum.html;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.google.common.base.Charsets;
+
+/**
+ * JMH test for the script injection into a streamed UTF-8 encoded HTML page. Compares the
+ * {@link DecodingHtmlScriptInjector} which decodes and re-encodes the data with the
+ * {@link ByteHtmlScriptInjector} scanning the bytes directly. The page is passed to the injector
+ * in chunks of the given size, as done by the servlet output stream.
+ *
+ * @author agent
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Thread)
+public class HtmlScriptInjectionPerfTest {
+
+	private static final String TAG_TO_INJECT = "<script type=\"text/javascript\" src=\"/wps/inspectit_jsagent_12a.js\"></script>";
+
+	@Param({ "1", "512", "8192" })
+	private int chunkSize;
+
+	private byte[] page;
+
+	@Setup(Level.Trial)
+	public void init() {
+		StringBuilder html = new StringBuilder();
+		html.append("<!DOCTYPE html>\n<!-- generated page äöü -->\n<html lang=\"de\">\n<head>\n<meta charset=\"utf-8\">\n<title>Übersicht</title>\n</head>\n<body>\n");
+		for (int i = 0; i < 500; i++) {
+			html.append("<div class=\"row\"><span>Eintrag ").append(i).append(" – Größe ").append(i * 17).append("</span></div>\n");
+		}
+		html.append("</body>\n</html>\n");
+		page = html.toString().getBytes(Charsets.UTF_8);
+	}
+
+	@Benchmark
+	public void decoding(Blackhole blackhole) {
+		DecodingHtmlScriptInjector injector = new DecodingHtmlScriptInjector(TAG_TO_INJECT, "UTF-8");
+		for (int pos = 0; pos < page.length; pos += chunkSize) {
+			int len = Math.min(chunkSize, page.length - pos);
+			blackhole.consume(injector.performInjection(page, pos, len));
+		}
+	}
+
+	@Benchmark
+	public void bytes(Blackhole blackhole) {
+		ByteHtmlScriptInjector injector = new ByteHtmlScriptInjector(TAG_TO_INJECT, Charsets.UTF_8);
+		for (int pos = 0; pos < page.length; pos += chunkSize) {
+			int len = Math.min(chunkSize, page.length - pos);
+			blackhole.consume(injector.findInjectionPoint(page, pos, len));
+		}
+	}
+
+}
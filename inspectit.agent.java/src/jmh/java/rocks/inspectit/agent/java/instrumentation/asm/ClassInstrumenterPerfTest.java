@@ -44,8 +44,6 @@ import rocks.inspectit.shared.all.instrumentation.config.impl.SubstitutionDescri
 @State(Scope.Thread)
 public class ClassInstrumenterPerfTest {
 
-	private static final InstrumenterFactory INSTRUMENTER_FACTORY = new InstrumenterFactory();
-
 	@Param({ "java.lang.String", "java.lang.Boolean" })
 	private String clazz;
 
@@ -58,8 +56,23 @@ public class ClassInstrumenterPerfTest {
 	@Param({ "true", "false" })
 	private boolean specialMethodInstrumentation;
 
+	@Param({ "true", "false" })
+	private boolean parameterAccess;
+
+	private InstrumenterFactory instrumenterFactory;
+
 	private Collection<MethodInstrumentationConfig> configs;
 
+	@Setup(Level.Trial)
+	public void initFactory() {
+		instrumenterFactory = new InstrumenterFactory() {
+			@Override
+			protected boolean isParameterAccess(SensorInstrumentationPoint sensorInstrumentationPoint) {
+				return parameterAccess;
+			}
+		};
+	}
+
 	@Setup(Level.Iteration)
 	public void init() throws ClassNotFoundException {
 		Class<?> instrumentedClass = Class.forName(clazz);
@@ -94,7 +107,7 @@ public class ClassInstrumenterPerfTest {
 	public void instrument() throws InterruptedException, IOException {
 		ClassReader classReader = new ClassReader(clazz);
 		LoaderAwareClassWriter classWriter = new LoaderAwareClassWriter(classReader, ClassWriter.COMPUTE_FRAMES, null);
-		ClassInstrumenter classInstrumenter = new ClassInstrumenter(INSTRUMENTER_FACTORY, classWriter, new ArrayList<MethodInstrumentationConfig>(configs), enhancedExceptionSensor);
+		ClassInstrumenter classInstrumenter = new ClassInstrumenter(instrumenterFactory, classWriter, new ArrayList<MethodInstrumentationConfig>(configs), enhancedExceptionSensor);
 		classReader.accept(classInstrumenter, ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG);
 	}
 }
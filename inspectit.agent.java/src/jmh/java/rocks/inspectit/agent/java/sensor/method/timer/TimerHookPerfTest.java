@@ -53,11 +53,15 @@ public class TimerHookPerfTest extends AbstractHookPerfTest {
 
 	private TimerHook timerHook;
 	private TimerHook timerHookNoThreadCPU;
+	private TimerHook timerHookAggregating;
 
 	private RegisteredSensorConfig registeredSensorConfig;
 	private RegisteredSensorConfig captureReturnRegisteredSensorConfig;
 	private RegisteredSensorConfig captureParameterRegisteredSensorConfig;
 
+	private String stringArgument = "argument";
+	private int intArgument = 1024;
+
 	@Setup(Level.Trial)
 	public void checkCondition() {
 		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
@@ -107,6 +111,8 @@ public class TimerHookPerfTest extends AbstractHookPerfTest {
 
 		timerHook = new TimerHook(new Timer(), platformManager, new PropertyAccessor(), new HashMap<String, Object>(), ManagementFactory.getThreadMXBean());
 		timerHookNoThreadCPU = new TimerHook(new Timer(), platformManager, new PropertyAccessor(), new HashMap<String, Object>(), ManagementFactory.getThreadMXBean());
+		timerHookAggregating = new TimerHook(new Timer(), platformManager, new PropertyAccessor(), new HashMap<String, Object>(), ManagementFactory.getThreadMXBean(),
+				new TimerDataAggregator(coreService));
 
 		// disable CPU Threading
 		Field cpuThreadEnabledField = timerHookNoThreadCPU.getClass().getDeclaredField("enabled");
@@ -178,6 +184,47 @@ public class TimerHookPerfTest extends AbstractHookPerfTest {
 		timerHookNoThreadCPU.secondAfterBody(coreService, methodId, SENSOR_ID, TARGET, PARAMS, RETURN_VALUE, false, registeredSensorConfig);
 	}
 
+	/**
+	 * Benchmarks the overhead time of measuring a method invocation + Thread CPU Time with
+	 * inspectIT when the timer data is aggregated on the agent.
+	 * <p>
+	 * The aggregated data is never flushed, thus only the aggregation costs are measured. Best
+	 * executed with the GC profiler to compare the allocation rate with the other benchmarks.
+	 */
+	@Benchmark
+	public void measureMethodAggregating() {
+		timerHookAggregating.beforeBody(methodId, SENSOR_ID, TARGET, PARAMS, registeredSensorConfig);
+		timerHookAggregating.firstAfterBody(methodId, SENSOR_ID, TARGET, PARAMS, RETURN_VALUE, false, registeredSensorConfig);
+		timerHookAggregating.secondAfterBody(coreService, methodId, SENSOR_ID, TARGET, PARAMS, RETURN_VALUE, false, registeredSensorConfig);
+	}
+
+	/**
+	 * Benchmarks the call of the timer hook as done by the instrumented method that passes the
+	 * parameters to the dispatcher. The parameter array is created and the primitive argument is
+	 * boxed on every invocation.
+	 */
+	@Benchmark
+	public void measureMethodArgumentArray() {
+		Object[] parameters = new Object[] { stringArgument, Integer.valueOf(intArgument) };
+		timerHook.beforeBody(methodId, SENSOR_ID, TARGET, parameters, registeredSensorConfig);
+		Object[] afterParameters = new Object[] { stringArgument, Integer.valueOf(intArgument) };
+		timerHook.firstAfterBody(methodId, SENSOR_ID, TARGET, afterParameters, RETURN_VALUE, false, registeredSensorConfig);
+		timerHook.secondAfterBody(coreService, methodId, SENSOR_ID, TARGET, afterParameters, RETURN_VALUE, false, registeredSensorConfig);
+	}
+
+	/**
+	 * Benchmarks the call of the timer hook as done by the instrumented method when no sensor
+	 * reads the parameters, thus <code>null</code> is passed instead of the parameter array. Best
+	 * executed with the GC profiler to compare the allocation rate with the
+	 * {@link #measureMethodArgumentArray()}.
+	 */
+	@Benchmark
+	public void measureMethodArgumentFree() {
+		timerHook.beforeBody(methodId, SENSOR_ID, TARGET, null, registeredSensorConfig);
+		timerHook.firstAfterBody(methodId, SENSOR_ID, TARGET, null, RETURN_VALUE, false, registeredSensorConfig);
+		timerHook.secondAfterBody(coreService, methodId, SENSOR_ID, TARGET, null, RETURN_VALUE, false, registeredSensorConfig);
+	}
+
 	@Override
 	@TearDown(Level.Iteration)
 	public void cleanUp() throws Exception {
@@ -185,5 +232,6 @@ public class TimerHookPerfTest extends AbstractHookPerfTest {
 
 		timerHook = null; // NOPMD
 		timerHookNoThreadCPU = null; // NOPMD
+		timerHookAggregating = null; // NOPMD
 	}
 }
@@ -0,0 +1,100 @@
+package rocks.inspectit.agent.java.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Performance test comparing the primitive {@link ThreadLocalDoubleStack} and
+ * {@link ThreadLocalLongStack} with the boxing {@link ThreadLocalStack} they replace in the hooks.
+ * Each benchmark pushes the start time and CPU time of the given amount of nested invocations and
+ * pops them again, as the timer hook does. Best executed with the GC profiler to compare the
+ * allocation rates as well.
+ *
+ * @author agent
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Thread)
+public class ThreadLocalStackPerfTest {
+
+	/**
+	 * Amount of nested invocations.
+	 */
+	@Param({ "1", "10" })
+	private int depth;
+
+	/**
+	 * Boxing stack for the times.
+	 */
+	private final ThreadLocalStack<Double> doubleStack = new ThreadLocalStack<Double>();
+
+	/**
+	 * Boxing stack for the CPU times.
+	 */
+	private final ThreadLocalStack<Long> longStack = new ThreadLocalStack<Long>();
+
+	/**
+	 * Primitive stack for the times.
+	 */
+	private final ThreadLocalDoubleStack primitiveDoubleStack = new ThreadLocalDoubleStack();
+
+	/**
+	 * Primitive stack for the CPU times.
+	 */
+	private final ThreadLocalLongStack primitiveLongStack = new ThreadLocalLongStack();
+
+	/**
+	 * Push and pop with the {@link ThreadLocalStack}.
+	 *
+	 * @return Sum of the popped values.
+	 */
+	@Benchmark
+	public double threadLocalStack() {
+		for (int i = 0; i < depth; i++) {
+			doubleStack.push(Double.valueOf(i * 1.5d));
+			longStack.push(Long.valueOf(i));
+		}
+
+		double sum = 0;
+		for (int i = 0; i < depth; i++) {
+			sum += doubleStack.pop().doubleValue();
+			sum += longStack.pop().longValue();
+		}
+		return sum;
+	}
+
+	/**
+	 * Push and pop with the {@link ThreadLocalDoubleStack} and {@link ThreadLocalLongStack}.
+	 *
+	 * @return Sum of the popped values.
+	 */
+	@Benchmark
+	public double threadLocalPrimitiveStack() {
+		for (int i = 0; i < depth; i++) {
+			primitiveDoubleStack.push(i * 1.5d);
+			primitiveLongStack.push(i);
+		}
+
+		double sum = 0;
+		for (int i = 0; i < depth; i++) {
+			sum += primitiveDoubleStack.pop();
+			sum += primitiveLongStack.pop();
+		}
+		return sum;
+	}
+
+}
@@ -0,0 +1,398 @@
+package rocks.inspectit.agent.java.analyzer.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import rocks.inspectit.agent.java.connection.IConnection;
+import rocks.inspectit.agent.java.connection.ServerUnavailableException;
+import rocks.inspectit.agent.java.core.IPlatformManager;
+import rocks.inspectit.agent.java.instrumentation.RetransformManager;
+import rocks.inspectit.agent.java.stats.AgentStatisticsLogger;
+import rocks.inspectit.shared.all.exception.BusinessException;
+import rocks.inspectit.shared.all.exception.enumeration.AgentManagementErrorCodeEnum;
+import rocks.inspectit.shared.all.instrumentation.classcache.Type;
+import rocks.inspectit.shared.all.instrumentation.config.impl.InstrumentationDefinition;
+import rocks.inspectit.shared.all.spring.logger.Log;
+
+/**
+ * Collects the types that need to be analyzed by the CMR and sends them in batches, so that the
+ * threads loading the classes do not have to wait for the server. Batch is sent periodically or as
+ * soon as it is full. When the server answers, the types are registered as sent and the classes
+ * that should be instrumented are retransformed with the {@link RetransformManager}.
+ * <p>
+ * The types are sent in the order they were added, thus depending types that are analyzed first
+ * are also sent first.
+ * <p>
+ * The server analyzes the batch within the response timeout of the connection. Thus the batch size
+ * is halved every time the server times out and increased again step by step after the successful
+ * sends. If the server fails to analyze the batch, the types are sent one by one, so that a single
+ * failing type does not prevent the instrumentation of the others.
+ *
+ * @author agent
+ *
+ */
+@Component
+public class AnalyzeBatchSender implements Runnable {
+
+	/**
+	 * Maximum amount of types sent in one batch.
+	 */
+	static final int BATCH_SIZE = 250;
+
+	/**
+	 * Minimum amount of types the batch size is increased by after a successful send.
+	 */
+	private static final int MIN_BATCH_SIZE_INCREASE = 10;
+
+	/**
+	 * Interval in milliseconds for sending the collected types.
+	 */
+	private static final long SEND_INTERVAL_MILLIS = 200L;
+
+	/**
+	 * The logger of the class.
+	 */
+	@Log
+	Logger log;
+
+	/**
+	 * Platform manager.
+	 */
+	@Autowired
+	private IPlatformManager platformManager;
+
+	/**
+	 * The used connection.
+	 */
+	@Autowired
+	private IConnection connection;
+
+	/**
+	 * {@link ClassHashHelper}.
+	 */
+	@Autowired
+	private ClassHashHelper classHashHelper;
+
+	/**
+	 * {@link RetransformManager} for retransforming the classes that should be instrumented.
+	 */
+	@Autowired
+	private RetransformManager retransformManager;
+
+	/**
+	 * Logs once, if the class cache is not available.
+	 */
+	@Autowired
+	private AgentStatisticsLogger agentStatisticsLogger;
+
+	/**
+	 * Core-service executor service.
+	 */
+	@Autowired
+	@Qualifier("coreServiceExecutorService")
+	private ScheduledExecutorService executorService;
+
+	/**
+	 * Types waiting to be sent, keyed by the class hash. Access must be synchronized on the map.
+	 */
+	private final Map<String, QueuedType> queue = new LinkedHashMap<String, QueuedType>();
+
+	/**
+	 * If the immediate sending of the full batch is already scheduled.
+	 */
+	private final AtomicBoolean sendScheduled = new AtomicBoolean();
+
+	/**
+	 * Current amount of types sent in one batch, adapted to the server response times. Accessed
+	 * only by the sending thread.
+	 */
+	private int batchSize = BATCH_SIZE;
+
+	/**
+	 * Schedules the periodic sending.
+	 */
+	@PostConstruct
+	public void postConstruct() {
+		executorService.scheduleWithFixedDelay(this, SEND_INTERVAL_MILLIS, SEND_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Returns if the types can be analyzed asynchronously. This is only possible if the classes
+	 * can be retransformed once the server has analyzed them.
+	 *
+	 * @return Returns if the types can be analyzed asynchronously.
+	 */
+	public boolean isActive() {
+		return retransformManager.isRetransformationActive();
+	}
+
+	/**
+	 * Adds the type to be sent with the next batch.
+	 *
+	 * @param className
+	 *            Name of the class.
+	 * @param hash
+	 *            Class hash code.
+	 * @param type
+	 *            Type that has been parsed from the byte-code.
+	 */
+	public void add(String className, String hash, Type type) {
+		boolean full;
+		synchronized (queue) {
+			if (!queue.containsKey(hash)) {
+				queue.put(hash, new QueuedType(className, type));
+			}
+			full = queue.size() >= BATCH_SIZE;
+		}
+
+		if (full && sendScheduled.compareAndSet(false, true)) {
+			executorService.execute(this);
+		}
+	}
+
+	/**
+	 * Returns the amount of types waiting to be sent.
+	 *
+	 * @return Returns the amount of types waiting to be sent.
+	 */
+	public int getQueueSize() {
+		synchronized (queue) {
+			return queue.size();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Sends all collected types. Only one thread is sending at a time, so that the batches reach
+	 * the server in the order types were added.
+	 */
+	@Override
+	public synchronized void run() {
+		sendScheduled.set(false);
+		try {
+			// continue while there are full batches
+			boolean fullBatch;
+			do {
+				fullBatch = sendBatch();
+			} while (fullBatch);
+		} catch (Exception e) {
+			if (log.isWarnEnabled()) {
+				log.warn("An unexpected exception occurred sending the types to the CMR.", e);
+			}
+		}
+	}
+
+	/**
+	 * Sends one batch of types to the server and processes the result.
+	 *
+	 * @return <code>true</code> if full batch was sent and there might be more types waiting.
+	 */
+	private boolean sendBatch() {
+		if (!connection.isConnected()) {
+			return false;
+		}
+
+		Map<String, QueuedType> batch = poll(batchSize);
+		if (batch.isEmpty()) {
+			return false;
+		}
+
+		Map<String, Type> hashAndTypes = new LinkedHashMap<String, Type>(batch.size());
+		for (Entry<String, QueuedType> entry : batch.entrySet()) {
+			hashAndTypes.put(entry.getKey(), entry.getValue().type);
+		}
+
+		Map<String, InstrumentationDefinition> instrumentationResults;
+		try {
+			instrumentationResults = connection.analyzeAll(platformManager.getPlatformId(), hashAndTypes);
+		} catch (ServerUnavailableException e) {
+			// put back and try again with next run, with smaller batch if server could not make it
+			requeue(batch);
+			if (e.isServerTimeout()) {
+				batchSize = Math.max(1, batch.size() / 2);
+			}
+			if (log.isDebugEnabled()) {
+				log.debug(batch.size() + " type(s) could not be sent to the CMR." + (e.isServerTimeout() ? " (timeout)" : " (error)"), e);
+			}
+			return false;
+		} catch (BusinessException e) {
+			if (AgentManagementErrorCodeEnum.AGENT_DOES_NOT_EXIST.equals(e.getErrorCode())) {
+				// keep the types until the agent is registered again
+				requeue(batch);
+				agentStatisticsLogger.noClassCacheAvailable();
+				return false;
+			}
+			if (log.isWarnEnabled()) {
+				log.warn("Error occurred sending " + batch.size() + " type(s) to the CMR, sending the types one by one.", e);
+			}
+			return sendOneByOne(batch);
+		}
+
+		boolean fullBatch = batch.size() >= batchSize;
+		if (batchSize < BATCH_SIZE) {
+			batchSize = Math.min(BATCH_SIZE, batchSize + Math.max(MIN_BATCH_SIZE_INCREASE, batchSize / 4));
+		}
+
+		processResults(batch, instrumentationResults);
+		return fullBatch;
+	}
+
+	/**
+	 * Sends the types of the batch one by one. Types failing on the server are not registered as
+	 * sent and are thus never instrumented, same as with the synchronous analysis. If the server
+	 * becomes unavailable the remaining types are put back to the queue.
+	 *
+	 * @param batch
+	 *            Types to send.
+	 * @return <code>true</code> if all types were sent.
+	 */
+	private boolean sendOneByOne(Map<String, QueuedType> batch) {
+		Map<String, InstrumentationDefinition> instrumentationResults = new HashMap<String, InstrumentationDefinition>();
+		Map<String, QueuedType> analyzed = new LinkedHashMap<String, QueuedType>();
+		Map<String, QueuedType> remaining = new LinkedHashMap<String, QueuedType>(batch);
+		boolean allSent = true;
+		for (Entry<String, QueuedType> entry : batch.entrySet()) {
+			try {
+				InstrumentationDefinition instrumentationResult = connection.analyze(platformManager.getPlatformId(), entry.getKey(), entry.getValue().type);
+				if (null != instrumentationResult) {
+					instrumentationResults.put(entry.getKey(), instrumentationResult);
+				}
+				analyzed.put(entry.getKey(), entry.getValue());
+			} catch (ServerUnavailableException e) {
+				requeue(remaining);
+				allSent = false;
+				if (log.isDebugEnabled()) {
+					log.debug(remaining.size() + " type(s) could not be sent to the CMR." + (e.isServerTimeout() ? " (timeout)" : " (error)"), e);
+				}
+				break;
+			} catch (BusinessException e) {
+				log.error("Error occurred sending the type of the class " + entry.getValue().className + " to the CMR.", e);
+			}
+			remaining.remove(entry.getKey());
+		}
+
+		processResults(analyzed, instrumentationResults);
+		return allSent;
+	}
+
+	/**
+	 * Registers the analyzed types as sent and retransforms the classes to instrument.
+	 *
+	 * @param analyzed
+	 *            Types analyzed by the server.
+	 * @param instrumentationResults
+	 *            Map of class hash codes to the instrumentation definitions returned by the server.
+	 */
+	private void processResults(Map<String, QueuedType> analyzed, Map<String, InstrumentationDefinition> instrumentationResults) {
+		List<InstrumentationDefinition> toRetransform = new ArrayList<InstrumentationDefinition>();
+		for (Entry<String, QueuedType> entry : analyzed.entrySet()) {
+			String className = entry.getValue().className;
+			InstrumentationDefinition instrumentationResult = instrumentationResults.get(entry.getKey());
+
+			// register type as sent
+			classHashHelper.registerSent(className, entry.getKey());
+			classHashHelper.registerInstrumentationDefinition(className, instrumentationResult);
+
+			if ((null != instrumentationResult) && !instrumentationResult.isEmpty()) {
+				toRetransform.add(instrumentationResult);
+			}
+		}
+
+		// classes have been loaded without instrumentation, retransform the ones to instrument
+		retransformManager.retransform(toRetransform);
+	}
+
+	/**
+	 * Removes at most the given amount of types from the queue.
+	 *
+	 * @param maxSize
+	 *            Maximum amount of types to remove.
+	 * @return Removed types in the order they were added.
+	 */
+	private Map<String, QueuedType> poll(int maxSize) {
+		Map<String, QueuedType> batch = new LinkedHashMap<String, QueuedType>();
+		synchronized (queue) {
+			Iterator<Entry<String, QueuedType>> iterator = queue.entrySet().iterator();
+			while (iterator.hasNext() && (batch.size() < maxSize)) {
+				Entry<String, QueuedType> entry = iterator.next();
+				batch.put(entry.getKey(), entry.getValue());
+				iterator.remove();
+			}
+		}
+		return batch;
+	}
+
+	/**
+	 * Gets {@link #batchSize}.
+	 *
+	 * @return {@link #batchSize}
+	 */
+	int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Puts the batch back to the head of the queue, so that the order is preserved.
+	 *
+	 * @param batch
+	 *            Batch that could not be sent.
+	 */
+	private void requeue(Map<String, QueuedType> batch) {
+		synchronized (queue) {
+			Map<String, QueuedType> remaining = new LinkedHashMap<String, QueuedType>(queue);
+			queue.clear();
+			queue.putAll(batch);
+			queue.putAll(remaining);
+		}
+	}
+
+	/**
+	 * Type waiting in the queue together with the class name.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static final class QueuedType {
+
+		/**
+		 * Name of the class.
+		 */
+		private final String className;
+
+		/**
+		 * Type that has been parsed from the byte-code.
+		 */
+		private final Type type;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param className
+		 *            Name of the class.
+		 * @param type
+		 *            Type that has been parsed from the byte-code.
+		 */
+		QueuedType(String className, Type type) {
+			this.className = className;
+			this.type = type;
+		}
+
+	}
+
+}
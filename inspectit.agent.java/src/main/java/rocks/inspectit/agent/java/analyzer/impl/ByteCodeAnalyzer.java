@@ -55,6 +55,10 @@ import rocks.inspectit.shared.all.spring.logger.Log;
 /**
  * {@link IByteCodeAnalyzer} that uses {@link IConnection} to connect to the CMR and send the
  * analyzed type. If needed performs instrumentation based on the result of the CMR answer.
+ * <p>
+ * When classes can be retransformed, the thread loading the class does not wait for the CMR. The
+ * type is handed to the {@link AnalyzeBatchSender} and the class is retransformed once the CMR
+ * answers.
  *
  * @author Ivan Senic
  *
@@ -103,6 +107,12 @@ public class ByteCodeAnalyzer implements IByteCodeAnalyzer, InitializingBean {
 	@Autowired
 	private ClassHashHelper classHashHelper;
 
+	/**
+	 * {@link AnalyzeBatchSender} for the asynchronous analyzing of the types.
+	 */
+	@Autowired
+	private AnalyzeBatchSender analyzeBatchSender;
+
 	/**
 	 * Core-service executor service.
 	 */
@@ -199,6 +209,13 @@ public class ByteCodeAnalyzer implements IByteCodeAnalyzer, InitializingBean {
 				// analyze all necessary depending classes before
 				analyzeDependingTypes(type, classLoader);
 
+				// if possible load the class as it is and let the batch sender retransform it
+				// once the server analyzed the type
+				if (analyzeBatchSender.isActive()) {
+					analyzeBatchSender.add(className, hash, type);
+					return null;
+				}
+
 				// try connecting to server
 				Callable<InstrumentationDefinition> analyzeCallable = new AnalyzeCallable(connection, platformManager.getPlatformId(), hash, type);
 				try {
@@ -29,6 +29,7 @@ import com.esotericsoftware.kryo.io.Output;
 import rocks.inspectit.agent.java.config.IConfigurationStorage;
 import rocks.inspectit.agent.java.io.FileResolver;
 import rocks.inspectit.agent.java.spring.PrototypesProvider;
+import rocks.inspectit.shared.all.instrumentation.classcache.util.ClassHashDigest;
 import rocks.inspectit.shared.all.instrumentation.config.impl.InstrumentationDefinition;
 import rocks.inspectit.shared.all.serializer.impl.SerializationManager;
 import rocks.inspectit.shared.all.serializer.provider.SerializationManagerProvider;
@@ -219,6 +220,14 @@ public class ClassHashHelper implements InitializingBean, DisposableBean {
 		// only load if configuration says that the class cache exists on the CMR
 		if (configurationStorage.isClassCacheExistsOnCmr()) {
 			loadCacheFromDisk();
+
+			// class cache restored on the CMR might miss classes sent after it was saved
+			Long classCacheDigest = configurationStorage.getClassCacheDigest();
+			if ((null != classCacheDigest) && (classCacheDigest.longValue() != getSentHashesDigest())) {
+				log.info("Class cache on the CMR does not contain all classes sent by this agent, all classes will be sent again.");
+				fqnToClassEntryMap.clear();
+				deleteCacheFromDisk();
+			}
 		} else {
 			deleteCacheFromDisk();
 		}
@@ -256,6 +265,22 @@ public class ClassHashHelper implements InitializingBean, DisposableBean {
 		fqnToClassEntryMap.clear();
 	}
 
+	/**
+	 * Returns the digest of all hashes registered as sent.
+	 *
+	 * @return Returns the digest of all hashes registered as sent.
+	 * @see ClassHashDigest
+	 */
+	private long getSentHashesDigest() {
+		ClassHashDigest digest = new ClassHashDigest();
+		for (ClassEntry classEntry : fqnToClassEntryMap.values()) {
+			for (String hash : classEntry.getHashes()) {
+				digest.add(hash);
+			}
+		}
+		return digest.getValue();
+	}
+
 	/**
 	 * Load sent classes from disk.
 	 */
@@ -160,6 +160,18 @@ public interface IConfigurationStorage {
 	 */
 	boolean isClassCacheExistsOnCmr() throws StorageException;
 
+	/**
+	 * Returns the digest of the class hashes known to the class cache on the CMR if the class
+	 * cache was restored from the disk. In this case the internal sending classes cache can only
+	 * be used if it has the same digest.
+	 *
+	 * @return Returns the digest of the class hashes known to the CMR or <code>null</code> if the
+	 *         sending classes cache can be used without validation.
+	 * @throws StorageException
+	 *             If agent configuration is not set.
+	 */
+	Long getClassCacheDigest() throws StorageException;
+
 	/**
 	 * Set of known {@link InstrumentationDefinition} for the agent that can be used by the Agent
 	 * right away. Each {@link InstrumentationDefinition} is mapped to the collection of the class
@@ -328,6 +328,16 @@ public class ConfigurationStorage implements IConfigurationStorage, Initializing
 		return agentConfiguration.isClassCacheExistsOnCmr();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Long getClassCacheDigest() throws StorageException {
+		ensureConfigurationExists();
+
+		return agentConfiguration.getClassCacheDigest();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
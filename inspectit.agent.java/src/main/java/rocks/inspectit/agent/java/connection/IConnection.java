@@ -64,6 +64,20 @@ public interface IConnection {
 	 */
 	void sendKeepAlive(long platformId) throws ServerUnavailableException;
 
+	/**
+	 * Sends the sampling rates of the data per sensor type, so that the server knows which portion
+	 * of the data was sent.
+	 *
+	 * @param platformId
+	 *            The unique id for this platform.
+	 * @param samplingRates
+	 *            Map of sensor type ids to the sampling rates. Sensor types not in map are not
+	 *            sampled.
+	 * @throws ServerUnavailableException
+	 *             If server to send the request to is unavailable.
+	 */
+	void sendSamplingRates(long platformId, Map<Long, Double> samplingRates) throws ServerUnavailableException;
+
 	/**
 	 * Send the measurements to the server for further processing.
 	 *
@@ -126,6 +140,24 @@ public interface IConnection {
 	 */
 	InstrumentationDefinition analyze(long platformIdent, String hash, Type type) throws ServerUnavailableException, BusinessException;
 
+	/**
+	 * Analyzes the given types in one request, returning the {@link InstrumentationDefinition}s
+	 * for the types that should be instrumented on the Agent.
+	 *
+	 * @param platformIdent
+	 *            Id of the agent.
+	 * @param hashAndTypes
+	 *            Map of class hash codes to the types that have been parsed from the byte-code.
+	 *            Types are analyzed in the iteration order of the map.
+	 * @return Map of class hash codes to the instrumentation definitions. Types that should not
+	 *         be instrumented are not contained in the map.
+	 * @throws ServerUnavailableException
+	 *             If server to send the request to is unavailable.
+	 * @throws BusinessException
+	 *             If {@link BusinessException} is thrown on the server.
+	 */
+	Map<String, InstrumentationDefinition> analyzeAll(long platformIdent, Map<String, Type> hashAndTypes) throws ServerUnavailableException, BusinessException;
+
 	/**
 	 * Informs the CMR that the methods have been instrumented on the agent.
 	 *
@@ -1,6 +1,7 @@
 package rocks.inspectit.agent.java.connection.impl;
 
 import java.net.ConnectException;
+import java.util.Map;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -14,6 +15,7 @@ import org.springframework.stereotype.Component;
 
 import rocks.inspectit.agent.java.connection.IConnection;
 import rocks.inspectit.agent.java.connection.ServerUnavailableException;
+import rocks.inspectit.agent.java.core.IDataSampler;
 import rocks.inspectit.agent.java.core.IPlatformManager;
 import rocks.inspectit.shared.all.cmr.service.IKeepAliveService;
 import rocks.inspectit.shared.all.spring.logger.Log;
@@ -56,6 +58,12 @@ public class KeepAliveManager implements InitializingBean, DisposableBean {
 	@Autowired
 	private IConnection connection;
 
+	/**
+	 * Data sampler providing the sampling rates.
+	 */
+	@Autowired
+	private IDataSampler dataSampler;
+
 	/**
 	 * Platform manager.
 	 */
@@ -86,13 +94,19 @@ public class KeepAliveManager implements InitializingBean, DisposableBean {
 	private int nextReconnectAt = 2;
 
 	/**
-	 * Sends keep alive signal if connection to the server exists. Otherwise does try to reconnect
-	 * in the exponential waiting manner.
+	 * Sends keep alive signal and the data sampling rates if connection to the server exists.
+	 * Otherwise does try to reconnect in the exponential waiting manner.
 	 */
 	public void sendKeepAlive() {
 		try {
 			if (connection.isConnected()) {
 				connection.sendKeepAlive(platformManager.getPlatformId());
+
+				// report sampling rates if any data was sampled
+				Map<Long, Double> samplingRates = dataSampler.getSamplingRates();
+				if (null != samplingRates) {
+					connection.sendSamplingRates(platformManager.getPlatformId(), samplingRates);
+				}
 			} else {
 				if (shouldReconnect()) {
 					log.info("Trying to reconnect to the server.");
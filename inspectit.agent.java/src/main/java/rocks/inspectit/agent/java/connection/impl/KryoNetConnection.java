@@ -29,6 +29,7 @@ import rocks.inspectit.shared.all.cmr.service.IAgentStorageService;
 import rocks.inspectit.shared.all.cmr.service.IKeepAliveService;
 import rocks.inspectit.shared.all.cmr.service.ServiceInterface;
 import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.SqlStatementData;
 import rocks.inspectit.shared.all.communication.message.IAgentMessage;
 import rocks.inspectit.shared.all.exception.BusinessException;
 import rocks.inspectit.shared.all.instrumentation.classcache.Type;
@@ -92,6 +93,11 @@ public class KryoNetConnection implements IConnection {
 	 */
 	private final Object reconnectionMonitor = new Object();
 
+	/**
+	 * Dictionary of the SQL strings sent with the {@link SqlStatementData}.
+	 */
+	private final SqlStatementDictionary sqlStatementDictionary = new SqlStatementDictionary();
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -176,6 +182,7 @@ public class KryoNetConnection implements IConnection {
 			client.start();
 			client.connect(5000, host, port);
 			bindServices();
+			sqlStatementDictionary.reset();
 		}
 	}
 
@@ -189,6 +196,7 @@ public class KryoNetConnection implements IConnection {
 		if (!isConnected()) {
 			client.reconnect();
 			bindServices();
+			sqlStatementDictionary.reset();
 		}
 	}
 
@@ -262,6 +270,36 @@ public class KryoNetConnection implements IConnection {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void sendSamplingRates(final long platformId, final Map<Long, Double> samplingRates) throws ServerUnavailableException {
+		if (!isConnected()) {
+			throw new ServerUnavailableException();
+		}
+
+		FailFastRemoteMethodCall<IKeepAliveService, Void> call = new FailFastRemoteMethodCall<IKeepAliveService, Void>(keepAliveService) {
+			@Override
+			protected Void performRemoteCall(IKeepAliveService service) {
+				service.sendSamplingRates(platformId, samplingRates);
+				return null;
+			}
+		};
+
+		try {
+			call.makeCall();
+		} catch (ExecutionException e) {
+			// there should be no execution exception
+			log.error("Exception thrown while trying to send sampling rates to the server.", e);
+		} catch (ServerUnavailableException e) {
+			if (!e.isServerTimeout()) {
+				disconnectClient();
+			}
+			throw e;
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -360,7 +398,10 @@ public class KryoNetConnection implements IConnection {
 		}
 
 		if ((null != measurements) && !measurements.isEmpty()) {
+			List<SqlStatementData> encodedSqlStatements = Collections.emptyList();
 			try {
+				encodedSqlStatements = encodeSqlStatements(measurements);
+
 				AddDataObjects remote = new AddDataObjects(agentStorageService, measurements);
 				remote.makeCall();
 			} catch (ExecutionException executionException) {
@@ -371,10 +412,51 @@ public class KryoNetConnection implements IConnection {
 					disconnectClient();
 				}
 				throw e;
+			} finally {
+				// data is serialized in the call, restore the SQL strings as data might be kept
+				sqlStatementDictionary.decode(encodedSqlStatements);
 			}
 		}
 	}
 
+	/**
+	 * Registers the SQL strings of the {@link SqlStatementData} in the measurements that are not
+	 * yet known to the CMR on this connection and replaces the strings with their ids. The
+	 * registration is a blocking call, so that the statements are known to the CMR before the data
+	 * referencing them is processed.
+	 *
+	 * @param measurements
+	 *            Measurements to be sent.
+	 * @return Encoded {@link SqlStatementData} objects that must be decoded after sending.
+	 * @throws ServerUnavailableException
+	 *             If server is not available for the registration.
+	 * @throws ExecutionException
+	 *             If registration fails.
+	 */
+	private List<SqlStatementData> encodeSqlStatements(List<? extends DefaultData> measurements) throws ServerUnavailableException, ExecutionException {
+		List<SqlStatementData> sqlStatements = SqlStatementDictionary.collect(measurements);
+		if (sqlStatements.isEmpty()) {
+			return sqlStatements;
+		}
+
+		// all data is created by this agent, thus has the same platform ident
+		final long platformIdent = sqlStatements.get(0).getPlatformIdent();
+		final Map<Integer, String> unregistered = sqlStatementDictionary.getUnregistered(platformIdent, sqlStatements);
+		if (!unregistered.isEmpty()) {
+			FailFastRemoteMethodCall<IAgentService, Void> call = new FailFastRemoteMethodCall<IAgentService, Void>(agentService) {
+				@Override
+				protected Void performRemoteCall(IAgentService service) {
+					service.registerSqlStatements(platformIdent, unregistered);
+					return null;
+				}
+			};
+			call.makeCall();
+			sqlStatementDictionary.markRegistered(platformIdent, unregistered.keySet());
+		}
+
+		return sqlStatementDictionary.encode(platformIdent, sqlStatements);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -415,6 +497,46 @@ public class KryoNetConnection implements IConnection {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Map<String, InstrumentationDefinition> analyzeAll(final long platformIdent, final Map<String, Type> hashAndTypes) throws ServerUnavailableException, BusinessException {
+		if (!isConnected()) {
+			throw new ServerUnavailableException();
+		}
+
+		// make call
+		FailFastRemoteMethodCall<IAgentService, Map<String, InstrumentationDefinition>> call = new FailFastRemoteMethodCall<IAgentService, Map<String, InstrumentationDefinition>>(agentService) {
+			@Override
+			protected Map<String, InstrumentationDefinition> performRemoteCall(IAgentService service) throws Exception {
+				return agentService.analyzeAll(platformIdent, hashAndTypes);
+			}
+		};
+
+		try {
+			return call.makeCall();
+		} catch (ExecutionException executionException) {
+			if (log.isTraceEnabled()) {
+				log.trace("analyzeAll(long,Map)", executionException);
+			}
+
+			// check for business exception
+			if (executionException.getCause() instanceof BusinessException) {
+				throw ((BusinessException) executionException.getCause()); // NOPMD
+			}
+
+			// otherwise we log and return empty map as it's unexpected exception for us
+			log.error("Could not get instrumentation results", executionException);
+			return Collections.emptyMap();
+		} catch (ServerUnavailableException e) {
+			if (!e.isServerTimeout()) {
+				disconnectClient();
+			}
+			throw e;
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -0,0 +1,248 @@
+package rocks.inspectit.agent.java.connection.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+import rocks.inspectit.shared.all.communication.data.SqlStatementData;
+
+/**
+ * Dictionary of the SQL strings sent by the agent. Each distinct SQL string gets a compact id that
+ * is registered with the CMR together with the string once per connection. After the registration
+ * the {@link SqlStatementData} objects are sent with the id only, thus the same SQL string is not
+ * serialized again with every data batch.
+ * <p>
+ * The {@link SqlStatementData} objects are encoded right before they are sent and must be decoded
+ * after sending with {@link #decode(List)}, so that the objects that are not sent and are kept by
+ * the agent hold the complete SQL string.
+ * <p>
+ * Amount of the statements in the dictionary is limited, statements that do not fit are always sent
+ * as complete strings.
+ *
+ * @author agent
+ *
+ */
+public class SqlStatementDictionary {
+
+	/**
+	 * Maximum amount of the statements in the dictionary.
+	 */
+	static final int MAX_STATEMENTS = 10000;
+
+	/**
+	 * Ids of the SQL strings. Access must be synchronized on the dictionary.
+	 */
+	private final Map<String, Integer> ids = new HashMap<String, Integer>();
+
+	/**
+	 * SQL strings by the id. Access must be synchronized on the dictionary.
+	 */
+	private final Map<Integer, String> statements = new HashMap<Integer, String>();
+
+	/**
+	 * Ids registered with the CMR on the current connection. Access must be synchronized on the
+	 * dictionary.
+	 */
+	private final Set<Integer> registeredIds = new HashSet<Integer>();
+
+	/**
+	 * Platform ident the ids are registered for. Access must be synchronized on the dictionary.
+	 */
+	private long registeredPlatformIdent;
+
+	/**
+	 * Collects all {@link SqlStatementData} objects from the given data, including the ones in the
+	 * invocation sequences.
+	 *
+	 * @param dataObjects
+	 *            Data objects to be sent.
+	 * @return All {@link SqlStatementData} objects with the SQL string.
+	 */
+	public static List<SqlStatementData> collect(List<? extends DefaultData> dataObjects) {
+		List<SqlStatementData> sqlStatements = new ArrayList<SqlStatementData>();
+		for (DefaultData dataObject : dataObjects) {
+			if (dataObject instanceof SqlStatementData) {
+				add((SqlStatementData) dataObject, sqlStatements);
+			} else if (dataObject instanceof InvocationSequenceData) {
+				collect((InvocationSequenceData) dataObject, sqlStatements);
+			}
+		}
+		return sqlStatements;
+	}
+
+	/**
+	 * Returns the statements from the given {@link SqlStatementData} objects that are not yet
+	 * registered with the CMR. New statements are added to the dictionary.
+	 *
+	 * @param platformIdent
+	 *            Platform ident the statements are registered for.
+	 * @param sqlStatements
+	 *            {@link SqlStatementData} objects to be sent.
+	 * @return Map of the statement ids to the SQL strings that need to be registered.
+	 */
+	public synchronized Map<Integer, String> getUnregistered(long platformIdent, List<SqlStatementData> sqlStatements) {
+		Map<Integer, String> unregistered = new HashMap<Integer, String>();
+		for (SqlStatementData sqlStatementData : sqlStatements) {
+			String sql = sqlStatementData.getSql();
+			if ((null == sql) || (platformIdent != sqlStatementData.getPlatformIdent())) {
+				continue;
+			}
+
+			Integer id = getId(sql);
+			if ((null != id) && !isRegistered(platformIdent, id)) {
+				unregistered.put(id, sql);
+			}
+		}
+		return unregistered;
+	}
+
+	/**
+	 * Marks the statement ids as registered with the CMR.
+	 *
+	 * @param platformIdent
+	 *            Platform ident the statements are registered for.
+	 * @param registered
+	 *            Registered ids.
+	 */
+	public synchronized void markRegistered(long platformIdent, Collection<Integer> registered) {
+		if (platformIdent != registeredPlatformIdent) {
+			registeredIds.clear();
+			registeredPlatformIdent = platformIdent;
+		}
+		registeredIds.addAll(registered);
+	}
+
+	/**
+	 * Replaces the SQL string with the statement id in all {@link SqlStatementData} objects which
+	 * statement is registered with the CMR.
+	 *
+	 * @param platformIdent
+	 *            Platform ident the statements are registered for.
+	 * @param sqlStatements
+	 *            {@link SqlStatementData} objects to be sent.
+	 * @return Encoded {@link SqlStatementData} objects that must be passed to
+	 *         {@link #decode(List)} after sending.
+	 */
+	public synchronized List<SqlStatementData> encode(long platformIdent, List<SqlStatementData> sqlStatements) {
+		if (platformIdent != registeredPlatformIdent) {
+			return Collections.emptyList();
+		}
+
+		List<SqlStatementData> encoded = new ArrayList<SqlStatementData>(sqlStatements.size());
+		for (SqlStatementData sqlStatementData : sqlStatements) {
+			String sql = sqlStatementData.getSql();
+			if ((null == sql) || (platformIdent != sqlStatementData.getPlatformIdent())) {
+				continue;
+			}
+
+			Integer id = ids.get(sql);
+			if ((null != id) && registeredIds.contains(id)) {
+				sqlStatementData.setSql(null);
+				sqlStatementData.setSqlId(id.intValue());
+				encoded.add(sqlStatementData);
+			}
+		}
+		return encoded;
+	}
+
+	/**
+	 * Restores the SQL strings of the encoded {@link SqlStatementData} objects.
+	 *
+	 * @param encoded
+	 *            Objects returned by {@link #encode(long, List)}.
+	 */
+	public synchronized void decode(List<SqlStatementData> encoded) {
+		for (SqlStatementData sqlStatementData : encoded) {
+			sqlStatementData.setSql(statements.get(Integer.valueOf(sqlStatementData.getSqlId())));
+			sqlStatementData.setSqlId(0);
+		}
+	}
+
+	/**
+	 * Resets the registered statements. Must be called when the new connection is established, as
+	 * the statements have to be registered again. Ids of the statements stay the same.
+	 */
+	public synchronized void reset() {
+		registeredIds.clear();
+	}
+
+	/**
+	 * Returns the amount of statements in the dictionary.
+	 *
+	 * @return Returns the amount of statements in the dictionary.
+	 */
+	public synchronized int size() {
+		return ids.size();
+	}
+
+	/**
+	 * Returns the id of the SQL string, adding it to the dictionary if it's not known.
+	 *
+	 * @param sql
+	 *            SQL string.
+	 * @return Id of the string or <code>null</code> if the dictionary is full.
+	 */
+	private Integer getId(String sql) {
+		Integer id = ids.get(sql);
+		if ((null == id) && (ids.size() < MAX_STATEMENTS)) {
+			id = Integer.valueOf(ids.size() + 1);
+			ids.put(sql, id);
+			statements.put(id, sql);
+		}
+		return id;
+	}
+
+	/**
+	 * Returns if the id is registered with the CMR for the given platform ident.
+	 *
+	 * @param platformIdent
+	 *            Platform ident.
+	 * @param id
+	 *            Statement id.
+	 * @return <code>true</code> if id is registered.
+	 */
+	private boolean isRegistered(long platformIdent, Integer id) {
+		return (platformIdent == registeredPlatformIdent) && registeredIds.contains(id);
+	}
+
+	/**
+	 * Collects the {@link SqlStatementData} objects from the invocation sequence and its nested
+	 * sequences.
+	 *
+	 * @param invocationSequenceData
+	 *            Invocation sequence.
+	 * @param sqlStatements
+	 *            List to add to.
+	 */
+	private static void collect(InvocationSequenceData invocationSequenceData, List<SqlStatementData> sqlStatements) {
+		add(invocationSequenceData.getSqlStatementData(), sqlStatements);
+		List<InvocationSequenceData> nestedSequences = invocationSequenceData.getNestedSequences();
+		if (null != nestedSequences) {
+			for (InvocationSequenceData nested : nestedSequences) {
+				collect(nested, sqlStatements);
+			}
+		}
+	}
+
+	/**
+	 * Adds the {@link SqlStatementData} to the list if it holds the SQL string.
+	 *
+	 * @param sqlStatementData
+	 *            {@link SqlStatementData}, can be <code>null</code>.
+	 * @param sqlStatements
+	 *            List to add to.
+	 */
+	private static void add(SqlStatementData sqlStatementData, List<SqlStatementData> sqlStatements) {
+		if ((null != sqlStatementData) && (null != sqlStatementData.getSql())) {
+			sqlStatements.add(sqlStatementData);
+		}
+	}
+
+}
@@ -0,0 +1,58 @@
+package rocks.inspectit.agent.java.core;
+
+import java.util.Map;
+
+import rocks.inspectit.shared.all.communication.DefaultData;
+
+/**
+ * Interface for the data sampler. The data sampler decides if a data object passed to the
+ * {@link ICoreService} should be sent based on the current occupancy of the buffer. When the buffer
+ * is filling up the sampler starts to deterministically sample the data, beginning with the data
+ * types that are cheapest to lose. The applied sampling rates are reported to the CMR so that the
+ * counts can be extrapolated.
+ *
+ * @author agent
+ *
+ */
+public interface IDataSampler {
+
+	/**
+	 * Decides if the given data object should be sent.
+	 *
+	 * @param defaultData
+	 *            Data object.
+	 * @param bufferSize
+	 *            Total size of the buffer.
+	 * @param remainingCapacity
+	 *            Remaining capacity of the buffer.
+	 * @return <code>true</code> if the data object should be sent, <code>false</code> if it is
+	 *         sampled out.
+	 */
+	boolean sample(DefaultData defaultData, int bufferSize, long remainingCapacity);
+
+	/**
+	 * Signals that the data object that was selected for sending by the
+	 * {@link #sample(DefaultData, int, long)} was dropped. The buffer size and remaining capacity
+	 * must be the ones passed to the {@link #sample(DefaultData, int, long)} call for the data
+	 * object, so that the sampler knows if the data object was counted.
+	 *
+	 * @param defaultData
+	 *            Data object that was dropped.
+	 * @param bufferSize
+	 *            Total size of the buffer when the data object was sampled.
+	 * @param remainingCapacity
+	 *            Remaining capacity of the buffer when the data object was sampled.
+	 */
+	void dropped(DefaultData defaultData, int bufferSize, long remainingCapacity);
+
+	/**
+	 * Returns the sampling rates per sensor type since the last call of this method. Sampling rate
+	 * is the ratio between the sent and the created data objects of a sensor type and is only
+	 * reported for the sensor types that did not send all data.
+	 *
+	 * @return Map of sensor type ids to the sampling rates. Returns empty map if sampling has
+	 *         stopped since the last call and <code>null</code> if there is nothing to report.
+	 */
+	Map<Long, Double> getSamplingRates();
+
+}
@@ -0,0 +1,35 @@
+package rocks.inspectit.agent.java.core;
+
+import java.util.List;
+
+import rocks.inspectit.shared.all.communication.DefaultData;
+
+/**
+ * Interface for the data spool. The data spool keeps the monitoring data that can not be sent to
+ * the CMR (for example when the CMR is not reachable) and sends it later when the connection is
+ * available again.
+ *
+ * @author agent
+ *
+ */
+public interface IDataSpool {
+
+	/**
+	 * Returns if the spool is active. If not active no data can be spooled.
+	 *
+	 * @return Returns if the spool is active.
+	 */
+	boolean isActive();
+
+	/**
+	 * Spools the given data objects. The data will be passed to the CMR as soon as the connection
+	 * is available again.
+	 *
+	 * @param dataObjects
+	 *            Data objects to spool.
+	 * @return <code>true</code> if data was spooled, <code>false</code> if the data could not be
+	 *         spooled and is thus lost.
+	 */
+	boolean spool(List<? extends DefaultData> dataObjects);
+
+}
@@ -6,6 +6,7 @@ package rocks.inspectit.agent.java.core.disruptor;
  *
  * <ul>
  * <li>the size of the disruptor buffer
+ * <li>the limits of the disk spool used when the CMR is not reachable
  * </ul>
  *
  * @author Ivan Senic
@@ -19,4 +20,21 @@ public interface IDisruptorStrategy {
 	 * @return Returns the size of the buffer for storing monitoring data before sending.
 	 */
 	int getDataBufferSize();
+
+	/**
+	 * Returns the maximum size in bytes of the disk spool where data is kept while the CMR is not
+	 * reachable.
+	 *
+	 * @return Returns the maximum size in bytes of the disk spool or zero if the spool is not
+	 *         active.
+	 */
+	long getSpoolMaxSize();
+
+	/**
+	 * Returns the maximum age in milliseconds of data kept in the disk spool.
+	 *
+	 * @return Returns the maximum age in milliseconds of data kept in the disk spool or zero if
+	 *         there is no age limit.
+	 */
+	long getSpoolMaxAge();
 }
@@ -11,7 +11,8 @@ import rocks.inspectit.agent.java.config.IConfigurationStorage;
 import rocks.inspectit.agent.java.core.disruptor.IDisruptorStrategy;
 
 /**
- * Default strategy for configuring the disruptor. Holds the buffer size of disruptor.
+ * Default strategy for configuring the disruptor. Holds the buffer size of disruptor and the
+ * optional disk spool limits.
  *
  * @author Ivan Senic
  *
@@ -29,6 +30,16 @@ public class DefaultDisruptorStrategy implements IDisruptorStrategy {
 	 */
 	private int dataBufferSize;
 
+	/**
+	 * Max size of the disk spool in bytes.
+	 */
+	private long spoolMaxSize;
+
+	/**
+	 * Max age of the data in the disk spool in milliseconds.
+	 */
+	private long spoolMaxAge;
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -37,6 +48,22 @@ public class DefaultDisruptorStrategy implements IDisruptorStrategy {
 		return dataBufferSize;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getSpoolMaxSize() {
+		return spoolMaxSize;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getSpoolMaxAge() {
+		return spoolMaxAge;
+	}
+
 	/**
 	 * Reads settings from the {@link #configurationStorage}. Should be called only after
 	 * initialized as bean.
@@ -53,6 +80,12 @@ public class DefaultDisruptorStrategy implements IDisruptorStrategy {
 		} else {
 			throw new BeanInitializationException("Disruptor strategy can not be initialized without the buffer size property.");
 		}
+		if (settings.containsKey("spoolMaxSize")) {
+			this.spoolMaxSize = Long.parseLong(settings.get("spoolMaxSize"));
+		}
+		if (settings.containsKey("spoolMaxAge")) {
+			this.spoolMaxAge = Long.parseLong(settings.get("spoolMaxAge"));
+		}
 	}
 
 }
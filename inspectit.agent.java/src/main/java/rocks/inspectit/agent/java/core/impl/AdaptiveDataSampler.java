@@ -0,0 +1,220 @@
+package rocks.inspectit.agent.java.core.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.springframework.stereotype.Component;
+
+import rocks.inspectit.agent.java.core.IDataSampler;
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.SystemSensorData;
+import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+import rocks.inspectit.shared.all.communication.data.JmxSensorValueData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.spring.logger.Log;
+
+/**
+ * Data sampler that adapts the sampling to the occupancy of the buffer. Each data type starts to
+ * be sampled when the buffer occupancy exceeds the threshold defined for the type: timer, platform
+ * and JMX data first, invocation sequences last. Above the threshold every 2^n-th data object of a
+ * sensor type is sent, where n grows with the occupancy up to the {@link #MAX_SAMPLING_EXPONENT}.
+ * <p>
+ * The sampler counts the created and sent data objects per sensor type only while the buffer
+ * occupancy is over the threshold of the type, below the threshold no shared state is touched. Thus
+ * the sampling rates reported are the rates applied while sampling was active and also include the
+ * data dropped due to the full buffer. For the same reason a dropped data object is only subtracted
+ * from the sent count if it was counted when sampled.
+ *
+ * @author agent
+ *
+ */
+@Component
+public class AdaptiveDataSampler implements IDataSampler {
+
+	/**
+	 * Buffer occupancy when the sampling of the data that is cheapest to lose starts (timer,
+	 * platform and JMX data).
+	 */
+	static final double LOW_PRIORITY_THRESHOLD = 0.5d;
+
+	/**
+	 * Buffer occupancy when the sampling of the data not having low or high priority starts.
+	 */
+	static final double NORMAL_PRIORITY_THRESHOLD = 0.7d;
+
+	/**
+	 * Buffer occupancy when the sampling of the invocation sequences starts.
+	 */
+	static final double HIGH_PRIORITY_THRESHOLD = 0.85d;
+
+	/**
+	 * Maximum sampling exponent. With the full buffer only one of 2^exponent data objects is sent.
+	 */
+	static final int MAX_SAMPLING_EXPONENT = 5;
+
+	/**
+	 * The logger of the class.
+	 */
+	@Log
+	Logger log;
+
+	/**
+	 * Counters per sensor type id.
+	 */
+	private final ConcurrentMap<Long, SensorTypeCounter> counters = new ConcurrentHashMap<Long, SensorTypeCounter>();
+
+	/**
+	 * If sampling rates were reported in the last {@link #getSamplingRates()} call. Only accessed
+	 * by the thread reporting the rates.
+	 */
+	private boolean samplingReported;
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean sample(DefaultData defaultData, int bufferSize, long remainingCapacity) {
+		int exponent = getSamplingExponent(getThreshold(defaultData), bufferSize, remainingCapacity);
+		if (0 == exponent) {
+			// below the threshold, don't touch the shared counters
+			return true;
+		}
+
+		SensorTypeCounter counter = getCounter(defaultData.getSensorTypeIdent());
+		long sequence = counter.created.getAndIncrement();
+		if (0 != (sequence & ((1L << exponent) - 1))) {
+			return false;
+		}
+
+		counter.sent.incrementAndGet();
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void dropped(DefaultData defaultData, int bufferSize, long remainingCapacity) {
+		if (0 == getSamplingExponent(getThreshold(defaultData), bufferSize, remainingCapacity)) {
+			// not counted as sent by the sample method
+			return;
+		}
+
+		getCounter(defaultData.getSensorTypeIdent()).sent.decrementAndGet();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Map<Long, Double> getSamplingRates() {
+		Map<Long, Double> samplingRates = new HashMap<Long, Double>();
+		for (Map.Entry<Long, SensorTypeCounter> entry : counters.entrySet()) {
+			long created = entry.getValue().created.getAndSet(0);
+			long sent = entry.getValue().sent.getAndSet(0);
+			if ((created > 0) && (sent < created)) {
+				samplingRates.put(entry.getKey(), Double.valueOf((double) Math.max(0L, sent) / created));
+			}
+		}
+
+		if (samplingRates.isEmpty()) {
+			if (!samplingReported) {
+				return null;
+			}
+			samplingReported = false;
+			if (log.isInfoEnabled()) {
+				log.info("Buffer occupancy back to normal, monitoring data is not sampled anymore.");
+			}
+		} else if (!samplingReported) {
+			samplingReported = true;
+			if (log.isWarnEnabled()) {
+				log.warn("Buffer occupancy is high, monitoring data is being sampled. Sampling rates per sensor type: " + samplingRates);
+			}
+		}
+		return samplingRates;
+	}
+
+	/**
+	 * Returns the counter for the sensor type, creates one if it does not exist.
+	 *
+	 * @param sensorTypeIdent
+	 *            Sensor type id.
+	 * @return {@link SensorTypeCounter}
+	 */
+	private SensorTypeCounter getCounter(long sensorTypeIdent) {
+		Long key = Long.valueOf(sensorTypeIdent);
+		SensorTypeCounter counter = counters.get(key);
+		if (null == counter) {
+			counter = new SensorTypeCounter();
+			SensorTypeCounter existing = counters.putIfAbsent(key, counter);
+			if (null != existing) {
+				counter = existing;
+			}
+		}
+		return counter;
+	}
+
+	/**
+	 * Returns the buffer occupancy threshold for the given data object.
+	 *
+	 * @param defaultData
+	 *            Data object.
+	 * @return Buffer occupancy when sampling of the data object starts.
+	 */
+	static double getThreshold(DefaultData defaultData) {
+		if (defaultData instanceof InvocationSequenceData) {
+			return HIGH_PRIORITY_THRESHOLD;
+		} else if ((defaultData instanceof TimerData) || (defaultData instanceof SystemSensorData) || (defaultData instanceof JmxSensorValueData)) {
+			return LOW_PRIORITY_THRESHOLD;
+		} else {
+			return NORMAL_PRIORITY_THRESHOLD;
+		}
+	}
+
+	/**
+	 * Calculates the sampling exponent. Exponent is <code>0</code> (no sampling) below the
+	 * threshold and grows linearly from <code>1</code> at the threshold to the
+	 * {@link #MAX_SAMPLING_EXPONENT} when the buffer is full.
+	 *
+	 * @param threshold
+	 *            Buffer occupancy when sampling starts.
+	 * @param bufferSize
+	 *            Total size of the buffer.
+	 * @param remainingCapacity
+	 *            Remaining capacity of the buffer.
+	 * @return Sampling exponent.
+	 */
+	static int getSamplingExponent(double threshold, int bufferSize, long remainingCapacity) {
+		double occupancy = 1.0d - ((double) remainingCapacity / bufferSize);
+		if (occupancy < threshold) {
+			return 0;
+		}
+		return 1 + (int) (((occupancy - threshold) / (1.0d - threshold)) * (MAX_SAMPLING_EXPONENT - 1));
+	}
+
+	/**
+	 * Counts created and sent data objects of one sensor type.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static class SensorTypeCounter {
+
+		/**
+		 * Amount of data objects created. Also serves as the sequence for the deterministic
+		 * sampling.
+		 */
+		private final AtomicLong created = new AtomicLong();
+
+		/**
+		 * Amount of data objects sent.
+		 */
+		private final AtomicLong sent = new AtomicLong();
+
+	}
+
+}
@@ -26,6 +26,7 @@ import com.lmax.disruptor.dsl.ProducerType;
 
 import rocks.inspectit.agent.java.config.StorageException;
 import rocks.inspectit.agent.java.core.ICoreService;
+import rocks.inspectit.agent.java.core.IDataSampler;
 import rocks.inspectit.agent.java.core.disruptor.IDisruptorStrategy;
 import rocks.inspectit.agent.java.sensor.jmx.IJmxSensor;
 import rocks.inspectit.agent.java.sensor.platform.IPlatformSensor;
@@ -92,6 +93,12 @@ public class CoreService implements ICoreService {
 	@Autowired
 	private DefaultDataHandler defaultDataHandler;
 
+	/**
+	 * Data sampler deciding on the data to send when buffer is filling up.
+	 */
+	@Autowired
+	private IDataSampler dataSampler;
+
 	/**
 	 * Stats logger for reporting data dropped count.
 	 */
@@ -128,6 +135,13 @@ public class CoreService implements ICoreService {
 			return;
 		}
 
+		// shed the load deterministically before the buffer is full
+		int bufferSize = ringBuffer.getBufferSize();
+		long remainingCapacity = ringBuffer.remainingCapacity();
+		if (!dataSampler.sample(defaultData, bufferSize, remainingCapacity)) {
+			return;
+		}
+
 		try {
 			// grab the next sequence, never wait for it to be available so that that we don't block
 			long sequence = ringBuffer.tryNext();
@@ -140,6 +154,7 @@ public class CoreService implements ICoreService {
 			}
 		} catch (InsufficientCapacityException e) {
 			// pass the dropped count
+			dataSampler.dropped(defaultData, bufferSize, remainingCapacity);
 			statsLogger.dataDropped(1);
 		}
 	}
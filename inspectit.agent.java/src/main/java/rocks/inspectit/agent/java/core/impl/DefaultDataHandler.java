@@ -11,12 +11,14 @@ import com.lmax.disruptor.EventHandler;
 
 import rocks.inspectit.agent.java.connection.IConnection;
 import rocks.inspectit.agent.java.connection.ServerUnavailableException;
+import rocks.inspectit.agent.java.core.IDataSpool;
 import rocks.inspectit.agent.java.stats.AgentStatisticsLogger;
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.spring.logger.Log;
 
 /**
  * {@link EventHandler} that sends the data wrapped in the {@link DefaultDataWrapper} to the CMR.
+ * If the CMR is not available the data is passed to the {@link IDataSpool} when active.
  *
  * @author Matthias Huber
  * @author Ivan Senic
@@ -43,6 +45,12 @@ public class DefaultDataHandler implements EventHandler<DefaultDataWrapper> {
 	@Autowired
 	private AgentStatisticsLogger statsLogger;
 
+	/**
+	 * Data spool for keeping the data while the CMR is not available.
+	 */
+	@Autowired
+	private IDataSpool dataSpool;
+
 	/**
 	 * List where data is collected and then passed to the connection.
 	 */
@@ -67,7 +75,7 @@ public class DefaultDataHandler implements EventHandler<DefaultDataWrapper> {
 					connection.sendDataObjects(defaultDatas);
 					sendingExceptionNotice = false;
 				} else {
-					statsLogger.dataDropped(defaultDatas.size());
+					spoolOrDrop();
 				}
 			} catch (ServerUnavailableException serverUnavailableException) {
 				if (serverUnavailableException.isServerTimeout()) {
@@ -77,6 +85,7 @@ public class DefaultDataHandler implements EventHandler<DefaultDataWrapper> {
 						sendingExceptionNotice = true;
 						log.error("Connection problem appeared, stopping sending actual data!", serverUnavailableException);
 					}
+					spoolOrDrop();
 				}
 			} finally {
 				defaultDatas.clear();
@@ -84,4 +93,13 @@ public class DefaultDataHandler implements EventHandler<DefaultDataWrapper> {
 		}
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Passes the current data to the data spool if active, otherwise reports the data as dropped.
+	 */
+	private void spoolOrDrop() {
+		if (!dataSpool.isActive() || !dataSpool.spool(defaultDatas)) {
+			statsLogger.dataDropped(defaultDatas.size());
+		}
+	}
+
+}
@@ -0,0 +1,974 @@
+package rocks.inspectit.agent.java.core.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import rocks.inspectit.agent.java.connection.IConnection;
+import rocks.inspectit.agent.java.connection.ServerUnavailableException;
+import rocks.inspectit.agent.java.core.IDataSpool;
+import rocks.inspectit.agent.java.core.disruptor.IDisruptorStrategy;
+import rocks.inspectit.agent.java.io.FileResolver;
+import rocks.inspectit.agent.java.spring.PrototypesProvider;
+import rocks.inspectit.agent.java.stats.AgentStatisticsLogger;
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.serializer.SerializationException;
+import rocks.inspectit.shared.all.serializer.impl.SerializationManager;
+import rocks.inspectit.shared.all.spring.logger.Log;
+import rocks.inspectit.shared.all.util.MappedByteBufferUtils;
+
+/**
+ * {@link IDataSpool} that keeps the serialized data batches in append-only, memory-mapped segment
+ * files on the agent host. The total size of the segment files is bounded by the spool max size
+ * defined in the {@link IDisruptorStrategy}. When there is no more space the oldest segment is
+ * evicted. Data older than the spool max age is evicted as well.
+ * <p>
+ * Each record holds the checksum of the serialized bytes and its length is written last, so a
+ * record becomes visible only when it is completely written. Sent records are marked in the
+ * segment. Segments left by a previous run of the agent are thus recovered on startup and the data
+ * not sent yet is replayed. The recovery of a segment stops at the first truncated or corrupt
+ * record.
+ * <p>
+ * The spooled data is drained in the core service executor at a limited rate as soon as the
+ * connection to the CMR is available again. A record is sent at most once after a server timeout,
+ * as the CMR might have stored it already. Records of a segment evicted while being sent are
+ * reported as dropped only if the sending fails.
+ *
+ * @author agent
+ *
+ */
+@Component
+public class MappedFileDataSpool implements IDataSpool, InitializingBean, DisposableBean {
+
+	/**
+	 * Size of the record header (length, objects count, timestamp and checksum).
+	 */
+	static final int RECORD_HEADER_SIZE = 20;
+
+	/**
+	 * Offset of the serialized bytes length in the record header.
+	 */
+	static final int LENGTH_OFFSET = 0;
+
+	/**
+	 * Offset of the objects count in the record header.
+	 */
+	static final int COUNT_OFFSET = 4;
+
+	/**
+	 * Offset of the timestamp in the record header.
+	 */
+	static final int TIMESTAMP_OFFSET = 8;
+
+	/**
+	 * Offset of the checksum in the record header.
+	 */
+	static final int CHECKSUM_OFFSET = 16;
+
+	/**
+	 * Flag set in the objects count of the records already sent.
+	 */
+	private static final int COMMITTED_FLAG = Integer.MIN_VALUE;
+
+	/**
+	 * Maximum size of one segment file.
+	 */
+	private static final int MAX_SEGMENT_SIZE = 8 * 1024 * 1024;
+
+	/**
+	 * Minimum amount of segments the spool size is divided to.
+	 */
+	private static final int MIN_SEGMENT_COUNT = 4;
+
+	/**
+	 * Period in milliseconds of the drain task.
+	 */
+	private static final long DRAIN_PERIOD = 1000L;
+
+	/**
+	 * Maximum amount of spooled bytes to send to the CMR in one drain period.
+	 */
+	private static final int DRAIN_BYTES_PER_PERIOD = 1024 * 1024;
+
+	/**
+	 * Extension of the segment files.
+	 */
+	private static final String SEGMENT_FILE_EXTENSION = ".spool";
+
+	/**
+	 * The logger of the class.
+	 */
+	@Log
+	Logger log;
+
+	/**
+	 * Disruptor strategy holding the spool limits.
+	 */
+	@Autowired
+	private IDisruptorStrategy disruptorStrategy;
+
+	/**
+	 * {@link FileResolver} for the spool directory.
+	 */
+	@Autowired
+	private FileResolver fileResolver;
+
+	/**
+	 * Provider of the serialization managers.
+	 */
+	@Autowired
+	private PrototypesProvider prototypesProvider;
+
+	/**
+	 * The connection to the Central Measurement Repository.
+	 */
+	@Autowired
+	private IConnection connection;
+
+	/**
+	 * Stats logger for reporting data dropped count.
+	 */
+	@Autowired
+	private AgentStatisticsLogger statsLogger;
+
+	/**
+	 * Executor service for the drain task.
+	 */
+	@Autowired
+	@Qualifier("coreServiceExecutorService")
+	private ScheduledExecutorService executorService;
+
+	/**
+	 * If spool is active.
+	 */
+	private volatile boolean active;
+
+	/**
+	 * Directory where segment files are created.
+	 */
+	private File directory;
+
+	/**
+	 * Size of one new segment in bytes.
+	 */
+	private int segmentSize;
+
+	/**
+	 * Max size of all segments in bytes.
+	 */
+	private long maxSize;
+
+	/**
+	 * Current size of all segments in bytes.
+	 */
+	private long totalSize;
+
+	/**
+	 * Max age of the data in milliseconds.
+	 */
+	private long maxAge;
+
+	/**
+	 * Current segments, oldest first.
+	 */
+	private final LinkedList<Segment> segments = new LinkedList<Segment>();
+
+	/**
+	 * Counter for the segment file names.
+	 */
+	private long segmentCounter;
+
+	/**
+	 * Serialization manager used for spooling.
+	 */
+	private SerializationManager writeSerializationManager;
+
+	/**
+	 * Serialization manager used for draining.
+	 */
+	private SerializationManager readSerializationManager;
+
+	/**
+	 * Output used for spooling.
+	 */
+	private final Output output = new Output(4096, -1);
+
+	/**
+	 * Checksum calculation of the records.
+	 */
+	private final CRC32 checksum = new CRC32();
+
+	/**
+	 * Record currently being sent by the drain, <code>null</code> if none.
+	 */
+	private Record inFlight;
+
+	/**
+	 * If the data batch too big for a segment was already reported. Used to throttle the logging.
+	 */
+	private boolean oversizeNotice;
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isActive() {
+		return active;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized boolean spool(List<? extends DefaultData> dataObjects) {
+		if (!active || dataObjects.isEmpty()) {
+			return false;
+		}
+
+		try {
+			output.clear();
+			writeSerializationManager.serialize(dataObjects, output);
+		} catch (SerializationException e) {
+			log.warn("Unable to serialize the data for spooling.", e);
+			return false;
+		}
+
+		int length = output.position();
+		if ((RECORD_HEADER_SIZE + length) > segmentSize) {
+			// can never fit, the caller reports the data as dropped
+			if (!oversizeNotice) {
+				oversizeNotice = true;
+				log.warn("Data batch of " + length + " bytes is bigger than the data spool segment of " + segmentSize + " bytes and can not be spooled. Increase the spool max size to spool such batches.");
+			} else if (log.isDebugEnabled()) {
+				log.debug("Data batch of " + length + " bytes can not be spooled.");
+			}
+			return false;
+		}
+
+		long now = System.currentTimeMillis();
+		evictExpired(now);
+
+		try {
+			Segment segment = segments.peekLast();
+			if ((null == segment) || (segment.getFreeSpace() < (RECORD_HEADER_SIZE + length))) {
+				segment = openNewSegment();
+			}
+			checksum.reset();
+			checksum.update(output.getBuffer(), 0, length);
+			segment.append(output.getBuffer(), length, dataObjects.size(), now, (int) checksum.getValue());
+			return true;
+		} catch (IOException e) {
+			log.warn("Unable to write the data to the spool.", e);
+			return false;
+		}
+	}
+
+	/**
+	 * Sends spooled data to the CMR if the connection is available. Sends maximum of
+	 * {@value #DRAIN_BYTES_PER_PERIOD} bytes in one run to prevent flooding the CMR after
+	 * reconnection.
+	 */
+	@SuppressWarnings("unchecked")
+	void drain() {
+		if (!active || !connection.isConnected()) {
+			return;
+		}
+
+		int drained = 0;
+		while (drained < DRAIN_BYTES_PER_PERIOD) {
+			Record record = nextRecord();
+			if (null == record) {
+				return;
+			}
+
+			List<? extends DefaultData> dataObjects;
+			try {
+				dataObjects = (List<? extends DefaultData>) readSerializationManager.deserialize(new Input(record.bytes));
+			} catch (SerializationException e) {
+				log.warn("Unable to de-serialize spooled data, data will be dropped.", e);
+				commit(record);
+				statsLogger.dataDropped(record.count);
+				continue;
+			}
+
+			try {
+				connection.sendDataObjects(dataObjects);
+			} catch (ServerUnavailableException e) {
+				if (e.isServerTimeout()) {
+					// the CMR might have stored the data already, don't send it again
+					log.warn("Timeout on server when sending spooled data. Data might be lost!", e);
+					commit(record);
+				} else {
+					// keep the record for the next run
+					release(record);
+				}
+				return;
+			} catch (RuntimeException e) {
+				release(record);
+				throw e;
+			}
+
+			commit(record);
+			drained += record.bytes.length;
+		}
+	}
+
+	/**
+	 * Returns the oldest not yet sent record. Expired records and fully read segments are removed.
+	 *
+	 * @return Oldest record or <code>null</code> if spool is empty.
+	 */
+	private synchronized Record nextRecord() {
+		long now = System.currentTimeMillis();
+		evictExpired(now);
+
+		while (!segments.isEmpty()) {
+			Segment segment = segments.getFirst();
+			if (segment.hasUnread()) {
+				Record record = segment.read();
+				if ((maxAge > 0) && (record.timestamp < (now - maxAge))) {
+					segment.commit(record);
+					statsLogger.dataDropped(record.count);
+					continue;
+				}
+				inFlight = record;
+				return record;
+			}
+
+			// keep the segment we are writing to
+			if (segment.isWritable()) {
+				return null;
+			}
+			remove(segment);
+		}
+		return null;
+	}
+
+	/**
+	 * Marks the record as sent.
+	 *
+	 * @param record
+	 *            Record obtained by {@link #nextRecord()}.
+	 */
+	private synchronized void commit(Record record) {
+		inFlight = null; // NOPMD
+		Segment segment = record.segment;
+		if (segment.isClosed()) {
+			// evicted while sending
+			return;
+		}
+
+		segment.commit(record);
+		if (!segment.hasUnread() && !segment.isWritable()) {
+			remove(segment);
+		}
+	}
+
+	/**
+	 * Releases the record that could not be sent, so that it's sent in the next drain run. If the
+	 * segment of the record was evicted in the meantime, the data of the record is reported as
+	 * dropped.
+	 *
+	 * @param record
+	 *            Record obtained by {@link #nextRecord()}.
+	 */
+	private synchronized void release(Record record) {
+		inFlight = null; // NOPMD
+		if (record.segment.isClosed()) {
+			statsLogger.dataDropped(record.count);
+		}
+	}
+
+	/**
+	 * Opens new segment, evicting the oldest ones if the max size would be exceeded.
+	 *
+	 * @return New segment.
+	 * @throws IOException
+	 *             If segment file can not be created.
+	 */
+	private Segment openNewSegment() throws IOException {
+		Segment last = segments.peekLast();
+		if (null != last) {
+			if (last.hasUnread()) {
+				last.seal();
+			} else {
+				remove(last);
+			}
+		}
+
+		while (!segments.isEmpty() && ((totalSize + segmentSize) > maxSize)) {
+			remove(segments.getFirst());
+		}
+
+		File file = new File(directory, String.valueOf(segmentCounter++) + SEGMENT_FILE_EXTENSION);
+		Segment segment = Segment.create(file, segmentSize);
+		segments.addLast(segment);
+		totalSize += segment.size;
+		return segment;
+	}
+
+	/**
+	 * Evicts all segments that have no data younger than max age.
+	 *
+	 * @param now
+	 *            Current time.
+	 */
+	private void evictExpired(long now) {
+		if (maxAge <= 0) {
+			return;
+		}
+
+		while (!segments.isEmpty() && (segments.getFirst().lastWriteTime < (now - maxAge))) {
+			remove(segments.getFirst());
+		}
+	}
+
+	/**
+	 * Removes and deletes the segment and reports the not sent data as dropped. The record being
+	 * sent is not reported, as its outcome is not known yet.
+	 *
+	 * @param segment
+	 *            Segment to remove.
+	 */
+	private void remove(Segment segment) {
+		segments.remove(segment);
+		totalSize -= segment.size;
+		int pendingObjects = segment.pendingObjects;
+		if ((null != inFlight) && (inFlight.segment == segment)) {
+			pendingObjects -= inFlight.count;
+		}
+		segment.delete();
+		if (pendingObjects > 0) {
+			statsLogger.dataDropped(pendingObjects);
+		}
+	}
+
+	/**
+	 * Recovers the segments left in the spool directory by the previous run. Segments without data
+	 * to send are deleted. If the recovered data exceeds the max size, the oldest segments are
+	 * evicted.
+	 */
+	private void recoverSegments() {
+		File[] files = directory.listFiles();
+		if (null == files) {
+			return;
+		}
+
+		SortedMap<Long, File> segmentFiles = new TreeMap<Long, File>();
+		for (File file : files) {
+			String name = file.getName();
+			if (name.endsWith(SEGMENT_FILE_EXTENSION)) {
+				try {
+					segmentFiles.put(Long.valueOf(name.substring(0, name.length() - SEGMENT_FILE_EXTENSION.length())), file);
+				} catch (NumberFormatException e) {
+					log.warn("Unknown file " + file.getAbsolutePath() + " in the data spool directory will be ignored.");
+				}
+			}
+		}
+
+		int recoveredObjects = 0;
+		for (Map.Entry<Long, File> entry : segmentFiles.entrySet()) {
+			File file = entry.getValue();
+			segmentCounter = Math.max(segmentCounter, entry.getKey().longValue() + 1);
+
+			Segment segment;
+			try {
+				segment = Segment.recover(file, checksum);
+			} catch (IOException e) {
+				log.warn("Unable to recover the data spool file " + file.getAbsolutePath() + ", file will be deleted.", e);
+				if (!file.delete()) {
+					file.deleteOnExit();
+				}
+				continue;
+			}
+
+			if (segment.corrupt) {
+				log.warn("Data spool file " + file.getAbsolutePath() + " is truncated or corrupt, data after position " + segment.writePosition + " is dropped.");
+			}
+
+			if (segment.hasUnread()) {
+				segments.addLast(segment);
+				totalSize += segment.size;
+				recoveredObjects += segment.pendingObjects;
+			} else {
+				segment.delete();
+			}
+		}
+
+		while (totalSize > maxSize) {
+			recoveredObjects -= segments.getFirst().pendingObjects;
+			remove(segments.getFirst());
+		}
+
+		if (recoveredObjects > 0) {
+			log.info("Recovered " + recoveredObjects + " data objects spooled by the previous run.");
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		maxSize = disruptorStrategy.getSpoolMaxSize();
+		if (maxSize <= 0) {
+			return;
+		}
+
+		segmentSize = (int) Math.min(MAX_SEGMENT_SIZE, maxSize / MIN_SEGMENT_COUNT);
+		if (segmentSize <= RECORD_HEADER_SIZE) {
+			log.warn("Data spool size of " + maxSize + " bytes is too small, data spool will not be active.");
+			return;
+		}
+		maxAge = disruptorStrategy.getSpoolMaxAge();
+
+		directory = fileResolver.getDataSpoolDirectory().getAbsoluteFile();
+		if (!directory.exists() && !directory.mkdirs()) {
+			log.warn("Unable to create the data spool directory " + directory.getAbsolutePath() + ", data spool will not be active.");
+			return;
+		}
+
+		writeSerializationManager = prototypesProvider.createSerializer();
+		readSerializationManager = prototypesProvider.createSerializer();
+
+		synchronized (this) {
+			recoverSegments();
+		}
+
+		Runnable drainRunnable = new Runnable() {
+			@Override
+			public void run() {
+				try {
+					drain();
+				} catch (Throwable t) { // NOPMD NOCHK
+					// catch any exception in order not to cancel the task in the executor
+					log.error("Error occurred during draining of the data spool.", t);
+				}
+			}
+		};
+		executorService.scheduleWithFixedDelay(drainRunnable, DRAIN_PERIOD, DRAIN_PERIOD, TimeUnit.MILLISECONDS);
+
+		active = true;
+		log.info("Data spool active in " + directory.getAbsolutePath() + " with the max size of " + maxSize + " bytes.");
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Segments holding data not sent yet are kept, so that the data is replayed on the next start.
+	 */
+	@Override
+	public synchronized void destroy() throws Exception {
+		active = false;
+
+		int keptObjects = 0;
+		for (Segment segment : segments) {
+			if (segment.hasUnread()) {
+				keptObjects += segment.pendingObjects;
+				segment.close();
+			} else {
+				segment.delete();
+			}
+		}
+		segments.clear();
+		totalSize = 0;
+
+		if (keptObjects > 0) {
+			log.info("Data spool closed, " + keptObjects + " data objects not sent yet are kept for the next start.");
+		}
+	}
+
+	/**
+	 * One memory-mapped segment file. Records are appended to the segment, each record consists of
+	 * the length of the serialized bytes, amount of objects in the record, time-stamp of the
+	 * spooling, checksum of the serialized bytes and the serialized bytes. Segment files are
+	 * created with zeros, thus a zero length marks the end of the written records.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static final class Segment {
+
+		/**
+		 * Segment file.
+		 */
+		private final File file;
+
+		/**
+		 * Random access file.
+		 */
+		private final RandomAccessFile randomAccessFile;
+
+		/**
+		 * Mapped buffer, <code>null</code> when closed.
+		 */
+		private MappedByteBuffer buffer;
+
+		/**
+		 * Size of the segment in bytes.
+		 */
+		private final int size;
+
+		/**
+		 * If records can be appended.
+		 */
+		private boolean writable;
+
+		/**
+		 * If recovery found a truncated or corrupt record.
+		 */
+		private boolean corrupt;
+
+		/**
+		 * Position to write next record to.
+		 */
+		private int writePosition;
+
+		/**
+		 * Position of the next record to read.
+		 */
+		private int readPosition;
+
+		/**
+		 * Amount of objects not yet read.
+		 */
+		private int pendingObjects;
+
+		/**
+		 * Time of last write.
+		 */
+		private long lastWriteTime;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param file
+		 *            Segment file.
+		 * @param randomAccessFile
+		 *            Opened segment file.
+		 * @param buffer
+		 *            Mapped segment file.
+		 */
+		private Segment(File file, RandomAccessFile randomAccessFile, MappedByteBuffer buffer) {
+			this.file = file;
+			this.randomAccessFile = randomAccessFile;
+			this.buffer = buffer;
+			this.size = buffer.capacity();
+		}
+
+		/**
+		 * Creates and maps a new segment file.
+		 *
+		 * @param file
+		 *            Segment file.
+		 * @param size
+		 *            Size of the segment.
+		 * @return Segment to append records to.
+		 * @throws IOException
+		 *             If file can not be created or mapped.
+		 */
+		static Segment create(File file, int size) throws IOException {
+			Segment segment = map(file, size);
+			segment.writable = true;
+			segment.lastWriteTime = System.currentTimeMillis();
+			return segment;
+		}
+
+		/**
+		 * Maps an existing segment file and reads its records. The recovered segment is not
+		 * writable.
+		 *
+		 * @param file
+		 *            Segment file.
+		 * @param checksum
+		 *            Checksum calculation for validating the records.
+		 * @return Recovered segment.
+		 * @throws IOException
+		 *             If file can not be opened or mapped.
+		 */
+		static Segment recover(File file, CRC32 checksum) throws IOException {
+			Segment segment = map(file, (int) Math.min(Integer.MAX_VALUE, file.length()));
+			segment.scan(checksum);
+			return segment;
+		}
+
+		/**
+		 * Opens and maps the file.
+		 *
+		 * @param file
+		 *            Segment file.
+		 * @param size
+		 *            Size to map.
+		 * @return Segment.
+		 * @throws IOException
+		 *             If file can not be opened or mapped.
+		 */
+		private static Segment map(File file, int size) throws IOException {
+			RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+			try {
+				MappedByteBuffer buffer = randomAccessFile.getChannel().map(MapMode.READ_WRITE, 0, size);
+				return new Segment(file, randomAccessFile, buffer);
+			} catch (IOException e) {
+				randomAccessFile.close();
+				throw e;
+			}
+		}
+
+		/**
+		 * Reads the records of the recovered segment and restores the positions. Stops at the
+		 * first record that is truncated or has the wrong checksum.
+		 *
+		 * @param checksum
+		 *            Checksum calculation for validating the records.
+		 */
+		private void scan(CRC32 checksum) {
+			int position = 0;
+			while ((size - position) >= RECORD_HEADER_SIZE) {
+				int length = buffer.getInt(position + LENGTH_OFFSET);
+				if (0 == length) {
+					break;
+				}
+				if ((length < 0) || (length > (size - position - RECORD_HEADER_SIZE)) || !isChecksumValid(position, length, checksum)) {
+					corrupt = true;
+					break;
+				}
+
+				int countField = buffer.getInt(position + COUNT_OFFSET);
+				int nextPosition = position + RECORD_HEADER_SIZE + length;
+				if ((countField & COMMITTED_FLAG) != 0) {
+					// records are committed in order
+					readPosition = nextPosition;
+				} else {
+					pendingObjects += countField;
+				}
+				lastWriteTime = Math.max(lastWriteTime, buffer.getLong(position + TIMESTAMP_OFFSET));
+				position = nextPosition;
+			}
+			writePosition = position;
+		}
+
+		/**
+		 * Checks the checksum of the record.
+		 *
+		 * @param position
+		 *            Position of the record.
+		 * @param length
+		 *            Length of the serialized bytes.
+		 * @param checksum
+		 *            Checksum calculation.
+		 * @return If the stored checksum matches the serialized bytes.
+		 */
+		private boolean isChecksumValid(int position, int length, CRC32 checksum) {
+			byte[] bytes = new byte[length];
+			buffer.position(position + RECORD_HEADER_SIZE);
+			buffer.get(bytes);
+			checksum.reset();
+			checksum.update(bytes, 0, length);
+			return buffer.getInt(position + CHECKSUM_OFFSET) == (int) checksum.getValue();
+		}
+
+		/**
+		 * @return Returns free space in bytes, zero if segment is not writable.
+		 */
+		int getFreeSpace() {
+			if (!writable) {
+				return 0;
+			}
+			return size - writePosition;
+		}
+
+		/**
+		 * Appends one record. The length is written last, so the record is visible only when
+		 * completely written.
+		 *
+		 * @param bytes
+		 *            Serialized bytes.
+		 * @param length
+		 *            Length of the serialized bytes.
+		 * @param count
+		 *            Amount of objects.
+		 * @param timestamp
+		 *            Spooling time.
+		 * @param recordChecksum
+		 *            Checksum of the serialized bytes.
+		 */
+		void append(byte[] bytes, int length, int count, long timestamp, int recordChecksum) {
+			buffer.putInt(writePosition + COUNT_OFFSET, count);
+			buffer.putLong(writePosition + TIMESTAMP_OFFSET, timestamp);
+			buffer.putInt(writePosition + CHECKSUM_OFFSET, recordChecksum);
+			buffer.position(writePosition + RECORD_HEADER_SIZE);
+			buffer.put(bytes, 0, length);
+			buffer.putInt(writePosition + LENGTH_OFFSET, length);
+			writePosition += RECORD_HEADER_SIZE + length;
+			pendingObjects += count;
+			lastWriteTime = timestamp;
+		}
+
+		/**
+		 * @return Returns if there is a record not yet read.
+		 */
+		boolean hasUnread() {
+			return readPosition < writePosition;
+		}
+
+		/**
+		 * Reads the next record without marking it as read.
+		 *
+		 * @return Record.
+		 */
+		Record read() {
+			int length = buffer.getInt(readPosition + LENGTH_OFFSET);
+			int count = buffer.getInt(readPosition + COUNT_OFFSET);
+			long timestamp = buffer.getLong(readPosition + TIMESTAMP_OFFSET);
+			byte[] bytes = new byte[length];
+			buffer.position(readPosition + RECORD_HEADER_SIZE);
+			buffer.get(bytes);
+			return new Record(this, readPosition, bytes, count, timestamp);
+		}
+
+		/**
+		 * Marks the record as read in the segment file if it's the next record to read.
+		 *
+		 * @param record
+		 *            Record.
+		 */
+		void commit(Record record) {
+			if (record.position == readPosition) {
+				buffer.putInt(readPosition + COUNT_OFFSET, record.count | COMMITTED_FLAG);
+				readPosition += RECORD_HEADER_SIZE + record.bytes.length;
+				pendingObjects -= record.count;
+			}
+		}
+
+		/**
+		 * Stops appending records to this segment.
+		 */
+		void seal() {
+			writable = false;
+		}
+
+		/**
+		 * @return Returns if records can be appended.
+		 */
+		boolean isWritable() {
+			return writable;
+		}
+
+		/**
+		 * @return Returns if segment was closed.
+		 */
+		boolean isClosed() {
+			return null == buffer;
+		}
+
+		/**
+		 * Releases the mapping and closes the segment file.
+		 */
+		void close() {
+			if (null == buffer) {
+				return;
+			}
+
+			MappedByteBuffer mappedBuffer = buffer;
+			buffer = null; // NOPMD
+			writable = false;
+			MappedByteBufferUtils.unmap(mappedBuffer);
+			try {
+				FileChannel channel = randomAccessFile.getChannel();
+				channel.close();
+				randomAccessFile.close();
+			} catch (IOException e) { // NOPMD //NOCHK
+				// ignore
+			}
+		}
+
+		/**
+		 * Closes and deletes the segment file.
+		 */
+		void delete() {
+			close();
+			pendingObjects = 0;
+			if (!file.delete()) {
+				file.deleteOnExit();
+			}
+		}
+	}
+
+	/**
+	 * One record read from the segment.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static final class Record {
+
+		/**
+		 * Segment record belongs to.
+		 */
+		private final Segment segment;
+
+		/**
+		 * Position in segment.
+		 */
+		private final int position;
+
+		/**
+		 * Serialized bytes.
+		 */
+		private final byte[] bytes;
+
+		/**
+		 * Amount of objects.
+		 */
+		private final int count;
+
+		/**
+		 * Spooling time.
+		 */
+		private final long timestamp;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param segment
+		 *            Segment record belongs to.
+		 * @param position
+		 *            Position in segment.
+		 * @param bytes
+		 *            Serialized bytes.
+		 * @param count
+		 *            Amount of objects.
+		 * @param timestamp
+		 *            Spooling time.
+		 */
+		Record(Segment segment, int position, byte[] bytes, int count, long timestamp) {
+			this.segment = segment;
+			this.position = position;
+			this.bytes = bytes;
+			this.count = count;
+			this.timestamp = timestamp;
+		}
+	}
+
+}
@@ -0,0 +1,186 @@
+package rocks.inspectit.agent.java.eum.data;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import rocks.inspectit.shared.all.communication.data.eum.Beacon;
+import rocks.inspectit.shared.all.communication.data.eum.EUMBeaconElement;
+
+/**
+ * Streaming decoder of the beacons sent by the JS agent. The beacon header is read token by token
+ * directly from the JSON text, without building a tree or binding the {@link Beacon} itself. Only
+ * the elements of the beacon are bound to the {@link EUMBeaconElement} types, one by one from the
+ * same parser, using a reader that is created once and shared by all threads.
+ * <p>
+ * Unknown header fields are skipped.
+ *
+ * @author agent
+ *
+ */
+public class BeaconDecoder {
+
+	/**
+	 * Name of the session ID field.
+	 */
+	private static final String SESSION_ID_FIELD = "sessionID";
+
+	/**
+	 * Name of the tab ID field.
+	 */
+	private static final String TAB_ID_FIELD = "tabID";
+
+	/**
+	 * Name of the active modules field.
+	 */
+	private static final String ACTIVE_AGENT_MODULES_FIELD = "activeAgentModules";
+
+	/**
+	 * Name of the data field.
+	 */
+	private static final String DATA_FIELD = "data";
+
+	/**
+	 * Factory for the parsers.
+	 */
+	private final JsonFactory jsonFactory;
+
+	/**
+	 * Reader binding single beacon elements.
+	 */
+	private final ObjectReader elementReader;
+
+	/**
+	 * Default constructor.
+	 */
+	public BeaconDecoder() {
+		ObjectMapper objectMapper = new ObjectMapper();
+		jsonFactory = objectMapper.getFactory();
+		elementReader = objectMapper.readerFor(EUMBeaconElement.class);
+	}
+
+	/**
+	 * Decodes the complete beacon including all of its elements. Note that
+	 * {@link Beacon#deserializationComplete(long, long)} is not called.
+	 *
+	 * @param data
+	 *            the beacon JSON
+	 * @return the decoded beacon
+	 * @throws IOException
+	 *             if the beacon is not valid
+	 */
+	public Beacon decode(String data) throws IOException {
+		return decode(data, true);
+	}
+
+	/**
+	 * Decodes only the header of the beacon. The elements are skipped on the token level, thus the
+	 * returned beacon holds no data.
+	 *
+	 * @param data
+	 *            the beacon JSON
+	 * @return the beacon holding only the session ID, tab ID and the active modules
+	 * @throws IOException
+	 *             if the beacon is not valid JSON
+	 */
+	public Beacon decodeHeader(String data) throws IOException {
+		return decode(data, false);
+	}
+
+	/**
+	 * Decodes the beacon.
+	 *
+	 * @param data
+	 *            the beacon JSON
+	 * @param withElements
+	 *            if the elements should be bound or skipped
+	 * @return the decoded beacon
+	 * @throws IOException
+	 *             if the beacon is not valid
+	 */
+	private Beacon decode(String data, boolean withElements) throws IOException {
+		JsonParser parser = jsonFactory.createParser(data);
+		try {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				throw new JsonParseException(parser, "Beacon must be a JSON object.");
+			}
+
+			long sessionID = Beacon.REQUEST_NEW_SESSION_ID_MARKER;
+			long tabID = Beacon.REQUEST_NEW_TAB_ID_MARKER;
+			String activeAgentModules = null;
+			List<EUMBeaconElement> elements = Collections.emptyList();
+
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String fieldName = parser.getCurrentName();
+				JsonToken valueToken = parser.nextToken();
+				if (SESSION_ID_FIELD.equals(fieldName)) {
+					sessionID = readHexLong(parser);
+				} else if (TAB_ID_FIELD.equals(fieldName)) {
+					tabID = readHexLong(parser);
+				} else if (ACTIVE_AGENT_MODULES_FIELD.equals(fieldName)) {
+					activeAgentModules = parser.getValueAsString();
+				} else if (withElements && DATA_FIELD.equals(fieldName) && (valueToken == JsonToken.START_ARRAY)) {
+					elements = readElements(parser);
+				} else {
+					parser.skipChildren();
+				}
+			}
+
+			return new Beacon(sessionID, tabID, activeAgentModules, elements);
+		} finally {
+			parser.close();
+		}
+	}
+
+	/**
+	 * Binds the elements of the data array. Parser must be positioned at the start of the array.
+	 *
+	 * @param parser
+	 *            the parser
+	 * @return the list of elements
+	 * @throws IOException
+	 *             if any element is not valid
+	 */
+	private List<EUMBeaconElement> readElements(JsonParser parser) throws IOException {
+		List<EUMBeaconElement> elements = new ArrayList<EUMBeaconElement>();
+		JsonToken token = parser.nextToken();
+		while (token != JsonToken.END_ARRAY) {
+			if (token != JsonToken.START_OBJECT) {
+				throw new JsonParseException(parser, "Beacon element must be a JSON object.");
+			}
+			EUMBeaconElement element = elementReader.readValue(parser);
+			elements.add(element);
+			token = parser.nextToken();
+		}
+		return elements;
+	}
+
+	/**
+	 * Reads the current value as long encoded as hex string.
+	 *
+	 * @param parser
+	 *            the parser
+	 * @return the long value
+	 * @throws IOException
+	 *             if the value is not a hex number
+	 */
+	private long readHexLong(JsonParser parser) throws IOException {
+		String value = parser.getValueAsString();
+		if (null == value) {
+			throw new JsonParseException(parser, "Expected ID encoded as hex string.");
+		}
+		try {
+			return Long.parseLong(value, 16);
+		} catch (NumberFormatException e) {
+			throw new JsonParseException(parser, e.getMessage(), e); // NOPMD
+		}
+	}
+}
@@ -1,12 +1,15 @@
 package rocks.inspectit.agent.java.eum.data;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-
+import rocks.inspectit.agent.java.config.IConfigurationStorage;
+import rocks.inspectit.agent.java.config.StorageException;
 import rocks.inspectit.agent.java.core.ICoreService;
 import rocks.inspectit.agent.java.core.IPlatformManager;
 import rocks.inspectit.agent.java.sdk.opentracing.internal.util.ConversionUtils;
@@ -18,6 +21,12 @@ import rocks.inspectit.shared.all.spring.logger.Log;
 
 /**
  * Class for processing beacons which the javascript agent sends back to the agent.
+ * <p>
+ * Beacons are decoded with the streaming {@link BeaconDecoder}. If the asynchronous beacon
+ * processing is enabled, only the beacon header is decoded in the request thread, so that the
+ * response with the assigned IDs can be sent immediately. The elements are then decoded and passed
+ * to the core service by the beacon executor. If the executor queue is full, the beacon is
+ * processed in the request thread.
  *
  * @author David Monschein, Jonas kunz
  */
@@ -25,6 +34,11 @@ import rocks.inspectit.shared.all.spring.logger.Log;
 @Component
 public class DataHandler implements IDataHandler {
 
+	/**
+	 * Empty response.
+	 */
+	private static final String EMPTY_RESPONSE = "{}";
+
 	/**
 	 * Logger.
 	 */
@@ -44,61 +58,167 @@ public class DataHandler implements IDataHandler {
 	private IPlatformManager platformManager;
 
 	/**
-	 * The mapper used for decoding JSON beacons.
+	 * Executor for the asynchronous beacon processing.
+	 */
+	@Autowired
+	@Qualifier("eumBeaconExecutorService")
+	private ExecutorService executorService;
+
+	/**
+	 * The decoder of the beacons.
 	 */
-	private ObjectMapper jsonMapper;
+	private final BeaconDecoder beaconDecoder = new BeaconDecoder();
 
 	/**
-	 * Constructor.
+	 * If beacons are processed asynchronously.
 	 */
-	public DataHandler() {
-		jsonMapper = new ObjectMapper();
+	private boolean beaconProcessingAsync;
+
+	/**
+	 * Configuration initialization. Automatically called by spring.
+	 *
+	 * @param config
+	 *            the configuration
+	 */
+	@Autowired
+	public void setConfiguration(IConfigurationStorage config) {
+		if (config != null) {
+			try {
+				beaconProcessingAsync = config.getEndUserMonitoringConfig().isBeaconProcessingAsync();
+			} catch (StorageException e) { // NOPMD
+				// fallback to synchronous processing
+				beaconProcessingAsync = false;
+			}
+		} else {
+			beaconProcessingAsync = false;
+		}
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public String insertBeacon(String data) {
+	public String insertBeacon(final String data) {
 		if (data == null) {
-			return "{}";
+			return EMPTY_RESPONSE;
 		}
 
 		try {
-			Beacon beacon = jsonMapper.readValue(data, Beacon.class);
-			ObjectNode response = jsonMapper.getNodeFactory().objectNode();
+			Beacon beacon;
+			if (beaconProcessingAsync) {
+				beacon = beaconDecoder.decodeHeader(data);
+			} else {
+				beacon = beaconDecoder.decode(data);
+			}
 
 			long sessionID = beacon.getSessionID();
 			long tabID = beacon.getTabID();
+			boolean newSessionID = sessionID == Beacon.REQUEST_NEW_SESSION_ID_MARKER;
+			boolean newTabID = tabID == Beacon.REQUEST_NEW_TAB_ID_MARKER;
 
 			// assign new IDs if requested
-			if (sessionID == Beacon.REQUEST_NEW_SESSION_ID_MARKER) {
+			if (newSessionID) {
 				sessionID = RandomUtils.randomLong();
-				response.put("sessionID", ConversionUtils.toHexString(sessionID));
 			}
-			if (beacon.getTabID() == Beacon.REQUEST_NEW_TAB_ID_MARKER) {
+			if (newTabID) {
 				tabID = RandomUtils.randomLong();
-				response.put("tabID", ConversionUtils.toHexString(tabID));
 			}
 
-			// even needed if the IDs were all known, as this also assigns the ids to all stored
-			// AbstractEUMElements.
-			beacon.deserializationComplete(sessionID, tabID);
-
-			// send the received elements to the CMR
-			for (EUMBeaconElement elem : beacon.getData()) {
-				DefaultData ddata = elem.asDefaultData();
-				ddata.setPlatformIdent(platformManager.getPlatformId());
-				coreService.addDefaultData(ddata);
+			if (beaconProcessingAsync) {
+				processAsync(data, sessionID, tabID);
+			} else {
+				sendElements(beacon, sessionID, tabID);
 			}
 
-			return jsonMapper.writeValueAsString(response);
-
+			return createResponse(newSessionID, sessionID, newTabID, tabID);
 		} catch (Exception e) {
 			log.error("Error decoding beacon!", e);
-			return "{}";
+			return EMPTY_RESPONSE;
 		}
 	}
 
+	/**
+	 * Passes the beacon to the executor. The beacon is processed in the current thread if the
+	 * executor can not accept it.
+	 *
+	 * @param data
+	 *            the beacon JSON
+	 * @param sessionID
+	 *            the session ID to assign
+	 * @param tabID
+	 *            the tab ID to assign
+	 * @throws Exception
+	 *             if the beacon is processed in the current thread and it fails
+	 */
+	private void processAsync(final String data, final long sessionID, final long tabID) throws Exception {
+		try {
+			executorService.execute(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						sendElements(beaconDecoder.decode(data), sessionID, tabID);
+					} catch (Exception e) {
+						log.error("Error decoding beacon!", e);
+					}
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			sendElements(beaconDecoder.decode(data), sessionID, tabID);
+		}
+	}
+
+	/**
+	 * Finishes the deserialization of the beacon elements and passes them to the core service.
+	 *
+	 * @param beacon
+	 *            the decoded beacon
+	 * @param sessionID
+	 *            the session ID to assign
+	 * @param tabID
+	 *            the tab ID to assign
+	 */
+	private void sendElements(Beacon beacon, long sessionID, long tabID) {
+		// even needed if the IDs were all known, as this also assigns the ids to all stored
+		// AbstractEUMElements.
+		beacon.deserializationComplete(sessionID, tabID);
+
+		// send the received elements to the CMR
+		for (EUMBeaconElement elem : beacon.getData()) {
+			DefaultData ddata = elem.asDefaultData();
+			ddata.setPlatformIdent(platformManager.getPlatformId());
+			coreService.addDefaultData(ddata);
+		}
+	}
+
+	/**
+	 * Creates the response holding the newly assigned IDs.
+	 *
+	 * @param newSessionID
+	 *            if the session ID was assigned
+	 * @param sessionID
+	 *            the session ID
+	 * @param newTabID
+	 *            if the tab ID was assigned
+	 * @param tabID
+	 *            the tab ID
+	 * @return the response JSON
+	 */
+	private String createResponse(boolean newSessionID, long sessionID, boolean newTabID, long tabID) {
+		if (!newSessionID && !newTabID) {
+			return EMPTY_RESPONSE;
+		}
+		StringBuilder response = new StringBuilder(64);
+		response.append('{');
+		if (newSessionID) {
+			response.append("\"sessionID\":\"").append(ConversionUtils.toHexString(sessionID)).append('"');
+		}
+		if (newTabID) {
+			if (newSessionID) {
+				response.append(',');
+			}
+			response.append("\"tabID\":\"").append(ConversionUtils.toHexString(tabID)).append('"');
+		}
+		return response.append('}').toString();
+	}
 
 }
@@ -0,0 +1,212 @@
+package rocks.inspectit.agent.java.eum.html;
+
+import java.nio.charset.Charset;
+
+import com.google.common.base.Charsets;
+
+/**
+ * Injector working directly on the encoded binary data for ASCII compatible charsets. In such
+ * charsets all characters relevant for the HTML markup are encoded as single ASCII bytes, and
+ * these bytes never occur as part of a multi-byte character. Thus, the bytes can be scanned as
+ * ISO-8859-1 characters without decoding them, no matter what the actual charset is.
+ * <p>
+ * The bytes are passed to the {@link StreamedHtmlScriptInjector} through a view, so no data is
+ * copied or allocated per call. Instead of returning a modified copy of the data, only the
+ * position where the already encoded tag (see {@link #getEncodedTag()}) has to be inserted is
+ * returned. The tag is also compared in its encoded form when checking for double injection.
+ * <p>
+ * Character data passed to {@link #performInjection(CharSequence)} is expected to hold one
+ * character per byte, as written by the <code>print</code> methods of the servlet output stream.
+ * In that case, the returned string holds the encoded tag as well.
+ *
+ * @author agent
+ *
+ */
+public class ByteHtmlScriptInjector extends StreamedHtmlScriptInjector {
+
+	/**
+	 * Names of the ASCII compatible charsets which encode non-ASCII characters as multiple bytes.
+	 */
+	private static final String[] ASCII_COMPATIBLE_MULTI_BYTE_CHARSETS = { "UTF-8" };
+
+	/**
+	 * Name prefixes of the ASCII compatible single byte charsets.
+	 */
+	private static final String[] ASCII_COMPATIBLE_SINGLE_BYTE_CHARSET_PREFIXES = { "US-ASCII", "ISO-8859-", "windows-125", "KOI8-" };
+
+	/**
+	 * The tag to inject, encoded with the charset of the data.
+	 */
+	private final byte[] encodedTag;
+
+	/**
+	 * View on the bytes passed to {@link #findInjectionPoint(byte[], int, int)}. Reused for all
+	 * calls.
+	 */
+	private final ByteCharSequence byteView = new ByteCharSequence();
+
+	/**
+	 * Creates and initializes a new injector.
+	 *
+	 * @param tagToInject
+	 *            the tag which this injector should try to inject.
+	 * @param charset
+	 *            the encoding of the binary data, must be ASCII compatible (see
+	 *            {@link #isAsciiCompatible(Charset)}).
+	 */
+	public ByteHtmlScriptInjector(String tagToInject, Charset charset) {
+		this(tagToInject.getBytes(charset));
+	}
+
+	/**
+	 * Creates and initializes a new injector.
+	 *
+	 * @param encodedTag
+	 *            the encoded tag which this injector should try to inject.
+	 */
+	private ByteHtmlScriptInjector(byte[] encodedTag) {
+		super(new String(encodedTag, Charsets.ISO_8859_1));
+		this.encodedTag = encodedTag;
+	}
+
+	/**
+	 * Checks if the given charset can be handled by this injector.
+	 *
+	 * @param charset
+	 *            the charset of the binary data
+	 * @return true, if the charset is ASCII compatible and the bytes of the HTML markup can be
+	 *         scanned without decoding.
+	 */
+	public static boolean isAsciiCompatible(Charset charset) {
+		String name = charset.name();
+		for (String multiByteCharset : ASCII_COMPATIBLE_MULTI_BYTE_CHARSETS) {
+			if (multiByteCharset.equalsIgnoreCase(name)) {
+				return true;
+			}
+		}
+		for (String prefix : ASCII_COMPATIBLE_SINGLE_BYTE_CHARSET_PREFIXES) {
+			if (name.regionMatches(true, 0, prefix, 0, prefix.length())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Tries to find the injection point within the given encoded data. <br>
+	 * The html file may be split arbitrarily by calling this method for each part of the code in
+	 * order. If the injector has already finished, it returns immediately without additional
+	 * overhead.
+	 *
+	 * @param encodedHtmlData
+	 *            the characters encoded with an ASCII compatible encoding
+	 * @param offset
+	 *            the offset of the data within encodedHtmlData in bytes
+	 * @param len
+	 *            the length of the data within encodedHtmlData in bytes
+	 * @return {@link #NO_INJECTION}, if no injection should be performed. Otherwise, the number of
+	 *         bytes starting at the given offset which have to be written before the
+	 *         {@link #getEncodedTag()}.
+	 */
+	public int findInjectionPoint(byte[] encodedHtmlData, int offset, int len) {
+		if (hasTerminated()) {
+			return NO_INJECTION;
+		}
+		byteView.wrap(encodedHtmlData, offset, len);
+		try {
+			return findInjectionPoint(byteView);
+		} finally {
+			// do not keep a reference to the data of the caller
+			byteView.wrap(null, 0, 0);
+		}
+	}
+
+	/**
+	 * Gets {@link #encodedTag}. The returned array must not be modified.
+	 *
+	 * @return {@link #encodedTag}
+	 */
+	public byte[] getEncodedTag() {
+		return this.encodedTag;
+	}
+
+	/**
+	 * Read-only view of a byte array region as a {@link CharSequence}, where each byte represents
+	 * the ISO-8859-1 character with the same value.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static class ByteCharSequence implements CharSequence {
+
+		/**
+		 * The viewed bytes.
+		 */
+		private byte[] data;
+
+		/**
+		 * Offset of the view within {@link #data}.
+		 */
+		private int offset;
+
+		/**
+		 * Length of the view.
+		 */
+		private int length;
+
+		/**
+		 * Changes the viewed region.
+		 *
+		 * @param data
+		 *            the bytes
+		 * @param offset
+		 *            offset of the region
+		 * @param length
+		 *            length of the region
+		 */
+		void wrap(byte[] data, int offset, int length) {
+			this.data = data;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int length() {
+			return length;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public char charAt(int index) {
+			if ((index < 0) || (index >= length)) {
+				throw new IllegalArgumentException("Index out of bounds (" + index + ")");
+			}
+			return (char) (data[offset + index] & 0xFF);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			if ((start < 0) || (end > length) || (start > end)) {
+				throw new IllegalArgumentException("Invalid subsequence bounds (" + start + ", " + end + ")");
+			}
+			return new String(data, offset + start, end - start, Charsets.ISO_8859_1);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public String toString() {
+			return new String(data, offset, length, Charsets.ISO_8859_1);
+		}
+	}
+
+}
@@ -1,10 +1,12 @@
 package rocks.inspectit.agent.java.eum.instrumentation;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,6 +14,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Required;
 import org.springframework.stereotype.Component;
 
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hashing;
 import com.google.common.io.ByteStreams;
 
 import rocks.inspectit.agent.java.config.IConfigurationStorage;
@@ -77,6 +81,17 @@ public class JSAgentBuilder {
 	 */
 	private static final String JSBASE_RESOURCE = "core.js";
 
+	/**
+	 * Max amount of built scripts held in the {@link #scriptCache}. Any combination of the
+	 * available modules fits in if the order is not taken into account.
+	 */
+	private static final int MAX_CACHED_SCRIPTS = 1 << JSAgentModule.values().length;
+
+	/**
+	 * Cache of the built scripts ready to be sent, keyed by the module signature.
+	 */
+	private ConcurrentHashMap<String, JSAgentScript> scriptCache = new ConcurrentHashMap<String, JSAgentScript>();
+
 	/**
 	 * Cache for the source of the individual JS Agent modules.
 	 */
@@ -113,6 +128,31 @@ public class JSAgentBuilder {
 		}
 	}
 
+	/**
+	 * Returns the JS agent with the modules defined by the single char arguments, encoded and
+	 * compressed ready to be sent. Arguments are reduced to the signature of the distinct known
+	 * modules, so that all requests asking for the same modules share one cached script. Scripts
+	 * are built only on the first request of a signature.
+	 *
+	 * @param arguments
+	 *            all arguments together as a string.
+	 * @return the script ready to be sent.
+	 */
+	public JSAgentScript getJsAgent(String arguments) {
+		String signature = getModuleSignature(arguments);
+		JSAgentScript script = scriptCache.get(signature);
+		if (null == script) {
+			script = createScript(buildJsFile(signature));
+			if (scriptCache.size() < MAX_CACHED_SCRIPTS) {
+				JSAgentScript existing = scriptCache.putIfAbsent(signature, script);
+				if (null != existing) {
+					script = existing;
+				}
+			}
+		}
+		return script;
+	}
+
 	/**
 	 * Builds the JS agent from single char arguments.
 	 *
@@ -146,6 +186,45 @@ public class JSAgentBuilder {
 		return script.toString();
 	}
 
+	/**
+	 * Reduces the arguments to the identifiers of the known modules in the order of the first
+	 * appearance, removing any duplicates.
+	 *
+	 * @param arguments
+	 *            all arguments together as a string.
+	 * @return the module signature
+	 */
+	private String getModuleSignature(String arguments) {
+		StringBuilder signature = new StringBuilder(arguments.length());
+		for (char moduleIdentifier : arguments.toCharArray()) {
+			if (JSAgentModule.IDENTIFIER_MAP.containsKey(moduleIdentifier) && (signature.indexOf(String.valueOf(moduleIdentifier)) < 0)) {
+				signature.append(moduleIdentifier);
+			}
+		}
+		return signature.toString();
+	}
+
+	/**
+	 * Encodes the script source and creates the compressed representation and the entity tag.
+	 *
+	 * @param source
+	 *            the script source code
+	 * @return the script ready to be sent
+	 */
+	private JSAgentScript createScript(String source) {
+		byte[] content = source.getBytes(Charsets.UTF_8);
+		ByteArrayOutputStream gzipBytes = new ByteArrayOutputStream(content.length / 3);
+		try {
+			GZIPOutputStream gzipOutputStream = new GZIPOutputStream(gzipBytes);
+			gzipOutputStream.write(content);
+			gzipOutputStream.close();
+		} catch (IOException e) { // NOPMD
+			// can not happen as we write to memory
+		}
+		String contentHash = Hashing.sha1().hashBytes(content).toString();
+		return new JSAgentScript(content, gzipBytes.toByteArray(), contentHash);
+	}
+
 	/**
 	 * @return the core agent source code, either laoded from the resources or directly fetched form
 	 *         the cache.
@@ -206,7 +285,7 @@ public class JSAgentBuilder {
 		}
 		fullpath.append(path);
 		InputStream is = JSAgentBuilder.class.getResourceAsStream(fullpath.toString());
-		String result = new String(ByteStreams.toByteArray(is));
+		String result = new String(ByteStreams.toByteArray(is), Charsets.UTF_8);
 		is.close();
 		return result;
 	}
@@ -0,0 +1,116 @@
+package rocks.inspectit.agent.java.eum.instrumentation;
+
+/**
+ * Built JS agent ready to be sent to the browser. Holds the UTF-8 encoded script, the gzip
+ * compressed script and the strong entity tags of both representations. Instances are immutable
+ * and shared among all requests, thus the byte arrays must never be modified.
+ *
+ * @author agent
+ *
+ */
+public final class JSAgentScript {
+
+	/**
+	 * Suffix added to the entity tag of the gzip compressed representation.
+	 */
+	private static final String GZIP_ETAG_SUFFIX = "-gzip";
+
+	/**
+	 * UTF-8 encoded script.
+	 */
+	private final byte[] content;
+
+	/**
+	 * Gzip compressed UTF-8 encoded script.
+	 */
+	private final byte[] gzipContent;
+
+	/**
+	 * Quoted strong entity tag of the uncompressed script.
+	 */
+	private final String eTag;
+
+	/**
+	 * Quoted strong entity tag of the gzip compressed script.
+	 */
+	private final String gzipETag;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param content
+	 *            UTF-8 encoded script.
+	 * @param gzipContent
+	 *            Gzip compressed UTF-8 encoded script.
+	 * @param contentHash
+	 *            Hash of the content used as the opaque part of the entity tags.
+	 */
+	public JSAgentScript(byte[] content, byte[] gzipContent, String contentHash) {
+		this.content = content;
+		this.gzipContent = gzipContent;
+		this.eTag = '"' + contentHash + '"';
+		this.gzipETag = '"' + contentHash + GZIP_ETAG_SUFFIX + '"';
+	}
+
+	/**
+	 * Checks if the value of the <code>If-None-Match</code> request header matches any of the
+	 * entity tags of this script. As defined for this header, weak comparison is used.
+	 *
+	 * @param ifNoneMatch
+	 *            Value of the <code>If-None-Match</code> header, can be <code>null</code>.
+	 * @return <code>true</code> if the client already has this script and <code>304</code> can be
+	 *         sent.
+	 */
+	public boolean isMatchedBy(String ifNoneMatch) {
+		if (null == ifNoneMatch) {
+			return false;
+		}
+		for (String tag : ifNoneMatch.split(",")) {
+			String trimmed = tag.trim();
+			if (trimmed.startsWith("W/")) {
+				trimmed = trimmed.substring(2);
+			}
+			if ("*".equals(trimmed) || eTag.equals(trimmed) || gzipETag.equals(trimmed)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Gets {@link #content}.
+	 *
+	 * @return {@link #content}
+	 */
+	public byte[] getContent() {
+		return this.content;
+	}
+
+	/**
+	 * Gets {@link #gzipContent}.
+	 *
+	 * @return {@link #gzipContent}
+	 */
+	public byte[] getGzipContent() {
+		return this.gzipContent;
+	}
+
+	/**
+	 * Gets {@link #eTag}.
+	 *
+	 * @return {@link #eTag}
+	 */
+	public String getETag() {
+		return this.eTag;
+	}
+
+	/**
+	 * Gets {@link #gzipETag}.
+	 *
+	 * @return {@link #gzipETag}
+	 */
+	public String getGzipETag() {
+		return this.gzipETag;
+	}
+
+}
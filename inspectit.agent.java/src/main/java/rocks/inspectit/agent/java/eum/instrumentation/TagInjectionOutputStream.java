@@ -3,8 +3,11 @@ package rocks.inspectit.agent.java.eum.instrumentation;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.charset.Charset;
 
+import rocks.inspectit.agent.java.eum.html.ByteHtmlScriptInjector;
 import rocks.inspectit.agent.java.eum.html.DecodingHtmlScriptInjector;
+import rocks.inspectit.agent.java.eum.html.StreamedHtmlScriptInjector;
 import rocks.inspectit.agent.java.eum.reflection.WServletOutputStream;
 import rocks.inspectit.agent.java.proxy.IProxySubject;
 import rocks.inspectit.agent.java.proxy.IRuntimeLinker;
@@ -14,6 +17,11 @@ import rocks.inspectit.agent.java.proxy.ProxyMethod;
 /**
  * A ServletOutputStream which injects the given tag on the fly into the head (or another appropriate) section of the document.
  * Automatically detects non-html and then falls back to just piping the data through.
+ * <p>
+ * For ASCII compatible encodings the binary data is scanned directly by the
+ * {@link ByteHtmlScriptInjector}, other encodings are decoded by the
+ * {@link DecodingHtmlScriptInjector}. As soon as the injector has terminated, all data is passed
+ * through to the original stream without any copying.
  *
  * @author Jonas Kunz
  */
@@ -31,9 +39,40 @@ public class TagInjectionOutputStream extends OutputStream implements IProxySubj
 	private WServletOutputStream originalStream;
 
 	/**
-	 * The parser used for inejcting the tag.
+	 * The tag to inject.
 	 */
-	private DecodingHtmlScriptInjector injector;
+	private String tagToInject;
+
+	/**
+	 * The name of the encoding of the data.
+	 */
+	private String encoding = DEFAULT_ENCODING;
+
+	/**
+	 * The parser used for inejcting the tag. Created on the first data written, as it depends on
+	 * the {@link #encoding}.
+	 */
+	private StreamedHtmlScriptInjector injector;
+
+	/**
+	 * The {@link #injector} if the encoding is ASCII compatible, otherwise <code>null</code>.
+	 */
+	private ByteHtmlScriptInjector byteInjector;
+
+	/**
+	 * The {@link #injector} if the encoding is not ASCII compatible, otherwise <code>null</code>.
+	 */
+	private DecodingHtmlScriptInjector decodingInjector;
+
+	/**
+	 * If the {@link #injector} has terminated and data is just passed through.
+	 */
+	private boolean injectionTerminated;
+
+	/**
+	 * Buffer for passing single bytes to the injector.
+	 */
+	private final byte[] singleByte = new byte[1];
 
 	/**
 	 * The new-line character.
@@ -51,7 +90,7 @@ public class TagInjectionOutputStream extends OutputStream implements IProxySubj
 	 */
 	public TagInjectionOutputStream(Object originalStream, String tagToInject) {
 		this.originalStream = WServletOutputStream.wrap((OutputStream) originalStream);
-		injector = new DecodingHtmlScriptInjector(tagToInject, DEFAULT_ENCODING);
+		this.tagToInject = tagToInject;
 	}
 
 	@Override
@@ -73,7 +112,85 @@ public class TagInjectionOutputStream extends OutputStream implements IProxySubj
 	 * @param charsetName the name of the encoding
 	 */
 	public void setEncoding(String charsetName) {
-		injector.setCharacterEncoding(charsetName);
+		if (null == injector) {
+			encoding = charsetName;
+		} else if (null != decodingInjector) {
+			decodingInjector.setCharacterEncoding(charsetName);
+		} else {
+			throw new IllegalStateException("Injection has already begun!");
+		}
+	}
+
+	/**
+	 * Returns the injector, creates it for the current {@link #encoding} if this was not done yet.
+	 *
+	 * @return the injector
+	 */
+	private StreamedHtmlScriptInjector getInjector() {
+		if (null == injector) {
+			Charset charset = null;
+			try {
+				charset = Charset.forName(encoding);
+			} catch (Exception e) { // NOPMD
+				// decoding injector will report the unsupported charset
+			}
+			if ((null != charset) && ByteHtmlScriptInjector.isAsciiCompatible(charset)) {
+				byteInjector = new ByteHtmlScriptInjector(tagToInject, charset);
+				injector = byteInjector;
+			} else {
+				decodingInjector = new DecodingHtmlScriptInjector(tagToInject, encoding);
+				injector = decodingInjector;
+			}
+		}
+		return injector;
+	}
+
+	/**
+	 * Tries to perform the injection on the printed data.
+	 *
+	 * @param data
+	 *            the printed data
+	 * @return null, if no injection was performed. Otherwise, the data with the injected tag.
+	 */
+	private String performInjection(String data) {
+		String newValue = getInjector().performInjection(data);
+		injectionTerminated = injector.hasTerminated();
+		return newValue;
+	}
+
+	/**
+	 * Tries to perform the injection on the given binary data and writes the result to the
+	 * original stream.
+	 *
+	 * @param b
+	 *            the data
+	 * @param off
+	 *            the start offset in the data
+	 * @param len
+	 *            the number of bytes to write
+	 * @throws IOException
+	 *             signals that an I/O exception in some sort happened
+	 */
+	private void writeWithInjection(byte[] b, int off, int len) throws IOException {
+		getInjector();
+		if (null != byteInjector) {
+			int injectionPoint = byteInjector.findInjectionPoint(b, off, len);
+			if (injectionPoint == StreamedHtmlScriptInjector.NO_INJECTION) {
+				originalStream.write(b, off, len);
+			} else {
+				originalStream.write(b, off, injectionPoint);
+				originalStream.write(byteInjector.getEncodedTag());
+				originalStream.write(b, off + injectionPoint, len - injectionPoint);
+			}
+		} else {
+			byte[] newValue = decodingInjector.performInjection(b, off, len);
+			if (newValue == null) {
+				originalStream.write(b, off, len);
+			} else {
+				originalStream.write(newValue);
+			}
+		}
+		injectionTerminated = injector.hasTerminated();
 	}
 
 	/**
@@ -86,7 +203,7 @@ public class TagInjectionOutputStream extends OutputStream implements IProxySubj
 	 */
 	@ProxyMethod
 	public void print(boolean arg0) throws IOException {
-		String newValue = injector.performInjection(String.valueOf(arg0));
+		String newValue = injectionTerminated ? null : performInjection(String.valueOf(arg0));
 		if (newValue == null) {
 			originalStream.print(arg0);
 		} else {
@@ -104,7 +221,7 @@ public class TagInjectionOutputStream extends OutputStream implements IProxySubj
 	 */
 	@ProxyMethod
 	public void print(char c) throws IOException {
-		String newValue = injector.performInjection(String.valueOf(c));
+		String newValue = injectionTerminated ? null : performInjection(String.valueOf(c));
 		if (newValue == null) {
 			originalStream.print(c);
 		} else {
@@ -122,7 +239,7 @@ public class TagInjectionOutputStream extends OutputStream implements IProxySubj
 	 */
 	@ProxyMethod
 	public void print(double d) throws IOException {
-		String newValue = injector.performInjection(String.valueOf(d));
+		String newValue = injectionTerminated ? null : performInjection(String.valueOf(d));
 		if (newValue == null) {
 			originalStream.print(d);
 		} else {
@@ -140,7 +257,7 @@ public class TagInjectionOutputStream extends OutputStream implements IProxySubj
 	 */
 	@ProxyMethod
 	public void print(float f) throws IOException {
-		String newValue = injector.performInjection(String.valueOf(f));
+		String newValue = injectionTerminated ? null : performInjection(String.valueOf(f));
 		if (newValue == null) {
 			originalStream.print(f);
 		} else {
@@ -158,7 +275,7 @@ public class TagInjectionOutputStream extends OutputStream implements IProxySubj
 	 */
 	@ProxyMethod
 	public void print(int i) throws IOException {
-		String newValue = injector.performInjection(String.valueOf(i));
+		String newValue = injectionTerminated ? null : performInjection(String.valueOf(i));
 		if (newValue == null) {
 			originalStream.print(i);
 		} else {
@@ -176,7 +293,7 @@ public class TagInjectionOutputStream extends OutputStream implements IProxySubj
 	 */
 	@ProxyMethod
 	public void print(long l) throws IOException {
-		String newValue = injector.performInjection(String.valueOf(l));
+		String newValue = injectionTerminated ? null : performInjection(String.valueOf(l));
 		if (newValue == null) {
 			originalStream.print(l);
 		} else {
@@ -194,7 +311,7 @@ public class TagInjectionOutputStream extends OutputStream implements IProxySubj
 	 */
 	@ProxyMethod
 	public void print(String arg0) throws IOException {
-		String newValue = injector.performInjection(String.valueOf(arg0));
+		String newValue = injectionTerminated ? null : performInjection(String.valueOf(arg0));
 		if (newValue == null) {
 			originalStream.print(arg0);
 		} else {
@@ -210,7 +327,7 @@ public class TagInjectionOutputStream extends OutputStream implements IProxySubj
 	 */
 	@ProxyMethod
 	public void println() throws IOException {
-		String newValue = injector.performInjection(NL);
+		String newValue = injectionTerminated ? null : performInjection(NL);
 		if (newValue == null) {
 			originalStream.println();
 		} else {
@@ -228,7 +345,7 @@ public class TagInjectionOutputStream extends OutputStream implements IProxySubj
 	 */
 	@ProxyMethod
 	public void println(boolean b) throws IOException {
-		String newValue = injector.performInjection(b + NL);
+		String newValue = injectionTerminated ? null : performInjection(b + NL);
 		if (newValue == null) {
 			originalStream.println(b);
 		} else {
@@ -246,7 +363,7 @@ public class TagInjectionOutputStream extends OutputStream implements IProxySubj
 	 */
 	@ProxyMethod
 	public void println(char c) throws IOException {
-		String newValue = injector.performInjection(c + NL);
+		String newValue = injectionTerminated ? null : performInjection(c + NL);
 		if (newValue == null) {
 			originalStream.println(c);
 		} else {
@@ -264,7 +381,7 @@ public class TagInjectionOutputStream extends OutputStream implements IProxySubj
 	 */
 	@ProxyMethod
 	public void println(double d) throws IOException {
-		String newValue = injector.performInjection(d + NL);
+		String newValue = injectionTerminated ? null : performInjection(d + NL);
 		if (newValue == null) {
 			originalStream.println(d);
 		} else {
@@ -282,7 +399,7 @@ public class TagInjectionOutputStream extends OutputStream implements IProxySubj
 	 */
 	@ProxyMethod
 	public void println(float f) throws IOException {
-		String newValue = injector.performInjection(f + NL);
+		String newValue = injectionTerminated ? null : performInjection(f + NL);
 		if (newValue == null) {
 			originalStream.println(f);
 		} else {
@@ -300,7 +417,7 @@ public class TagInjectionOutputStream extends OutputStream implements IProxySubj
 	 */
 	@ProxyMethod
 	public void println(int i) throws IOException {
-		String newValue = injector.performInjection(i + NL);
+		String newValue = injectionTerminated ? null : performInjection(i + NL);
 		if (newValue == null) {
 			originalStream.println(i);
 		} else {
@@ -318,7 +435,7 @@ public class TagInjectionOutputStream extends OutputStream implements IProxySubj
 	 */
 	@ProxyMethod
 	public void println(long l) throws IOException {
-		String newValue = injector.performInjection(l + NL);
+		String newValue = injectionTerminated ? null : performInjection(l + NL);
 		if (newValue == null) {
 			originalStream.println(l);
 		} else {
@@ -336,7 +453,7 @@ public class TagInjectionOutputStream extends OutputStream implements IProxySubj
 	 */
 	@ProxyMethod
 	public void println(String s) throws IOException {
-		String newValue = injector.performInjection(s + NL);
+		String newValue = injectionTerminated ? null : performInjection(s + NL);
 		if (newValue == null) {
 			originalStream.println(s);
 		} else {
@@ -348,33 +465,31 @@ public class TagInjectionOutputStream extends OutputStream implements IProxySubj
 	@Override
 	@ProxyMethod
 	public void write(int b) throws IOException {
-		byte[] newValue = injector.performInjection(new byte[] { (byte) b });
-		if (newValue == null) {
+		if (injectionTerminated) {
 			originalStream.write(b);
 		} else {
-			originalStream.write(newValue);
+			singleByte[0] = (byte) b;
+			writeWithInjection(singleByte, 0, 1);
 		}
 	}
 
 	@Override
 	@ProxyMethod
 	public void write(byte[] b) throws IOException {
-		byte[] newValue = injector.performInjection(b);
-		if (newValue == null) {
+		if (injectionTerminated) {
 			originalStream.write(b);
 		} else {
-			originalStream.write(newValue);
+			writeWithInjection(b, 0, b.length);
 		}
 	}
 
 	@Override
 	@ProxyMethod
 	public void write(byte[] b, int off, int len) throws IOException {
-		byte[] newValue = injector.performInjection(b, off, len);
-		if (newValue == null) {
+		if (injectionTerminated) {
 			originalStream.write(b, off, len);
 		} else {
-			originalStream.write(newValue);
+			writeWithInjection(b, off, len);
 		}
 	}
 
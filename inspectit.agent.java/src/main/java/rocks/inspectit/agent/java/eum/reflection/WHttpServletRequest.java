@@ -32,6 +32,10 @@ public final class WHttpServletRequest {
 	 * See {@link javax.servlet.http.HttpServletRequest#getCookies()}.
 	 */
 	private static final CachedMethod<Object[]> GET_COOKIES = new CachedMethod<Object[]>(CLAZZ, "getCookies");
+	/**
+	 * See {@link javax.servlet.http.HttpServletRequest#getHeader(String)}.
+	 */
+	private static final CachedMethod<String> GET_HEADER = new CachedMethod<String>(CLAZZ, "getHeader", String.class);
 
 	/**
 	 * the wrapped {@link javax.servlet.http.HttpServletRequest} instance.
@@ -102,4 +106,15 @@ public final class WHttpServletRequest {
 	public Object[] getCookies() {
 		return GET_COOKIES.callSafe(instance);
 	}
+
+	/**
+	 * See {@link javax.servlet.http.HttpServletRequest#getHeader(String)}.
+	 *
+	 * @param headerName
+	 *            the name of the header
+	 * @return the value of the header, or null if the request does not have such a header
+	 */
+	public String getHeader(String headerName) {
+		return GET_HEADER.callSafe(instance, headerName);
+	}
 }
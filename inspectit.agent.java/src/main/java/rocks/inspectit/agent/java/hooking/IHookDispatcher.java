@@ -3,6 +3,10 @@ package rocks.inspectit.agent.java.hooking;
 /**
  * The hook dispatcher interface defines methods to add method and constructor mappings and methods
  * to dispatch the calls from the instrumented methods in the target application.
+ * <p>
+ * Note that the parameters passed to the method and constructor dispatch calls are
+ * <code>null</code> if none of the sensors defined for the method reads the parameters and no
+ * property accessors are defined. Special method dispatch calls always get the parameters.
  *
  * @author Patrice Bouillet
  * @author Eduard Tudenhoefner
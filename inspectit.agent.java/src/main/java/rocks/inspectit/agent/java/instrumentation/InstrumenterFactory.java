@@ -2,11 +2,18 @@ package rocks.inspectit.agent.java.instrumentation;
 
 import info.novatec.inspectit.org.objectweb.asm.MethodVisitor;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import rocks.inspectit.agent.java.instrumentation.asm.ConstructorInstrumenter;
 import rocks.inspectit.agent.java.instrumentation.asm.MethodInstrumenter;
 import rocks.inspectit.agent.java.instrumentation.asm.SpecialMethodInstrumenter;
+import rocks.inspectit.agent.java.sensor.method.IMethodSensor;
 import rocks.inspectit.shared.all.instrumentation.config.IMethodInstrumentationPoint;
 import rocks.inspectit.shared.all.instrumentation.config.impl.SensorInstrumentationPoint;
 import rocks.inspectit.shared.all.instrumentation.config.impl.SpecialInstrumentationPoint;
@@ -16,12 +23,28 @@ import rocks.inspectit.shared.all.instrumentation.config.impl.SpecialInstrumenta
  * {@link #getMethodVisitor(IMethodInstrumentationPoint, MethodVisitor, int, String, String, boolean)}
  * method to return the correct {@link MethodVisitor} based on the
  * {@link IMethodInstrumentationPoint}.
+ * <p>
+ * The method visitors for the sensor instrumentation points pass the method parameters to the
+ * dispatcher only if any sensor defined for the method reads the parameters or if property
+ * accessors are defined.
  *
  * @author Ivan Senic
  *
  */
 @Component
-public class InstrumenterFactory {
+public class InstrumenterFactory implements InitializingBean {
+
+	/**
+	 * All initialized {@link IMethodSensor}s.
+	 */
+	@Autowired(required = false)
+	private List<IMethodSensor> methodSensors;
+
+	/**
+	 * Map of {@link IMethodSensor}s to their IDs for faster lookups. Stays <code>null</code> if
+	 * sensors are not available, in this case parameters are always passed to the dispatcher.
+	 */
+	private Map<Long, IMethodSensor> methodSensorMap;
 
 	/**
 	 * Returns correct {@link MethodVisitor} based on the given instrumentation point.
@@ -51,10 +74,11 @@ public class InstrumenterFactory {
 
 		if (instrumentationPoint instanceof SensorInstrumentationPoint) {
 			SensorInstrumentationPoint sensorInstrumentationPoint = (SensorInstrumentationPoint) instrumentationPoint;
+			boolean parameterAccess = isParameterAccess(sensorInstrumentationPoint);
 			if (sensorInstrumentationPoint.isConstructor()) {
-				return new ConstructorInstrumenter(superMethodVisitor, access, name, desc, sensorInstrumentationPoint.getId(), enhancedExceptionSensor);
+				return new ConstructorInstrumenter(superMethodVisitor, access, name, desc, sensorInstrumentationPoint.getId(), enhancedExceptionSensor, parameterAccess);
 			} else {
-				return new MethodInstrumenter(superMethodVisitor, access, name, desc, sensorInstrumentationPoint.getId(), enhancedExceptionSensor);
+				return new MethodInstrumenter(superMethodVisitor, access, name, desc, sensorInstrumentationPoint.getId(), enhancedExceptionSensor, parameterAccess);
 			}
 		} else if (instrumentationPoint instanceof SpecialInstrumentationPoint) {
 			SpecialInstrumentationPoint specialInstrumentationPoint = (SpecialInstrumentationPoint) instrumentationPoint;
@@ -63,4 +87,48 @@ public class InstrumenterFactory {
 		throw new IllegalArgumentException("The instrumentation point " + instrumentationPoint + " is not known to the InstrumenterFactory.");
 	}
 
+	/**
+	 * Defines if the parameters of the method have to be passed to the dispatcher for the given
+	 * sensor instrumentation point. This is the case if property accessors are defined or any of
+	 * the sensors reads the parameters. Sensors that are not known are expected to read the
+	 * parameters.
+	 * <p>
+	 * Protected access so we can change in tests.
+	 *
+	 * @param sensorInstrumentationPoint
+	 *            {@link SensorInstrumentationPoint}
+	 * @return <code>true</code> if parameters have to be passed to the dispatcher
+	 */
+	protected boolean isParameterAccess(SensorInstrumentationPoint sensorInstrumentationPoint) {
+		if (sensorInstrumentationPoint.isPropertyAccess() || (null == methodSensorMap)) {
+			return true;
+		}
+
+		long[] sensorIds = sensorInstrumentationPoint.getSensorIds();
+		if (null == sensorIds) {
+			return true;
+		}
+
+		for (long sensorId : sensorIds) {
+			IMethodSensor methodSensor = methodSensorMap.get(sensorId);
+			if ((null == methodSensor) || methodSensor.isParameterAccess()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		if (null != methodSensors) {
+			methodSensorMap = new HashMap<Long, IMethodSensor>();
+			for (IMethodSensor methodSensor : methodSensors) {
+				methodSensorMap.put(methodSensor.getSensorTypeConfig().getId(), methodSensor);
+			}
+		}
+	}
+
 }
@@ -103,6 +103,32 @@ public class RetransformManager implements ApplicationListener<AgentMessagesRece
 		processInstrumentationDefinitions(cleanedInstrumentationDefinitions);
 	}
 
+	/**
+	 * Returns if the classes can be retransformed, meaning that retransformation is used by the
+	 * agent and supported by the JVM.
+	 *
+	 * @return Returns if the classes can be retransformed.
+	 */
+	public boolean isRetransformationActive() {
+		return (null != instrumentation) && (null != Agent.agent) && Agent.agent.isUsingRetransformation() && instrumentation.isRetransformClassesSupported();
+	}
+
+	/**
+	 * Registers the given {@link InstrumentationDefinition}s and retransforms the loaded classes
+	 * they belong to. Used for the classes that were loaded before their instrumentation
+	 * definition was known.
+	 *
+	 * @param instrumentationDefinitions
+	 *            {@link Collection} of {@link InstrumentationDefinition}
+	 */
+	public void retransform(Collection<InstrumentationDefinition> instrumentationDefinitions) {
+		if (CollectionUtils.isEmpty(instrumentationDefinitions) || !isRetransformationActive()) {
+			return;
+		}
+
+		processInstrumentationDefinitions(instrumentationDefinitions);
+	}
+
 	/**
 	 * Returns a {@link Collection} containing all received {@link InstrumentationDefinition} which
 	 * are contained in the given {@link IAgentMessage}s.
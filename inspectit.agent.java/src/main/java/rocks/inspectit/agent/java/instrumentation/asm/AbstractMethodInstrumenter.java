@@ -33,6 +33,12 @@ public abstract class AbstractMethodInstrumenter extends AdviceAdapter {
 	 */
 	protected boolean enhancedExceptionSensor;
 
+	/**
+	 * If the parameters of the method should be passed to the dispatcher. If not, no parameter
+	 * array is created on each invocation and <code>null</code> is passed instead.
+	 */
+	protected boolean parameterAccess;
+
 	/**
 	 * The label for the start of the try/finally or try/catch/finally block that we are adding.
 	 */
@@ -66,9 +72,34 @@ public abstract class AbstractMethodInstrumenter extends AdviceAdapter {
 	 *            Marker declaring if enhanced exception sensor is active.
 	 */
 	protected AbstractMethodInstrumenter(MethodVisitor mv, int access, String name, String desc, long methodId, boolean enhancedExceptionSensor) {
+		this(mv, access, name, desc, methodId, enhancedExceptionSensor, true);
+	}
+
+	/**
+	 * Constructor for the method instrumenter that additionally defines if the parameters of the
+	 * method are passed to the dispatcher.
+	 *
+	 * @param mv
+	 *            Super method visitor.
+	 * @param access
+	 *            Method access code.
+	 * @param name
+	 *            Method name.
+	 * @param desc
+	 *            Method description.
+	 * @param methodId
+	 *            Method id that will be passed to {@link IHookDispatcher}.
+	 * @param enhancedExceptionSensor
+	 *            Marker declaring if enhanced exception sensor is active.
+	 * @param parameterAccess
+	 *            If the parameters of the method should be passed to the {@link IHookDispatcher}.
+	 *            If <code>false</code> the <code>null</code> is passed as parameters.
+	 */
+	protected AbstractMethodInstrumenter(MethodVisitor mv, int access, String name, String desc, long methodId, boolean enhancedExceptionSensor, boolean parameterAccess) {
 		super(Opcodes.ASM5, mv, access, name, desc);
 		this.methodId = methodId;
 		this.enhancedExceptionSensor = enhancedExceptionSensor;
+		this.parameterAccess = parameterAccess;
 		this.isStatic = (access & Opcodes.ACC_STATIC) != 0;
 	}
 
@@ -129,6 +160,19 @@ public abstract class AbstractMethodInstrumenter extends AdviceAdapter {
 		mv.visitInsn(Opcodes.ACONST_NULL);
 	}
 
+	/**
+	 * Loads the parameters of the method to the stack. If {@link #parameterAccess} is not set the
+	 * <code>null</code> is pushed to the stack instead of the parameter array, thus we avoid array
+	 * creation and boxing of primitive arguments on every call.
+	 */
+	protected void loadParameters() {
+		if (parameterAccess) {
+			loadArgArray();
+		} else {
+			pushNull();
+		}
+	}
+
 	/**
 	 * Gets {@link #methodId}.
 	 *
@@ -147,4 +191,13 @@ public abstract class AbstractMethodInstrumenter extends AdviceAdapter {
 		return this.enhancedExceptionSensor;
 	}
 
+	/**
+	 * Gets {@link #parameterAccess}.
+	 *
+	 * @return {@link #parameterAccess}
+	 */
+	public boolean isParameterAccess() {
+		return this.parameterAccess;
+	}
+
 }
@@ -37,6 +37,31 @@ public class ConstructorInstrumenter extends AbstractMethodInstrumenter {
 		super(mv, access, name, desc, methodId, enhancedExceptionSensor);
 	}
 
+	/**
+	 * Constructor that additionally defines if the parameters of the constructor are passed to the
+	 * dispatcher.
+	 *
+	 * @param mv
+	 *            Super method visitor.
+	 * @param access
+	 *            Method access code.
+	 * @param name
+	 *            Method name.
+	 * @param desc
+	 *            Method description.
+	 * @param methodId
+	 *            Method id that will be passed to {@link IHookDispatcher}.
+	 * @param enhancedExceptionSensor
+	 *            Marker declaring if enhanced exception sensor is active.
+	 * @param parameterAccess
+	 *            If the parameters should be passed to the {@link IHookDispatcher}.
+	 * @see AbstractMethodInstrumenter#AbstractMethodInstrumenter(MethodVisitor, int, String,
+	 *      String, long, boolean, boolean)
+	 */
+	public ConstructorInstrumenter(MethodVisitor mv, int access, String name, String desc, long methodId, boolean enhancedExceptionSensor, boolean parameterAccess) {
+		super(mv, access, name, desc, methodId, enhancedExceptionSensor, parameterAccess);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -121,7 +146,7 @@ public class ConstructorInstrumenter extends AbstractMethodInstrumenter {
 		push(methodId);
 
 		// then parameters
-		loadArgArray();
+		loadParameters();
 
 		mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, IInstrumenterConstant.IHOOK_DISPATCHER_INTERNAL_NAME, "dispatchConstructorBeforeBody",
 				IInstrumenterConstant.DISPATCH_CONSTRUCTOR_BEFORE_BODY_DESCRIPTOR, true);
@@ -149,7 +174,7 @@ public class ConstructorInstrumenter extends AbstractMethodInstrumenter {
 		// l-l2-r :)
 
 		// then parameters, no need to swap
-		loadArgArray();
+		loadParameters();
 
 		// execute after body
 		mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, IInstrumenterConstant.IHOOK_DISPATCHER_INTERNAL_NAME, "dispatchConstructorAfterBody",
@@ -210,7 +235,7 @@ public class ConstructorInstrumenter extends AbstractMethodInstrumenter {
 		swap();
 
 		// then parameters
-		loadArgArray();
+		loadParameters();
 		swap();
 
 		// execute after body
@@ -38,6 +38,31 @@ public class MethodInstrumenter extends AbstractMethodInstrumenter {
 		super(mv, access, name, desc, methodId, enhancedExceptionSensor);
 	}
 
+	/**
+	 * Constructor that additionally defines if the parameters of the method are passed to the
+	 * dispatcher.
+	 *
+	 * @param mv
+	 *            Super method visitor.
+	 * @param access
+	 *            Method access code.
+	 * @param name
+	 *            Method name.
+	 * @param desc
+	 *            Method description.
+	 * @param methodId
+	 *            Method id that will be passed to {@link IHookDispatcher}.
+	 * @param enhancedExceptionSensor
+	 *            Marker declaring if enhanced exception sensor is active.
+	 * @param parameterAccess
+	 *            If the parameters should be passed to the {@link IHookDispatcher}.
+	 * @see AbstractMethodInstrumenter#AbstractMethodInstrumenter(MethodVisitor, int, String,
+	 *      String, long, boolean, boolean)
+	 */
+	public MethodInstrumenter(MethodVisitor mv, int access, String name, String desc, long methodId, boolean enhancedExceptionSensor, boolean parameterAccess) {
+		super(mv, access, name, desc, methodId, enhancedExceptionSensor, parameterAccess);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -143,7 +168,7 @@ public class MethodInstrumenter extends AbstractMethodInstrumenter {
 		}
 
 		// then parameters
-		loadArgArray();
+		loadParameters();
 
 		mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, IInstrumenterConstant.IHOOK_DISPATCHER_INTERNAL_NAME, "dispatchMethodBeforeBody", IInstrumenterConstant.DISPATCH_METHOD_BEFORE_BODY_DESCRIPTOR,
 				true);
@@ -217,7 +242,7 @@ public class MethodInstrumenter extends AbstractMethodInstrumenter {
 		swap();
 
 		// then parameters
-		loadArgArray();
+		loadParameters();
 		swap();
 	}
 
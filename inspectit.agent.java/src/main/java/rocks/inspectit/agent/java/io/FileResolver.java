@@ -40,6 +40,17 @@ public class FileResolver implements InitializingBean {
 		return new File(agentJar.getParent() + File.separator + "cache" + File.separator + configurationStorage.getAgentName() + File.separator + "sendingClasses.cache");
 	}
 
+	/**
+	 * Returns directory where the data spool for this agent should be.
+	 * <p>
+	 * Expected path: <i>[PATH_TO_AGENT]/spool/agentName</i>
+	 *
+	 * @return Returns directory where the data spool for this agent should be.
+	 */
+	public File getDataSpoolDirectory() {
+		return new File(agentJar.getParent() + File.separator + "spool" + File.separator + configurationStorage.getAgentName());
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
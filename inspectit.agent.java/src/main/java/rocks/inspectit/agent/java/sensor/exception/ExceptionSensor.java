@@ -43,6 +43,16 @@ public class ExceptionSensor extends AbstractMethodSensor implements IExceptionS
 		this.platformManager = platformManager;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Exception sensor hook never reads the parameters.
+	 */
+	@Override
+	public boolean isParameterAccess() {
+		return false;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
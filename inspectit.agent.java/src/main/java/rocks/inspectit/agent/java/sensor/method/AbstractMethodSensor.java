@@ -54,6 +54,17 @@ public abstract class AbstractMethodSensor implements IMethodSensor, Initializin
 		return sensorTypeConfig;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Returns <code>true</code> by default, sub-classes that have hooks not reading the parameters
+	 * should override.
+	 */
+	@Override
+	public boolean isParameterAccess() {
+		return true;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
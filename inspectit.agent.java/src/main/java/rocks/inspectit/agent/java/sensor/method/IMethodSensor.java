@@ -29,4 +29,14 @@ public interface IMethodSensor extends ISensor {
 	@Override
 	MethodSensorTypeConfig getSensorTypeConfig();
 
+	/**
+	 * Returns if the hook of this sensor reads the parameters of the instrumented method. When
+	 * none of the sensors defined for a method reads the parameters and no property accessors are
+	 * defined, the instrumented method does not create the parameter array on each call and the
+	 * hook receives <code>null</code> as parameters.
+	 *
+	 * @return Returns if the hook of this sensor reads the parameters of the instrumented method.
+	 */
+	boolean isParameterAccess();
+
 }
@@ -24,7 +24,7 @@ import rocks.inspectit.agent.java.sensor.method.jdbc.PreparedStatementParameterS
 import rocks.inspectit.agent.java.tracing.core.listener.IAsyncSpanContextListener;
 import rocks.inspectit.agent.java.tracing.core.transformer.SpanContextTransformer;
 import rocks.inspectit.agent.java.util.StringConstraint;
-import rocks.inspectit.agent.java.util.ThreadLocalStack;
+import rocks.inspectit.agent.java.util.ThreadLocalDoubleStack;
 import rocks.inspectit.agent.java.util.Timer;
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.communication.data.ExceptionSensorData;
@@ -103,7 +103,7 @@ public class InvocationSequenceHook implements IMethodHook, IConstructorHook, IC
 	/**
 	 * The stack containing the start time values.
 	 */
-	private final ThreadLocalStack<Double> timeStack = new ThreadLocalStack<Double>();
+	private final ThreadLocalDoubleStack timeStack = new ThreadLocalDoubleStack();
 
 	/**
 	 * Saves the min duration for faster access of the values.
@@ -167,7 +167,7 @@ public class InvocationSequenceHook implements IMethodHook, IConstructorHook, IC
 			// sequence trace
 
 			// save the start time
-			timeStack.push(new Double(timer.getCurrentTime()));
+			timeStack.push(timer.getCurrentTime());
 
 			// no invocation tracer is currently started, so we do that now.
 			InvocationSequenceData invocationSequenceData = new InvocationSequenceData(timestamp, platformId, sensorTypeId, methodId);
@@ -212,7 +212,7 @@ public class InvocationSequenceHook implements IMethodHook, IConstructorHook, IC
 				invocationStartIdCount.set(Long.valueOf(count - 1));
 
 				if (0 == (count - 1)) {
-					timeStack.push(new Double(timer.getCurrentTime()));
+					timeStack.push(timer.getCurrentTime());
 				}
 			}
 		}
@@ -241,8 +241,8 @@ public class InvocationSequenceHook implements IMethodHook, IConstructorHook, IC
 			}
 
 			if ((methodId == invocationStartId.get().longValue()) && (0 == invocationStartIdCount.get().longValue())) {
-				double endTime = timeStack.pop().doubleValue();
-				double startTime = timeStack.pop().doubleValue();
+				double endTime = timeStack.pop();
+				double startTime = timeStack.pop();
 				double duration = endTime - startTime;
 
 				// check if we belong to a span
@@ -67,6 +67,16 @@ public class InvocationSequenceSensor extends AbstractMethodSensor implements IM
 	 */
 	private InvocationSequenceHook invocationSequenceHook = null;
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Invocation sequence hook reads the parameters only via the property accessors.
+	 */
+	@Override
+	public boolean isParameterAccess() {
+		return false;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -10,11 +10,10 @@ import rocks.inspectit.agent.java.hooking.IMethodHook;
 import rocks.inspectit.agent.java.sdk.opentracing.internal.impl.SpanImpl;
 import rocks.inspectit.agent.java.sensor.method.http.StartEndMarker;
 import rocks.inspectit.agent.java.tracing.core.ClientInterceptor;
+import rocks.inspectit.agent.java.tracing.core.SensorSpanReporter;
 import rocks.inspectit.agent.java.tracing.core.adapter.ClientAdapterProvider;
 import rocks.inspectit.agent.java.tracing.core.adapter.ClientRequestAdapter;
 import rocks.inspectit.agent.java.tracing.core.adapter.ResponseAdapter;
-import rocks.inspectit.agent.java.tracing.core.transformer.SpanTransformer;
-import rocks.inspectit.shared.all.tracing.data.AbstractSpan;
 
 /**
  * The hook is the default implementation of remote client for synchronous requests. The hook works
@@ -24,7 +23,8 @@ import rocks.inspectit.shared.all.tracing.data.AbstractSpan;
  * <p>
  * This hook also measures execution time.
  * <p>
- * The created spans will be passed to the give core service of the second after body method.
+ * The created spans will be passed to the give core service of the second after body method by the
+ * tracer, following its head and tail sampling decisions.
  *
  * @author Thomas Kluge
  * @author Ivan Senic
@@ -132,20 +132,14 @@ public class RemoteClientHook implements IMethodHook {
 				ResponseAdapter adapter = clientAdapterProvider.getClientResponseAdapter(object, parameters, result, exception, rsc);
 				// only handle if request adapter is provided
 				if (null != adapter) {
+					// the tracer reports the span on finish if the sampling decisions allow it
+					span.reportTo(new SensorSpanReporter(coreService, platformManager.getPlatformId(), methodId, sensorTypeId));
 					clientInterceptor.handleResponse(span, adapter);
 					spanStack.remove();
 
 					if (LOG.isDebugEnabled()) {
 						LOG.debug("Remote client hook after body span " + span);
 					}
-
-					AbstractSpan transformedSpan = SpanTransformer.transformSpan(span);
-					transformedSpan.setPlatformIdent(platformManager.getPlatformId());
-					transformedSpan.setMethodIdent(methodId);
-					transformedSpan.setSensorTypeIdent(sensorTypeId);
-
-					// add to core service (use span id as prefix)
-					coreService.addDefaultData(transformedSpan);
 				}
 			}
 		}
@@ -9,13 +9,12 @@ import rocks.inspectit.agent.java.core.IPlatformManager;
 import rocks.inspectit.agent.java.hooking.IMethodHook;
 import rocks.inspectit.agent.java.sdk.opentracing.internal.impl.SpanImpl;
 import rocks.inspectit.agent.java.sensor.method.http.StartEndMarker;
+import rocks.inspectit.agent.java.tracing.core.SensorSpanReporter;
 import rocks.inspectit.agent.java.tracing.core.ServerInterceptor;
 import rocks.inspectit.agent.java.tracing.core.adapter.ClientAdapterProvider;
 import rocks.inspectit.agent.java.tracing.core.adapter.ResponseAdapter;
 import rocks.inspectit.agent.java.tracing.core.adapter.ServerAdapterProvider;
 import rocks.inspectit.agent.java.tracing.core.adapter.ServerRequestAdapter;
-import rocks.inspectit.agent.java.tracing.core.transformer.SpanTransformer;
-import rocks.inspectit.shared.all.tracing.data.AbstractSpan;
 
 /**
  * The hook is the default implementation of remote server. The hook works with the
@@ -25,7 +24,8 @@ import rocks.inspectit.shared.all.tracing.data.AbstractSpan;
  * <p>
  * This hook measures also measures execution time.
  * <p>
- * The created spans will be passed to the give core service of the second after body method.
+ * The created spans will be passed to the give core service of the second after body method by the
+ * tracer, following its head and tail sampling decisions.
  *
  * @author Thomas Kluge
  * @author Ivan Senic
@@ -130,19 +130,13 @@ public class RemoteServerHook implements IMethodHook {
 			if (null != span) {
 				// get requestAdapter and handle
 				ResponseAdapter responseAdapter = serverAdapterProvider.getServerResponseAdapter(object, parameters, result, exception, rsc);
+				// the tracer reports the span on finish if the sampling decisions allow it
+				span.reportTo(new SensorSpanReporter(coreService, platformManager.getPlatformId(), methodId, sensorTypeId));
 				serverInterceptor.handleResponse(span, responseAdapter);
 
 				if (LOG.isDebugEnabled()) {
 					LOG.debug("Remote server hook after body span " + span);
 				}
-
-				AbstractSpan transformedSpan = SpanTransformer.transformSpan(span);
-				transformedSpan.setPlatformIdent(platformManager.getPlatformId());
-				transformedSpan.setMethodIdent(methodId);
-				transformedSpan.setSensorTypeIdent(sensorTypeId);
-
-				// add to core service (use span id as prefix)
-				coreService.addDefaultData(transformedSpan);
 			}
 		}
 	}
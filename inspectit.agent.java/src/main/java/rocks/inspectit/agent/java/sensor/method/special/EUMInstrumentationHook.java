@@ -2,6 +2,7 @@ package rocks.inspectit.agent.java.sensor.method.special;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -18,6 +19,7 @@ import rocks.inspectit.agent.java.eum.data.DataHandler;
 import rocks.inspectit.agent.java.eum.data.IDataHandler;
 import rocks.inspectit.agent.java.eum.instrumentation.EumScriptTagPrinter;
 import rocks.inspectit.agent.java.eum.instrumentation.JSAgentBuilder;
+import rocks.inspectit.agent.java.eum.instrumentation.JSAgentScript;
 import rocks.inspectit.agent.java.eum.instrumentation.TagInjectionResponseWrapper;
 import rocks.inspectit.agent.java.eum.reflection.WHttpServletRequest;
 import rocks.inspectit.agent.java.eum.reflection.WHttpServletResponse;
@@ -182,7 +184,7 @@ public class EUMInstrumentationHook implements ISpecialHook {
 				Matcher agentURLMatcher = jsAgentURLRegEx.matcher(path);
 				if (agentURLMatcher.matches()) {
 					String modules = agentURLMatcher.group(AGENT_MODULES_GROUP_INDEX).toLowerCase();
-					sendScript(res, modules);
+					sendScript(req, res, modules);
 					return true;
 				}
 				return false;
@@ -221,22 +223,68 @@ public class EUMInstrumentationHook implements ISpecialHook {
 	}
 
 	/**
-	 * Sends the script using the given response object.
+	 * Sends the script using the given response object. The script is taken from the cache of the
+	 * {@link JSAgentBuilder} and written as is, gzip compressed if the client accepts it. If the
+	 * client already holds the script, only the not modified status is sent.
 	 *
+	 * @param req
+	 *            the script request
 	 * @param res
 	 *            the response to write
 	 * @param activeModules
 	 *            a String listing the identifiers of the active modules.
 	 */
-	private void sendScript(WHttpServletResponse res, String activeModules) {
+	private void sendScript(WHttpServletRequest req, WHttpServletResponse res, String activeModules) {
+		JSAgentScript script = agentBuilder.getJsAgent(activeModules);
+		boolean gzip = acceptsGzip(req.getHeader("Accept-Encoding"));
+
+		res.setHeader("Cache-Control", "public, max-age=" + JSAgentBuilder.JS_AGENT_CACHE_MAX_AGE_SECONDS);
+		res.setHeader("Vary", "Accept-Encoding");
+		res.setHeader("ETag", gzip ? script.getGzipETag() : script.getETag());
+		if (script.isMatchedBy(req.getHeader("If-None-Match"))) {
+			res.setStatus(304);
+			return;
+		}
+
 		// we respond with the script code
+		byte[] content = gzip ? script.getGzipContent() : script.getContent();
 		res.setStatus(200);
 		res.setContentType("application/javascript");
-		res.addHeader("Cache-Control", "public, max-age=" + JSAgentBuilder.JS_AGENT_CACHE_MAX_AGE_SECONDS);
+		res.setCharacterEncoding("UTF-8");
+		if (gzip) {
+			res.setHeader("Content-Encoding", "gzip");
+		}
+		res.setContentLength(content.length);
 
-		PrintWriter writer = res.getWriter();
-		writer.write(agentBuilder.buildJsFile(activeModules));
-		writer.flush();
+		OutputStream outputStream = res.getOutputStream();
+		try {
+			outputStream.write(content);
+			outputStream.flush();
+		} catch (IOException e) {
+			LOG.error("Error sending the JS agent!", e);
+		}
+	}
+
+	/**
+	 * Checks if the value of the <code>Accept-Encoding</code> request header allows the gzip
+	 * encoding.
+	 *
+	 * @param acceptEncoding
+	 *            Value of the <code>Accept-Encoding</code> header, can be <code>null</code>.
+	 * @return true if the response can be gzip compressed
+	 */
+	private boolean acceptsGzip(String acceptEncoding) {
+		if (null == acceptEncoding) {
+			return false;
+		}
+		for (String coding : acceptEncoding.split(",")) {
+			String[] parts = coding.split(";");
+			if ("gzip".equalsIgnoreCase(parts[0].trim())) {
+				// only explicit zero quality refuses the encoding
+				return (parts.length < 2) || !parts[1].trim().matches("q=0(\\.0*)?");
+			}
+		}
+		return false;
 	}
 
 	/**
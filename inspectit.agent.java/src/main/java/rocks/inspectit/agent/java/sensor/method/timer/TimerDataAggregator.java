@@ -0,0 +1,270 @@
+package rocks.inspectit.agent.java.sensor.method.timer;
+
+import java.sql.Timestamp;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import rocks.inspectit.agent.java.core.ICoreService;
+import rocks.inspectit.shared.all.communication.data.ParameterContentData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+
+/**
+ * Aggregator that folds all timer measurements of the same method into one {@link TimerData} per
+ * aggregation interval. The aggregated data is keyed by the platform, sensor type and method ident
+ * plus the optional captured parameter content. The aggregator is a {@link Runnable} that is
+ * expected to be periodically executed, each run passes all aggregated objects to the
+ * {@link ICoreService} and starts new aggregation objects.
+ *
+ * @author agent
+ *
+ */
+public class TimerDataAggregator implements Runnable {
+
+	/**
+	 * The logger of this class. Initialized manually.
+	 */
+	private static final Logger LOG = LoggerFactory.getLogger(TimerDataAggregator.class);
+
+	/**
+	 * Map holding the currently aggregated data.
+	 */
+	private final ConcurrentMap<AggregationKey, AggregationSlot> aggregationMap = new ConcurrentHashMap<AggregationKey, AggregationSlot>();
+
+	/**
+	 * Core service to pass the aggregated data to.
+	 */
+	private final ICoreService coreService;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param coreService
+	 *            Core service to pass the aggregated data to.
+	 */
+	public TimerDataAggregator(ICoreService coreService) {
+		this.coreService = coreService;
+	}
+
+	/**
+	 * Aggregates one measurement.
+	 *
+	 * @param platformId
+	 *            Platform ident.
+	 * @param sensorTypeId
+	 *            Sensor type ident.
+	 * @param methodId
+	 *            Method ident.
+	 * @param parameterContentData
+	 *            Captured parameters, can be <code>null</code>.
+	 * @param duration
+	 *            Duration of the invocation in milliseconds.
+	 * @param cpuDuration
+	 *            CPU duration of the invocation in milliseconds or negative number if the CPU
+	 *            duration is not available.
+	 * @param charting
+	 *            If the charting is active for the measurement.
+	 */
+	public void aggregate(long platformId, long sensorTypeId, long methodId, List<ParameterContentData> parameterContentData, double duration, double cpuDuration, boolean charting) { // NOCHK:7-params
+		AggregationKey key = new AggregationKey(platformId, sensorTypeId, methodId, parameterContentData);
+
+		while (true) {
+			AggregationSlot slot = aggregationMap.get(key);
+			if (null == slot) {
+				Timestamp timestamp = new Timestamp(System.currentTimeMillis() - Math.round(duration));
+				AggregationSlot newSlot = new AggregationSlot(new TimerData(timestamp, platformId, sensorTypeId, methodId, parameterContentData));
+				slot = aggregationMap.putIfAbsent(key, newSlot);
+				if (null == slot) {
+					slot = newSlot;
+				}
+			}
+
+			synchronized (slot) {
+				// slot was already passed to the core service, retry with a fresh one
+				if (slot.closed) {
+					continue;
+				}
+
+				TimerData timerData = slot.timerData;
+				timerData.increaseCount();
+				timerData.addDuration(duration);
+				timerData.calculateMax(duration);
+				timerData.calculateMin(duration);
+				// only add the cpu time if its greater than zero
+				if (cpuDuration >= 0) {
+					timerData.addCpuDuration(cpuDuration);
+					timerData.calculateCpuMax(cpuDuration);
+					timerData.calculateCpuMin(cpuDuration);
+				}
+				if (charting) {
+					timerData.setCharting(true);
+				}
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Passes all currently aggregated data to the core service.
+	 */
+	public void flush() {
+		for (Iterator<Entry<AggregationKey, AggregationSlot>> it = aggregationMap.entrySet().iterator(); it.hasNext();) {
+			AggregationSlot slot = it.next().getValue();
+			it.remove();
+
+			TimerData timerData;
+			synchronized (slot) {
+				slot.closed = true;
+				timerData = slot.timerData;
+			}
+
+			if (timerData.getCount() > 0) {
+				coreService.addDefaultData(timerData);
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void run() {
+		try {
+			flush();
+		} catch (Throwable t) { // NOPMD NOCHK
+			// catch any exception in order not to cancel the task in the executor
+			LOG.error("Error occurred during flushing of the aggregated timer data.", t);
+		}
+	}
+
+	/**
+	 * Holder of the timer data being aggregated. Once closed the slot must not be updated anymore.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static final class AggregationSlot {
+
+		/**
+		 * Aggregated timer data.
+		 */
+		private final TimerData timerData;
+
+		/**
+		 * If the slot was already flushed.
+		 */
+		private boolean closed;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param timerData
+		 *            Aggregated timer data.
+		 */
+		AggregationSlot(TimerData timerData) {
+			this.timerData = timerData;
+		}
+	}
+
+	/**
+	 * Key for the aggregation map.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static final class AggregationKey {
+
+		/**
+		 * Platform ident.
+		 */
+		private final long platformId;
+
+		/**
+		 * Sensor type ident.
+		 */
+		private final long sensorTypeId;
+
+		/**
+		 * Method ident.
+		 */
+		private final long methodId;
+
+		/**
+		 * Captured parameters, can be <code>null</code>.
+		 */
+		private final List<ParameterContentData> parameterContentData;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param platformId
+		 *            Platform ident.
+		 * @param sensorTypeId
+		 *            Sensor type ident.
+		 * @param methodId
+		 *            Method ident.
+		 * @param parameterContentData
+		 *            Captured parameters, can be <code>null</code>.
+		 */
+		AggregationKey(long platformId, long sensorTypeId, long methodId, List<ParameterContentData> parameterContentData) {
+			this.platformId = platformId;
+			this.sensorTypeId = sensorTypeId;
+			this.methodId = methodId;
+			this.parameterContentData = parameterContentData;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = 1;
+			result = (prime * result) + (int) (platformId ^ (platformId >>> 32));
+			result = (prime * result) + (int) (sensorTypeId ^ (sensorTypeId >>> 32));
+			result = (prime * result) + (int) (methodId ^ (methodId >>> 32));
+			result = (prime * result) + ((parameterContentData == null) ? 0 : parameterContentData.hashCode());
+			return result;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj == null) {
+				return false;
+			}
+			if (getClass() != obj.getClass()) {
+				return false;
+			}
+			AggregationKey other = (AggregationKey) obj;
+			if (platformId != other.platformId) {
+				return false;
+			}
+			if (sensorTypeId != other.sensorTypeId) {
+				return false;
+			}
+			if (methodId != other.methodId) {
+				return false;
+			}
+			if (parameterContentData == null) {
+				if (other.parameterContentData != null) {
+					return false;
+				}
+			} else if (!parameterContentData.equals(other.parameterContentData)) {
+				return false;
+			}
+			return true;
+		}
+	}
+
+}
@@ -15,14 +15,15 @@ import rocks.inspectit.agent.java.core.IPlatformManager;
 import rocks.inspectit.agent.java.hooking.IConstructorHook;
 import rocks.inspectit.agent.java.hooking.IMethodHook;
 import rocks.inspectit.agent.java.util.StringConstraint;
-import rocks.inspectit.agent.java.util.ThreadLocalStack;
+import rocks.inspectit.agent.java.util.ThreadLocalDoubleStack;
+import rocks.inspectit.agent.java.util.ThreadLocalLongStack;
 import rocks.inspectit.agent.java.util.Timer;
 import rocks.inspectit.shared.all.communication.data.ParameterContentData;
 import rocks.inspectit.shared.all.communication.data.TimerData;
 
 /**
- * The hook implementation for the timer sensor. It uses the {@link ThreadLocalStack} class to save
- * the time when the method was called.
+ * The hook implementation for the timer sensor. It uses the {@link ThreadLocalDoubleStack} class to
+ * save the time when the method was called.
  * <p>
  * The difference to the {@link AverageTimerHook} is that it's using {@link ITimerStorage} objects
  * to save the values. The {@link ITimerStorage} is responsible for the actual data saving, so
@@ -41,7 +42,7 @@ public class TimerHook implements IMethodHook, IConstructorHook {
 	/**
 	 * The stack containing the start time values.
 	 */
-	private final ThreadLocalStack<Double> timeStack = new ThreadLocalStack<Double>();
+	private final ThreadLocalDoubleStack timeStack = new ThreadLocalDoubleStack();
 
 	/**
 	 * The timer used for accurate measuring.
@@ -81,11 +82,17 @@ public class TimerHook implements IMethodHook, IConstructorHook {
 	/**
 	 * The stack containing the start time values.
 	 */
-	private final ThreadLocalStack<Long> threadCpuTimeStack = new ThreadLocalStack<Long>();
+	private final ThreadLocalLongStack threadCpuTimeStack = new ThreadLocalLongStack();
 
 	/**
-	 * The only constructor which needs the used {@link ICoreService} implementation and the used
-	 * {@link Timer}.
+	 * Aggregator to pass the measurements to. If <code>null</code> each measurement results in a
+	 * separate {@link TimerData} object.
+	 */
+	private final TimerDataAggregator timerDataAggregator;
+
+	/**
+	 * Constructor which needs the used {@link Timer}. Created hook does not aggregate the
+	 * measurements.
 	 *
 	 * @param timer
 	 *            The timer.
@@ -100,7 +107,30 @@ public class TimerHook implements IMethodHook, IConstructorHook {
 	 *            The bean used to access the cpu time.
 	 */
 	public TimerHook(Timer timer, IPlatformManager platformManager, IPropertyAccessor propertyAccessor, Map<String, Object> param, ThreadMXBean threadMXBean) {
+		this(timer, platformManager, propertyAccessor, param, threadMXBean, null);
+	}
+
+	/**
+	 * Constructor which needs the used {@link Timer} and optional {@link TimerDataAggregator}.
+	 *
+	 * @param timer
+	 *            The timer.
+	 * @param platformManager
+	 *            The Platform manager.
+	 * @param propertyAccessor
+	 *            The property accessor.
+	 * @param param
+	 *            Additional parameters passed to the {@link TimerStorageFactory} for proper
+	 *            initialization.
+	 * @param threadMXBean
+	 *            The bean used to access the cpu time.
+	 * @param timerDataAggregator
+	 *            Aggregator to pass measurements to or <code>null</code> to send each measurement
+	 *            separately.
+	 */
+	public TimerHook(Timer timer, IPlatformManager platformManager, IPropertyAccessor propertyAccessor, Map<String, Object> param, ThreadMXBean threadMXBean, TimerDataAggregator timerDataAggregator) {
 		this.timer = timer;
+		this.timerDataAggregator = timerDataAggregator;
 		this.platformManager = platformManager;
 		this.propertyAccessor = propertyAccessor;
 		this.threadMXBean = threadMXBean;
@@ -132,9 +162,9 @@ public class TimerHook implements IMethodHook, IConstructorHook {
 	 */
 	@Override
 	public void beforeBody(long methodId, long sensorTypeId, Object object, Object[] parameters, RegisteredSensorConfig rsc) {
-		timeStack.push(new Double(timer.getCurrentTime()));
+		timeStack.push(timer.getCurrentTime());
 		if (enabled) {
-			threadCpuTimeStack.push(Long.valueOf(threadMXBean.getCurrentThreadCpuTime()));
+			threadCpuTimeStack.push(threadMXBean.getCurrentThreadCpuTime());
 		}
 	}
 
@@ -143,9 +173,9 @@ public class TimerHook implements IMethodHook, IConstructorHook {
 	 */
 	@Override
 	public void firstAfterBody(long methodId, long sensorTypeId, Object object, Object[] parameters, Object result, boolean exception, RegisteredSensorConfig rsc) {
-		timeStack.push(new Double(timer.getCurrentTime()));
+		timeStack.push(timer.getCurrentTime());
 		if (enabled) {
-			threadCpuTimeStack.push(Long.valueOf(threadMXBean.getCurrentThreadCpuTime()));
+			threadCpuTimeStack.push(threadMXBean.getCurrentThreadCpuTime());
 		}
 	}
 
@@ -154,15 +184,15 @@ public class TimerHook implements IMethodHook, IConstructorHook {
 	 */
 	@Override
 	public void secondAfterBody(ICoreService coreService, long methodId, long sensorTypeId, Object object, Object[] parameters, Object result, boolean exception, RegisteredSensorConfig rsc) { // NOCHK:8-params
-		double endTime = timeStack.pop().doubleValue();
-		double startTime = timeStack.pop().doubleValue();
+		double endTime = timeStack.pop();
+		double startTime = timeStack.pop();
 		double duration = endTime - startTime;
 
 		// default setting to a negative number
 		double cpuDuration = -1.0d;
 		if (enabled) {
-			long cpuEndTime = threadCpuTimeStack.pop().longValue();
-			long cpuStartTime = threadCpuTimeStack.pop().longValue();
+			long cpuEndTime = threadCpuTimeStack.pop();
+			long cpuStartTime = threadCpuTimeStack.pop();
 			cpuDuration = (cpuEndTime - cpuStartTime) / 1000000.0d;
 		}
 
@@ -178,6 +208,13 @@ public class TimerHook implements IMethodHook, IConstructorHook {
 		}
 
 		long platformId = platformManager.getPlatformId();
+		boolean charting = Boolean.TRUE.equals(rsc.getSettings().get("charting"));
+
+		if (null != timerDataAggregator) {
+			timerDataAggregator.aggregate(platformId, sensorTypeId, methodId, parameterContentData, duration, cpuDuration, charting);
+			return;
+		}
+
 		Timestamp timestamp = new Timestamp(System.currentTimeMillis() - Math.round(duration));
 
 		TimerData timerData = new TimerData(timestamp, platformId, sensorTypeId, methodId, parameterContentData);
@@ -191,7 +228,6 @@ public class TimerHook implements IMethodHook, IConstructorHook {
 			timerData.calculateCpuMax(cpuDuration);
 			timerData.calculateCpuMin(cpuDuration);
 		}
-		boolean charting = Boolean.TRUE.equals(rsc.getSettings().get("charting"));
 		timerData.setCharting(charting);
 
 		coreService.addDefaultData(timerData);
@@ -202,9 +238,9 @@ public class TimerHook implements IMethodHook, IConstructorHook {
 	 */
 	@Override
 	public void beforeConstructor(long methodId, long sensorTypeId, Object[] parameters, RegisteredSensorConfig rsc) {
-		timeStack.push(new Double(timer.getCurrentTime()));
+		timeStack.push(timer.getCurrentTime());
 		if (enabled) {
-			threadCpuTimeStack.push(Long.valueOf(threadMXBean.getCurrentThreadCpuTime()));
+			threadCpuTimeStack.push(threadMXBean.getCurrentThreadCpuTime());
 		}
 	}
 
@@ -213,9 +249,9 @@ public class TimerHook implements IMethodHook, IConstructorHook {
 	 */
 	@Override
 	public void afterConstructor(ICoreService coreService, long methodId, long sensorTypeId, Object object, Object[] parameters, RegisteredSensorConfig rsc) {
-		timeStack.push(new Double(timer.getCurrentTime()));
+		timeStack.push(timer.getCurrentTime());
 		if (enabled) {
-			threadCpuTimeStack.push(Long.valueOf(threadMXBean.getCurrentThreadCpuTime()));
+			threadCpuTimeStack.push(threadMXBean.getCurrentThreadCpuTime());
 		}
 		// just call the second after body method directly
 		secondAfterBody(coreService, methodId, sensorTypeId, object, parameters, null, false, rsc);
@@ -2,10 +2,16 @@ package rocks.inspectit.agent.java.sensor.method.timer;
 
 import java.lang.management.ManagementFactory;
 import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 
 import rocks.inspectit.agent.java.config.IPropertyAccessor;
+import rocks.inspectit.agent.java.core.ICoreService;
 import rocks.inspectit.agent.java.core.IPlatformManager;
 import rocks.inspectit.agent.java.hooking.IHook;
 import rocks.inspectit.agent.java.sensor.method.AbstractMethodSensor;
@@ -20,6 +26,17 @@ import rocks.inspectit.agent.java.util.Timer;
  */
 public class TimerSensor extends AbstractMethodSensor implements IMethodSensor {
 
+	/**
+	 * The logger of this class. Initialized manually.
+	 */
+	private static final Logger LOG = LoggerFactory.getLogger(TimerSensor.class);
+
+	/**
+	 * Parameter defining the aggregation interval in milliseconds. If not set or not positive, no
+	 * aggregation is done.
+	 */
+	private static final String AGGREGATION_INTERVAL_PARAMETER = "aggregationInterval";
+
 	/**
 	 * The timer used for accurate measuring.
 	 */
@@ -38,6 +55,19 @@ public class TimerSensor extends AbstractMethodSensor implements IMethodSensor {
 	@Autowired
 	private IPropertyAccessor propertyAccessor;
 
+	/**
+	 * Core service to pass aggregated data to.
+	 */
+	@Autowired
+	private ICoreService coreService;
+
+	/**
+	 * Executor service for periodic flushing of the aggregated data.
+	 */
+	@Autowired
+	@Qualifier("coreServiceExecutorService")
+	private ScheduledExecutorService executorService;
+
 	/**
 	 * The used timer hook.
 	 */
@@ -65,6 +95,16 @@ public class TimerSensor extends AbstractMethodSensor implements IMethodSensor {
 		this.propertyAccessor = propertyAccessor;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Timer hook reads the parameters only via the property accessors.
+	 */
+	@Override
+	public boolean isParameterAccess() {
+		return false;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -78,7 +118,34 @@ public class TimerSensor extends AbstractMethodSensor implements IMethodSensor {
 	 */
 	@Override
 	public void initHook(Map<String, Object> parameter) {
-		timerHook = new TimerHook(timer, platformManager, propertyAccessor, parameter, ManagementFactory.getThreadMXBean());
+		TimerDataAggregator timerDataAggregator = null;
+		long aggregationInterval = getAggregationInterval(parameter);
+		if (aggregationInterval > 0) {
+			timerDataAggregator = new TimerDataAggregator(coreService);
+			executorService.scheduleAtFixedRate(timerDataAggregator, aggregationInterval, aggregationInterval, TimeUnit.MILLISECONDS);
+		}
+
+		timerHook = new TimerHook(timer, platformManager, propertyAccessor, parameter, ManagementFactory.getThreadMXBean(), timerDataAggregator);
+	}
+
+	/**
+	 * Reads the aggregation interval from the sensor parameters.
+	 *
+	 * @param parameter
+	 *            Sensor parameters.
+	 * @return Aggregation interval in milliseconds or <code>0</code> if aggregation should not be
+	 *         active.
+	 */
+	private long getAggregationInterval(Map<String, Object> parameter) {
+		Object value = parameter.get(AGGREGATION_INTERVAL_PARAMETER);
+		if (null != value) {
+			try {
+				return Long.parseLong(value.toString());
+			} catch (NumberFormatException e) {
+				LOG.warn("Property '" + AGGREGATION_INTERVAL_PARAMETER + "' is not defined correctly. Timer data will not be aggregated.");
+			}
+		}
+		return 0;
 	}
 
 }
@@ -1,9 +1,12 @@
 package rocks.inspectit.agent.java.spring;
 
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,6 +35,7 @@ import rocks.inspectit.agent.java.util.AgentAwareThread;
 import rocks.inspectit.shared.all.instrumentation.config.impl.AbstractSensorTypeConfig;
 import rocks.inspectit.shared.all.instrumentation.config.impl.JmxSensorTypeConfig;
 import rocks.inspectit.shared.all.kryonet.Client;
+import rocks.inspectit.shared.all.kryonet.CompressionMode;
 import rocks.inspectit.shared.all.kryonet.ExtendedSerializationImpl;
 import rocks.inspectit.shared.all.kryonet.IExtendedSerialization;
 
@@ -45,6 +49,16 @@ import rocks.inspectit.shared.all.kryonet.IExtendedSerialization;
 @ComponentScan("rocks.inspectit")
 public class SpringConfiguration implements BeanDefinitionRegistryPostProcessor {
 
+	/**
+	 * Serialized size in bytes starting from which the data sent to the CMR is compressed.
+	 */
+	private static final int COMPRESSION_THRESHOLD = 1024;
+
+	/**
+	 * Max amount of beacons waiting for the asynchronous processing.
+	 */
+	private static final int EUM_BEACON_QUEUE_CAPACITY = 1024;
+
 	/**
 	 * Registry to add bean definitions to.
 	 */
@@ -126,7 +140,32 @@ public class SpringConfiguration implements BeanDefinitionRegistryPostProcessor
 	}
 
 	/**
-	 * Creates the client bean.
+	 * Executor for the asynchronous processing of the EUM beacons. Uses a single thread that is
+	 * started only with the first beacon and a bounded queue, so that submitting is rejected when
+	 * the queue is full.
+	 *
+	 * @param threadTransformHelper
+	 *            {@link IThreadTransformHelper}
+	 * @return Returns eumBeaconExecutorService
+	 */
+	@Bean(name = "eumBeaconExecutorService")
+	@Scope(BeanDefinition.SCOPE_SINGLETON)
+	@Autowired
+	public ExecutorService getEumBeaconExecutorService(final IThreadTransformHelper threadTransformHelper) {
+		ThreadFactory inspectitThreadFactory = new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				return new AgentAwareThread(r, threadTransformHelper);
+			}
+		};
+
+		ThreadFactory threadFactory = new ThreadFactoryBuilder().setThreadFactory(inspectitThreadFactory).setNameFormat("inspectit-eum-beacon-executor-service-thread-%d").setDaemon(true).build();
+		return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(EUM_BEACON_QUEUE_CAPACITY), threadFactory);
+	}
+
+	/**
+	 * Creates the client bean. The client requests deflate compression for the objects bigger than
+	 * {@value #COMPRESSION_THRESHOLD} bytes.
 	 *
 	 * @param prototypesProvider
 	 *            {@link PrototypesProvider} (autowired)
@@ -139,7 +178,9 @@ public class SpringConfiguration implements BeanDefinitionRegistryPostProcessor
 	@Autowired
 	public Client getClient(PrototypesProvider prototypesProvider, IThreadTransformHelper threadTransformHelper) {
 		IExtendedSerialization serialization = new ExtendedSerializationImpl(prototypesProvider);
-		return new AgentAwareClient(serialization, prototypesProvider, threadTransformHelper);
+		Client client = new AgentAwareClient(serialization, prototypesProvider, threadTransformHelper);
+		client.setCompression(CompressionMode.DEFLATE, COMPRESSION_THRESHOLD);
+		return client;
 	}
 
 	/**
@@ -63,7 +63,7 @@ public class ClientInterceptor {
 			return null;
 		}
 
-		// set no reporting as we will do it ourselves in case on sync requests
+		// set no reporting, in case of sync requests the hook sets its own reporter to the span
 		builder.doNotReport();
 
 		// start
@@ -0,0 +1,72 @@
+package rocks.inspectit.agent.java.tracing.core;
+
+import rocks.inspectit.agent.java.core.ICoreService;
+import rocks.inspectit.agent.java.sdk.opentracing.Reporter;
+import rocks.inspectit.agent.java.sdk.opentracing.internal.impl.SpanImpl;
+import rocks.inspectit.agent.java.tracing.core.transformer.SpanTransformer;
+import rocks.inspectit.shared.all.tracing.data.AbstractSpan;
+
+/**
+ * Tracing reporter for the spans created by the remote sensor hooks. Sends the span to the
+ * {@link ICoreService} together with the method and sensor type of the hook that created it. Hooks
+ * set it to the span with {@link SpanImpl#reportTo(Reporter)} before finishing the span, so that the
+ * span is reported by the tracer only if the sampling decisions allow it.
+ *
+ * @author agent
+ *
+ */
+public class SensorSpanReporter implements Reporter {
+
+	/**
+	 * {@link ICoreService} to send the span to.
+	 */
+	private final ICoreService coreService;
+
+	/**
+	 * Platform id.
+	 */
+	private final long platformId;
+
+	/**
+	 * Method id of the instrumented method.
+	 */
+	private final long methodId;
+
+	/**
+	 * Sensor type id of the sensor that created the span.
+	 */
+	private final long sensorTypeId;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param coreService
+	 *            {@link ICoreService} to send the span to.
+	 * @param platformId
+	 *            Platform id.
+	 * @param methodId
+	 *            Method id of the instrumented method.
+	 * @param sensorTypeId
+	 *            Sensor type id of the sensor that created the span.
+	 */
+	public SensorSpanReporter(ICoreService coreService, long platformId, long methodId, long sensorTypeId) {
+		this.coreService = coreService;
+		this.platformId = platformId;
+		this.methodId = methodId;
+		this.sensorTypeId = sensorTypeId;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void report(SpanImpl span) {
+		AbstractSpan transformedSpan = SpanTransformer.transformSpan(span);
+		transformedSpan.setPlatformIdent(platformId);
+		transformedSpan.setMethodIdent(methodId);
+		transformedSpan.setSensorTypeIdent(sensorTypeId);
+
+		coreService.addDefaultData(transformedSpan);
+	}
+
+}
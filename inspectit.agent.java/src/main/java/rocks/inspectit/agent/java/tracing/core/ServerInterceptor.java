@@ -73,7 +73,7 @@ public class ServerInterceptor {
 		// set as server
 		builder.withTag(Tags.SPAN_KIND.getKey(), Tags.SPAN_KIND_SERVER);
 
-		// set no reporting as we will do it ourselves
+		// set no reporting, the hook sets its own reporter to the span
 		builder.doNotReport();
 
 		// set propagation type
@@ -0,0 +1,107 @@
+package rocks.inspectit.agent.java.util;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * The ThreadLocalDoubleStack class is the primitive counterpart of the {@link ThreadLocalStack}
+ * for the <code>double</code> values. Each thread gets its own array backed stack, thus pushing and
+ * popping the values does not box them and does not create any node objects. The stack array grows
+ * when needed, but it never shrinks.
+ *
+ * @author agent
+ *
+ */
+public class ThreadLocalDoubleStack extends ThreadLocal<ThreadLocalDoubleStack.DoubleStack> {
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public DoubleStack initialValue() { // NOPMD
+		return new DoubleStack();
+	}
+
+	/**
+	 * Pushes the specified value onto the stack.
+	 *
+	 * @param value
+	 *            the value to push onto the stack.
+	 */
+	public void push(double value) {
+		super.get().push(value);
+	}
+
+	/**
+	 * Returns the last pushed value.
+	 *
+	 * @return The last pushed value.
+	 * @throws NoSuchElementException
+	 *             If the stack is empty.
+	 */
+	public double pop() throws NoSuchElementException {
+		return super.get().pop();
+	}
+
+	/**
+	 * Simple growable stack of <code>double</code> values. Not thread safe.
+	 *
+	 * @author agent
+	 *
+	 */
+	public static final class DoubleStack {
+
+		/**
+		 * Initial capacity of the stack.
+		 */
+		private static final int INITIAL_CAPACITY = 16;
+
+		/**
+		 * Values on stack.
+		 */
+		private double[] values = new double[INITIAL_CAPACITY];
+
+		/**
+		 * Current size of the stack.
+		 */
+		private int size;
+
+		/**
+		 * Pushes the specified value onto the stack.
+		 *
+		 * @param value
+		 *            the value to push onto the stack.
+		 */
+		public void push(double value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size << 1);
+			}
+			values[size++] = value;
+		}
+
+		/**
+		 * Returns the last pushed value.
+		 *
+		 * @return The last pushed value.
+		 * @throws NoSuchElementException
+		 *             If the stack is empty.
+		 */
+		public double pop() throws NoSuchElementException {
+			if (0 == size) {
+				throw new NoSuchElementException();
+			}
+			return values[--size];
+		}
+
+		/**
+		 * Returns the number of values on the stack.
+		 *
+		 * @return Returns the number of values on the stack.
+		 */
+		public int size() {
+			return size;
+		}
+
+	}
+
+}
@@ -0,0 +1,317 @@
+package rocks.inspectit.agent.java.analyzer.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.slf4j.Logger;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.agent.java.connection.IConnection;
+import rocks.inspectit.agent.java.connection.ServerUnavailableException;
+import rocks.inspectit.agent.java.core.IPlatformManager;
+import rocks.inspectit.agent.java.instrumentation.RetransformManager;
+import rocks.inspectit.agent.java.stats.AgentStatisticsLogger;
+import rocks.inspectit.shared.all.exception.BusinessException;
+import rocks.inspectit.shared.all.exception.enumeration.AgentManagementErrorCodeEnum;
+import rocks.inspectit.shared.all.instrumentation.classcache.Type;
+import rocks.inspectit.shared.all.instrumentation.config.impl.InstrumentationDefinition;
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * Tests the {@link AnalyzeBatchSender} class.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings({ "PMD", "unchecked" })
+public class AnalyzeBatchSenderTest extends TestBase {
+
+	private static final long PLATFORM_ID = 10L;
+
+	@InjectMocks
+	AnalyzeBatchSender sender;
+
+	@Mock
+	Logger log;
+
+	@Mock
+	IPlatformManager platformManager;
+
+	@Mock
+	IConnection connection;
+
+	@Mock
+	ClassHashHelper classHashHelper;
+
+	@Mock
+	RetransformManager retransformManager;
+
+	@Mock
+	AgentStatisticsLogger agentStatisticsLogger;
+
+	@Mock
+	ScheduledExecutorService executorService;
+
+	@Mock
+	Type type;
+
+	@Mock
+	Type otherType;
+
+	@BeforeMethod
+	public void setup() {
+		when(platformManager.getPlatformId()).thenReturn(PLATFORM_ID);
+	}
+
+	public static class PostConstruct extends AnalyzeBatchSenderTest {
+
+		@Test
+		public void scheduled() {
+			sender.postConstruct();
+
+			verify(executorService).scheduleWithFixedDelay(sender, 200L, 200L, TimeUnit.MILLISECONDS);
+			verifyNoMoreInteractions(executorService);
+		}
+	}
+
+	public static class IsActive extends AnalyzeBatchSenderTest {
+
+		@Test
+		public void active() {
+			when(retransformManager.isRetransformationActive()).thenReturn(true);
+
+			assertThat(sender.isActive(), is(true));
+		}
+
+		@Test
+		public void notActive() {
+			when(retransformManager.isRetransformationActive()).thenReturn(false);
+
+			assertThat(sender.isActive(), is(false));
+		}
+	}
+
+	public static class Add extends AnalyzeBatchSenderTest {
+
+		@Test
+		public void queued() {
+			sender.add("class", "hash", type);
+			sender.add("class", "hash", type);
+
+			assertThat(sender.getQueueSize(), is(1));
+			verifyZeroInteractions(executorService, connection);
+		}
+
+		@Test
+		public void fullBatchSendScheduled() {
+			for (int i = 0; i < AnalyzeBatchSender.BATCH_SIZE; i++) {
+				sender.add("class" + i, "hash" + i, type);
+			}
+			sender.add("class", "hash", type);
+
+			assertThat(sender.getQueueSize(), is(AnalyzeBatchSender.BATCH_SIZE + 1));
+			verify(executorService).execute(sender);
+			verifyNoMoreInteractions(executorService);
+		}
+	}
+
+	public static class Run extends AnalyzeBatchSenderTest {
+
+		@Test
+		public void sendAndRetransform() throws Exception {
+			InstrumentationDefinition instrumentationDefinition = mock(InstrumentationDefinition.class);
+			when(instrumentationDefinition.isEmpty()).thenReturn(false);
+			when(connection.isConnected()).thenReturn(true);
+			when(connection.analyzeAll(anyLong(), Matchers.<Map<String, Type>> any())).thenReturn(Collections.singletonMap("hash", instrumentationDefinition));
+			sender.add("class", "hash", type);
+			sender.add("otherClass", "otherHash", otherType);
+
+			sender.run();
+
+			ArgumentCaptor<Map> mapCaptor = ArgumentCaptor.forClass(Map.class);
+			verify(connection).analyzeAll(Matchers.eq(PLATFORM_ID), mapCaptor.capture());
+			assertThat(((Map<String, Type>) mapCaptor.getValue()).keySet(), contains("hash", "otherHash"));
+			verify(classHashHelper).registerSent("class", "hash");
+			verify(classHashHelper).registerInstrumentationDefinition("class", instrumentationDefinition);
+			verify(classHashHelper).registerSent("otherClass", "otherHash");
+			verify(classHashHelper).registerInstrumentationDefinition("otherClass", null);
+			ArgumentCaptor<Collection> retransformCaptor = ArgumentCaptor.forClass(Collection.class);
+			verify(retransformManager).retransform(retransformCaptor.capture());
+			assertThat((Collection<InstrumentationDefinition>) retransformCaptor.getValue(), contains(instrumentationDefinition));
+			assertThat(sender.getQueueSize(), is(0));
+		}
+
+		@Test
+		public void emptyDefinitionNotRetransformed() throws Exception {
+			InstrumentationDefinition instrumentationDefinition = mock(InstrumentationDefinition.class);
+			when(instrumentationDefinition.isEmpty()).thenReturn(true);
+			when(connection.isConnected()).thenReturn(true);
+			when(connection.analyzeAll(anyLong(), Matchers.<Map<String, Type>> any())).thenReturn(Collections.singletonMap("hash", instrumentationDefinition));
+			sender.add("class", "hash", type);
+
+			sender.run();
+
+			verify(classHashHelper).registerSent("class", "hash");
+			ArgumentCaptor<Collection> retransformCaptor = ArgumentCaptor.forClass(Collection.class);
+			verify(retransformManager).retransform(retransformCaptor.capture());
+			assertThat((Collection<InstrumentationDefinition>) retransformCaptor.getValue(), is(empty()));
+		}
+
+		@Test
+		public void nothingToSend() throws Exception {
+			when(connection.isConnected()).thenReturn(true);
+
+			sender.run();
+
+			verify(connection).isConnected();
+			verifyNoMoreInteractions(connection);
+			verifyZeroInteractions(classHashHelper, retransformManager);
+		}
+
+		@Test
+		public void notConnected() throws Exception {
+			when(connection.isConnected()).thenReturn(false);
+			sender.add("class", "hash", type);
+
+			sender.run();
+
+			assertThat(sender.getQueueSize(), is(1));
+			verify(connection).isConnected();
+			verifyNoMoreInteractions(connection);
+			verifyZeroInteractions(classHashHelper, retransformManager);
+		}
+
+		@Test
+		public void serverUnavailableRequeued() throws Exception {
+			when(connection.isConnected()).thenReturn(true);
+			doThrow(ServerUnavailableException.class).when(connection).analyzeAll(anyLong(), Matchers.<Map<String, Type>> any());
+			sender.add("class", "hash", type);
+
+			sender.run();
+
+			assertThat(sender.getQueueSize(), is(1));
+			verifyZeroInteractions(classHashHelper, retransformManager);
+		}
+
+		@Test
+		public void noClassCache() throws Exception {
+			when(connection.isConnected()).thenReturn(true);
+			doThrow(new BusinessException("Analyze", AgentManagementErrorCodeEnum.AGENT_DOES_NOT_EXIST)).when(connection).analyzeAll(anyLong(), Matchers.<Map<String, Type>> any());
+			sender.add("class", "hash", type);
+
+			sender.run();
+
+			assertThat(sender.getQueueSize(), is(1));
+			verify(agentStatisticsLogger).noClassCacheAvailable();
+			verify(retransformManager, never()).retransform(Matchers.<Collection<InstrumentationDefinition>> any());
+			verifyZeroInteractions(classHashHelper);
+		}
+
+		@Test
+		public void serverTimeoutHalvesBatch() throws Exception {
+			when(connection.isConnected()).thenReturn(true);
+			doThrow(new ServerUnavailableException(true)).when(connection).analyzeAll(anyLong(), Matchers.<Map<String, Type>> any());
+			for (int i = 0; i < AnalyzeBatchSender.BATCH_SIZE; i++) {
+				sender.add("class" + i, "hash" + i, type);
+			}
+
+			sender.run();
+			sender.run();
+
+			assertThat(sender.getQueueSize(), is(AnalyzeBatchSender.BATCH_SIZE));
+			assertThat(sender.getBatchSize(), is(AnalyzeBatchSender.BATCH_SIZE / 4));
+			ArgumentCaptor<Map> mapCaptor = ArgumentCaptor.forClass(Map.class);
+			verify(connection, times(2)).analyzeAll(Matchers.eq(PLATFORM_ID), mapCaptor.capture());
+			assertThat(mapCaptor.getAllValues().get(1).size(), is(AnalyzeBatchSender.BATCH_SIZE / 2));
+			verifyZeroInteractions(classHashHelper, retransformManager);
+		}
+
+		@Test
+		public void serverErrorKeepsBatchSize() throws Exception {
+			when(connection.isConnected()).thenReturn(true);
+			doThrow(new ServerUnavailableException(false)).when(connection).analyzeAll(anyLong(), Matchers.<Map<String, Type>> any());
+			sender.add("class", "hash", type);
+
+			sender.run();
+
+			assertThat(sender.getBatchSize(), is(AnalyzeBatchSender.BATCH_SIZE));
+		}
+
+		@Test
+		public void batchSizeIncreasedAfterSuccess() throws Exception {
+			when(connection.isConnected()).thenReturn(true);
+			doThrow(new ServerUnavailableException(true)).when(connection).analyzeAll(anyLong(), Matchers.<Map<String, Type>> any());
+			sender.add("class", "hash", type);
+			sender.run();
+			assertThat(sender.getBatchSize(), is(1));
+			doReturn(Collections.emptyMap()).when(connection).analyzeAll(anyLong(), Matchers.<Map<String, Type>> any());
+
+			sender.run();
+
+			assertThat(sender.getQueueSize(), is(0));
+			assertThat(sender.getBatchSize() > 1, is(true));
+			verify(classHashHelper).registerSent("class", "hash");
+		}
+
+		@Test
+		public void businessExceptionSentOneByOne() throws Exception {
+			InstrumentationDefinition instrumentationDefinition = mock(InstrumentationDefinition.class);
+			when(connection.isConnected()).thenReturn(true);
+			doThrow(new BusinessException("Analyze", AgentManagementErrorCodeEnum.MORE_THAN_ONE_AGENT_REGISTERED)).when(connection).analyzeAll(anyLong(), Matchers.<Map<String, Type>> any());
+			doThrow(new BusinessException("Analyze", AgentManagementErrorCodeEnum.MORE_THAN_ONE_AGENT_REGISTERED)).when(connection).analyze(PLATFORM_ID, "hash", type);
+			when(connection.analyze(PLATFORM_ID, "otherHash", otherType)).thenReturn(instrumentationDefinition);
+			sender.add("class", "hash", type);
+			sender.add("otherClass", "otherHash", otherType);
+
+			sender.run();
+
+			assertThat(sender.getQueueSize(), is(0));
+			verify(classHashHelper, never()).registerSent("class", "hash");
+			verify(classHashHelper).registerSent("otherClass", "otherHash");
+			verify(classHashHelper).registerInstrumentationDefinition("otherClass", instrumentationDefinition);
+			ArgumentCaptor<Collection> retransformCaptor = ArgumentCaptor.forClass(Collection.class);
+			verify(retransformManager).retransform(retransformCaptor.capture());
+			assertThat((Collection<InstrumentationDefinition>) retransformCaptor.getValue(), contains(instrumentationDefinition));
+		}
+
+		@Test
+		public void oneByOneServerUnavailableRequeued() throws Exception {
+			when(connection.isConnected()).thenReturn(true);
+			doThrow(new BusinessException("Analyze", AgentManagementErrorCodeEnum.MORE_THAN_ONE_AGENT_REGISTERED)).when(connection).analyzeAll(anyLong(), Matchers.<Map<String, Type>> any());
+			when(connection.analyze(PLATFORM_ID, "hash", type)).thenReturn(null);
+			doThrow(new ServerUnavailableException(false)).when(connection).analyze(PLATFORM_ID, "otherHash", otherType);
+			sender.add("class", "hash", type);
+			sender.add("otherClass", "otherHash", otherType);
+
+			sender.run();
+
+			assertThat(sender.getQueueSize(), is(1));
+			verify(classHashHelper).registerSent("class", "hash");
+			verify(classHashHelper, never()).registerSent("otherClass", "otherHash");
+		}
+	}
+
+}
@@ -107,6 +107,9 @@ public class ByteCodeAnalyzerTest extends TestBase {
 	@Mock
 	ClassHashHelper classHashHelper;
 
+	@Mock
+	AnalyzeBatchSender analyzeBatchSender;
+
 	@Mock
 	InstrumenterFactory instrumenterFactory;
 
@@ -460,6 +463,36 @@ public class ByteCodeAnalyzerTest extends TestBase {
 			verifyNoMoreInteractions(connection, classHashHelper);
 		}
 
+		@Test
+		public void asyncAnalyze() throws Exception {
+			String className = TestClass.class.getName();
+			ClassLoader classLoader = TestClass.class.getClassLoader();
+			byte[] byteCode = getByteCode(className);
+
+			ArgumentCaptor<String> fqnCaptor = ArgumentCaptor.forClass(String.class);
+			ArgumentCaptor<String> hashCaptor = ArgumentCaptor.forClass(String.class);
+			ArgumentCaptor<ClassType> classCaptor = ArgumentCaptor.forClass(ClassType.class);
+			when(classHashHelper.isSent(fqnCaptor.capture(), hashCaptor.capture())).thenReturn(false);
+			when(classHashHelper.isAnalyzed(anyString())).thenReturn(true);
+			when(connection.isConnected()).thenReturn(true);
+			when(analyzeBatchSender.isActive()).thenReturn(true);
+
+			byte[] instrumentedByteCode = byteCodeAnalyzer.analyzeAndInstrument(byteCode, className, classLoader);
+
+			// class is loaded without waiting for the server
+			assertThat(instrumentedByteCode, is(nullValue()));
+
+			verify(analyzeBatchSender).isActive();
+			verify(analyzeBatchSender).add(eq(className), eq(hashCaptor.getValue()), classCaptor.capture());
+			assertThat(classCaptor.getValue().getFQN(), is(className));
+			verify(connection, times(1)).isConnected();
+			verify(classHashHelper, atLeastOnce()).isAnalyzed(anyString());
+			verify(classHashHelper, times(1)).isSent(fqnCaptor.getValue(), hashCaptor.getValue());
+			verify(classHashHelper, times(1)).registerAnalyzed(fqnCaptor.getValue());
+			verifyZeroInteractions(hookDispatcherMapper, executorService);
+			verifyNoMoreInteractions(connection, classHashHelper, analyzeBatchSender);
+		}
+
 		@Test
 		public void noInstrumentationConnectionOffline() throws Exception {
 			String className = TestClass.class.getName();
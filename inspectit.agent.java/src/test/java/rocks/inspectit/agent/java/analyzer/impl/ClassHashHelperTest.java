@@ -31,6 +31,7 @@ import com.esotericsoftware.kryo.io.Input;
 import rocks.inspectit.agent.java.config.IConfigurationStorage;
 import rocks.inspectit.agent.java.io.FileResolver;
 import rocks.inspectit.agent.java.spring.PrototypesProvider;
+import rocks.inspectit.shared.all.instrumentation.classcache.util.ClassHashDigest;
 import rocks.inspectit.shared.all.instrumentation.config.impl.InstrumentationDefinition;
 import rocks.inspectit.shared.all.serializer.SerializationException;
 import rocks.inspectit.shared.all.serializer.impl.SerializationManager;
@@ -140,6 +141,41 @@ public class ClassHashHelperTest extends TestBase {
 			assertThat(helper.isEmpty(), is(false));
 		}
 
+		@Test
+		public void cacheFileExistsDigestMatches() throws Exception {
+			ClassHashDigest digest = new ClassHashDigest();
+			digest.add("hash");
+			when(configurationStorage.isClassCacheExistsOnCmr()).thenReturn(true);
+			when(configurationStorage.getClassCacheDigest()).thenReturn(digest.getValue());
+			new File(TEST_CACHE_FILE).createNewFile();
+			Object javaRuntimeVersion = UnderlyingSystemInfo.JAVA_RUNTIME_VERSION;
+			Object hashes = Collections.singletonMap("fqn", Collections.singleton("hash"));
+			when(serializationManager.deserialize(Matchers.<Input> any())).thenReturn(javaRuntimeVersion).thenReturn(hashes);
+
+			helper.afterPropertiesSet();
+
+			assertThat(helper.isEmpty(), is(false));
+			assertThat(new File(TEST_CACHE_FILE).exists(), is(true));
+		}
+
+		@Test
+		public void cacheFileExistsDigestDiffers() throws Exception {
+			ClassHashDigest digest = new ClassHashDigest();
+			digest.add("hash");
+			digest.add("otherHash");
+			when(configurationStorage.isClassCacheExistsOnCmr()).thenReturn(true);
+			when(configurationStorage.getClassCacheDigest()).thenReturn(digest.getValue());
+			new File(TEST_CACHE_FILE).createNewFile();
+			Object javaRuntimeVersion = UnderlyingSystemInfo.JAVA_RUNTIME_VERSION;
+			Object hashes = Collections.singletonMap("fqn", Collections.singleton("hash"));
+			when(serializationManager.deserialize(Matchers.<Input> any())).thenReturn(javaRuntimeVersion).thenReturn(hashes);
+
+			helper.afterPropertiesSet();
+
+			assertThat(helper.isEmpty(), is(true));
+			assertThat(new File(TEST_CACHE_FILE).exists(), is(false));
+		}
+
 		@Test
 		public void cacheFileExistsException() throws Exception {
 			when(configurationStorage.isClassCacheExistsOnCmr()).thenReturn(true);
@@ -8,6 +8,8 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import java.net.ConnectException;
+import java.util.Collections;
+import java.util.Map;
 
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -15,6 +17,7 @@ import org.slf4j.Logger;
 import org.testng.annotations.Test;
 
 import rocks.inspectit.agent.java.connection.IConnection;
+import rocks.inspectit.agent.java.core.IDataSampler;
 import rocks.inspectit.agent.java.core.IPlatformManager;
 import rocks.inspectit.shared.all.testbase.TestBase;
 
@@ -34,6 +37,9 @@ public class KeepAliveManagerTest extends TestBase {
 	@Mock
 	IPlatformManager platformManager;
 
+	@Mock
+	IDataSampler dataSampler;
+
 	@Mock
 	Logger log;
 
@@ -53,6 +59,21 @@ public class KeepAliveManagerTest extends TestBase {
 			verifyNoMoreInteractions(connection);
 		}
 
+		@Test
+		public void connectedSamplingRates() throws Exception {
+			Map<Long, Double> samplingRates = Collections.singletonMap(2L, 0.25d);
+			when(connection.isConnected()).thenReturn(true);
+			when(platformManager.getPlatformId()).thenReturn(PLATFORM_ID);
+			when(dataSampler.getSamplingRates()).thenReturn(samplingRates);
+
+			manager.sendKeepAlive();
+
+			verify(connection).isConnected();
+			verify(connection).sendKeepAlive(PLATFORM_ID);
+			verify(connection).sendSamplingRates(PLATFORM_ID, samplingRates);
+			verifyNoMoreInteractions(connection);
+		}
+
 		@Test
 		public void connectedThenDisconnected() throws Exception {
 			when(connection.isConnected()).thenReturn(true).thenReturn(false);
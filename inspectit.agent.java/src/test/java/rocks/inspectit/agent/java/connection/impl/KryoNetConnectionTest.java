@@ -1,6 +1,7 @@
 package rocks.inspectit.agent.java.connection.impl;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Matchers.anyInt;
@@ -8,6 +9,7 @@ import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
@@ -29,6 +31,8 @@ import java.util.Map;
 import org.mockito.InjectMocks;
 import org.mockito.Matchers;
 import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.slf4j.Logger;
 import org.testng.annotations.Test;
 
@@ -40,6 +44,7 @@ import rocks.inspectit.shared.all.cmr.service.IAgentService;
 import rocks.inspectit.shared.all.cmr.service.IAgentStorageService;
 import rocks.inspectit.shared.all.cmr.service.IKeepAliveService;
 import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.SqlStatementData;
 import rocks.inspectit.shared.all.communication.data.TimerData;
 import rocks.inspectit.shared.all.communication.message.IAgentMessage;
 import rocks.inspectit.shared.all.exception.BusinessException;
@@ -215,6 +220,36 @@ public class KryoNetConnectionTest extends TestBase {
 		}
 	}
 
+	public static class SendSamplingRates extends KryoNetConnectionTest {
+
+		@Test
+		public void samplingRates() throws Exception {
+			when(client.isConnected()).thenReturn(true);
+			long id = 3L;
+			Map<Long, Double> samplingRates = Collections.singletonMap(1L, 0.5d);
+
+			connection.sendSamplingRates(id, samplingRates);
+
+			verify(keepAliveService, times(1)).sendSamplingRates(id, samplingRates);
+			verifyNoMoreInteractions(keepAliveService);
+		}
+
+		@Test(expectedExceptions = { ServerUnavailableException.class })
+		public void notConnected() throws Exception {
+			when(client.isConnected()).thenReturn(false);
+			long id = 3L;
+
+			try {
+				connection.sendSamplingRates(id, Collections.<Long, Double> emptyMap());
+			} catch (ServerUnavailableException e) {
+				assertThat(e.isServerTimeout(), is(false));
+				throw e;
+			} finally {
+				verifyZeroInteractions(keepAliveService);
+			}
+		}
+	}
+
 	public static class SendData extends KryoNetConnectionTest {
 
 		@Test
@@ -229,6 +264,92 @@ public class KryoNetConnectionTest extends TestBase {
 			verifyNoMoreInteractions(agentStorageService);
 		}
 
+		@Test
+		public void sqlStatementRegisteredOnce() throws Exception {
+			when(client.isConnected()).thenReturn(true);
+			final SqlStatementData sqlStatementData = new SqlStatementData();
+			sqlStatementData.setPlatformIdent(1L);
+			sqlStatementData.setSql("sql");
+			final List<String> sentSql = new ArrayList<String>();
+			final List<Integer> sentSqlIds = new ArrayList<Integer>();
+			doAnswer(new Answer<Void>() {
+				@Override
+				public Void answer(InvocationOnMock invocation) throws Throwable {
+					sentSql.add(sqlStatementData.getSql());
+					sentSqlIds.add(sqlStatementData.getSqlId());
+					return null;
+				}
+			}).when(agentStorageService).addDataObjects(Matchers.<List<? extends DefaultData>> any());
+			List<DefaultData> measurements = new ArrayList<DefaultData>();
+			measurements.add(sqlStatementData);
+
+			connection.sendDataObjects(measurements);
+			connection.sendDataObjects(measurements);
+
+			verify(agentService, times(1)).registerSqlStatements(1L, Collections.singletonMap(1, "sql"));
+			verifyNoMoreInteractions(agentService);
+			verify(agentStorageService, times(2)).addDataObjects(measurements);
+			assertThat(sentSql, contains((String) null, (String) null));
+			assertThat(sentSqlIds, contains(1, 1));
+			assertThat(sqlStatementData.getSql(), is("sql"));
+			assertThat(sqlStatementData.getSqlId(), is(0));
+		}
+
+		@Test
+		public void sqlStatementRegisteredAfterReconnect() throws Exception {
+			when(client.isConnected()).thenReturn(true);
+			SqlStatementData sqlStatementData = new SqlStatementData();
+			sqlStatementData.setPlatformIdent(1L);
+			sqlStatementData.setSql("sql");
+			List<DefaultData> measurements = new ArrayList<DefaultData>();
+			measurements.add(sqlStatementData);
+
+			connection.sendDataObjects(measurements);
+			// not connected until reconnected, services are not bound again
+			when(client.isConnected()).thenReturn(false, false, false, true);
+			connection.reconnect();
+			connection.sendDataObjects(measurements);
+
+			verify(agentService, times(2)).registerSqlStatements(1L, Collections.singletonMap(1, "sql"));
+		}
+
+		@Test(expectedExceptions = { ServerUnavailableException.class })
+		public void sqlStatementRestoredOnFailure() throws Exception {
+			when(client.isConnected()).thenReturn(true);
+			doThrow(RuntimeException.class).when(agentStorageService).addDataObjects(Matchers.<List<? extends DefaultData>> any());
+			SqlStatementData sqlStatementData = new SqlStatementData();
+			sqlStatementData.setPlatformIdent(1L);
+			sqlStatementData.setSql("sql");
+			List<DefaultData> measurements = new ArrayList<DefaultData>();
+			measurements.add(sqlStatementData);
+
+			try {
+				connection.sendDataObjects(measurements);
+			} finally {
+				assertThat(sqlStatementData.getSql(), is("sql"));
+				assertThat(sqlStatementData.getSqlId(), is(0));
+			}
+		}
+
+		@Test(expectedExceptions = { ServerUnavailableException.class })
+		public void sqlStatementRegistrationFailed() throws Exception {
+			when(client.isConnected()).thenReturn(true);
+			doThrow(RuntimeException.class).when(agentService).registerSqlStatements(anyLong(), Matchers.<Map<Integer, String>> any());
+			SqlStatementData sqlStatementData = new SqlStatementData();
+			sqlStatementData.setPlatformIdent(1L);
+			sqlStatementData.setSql("sql");
+			List<DefaultData> measurements = new ArrayList<DefaultData>();
+			measurements.add(sqlStatementData);
+
+			try {
+				connection.sendDataObjects(measurements);
+			} finally {
+				verifyZeroInteractions(agentStorageService);
+				verify(client).close();
+				assertThat(sqlStatementData.getSql(), is("sql"));
+			}
+		}
+
 		@Test(expectedExceptions = { ServerUnavailableException.class })
 		public void timeout() throws Exception {
 			when(client.isConnected()).thenReturn(true);
@@ -542,6 +663,72 @@ public class KryoNetConnectionTest extends TestBase {
 		}
 	}
 
+	public static class AnalyzeAll extends KryoNetConnectionTest {
+
+		@Test
+		public void analyzeAll() throws Exception {
+			Map<String, InstrumentationDefinition> result = mock(Map.class);
+			when(client.isConnected()).thenReturn(true);
+			doReturn(result).when(agentService).analyzeAll(anyLong(), Matchers.<Map<String, Type>> any());
+			long id = 7;
+			Map<String, Type> hashAndTypes = Collections.singletonMap("hash", mock(Type.class));
+
+			Map<String, InstrumentationDefinition> receivedResult = connection.analyzeAll(id, hashAndTypes);
+			assertThat(receivedResult, is(result));
+
+			verify(agentService, times(1)).analyzeAll(id, hashAndTypes);
+			verifyNoMoreInteractions(agentService);
+		}
+
+		@Test(expectedExceptions = { ServerUnavailableException.class })
+		public void remoteException() throws Exception {
+			when(client.isConnected()).thenReturn(true);
+			doThrow(RuntimeException.class).when(agentService).analyzeAll(anyLong(), Matchers.<Map<String, Type>> any());
+			long id = 7;
+			Map<String, Type> hashAndTypes = Collections.singletonMap("hash", mock(Type.class));
+
+			try {
+				connection.analyzeAll(id, hashAndTypes);
+			} catch (ServerUnavailableException e) {
+				assertThat(e.isServerTimeout(), is(false));
+				throw e;
+			} finally {
+				// fail fast call, only one attempt
+				verify(agentService, times(1)).analyzeAll(id, hashAndTypes);
+				verifyNoMoreInteractions(agentService);
+				verify(client).close();
+			}
+		}
+
+		@Test(expectedExceptions = { BusinessException.class })
+		public void businessException() throws Exception {
+			when(client.isConnected()).thenReturn(true);
+			doThrow(BusinessException.class).when(agentService).analyzeAll(anyLong(), Matchers.<Map<String, Type>> any());
+			long id = 7;
+			Map<String, Type> hashAndTypes = Collections.singletonMap("hash", mock(Type.class));
+
+			try {
+				connection.analyzeAll(id, hashAndTypes);
+			} finally {
+				verify(agentService, times(1)).analyzeAll(id, hashAndTypes);
+				verifyNoMoreInteractions(agentService);
+			}
+		}
+
+		@Test(expectedExceptions = { ServerUnavailableException.class })
+		public void notConnected() throws Exception {
+			when(client.isConnected()).thenReturn(false);
+			long id = 7;
+			Map<String, Type> hashAndTypes = Collections.singletonMap("hash", mock(Type.class));
+
+			try {
+				connection.analyzeAll(id, hashAndTypes);
+			} finally {
+				verifyZeroInteractions(agentService);
+			}
+		}
+	}
+
 	public static class AnalyzeJmxAttributes extends KryoNetConnectionTest {
 
 		@Test
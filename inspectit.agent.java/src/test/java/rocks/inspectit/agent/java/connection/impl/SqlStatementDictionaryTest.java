@@ -0,0 +1,181 @@
+package rocks.inspectit.agent.java.connection.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.mockito.InjectMocks;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+import rocks.inspectit.shared.all.communication.data.SqlStatementData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * Tests the {@link SqlStatementDictionary} class.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class SqlStatementDictionaryTest extends TestBase {
+
+	private static final long PLATFORM_ID = 1L;
+
+	private static final String SQL = "SELECT * FROM table";
+
+	@InjectMocks
+	SqlStatementDictionary dictionary;
+
+	/**
+	 * Creates SQL data with the given SQL string.
+	 */
+	SqlStatementData createSqlData(String sql) {
+		SqlStatementData sqlStatementData = new SqlStatementData();
+		sqlStatementData.setPlatformIdent(PLATFORM_ID);
+		sqlStatementData.setSql(sql);
+		return sqlStatementData;
+	}
+
+	public static class Collect extends SqlStatementDictionaryTest {
+
+		@Test
+		public void sqlAndInvocations() {
+			SqlStatementData sqlStatementData = createSqlData(SQL);
+			SqlStatementData nestedSqlStatementData = createSqlData(SQL);
+			InvocationSequenceData invocation = new InvocationSequenceData();
+			InvocationSequenceData child = new InvocationSequenceData();
+			child.setSqlStatementData(nestedSqlStatementData);
+			invocation.getNestedSequences().add(child);
+			List<DefaultData> dataObjects = new ArrayList<DefaultData>();
+			dataObjects.add(sqlStatementData);
+			dataObjects.add(new TimerData());
+			dataObjects.add(invocation);
+			dataObjects.add(createSqlData(null));
+
+			List<SqlStatementData> collected = SqlStatementDictionary.collect(dataObjects);
+
+			assertThat(collected, contains(sqlStatementData, nestedSqlStatementData));
+		}
+	}
+
+	public static class GetUnregistered extends SqlStatementDictionaryTest {
+
+		@Test
+		public void newStatement() {
+			List<SqlStatementData> sqlStatements = Collections.singletonList(createSqlData(SQL));
+
+			Map<Integer, String> unregistered = dictionary.getUnregistered(PLATFORM_ID, sqlStatements);
+
+			assertThat(unregistered.size(), is(1));
+			assertThat(unregistered, hasEntry(1, SQL));
+			assertThat(dictionary.size(), is(1));
+		}
+
+		@Test
+		public void registered() {
+			List<SqlStatementData> sqlStatements = Collections.singletonList(createSqlData(SQL));
+			dictionary.markRegistered(PLATFORM_ID, dictionary.getUnregistered(PLATFORM_ID, sqlStatements).keySet());
+
+			Map<Integer, String> unregistered = dictionary.getUnregistered(PLATFORM_ID, sqlStatements);
+
+			assertThat(unregistered.isEmpty(), is(true));
+		}
+
+		@Test
+		public void registeredForOtherPlatform() {
+			List<SqlStatementData> sqlStatements = Collections.singletonList(createSqlData(SQL));
+			dictionary.markRegistered(2L, dictionary.getUnregistered(PLATFORM_ID, sqlStatements).keySet());
+
+			Map<Integer, String> unregistered = dictionary.getUnregistered(PLATFORM_ID, sqlStatements);
+
+			assertThat(unregistered, hasEntry(1, SQL));
+		}
+
+		@Test
+		public void reset() {
+			List<SqlStatementData> sqlStatements = Collections.singletonList(createSqlData(SQL));
+			dictionary.markRegistered(PLATFORM_ID, dictionary.getUnregistered(PLATFORM_ID, sqlStatements).keySet());
+
+			dictionary.reset();
+			Map<Integer, String> unregistered = dictionary.getUnregistered(PLATFORM_ID, sqlStatements);
+
+			// same id after reset
+			assertThat(unregistered.size(), is(1));
+			assertThat(unregistered, hasEntry(1, SQL));
+		}
+
+		@Test
+		public void dictionaryFull() {
+			List<SqlStatementData> sqlStatements = new ArrayList<SqlStatementData>();
+			for (int i = 0; i <= SqlStatementDictionary.MAX_STATEMENTS; i++) {
+				sqlStatements.add(createSqlData(SQL + i));
+			}
+
+			Map<Integer, String> unregistered = dictionary.getUnregistered(PLATFORM_ID, sqlStatements);
+
+			assertThat(unregistered.size(), is(SqlStatementDictionary.MAX_STATEMENTS));
+			assertThat(dictionary.size(), is(SqlStatementDictionary.MAX_STATEMENTS));
+		}
+	}
+
+	public static class EncodeDecode extends SqlStatementDictionaryTest {
+
+		@Test
+		public void registeredEncoded() {
+			SqlStatementData sqlStatementData = createSqlData(SQL);
+			List<SqlStatementData> sqlStatements = Collections.singletonList(sqlStatementData);
+			dictionary.markRegistered(PLATFORM_ID, dictionary.getUnregistered(PLATFORM_ID, sqlStatements).keySet());
+
+			List<SqlStatementData> encoded = dictionary.encode(PLATFORM_ID, sqlStatements);
+
+			assertThat(encoded, contains(sqlStatementData));
+			assertThat(sqlStatementData.getSql(), is(nullValue()));
+			assertThat(sqlStatementData.getSqlId(), is(1));
+
+			dictionary.decode(encoded);
+
+			assertThat(sqlStatementData.getSql(), is(SQL));
+			assertThat(sqlStatementData.getSqlId(), is(0));
+		}
+
+		@Test
+		public void notRegisteredNotEncoded() {
+			SqlStatementData sqlStatementData = createSqlData(SQL);
+			List<SqlStatementData> sqlStatements = Collections.singletonList(sqlStatementData);
+			dictionary.getUnregistered(PLATFORM_ID, sqlStatements);
+
+			List<SqlStatementData> encoded = dictionary.encode(PLATFORM_ID, sqlStatements);
+
+			assertThat(encoded, is(empty()));
+			assertThat(sqlStatementData.getSql(), is(SQL));
+			assertThat(sqlStatementData.getSqlId(), is(0));
+		}
+
+		@Test
+		public void sameObjectEncodedOnce() {
+			SqlStatementData sqlStatementData = createSqlData(SQL);
+			List<SqlStatementData> sqlStatements = new ArrayList<SqlStatementData>();
+			sqlStatements.add(sqlStatementData);
+			sqlStatements.add(sqlStatementData);
+			dictionary.markRegistered(PLATFORM_ID, dictionary.getUnregistered(PLATFORM_ID, sqlStatements).keySet());
+
+			List<SqlStatementData> encoded = dictionary.encode(PLATFORM_ID, sqlStatements);
+			dictionary.decode(encoded);
+
+			assertThat(encoded, contains(sqlStatementData));
+			assertThat(sqlStatementData.getSql(), is(SQL));
+		}
+	}
+
+}
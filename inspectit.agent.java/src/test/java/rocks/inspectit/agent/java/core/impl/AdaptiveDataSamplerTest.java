@@ -0,0 +1,208 @@
+package rocks.inspectit.agent.java.core.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.slf4j.Logger;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.shared.all.communication.data.ExceptionSensorData;
+import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * Tests for the {@link AdaptiveDataSampler}.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class AdaptiveDataSamplerTest extends TestBase {
+
+	@InjectMocks
+	AdaptiveDataSampler sampler;
+
+	@Mock
+	Logger log;
+
+	@Mock
+	TimerData timerData;
+
+	@Mock
+	ExceptionSensorData exceptionSensorData;
+
+	@Mock
+	InvocationSequenceData invocationSequenceData;
+
+	public static class Sample extends AdaptiveDataSamplerTest {
+
+		@Test
+		public void emptyBuffer() {
+			when(timerData.getSensorTypeIdent()).thenReturn(1L);
+
+			for (int i = 0; i < 10; i++) {
+				assertThat(sampler.sample(timerData, 100, 100L), is(true));
+			}
+		}
+
+		@Test
+		public void lowPriorityFirst() {
+			when(timerData.getSensorTypeIdent()).thenReturn(1L);
+			when(exceptionSensorData.getSensorTypeIdent()).thenReturn(2L);
+			when(invocationSequenceData.getSensorTypeIdent()).thenReturn(3L);
+
+			// 60% occupancy
+			assertThat(sampler.sample(timerData, 100, 40L), is(true));
+			assertThat(sampler.sample(timerData, 100, 40L), is(false));
+			assertThat(sampler.sample(exceptionSensorData, 100, 40L), is(true));
+			assertThat(sampler.sample(exceptionSensorData, 100, 40L), is(true));
+			assertThat(sampler.sample(invocationSequenceData, 100, 40L), is(true));
+			assertThat(sampler.sample(invocationSequenceData, 100, 40L), is(true));
+		}
+
+		@Test
+		public void invocationsSampledLast() {
+			when(invocationSequenceData.getSensorTypeIdent()).thenReturn(3L);
+
+			// 80% occupancy
+			assertThat(sampler.sample(invocationSequenceData, 100, 20L), is(true));
+			assertThat(sampler.sample(invocationSequenceData, 100, 20L), is(true));
+
+			// 90% occupancy, 1 of 4
+			assertThat(sampler.sample(invocationSequenceData, 100, 10L), is(false));
+			assertThat(sampler.sample(invocationSequenceData, 100, 10L), is(false));
+			assertThat(sampler.sample(invocationSequenceData, 100, 10L), is(true));
+		}
+
+		@Test
+		public void deterministic() {
+			when(timerData.getSensorTypeIdent()).thenReturn(1L);
+
+			int sent = 0;
+			for (int i = 0; i < 64; i++) {
+				if (sampler.sample(timerData, 100, 0L)) {
+					sent++;
+				}
+			}
+
+			// full buffer, 1 of 2^5
+			assertThat(sent, is(2));
+		}
+	}
+
+	public static class GetSamplingExponent extends AdaptiveDataSamplerTest {
+
+		@Test
+		public void belowThreshold() {
+			assertThat(AdaptiveDataSampler.getSamplingExponent(0.5d, 100, 51L), is(0));
+		}
+
+		@Test
+		public void atThreshold() {
+			assertThat(AdaptiveDataSampler.getSamplingExponent(0.5d, 100, 50L), is(1));
+		}
+
+		@Test
+		public void fullBuffer() {
+			assertThat(AdaptiveDataSampler.getSamplingExponent(0.5d, 100, 0L), is(AdaptiveDataSampler.MAX_SAMPLING_EXPONENT));
+		}
+	}
+
+	public static class GetSamplingRates extends AdaptiveDataSamplerTest {
+
+		@Test
+		public void nothingSampled() {
+			when(timerData.getSensorTypeIdent()).thenReturn(1L);
+			sampler.sample(timerData, 100, 100L);
+
+			Map<Long, Double> samplingRates = sampler.getSamplingRates();
+
+			assertThat(samplingRates, is(nullValue()));
+		}
+
+		@Test
+		public void sampled() {
+			when(timerData.getSensorTypeIdent()).thenReturn(1L);
+			when(exceptionSensorData.getSensorTypeIdent()).thenReturn(2L);
+			for (int i = 0; i < 4; i++) {
+				sampler.sample(timerData, 100, 40L);
+				sampler.sample(exceptionSensorData, 100, 40L);
+			}
+
+			Map<Long, Double> samplingRates = sampler.getSamplingRates();
+
+			assertThat(samplingRates.size(), is(1));
+			assertThat(samplingRates, hasEntry(1L, 0.5d));
+		}
+
+		@Test
+		public void dropped() {
+			when(exceptionSensorData.getSensorTypeIdent()).thenReturn(2L);
+			// 75% occupancy, 1 of 2
+			sampler.sample(exceptionSensorData, 100, 25L);
+			sampler.sample(exceptionSensorData, 100, 25L);
+			sampler.sample(exceptionSensorData, 100, 25L);
+			sampler.sample(exceptionSensorData, 100, 25L);
+			sampler.dropped(exceptionSensorData, 100, 25L);
+
+			Map<Long, Double> samplingRates = sampler.getSamplingRates();
+
+			assertThat(samplingRates.size(), is(1));
+			assertThat(samplingRates, hasEntry(2L, 0.25d));
+		}
+
+		@Test
+		public void droppedBelowThresholdNotCounted() {
+			when(exceptionSensorData.getSensorTypeIdent()).thenReturn(2L);
+			// 75% occupancy, 1 of 2
+			sampler.sample(exceptionSensorData, 100, 25L);
+			sampler.sample(exceptionSensorData, 100, 25L);
+			// below threshold, not counted
+			sampler.sample(exceptionSensorData, 100, 100L);
+			sampler.dropped(exceptionSensorData, 100, 100L);
+
+			Map<Long, Double> samplingRates = sampler.getSamplingRates();
+
+			assertThat(samplingRates.size(), is(1));
+			assertThat(samplingRates, hasEntry(2L, 0.5d));
+		}
+
+		@Test
+		public void belowThresholdNotCounted() {
+			when(timerData.getSensorTypeIdent()).thenReturn(1L);
+			for (int i = 0; i < 4; i++) {
+				sampler.sample(timerData, 100, 100L);
+			}
+			sampler.sample(timerData, 100, 40L);
+			sampler.sample(timerData, 100, 40L);
+
+			Map<Long, Double> samplingRates = sampler.getSamplingRates();
+
+			assertThat(samplingRates.size(), is(1));
+			assertThat(samplingRates, hasEntry(1L, 0.5d));
+		}
+
+		@Test
+		public void samplingStopped() {
+			when(timerData.getSensorTypeIdent()).thenReturn(1L);
+			sampler.sample(timerData, 100, 40L);
+			sampler.sample(timerData, 100, 40L);
+			sampler.getSamplingRates();
+			sampler.sample(timerData, 100, 100L);
+
+			Map<Long, Double> samplingRates = sampler.getSamplingRates();
+
+			assertThat(samplingRates.isEmpty(), is(true));
+			assertThat(sampler.getSamplingRates(), is(nullValue()));
+		}
+	}
+
+}
@@ -4,7 +4,9 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doAnswer;
@@ -36,6 +38,7 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import rocks.inspectit.agent.java.config.StorageException;
+import rocks.inspectit.agent.java.core.IDataSampler;
 import rocks.inspectit.agent.java.core.IPlatformManager;
 import rocks.inspectit.agent.java.core.disruptor.IDisruptorStrategy;
 import rocks.inspectit.agent.java.core.impl.CoreService.SensorRefresher;
@@ -76,12 +79,20 @@ public class CoreServiceTest extends TestBase {
 	@Mock
 	AgentStatisticsLogger statsLogger;
 
+	@Mock
+	IDataSampler dataSampler;
+
 	@BeforeMethod
 	public void executorShutdown() throws InterruptedException {
 		// avoid strange log messages in test
 		when(executorService.awaitTermination(anyLong(), Mockito.<TimeUnit> any())).thenReturn(true);
 	}
 
+	@BeforeMethod
+	public void sampleAll() {
+		when(dataSampler.sample(any(DefaultData.class), anyInt(), anyLong())).thenReturn(true);
+	}
+
 	public static class AddDefaultData extends CoreServiceTest {
 
 		@Mock
@@ -102,6 +113,20 @@ public class CoreServiceTest extends TestBase {
 			assertThat(captor.getValue().getDefaultData(), is(data));
 		}
 
+		@Test
+		public void sampledOut() throws InterruptedException, StorageException {
+			when(disruptorStrategy.getDataBufferSize()).thenReturn(8);
+			when(dataSampler.sample(data, 8, 8L)).thenReturn(false);
+			coreService.start();
+
+			coreService.addDefaultData(data);
+
+			// need to sleep a bit so handler would be notified
+			Thread.sleep(100);
+			verify(dataSampler).sample(data, 8, 8L);
+			verifyNoMoreInteractions(defaultDataHandler, dataSampler);
+		}
+
 		@Test
 		public void noAddOnShutdown() throws InterruptedException, StorageException {
 			when(disruptorStrategy.getDataBufferSize()).thenReturn(8);
@@ -135,6 +160,7 @@ public class CoreServiceTest extends TestBase {
 
 			// we should report 2 times
 			verify(statsLogger, times(2)).dataDropped(1);
+			verify(dataSampler, times(2)).dropped(eq(data), anyInt(), anyLong());
 		}
 
 		@AfterMethod
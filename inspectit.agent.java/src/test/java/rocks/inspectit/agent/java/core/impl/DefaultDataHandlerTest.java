@@ -27,6 +27,7 @@ import org.testng.annotations.Test;
 
 import rocks.inspectit.agent.java.connection.IConnection;
 import rocks.inspectit.agent.java.connection.ServerUnavailableException;
+import rocks.inspectit.agent.java.core.IDataSpool;
 import rocks.inspectit.agent.java.stats.AgentStatisticsLogger;
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.testbase.TestBase;
@@ -47,6 +48,9 @@ public class DefaultDataHandlerTest extends TestBase {
 	@Mock
 	AgentStatisticsLogger statsLogger;
 
+	@Mock
+	IDataSpool dataSpool;
+
 	@Mock
 	Logger log;
 
@@ -109,6 +113,49 @@ public class DefaultDataHandlerTest extends TestBase {
 			verifyNoMoreInteractions(connection, statsLogger);
 		}
 
+		@Test
+		public void notConnectedSpooled() throws ServerUnavailableException {
+			when(wrapper.getDefaultData()).thenReturn(defaultData);
+			when(connection.isConnected()).thenReturn(false);
+			when(dataSpool.isActive()).thenReturn(true);
+			when(dataSpool.spool(Mockito.<List<DefaultData>> any())).thenReturn(true);
+
+			handler.onEvent(wrapper, 0L, true);
+
+			verify(dataSpool).spool(Mockito.<List<DefaultData>> any());
+			verify(connection).isConnected();
+			verifyNoMoreInteractions(connection);
+			verifyZeroInteractions(statsLogger);
+		}
+
+		@Test
+		public void notConnectedSpoolFull() throws ServerUnavailableException {
+			when(wrapper.getDefaultData()).thenReturn(defaultData);
+			when(connection.isConnected()).thenReturn(false);
+			when(dataSpool.isActive()).thenReturn(true);
+			when(dataSpool.spool(Mockito.<List<DefaultData>> any())).thenReturn(false);
+
+			handler.onEvent(wrapper, 0L, true);
+
+			verify(dataSpool).spool(Mockito.<List<DefaultData>> any());
+			verify(statsLogger).dataDropped(1);
+			verifyNoMoreInteractions(statsLogger);
+		}
+
+		@Test
+		public void connectionLostSpooled() throws ServerUnavailableException {
+			when(wrapper.getDefaultData()).thenReturn(defaultData);
+			when(connection.isConnected()).thenReturn(true);
+			Mockito.doThrow(new ServerUnavailableException()).when(connection).sendDataObjects(Mockito.<List<DefaultData>> any());
+			when(dataSpool.isActive()).thenReturn(true);
+			when(dataSpool.spool(Mockito.<List<DefaultData>> any())).thenReturn(true);
+
+			handler.onEvent(wrapper, 0L, true);
+
+			verify(dataSpool).spool(Mockito.<List<DefaultData>> any());
+			verifyZeroInteractions(statsLogger);
+		}
+
 		@Test
 		public void correctOrder() throws ServerUnavailableException {
 			DefaultData defaultData2 = mock(DefaultData.class);
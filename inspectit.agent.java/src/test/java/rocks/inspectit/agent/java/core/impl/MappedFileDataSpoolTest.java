@@ -0,0 +1,449 @@
+package rocks.inspectit.agent.java.core.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.slf4j.Logger;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import rocks.inspectit.agent.java.connection.IConnection;
+import rocks.inspectit.agent.java.connection.ServerUnavailableException;
+import rocks.inspectit.agent.java.core.disruptor.IDisruptorStrategy;
+import rocks.inspectit.agent.java.io.FileResolver;
+import rocks.inspectit.agent.java.spring.PrototypesProvider;
+import rocks.inspectit.agent.java.stats.AgentStatisticsLogger;
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.serializer.impl.SerializationManager;
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * Test for the {@link MappedFileDataSpool}.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class MappedFileDataSpoolTest extends TestBase {
+
+	/**
+	 * Size of one record holding one object, the serializer mock writes the list size and the id.
+	 */
+	private static final int RECORD_SIZE = MappedFileDataSpool.RECORD_HEADER_SIZE + 4 + 8;
+
+	@InjectMocks
+	MappedFileDataSpool spool;
+
+	@Mock
+	Logger log;
+
+	@Mock
+	IDisruptorStrategy disruptorStrategy;
+
+	@Mock
+	FileResolver fileResolver;
+
+	@Mock
+	PrototypesProvider prototypesProvider;
+
+	@Mock
+	IConnection connection;
+
+	@Mock
+	AgentStatisticsLogger statsLogger;
+
+	@Mock
+	ScheduledExecutorService executorService;
+
+	@Mock
+	SerializationManager serializationManager;
+
+	File directory;
+
+	long maxSize;
+
+	long maxAge;
+
+	@BeforeMethod
+	public void init() throws IOException {
+		directory = File.createTempFile("spool", "");
+		directory.delete();
+		maxSize = 4096;
+		maxAge = 0;
+		prepareMocks();
+	}
+
+	@AfterMethod
+	public void cleanUp() throws Exception {
+		if (null != spool) {
+			spool.destroy();
+		}
+		File[] files = directory.listFiles();
+		if (null != files) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+		directory.delete();
+	}
+
+	@SuppressWarnings("unchecked")
+	void prepareMocks() {
+		when(disruptorStrategy.getSpoolMaxSize()).thenReturn(maxSize);
+		when(disruptorStrategy.getSpoolMaxAge()).thenReturn(maxAge);
+		when(fileResolver.getDataSpoolDirectory()).thenReturn(directory);
+		when(prototypesProvider.createSerializer()).thenReturn(serializationManager);
+		when(connection.isConnected()).thenReturn(true);
+		try {
+			doAnswer(new Answer<Void>() {
+				@Override
+				public Void answer(InvocationOnMock invocation) throws Throwable {
+					List<DefaultData> dataObjects = (List<DefaultData>) invocation.getArguments()[0];
+					Output output = (Output) invocation.getArguments()[1];
+					output.writeInt(dataObjects.size());
+					for (DefaultData data : dataObjects) {
+						output.writeLong(data.getId());
+					}
+					return null;
+				}
+			}).when(serializationManager).serialize(anyObject(), any(Output.class));
+			when(serializationManager.deserialize(any(Input.class))).thenAnswer(new Answer<Object>() {
+				@Override
+				public Object answer(InvocationOnMock invocation) throws Throwable {
+					Input input = (Input) invocation.getArguments()[0];
+					int size = input.readInt();
+					List<DefaultData> dataObjects = new ArrayList<DefaultData>();
+					for (int i = 0; i < size; i++) {
+						TimerData data = new TimerData();
+						data.setId(input.readLong());
+						dataObjects.add(data);
+					}
+					return dataObjects;
+				}
+			});
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Destroys the current spool and starts a new one on the same directory with new mocks.
+	 */
+	void restart() throws Exception {
+		spool.destroy();
+		spool = new MappedFileDataSpool();
+		MockitoAnnotations.initMocks(this);
+		prepareMocks();
+		spool.afterPropertiesSet();
+	}
+
+	List<TimerData> batch(long id) {
+		TimerData data = new TimerData();
+		data.setId(id);
+		return Collections.singletonList(data);
+	}
+
+	@SuppressWarnings("unchecked")
+	List<Long> sentIds() throws Exception {
+		ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+		verify(connection, Mockito.atLeast(0)).sendDataObjects(captor.capture());
+		List<Long> ids = new ArrayList<Long>();
+		for (List<DefaultData> dataObjects : (List<List<DefaultData>>) (List<?>) captor.getAllValues()) {
+			for (DefaultData data : dataObjects) {
+				ids.add(data.getId());
+			}
+		}
+		return ids;
+	}
+
+	File firstSegmentFile() {
+		return new File(directory, "0.spool");
+	}
+
+	public static class Spool extends MappedFileDataSpoolTest {
+
+		@Test
+		public void spoolAndDrain() throws Exception {
+			spool.afterPropertiesSet();
+
+			assertThat(spool.isActive(), is(true));
+			assertThat(spool.spool(batch(1L)), is(true));
+			assertThat(spool.spool(batch(2L)), is(true));
+			spool.drain();
+
+			assertThat(sentIds(), contains(1L, 2L));
+			verify(statsLogger, never()).dataDropped(anyInt());
+		}
+
+		@Test
+		public void notActive() throws Exception {
+			maxSize = 0;
+			prepareMocks();
+			spool.afterPropertiesSet();
+
+			assertThat(spool.isActive(), is(false));
+			assertThat(spool.spool(batch(1L)), is(false));
+		}
+
+		@Test
+		public void notConnected() throws Exception {
+			spool.afterPropertiesSet();
+			spool.spool(batch(1L));
+			when(connection.isConnected()).thenReturn(false);
+
+			spool.drain();
+
+			assertThat(sentIds(), is(empty()));
+		}
+
+		@Test
+		public void sizeLimit() throws Exception {
+			// four segments of two records
+			maxSize = 8 * RECORD_SIZE;
+			prepareMocks();
+			spool.afterPropertiesSet();
+
+			for (long id = 1; id <= 10; id++) {
+				assertThat(spool.spool(batch(id)), is(true));
+			}
+			spool.drain();
+
+			verify(statsLogger).dataDropped(2);
+			assertThat(sentIds(), contains(3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L));
+		}
+
+		@Test
+		public void ageLimit() throws Exception {
+			spool.afterPropertiesSet();
+			spool.spool(batch(1L));
+			spool.destroy();
+			RandomAccessFile file = new RandomAccessFile(firstSegmentFile(), "rw");
+			try {
+				file.seek(MappedFileDataSpool.TIMESTAMP_OFFSET);
+				file.writeLong(System.currentTimeMillis() - 120000L);
+			} finally {
+				file.close();
+			}
+
+			maxAge = 60000L;
+			restart();
+			spool.drain();
+
+			verify(statsLogger).dataDropped(1);
+			assertThat(sentIds(), is(empty()));
+		}
+	}
+
+	public static class Drain extends MappedFileDataSpoolTest {
+
+		@Test
+		public void serverTimeoutNotResent() throws Exception {
+			spool.afterPropertiesSet();
+			spool.spool(batch(1L));
+			spool.spool(batch(2L));
+			doThrow(new ServerUnavailableException(true)).doNothing().when(connection).sendDataObjects(Mockito.<List<? extends DefaultData>> any());
+
+			spool.drain();
+			spool.drain();
+
+			assertThat(sentIds(), contains(1L, 2L));
+			verify(statsLogger, never()).dataDropped(anyInt());
+		}
+
+		@Test
+		public void serverErrorResent() throws Exception {
+			spool.afterPropertiesSet();
+			spool.spool(batch(1L));
+			spool.spool(batch(2L));
+			doThrow(new ServerUnavailableException(false)).doNothing().when(connection).sendDataObjects(Mockito.<List<? extends DefaultData>> any());
+
+			spool.drain();
+			spool.drain();
+
+			assertThat(sentIds(), contains(1L, 1L, 2L));
+			verify(statsLogger, never()).dataDropped(anyInt());
+		}
+
+		@Test
+		public void evictedWhileSending() throws Exception {
+			// four segments of two records
+			maxSize = 8 * RECORD_SIZE;
+			prepareMocks();
+			spool.afterPropertiesSet();
+			spool.spool(batch(1L));
+			spool.spool(batch(2L));
+			// fill the spool while the first record is sent, so that its segment is evicted
+			doAnswer(new Answer<Void>() {
+				@Override
+				public Void answer(InvocationOnMock invocation) throws Throwable {
+					for (long id = 3; id <= 10; id++) {
+						spool.spool(batch(id));
+					}
+					return null;
+				}
+			}).doNothing().when(connection).sendDataObjects(Mockito.<List<? extends DefaultData>> any());
+
+			spool.drain();
+
+			// only the record not being sent is dropped
+			verify(statsLogger).dataDropped(1);
+			verifyNoMoreInteractions(statsLogger);
+			assertThat(sentIds(), contains(1L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L));
+		}
+
+		@Test
+		public void evictedWhileSendingFailed() throws Exception {
+			maxSize = 8 * RECORD_SIZE;
+			prepareMocks();
+			spool.afterPropertiesSet();
+			spool.spool(batch(1L));
+			spool.spool(batch(2L));
+			doAnswer(new Answer<Void>() {
+				@Override
+				public Void answer(InvocationOnMock invocation) throws Throwable {
+					for (long id = 3; id <= 10; id++) {
+						spool.spool(batch(id));
+					}
+					throw new ServerUnavailableException(false);
+				}
+			}).doNothing().when(connection).sendDataObjects(Mockito.<List<? extends DefaultData>> any());
+
+			spool.drain();
+
+			verify(statsLogger, times(2)).dataDropped(1);
+		}
+
+		@Test
+		public void oversizeBatchNotSpooled() throws Exception {
+			spool.afterPropertiesSet();
+			List<TimerData> dataObjects = new ArrayList<TimerData>();
+			for (long id = 0; id < 200; id++) {
+				dataObjects.addAll(batch(id));
+			}
+
+			boolean spooled = spool.spool(dataObjects);
+
+			assertThat(spooled, is(false));
+			verify(log).warn(anyString());
+		}
+	}
+
+	public static class Replay extends MappedFileDataSpoolTest {
+
+		@Test
+		public void afterRestart() throws Exception {
+			spool.afterPropertiesSet();
+			spool.spool(batch(1L));
+			spool.spool(batch(2L));
+
+			restart();
+			spool.drain();
+
+			assertThat(sentIds(), contains(1L, 2L));
+		}
+
+		@Test
+		public void sentDataNotReplayed() throws Exception {
+			spool.afterPropertiesSet();
+			spool.spool(batch(1L));
+			spool.drain();
+			spool.spool(batch(2L));
+
+			restart();
+			spool.drain();
+
+			assertThat(sentIds(), contains(2L));
+		}
+
+		@Test
+		public void truncatedSegment() throws Exception {
+			spool.afterPropertiesSet();
+			spool.spool(batch(1L));
+			spool.spool(batch(2L));
+			spool.spool(batch(3L));
+			spool.destroy();
+			RandomAccessFile file = new RandomAccessFile(firstSegmentFile(), "rw");
+			try {
+				// cut in the middle of the third record
+				file.setLength((2 * RECORD_SIZE) + MappedFileDataSpool.RECORD_HEADER_SIZE + 5);
+			} finally {
+				file.close();
+			}
+
+			restart();
+			spool.drain();
+
+			assertThat(sentIds(), contains(1L, 2L));
+		}
+
+		@Test
+		public void corruptSegment() throws Exception {
+			spool.afterPropertiesSet();
+			spool.spool(batch(1L));
+			spool.spool(batch(2L));
+			spool.spool(batch(3L));
+			spool.destroy();
+			RandomAccessFile file = new RandomAccessFile(firstSegmentFile(), "rw");
+			try {
+				// change the id of the second record
+				int position = RECORD_SIZE + MappedFileDataSpool.RECORD_HEADER_SIZE + 4 + 7;
+				file.seek(position);
+				int value = file.read();
+				file.seek(position);
+				file.write(value ^ 0xFF);
+			} finally {
+				file.close();
+			}
+
+			restart();
+			spool.drain();
+
+			assertThat(sentIds(), contains(1L));
+		}
+
+		@Test
+		public void emptySegmentsDeleted() throws Exception {
+			spool.afterPropertiesSet();
+			spool.spool(batch(1L));
+			spool.drain();
+
+			restart();
+
+			assertThat(firstSegmentFile().exists(), is(false));
+		}
+	}
+
+}
@@ -6,10 +6,15 @@ import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.codehaus.jackson.JsonNode;
 import org.codehaus.jackson.JsonProcessingException;
@@ -25,9 +30,12 @@ import org.slf4j.Logger;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import rocks.inspectit.agent.java.config.IConfigurationStorage;
+import rocks.inspectit.agent.java.config.StorageException;
 import rocks.inspectit.agent.java.core.ICoreService;
 import rocks.inspectit.agent.java.core.IPlatformManager;
 import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.instrumentation.config.impl.AgentEndUserMonitoringConfig;
 import rocks.inspectit.shared.all.communication.data.eum.Beacon;
 import rocks.inspectit.shared.all.communication.data.eum.UserSessionInfo;
 import rocks.inspectit.shared.all.testbase.TestBase;
@@ -51,12 +59,42 @@ public class DataHandlerTest extends TestBase {
 	@Mock
 	ICoreService coreService;
 
+	@Mock
+	ExecutorService executorService;
+
+	@Mock
+	IConfigurationStorage configurationStorage;
+
 	ArgumentCaptor<DefaultData> sentElements;
 
 	@InjectMocks
 	DataHandler dataHandler;
 
 
+	String createSessionInfoBeacon(String type) {
+		ObjectNode beacon = new ObjectNode(JsonNodeFactory.instance);
+		ObjectNode sessInfo = new ObjectNode(JsonNodeFactory.instance);
+		sessInfo.put("type", type);
+		sessInfo.put("browser", "Firefox");
+		sessInfo.put("device", "iOS");
+		sessInfo.put("language", "de");
+
+		beacon.put("sessionID", "" + Long.toString(SESSID_DEMOVALUE, 16));
+		beacon.put("tabID", "" + Long.toString(TABID_DEMOVALUE, 16));
+		beacon.put("activeAgentModules", MODULES_DEMOVALUE);
+		ArrayNode data = beacon.arrayNode();
+		beacon.put("data", data);
+		data.add(sessInfo);
+		return beacon.toString();
+	}
+
+	void enableAsyncProcessing() throws StorageException {
+		AgentEndUserMonitoringConfig eumConfig = new AgentEndUserMonitoringConfig();
+		eumConfig.setBeaconProcessingAsync(true);
+		when(configurationStorage.getEndUserMonitoringConfig()).thenReturn(eumConfig);
+		dataHandler.setConfiguration(configurationStorage);
+	}
+
 	@BeforeMethod
 	public void initMocks() {
 		when(platformManager.getPlatformId()).thenReturn(PLATFORM_ID);
@@ -146,6 +184,70 @@ public class DataHandlerTest extends TestBase {
 			Mockito.verify(coreService, Mockito.times(0)).addDefaultData(any(DefaultData.class));
 
 		}
+
+		@Test
+		public void testUnknownHeaderFieldSkipped() {
+			String beaconJson = createSessionInfoBeacon("metaInfo");
+			beaconJson = "{\"unknown\":{\"a\":[1,2]}," + beaconJson.substring(1);
+
+			dataHandler.insertBeacon(beaconJson);
+
+			Mockito.verify(coreService, Mockito.times(1)).addDefaultData(any(DefaultData.class));
+		}
 	}
 
+	public static class InsertBeaconAsync extends DataHandlerTest {
+
+		@Test
+		public void testElementsSentByExecutor() throws StorageException {
+			enableAsyncProcessing();
+
+			dataHandler.insertBeacon(createSessionInfoBeacon("metaInfo"));
+
+			verifyZeroInteractions(coreService);
+			ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+			verify(executorService).execute(runnableCaptor.capture());
+			runnableCaptor.getValue().run();
+			verify(coreService).addDefaultData(any(DefaultData.class));
+			UserSessionInfo sentInfo = (UserSessionInfo) sentElements.getValue();
+			assertThat(sentInfo.getBrowser(), equalTo("Firefox"));
+			assertThat(sentInfo.getSessionId(), equalTo(SESSID_DEMOVALUE));
+		}
+
+		@Test
+		public void testIDAssignment() throws IOException, StorageException {
+			enableAsyncProcessing();
+			ObjectNode beacon = new ObjectNode(JsonNodeFactory.instance);
+			beacon.put("sessionID", "" + Long.toString(Beacon.REQUEST_NEW_SESSION_ID_MARKER, 16));
+			beacon.put("tabID", "" + Long.toString(Beacon.REQUEST_NEW_TAB_ID_MARKER, 16));
+
+			String responseJson = dataHandler.insertBeacon(beacon.toString());
+
+			JsonNode response = (new ObjectMapper()).readTree(responseJson);
+			assertThat(response.get("sessionID").asText(), notNullValue());
+			assertThat(response.get("tabID").asText(), notNullValue());
+		}
+
+		@Test
+		public void testInvalidBeaconContentLogged() throws StorageException {
+			enableAsyncProcessing();
+
+			dataHandler.insertBeacon(createSessionInfoBeacon("unkownType"));
+
+			ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+			verify(executorService).execute(runnableCaptor.capture());
+			runnableCaptor.getValue().run();
+			verifyZeroInteractions(coreService);
+		}
+
+		@Test
+		public void testExecutorQueueFull() throws StorageException {
+			enableAsyncProcessing();
+			doThrow(new RejectedExecutionException()).when(executorService).execute(any(Runnable.class));
+
+			dataHandler.insertBeacon(createSessionInfoBeacon("metaInfo"));
+
+			verify(coreService).addDefaultData(any(DefaultData.class));
+		}
+	}
 }
@@ -0,0 +1,207 @@
+package rocks.inspectit.agent.java.eum.html;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+import org.testng.annotations.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.ByteStreams;
+
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * Test for the {@link ByteHtmlScriptInjector}.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class ByteHtmlScriptInjectorTest extends TestBase {
+
+	private static final String TAG_TO_INJECT = "<here usually goes the script tag>";
+	private static final String INJECTION_POS_MARKER = "<!--INJECTIONPOINT-->";
+
+	ByteHtmlScriptInjector injector;
+
+	String loadHtmlSource(String path) {
+		InputStream is = ByteHtmlScriptInjectorTest.class.getResourceAsStream(path);
+		try {
+			return new String(ByteStreams.toByteArray(is), Charsets.UTF_8);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	String getExpectedResult(String originalHtml, String tag) {
+		int injectionPos = originalHtml.indexOf(INJECTION_POS_MARKER);
+		if (injectionPos != -1) {
+			return originalHtml.substring(0, injectionPos) + tag + originalHtml.substring(injectionPos);
+		} else {
+			return originalHtml;
+		}
+	}
+
+	byte[] runInjector(byte[] source, int portionSize) {
+		int pos = 0;
+		ByteArrayOutputStream bout = new ByteArrayOutputStream();
+		while (pos < source.length) {
+			int len = Math.min(portionSize, source.length - pos);
+			int injectionPoint = injector.findInjectionPoint(source, pos, len);
+			if (injectionPoint == StreamedHtmlScriptInjector.NO_INJECTION) {
+				bout.write(source, pos, len);
+			} else {
+				bout.write(source, pos, injectionPoint);
+				bout.write(injector.getEncodedTag(), 0, injector.getEncodedTag().length);
+				bout.write(source, pos + injectionPoint, len - injectionPoint);
+			}
+			pos += len;
+		}
+		return bout.toByteArray();
+	}
+
+	String runInjector(String testCase, String tag, Charset charset, int portionSize) {
+		injector = new ByteHtmlScriptInjector(tag, charset);
+		String src = loadHtmlSource(testCase);
+		return new String(runInjector(src.getBytes(charset), portionSize), charset);
+	}
+
+	public static class FindInjectionPoint extends ByteHtmlScriptInjectorTest {
+
+		@Test
+		public void testCaseHeadInjection() {
+			String src = loadHtmlSource("/html/testCase-HeadInjection.html");
+
+			String modified = runInjector("/html/testCase-HeadInjection.html", TAG_TO_INJECT, Charsets.UTF_8, 3);
+
+			assertThat(modified, equalTo(getExpectedResult(src, TAG_TO_INJECT)));
+		}
+
+		@Test
+		public void testCaseBodyInjection() {
+			String src = loadHtmlSource("/html/testCase-BodyInjection.html");
+
+			String modified = runInjector("/html/testCase-BodyInjection.html", TAG_TO_INJECT, Charsets.UTF_8, 3);
+
+			assertThat(modified, equalTo(getExpectedResult(src, TAG_TO_INJECT)));
+		}
+
+		@Test
+		public void testCaseXhtml() {
+			String src = loadHtmlSource("/html/testCase-XHTML.html");
+
+			String modified = runInjector("/html/testCase-XHTML.html", TAG_TO_INJECT, Charsets.ISO_8859_1, 1);
+
+			assertThat(modified, equalTo(getExpectedResult(src, TAG_TO_INJECT)));
+		}
+
+		@Test
+		public void testCaseXML() {
+			String src = loadHtmlSource("/html/testCase-XML.html");
+
+			String modified = runInjector("/html/testCase-XML.html", TAG_TO_INJECT, Charsets.UTF_8, 3);
+
+			assertThat(modified, equalTo(getExpectedResult(src, TAG_TO_INJECT)));
+			assertThat(injector.hasTerminated(), is(true));
+		}
+
+		@Test
+		public void testCaseInvalidToken() {
+			String src = loadHtmlSource("/html/testCase-InvalidToken.html");
+
+			String modified = runInjector("/html/testCase-InvalidToken.html", TAG_TO_INJECT, Charsets.UTF_8, 3);
+
+			assertThat(modified, equalTo(getExpectedResult(src, TAG_TO_INJECT)));
+		}
+
+		@Test
+		public void testCaseWholeDocument() {
+			String src = loadHtmlSource("/html/testCase-HeadInjection.html");
+
+			String modified = runInjector("/html/testCase-HeadInjection.html", TAG_TO_INJECT, Charsets.UTF_8, Integer.MAX_VALUE);
+
+			assertThat(modified, equalTo(getExpectedResult(src, TAG_TO_INJECT)));
+		}
+
+		@Test
+		public void testNonAsciiTag() {
+			String tag = "<script>var s = \"äüö\";</script>";
+			String src = loadHtmlSource("/html/testCase-HeadInjection.html");
+
+			String modified = runInjector("/html/testCase-HeadInjection.html", tag, Charsets.UTF_8, 3);
+
+			assertThat(modified, equalTo(getExpectedResult(src, tag)));
+		}
+
+		@Test
+		public void testMultiByteCharacters() {
+			String src = "<html><head>äüö€</head></html>";
+			injector = new ByteHtmlScriptInjector(TAG_TO_INJECT, Charsets.UTF_8);
+
+			String modified = new String(runInjector(src.getBytes(Charsets.UTF_8), 1), Charsets.UTF_8);
+
+			assertThat(modified, equalTo("<html><head>" + TAG_TO_INJECT + "äüö€</head></html>"));
+		}
+
+		@Test
+		public void testPreventDoubleInjection() {
+			String modifiedA = runInjector("/html/testCase-HeadInjection.html", TAG_TO_INJECT, Charsets.UTF_8, 3);
+			byte[] bytes = modifiedA.getBytes(Charsets.UTF_8);
+
+			injector = new ByteHtmlScriptInjector(TAG_TO_INJECT, Charsets.UTF_8);
+			int injectionPoint = injector.findInjectionPoint(bytes, 0, bytes.length);
+
+			assertThat(injectionPoint, is(StreamedHtmlScriptInjector.NO_INJECTION));
+			assertThat(injector.hasTerminated(), is(true));
+		}
+
+		@Test
+		public void testOffset() {
+			byte[] bytes = "xxx<html><head></head></html>".getBytes(Charsets.US_ASCII);
+			injector = new ByteHtmlScriptInjector(TAG_TO_INJECT, Charsets.US_ASCII);
+
+			int injectionPoint = injector.findInjectionPoint(bytes, 3, bytes.length - 3);
+
+			assertThat(injectionPoint, is("<html><head>".length()));
+		}
+	}
+
+	public static class PerformInjection extends ByteHtmlScriptInjectorTest {
+
+		@Test
+		public void testPrintedCharactersContainEncodedTag() {
+			String tag = "<script>ä</script>";
+			injector = new ByteHtmlScriptInjector(tag, Charsets.UTF_8);
+
+			String modified = injector.performInjection("<html><head></head></html>");
+
+			String expected = "<html><head>" + new String(tag.getBytes(Charsets.UTF_8), Charsets.ISO_8859_1) + "</head></html>";
+			assertThat(modified, equalTo(expected));
+		}
+	}
+
+	public static class IsAsciiCompatible extends ByteHtmlScriptInjectorTest {
+
+		@Test
+		public void compatible() {
+			assertThat(ByteHtmlScriptInjector.isAsciiCompatible(Charsets.UTF_8), is(true));
+			assertThat(ByteHtmlScriptInjector.isAsciiCompatible(Charsets.ISO_8859_1), is(true));
+			assertThat(ByteHtmlScriptInjector.isAsciiCompatible(Charsets.US_ASCII), is(true));
+			assertThat(ByteHtmlScriptInjector.isAsciiCompatible(Charset.forName("windows-1252")), is(true));
+		}
+
+		@Test
+		public void notCompatible() {
+			assertThat(ByteHtmlScriptInjector.isAsciiCompatible(Charsets.UTF_16), is(false));
+			assertThat(ByteHtmlScriptInjector.isAsciiCompatible(Charsets.UTF_16LE), is(false));
+			assertThat(ByteHtmlScriptInjector.isAsciiCompatible(Charset.forName("Shift_JIS")), is(false));
+		}
+	}
+
+}
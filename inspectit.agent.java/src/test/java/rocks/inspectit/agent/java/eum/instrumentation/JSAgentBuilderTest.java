@@ -0,0 +1,99 @@
+package rocks.inspectit.agent.java.eum.instrumentation;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+
+import org.mockito.InjectMocks;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.ByteStreams;
+
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * Test for the {@link JSAgentBuilder}.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class JSAgentBuilderTest extends TestBase {
+
+	@InjectMocks
+	JSAgentBuilder builder;
+
+	public static class GetJsAgent extends JSAgentBuilderTest {
+
+		@Test
+		public void cached() {
+			JSAgentScript first = builder.getJsAgent("a12");
+			JSAgentScript second = builder.getJsAgent("a12");
+
+			assertThat(second, is(sameInstance(first)));
+		}
+
+		@Test
+		public void sameSignature() {
+			JSAgentScript first = builder.getJsAgent("a12");
+			JSAgentScript second = builder.getJsAgent("aa1122");
+
+			assertThat(second, is(sameInstance(first)));
+			assertThat(new String(first.getContent(), Charsets.UTF_8), containsString("activeAgentModules = \"a12\";"));
+		}
+
+		@Test
+		public void differentModules() {
+			JSAgentScript first = builder.getJsAgent("a12");
+			JSAgentScript second = builder.getJsAgent("a1");
+
+			assertThat(second.getETag(), is(not(first.getETag())));
+		}
+
+		@Test
+		public void content() throws IOException {
+			JSAgentScript script = builder.getJsAgent("a12");
+
+			assertThat(script.getContent(), is(builder.buildJsFile("a12").getBytes(Charsets.UTF_8)));
+			byte[] uncompressed = ByteStreams.toByteArray(new GZIPInputStream(new ByteArrayInputStream(script.getGzipContent())));
+			assertThat(uncompressed, is(script.getContent()));
+		}
+
+		@Test
+		public void strongETags() {
+			JSAgentScript script = builder.getJsAgent("a12");
+
+			assertThat(script.getETag().startsWith("\""), is(true));
+			assertThat(script.getETag().endsWith("\""), is(true));
+			assertThat(script.getGzipETag(), is(not(script.getETag())));
+		}
+	}
+
+	public static class IsMatchedBy extends JSAgentBuilderTest {
+
+		@Test
+		public void matched() {
+			JSAgentScript script = builder.getJsAgent("a12");
+
+			assertThat(script.isMatchedBy(script.getETag()), is(true));
+			assertThat(script.isMatchedBy("\"other\", " + script.getGzipETag()), is(true));
+			assertThat(script.isMatchedBy("W/" + script.getETag()), is(true));
+			assertThat(script.isMatchedBy("*"), is(true));
+		}
+
+		@Test
+		public void notMatched() {
+			JSAgentScript script = builder.getJsAgent("a12");
+
+			assertThat(script.isMatchedBy(null), is(false));
+			assertThat(script.isMatchedBy("\"other\""), is(false));
+		}
+	}
+}
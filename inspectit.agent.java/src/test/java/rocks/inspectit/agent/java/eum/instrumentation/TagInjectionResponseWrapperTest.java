@@ -249,6 +249,43 @@ public class TagInjectionResponseWrapperTest extends TestBase {
 			assertThat(result, equalTo(HTML_TEST_CASE_A_REFERENCE));
 		}
 
+		@SuppressWarnings("unchecked")
+		@Test
+		public void testHeadInjectionSingleBytes() throws IOException {
+			ArgumentCaptor<TagInjectionOutputStream> streamCaptor = ArgumentCaptor.forClass(TagInjectionOutputStream.class);
+			respWrapper.getOutputStream();
+			verify(linker, times(1)).createProxy(any(Class.class), streamCaptor.capture(), any(ClassLoader.class));
+
+			TagInjectionOutputStream stream = streamCaptor.getValue();
+			for (byte b : HTML_TEST_CASE_A.getBytes(CHARACTER_ENCODING)) {
+				stream.write(b);
+			}
+
+			String result = new String(streamResult.toByteArray(), CHARACTER_ENCODING);
+			assertThat(result, equalTo(HTML_TEST_CASE_A_REFERENCE));
+		}
+
+		@SuppressWarnings("unchecked")
+		@Test
+		public void testHeadInjectionNotAsciiCompatibleEncoding() throws IOException {
+			String encoding = "UTF-16BE";
+			when(dummyResponse.getCharacterEncoding()).thenReturn(encoding);
+			ArgumentCaptor<TagInjectionOutputStream> streamCaptor = ArgumentCaptor.forClass(TagInjectionOutputStream.class);
+			respWrapper.getOutputStream();
+			verify(linker, times(1)).createProxy(any(Class.class), streamCaptor.capture(), any(ClassLoader.class));
+
+			TagInjectionOutputStream stream = streamCaptor.getValue();
+			byte[] bytes = HTML_TEST_CASE_A.getBytes(encoding);
+			int pos = 0;
+			while (pos < bytes.length) {
+				stream.write(bytes, pos, Math.min(4, bytes.length - pos));
+				pos += 4; // write 2 characters at once
+			}
+
+			String result = new String(streamResult.toByteArray(), encoding);
+			assertThat(result, equalTo(HTML_TEST_CASE_A_REFERENCE));
+		}
+
 		@SuppressWarnings("unchecked")
 		@Test
 		public void testBodyInjection() throws IOException {
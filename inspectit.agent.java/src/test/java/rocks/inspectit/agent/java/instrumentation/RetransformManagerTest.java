@@ -14,6 +14,7 @@ import static org.mockito.Mockito.when;
 import java.lang.instrument.Instrumentation;
 import java.lang.instrument.UnmodifiableClassException;
 import java.util.Arrays;
+import java.util.Collections;
 
 import org.mockito.InOrder;
 import org.mockito.InjectMocks;
@@ -238,4 +239,61 @@ public class RetransformManagerTest extends TestBase {
 		}
 	}
 
+	/**
+	 * Tests the {@link RetransformManager#retransform(java.util.Collection)} method.
+	 *
+	 */
+	public static class Retransform extends RetransformManagerTest {
+
+		@Test
+		public void successful() throws UnmodifiableClassException {
+			InstrumentationDefinition stringDefinition = mock(InstrumentationDefinition.class);
+			when(stringDefinition.getClassName()).thenReturn("java.lang.String");
+			when(instrumentation.getAllLoadedClasses()).thenReturn(new Class[] { Object.class, String.class });
+			when(instrumentation.isModifiableClass(any(Class.class))).thenReturn(true);
+			when(instrumentation.isRetransformClassesSupported()).thenReturn(true);
+			when(agent.isUsingRetransformation()).thenReturn(true);
+
+			retransformManager.retransform(Collections.singletonList(stringDefinition));
+
+			verify(classHashHelper).registerInstrumentationDefinition(eq("java.lang.String"), eq(stringDefinition));
+			verify(instrumentation).retransformClasses(eq(String.class));
+			InOrder inOrder = inOrder(threadTransformHelper);
+			inOrder.verify(threadTransformHelper).setThreadTransformDisabled(false);
+			inOrder.verify(threadTransformHelper).setThreadTransformDisabled(true);
+		}
+
+		@Test
+		public void retransformationNotUsed() {
+			InstrumentationDefinition stringDefinition = mock(InstrumentationDefinition.class);
+			when(instrumentation.isRetransformClassesSupported()).thenReturn(true);
+			when(agent.isUsingRetransformation()).thenReturn(false);
+
+			retransformManager.retransform(Collections.singletonList(stringDefinition));
+
+			verifyZeroInteractions(classHashHelper, threadTransformHelper);
+		}
+
+		@Test
+		public void retransformationNotSupported() {
+			InstrumentationDefinition stringDefinition = mock(InstrumentationDefinition.class);
+			when(instrumentation.isRetransformClassesSupported()).thenReturn(false);
+			when(agent.isUsingRetransformation()).thenReturn(true);
+
+			retransformManager.retransform(Collections.singletonList(stringDefinition));
+
+			verifyZeroInteractions(classHashHelper, threadTransformHelper);
+		}
+
+		@Test
+		public void nothingToRetransform() {
+			when(instrumentation.isRetransformClassesSupported()).thenReturn(true);
+			when(agent.isUsingRetransformation()).thenReturn(true);
+
+			retransformManager.retransform(Collections.<InstrumentationDefinition> emptyList());
+
+			verifyZeroInteractions(classHashHelper, threadTransformHelper);
+		}
+	}
+
 }
@@ -76,6 +76,26 @@ public class ClassInstrumenterTest extends AbstractInstrumentationTest {
 		}
 	};
 
+	protected static final Answer<MethodVisitor> METHOD_INSTRUMENTER_NO_PARAMETERS_ANSWER = new Answer<MethodVisitor>() {
+
+		@Override
+		public MethodVisitor answer(InvocationOnMock invocation) throws Throwable {
+			Object[] arguments = invocation.getArguments();
+			SensorInstrumentationPoint sip = (SensorInstrumentationPoint) arguments[0];
+			return getMethodInstrumenter((MethodVisitor) arguments[1], (Integer) arguments[2], (String) arguments[3], (String) arguments[4], sip.getId(), (Boolean) arguments[5], false);
+		}
+	};
+
+	protected static final Answer<MethodVisitor> CONSTRUCTOR_INSTRUMENTER_NO_PARAMETERS_ANSWER = new Answer<MethodVisitor>() {
+
+		@Override
+		public MethodVisitor answer(InvocationOnMock invocation) throws Throwable {
+			Object[] arguments = invocation.getArguments();
+			SensorInstrumentationPoint sip = (SensorInstrumentationPoint) arguments[0];
+			return getConstructorInstrumenter((MethodVisitor) arguments[1], (Integer) arguments[2], (String) arguments[3], (String) arguments[4], sip.getId(), (Boolean) arguments[5], false);
+		}
+	};
+
 	public static IHookDispatcher dispatcher;
 
 	public static IAgent a;
@@ -541,6 +561,33 @@ public class ClassInstrumenterTest extends AbstractInstrumentationTest {
 			verifyNoMoreInteractions(hookDispatcher);
 		}
 
+		@Test
+		public void voidTwoParametersNoParameterAccess() throws Exception {
+			String methodName = "voidTwoParameters";
+			Object[] parameters = { "java.lang.String", "java.lang.Object" };
+			long methodId = 9L;
+
+			when(sip.getId()).thenReturn(methodId);
+			prepareConfigurationMockMethod(config, InstrumentationTestClass.class, methodName, String.class, Object.class);
+			doAnswer(METHOD_INSTRUMENTER_NO_PARAMETERS_ANSWER).when(instrumenterFactory).getMethodVisitor(eq(sip), Matchers.<MethodVisitor> any(), anyInt(), anyString(), anyString(), anyBoolean());
+			when(config.getAllInstrumentationPoints()).thenReturn(Collections.<IMethodInstrumentationPoint> singleton(sip));
+
+			ClassReader cr = new ClassReader(TEST_CLASS_FQN);
+			prepareWriter(cr, null, false, config);
+			cr.accept(classInstrumenter, ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG);
+			assertThat(classInstrumenter.isByteCodeAdded(), is(true));
+			byte b[] = classWriter.toByteArray();
+
+			// now call this method
+			Object testClass = this.createInstance(TEST_CLASS_FQN, b);
+			this.callMethod(testClass, methodName, parameters);
+
+			verify(hookDispatcher).dispatchMethodBeforeBody(methodId, testClass, null);
+			verify(hookDispatcher).dispatchFirstMethodAfterBody(methodId, testClass, null, null, false);
+			verify(hookDispatcher).dispatchSecondMethodAfterBody(methodId, testClass, null, null, false);
+			verifyNoMoreInteractions(hookDispatcher);
+		}
+
 		@Test
 		public void mixedTwoParameters() throws Exception {
 			String methodName = "mixedTwoParameters";
@@ -780,6 +827,31 @@ public class ClassInstrumenterTest extends AbstractInstrumentationTest {
 			verifyNoMoreInteractions(hookDispatcher);
 		}
 
+		@Test
+		public void constructorStringOneParameterNoParameterAccess() throws Exception {
+			Object[] parameters = { "java.lang.String" };
+			long methodId = 9L;
+
+			when(sip.getId()).thenReturn(methodId);
+			prepareConfigurationMockConstructor(config, InstrumentationTestClass.class, false, String.class);
+			doAnswer(CONSTRUCTOR_INSTRUMENTER_NO_PARAMETERS_ANSWER).when(instrumenterFactory).getMethodVisitor(eq(sip), Matchers.<MethodVisitor> any(), anyInt(), anyString(), anyString(), anyBoolean());
+			when(config.getAllInstrumentationPoints()).thenReturn(Collections.<IMethodInstrumentationPoint> singleton(sip));
+
+			ClassReader cr = new ClassReader(TEST_CLASS_FQN);
+			prepareWriter(cr, null, false, config);
+			cr.accept(classInstrumenter, ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG);
+			assertThat(classInstrumenter.isByteCodeAdded(), is(true));
+			byte b[] = classWriter.toByteArray();
+
+			Class<?> clazz = createClass(TEST_CLASS_FQN, b);
+			Constructor<?> constructor = clazz.getConstructor(new Class[] { String.class });
+			Object instance = constructor.newInstance(parameters);
+
+			verify(hookDispatcher).dispatchConstructorBeforeBody(methodId, null);
+			verify(hookDispatcher).dispatchConstructorAfterBody(methodId, instance, null);
+			verifyNoMoreInteractions(hookDispatcher);
+		}
+
 		@Test
 		public void nestedConstructorBooleanOneParameter() throws Exception {
 			Object[] parameters = { Boolean.TRUE };
@@ -1165,7 +1237,11 @@ public class ClassInstrumenterTest extends AbstractInstrumentationTest {
 	}
 
 	protected static MethodInstrumenter getMethodInstrumenter(MethodVisitor superMethodVisitor, int access, String name, String desc, long id, boolean enhancedExceptionSensor) {
-		return new MethodInstrumenter(superMethodVisitor, access, name, desc, id, enhancedExceptionSensor) {
+		return getMethodInstrumenter(superMethodVisitor, access, name, desc, id, enhancedExceptionSensor, true);
+	}
+
+	protected static MethodInstrumenter getMethodInstrumenter(MethodVisitor superMethodVisitor, int access, String name, String desc, long id, boolean enhancedExceptionSensor, boolean parameterAccess) {
+		return new MethodInstrumenter(superMethodVisitor, access, name, desc, id, enhancedExceptionSensor, parameterAccess) {
 			@Override
 			protected void loadHookDispatcher() {
 				mv.visitFieldInsn(Opcodes.GETSTATIC, Type.getInternalName(ClassInstrumenterTest.class), "dispatcher", Type.getDescriptor(IHookDispatcher.class));
@@ -1174,7 +1250,12 @@ public class ClassInstrumenterTest extends AbstractInstrumentationTest {
 	}
 
 	protected static ConstructorInstrumenter getConstructorInstrumenter(MethodVisitor superMethodVisitor, int access, String name, String desc, long id, boolean enhancedExceptionSensor) {
-		return new ConstructorInstrumenter(superMethodVisitor, access, name, desc, id, enhancedExceptionSensor) {
+		return getConstructorInstrumenter(superMethodVisitor, access, name, desc, id, enhancedExceptionSensor, true);
+	}
+
+	protected static ConstructorInstrumenter getConstructorInstrumenter(MethodVisitor superMethodVisitor, int access, String name, String desc, long id, boolean enhancedExceptionSensor,
+			boolean parameterAccess) {
+		return new ConstructorInstrumenter(superMethodVisitor, access, name, desc, id, enhancedExceptionSensor, parameterAccess) {
 			@Override
 			protected void loadHookDispatcher() {
 				mv.visitFieldInsn(Opcodes.GETSTATIC, Type.getInternalName(ClassInstrumenterTest.class), "dispatcher", Type.getDescriptor(IHookDispatcher.class));
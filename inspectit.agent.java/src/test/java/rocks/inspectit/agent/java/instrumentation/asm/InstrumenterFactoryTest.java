@@ -8,12 +8,17 @@ import static org.mockito.Mockito.when;
 
 import info.novatec.inspectit.org.objectweb.asm.MethodVisitor;
 
+import java.util.Iterator;
+import java.util.List;
+
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.testng.annotations.Test;
 
 import rocks.inspectit.agent.java.instrumentation.InstrumenterFactory;
+import rocks.inspectit.agent.java.sensor.method.IMethodSensor;
 import rocks.inspectit.shared.all.instrumentation.config.IMethodInstrumentationPoint;
+import rocks.inspectit.shared.all.instrumentation.config.impl.MethodSensorTypeConfig;
 import rocks.inspectit.shared.all.instrumentation.config.impl.SensorInstrumentationPoint;
 import rocks.inspectit.shared.all.instrumentation.config.impl.SpecialInstrumentationPoint;
 import rocks.inspectit.shared.all.instrumentation.config.impl.SubstitutionDescriptor;
@@ -38,6 +43,27 @@ public class InstrumenterFactoryTest extends TestBase {
 	@Mock
 	MethodVisitor superMethodVisitor;
 
+	@Mock
+	List<IMethodSensor> methodSensors;
+
+	@Mock
+	IMethodSensor methodSensor;
+
+	@Mock
+	MethodSensorTypeConfig methodSensorTypeConfig;
+
+	@SuppressWarnings("unchecked")
+	void prepareMethodSensor(long sensorId, boolean parameterAccess) throws Exception {
+		when(methodSensorTypeConfig.getId()).thenReturn(sensorId);
+		when(methodSensor.getSensorTypeConfig()).thenReturn(methodSensorTypeConfig);
+		when(methodSensor.isParameterAccess()).thenReturn(parameterAccess);
+		Iterator<IMethodSensor> it = mock(Iterator.class);
+		when(it.hasNext()).thenReturn(true, false);
+		when(it.next()).thenReturn(methodSensor);
+		when(methodSensors.iterator()).thenReturn(it);
+		factory.afterPropertiesSet();
+	}
+
 	public static class GetMethodVisitor extends InstrumenterFactoryTest {
 
 		@Test
@@ -55,6 +81,60 @@ public class InstrumenterFactoryTest extends TestBase {
 			MethodInstrumenter methodInstrumenter = (MethodInstrumenter) methodVisitor;
 			assertThat(methodInstrumenter.getMethodId(), is(id));
 			assertThat(methodInstrumenter.isEnhancedExceptionSensor(), is(enhancedExceptionSensor));
+			assertThat(methodInstrumenter.isParameterAccess(), is(true));
+		}
+
+		@Test
+		public void methodNoParameterAccess() throws Exception {
+			long id = 7L;
+			long sensorId = 11L;
+			prepareMethodSensor(sensorId, false);
+			when(sensorInstrumentationPoint.isConstructor()).thenReturn(false);
+			when(sensorInstrumentationPoint.getId()).thenReturn(id);
+			when(sensorInstrumentationPoint.getSensorIds()).thenReturn(new long[] { sensorId });
+
+			MethodVisitor methodVisitor = factory.getMethodVisitor(sensorInstrumentationPoint, superMethodVisitor, 0, "method", "()V", false);
+
+			assertThat(methodVisitor, is(instanceOf(MethodInstrumenter.class)));
+			MethodInstrumenter methodInstrumenter = (MethodInstrumenter) methodVisitor;
+			assertThat(methodInstrumenter.getMethodId(), is(id));
+			assertThat(methodInstrumenter.isParameterAccess(), is(false));
+		}
+
+		@Test
+		public void methodSensorParameterAccess() throws Exception {
+			long sensorId = 11L;
+			prepareMethodSensor(sensorId, true);
+			when(sensorInstrumentationPoint.isConstructor()).thenReturn(false);
+			when(sensorInstrumentationPoint.getSensorIds()).thenReturn(new long[] { sensorId });
+
+			MethodVisitor methodVisitor = factory.getMethodVisitor(sensorInstrumentationPoint, superMethodVisitor, 0, "method", "()V", false);
+
+			assertThat(((MethodInstrumenter) methodVisitor).isParameterAccess(), is(true));
+		}
+
+		@Test
+		public void methodPropertyAccess() throws Exception {
+			long sensorId = 11L;
+			prepareMethodSensor(sensorId, false);
+			when(sensorInstrumentationPoint.isConstructor()).thenReturn(false);
+			when(sensorInstrumentationPoint.getSensorIds()).thenReturn(new long[] { sensorId });
+			when(sensorInstrumentationPoint.isPropertyAccess()).thenReturn(true);
+
+			MethodVisitor methodVisitor = factory.getMethodVisitor(sensorInstrumentationPoint, superMethodVisitor, 0, "method", "()V", false);
+
+			assertThat(((MethodInstrumenter) methodVisitor).isParameterAccess(), is(true));
+		}
+
+		@Test
+		public void methodUnknownSensor() throws Exception {
+			prepareMethodSensor(11L, false);
+			when(sensorInstrumentationPoint.isConstructor()).thenReturn(false);
+			when(sensorInstrumentationPoint.getSensorIds()).thenReturn(new long[] { 11L, 13L });
+
+			MethodVisitor methodVisitor = factory.getMethodVisitor(sensorInstrumentationPoint, superMethodVisitor, 0, "method", "()V", false);
+
+			assertThat(((MethodInstrumenter) methodVisitor).isParameterAccess(), is(true));
 		}
 
 		@Test
@@ -89,6 +169,24 @@ public class InstrumenterFactoryTest extends TestBase {
 			ConstructorInstrumenter methodInstrumenter = (ConstructorInstrumenter) methodVisitor;
 			assertThat(methodInstrumenter.getMethodId(), is(id));
 			assertThat(methodInstrumenter.isEnhancedExceptionSensor(), is(enhancedExceptionSensor));
+			assertThat(methodInstrumenter.isParameterAccess(), is(true));
+		}
+
+		@Test
+		public void constructorNoParameterAccess() throws Exception {
+			long id = 7L;
+			long sensorId = 11L;
+			prepareMethodSensor(sensorId, false);
+			when(sensorInstrumentationPoint.isConstructor()).thenReturn(true);
+			when(sensorInstrumentationPoint.getId()).thenReturn(id);
+			when(sensorInstrumentationPoint.getSensorIds()).thenReturn(new long[] { sensorId });
+
+			MethodVisitor methodVisitor = factory.getMethodVisitor(sensorInstrumentationPoint, superMethodVisitor, 0, "<init>", "()V", false);
+
+			assertThat(methodVisitor, is(instanceOf(ConstructorInstrumenter.class)));
+			ConstructorInstrumenter constructorInstrumenter = (ConstructorInstrumenter) methodVisitor;
+			assertThat(constructorInstrumenter.getMethodId(), is(id));
+			assertThat(constructorInstrumenter.isParameterAccess(), is(false));
 		}
 
 		@Test
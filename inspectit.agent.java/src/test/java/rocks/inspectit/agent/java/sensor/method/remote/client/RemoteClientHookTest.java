@@ -19,6 +19,7 @@ import org.testng.annotations.Test;
 import rocks.inspectit.agent.java.config.impl.RegisteredSensorConfig;
 import rocks.inspectit.agent.java.core.ICoreService;
 import rocks.inspectit.agent.java.core.IPlatformManager;
+import rocks.inspectit.agent.java.sdk.opentracing.Reporter;
 import rocks.inspectit.agent.java.sdk.opentracing.internal.impl.SpanContextImpl;
 import rocks.inspectit.agent.java.sdk.opentracing.internal.impl.SpanImpl;
 import rocks.inspectit.agent.java.tracing.core.ClientInterceptor;
@@ -84,6 +85,7 @@ public class RemoteClientHookTest extends TestBase {
 		when(context.getId()).thenReturn(spanId);
 		SpanImpl spanImpl = mock(SpanImpl.class);
 		when(spanImpl.context()).thenReturn(context);
+		when(context.isSampled()).thenReturn(true);
 		when(spanImpl.isClient()).thenReturn(true);
 		when(clientInterceptor.handleRequest(requestAdapter)).thenReturn(spanImpl);
 		when(clientInterceptor.handleResponse(spanImpl, responseAdapter)).thenReturn(spanImpl);
@@ -93,6 +95,11 @@ public class RemoteClientHookTest extends TestBase {
 		hook.firstAfterBody(methodId, sensorId, object, parameters, result, exception, rsc);
 		hook.secondAfterBody(coreService, methodId, sensorId, object, parameters, result, exception, rsc);
 
+		// the tracer reports the span with the reporter set by the hook
+		ArgumentCaptor<Reporter> reporterCaptor = ArgumentCaptor.forClass(Reporter.class);
+		verify(spanImpl).reportTo(reporterCaptor.capture());
+		reporterCaptor.getValue().report(spanImpl);
+
 		ArgumentCaptor<ClientSpan> captor = ArgumentCaptor.forClass(ClientSpan.class);
 		verify(coreService).addDefaultData(captor.capture());
 		assertThat(captor.getValue().getPlatformIdent(), is(platformId));
@@ -175,6 +182,7 @@ public class RemoteClientHookTest extends TestBase {
 		when(context.getId()).thenReturn(spanId);
 		SpanImpl spanImpl = mock(SpanImpl.class);
 		when(spanImpl.context()).thenReturn(context);
+		when(context.isSampled()).thenReturn(true);
 		when(spanImpl.isClient()).thenReturn(true);
 		when(clientInterceptor.handleRequest(requestAdapter)).thenReturn(spanImpl);
 
@@ -208,6 +216,7 @@ public class RemoteClientHookTest extends TestBase {
 		when(context.getId()).thenReturn(spanId);
 		SpanImpl spanImpl = mock(SpanImpl.class);
 		when(spanImpl.context()).thenReturn(context);
+		when(context.isSampled()).thenReturn(true);
 		when(spanImpl.isClient()).thenReturn(true);
 		when(clientInterceptor.handleRequest(requestAdapter)).thenReturn(spanImpl);
 		when(clientInterceptor.handleResponse(spanImpl, responseAdapter)).thenReturn(spanImpl);
@@ -222,6 +231,11 @@ public class RemoteClientHookTest extends TestBase {
 		hook.firstAfterBody(methodId, sensorId, object, parameters, result, false, rsc);
 		hook.secondAfterBody(coreService, methodId, sensorId, object, parameters, result, false, rsc);
 
+		// the tracer reports the span with the reporter set by the hook
+		ArgumentCaptor<Reporter> reporterCaptor = ArgumentCaptor.forClass(Reporter.class);
+		verify(spanImpl).reportTo(reporterCaptor.capture());
+		reporterCaptor.getValue().report(spanImpl);
+
 		ArgumentCaptor<ClientSpan> captor = ArgumentCaptor.forClass(ClientSpan.class);
 		verify(coreService).addDefaultData(captor.capture());
 		assertThat(captor.getValue().getPlatformIdent(), is(platformId));
@@ -255,6 +269,7 @@ public class RemoteClientHookTest extends TestBase {
 		when(context.getId()).thenReturn(spanId);
 		SpanImpl spanImpl = mock(SpanImpl.class);
 		when(spanImpl.context()).thenReturn(context);
+		when(context.isSampled()).thenReturn(true);
 		when(spanImpl.isClient()).thenReturn(true);
 		when(clientInterceptor.handleRequest(requestAdapter)).thenReturn(spanImpl);
 
@@ -272,6 +287,11 @@ public class RemoteClientHookTest extends TestBase {
 		hook.firstAfterBody(methodId, sensorId, object, parameters, result, false, rsc);
 		hook.secondAfterBody(coreService, methodId, sensorId, object, parameters, result, false, rsc);
 
+		// the tracer reports the span with the reporter set by the hook
+		ArgumentCaptor<Reporter> reporterCaptor = ArgumentCaptor.forClass(Reporter.class);
+		verify(spanImpl).reportTo(reporterCaptor.capture());
+		reporterCaptor.getValue().report(spanImpl);
+
 		ArgumentCaptor<ClientSpan> captor = ArgumentCaptor.forClass(ClientSpan.class);
 		verify(coreService).addDefaultData(captor.capture());
 		assertThat(captor.getValue().getPlatformIdent(), is(platformId));
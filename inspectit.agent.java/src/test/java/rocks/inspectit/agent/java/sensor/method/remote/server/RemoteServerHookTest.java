@@ -3,6 +3,7 @@ package rocks.inspectit.agent.java.sensor.method.remote.server;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -11,13 +12,16 @@ import static org.mockito.Mockito.when;
 
 import org.apache.commons.lang.math.RandomUtils;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.testng.annotations.Test;
 
 import rocks.inspectit.agent.java.config.impl.RegisteredSensorConfig;
 import rocks.inspectit.agent.java.core.ICoreService;
 import rocks.inspectit.agent.java.core.IPlatformManager;
+import rocks.inspectit.agent.java.sdk.opentracing.Reporter;
 import rocks.inspectit.agent.java.sdk.opentracing.internal.impl.SpanContextImpl;
 import rocks.inspectit.agent.java.sdk.opentracing.internal.impl.SpanImpl;
 import rocks.inspectit.agent.java.tracing.core.ServerInterceptor;
@@ -83,6 +87,7 @@ public class RemoteServerHookTest extends TestBase {
 		when(context.getId()).thenReturn(spanId);
 		SpanImpl spanImpl = mock(SpanImpl.class);
 		when(spanImpl.context()).thenReturn(context);
+		when(context.isSampled()).thenReturn(true);
 		when(spanImpl.isClient()).thenReturn(false);
 		when(serverInterceptor.handleRequest(requestAdapter)).thenReturn(spanImpl);
 		when(serverInterceptor.handleResponse(spanImpl, responseAdapter)).thenReturn(spanImpl);
@@ -92,6 +97,11 @@ public class RemoteServerHookTest extends TestBase {
 		hook.firstAfterBody(methodId, sensorId, object, parameters, result, exception, rsc);
 		hook.secondAfterBody(coreService, methodId, sensorId, object, parameters, result, exception, rsc);
 
+		// the tracer reports the span with the reporter set by the hook
+		ArgumentCaptor<Reporter> reporterCaptor = ArgumentCaptor.forClass(Reporter.class);
+		verify(spanImpl).reportTo(reporterCaptor.capture());
+		reporterCaptor.getValue().report(spanImpl);
+
 		ArgumentCaptor<ServerSpan> captor = ArgumentCaptor.forClass(ServerSpan.class);
 		verify(coreService).addDefaultData(captor.capture());
 		assertThat(captor.getValue().getPlatformIdent(), is(platformId));
@@ -106,6 +116,32 @@ public class RemoteServerHookTest extends TestBase {
 		verifyNoMoreInteractions(adapterProvider, serverInterceptor, coreService);
 	}
 
+	@Test
+	public void reporterSetBeforeFinish() throws Exception {
+		long methodId = 7l;
+		long sensorId = 13l;
+		Object[] parameters = new String[] { "blah", "bla" };
+		doReturn(requestAdapter).when(adapterProvider).getServerRequestAdapter(object, parameters, rsc);
+		doReturn(responseAdapter).when(adapterProvider).getServerResponseAdapter(object, parameters, result, false, rsc);
+
+		SpanContextImpl context = mock(SpanContextImpl.class);
+		SpanImpl spanImpl = mock(SpanImpl.class);
+		when(spanImpl.context()).thenReturn(context);
+		when(serverInterceptor.handleRequest(requestAdapter)).thenReturn(spanImpl);
+		when(serverInterceptor.handleResponse(spanImpl, responseAdapter)).thenReturn(spanImpl);
+
+		// execute calls
+		hook.beforeBody(methodId, sensorId, object, parameters, rsc);
+		hook.firstAfterBody(methodId, sensorId, object, parameters, result, false, rsc);
+		hook.secondAfterBody(coreService, methodId, sensorId, object, parameters, result, false, rsc);
+
+		// reporting is left to the tracer, so that sampling decisions apply
+		InOrder inOrder = inOrder(spanImpl, serverInterceptor);
+		inOrder.verify(spanImpl).reportTo(Mockito.<Reporter> any());
+		inOrder.verify(serverInterceptor).handleResponse(spanImpl, responseAdapter);
+		verifyZeroInteractions(coreService);
+	}
+
 	@Test
 	public void spanNull() throws Exception {
 		// ids
@@ -150,6 +186,7 @@ public class RemoteServerHookTest extends TestBase {
 		when(context.getId()).thenReturn(spanId);
 		SpanImpl spanImpl = mock(SpanImpl.class);
 		when(spanImpl.context()).thenReturn(context);
+		when(context.isSampled()).thenReturn(true);
 		when(spanImpl.isClient()).thenReturn(false);
 		when(serverInterceptor.handleRequest(requestAdapter)).thenReturn(spanImpl);
 		when(serverInterceptor.handleResponse(spanImpl, responseAdapter)).thenReturn(spanImpl);
@@ -164,6 +201,11 @@ public class RemoteServerHookTest extends TestBase {
 		hook.firstAfterBody(methodId, sensorId, object, parameters, result, false, rsc);
 		hook.secondAfterBody(coreService, methodId, sensorId, object, parameters, result, false, rsc);
 
+		// the tracer reports the span with the reporter set by the hook
+		ArgumentCaptor<Reporter> reporterCaptor = ArgumentCaptor.forClass(Reporter.class);
+		verify(spanImpl).reportTo(reporterCaptor.capture());
+		reporterCaptor.getValue().report(spanImpl);
+
 		ArgumentCaptor<ServerSpan> captor = ArgumentCaptor.forClass(ServerSpan.class);
 		verify(coreService).addDefaultData(captor.capture());
 		assertThat(captor.getValue().getPlatformIdent(), is(platformId));
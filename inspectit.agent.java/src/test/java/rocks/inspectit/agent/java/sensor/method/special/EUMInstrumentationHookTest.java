@@ -4,6 +4,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -13,7 +14,6 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringReader;
-import java.io.StringWriter;
 
 import javax.servlet.ServletOutputStream;
 import javax.servlet.http.Cookie;
@@ -33,6 +33,7 @@ import rocks.inspectit.agent.java.config.StorageException;
 import rocks.inspectit.agent.java.config.impl.SpecialSensorConfig;
 import rocks.inspectit.agent.java.eum.data.IDataHandler;
 import rocks.inspectit.agent.java.eum.instrumentation.JSAgentBuilder;
+import rocks.inspectit.agent.java.eum.instrumentation.JSAgentScript;
 import rocks.inspectit.agent.java.eum.instrumentation.TagInjectionResponseWrapper;
 import rocks.inspectit.agent.java.proxy.IProxySubject;
 import rocks.inspectit.agent.java.proxy.IRuntimeLinker;
@@ -54,6 +55,10 @@ public class EUMInstrumentationHookTest extends TestBase {
 
 	static final String AGENT_CODE = "doSomething();";
 
+	static final byte[] AGENT_GZIP_CODE = new byte[] { 1, 2, 3 };
+
+	static final JSAgentScript AGENT_SCRIPT = new JSAgentScript(AGENT_CODE.getBytes(), AGENT_GZIP_CODE, "hash");
+
 	@Mock
 	SpecialSensorConfig ssc;
 
@@ -78,6 +83,9 @@ public class EUMInstrumentationHookTest extends TestBase {
 	@Mock
 	JSAgentBuilder agentBuilder;
 
+	@Mock
+	ServletOutputStream outputStream;
+
 	@Mock
 	Logger log;
 
@@ -94,8 +102,8 @@ public class EUMInstrumentationHookTest extends TestBase {
 		when(dummyRequest.getRequestURI()).thenReturn("/mycool/url/here");
 		when(config.getEndUserMonitoringConfig()).thenReturn(eumConfig);
 		when(dummyResponse.getWriter()).thenReturn(Mockito.mock(PrintWriter.class));
-		when(dummyResponse.getOutputStream()).thenReturn(Mockito.mock(ServletOutputStream.class));
-		when(agentBuilder.buildJsFile(any(String.class))).thenReturn(AGENT_CODE);
+		when(dummyResponse.getOutputStream()).thenReturn(outputStream);
+		when(agentBuilder.getJsAgent(any(String.class))).thenReturn(AGENT_SCRIPT);
 
 	}
 
@@ -150,15 +158,63 @@ public class EUMInstrumentationHookTest extends TestBase {
 			hook = new EUMInstrumentationHook(linker, tracer, dataHandler, config, agentBuilder);
 			String scriptUrl = eumConfig.getScriptBaseUrl() + JSAgentModule.JAVASCRIPT_URL_PREFIX + "32488_" + eumConfig.getActiveModules() + ".JS";
 			when(dummyRequest.getRequestURI()).thenReturn(scriptUrl);
-			StringWriter response = new StringWriter();
-			PrintWriter pw = new PrintWriter(response);
-			when(dummyResponse.getWriter()).thenReturn(pw);
 
 			boolean intercepted = null != hook.beforeBody(METHOD_ID, dummyServlet, new Object[] { dummyRequest, dummyResponse }, ssc);
 
 			assertThat(intercepted, equalTo(true));
-			assertThat(response.toString(), equalTo(AGENT_CODE));
+			verify(agentBuilder).getJsAgent(eumConfig.getActiveModules());
+			verify(dummyResponse).setStatus(200);
+			verify(dummyResponse).setHeader("ETag", AGENT_SCRIPT.getETag());
+			verify(dummyResponse).setContentLength(AGENT_CODE.length());
+			verify(dummyResponse, never()).setHeader(eq("Content-Encoding"), any(String.class));
+			verify(outputStream).write(AGENT_SCRIPT.getContent());
+		}
+
+		@Test
+		public void testScriptInterceptionGzip() throws IOException {
+			hook = new EUMInstrumentationHook(linker, tracer, dataHandler, config, agentBuilder);
+			String scriptUrl = eumConfig.getScriptBaseUrl() + JSAgentModule.JAVASCRIPT_URL_PREFIX + "32488_" + eumConfig.getActiveModules() + ".JS";
+			when(dummyRequest.getRequestURI()).thenReturn(scriptUrl);
+			when(dummyRequest.getHeader("Accept-Encoding")).thenReturn("deflate, gzip;q=1.0, br");
+
+			boolean intercepted = null != hook.beforeBody(METHOD_ID, dummyServlet, new Object[] { dummyRequest, dummyResponse }, ssc);
+
+			assertThat(intercepted, equalTo(true));
+			verify(dummyResponse).setStatus(200);
+			verify(dummyResponse).setHeader("ETag", AGENT_SCRIPT.getGzipETag());
+			verify(dummyResponse).setHeader("Content-Encoding", "gzip");
+			verify(dummyResponse).setContentLength(AGENT_GZIP_CODE.length);
+			verify(outputStream).write(AGENT_GZIP_CODE);
+		}
 
+		@Test
+		public void testScriptInterceptionGzipRefused() throws IOException {
+			hook = new EUMInstrumentationHook(linker, tracer, dataHandler, config, agentBuilder);
+			String scriptUrl = eumConfig.getScriptBaseUrl() + JSAgentModule.JAVASCRIPT_URL_PREFIX + "32488_" + eumConfig.getActiveModules() + ".JS";
+			when(dummyRequest.getRequestURI()).thenReturn(scriptUrl);
+			when(dummyRequest.getHeader("Accept-Encoding")).thenReturn("gzip;q=0");
+
+			boolean intercepted = null != hook.beforeBody(METHOD_ID, dummyServlet, new Object[] { dummyRequest, dummyResponse }, ssc);
+
+			assertThat(intercepted, equalTo(true));
+			verify(dummyResponse, never()).setHeader(eq("Content-Encoding"), any(String.class));
+			verify(outputStream).write(AGENT_SCRIPT.getContent());
+		}
+
+		@Test
+		public void testScriptNotModified() throws IOException {
+			hook = new EUMInstrumentationHook(linker, tracer, dataHandler, config, agentBuilder);
+			String scriptUrl = eumConfig.getScriptBaseUrl() + JSAgentModule.JAVASCRIPT_URL_PREFIX + "32488_" + eumConfig.getActiveModules() + ".JS";
+			when(dummyRequest.getRequestURI()).thenReturn(scriptUrl);
+			when(dummyRequest.getHeader("If-None-Match")).thenReturn("\"other\", " + AGENT_SCRIPT.getETag());
+
+			boolean intercepted = null != hook.beforeBody(METHOD_ID, dummyServlet, new Object[] { dummyRequest, dummyResponse }, ssc);
+
+			assertThat(intercepted, equalTo(true));
+			verify(dummyResponse).setStatus(304);
+			verify(dummyResponse).setHeader("ETag", AGENT_SCRIPT.getETag());
+			verify(dummyResponse, never()).getOutputStream();
+			verify(dummyResponse, never()).getWriter();
 		}
 
 		@Test
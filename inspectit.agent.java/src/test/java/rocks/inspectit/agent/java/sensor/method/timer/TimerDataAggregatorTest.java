@@ -0,0 +1,142 @@
+package rocks.inspectit.agent.java.sensor.method.timer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.agent.java.core.ICoreService;
+import rocks.inspectit.shared.all.communication.data.ParameterContentData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * Tests for the {@link TimerDataAggregator}.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class TimerDataAggregatorTest extends TestBase {
+
+	@InjectMocks
+	TimerDataAggregator aggregator;
+
+	@Mock
+	ICoreService coreService;
+
+	public static class Aggregate extends TimerDataAggregatorTest {
+
+		@Test
+		public void sameMethod() {
+			aggregator.aggregate(1L, 2L, 3L, null, 10d, 5d, false);
+			aggregator.aggregate(1L, 2L, 3L, null, 20d, 3d, true);
+			aggregator.flush();
+
+			ArgumentCaptor<TimerData> captor = ArgumentCaptor.forClass(TimerData.class);
+			verify(coreService).addDefaultData(captor.capture());
+			verifyNoMoreInteractions(coreService);
+			TimerData timerData = captor.getValue();
+			assertThat(timerData.getPlatformIdent(), is(1L));
+			assertThat(timerData.getSensorTypeIdent(), is(2L));
+			assertThat(timerData.getMethodIdent(), is(3L));
+			assertThat(timerData.getTimeStamp(), is(not(nullValue())));
+			assertThat(timerData.getCount(), is(2L));
+			assertThat(timerData.getDuration(), is(30d));
+			assertThat(timerData.getMin(), is(10d));
+			assertThat(timerData.getMax(), is(20d));
+			assertThat(timerData.getCpuDuration(), is(8d));
+			assertThat(timerData.getCpuMin(), is(3d));
+			assertThat(timerData.getCpuMax(), is(5d));
+			assertThat(timerData.isCharting(), is(true));
+		}
+
+		@Test
+		public void differentMethods() {
+			aggregator.aggregate(1L, 2L, 3L, null, 10d, -1d, false);
+			aggregator.aggregate(1L, 2L, 4L, null, 20d, -1d, false);
+			aggregator.flush();
+
+			ArgumentCaptor<TimerData> captor = ArgumentCaptor.forClass(TimerData.class);
+			verify(coreService, times(2)).addDefaultData(captor.capture());
+			verifyNoMoreInteractions(coreService);
+			for (TimerData timerData : captor.getAllValues()) {
+				assertThat(timerData.getCount(), is(1L));
+				assertThat(timerData.isCpuMetricDataAvailable(), is(false));
+			}
+		}
+
+		@Test
+		public void differentParameters() {
+			ParameterContentData first = new ParameterContentData();
+			first.setContent("first");
+			ParameterContentData second = new ParameterContentData();
+			second.setContent("second");
+			List<ParameterContentData> firstList = Collections.singletonList(first);
+			List<ParameterContentData> secondList = Collections.singletonList(second);
+
+			aggregator.aggregate(1L, 2L, 3L, firstList, 10d, -1d, false);
+			aggregator.aggregate(1L, 2L, 3L, secondList, 20d, -1d, false);
+			aggregator.aggregate(1L, 2L, 3L, firstList, 30d, -1d, false);
+			aggregator.flush();
+
+			ArgumentCaptor<TimerData> captor = ArgumentCaptor.forClass(TimerData.class);
+			verify(coreService, times(2)).addDefaultData(captor.capture());
+			verifyNoMoreInteractions(coreService);
+			for (TimerData timerData : captor.getAllValues()) {
+				if (timerData.getParameterContentData().contains(first)) {
+					assertThat(timerData.getCount(), is(2L));
+				} else {
+					assertThat(timerData.getCount(), is(1L));
+				}
+			}
+		}
+	}
+
+	public static class Flush extends TimerDataAggregatorTest {
+
+		@Test
+		public void nothingAggregated() {
+			aggregator.flush();
+
+			verifyZeroInteractions(coreService);
+		}
+
+		@Test
+		public void newIntervalAfterFlush() {
+			aggregator.aggregate(1L, 2L, 3L, null, 10d, -1d, false);
+			aggregator.flush();
+			aggregator.aggregate(1L, 2L, 3L, null, 20d, -1d, false);
+			aggregator.flush();
+
+			ArgumentCaptor<TimerData> captor = ArgumentCaptor.forClass(TimerData.class);
+			verify(coreService, times(2)).addDefaultData(captor.capture());
+			verifyNoMoreInteractions(coreService);
+			assertThat(captor.getAllValues().get(0).getDuration(), is(10d));
+			assertThat(captor.getAllValues().get(1).getDuration(), is(20d));
+		}
+
+		@Test
+		public void flushedOnlyOnce() {
+			aggregator.aggregate(1L, 2L, 3L, null, 10d, -1d, false);
+			aggregator.flush();
+			aggregator.flush();
+
+			verify(coreService).addDefaultData(any(TimerData.class));
+			verifyNoMoreInteractions(coreService);
+		}
+	}
+}
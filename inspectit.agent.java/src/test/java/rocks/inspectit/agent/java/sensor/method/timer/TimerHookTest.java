@@ -344,4 +344,32 @@ public class TimerHookTest extends AbstractLogSupport {
 		assertThat(timerData.isCharting(), is(false));
 	}
 
+	@Test
+	public void aggregation() {
+		long platformId = 1L;
+		long methodId = 3L;
+		long sensorTypeId = 11L;
+		Object object = mock(Object.class);
+		Object[] parameters = new Object[0];
+		Object result = mock(Object.class);
+		TimerDataAggregator timerDataAggregator = mock(TimerDataAggregator.class);
+		timerHook = new TimerHook(timer, platformManager, propertyAccessor, new HashMap<String, Object>(), threadMXBean, timerDataAggregator);
+
+		Double firstTimerValue = 1000.0d;
+		Double secondTimerValue = 1323.0d;
+
+		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
+		when(threadMXBean.getCurrentThreadCpuTime()).thenReturn(1000000L).thenReturn(3000000L);
+		when(platformManager.getPlatformId()).thenReturn(platformId);
+		when(registeredSensorConfig.getSettings()).thenReturn(Collections.<String, Object> singletonMap("charting", Boolean.TRUE));
+
+		timerHook.beforeBody(methodId, sensorTypeId, object, parameters, registeredSensorConfig);
+		timerHook.firstAfterBody(methodId, sensorTypeId, object, parameters, result, false, registeredSensorConfig);
+		timerHook.secondAfterBody(coreService, methodId, sensorTypeId, object, parameters, result, false, registeredSensorConfig);
+
+		verify(timerDataAggregator).aggregate(platformId, sensorTypeId, methodId, null, secondTimerValue - firstTimerValue, 2.0d, true);
+		verifyNoMoreInteractions(timerDataAggregator);
+		verifyZeroInteractions(coreService, propertyAccessor, object, result);
+	}
+
 }
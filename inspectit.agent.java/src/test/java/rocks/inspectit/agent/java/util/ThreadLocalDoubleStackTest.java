@@ -0,0 +1,60 @@
+package rocks.inspectit.agent.java.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.NoSuchElementException;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("PMD")
+public class ThreadLocalDoubleStackTest {
+
+	private ThreadLocalDoubleStack threadLocalStack;
+
+	@BeforeMethod
+	public void initTestClass() {
+		threadLocalStack = new ThreadLocalDoubleStack();
+	}
+
+	@Test
+	public void oneValue() {
+		threadLocalStack.push(1.5d);
+
+		double returnValue = threadLocalStack.pop();
+
+		assertThat(returnValue, is(1.5d));
+		assertThat(threadLocalStack.get().size(), is(0));
+	}
+
+	@Test(expectedExceptions = { NoSuchElementException.class })
+	public void noSuchElement() {
+		threadLocalStack.pop();
+	}
+
+	@Test(invocationCount = 10, threadPoolSize = 10)
+	public void stackTest() {
+		threadLocalStack.push(1d);
+		threadLocalStack.push(2d);
+		threadLocalStack.push(3d);
+
+		assertThat(threadLocalStack.pop(), is(3d));
+		assertThat(threadLocalStack.pop(), is(2d));
+		assertThat(threadLocalStack.pop(), is(1d));
+	}
+
+	@Test
+	public void grow() {
+		int count = 1000;
+		for (int i = 0; i < count; i++) {
+			threadLocalStack.push(i);
+		}
+
+		assertThat(threadLocalStack.get().size(), is(count));
+		for (int i = count - 1; i >= 0; i--) {
+			assertThat(threadLocalStack.pop(), is((double) i));
+		}
+	}
+
+}
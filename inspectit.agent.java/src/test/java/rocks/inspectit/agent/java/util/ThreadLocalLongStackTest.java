@@ -0,0 +1,60 @@
+package rocks.inspectit.agent.java.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.NoSuchElementException;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("PMD")
+public class ThreadLocalLongStackTest {
+
+	private ThreadLocalLongStack threadLocalStack;
+
+	@BeforeMethod
+	public void initTestClass() {
+		threadLocalStack = new ThreadLocalLongStack();
+	}
+
+	@Test
+	public void oneValue() {
+		threadLocalStack.push(15L);
+
+		long returnValue = threadLocalStack.pop();
+
+		assertThat(returnValue, is(15L));
+		assertThat(threadLocalStack.get().size(), is(0));
+	}
+
+	@Test(expectedExceptions = { NoSuchElementException.class })
+	public void noSuchElement() {
+		threadLocalStack.pop();
+	}
+
+	@Test(invocationCount = 10, threadPoolSize = 10)
+	public void stackTest() {
+		threadLocalStack.push(1L);
+		threadLocalStack.push(2L);
+		threadLocalStack.push(3L);
+
+		assertThat(threadLocalStack.pop(), is(3L));
+		assertThat(threadLocalStack.pop(), is(2L));
+		assertThat(threadLocalStack.pop(), is(1L));
+	}
+
+	@Test
+	public void grow() {
+		int count = 1000;
+		for (int i = 0; i < count; i++) {
+			threadLocalStack.push(i);
+		}
+
+		assertThat(threadLocalStack.get().size(), is(count));
+		for (int i = count - 1; i >= 0; i--) {
+			assertThat(threadLocalStack.pop(), is((long) i));
+		}
+	}
+
+}
@@ -0,0 +1,136 @@
+package rocks.inspectit.server.cache.impl;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import rocks.inspectit.server.cache.IBufferElement;
+import rocks.inspectit.server.indexing.impl.RootBranchFactory;
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 5)
+@Fork(2)
+@State(Scope.Benchmark)
+public class AtomicBufferPerfTest {
+
+	/**
+	 * Buffer under test.
+	 */
+	private AtomicBuffer<DefaultData> buffer;
+
+	/**
+	 * Workers that analyze, index and evict the buffer while producers insert.
+	 */
+	private BufferWorker[] workers;
+
+	/**
+	 * Number of elements each producer inserts in one invocation.
+	 */
+	@Param({ "1", "16", "64" })
+	private int batchSize;
+
+	/**
+	 * Maximum size of the buffer in bytes, 64MB.
+	 */
+	@Param({ "67108864" })
+	private long bufferSize;
+
+	/**
+	 * Number of different agents to simulate.
+	 */
+	@Param({ "2" })
+	private int agents;
+
+	/**
+	 * Set up, prepare buffer and start the workers.
+	 */
+	@Setup(Level.Trial)
+	public void initBuffer() throws Exception {
+		BufferProperties bufferProperties = new BufferProperties() {
+			@Override
+			public long getInitialBufferSize() {
+				return bufferSize;
+			}
+
+			@Override
+			public float getObjectSecurityExpansionRate(long size) {
+				return 0.2f;
+			}
+		};
+		bufferProperties.evictionOccupancyPercentage = 0.8f;
+		bufferProperties.evictionFragmentSizePercentage = 0.2f;
+		bufferProperties.bytesMaintenancePercentage = 0.05f;
+		bufferProperties.indexingTreeCleaningThreads = 1;
+		bufferProperties.indexingWaitTime = 50L;
+
+		buffer = new AtomicBuffer<>();
+		buffer.bufferProperties = bufferProperties;
+		buffer.objectSizes = new ObjectSizes64Bits();
+		buffer.indexingTree = new RootBranchFactory().getObject();
+		buffer.log = LoggerFactory.getLogger(AtomicBuffer.class);
+		buffer.postConstruct();
+
+		workers = new BufferWorker[] { new BufferAnalyzer(buffer), new BufferIndexer(buffer), new BufferEvictor(buffer) };
+		for (BufferWorker worker : workers) {
+			worker.start();
+		}
+	}
+
+	/**
+	 * Stops the workers.
+	 */
+	@TearDown(Level.Trial)
+	public void stopWorkers() {
+		for (BufferWorker worker : workers) {
+			worker.interrupt();
+		}
+	}
+
+	// Multi-producer insert benchmarks, each invocation inserts batchSize elements
+	@Benchmark
+	@Threads(4)
+	public void putSingle() {
+		for (int i = 0; i < batchSize; i++) {
+			buffer.put(new BufferElement<>(createData(i)));
+		}
+	}
+
+	@Benchmark
+	@Threads(4)
+	public void putBatch() {
+		List<IBufferElement<DefaultData>> elements = new ArrayList<>(batchSize);
+		for (int i = 0; i < batchSize; i++) {
+			elements.add(new BufferElement<>(createData(i)));
+		}
+		buffer.put(elements);
+	}
+
+	// private helpers
+	private DefaultData createData(int i) {
+		TimerData timerData = new TimerData(new Timestamp(System.currentTimeMillis()), 1L + (i % agents), 1L, 1L + i);
+		timerData.setCount(1L);
+		return timerData;
+	}
+
+}
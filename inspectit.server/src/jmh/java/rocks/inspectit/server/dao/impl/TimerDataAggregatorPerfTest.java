@@ -0,0 +1,98 @@
+package rocks.inspectit.server.dao.impl;
+
+import java.sql.Timestamp;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import rocks.inspectit.shared.all.communication.data.TimerData;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 5)
+@Fork(2)
+@State(Scope.Benchmark)
+public class TimerDataAggregatorPerfTest {
+
+	/**
+	 * Aggregator under test.
+	 */
+	private TimerDataAggregator aggregator;
+
+	/**
+	 * Timer data to aggregate.
+	 */
+	private TimerData[] timerData;
+
+	/**
+	 * Number of different methods to aggregate, each method is one element in the aggregator.
+	 */
+	@Param({ "10", "1000" })
+	private int methods;
+
+	/**
+	 * Set up, prepare aggregator and the data. The cache cleaner is not started and the aggregator
+	 * can hold all elements, thus nothing is persisted.
+	 */
+	@Setup(Level.Trial)
+	public void init() {
+		aggregator = new TimerDataAggregator(null);
+		aggregator.aggregationPeriod = 10000L;
+		aggregator.maxElements = Integer.MAX_VALUE;
+
+		long timestamp = System.currentTimeMillis();
+		timerData = new TimerData[methods];
+		for (int i = 0; i < methods; i++) {
+			timerData[i] = new TimerData(new Timestamp(timestamp), 1L, 1L, i);
+			timerData[i].setCount(1L);
+			timerData[i].setDuration(1d);
+			timerData[i].calculateMin(1d);
+			timerData[i].calculateMax(1d);
+		}
+	}
+
+	// Aggregation throughput with growing number of ingest threads
+	@Benchmark
+	@Threads(1)
+	public void aggregate1Thread() {
+		aggregate();
+	}
+
+	@Benchmark
+	@Threads(2)
+	public void aggregate2Threads() {
+		aggregate();
+	}
+
+	@Benchmark
+	@Threads(4)
+	public void aggregate4Threads() {
+		aggregate();
+	}
+
+	@Benchmark
+	@Threads(8)
+	public void aggregate8Threads() {
+		aggregate();
+	}
+
+	// private helpers
+	private void aggregate() {
+		aggregator.processTimerData(timerData[ThreadLocalRandom.current().nextInt(methods)]);
+	}
+
+}
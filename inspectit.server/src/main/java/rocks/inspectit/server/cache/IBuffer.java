@@ -1,5 +1,7 @@
 package rocks.inspectit.server.cache;
 
+import java.util.List;
+
 /**
  * Interface for Buffer functionality.
  *
@@ -18,6 +20,14 @@ public interface IBuffer<E> {
 	 */
 	void put(IBufferElement<E> element);
 
+	/**
+	 * Puts all {@link IBufferElement}s of the list in the buffer keeping the order of the list.
+	 *
+	 * @param elements
+	 *            Elements to be put into the buffer.
+	 */
+	void put(List<IBufferElement<E>> elements);
+
 	/**
 	 * Performs the eviction from the buffer. The element or elements that needs to be evicted
 	 * depends on buffer implementation.
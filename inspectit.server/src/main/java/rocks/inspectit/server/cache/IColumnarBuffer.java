@@ -0,0 +1,39 @@
+package rocks.inspectit.server.cache;
+
+import java.util.List;
+
+import rocks.inspectit.shared.all.indexing.IIndexQuery;
+
+/**
+ * Buffer that keeps part of the data outside of the indexing tree. Such data is not returned by
+ * the indexing tree queries and has to be queried from the buffer directly.
+ *
+ * @author agent
+ *
+ * @param <E>
+ *            Type of objects in buffer.
+ */
+public interface IColumnarBuffer<E> extends IBuffer<E> {
+
+	/**
+	 * Returns the data kept outside of the indexing tree that fulfills the query. Data objects are
+	 * created on every call.
+	 *
+	 * @param query
+	 *            Index query to execute.
+	 * @return Result list, never <code>null</code>.
+	 */
+	List<E> query(IIndexQuery query);
+
+	/**
+	 * Returns the data kept outside of the indexing tree that is equal to the template, same as
+	 * the {@link rocks.inspectit.shared.cs.indexing.ITreeComponent#get(Object)} of the indexing
+	 * tree. Data object is created on every call.
+	 *
+	 * @param template
+	 *            Template holding at least the id of the wanted object.
+	 * @return Data object or <code>null</code> if it is not kept in this buffer.
+	 */
+	E get(E template);
+
+}
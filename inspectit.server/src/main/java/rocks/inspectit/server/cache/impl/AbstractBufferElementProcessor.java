@@ -18,6 +18,11 @@ import rocks.inspectit.shared.all.communication.DefaultData;
  */
 abstract class AbstractBufferElementProcessor<E extends DefaultData> {
 
+	/**
+	 * Maximum number of elements processed in one run.
+	 */
+	static final int MAX_RUN_LENGTH = 64;
+
 	/**
 	 * {@link AtomicBuffer} to work on.
 	 */
@@ -58,9 +63,10 @@ abstract class AbstractBufferElementProcessor<E extends DefaultData> {
 	}
 
 	/**
-	 * Processes next element to be processed. Note that this method passes the element to the
-	 * {@link #process(IBufferElement, IBufferElement)} method so that sub-classes can execute the
-	 * real processing. This method handles waiting of element to be available for processing.
+	 * Processes next run of elements to be processed. Note that this method passes the elements to
+	 * the {@link #process(IBufferElement, IBufferElement, int, IBufferElement)} method so that
+	 * sub-classes can execute the real processing. This method handles waiting of element to be
+	 * available for processing.
 	 *
 	 * @throws InterruptedException
 	 *             If {@link InterruptedException} occurs.
@@ -110,7 +116,21 @@ abstract class AbstractBufferElementProcessor<E extends DefaultData> {
 					break;
 				}
 
-				if (process(elementToProcess, lastProcessElement)) {
+				// collect the run of the following elements that can be processed together
+				IBufferElement<E> runLastElement = elementToProcess;
+				int runLength = 1;
+				if (isReadyForProcessing(elementToProcess)) {
+					while (runLength < MAX_RUN_LENGTH) {
+						IBufferElement<E> nextElement = runLastElement.getNextElement();
+						if ((this.atomicBuffer.emptyBufferElement == nextElement) || !isReadyForProcessing(nextElement)) { // NOPMD
+							break;
+						}
+						runLastElement = nextElement;
+						runLength++;
+					}
+				}
+
+				if (process(elementToProcess, runLastElement, runLength, lastProcessElement)) {
 					break;
 				}
 			} finally {
@@ -120,15 +140,35 @@ abstract class AbstractBufferElementProcessor<E extends DefaultData> {
 	}
 
 	/**
-	 * Sub-classes should implement this method with the real processing.
+	 * Returns if the element can be processed. Only elements ready for processing are added to the
+	 * run of elements passed to the
+	 * {@link #process(IBufferElement, IBufferElement, int, IBufferElement)}.
+	 *
+	 * @param element
+	 *            Element to check.
+	 * @return <code>true</code> if element can be processed, default implementation always returns
+	 *         <code>true</code>.
+	 */
+	protected boolean isReadyForProcessing(IBufferElement<E> element) {
+		return true;
+	}
+
+	/**
+	 * Sub-classes should implement this method with the real processing. The run of elements to
+	 * process starts with the element next to the last processed one and the processing must be
+	 * claimed by moving the last processed element to the last element of the run.
 	 *
-	 * @param elementToProcess
-	 *            Element to be processed.
+	 * @param firstElement
+	 *            First element of the run to be processed.
+	 * @param lastElement
+	 *            Last element of the run to be processed.
+	 * @param runLength
+	 *            Number of elements in the run.
 	 * @param lastProcessedElement
 	 *            Last successfully processed element.
-	 * @return This method should return <code>true</code> if element was processed and
+	 * @return This method should return <code>true</code> if elements were processed and
 	 *         <code>false</code> otherwise.
 	 */
-	public abstract boolean process(IBufferElement<E> elementToProcess, IBufferElement<E> lastProcessedElement);
+	public abstract boolean process(IBufferElement<E> firstElement, IBufferElement<E> lastElement, int runLength, IBufferElement<E> lastProcessedElement);
 
 }
\ No newline at end of file
@@ -37,20 +37,28 @@ class AnalyzeBufferElementProcessor<E extends DefaultData> extends AbstractBuffe
 
 	/**
 	 * {@inheritDoc}
+	 * <p>
+	 * Sizes of all elements in the run are added to the buffer size at once.
 	 */
 	@Override
-	public boolean process(IBufferElement<E> elementToProcess, IBufferElement<E> lastProcessedElement) {
+	public boolean process(IBufferElement<E> firstElement, IBufferElement<E> lastElement, int runLength, IBufferElement<E> lastProcessedElement) {
 		// only thread that execute compare and set successfully can perform changes
-		if (lastProcessed.compareAndSet(lastProcessedElement, elementToProcess)) {
+		if (lastProcessed.compareAndSet(lastProcessedElement, lastElement)) {
 			// perform analysis
-			elementToProcess.calculateAndSetBufferElementSize(atomicBuffer.objectSizes);
-			elementToProcess.setBufferElementState(BufferElementState.ANALYZED);
-			atomicBuffer.addToCurrentSize(elementToProcess.getBufferElementSize(), true);
-			atomicBuffer.elementsAnalyzed.incrementAndGet();
+			long runSize = 0;
+			IBufferElement<E> element = firstElement;
+			for (int i = 0; i < runLength; i++) {
+				element.calculateAndSetBufferElementSize(atomicBuffer.objectSizes);
+				element.setBufferElementState(BufferElementState.ANALYZED);
+				runSize += element.getBufferElementSize();
+				element = element.getNextElement();
+			}
+			atomicBuffer.addToCurrentSize(runSize, true);
+			atomicBuffer.elementsAnalyzed.addAndGet(runLength);
 			return true;
 		}
 
 		return false;
 	}
 
-}
\ No newline at end of file
+}
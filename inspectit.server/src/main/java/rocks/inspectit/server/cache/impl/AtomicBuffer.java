@@ -1,6 +1,7 @@
 package rocks.inspectit.server.cache.impl;
 
 import java.text.NumberFormat;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -220,26 +221,69 @@ public class AtomicBuffer<E extends DefaultData> implements IBuffer<E> {
 	 */
 	@Override
 	public void put(IBufferElement<E> element) {
-		boolean informAnalyzing = false;
-		boolean informIndexing = false;
-
 		// the element that is now first has to have a empty buffer element as next one
 		element.setNextElement(emptyBufferElement);
 
+		link(element, element, 1);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The elements are linked to a chain before the chain is added to the buffer with a single
+	 * compare and set. Analyzing and indexing threads are informed at most once for the complete
+	 * list.
+	 * <p>
+	 * This method is designed for multiply thread access.
+	 */
+	@Override
+	public void put(List<IBufferElement<E>> elements) {
+		if (elements.isEmpty()) {
+			return;
+		}
+
+		// link the chain before publishing it
+		IBufferElement<E> chainFirst = elements.get(0);
+		IBufferElement<E> chainLast = chainFirst;
+		for (int i = 1; i < elements.size(); i++) {
+			IBufferElement<E> element = elements.get(i);
+			chainLast.setNextElement(element);
+			chainLast = element;
+		}
+		chainLast.setNextElement(emptyBufferElement);
+
+		link(chainFirst, chainLast, elements.size());
+	}
+
+	/**
+	 * Links the chain of already connected elements to the buffer and informs the analyzing and
+	 * indexing threads if they are waiting for the elements.
+	 *
+	 * @param chainFirst
+	 *            Oldest element of the chain.
+	 * @param chainLast
+	 *            Newest element of the chain that points to the empty buffer element.
+	 * @param count
+	 *            Number of elements in the chain.
+	 */
+	private void link(IBufferElement<E> chainFirst, IBufferElement<E> chainLast, int count) {
+		boolean informAnalyzing = false;
+		boolean informIndexing = false;
+
 		while (true) {
 			// retrieving currently first element
 			IBufferElement<E> currentlyFirst = first.get();
 
 			// only thread that successfully execute compare and set will be able to perform changes
-			if (first.compareAndSet(currentlyFirst, element)) {
+			if (first.compareAndSet(currentlyFirst, chainLast)) {
 
 				// increment number of added elements
-				elementsAdded.incrementAndGet();
+				elementsAdded.addAndGet(count);
 
 				// if currently first is not pointing to marker, it means that we already have
 				// elements in the buffer, so connect elements
 				if (!emptyBufferElement.equals(currentlyFirst)) {
-					currentlyFirst.setNextElement(element);
+					currentlyFirst.setNextElement(chainFirst);
 					// see if last index or analyzed points to the last added element
 					// if so, inform
 					informAnalyzing = currentlyFirst == lastAnalyzed.get();
@@ -247,7 +291,7 @@ public class AtomicBuffer<E extends DefaultData> implements IBuffer<E> {
 				} else {
 					// otherwise this is the first element in the buffer, so set last
 					// and inform both indexing and analyzing
-					last.set(element);
+					last.set(chainFirst);
 					informAnalyzing = true;
 					informIndexing = true;
 				}
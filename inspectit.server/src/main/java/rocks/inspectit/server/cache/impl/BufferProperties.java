@@ -131,6 +131,18 @@ public class BufferProperties {
 	@Value(value = "${buffer.maxOldSpaceOccupancy}")
 	float maxOldSpaceOccupancy;
 
+	/**
+	 * If the timer, SQL and HTTP timer data should be kept in the off-heap columnar store.
+	 */
+	@Value(value = "${buffer.columnarStoreActive}")
+	boolean columnarStoreActive;
+
+	/**
+	 * Maximum size in bytes of the off-heap columnar store.
+	 */
+	@Value(value = "${buffer.columnarStoreMaxSize}")
+	long columnarStoreMaxSize;
+
 	/**
 	 * Returns buffer eviction occupancy percentage.
 	 *
@@ -265,6 +277,24 @@ public class BufferProperties {
 		return maxOldSpaceOccupancy;
 	}
 
+	/**
+	 * Gets {@link #columnarStoreActive}.
+	 *
+	 * @return {@link #columnarStoreActive}
+	 */
+	public boolean isColumnarStoreActive() {
+		return columnarStoreActive;
+	}
+
+	/**
+	 * Gets {@link #columnarStoreMaxSize}.
+	 *
+	 * @return {@link #columnarStoreMaxSize}
+	 */
+	public long getColumnarStoreMaxSize() {
+		return columnarStoreMaxSize;
+	}
+
 	/**
 	 * Returns the initial buffer size based on the property set.
 	 *
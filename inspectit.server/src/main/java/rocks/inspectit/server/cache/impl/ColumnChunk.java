@@ -0,0 +1,674 @@
+package rocks.inspectit.server.cache.impl;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.commons.collections.CollectionUtils;
+
+import rocks.inspectit.shared.all.communication.data.HttpTimerData;
+import rocks.inspectit.shared.all.communication.data.SqlStatementData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.indexing.IIndexQuery;
+import rocks.inspectit.shared.all.util.MappedByteBufferUtils;
+
+/**
+ * Fixed capacity chunk of the {@link ColumnarBuffer} that holds the numeric values of the timer
+ * data objects column by column in one direct byte buffer. Values that do not fit into the columns
+ * (SQL strings, HTTP information, parameters, etc.) are kept as the serialized bytes of the
+ * complete object in a separate direct byte buffer that grows on demand.
+ * <p>
+ * Only one thread is allowed to append to the chunk at a time, while any number of threads can
+ * read the rows that were appended before the read started. The chunk is never modified after it
+ * is full, thus chunk is evicted as whole.
+ * <p>
+ * The direct buffers are released explicitly, as the CMR runs with the explicit GC disabled and
+ * direct memory would otherwise be freed only when the buffer objects are collected. Readers must
+ * {@link #retain()} the chunk before and {@link #release()} it after reading, the creator of the
+ * chunk holds the initial reference and releases it on eviction. The buffers are freed when the
+ * last reference is released.
+ *
+ * @author agent
+ *
+ */
+public class ColumnChunk {
+
+	/**
+	 * Default amount of rows in one chunk.
+	 */
+	public static final int DEFAULT_CAPACITY = 4096;
+
+	/**
+	 * Maximum size in bytes of the serialized objects held by one chunk.
+	 */
+	public static final int MAX_SERIALIZED_BYTES = 8 * 1024 * 1024;
+
+	/**
+	 * Initial size in bytes of the buffer holding the serialized objects.
+	 */
+	private static final int INITIAL_SERIALIZED_BYTES = 64 * 1024;
+
+	/**
+	 * Classes that can be stored in the chunk. Index in the array is the type saved in the type
+	 * column.
+	 */
+	private static final Class<?>[] TYPES = new Class<?>[] { TimerData.class, SqlStatementData.class, HttpTimerData.class };
+
+	/**
+	 * Long columns.
+	 */
+	private static final int ID = 0, PLATFORM_IDENT = 1, SENSOR_TYPE_IDENT = 2, METHOD_IDENT = 3, TIME = 4, COUNT = 5, EXCLUSIVE_COUNT = 6;
+
+	/**
+	 * Double columns.
+	 */
+	private static final int MIN = 0, MAX = 1, DURATION = 2, VARIANCE = 3, CPU_MIN = 4, CPU_MAX = 5, CPU_DURATION = 6, EXCLUSIVE_MIN = 7, EXCLUSIVE_MAX = 8, EXCLUSIVE_DURATION = 9;
+
+	/**
+	 * Int columns.
+	 */
+	private static final int NANOS = 0, SERIALIZED_OFFSET = 1, SERIALIZED_LENGTH = 2;
+
+	/**
+	 * Byte columns.
+	 */
+	private static final int TYPE = 0, CHARTING = 1;
+
+	/**
+	 * Number of the columns per value size.
+	 */
+	private static final int LONG_COLUMNS = 7, DOUBLE_COLUMNS = 10, INT_COLUMNS = 3, BYTE_COLUMNS = 2;
+
+	/**
+	 * Size of one row in bytes.
+	 */
+	static final int ROW_SIZE = ((LONG_COLUMNS + DOUBLE_COLUMNS) * 8) + (INT_COLUMNS * 4) + BYTE_COLUMNS;
+
+	/**
+	 * Capacity of the chunk in rows.
+	 */
+	private final int capacity;
+
+	/**
+	 * Direct buffer holding all columns.
+	 */
+	private final ByteBuffer columns;
+
+	/**
+	 * Offset of the first double column.
+	 */
+	private final int doubleColumnsOffset;
+
+	/**
+	 * Offset of the first int column.
+	 */
+	private final int intColumnsOffset;
+
+	/**
+	 * Offset of the first byte column.
+	 */
+	private final int byteColumnsOffset;
+
+	/**
+	 * Direct buffer holding the serialized objects. Replaced by a bigger copy when full.
+	 */
+	private volatile ByteBuffer serialized;
+
+	/**
+	 * Lock for reading the {@link #serialized} buffer, so that the replaced buffer can be released
+	 * once no reader is using it.
+	 */
+	private final ReadWriteLock serializedLock = new ReentrantReadWriteLock();
+
+	/**
+	 * Number of references to the chunk. Initial reference is held by the creator.
+	 */
+	private final AtomicInteger references = new AtomicInteger(1);
+
+	/**
+	 * Amount of serialized bytes in the {@link #serialized} buffer.
+	 */
+	private int serializedSize;
+
+	/**
+	 * Amount of rows written. Written only after the row is complete, thus all rows below the
+	 * size can be read.
+	 */
+	private volatile int size;
+
+	/**
+	 * Bit mask of the types contained in the chunk.
+	 */
+	private volatile int typeMask;
+
+	/**
+	 * Smallest time stamp in the chunk.
+	 */
+	private volatile long minTime = Long.MAX_VALUE;
+
+	/**
+	 * Biggest time stamp in the chunk.
+	 */
+	private volatile long maxTime = Long.MIN_VALUE;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param capacity
+	 *            Capacity of the chunk in rows.
+	 */
+	public ColumnChunk(int capacity) {
+		this.capacity = capacity;
+		this.columns = ByteBuffer.allocateDirect(capacity * ROW_SIZE);
+		this.doubleColumnsOffset = LONG_COLUMNS * 8 * capacity;
+		this.intColumnsOffset = doubleColumnsOffset + (DOUBLE_COLUMNS * 8 * capacity);
+		this.byteColumnsOffset = intColumnsOffset + (INT_COLUMNS * 4 * capacity);
+	}
+
+	/**
+	 * Returns the type of the data object that can be stored in the chunk.
+	 *
+	 * @param object
+	 *            Data object.
+	 * @return Type or <code>-1</code> if the object can not be stored in the chunk.
+	 */
+	public static int getType(Object object) {
+		if (null == object) {
+			return -1;
+		}
+		Class<?> objectClass = object.getClass();
+		for (int i = 0; i < TYPES.length; i++) {
+			if (TYPES[i] == objectClass) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns if the given timer data can be restored only from the column values. Objects with
+	 * parameters, invocation parents or values of the timer data sub-classes must be serialized.
+	 *
+	 * @param timerData
+	 *            Timer data to check.
+	 * @return <code>true</code> if the object needs to be serialized.
+	 */
+	public static boolean isSerializationRequired(TimerData timerData) {
+		return (TimerData.class != timerData.getClass()) || CollectionUtils.isNotEmpty(timerData.getParameterContentData()) || !timerData.getInvocationParentsIdSet().isEmpty();
+	}
+
+	/**
+	 * Returns if any of the types stored in the chunks is in the given list of classes.
+	 *
+	 * @param objectClasses
+	 *            List of classes, <code>null</code> means any class.
+	 * @return <code>true</code> if there is at least one class in the list the chunk can store.
+	 */
+	public static boolean isAnyTypeOf(List<Class<?>> objectClasses) {
+		if (null == objectClasses) {
+			return true;
+		}
+		for (Class<?> type : TYPES) {
+			if (objectClasses.contains(type)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Appends the timer data to the chunk.
+	 *
+	 * @param timerData
+	 *            Timer data to append.
+	 * @param serializedBytes
+	 *            Serialized timer data, can be <code>null</code> if
+	 *            {@link #isSerializationRequired(TimerData)} is false.
+	 * @param serializedLength
+	 *            Amount of serialized bytes.
+	 * @return <code>true</code> if the object was appended, <code>false</code> if the chunk is
+	 *         full.
+	 */
+	public boolean append(TimerData timerData, byte[] serializedBytes, int serializedLength) {
+		int row = size;
+		if (row >= capacity) {
+			return false;
+		}
+
+		int serializedOffset = 0;
+		if (serializedLength > 0) {
+			serializedOffset = serializedSize;
+			if (!ensureSerializedCapacity(serializedOffset + serializedLength)) {
+				return false;
+			}
+			ByteBuffer target = serialized.duplicate();
+			target.position(serializedOffset);
+			target.put(serializedBytes, 0, serializedLength);
+			serializedSize += serializedLength;
+		}
+
+		int type = getType(timerData);
+		long time = timerData.getTimeStamp().getTime();
+
+		putLong(ID, row, timerData.getId());
+		putLong(PLATFORM_IDENT, row, timerData.getPlatformIdent());
+		putLong(SENSOR_TYPE_IDENT, row, timerData.getSensorTypeIdent());
+		putLong(METHOD_IDENT, row, timerData.getMethodIdent());
+		putLong(TIME, row, time);
+		putLong(COUNT, row, timerData.getCount());
+		putLong(EXCLUSIVE_COUNT, row, timerData.getExclusiveCount());
+		putDouble(MIN, row, timerData.getMin());
+		putDouble(MAX, row, timerData.getMax());
+		putDouble(DURATION, row, timerData.getDuration());
+		putDouble(VARIANCE, row, timerData.getVariance());
+		putDouble(CPU_MIN, row, timerData.getCpuMin());
+		putDouble(CPU_MAX, row, timerData.getCpuMax());
+		putDouble(CPU_DURATION, row, timerData.getCpuDuration());
+		putDouble(EXCLUSIVE_MIN, row, timerData.getExclusiveMin());
+		putDouble(EXCLUSIVE_MAX, row, timerData.getExclusiveMax());
+		putDouble(EXCLUSIVE_DURATION, row, timerData.getExclusiveDuration());
+		putInt(NANOS, row, timerData.getTimeStamp().getNanos());
+		putInt(SERIALIZED_OFFSET, row, serializedOffset);
+		putInt(SERIALIZED_LENGTH, row, serializedLength);
+		putByte(TYPE, row, (byte) type);
+		putByte(CHARTING, row, timerData.isCharting() ? (byte) 1 : (byte) 0);
+
+		typeMask |= 1 << type;
+		if (time < minTime) {
+			minTime = time;
+		}
+		if (time > maxTime) {
+			maxTime = time;
+		}
+
+		// publish the row
+		size = row + 1;
+		return true;
+	}
+
+	/**
+	 * Checks if the chunk can contain rows matching the query by checking the contained types and
+	 * the time frame of the chunk.
+	 *
+	 * @param query
+	 *            Query
+	 * @return <code>false</code> if there is no row matching the query.
+	 */
+	public boolean mightMatch(IIndexQuery query) {
+		if (0 == size) {
+			return false;
+		}
+		if (null != query.getObjectClasses()) {
+			boolean typeContained = false;
+			int mask = typeMask;
+			for (int i = 0; i < TYPES.length; i++) {
+				if ((0 != (mask & (1 << i))) && query.getObjectClasses().contains(TYPES[i])) {
+					typeContained = true;
+					break;
+				}
+			}
+			if (!typeContained) {
+				return false;
+			}
+		}
+		if (query.isIntervalSet()) {
+			if ((null != query.getFromDate()) && (maxTime < query.getFromDate().getTime())) {
+				return false;
+			}
+			if ((null != query.getToDate()) && (minTime > query.getToDate().getTime())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Checks the column values of the row against the query. The additional restrictions of the
+	 * query are not checked as they need the materialized object.
+	 *
+	 * @param row
+	 *            Row to check.
+	 * @param query
+	 *            Query.
+	 * @return <code>true</code> if row matches the query.
+	 */
+	public boolean matches(int row, IIndexQuery query) {
+		if ((null != query.getObjectClasses()) && !query.getObjectClasses().contains(TYPES[getByte(TYPE, row)])) {
+			return false;
+		}
+		if (query.getMinId() > getLong(ID, row)) {
+			return false;
+		}
+		if ((0 != query.getPlatformIdent()) && (query.getPlatformIdent() != getLong(PLATFORM_IDENT, row))) {
+			return false;
+		}
+		if ((0 != query.getSensorTypeIdent()) && (query.getSensorTypeIdent() != getLong(SENSOR_TYPE_IDENT, row))) {
+			return false;
+		}
+		if ((0 != query.getMethodIdent()) && (query.getMethodIdent() != getLong(METHOD_IDENT, row))) {
+			return false;
+		}
+		if (query.isIntervalSet()) {
+			long time = getLong(TIME, row);
+			int nanos = getInt(NANOS, row);
+			if ((null != query.getFromDate()) && (compare(time, nanos, query.getFromDate()) < 0)) {
+				return false;
+			}
+			if ((null != query.getToDate()) && (compare(time, nanos, query.getToDate()) > 0)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Compares the time stamp given as time and nanos to the time stamp object without creating
+	 * the object for the row.
+	 *
+	 * @param time
+	 *            Time in milliseconds.
+	 * @param nanos
+	 *            Nanos of the time stamp.
+	 * @param timestamp
+	 *            Time stamp to compare to.
+	 * @return Same as {@link Timestamp#compareTo(Timestamp)}.
+	 */
+	private static int compare(long time, int nanos, Timestamp timestamp) {
+		int result = Long.compare(time, timestamp.getTime());
+		if (0 == result) {
+			result = Integer.compare(nanos, timestamp.getNanos());
+		}
+		return result;
+	}
+
+	/**
+	 * Finds the row holding the object with the given id and type.
+	 *
+	 * @param id
+	 *            Id of the object.
+	 * @param type
+	 *            Type of the object as returned by {@link #getType(Object)}.
+	 * @return Row or <code>-1</code> if the chunk does not hold such object.
+	 */
+	public int findRow(long id, int type) {
+		if (0 == (typeMask & (1 << type))) {
+			return -1;
+		}
+		int rows = size;
+		for (int row = 0; row < rows; row++) {
+			if ((id == getLong(ID, row)) && (type == getByte(TYPE, row))) {
+				return row;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns if the row holds a serialized object.
+	 *
+	 * @param row
+	 *            Row.
+	 * @return <code>true</code> if object must be restored from the {@link #getSerialized(int)}.
+	 */
+	public boolean isSerialized(int row) {
+		return getInt(SERIALIZED_LENGTH, row) > 0;
+	}
+
+	/**
+	 * Returns the serialized bytes of the object in the row.
+	 *
+	 * @param row
+	 *            Row.
+	 * @return Serialized bytes.
+	 */
+	public byte[] getSerialized(int row) {
+		byte[] bytes = new byte[getInt(SERIALIZED_LENGTH, row)];
+		serializedLock.readLock().lock();
+		try {
+			ByteBuffer source = serialized.duplicate();
+			source.position(getInt(SERIALIZED_OFFSET, row));
+			source.get(bytes);
+		} finally {
+			serializedLock.readLock().unlock();
+		}
+		return bytes;
+	}
+
+	/**
+	 * Creates the timer data from the column values. Only valid for rows that are not
+	 * {@link #isSerialized(int)}.
+	 *
+	 * @param row
+	 *            Row.
+	 * @return New timer data object.
+	 */
+	public TimerData getTimerData(int row) {
+		TimerData timerData = new TimerData(getTimestamp(row), getLong(PLATFORM_IDENT, row), getLong(SENSOR_TYPE_IDENT, row), getLong(METHOD_IDENT, row));
+		timerData.setId(getLong(ID, row));
+		timerData.setCount(getLong(COUNT, row));
+		timerData.setExclusiveCount(getLong(EXCLUSIVE_COUNT, row));
+		timerData.calculateMin(getDouble(MIN, row));
+		timerData.calculateMax(getDouble(MAX, row));
+		timerData.setDuration(getDouble(DURATION, row));
+		timerData.setVariance(getDouble(VARIANCE, row));
+		timerData.calculateCpuMin(getDouble(CPU_MIN, row));
+		timerData.calculateCpuMax(getDouble(CPU_MAX, row));
+		timerData.setCpuDuration(getDouble(CPU_DURATION, row));
+		timerData.calculateExclusiveMin(getDouble(EXCLUSIVE_MIN, row));
+		timerData.calculateExclusiveMax(getDouble(EXCLUSIVE_MAX, row));
+		timerData.setExclusiveDuration(getDouble(EXCLUSIVE_DURATION, row));
+		timerData.setCharting(1 == getByte(CHARTING, row));
+		return timerData;
+	}
+
+	/**
+	 * Returns the time stamp of the row.
+	 *
+	 * @param row
+	 *            Row.
+	 * @return Time stamp.
+	 */
+	public Timestamp getTimestamp(int row) {
+		Timestamp timestamp = new Timestamp(getLong(TIME, row));
+		timestamp.setNanos(getInt(NANOS, row));
+		return timestamp;
+	}
+
+	/**
+	 * Acquires a reference to the chunk. The chunk can be read only if the reference is acquired
+	 * and has to be {@link #release()}d after reading.
+	 *
+	 * @return <code>false</code> if the chunk has already been freed and can not be read any more.
+	 */
+	public boolean retain() {
+		while (true) {
+			int current = references.get();
+			if (current <= 0) {
+				return false;
+			}
+			if (references.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Releases a reference to the chunk. The direct buffers of the chunk are freed when the last
+	 * reference is released, after that chunk must not be accessed.
+	 */
+	public void release() {
+		if (0 == references.decrementAndGet()) {
+			MappedByteBufferUtils.unmap(columns);
+			MappedByteBufferUtils.unmap(serialized);
+		}
+	}
+
+	/**
+	 * Returns the amount of off-heap bytes allocated by this chunk.
+	 *
+	 * @return Allocated bytes.
+	 */
+	public long getAllocatedBytes() {
+		ByteBuffer serializedBuffer = serialized;
+		return columns.capacity() + ((null != serializedBuffer) ? serializedBuffer.capacity() : 0);
+	}
+
+	/**
+	 * Gets {@link #size}.
+	 *
+	 * @return {@link #size}
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Ensures the serialized buffer can hold the given amount of bytes.
+	 *
+	 * @param required
+	 *            Required bytes.
+	 * @return <code>false</code> if the required amount is above the {@link #MAX_SERIALIZED_BYTES}.
+	 */
+	private boolean ensureSerializedCapacity(int required) {
+		if (required > MAX_SERIALIZED_BYTES) {
+			return false;
+		}
+		ByteBuffer current = serialized;
+		if ((null != current) && (current.capacity() >= required)) {
+			return true;
+		}
+
+		int newCapacity = (null != current) ? current.capacity() : INITIAL_SERIALIZED_BYTES;
+		while (newCapacity < required) {
+			newCapacity = Math.min(newCapacity * 2, MAX_SERIALIZED_BYTES);
+		}
+		ByteBuffer newBuffer = ByteBuffer.allocateDirect(newCapacity);
+		if (null != current) {
+			ByteBuffer source = current.duplicate();
+			source.position(0);
+			source.limit(serializedSize);
+			newBuffer.put(source);
+		}
+		// readers of the old buffer must finish before it can be released
+		serializedLock.writeLock().lock();
+		try {
+			serialized = newBuffer;
+		} finally {
+			serializedLock.writeLock().unlock();
+		}
+		MappedByteBufferUtils.unmap(current);
+		return true;
+	}
+
+	/**
+	 * Puts long value in the column.
+	 *
+	 * @param column
+	 *            Long column.
+	 * @param row
+	 *            Row.
+	 * @param value
+	 *            Value.
+	 */
+	private void putLong(int column, int row, long value) {
+		columns.putLong(((column * capacity) + row) * 8, value);
+	}
+
+	/**
+	 * Gets long value from the column.
+	 *
+	 * @param column
+	 *            Long column.
+	 * @param row
+	 *            Row.
+	 * @return Value.
+	 */
+	private long getLong(int column, int row) {
+		return columns.getLong(((column * capacity) + row) * 8);
+	}
+
+	/**
+	 * Puts double value in the column.
+	 *
+	 * @param column
+	 *            Double column.
+	 * @param row
+	 *            Row.
+	 * @param value
+	 *            Value.
+	 */
+	private void putDouble(int column, int row, double value) {
+		columns.putDouble(doubleColumnsOffset + (((column * capacity) + row) * 8), value);
+	}
+
+	/**
+	 * Gets double value from the column.
+	 *
+	 * @param column
+	 *            Double column.
+	 * @param row
+	 *            Row.
+	 * @return Value.
+	 */
+	private double getDouble(int column, int row) {
+		return columns.getDouble(doubleColumnsOffset + (((column * capacity) + row) * 8));
+	}
+
+	/**
+	 * Puts int value in the column.
+	 *
+	 * @param column
+	 *            Int column.
+	 * @param row
+	 *            Row.
+	 * @param value
+	 *            Value.
+	 */
+	private void putInt(int column, int row, int value) {
+		columns.putInt(intColumnsOffset + (((column * capacity) + row) * 4), value);
+	}
+
+	/**
+	 * Gets int value from the column.
+	 *
+	 * @param column
+	 *            Int column.
+	 * @param row
+	 *            Row.
+	 * @return Value.
+	 */
+	private int getInt(int column, int row) {
+		return columns.getInt(intColumnsOffset + (((column * capacity) + row) * 4));
+	}
+
+	/**
+	 * Puts byte value in the column.
+	 *
+	 * @param column
+	 *            Byte column.
+	 * @param row
+	 *            Row.
+	 * @param value
+	 *            Value.
+	 */
+	private void putByte(int column, int row, byte value) {
+		columns.put(byteColumnsOffset + (column * capacity) + row, value);
+	}
+
+	/**
+	 * Gets byte value from the column.
+	 *
+	 * @param column
+	 *            Byte column.
+	 * @param row
+	 *            Row.
+	 * @return Value.
+	 */
+	private byte getByte(int column, int row) {
+		return columns.get(byteColumnsOffset + (column * capacity) + row);
+	}
+
+}
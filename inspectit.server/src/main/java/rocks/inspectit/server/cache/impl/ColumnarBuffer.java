@@ -0,0 +1,587 @@
+package rocks.inspectit.server.cache.impl;
+
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import rocks.inspectit.server.cache.IBufferElement;
+import rocks.inspectit.server.cache.IColumnarBuffer;
+import rocks.inspectit.shared.all.cmr.property.spring.PropertyUpdate;
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.indexing.IIndexQuery;
+import rocks.inspectit.shared.all.serializer.ISerializer;
+import rocks.inspectit.shared.all.serializer.SerializationException;
+import rocks.inspectit.shared.all.serializer.provider.SerializationManagerProvider;
+import rocks.inspectit.shared.all.spring.logger.Log;
+
+/**
+ * Buffer that keeps the high-volume {@link TimerData}, SQL and HTTP timer data off-heap in the
+ * {@link ColumnChunk}s, while all other data is passed to the {@link AtomicBuffer}. The data in the
+ * chunks is not indexed, it's found by scanning the chunks columns and materialized only when the
+ * query matches. Size of the columnar store is the capacity of the direct buffers held by the
+ * chunks and the eviction removes the oldest chunk as whole. Buffers of an evicted chunk are freed
+ * as soon as no query reads the chunk any more.
+ * <p>
+ * Values are copied to the columns when the data is put to the buffer, thus changes to the data
+ * object made after that are not visible.
+ * <p>
+ * If the columnar store is not active all data is passed to the {@link AtomicBuffer}.
+ *
+ * @author agent
+ *
+ * @param <E>
+ *            Type of the elements in the buffer.
+ */
+@Component
+@Primary
+public class ColumnarBuffer<E extends DefaultData> implements IColumnarBuffer<E> {
+
+	/**
+	 * The logger of this class.
+	 */
+	@Log
+	Logger log;
+
+	/**
+	 * Buffer properties.
+	 */
+	@Autowired
+	BufferProperties bufferProperties;
+
+	/**
+	 * Buffer holding the data not stored in the columns.
+	 */
+	@Autowired
+	AtomicBuffer<E> atomicBuffer;
+
+	/**
+	 * Provider for the serializers needed for the data that does not fit in the columns.
+	 */
+	@Autowired
+	SerializationManagerProvider serializationManagerProvider;
+
+	/**
+	 * Capacity of the new chunks in rows.
+	 */
+	int chunkCapacity = ColumnChunk.DEFAULT_CAPACITY;
+
+	/**
+	 * Chunks ordered from oldest to newest.
+	 */
+	private final Deque<ColumnChunk> chunks = new ConcurrentLinkedDeque<>();
+
+	/**
+	 * Chunk data is currently appended to. Guarded by this.
+	 */
+	private ColumnChunk currentChunk;
+
+	/**
+	 * Amount of off-heap bytes allocated by the chunks.
+	 */
+	private final AtomicLong currentSize = new AtomicLong();
+
+	/**
+	 * Max amount of off-heap bytes chunks can allocate.
+	 */
+	private volatile long maxSize;
+
+	/**
+	 * If columnar store is active.
+	 */
+	private boolean active;
+
+	/**
+	 * Number of elements added to the columnar store.
+	 */
+	private final AtomicLong elementsAdded = new AtomicLong();
+
+	/**
+	 * Number of elements evicted from the columnar store.
+	 */
+	private final AtomicLong elementsEvicted = new AtomicLong();
+
+	/**
+	 * Serializer used when appending. Guarded by this.
+	 */
+	private ISerializer serializer;
+
+	/**
+	 * Output used when appending. Guarded by this.
+	 */
+	private final Output output = new Output(1024, -1);
+
+	/**
+	 * Serializers available for the queries.
+	 */
+	private final Queue<ISerializer> querySerializers = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void put(IBufferElement<E> element) {
+		E object = element.getObject();
+		if (active && (ColumnChunk.getType(object) >= 0) && append((TimerData) object)) {
+			elementsAdded.incrementAndGet();
+		} else {
+			atomicBuffer.put(element);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Elements that can not be stored in the columns are passed to the {@link AtomicBuffer} as one
+	 * list.
+	 */
+	@Override
+	public void put(List<IBufferElement<E>> elements) {
+		if (!active) {
+			atomicBuffer.put(elements);
+			return;
+		}
+
+		List<IBufferElement<E>> heapElements = new ArrayList<>(elements.size());
+		int added = 0;
+		synchronized (this) {
+			for (IBufferElement<E> element : elements) {
+				E object = element.getObject();
+				if ((ColumnChunk.getType(object) >= 0) && append((TimerData) object)) {
+					added++;
+				} else {
+					heapElements.add(element);
+				}
+			}
+		}
+		elementsAdded.addAndGet(added);
+
+		if (!heapElements.isEmpty()) {
+			atomicBuffer.put(heapElements);
+		}
+	}
+
+	/**
+	 * Appends the timer data to the current chunk, or to the new one if current one is full.
+	 *
+	 * @param timerData
+	 *            Data to append.
+	 * @return <code>false</code> if data can not be stored in a chunk.
+	 */
+	private synchronized boolean append(TimerData timerData) {
+		byte[] serializedBytes = null;
+		int serializedLength = 0;
+		if (ColumnChunk.isSerializationRequired(timerData)) {
+			output.clear();
+			try {
+				serializer.serialize(timerData, output);
+			} catch (SerializationException e) {
+				log.warn("Data could not be serialized for the columnar store, it will be kept in the heap buffer.", e);
+				return false;
+			}
+			serializedLength = output.position();
+			if ((0 == serializedLength) || (serializedLength > ColumnChunk.MAX_SERIALIZED_BYTES)) {
+				return false;
+			}
+			serializedBytes = output.getBuffer();
+		}
+
+		ColumnChunk chunk = currentChunk;
+		if (null != chunk) {
+			long allocatedBefore = chunk.getAllocatedBytes();
+			if (chunk.append(timerData, serializedBytes, serializedLength)) {
+				currentSize.addAndGet(chunk.getAllocatedBytes() - allocatedBefore);
+				evictChunks();
+				return true;
+			}
+		}
+
+		chunk = new ColumnChunk(chunkCapacity);
+		if (!chunk.append(timerData, serializedBytes, serializedLength)) {
+			return false;
+		}
+		currentChunk = chunk;
+		chunks.addLast(chunk);
+		currentSize.addAndGet(chunk.getAllocatedBytes());
+		evictChunks();
+		return true;
+	}
+
+	/**
+	 * Evicts the oldest chunks until the size is below the max size. The current chunk is never
+	 * evicted. Must be called holding the lock on this.
+	 */
+	private void evictChunks() {
+		while (currentSize.get() > maxSize) {
+			ColumnChunk oldest = chunks.peekFirst();
+			if ((null == oldest) || (oldest == currentChunk)) {
+				break;
+			}
+			chunks.pollFirst();
+			currentSize.addAndGet(-oldest.getAllocatedBytes());
+			elementsEvicted.addAndGet(oldest.getSize());
+			oldest.release();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<E> query(IIndexQuery query) {
+		if (chunks.isEmpty() || !ColumnChunk.isAnyTypeOf(query.getObjectClasses())) {
+			return Collections.emptyList();
+		}
+
+		List<E> results = new ArrayList<>();
+		ISerializer querySerializer = null;
+		try {
+			for (ColumnChunk chunk : chunks) {
+				// chunk evicted in the meantime
+				if (!chunk.retain()) {
+					continue;
+				}
+				try {
+					if (!chunk.mightMatch(query)) {
+						continue;
+					}
+					int size = chunk.getSize();
+					for (int row = 0; row < size; row++) {
+						if (!chunk.matches(row, query)) {
+							continue;
+						}
+						TimerData timerData;
+						if (chunk.isSerialized(row)) {
+							if (null == querySerializer) {
+								querySerializer = getQuerySerializer();
+							}
+							timerData = (TimerData) querySerializer.deserialize(new Input(chunk.getSerialized(row)));
+						} else {
+							timerData = chunk.getTimerData(row);
+						}
+						if (query.areAllRestrictionsFulfilled(timerData)) {
+							results.add((E) timerData);
+						}
+					}
+				} finally {
+					chunk.release();
+				}
+			}
+		} catch (SerializationException e) {
+			log.error("Data from the columnar store could not be de-serialized.", e);
+		} finally {
+			if (null != querySerializer) {
+				querySerializers.offer(querySerializer);
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public E get(E template) {
+		int type = ColumnChunk.getType(template);
+		if (type < 0) {
+			return null;
+		}
+
+		for (ColumnChunk chunk : chunks) {
+			if (!chunk.retain()) {
+				continue;
+			}
+			try {
+				int row = chunk.findRow(template.getId(), type);
+				if (row >= 0) {
+					return getElement(chunk, row);
+				}
+			} finally {
+				chunk.release();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Materializes the data in the given chunk row. Reference to the chunk must be held.
+	 *
+	 * @param chunk
+	 *            Chunk
+	 * @param row
+	 *            Row
+	 * @return Data object or <code>null</code> if de-serialization fails.
+	 */
+	@SuppressWarnings("unchecked")
+	private E getElement(ColumnChunk chunk, int row) {
+		if (!chunk.isSerialized(row)) {
+			return (E) chunk.getTimerData(row);
+		}
+		ISerializer querySerializer = getQuerySerializer();
+		try {
+			return (E) querySerializer.deserialize(new Input(chunk.getSerialized(row)));
+		} catch (SerializationException e) {
+			log.error("Data from the columnar store could not be de-serialized.", e);
+			return null;
+		} finally {
+			querySerializers.offer(querySerializer);
+		}
+	}
+
+	/**
+	 * Returns serializer from the pool or creates new one if pool is empty. Serializer has to be
+	 * returned to the {@link #querySerializers} after usage.
+	 *
+	 * @return {@link ISerializer}
+	 */
+	private ISerializer getQuerySerializer() {
+		ISerializer querySerializer = querySerializers.poll();
+		if (null == querySerializer) {
+			querySerializer = serializationManagerProvider.createSerializer();
+		}
+		return querySerializer;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void evict() throws InterruptedException {
+		atomicBuffer.evict();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void analyzeNext() throws InterruptedException {
+		atomicBuffer.analyzeNext();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void indexNext() throws InterruptedException {
+		atomicBuffer.indexNext();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void clearAll() {
+		synchronized (this) {
+			ColumnChunk chunk;
+			while (null != (chunk = chunks.pollFirst())) {
+				chunk.release();
+			}
+			currentChunk = null;
+			currentSize.set(0);
+			elementsAdded.set(0);
+			elementsEvicted.set(0);
+		}
+		atomicBuffer.clearAll();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Returns the sum of the heap buffer and columnar store max sizes.
+	 */
+	@Override
+	public long getMaxSize() {
+		if (active) {
+			return atomicBuffer.getMaxSize() + maxSize;
+		} else {
+			return atomicBuffer.getMaxSize();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Sets the max size of the heap buffer.
+	 */
+	@Override
+	public void setMaxSize(long maxSize) {
+		atomicBuffer.setMaxSize(maxSize);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Returns the sum of the heap buffer and columnar store sizes.
+	 */
+	@Override
+	public long getCurrentSize() {
+		return atomicBuffer.getCurrentSize() + currentSize.get();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public float getEvictionOccupancyPercentage() {
+		return atomicBuffer.getEvictionOccupancyPercentage();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setEvictionOccupancyPercentage(float evictionOccupancyPercentage) {
+		atomicBuffer.setEvictionOccupancyPercentage(evictionOccupancyPercentage);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public float getOccupancyPercentage() {
+		return ((float) getCurrentSize()) / getMaxSize();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public E getOldestElement() {
+		E oldest = atomicBuffer.getOldestElement();
+		ColumnChunk chunk = chunks.peekFirst();
+		if ((null != chunk) && chunk.retain()) {
+			try {
+				if (chunk.getSize() > 0) {
+					E columnarOldest = getElement(chunk, 0);
+					if ((null == oldest) || ((null != columnarOldest) && columnarOldest.getTimeStamp().before(oldest.getTimeStamp()))) {
+						return columnarOldest;
+					}
+				}
+			} finally {
+				chunk.release();
+			}
+		}
+		return oldest;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public E getNewestElement() {
+		E newest = atomicBuffer.getNewestElement();
+		ColumnChunk chunk = chunks.peekLast();
+		if ((null != chunk) && chunk.retain()) {
+			try {
+				int size = chunk.getSize();
+				if (size > 0) {
+					E columnarNewest = getElement(chunk, size - 1);
+					if ((null == newest) || ((null != columnarNewest) && columnarNewest.getTimeStamp().after(newest.getTimeStamp()))) {
+						return columnarNewest;
+					}
+				}
+			} finally {
+				chunk.release();
+			}
+		}
+		return newest;
+	}
+
+	/**
+	 * Returns the number of elements added to the columnar store since the buffer has been
+	 * created.
+	 *
+	 * @return Number of elements added.
+	 */
+	public long getColumnarInsertedElements() {
+		return elementsAdded.get();
+	}
+
+	/**
+	 * Returns the number of elements evicted from the columnar store since the buffer has been
+	 * created.
+	 *
+	 * @return Number of elements evicted.
+	 */
+	public long getColumnarEvictedElements() {
+		return elementsEvicted.get();
+	}
+
+	/**
+	 * Returns the amount of off-heap bytes held by the columnar store.
+	 *
+	 * @return Allocated bytes.
+	 */
+	public long getColumnarCurrentSize() {
+		return currentSize.get();
+	}
+
+	/**
+	 * Is executed after dependency injection is done to perform any initialization.
+	 *
+	 * @throws Exception
+	 *             if an error occurs during {@link PostConstruct}
+	 */
+	@PostConstruct
+	public void postConstruct() throws Exception {
+		this.active = bufferProperties.isColumnarStoreActive();
+		this.maxSize = bufferProperties.getColumnarStoreMaxSize();
+		if (active) {
+			this.serializer = serializationManagerProvider.createSerializer();
+			if (log.isInfoEnabled()) {
+				log.info("|-Using off-heap columnar store for timer, SQL and HTTP timer data with maximum size " + NumberFormat.getInstance().format(maxSize) + " bytes...");
+			}
+		}
+	}
+
+	/**
+	 * Updates the max size of the columnar store.
+	 */
+	@PropertyUpdate(properties = { "buffer.columnarStoreMaxSize" })
+	protected synchronized void updateColumnarStoreMaxSize() {
+		this.maxSize = bufferProperties.getColumnarStoreMaxSize();
+		evictChunks();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		if (!active) {
+			return atomicBuffer.toString();
+		}
+
+		StringBuffer msg = new StringBuffer(atomicBuffer.toString());
+		msg.append("The columnar store occupancy status: ");
+		msg.append(NumberFormat.getInstance().format(currentSize.get()));
+		msg.append(" bytes occupied from total ");
+		msg.append(NumberFormat.getInstance().format(maxSize));
+		msg.append(" bytes available in ");
+		msg.append(NumberFormat.getInstance().format(chunks.size()));
+		msg.append(" chunks.\n-Elements added: ");
+		msg.append(NumberFormat.getInstance().format(elementsAdded.get()));
+		msg.append("\n-Elements evicted: ");
+		msg.append(NumberFormat.getInstance().format(elementsEvicted.get()));
+		msg.append('\n');
+		return msg.toString();
+	}
+
+}
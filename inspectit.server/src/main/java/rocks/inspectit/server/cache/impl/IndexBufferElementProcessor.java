@@ -72,6 +72,16 @@ class IndexBufferElementProcessor<E extends DefaultData> extends AbstractBufferE
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Only analyzed elements can be indexed.
+	 */
+	@Override
+	protected boolean isReadyForProcessing(IBufferElement<E> element) {
+		return element.isAnalyzed();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * <p>
@@ -82,9 +92,9 @@ class IndexBufferElementProcessor<E extends DefaultData> extends AbstractBufferE
 	 *
 	 */
 	@Override
-	public boolean process(IBufferElement<E> elementToProcess, IBufferElement<E> lastProcessedElement) {
+	public boolean process(IBufferElement<E> firstElement, IBufferElement<E> lastElement, int runLength, IBufferElement<E> lastProcessedElement) {
 		// we only index when the element has already been analyzed
-		if (!elementToProcess.isAnalyzed()) {
+		if (!firstElement.isAnalyzed()) {
 			try {
 				Thread.sleep(atomicBuffer.bufferProperties.getIndexingWaitTime());
 			} catch (InterruptedException e) {
@@ -96,44 +106,48 @@ class IndexBufferElementProcessor<E extends DefaultData> extends AbstractBufferE
 		}
 
 		// only thread that execute compare and set successfully can perform changes
-		if (lastProcessed.compareAndSet(lastProcessedElement, elementToProcess)) {
-			try {
-				// index element
-				atomicBuffer.indexingTree.put(elementToProcess.getObject());
-				elementToProcess.setBufferElementState(BufferElementState.INDEXED);
+		if (lastProcessed.compareAndSet(lastProcessedElement, lastElement)) {
+			IBufferElement<E> element = firstElement;
+			for (int i = 0; i < runLength; i++) {
+				try {
+					// index element
+					atomicBuffer.indexingTree.put(element.getObject());
+					element.setBufferElementState(BufferElementState.INDEXED);
+				} catch (IndexingException e) {
+					// indexing exception should not happen
+					atomicBuffer.log.error(e.getMessage(), e);
+				}
+				element = element.getNextElement();
+			}
 
-				// increase number of indexed elements, and perform calculation of the
-				// indexing tree size if enough elements have been indexed
-				atomicBuffer.elementsIndexed.incrementAndGet();
+			// increase number of indexed elements, and perform calculation of the
+			// indexing tree size if enough elements have been indexed
+			atomicBuffer.elementsIndexed.addAndGet(runLength);
 
-				long dataAddedInBytesCurrent = atomicBuffer.dataAddedInBytes.get();
-				if (dataAddedInBytesCurrent > atomicBuffer.flagsSetOnBytes) {
-					if (atomicBuffer.dataAddedInBytes.compareAndSet(dataAddedInBytesCurrent, 0)) {
-						long time = 0;
-						if (atomicBuffer.log.isDebugEnabled()) {
-							time = System.nanoTime();
-						}
-						while (true) {
-							// calculation of new size has to be repeated if old size
-							// compare and set fails
-							long newSize = atomicBuffer.indexingTree.getComponentSize(atomicBuffer.objectSizes);
-							newSize += newSize * atomicBuffer.objectSizes.getObjectSecurityExpansionRate();
-							long oldSize = atomicBuffer.indexingTreeSize.get();
-							if (atomicBuffer.indexingTreeSize.compareAndSet(oldSize, newSize)) {
-								atomicBuffer.addToCurrentSize(newSize - oldSize, false);
-								if (atomicBuffer.log.isDebugEnabled()) {
-									atomicBuffer.log.debug("Indexing tree size update duration: " + Converter.nanoToMilliseconds(System.nanoTime() - time));
-									atomicBuffer.log.debug("Indexing tree delta: " + (newSize - oldSize));
-									atomicBuffer.log.debug("Indexing tree new size: " + newSize);
-								}
-								break;
+			long dataAddedInBytesCurrent = atomicBuffer.dataAddedInBytes.get();
+			if (dataAddedInBytesCurrent > atomicBuffer.flagsSetOnBytes) {
+				if (atomicBuffer.dataAddedInBytes.compareAndSet(dataAddedInBytesCurrent, 0)) {
+					long time = 0;
+					if (atomicBuffer.log.isDebugEnabled()) {
+						time = System.nanoTime();
+					}
+					while (true) {
+						// calculation of new size has to be repeated if old size
+						// compare and set fails
+						long newSize = atomicBuffer.indexingTree.getComponentSize(atomicBuffer.objectSizes);
+						newSize += newSize * atomicBuffer.objectSizes.getObjectSecurityExpansionRate();
+						long oldSize = atomicBuffer.indexingTreeSize.get();
+						if (atomicBuffer.indexingTreeSize.compareAndSet(oldSize, newSize)) {
+							atomicBuffer.addToCurrentSize(newSize - oldSize, false);
+							if (atomicBuffer.log.isDebugEnabled()) {
+								atomicBuffer.log.debug("Indexing tree size update duration: " + Converter.nanoToMilliseconds(System.nanoTime() - time));
+								atomicBuffer.log.debug("Indexing tree delta: " + (newSize - oldSize));
+								atomicBuffer.log.debug("Indexing tree new size: " + newSize);
 							}
+							break;
 						}
 					}
 				}
-			} catch (IndexingException e) {
-				// indexing exception should not happen
-				atomicBuffer.log.error(e.getMessage(), e);
 			}
 			return true;
 		}
@@ -141,4 +155,4 @@ class IndexBufferElementProcessor<E extends DefaultData> extends AbstractBufferE
 		return false;
 	}
 
-}
\ No newline at end of file
+}
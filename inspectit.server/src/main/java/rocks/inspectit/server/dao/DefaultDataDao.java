@@ -4,6 +4,7 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
+import rocks.inspectit.server.processor.AbstractCmrDataProcessor;
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.communication.data.HttpTimerData;
 import rocks.inspectit.shared.all.communication.data.JmxSensorValueData;
@@ -25,6 +26,18 @@ public interface DefaultDataDao {
 	 */
 	void saveAll(List<? extends DefaultData> defaultDataCollection);
 
+	/**
+	 * Persists or updates all items in the collection by running only the given processors in the
+	 * given order. If a processor fails the exception is thrown and the remaining processors are
+	 * not run.
+	 *
+	 * @param defaultDataCollection
+	 *            The collection with {@link DefaultData} objects to persist or update.
+	 * @param processors
+	 *            Processors to run on the collection.
+	 */
+	void saveAll(List<? extends DefaultData> defaultDataCollection, List<AbstractCmrDataProcessor> processors);
+
 	/**
 	 * Returns a list of stored {@link DefaultData} objects in the given interval, starting minus
 	 * the passed timeInterval parameter to the current time.
@@ -9,6 +9,7 @@ import java.util.concurrent.ForkJoinPool;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 
+import rocks.inspectit.server.cache.IColumnarBuffer;
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.indexing.IIndexQuery;
 import rocks.inspectit.shared.cs.indexing.aggregation.IAggregator;
@@ -32,6 +33,12 @@ public abstract class AbstractBufferDataDao<E extends DefaultData> {
 	@Autowired
 	private IBufferTreeComponent<E> indexingTree;
 
+	/**
+	 * Buffer holding the data that is not in the indexing tree.
+	 */
+	@Autowired(required = false)
+	private IColumnarBuffer<E> columnarBuffer;
+
 	/**
 	 * ForkJoinPool to manage the forks.
 	 */
@@ -179,6 +186,13 @@ public abstract class AbstractBufferDataDao<E extends DefaultData> {
 		} else {
 			data = indexingTree.query(indexQuery);
 		}
+		if (null != columnarBuffer) {
+			List<E> columnarData = columnarBuffer.query(indexQuery);
+			if (!columnarData.isEmpty()) {
+				data = new ArrayList<>(data);
+				data.addAll(columnarData);
+			}
+		}
 		if (null != aggregator) {
 			AggregationPerformer<E> aggregationPerformer = new AggregationPerformer<>(aggregator);
 			aggregationPerformer.processCollection(data);
@@ -196,6 +210,22 @@ public abstract class AbstractBufferDataDao<E extends DefaultData> {
 		return data;
 	}
 
+	/**
+	 * Returns the element equal to the template from the indexing tree or, if not indexed, from
+	 * the buffer holding the data that is not in the indexing tree.
+	 *
+	 * @param template
+	 *            Template to get.
+	 * @return Found element, or <code>null</code> if element does not exist in the buffer.
+	 */
+	protected E get(E template) {
+		E element = indexingTree.get(template);
+		if ((null == element) && (null != columnarBuffer)) {
+			element = columnarBuffer.get(template);
+		}
+		return element;
+	}
+
 	/**
 	 * Gets {@link #indexingTree}.
 	 *
@@ -3,10 +3,10 @@ package rocks.inspectit.server.dao.impl;
 import java.util.Collection;
 import java.util.Date;
 
-import org.apache.commons.collections.CollectionUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import rocks.inspectit.server.indexing.impl.BufferTraceIndex;
 import rocks.inspectit.shared.all.indexing.IIndexQuery;
 import rocks.inspectit.shared.all.tracing.data.AbstractSpan;
 import rocks.inspectit.shared.all.tracing.data.SpanIdent;
@@ -29,6 +29,12 @@ public class BufferSpanDaoImpl extends AbstractBufferDataDao<AbstractSpan> {
 	@Autowired
 	private SpanQueryFactory<IIndexQuery> spanQueryFactory;
 
+	/**
+	 * Index of the spans by the trace id.
+	 */
+	@Autowired
+	private BufferTraceIndex bufferTraceIndex;
+
 	/**
 	 * Returns root spans for given time-frame.
 	 *
@@ -60,8 +66,7 @@ public class BufferSpanDaoImpl extends AbstractBufferDataDao<AbstractSpan> {
 	 * @return All spans for the trace.
 	 */
 	public Collection<AbstractSpan> getSpans(long traceId) {
-		IIndexQuery query = spanQueryFactory.getSpans(traceId);
-		return getIndexingTree().query(query);
+		return bufferTraceIndex.getSpans(traceId);
 	}
 
 	/**
@@ -72,13 +77,7 @@ public class BufferSpanDaoImpl extends AbstractBufferDataDao<AbstractSpan> {
 	 * @return Span with given span ident.
 	 */
 	public AbstractSpan get(SpanIdent spanIdent) {
-		IIndexQuery query = spanQueryFactory.get(spanIdent);
-		Collection<AbstractSpan> results = getIndexingTree().query(query);
-		if (CollectionUtils.isNotEmpty(results)) {
-			return results.iterator().next();
-		} else {
-			return null;
-		}
+		return bufferTraceIndex.get(spanIdent);
 	}
 
 }
@@ -72,14 +72,26 @@ public class DefaultDataDaoImpl implements DefaultDataDao {
 	@Transactional
 	public void saveAll(List<? extends DefaultData> defaultDataCollection) {
 		try {
-			for (AbstractCmrDataProcessor processor : cmrDataProcessors) {
-				processor.process(defaultDataCollection, entityManager);
-			}
+			saveAll(defaultDataCollection, cmrDataProcessors);
 		} catch (Exception e) {
 			log.error("Error occurred trying to process the CMR data processors on the incoming data.", e);
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * We must mark this as transactional cause it's running outside our services. Exceptions of
+	 * the processors are passed to the caller, so that it can handle the failed batch.
+	 */
+	@Override
+	@Transactional
+	public void saveAll(List<? extends DefaultData> defaultDataCollection, List<AbstractCmrDataProcessor> processors) {
+		for (AbstractCmrDataProcessor processor : processors) {
+			processor.process(defaultDataCollection, entityManager);
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
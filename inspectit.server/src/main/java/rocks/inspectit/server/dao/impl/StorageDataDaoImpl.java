@@ -25,6 +25,7 @@ import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.support.TransactionCallbackWithoutResult;
 import org.springframework.transaction.support.TransactionTemplate;
 
+import rocks.inspectit.server.cache.IColumnarBuffer;
 import rocks.inspectit.server.dao.StorageDataDao;
 import rocks.inspectit.server.util.JpaUtil;
 import rocks.inspectit.shared.all.communication.DefaultData;
@@ -69,6 +70,12 @@ public class StorageDataDaoImpl implements StorageDataDao {
 	@Autowired
 	private IBufferTreeComponent<DefaultData> indexingTree;
 
+	/**
+	 * Buffer holding the data that is not in the indexing tree.
+	 */
+	@Autowired(required = false)
+	private IColumnarBuffer<DefaultData> columnarBuffer;
+
 	/**
 	 * Entity manager.
 	 */
@@ -223,6 +230,9 @@ public class StorageDataDaoImpl implements StorageDataDao {
 		if (CollectionUtils.isNotEmpty(bufferData)) {
 			results.addAll(bufferData);
 		}
+		if (null != columnarBuffer) {
+			results.addAll(columnarBuffer.query(query));
+		}
 
 		// then load all System sensor data from DB
 		CriteriaBuilder builder = entityManager.getCriteriaBuilder();
@@ -266,7 +276,15 @@ public class StorageDataDaoImpl implements StorageDataDao {
 		IIndexQuery query = indexQueryProvider.createNewIndexQuery();
 		query.addIndexingRestriction(IndexQueryRestrictionFactory.isInCollection("id", elementIds));
 		query.setPlatformIdent(platformIdent);
-		return indexingTree.query(query);
+		List<DefaultData> results = indexingTree.query(query);
+		if (null != columnarBuffer) {
+			List<DefaultData> columnarData = columnarBuffer.query(query);
+			if (!columnarData.isEmpty()) {
+				results = new ArrayList<>(results);
+				results.addAll(columnarData);
+			}
+		}
+		return results;
 	}
 
 	/**
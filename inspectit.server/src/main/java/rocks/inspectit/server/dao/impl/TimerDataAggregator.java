@@ -1,8 +1,7 @@
 package rocks.inspectit.server.dao.impl;
 
 import java.sql.Timestamp;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
@@ -21,7 +20,9 @@ import rocks.inspectit.shared.all.communication.data.DatabaseAggregatedTimerData
 import rocks.inspectit.shared.all.communication.data.TimerData;
 
 /**
- * Aggregator for the {@link TimerData} objects that need to be persisted to the DB.
+ * Aggregator for the {@link TimerData} objects that need to be persisted to the DB. The aggregated
+ * objects are guarded by striped locks, so that threads aggregating different objects do not block
+ * each other.
  *
  * @author Ivan Senic
  * @see https://inspectit-performance.atlassian.net/wiki/display/DEV/TimerData+Aggregator
@@ -49,6 +50,11 @@ public class TimerDataAggregator extends AbstractJpaDao<TimerData> {
 	@Value("${cmr.cacheCleanSleepingPeriod}")
 	long cacheCleanSleepingPeriod;
 
+	/**
+	 * Number of lock stripes. Must be power of two.
+	 */
+	private static final int LOCK_STRIPES = 64;
+
 	/**
 	 * Current element count in cache.
 	 */
@@ -57,7 +63,7 @@ public class TimerDataAggregator extends AbstractJpaDao<TimerData> {
 	/**
 	 * Map for caching.
 	 */
-	private Map<Integer, TimerData> map;
+	private ConcurrentHashMap<AggregationKey, TimerData> map;
 
 	/**
 	 * Queue for knowing the order.
@@ -70,9 +76,10 @@ public class TimerDataAggregator extends AbstractJpaDao<TimerData> {
 	private ConcurrentLinkedQueue<TimerData> persistList;
 
 	/**
-	 * Lock for persist all.
+	 * Locks guarding the creation, aggregation and removal of the cached objects. The lock for the
+	 * object is selected based on the hash of its {@link AggregationKey}.
 	 */
-	private ReentrantLock persistAllLock;
+	private ReentrantLock[] locks;
 
 	/**
 	 * Cache cleaner.
@@ -94,10 +101,13 @@ public class TimerDataAggregator extends AbstractJpaDao<TimerData> {
 	public TimerDataAggregator(PlatformTransactionManager transactionManager) {
 		super(TimerData.class);
 		elementCount = new AtomicInteger(0);
-		map = new HashMap<>();
+		map = new ConcurrentHashMap<>();
 		queue = new ConcurrentLinkedQueue<>();
 		persistList = new ConcurrentLinkedQueue<>();
-		persistAllLock = new ReentrantLock();
+		locks = new ReentrantLock[LOCK_STRIPES];
+		for (int i = 0; i < LOCK_STRIPES; i++) {
+			locks[i] = new ReentrantLock();
+		}
 
 		this.tt = new TransactionTemplate(transactionManager);
 	}
@@ -111,37 +121,44 @@ public class TimerDataAggregator extends AbstractJpaDao<TimerData> {
 	 */
 	public void processTimerData(TimerData timerData) {
 		long aggregationTimestamp = getAlteredTimestamp(timerData);
-		int cacheHash = getCacheHash(timerData.getPlatformIdent(), timerData.getMethodIdent(), aggregationTimestamp);
+		AggregationKey key = new AggregationKey(timerData.getPlatformIdent(), timerData.getMethodIdent(), aggregationTimestamp);
 
-		persistAllLock.lock();
+		boolean added = false;
+		ReentrantLock lock = getLock(key);
+		lock.lock();
 		try {
-			TimerData aggTimerData = map.get(cacheHash);
+			TimerData aggTimerData = map.get(key);
 			if (aggTimerData == null) {
 				// we create a DB aggregated timer data because we don't want to alter objects that
 				// are in the memory
 				aggTimerData = new DatabaseAggregatedTimerData(new Timestamp(aggregationTimestamp), timerData.getPlatformIdent(), timerData.getSensorTypeIdent(), timerData.getMethodIdent());
-				map.put(cacheHash, aggTimerData);
+				map.put(key, aggTimerData);
 				queue.add(aggTimerData);
+				added = true;
 
 				// set most recently in cleaner
 				if (null != timerDataAggregatorCacheCleaner) {
 					timerDataAggregatorCacheCleaner.setMostRecentlyAdded(aggTimerData);
 				}
-
-				int count = elementCount.incrementAndGet();
-				// remove oldest as long as number of elements is higher than maximum
-				while (maxElements < count) {
-					TimerData oldest = queue.poll();
-					if (null != oldest) {
-						map.remove(getCacheHash(oldest.getPlatformIdent(), oldest.getMethodIdent(), oldest.getTimeStamp().getTime()));
-						persistList.add(oldest);
-						count = elementCount.decrementAndGet();
-					}
-				}
 			}
 			aggTimerData.aggregateTimerData(timerData);
 		} finally {
-			persistAllLock.unlock();
+			lock.unlock();
+		}
+
+		if (added) {
+			// eviction is done outside of the lock, as it locks the stripes of the evicted objects
+			int count = elementCount.incrementAndGet();
+			// remove oldest as long as number of elements is higher than maximum
+			while (maxElements < count) {
+				TimerData oldest = queue.poll();
+				if (null == oldest) {
+					break;
+				}
+				removeFromMap(oldest);
+				persistList.add(oldest);
+				count = elementCount.decrementAndGet();
+			}
 		}
 	}
 
@@ -150,24 +167,19 @@ public class TimerDataAggregator extends AbstractJpaDao<TimerData> {
 	 */
 	public void removeAndPersistAll() {
 		if (!queue.isEmpty()) {
-			persistAllLock.lock();
-			try {
-				tt.execute(new TransactionCallbackWithoutResult() {
-					@Override
-					protected void doInTransactionWithoutResult(TransactionStatus status) {
-						TimerData oldest = queue.poll();
-						while (oldest != null) {
-							map.remove(getCacheHash(oldest.getPlatformIdent(), oldest.getMethodIdent(), oldest.getTimeStamp().getTime()));
-							TimerDataAggregator.super.create(oldest);
-							elementCount.decrementAndGet();
-
-							oldest = queue.poll();
-						}
+			tt.execute(new TransactionCallbackWithoutResult() {
+				@Override
+				protected void doInTransactionWithoutResult(TransactionStatus status) {
+					TimerData oldest = queue.poll();
+					while (oldest != null) {
+						removeFromMap(oldest);
+						TimerDataAggregator.super.create(oldest);
+						elementCount.decrementAndGet();
+
+						oldest = queue.poll();
 					}
-				});
-			} finally {
-				persistAllLock.unlock();
-			}
+				}
+			});
 		}
 	}
 
@@ -190,23 +202,34 @@ public class TimerDataAggregator extends AbstractJpaDao<TimerData> {
 	}
 
 	/**
-	 * Returns the cache hash code.
+	 * Removes the aggregated object polled from the queue from the map. After this method returns
+	 * no thread can aggregate further data in the object.
 	 *
-	 * @param platformIdent
-	 *            Platform ident.
-	 * @param methodIdent
-	 *            Method ident.
-	 * @param timestampValue
-	 *            Time stamp value as long.
-	 * @return Cache hash for the given set of values.
+	 * @param aggTimerData
+	 *            Aggregated object to remove.
 	 */
-	private int getCacheHash(long platformIdent, long methodIdent, long timestampValue) {
-		final int prime = 31;
-		int result = 0;
-		result = (prime * result) + (int) (platformIdent ^ (platformIdent >>> 32));
-		result = (prime * result) + (int) (methodIdent ^ (methodIdent >>> 32));
-		result = (prime * result) + (int) (timestampValue ^ (timestampValue >>> 32));
-		return result;
+	private void removeFromMap(TimerData aggTimerData) {
+		AggregationKey key = new AggregationKey(aggTimerData.getPlatformIdent(), aggTimerData.getMethodIdent(), aggTimerData.getTimeStamp().getTime());
+		ReentrantLock lock = getLock(key);
+		lock.lock();
+		try {
+			map.remove(key, aggTimerData);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the lock stripe for the given key.
+	 *
+	 * @param key
+	 *            Aggregation key.
+	 * @return Lock guarding the object with the given key.
+	 */
+	private ReentrantLock getLock(AggregationKey key) {
+		int hash = key.hashCode();
+		hash ^= hash >>> 16;
+		return locks[hash & (LOCK_STRIPES - 1)];
 	}
 
 	/**
@@ -261,4 +284,77 @@ public class TimerDataAggregator extends AbstractJpaDao<TimerData> {
 		return elementCount.get();
 	}
 
+	/**
+	 * Key of the aggregated object in the cache, consisting of platform ident, method ident and
+	 * aggregation time stamp.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static final class AggregationKey {
+
+		/**
+		 * Platform ident.
+		 */
+		private final long platformIdent;
+
+		/**
+		 * Method ident.
+		 */
+		private final long methodIdent;
+
+		/**
+		 * Aggregation time stamp value.
+		 */
+		private final long timestamp;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param platformIdent
+		 *            Platform ident.
+		 * @param methodIdent
+		 *            Method ident.
+		 * @param timestamp
+		 *            Aggregation time stamp value.
+		 */
+		AggregationKey(long platformIdent, long methodIdent, long timestamp) {
+			this.platformIdent = platformIdent;
+			this.methodIdent = methodIdent;
+			this.timestamp = timestamp;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = 1;
+			result = (prime * result) + (int) (platformIdent ^ (platformIdent >>> 32));
+			result = (prime * result) + (int) (methodIdent ^ (methodIdent >>> 32));
+			result = (prime * result) + (int) (timestamp ^ (timestamp >>> 32));
+			return result;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj == null) {
+				return false;
+			}
+			if (getClass() != obj.getClass()) {
+				return false;
+			}
+			AggregationKey other = (AggregationKey) obj;
+			return (platformIdent == other.platformIdent) && (methodIdent == other.methodIdent) && (timestamp == other.timestamp);
+		}
+
+	}
+
 }
@@ -0,0 +1,385 @@
+package rocks.inspectit.server.indexing.impl;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import rocks.inspectit.shared.all.cmr.cache.IObjectSizes;
+import rocks.inspectit.shared.all.tracing.data.AbstractSpan;
+import rocks.inspectit.shared.all.tracing.data.SpanIdent;
+
+/**
+ * Index of the spans in the buffer by the trace id. The spans of one trace are linked to their
+ * parents as they arrive, so that the complete trace and single spans can be retrieved without
+ * querying the whole indexing tree. Root spans are not served by this index, they are queried from
+ * the indexing tree, where the time-frame of the query limits the searched branches.
+ * <p>
+ * Same as the leafs of the indexing tree, the index holds only weak references to the spans. The
+ * spans evicted from the buffer are removed from the index with the {@link #clean()} method.
+ *
+ * @author agent
+ *
+ */
+@Component
+public class BufferTraceIndex {
+
+	/**
+	 * Traces mapped by the trace id.
+	 */
+	private final ConcurrentHashMap<Long, Trace> traces = new ConcurrentHashMap<>();
+
+	/**
+	 * Reference queue where cleared span references are queued by garbage collection.
+	 */
+	private final ReferenceQueue<AbstractSpan> referenceQueue = new ReferenceQueue<>();
+
+	/**
+	 * Adds the span to the trace it belongs to. Spans without the {@link SpanIdent} are ignored.
+	 *
+	 * @param span
+	 *            Span to add.
+	 */
+	public void put(AbstractSpan span) {
+		SpanIdent spanIdent = span.getSpanIdent();
+		if (null == spanIdent) {
+			return;
+		}
+
+		long traceId = spanIdent.getTraceId();
+		SpanReference reference = new SpanReference(span, referenceQueue);
+		while (true) {
+			Trace trace = traces.get(traceId);
+			if (null == trace) {
+				trace = new Trace();
+				Trace existing = traces.putIfAbsent(traceId, trace);
+				if (null != existing) {
+					trace = existing;
+				}
+			}
+			if (trace.add(span, reference)) {
+				return;
+			}
+			// trace was emptied by the clean in the meantime
+			traces.remove(traceId, trace);
+		}
+	}
+
+	/**
+	 * Returns the spans of the trace. Spans are ordered depth-first starting from the spans whose
+	 * parent is not available in the trace, followed by the spans that could not be linked to such
+	 * entry span.
+	 *
+	 * @param traceId
+	 *            Trace id.
+	 * @return Spans of the trace or empty list if trace is not in the index.
+	 */
+	public List<AbstractSpan> getSpans(long traceId) {
+		Trace trace = traces.get(traceId);
+		if (null == trace) {
+			return Collections.emptyList();
+		}
+		return trace.getSpans();
+	}
+
+	/**
+	 * Returns the span with the given span ident.
+	 *
+	 * @param spanIdent
+	 *            {@link SpanIdent}
+	 * @return Span or <code>null</code> if span is not in the index.
+	 */
+	public AbstractSpan get(SpanIdent spanIdent) {
+		Trace trace = traces.get(spanIdent.getTraceId());
+		if (null == trace) {
+			return null;
+		}
+		return trace.get(spanIdent.getId());
+	}
+
+	/**
+	 * Removes the spans that were garbage collected from the index.
+	 */
+	public void clean() {
+		SpanReference reference = (SpanReference) referenceQueue.poll();
+		while (null != reference) {
+			Trace trace = traces.get(reference.traceId);
+			if ((null != trace) && trace.remove(reference)) {
+				traces.remove(reference.traceId, trace);
+			}
+			reference = (SpanReference) referenceQueue.poll();
+		}
+	}
+
+	/**
+	 * Removes all traces from the index.
+	 */
+	public void clearAll() {
+		traces.clear();
+	}
+
+	/**
+	 * Returns the amount of traces currently in the index.
+	 *
+	 * @return Returns the amount of traces currently in the index.
+	 */
+	public int getTraceCount() {
+		return traces.size();
+	}
+
+	/**
+	 * Returns the approximate size of the index in bytes.
+	 *
+	 * @param objectSizes
+	 *            Object sizes to use for calculation.
+	 * @return Size in bytes.
+	 */
+	public long getComponentSize(IObjectSizes objectSizes) {
+		int traceCount = traces.size();
+		long size = objectSizes.getSizeOfObjectHeader();
+		size += objectSizes.getPrimitiveTypesSize(2, 0, 0, 0, 0, 0);
+		size = objectSizes.alignTo8Bytes(size);
+		size += objectSizes.getSizeOfConcurrentHashMap(traceCount);
+		size += traceCount * objectSizes.getSizeOfLongObject();
+		for (Trace trace : traces.values()) {
+			size += trace.getSize(objectSizes);
+		}
+		return size;
+	}
+
+	/**
+	 * Spans of one trace. Each span is linked to its parent when added, thus the trace is assembled
+	 * incrementally as the spans arrive.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static class Trace {
+
+		/**
+		 * Span references mapped by the span id.
+		 */
+		private final Map<Long, SpanReference> spans = new LinkedHashMap<>(4);
+
+		/**
+		 * Ids of the child spans mapped by the parent span id.
+		 */
+		private final Map<Long, List<Long>> children = new HashMap<>(4);
+
+		/**
+		 * If the trace has been emptied and removed from the index. No spans can be added to a
+		 * removed trace.
+		 */
+		private boolean removed;
+
+		/**
+		 * Adds the span to the trace.
+		 *
+		 * @param span
+		 *            Span to add.
+		 * @param reference
+		 *            Reference to the span.
+		 * @return <code>false</code> if the trace has already been removed from the index.
+		 */
+		synchronized boolean add(AbstractSpan span, SpanReference reference) {
+			if (removed) {
+				return false;
+			}
+			if (null != spans.put(reference.spanId, reference)) {
+				// same span indexed again, links are already there
+				return true;
+			}
+			if (!span.isRoot()) {
+				List<Long> siblings = children.get(span.getParentSpanId());
+				if (null == siblings) {
+					siblings = new ArrayList<>(2);
+					children.put(span.getParentSpanId(), siblings);
+				}
+				siblings.add(reference.spanId);
+			}
+			return true;
+		}
+
+		/**
+		 * Removes the span of the cleared reference from the trace.
+		 *
+		 * @param reference
+		 *            Cleared reference.
+		 * @return <code>true</code> if trace is empty after removal and thus marked as removed.
+		 */
+		synchronized boolean remove(SpanReference reference) {
+			if (spans.get(reference.spanId) != reference) { // NOPMD
+				return false;
+			}
+			spans.remove(reference.spanId);
+			List<Long> siblings = children.get(reference.parentSpanId);
+			if (null != siblings) {
+				siblings.remove(Long.valueOf(reference.spanId));
+				if (siblings.isEmpty()) {
+					children.remove(reference.parentSpanId);
+				}
+			}
+			if (spans.isEmpty()) {
+				removed = true;
+			}
+			return removed;
+		}
+
+		/**
+		 * Returns the span with given id.
+		 *
+		 * @param spanId
+		 *            Span id.
+		 * @return Span or <code>null</code> if it does not exist or is already collected.
+		 */
+		synchronized AbstractSpan get(long spanId) {
+			SpanReference reference = spans.get(spanId);
+			if (null == reference) {
+				return null;
+			}
+			return reference.get();
+		}
+
+		/**
+		 * Returns all spans of the trace ordered depth-first.
+		 *
+		 * @return All spans of the trace.
+		 */
+		synchronized List<AbstractSpan> getSpans() {
+			List<AbstractSpan> results = new ArrayList<>(spans.size());
+			Set<Long> visited = new HashSet<>(spans.size());
+
+			// start with the spans which parent is not in the trace
+			for (SpanReference reference : spans.values()) {
+				AbstractSpan span = reference.get();
+				if ((null != span) && !spans.containsKey(span.getParentSpanId())) {
+					addSubtree(span, results, visited);
+				}
+			}
+
+			// spans re-linked to a parent after adding, or forming a cycle
+			if (visited.size() < spans.size()) {
+				for (SpanReference reference : spans.values()) {
+					AbstractSpan span = reference.get();
+					if ((null != span) && !visited.contains(reference.spanId)) {
+						addSubtree(span, results, visited);
+					}
+				}
+			}
+			return results;
+		}
+
+		/**
+		 * Adds the span and all its children to the results.
+		 *
+		 * @param span
+		 *            Span to start from.
+		 * @param results
+		 *            List to add spans to.
+		 * @param visited
+		 *            Ids of the spans already added.
+		 */
+		private void addSubtree(AbstractSpan span, List<AbstractSpan> results, Set<Long> visited) {
+			Deque<AbstractSpan> stack = new ArrayDeque<>();
+			stack.push(span);
+			while (!stack.isEmpty()) {
+				AbstractSpan current = stack.pop();
+				long currentId = current.getSpanIdent().getId();
+				if (!visited.add(currentId)) {
+					continue;
+				}
+				results.add(current);
+
+				List<Long> childIds = children.get(currentId);
+				if (null != childIds) {
+					for (int i = childIds.size() - 1; i >= 0; i--) {
+						SpanReference childReference = spans.get(childIds.get(i));
+						AbstractSpan child = (null != childReference) ? childReference.get() : null;
+						// the parent of the child could be changed after adding
+						if ((null != child) && (child.getParentSpanId() == currentId)) {
+							stack.push(child);
+						}
+					}
+				}
+			}
+		}
+
+		/**
+		 * Returns the approximate size of the trace in bytes.
+		 *
+		 * @param objectSizes
+		 *            Object sizes to use for calculation.
+		 * @return Size in bytes.
+		 */
+		synchronized long getSize(IObjectSizes objectSizes) {
+			long size = objectSizes.getSizeOfObjectHeader();
+			size += objectSizes.getPrimitiveTypesSize(2, 1, 0, 0, 0, 0);
+			size = objectSizes.alignTo8Bytes(size);
+
+			// spans with the reference and the key
+			size += objectSizes.getSizeOfHashMap(spans.size());
+			size += spans.size() * (objectSizes.getSizeOfCustomWeakReference() + objectSizes.getSizeOfLongObject());
+
+			// children lists
+			size += objectSizes.getSizeOfHashMap(children.size());
+			size += children.size() * objectSizes.getSizeOfLongObject();
+			for (List<Long> childIds : children.values()) {
+				size += objectSizes.getSizeOf(childIds);
+				size += childIds.size() * objectSizes.getSizeOfLongObject();
+			}
+			return size;
+		}
+	}
+
+	/**
+	 * Weak reference to the span that additionally holds the ids needed to remove it from the
+	 * index once the span is collected.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static class SpanReference extends WeakReference<AbstractSpan> {
+
+		/**
+		 * Trace id of the span.
+		 */
+		private final long traceId;
+
+		/**
+		 * Id of the span.
+		 */
+		private final long spanId;
+
+		/**
+		 * Parent id of the span at the time it was added.
+		 */
+		private final long parentSpanId;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param span
+		 *            Span to refer to.
+		 * @param queue
+		 *            Reference queue to register the reference with.
+		 */
+		SpanReference(AbstractSpan span, ReferenceQueue<? super AbstractSpan> queue) {
+			super(span, queue);
+			this.traceId = span.getSpanIdent().getTraceId();
+			this.spanId = span.getSpanIdent().getId();
+			this.parentSpanId = span.getParentSpanId();
+		}
+	}
+
+}
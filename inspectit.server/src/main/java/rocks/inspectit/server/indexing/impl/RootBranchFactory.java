@@ -4,10 +4,13 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
 import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import rocks.inspectit.server.indexing.impl.RootBranchFactory.RootBranch;
+import rocks.inspectit.shared.all.cmr.cache.IObjectSizes;
 import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.tracing.data.AbstractSpan;
 import rocks.inspectit.shared.cs.indexing.buffer.IBufferBranchIndexer;
 import rocks.inspectit.shared.cs.indexing.buffer.IBufferTreeComponent;
 import rocks.inspectit.shared.cs.indexing.buffer.impl.Branch;
@@ -27,6 +30,12 @@ import rocks.inspectit.shared.cs.indexing.indexer.impl.TimestampIndexer;
 @Component
 public class RootBranchFactory implements FactoryBean<RootBranch<DefaultData>> {
 
+	/**
+	 * Trace index to feed with the spans put into the tree. Can be <code>null</code>.
+	 */
+	@Autowired(required = false)
+	BufferTraceIndex bufferTraceIndex;
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -35,7 +44,7 @@ public class RootBranchFactory implements FactoryBean<RootBranch<DefaultData>> {
 		BufferBranchIndexer<DefaultData> timestampIndexer = new BufferBranchIndexer<>(new TimestampIndexer<>());
 		BufferBranchIndexer<DefaultData> objectTypeIndexer = new BufferBranchIndexer<>(new ObjectTypeIndexer<>(), timestampIndexer);
 		BufferBranchIndexer<DefaultData> platformIndexer = new BufferBranchIndexer<>(new PlatformIdentIndexer<>(), objectTypeIndexer);
-		return new RootBranch<>(platformIndexer);
+		return new RootBranch<>(platformIndexer, bufferTraceIndex);
 	}
 
 	/**
@@ -79,6 +88,27 @@ public class RootBranchFactory implements FactoryBean<RootBranch<DefaultData>> {
 		 */
 		private Future<?> clearEmptyComponentsFuture;
 
+		/**
+		 * Index of the spans by the trace id. Can be <code>null</code>.
+		 */
+		private final BufferTraceIndex bufferTraceIndex;
+
+		/**
+		 * Runnable for cleaning the trace index.
+		 */
+		private Runnable cleanTraceIndexRunnable = new Runnable() {
+
+			@Override
+			public void run() {
+				RootBranch.this.bufferTraceIndex.clean();
+			}
+		};
+
+		/**
+		 * Future that holds state of clean trace index runnable.
+		 */
+		private Future<?> cleanTraceIndexFuture;
+
 		/**
 		 * Default constructor.
 		 *
@@ -86,7 +116,20 @@ public class RootBranchFactory implements FactoryBean<RootBranch<DefaultData>> {
 		 *            Branch indexer for root branch.
 		 */
 		public RootBranch(IBufferBranchIndexer<E> branchIndexer) {
+			this(branchIndexer, null);
+		}
+
+		/**
+		 * Constructor that additionally sets the trace index that the spans are put to.
+		 *
+		 * @param branchIndexer
+		 *            Branch indexer for root branch.
+		 * @param bufferTraceIndex
+		 *            Index of the spans by the trace id. Can be <code>null</code>.
+		 */
+		public RootBranch(IBufferBranchIndexer<E> branchIndexer, BufferTraceIndex bufferTraceIndex) {
 			super(branchIndexer);
+			this.bufferTraceIndex = bufferTraceIndex;
 		}
 
 		/**
@@ -99,7 +142,11 @@ public class RootBranchFactory implements FactoryBean<RootBranch<DefaultData>> {
 			if (null == element) {
 				throw new IndexingException("Null object can not be indexed.");
 			}
-			return super.put(element);
+			E result = super.put(element);
+			if ((null != bufferTraceIndex) && (element instanceof AbstractSpan)) {
+				bufferTraceIndex.put((AbstractSpan) element);
+			}
+			return result;
 		}
 
 		/**
@@ -112,6 +159,32 @@ public class RootBranchFactory implements FactoryBean<RootBranch<DefaultData>> {
 				// Submit runnable only if the future is signaling that the last one was done.
 				clearEmptyComponentsFuture = executorService.submit(clearEmptyComponentsRunnable);
 			}
+			if ((null != bufferTraceIndex) && ((cleanTraceIndexFuture == null) || cleanTraceIndexFuture.isDone())) {
+				cleanTraceIndexFuture = executorService.submit(cleanTraceIndexRunnable);
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public long getComponentSize(IObjectSizes objectSizes) {
+			long size = super.getComponentSize(objectSizes);
+			if (null != bufferTraceIndex) {
+				size += bufferTraceIndex.getComponentSize(objectSizes);
+			}
+			return size;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void clearAll() {
+			super.clearAll();
+			if (null != bufferTraceIndex) {
+				bufferTraceIndex.clearAll();
+			}
 		}
 
 	}
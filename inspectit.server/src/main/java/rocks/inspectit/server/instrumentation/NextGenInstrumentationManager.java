@@ -3,12 +3,18 @@ package rocks.inspectit.server.instrumentation;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.slf4j.Logger;
@@ -23,7 +29,10 @@ import rocks.inspectit.server.event.AgentDeletedEvent;
 import rocks.inspectit.server.event.AgentRegisteredEvent;
 import rocks.inspectit.server.instrumentation.classcache.ClassCache;
 import rocks.inspectit.server.instrumentation.classcache.ClassCacheModificationException;
+import rocks.inspectit.server.instrumentation.classcache.ClassCachePersistence;
+import rocks.inspectit.server.instrumentation.classcache.ClassStructureStore;
 import rocks.inspectit.server.instrumentation.config.AgentCacheEntry;
+import rocks.inspectit.server.instrumentation.config.ApplierResultCache;
 import rocks.inspectit.server.instrumentation.config.ConfigurationHolder;
 import rocks.inspectit.server.instrumentation.config.ConfigurationResolver;
 import rocks.inspectit.server.instrumentation.config.applier.JmxMonitoringApplier;
@@ -32,6 +41,7 @@ import rocks.inspectit.shared.all.exception.enumeration.AgentManagementErrorCode
 import rocks.inspectit.shared.all.instrumentation.classcache.ImmutableClassType;
 import rocks.inspectit.shared.all.instrumentation.classcache.ImmutableType;
 import rocks.inspectit.shared.all.instrumentation.classcache.Type;
+import rocks.inspectit.shared.all.instrumentation.classcache.util.ClassHashDigest;
 import rocks.inspectit.shared.all.instrumentation.config.impl.AgentConfig;
 import rocks.inspectit.shared.all.instrumentation.config.impl.InstrumentationDefinition;
 import rocks.inspectit.shared.all.instrumentation.config.impl.JmxAttributeDescriptor;
@@ -49,6 +59,11 @@ import rocks.inspectit.shared.cs.cmr.service.IRegistrationService;
 @Component
 public class NextGenInstrumentationManager implements ApplicationListener<AgentDeletedEvent> {
 
+	/**
+	 * Interval in minutes for saving the changed class caches to the disk.
+	 */
+	private static final long CLASS_CACHE_SAVE_INTERVAL_MINUTES = 5L;
+
 	/**
 	 * Logger for the class.
 	 */
@@ -86,12 +101,37 @@ public class NextGenInstrumentationManager implements ApplicationListener<AgentD
 	@Qualifier("agentServiceExecutorService")
 	private ExecutorService executor;
 
+	/**
+	 * Executor for saving the class caches.
+	 */
+	@Autowired
+	@Qualifier("scheduledExecutorService")
+	private ScheduledExecutorService scheduledExecutorService;
+
 	/**
 	 * Event publisher.
 	 */
 	@Autowired
 	private ApplicationEventPublisher eventPublisher;
 
+	/**
+	 * Persistence for saving and restoring the class caches.
+	 */
+	@Autowired
+	private ClassCachePersistence classCachePersistence;
+
+	/**
+	 * CMR-wide store of the class structures shared by the class caches of all agents.
+	 */
+	@Autowired
+	private ClassStructureStore classStructureStore;
+
+	/**
+	 * CMR-wide cache of the classes not instrumented by the appliers.
+	 */
+	@Autowired
+	private ApplierResultCache applierResultCache;
+
 	/**
 	 * Cache for the agents and it's used class cache, environments and configurations.
 	 */
@@ -116,14 +156,23 @@ public class NextGenInstrumentationManager implements ApplicationListener<AgentD
 		Environment cachedEnvironment = configurationHolder.getEnvironment();
 
 		// if we have same environment and configuration return configuration
-		if (configurationHolder.isInitialized() && Objects.equals(environment, cachedEnvironment)) {
+		boolean initialized = configurationHolder.isInitialized();
+		if (initialized && Objects.equals(environment, cachedEnvironment)) {
 			AgentConfig agentConfiguration = configurationHolder.getAgentConfiguration();
 			Map<Collection<String>, InstrumentationDefinition> initial = classCache.getInstrumentationService().getInstrumentationResultsWithHashes();
 			agentConfiguration.setInitialInstrumentationResults(initial);
 			agentConfiguration.setClassCacheExistsOnCmr(true);
+			agentConfiguration.setClassCacheDigest(null);
 			return agentConfiguration;
 		}
 
+		// class cache without initialized configuration can only be restored from the disk
+		Collection<? extends ImmutableType> restoredTypes = Collections.emptyList();
+		if (!initialized && classCachePersistence.isActive()) {
+			restoredTypes = classCache.getLookupService().findAll();
+		}
+		boolean classCacheRestored = CollectionUtils.isNotEmpty(restoredTypes);
+
 		// else kick the configuration creator update
 		configurationHolder.update(environment, id);
 
@@ -136,8 +185,39 @@ public class NextGenInstrumentationManager implements ApplicationListener<AgentD
 			}
 		});
 
+		AgentConfig agentConfiguration = configurationHolder.getAgentConfiguration();
+
+		// if the class cache was restored the agent can keep its sending classes cache if it
+		// contains the same classes, as only the hashes are known to the agent the restored
+		// classes must be instrumented with the initial instrumentation results
+		if (classCacheRestored) {
+			classCache.getInstrumentationService().addInstrumentationPoints(agentConfiguration, configurationHolder.getInstrumentationAppliers());
+			Map<Collection<String>, InstrumentationDefinition> initial = classCache.getInstrumentationService().getInstrumentationResultsWithHashes();
+			agentConfiguration.setInitialInstrumentationResults(initial);
+			agentConfiguration.setClassCacheExistsOnCmr(true);
+			agentConfiguration.setClassCacheDigest(getClassHashDigest(restoredTypes));
+		}
+
 		// return configuration
-		return configurationHolder.getAgentConfiguration();
+		return agentConfiguration;
+	}
+
+	/**
+	 * Returns the digest of the hashes of all given types.
+	 *
+	 * @param types
+	 *            Types of the class cache.
+	 * @return Returns the digest of the hashes of all given types.
+	 * @see ClassHashDigest
+	 */
+	private long getClassHashDigest(Collection<? extends ImmutableType> types) {
+		ClassHashDigest digest = new ClassHashDigest();
+		for (ImmutableType type : types) {
+			for (String hash : type.getHashes()) {
+				digest.add(hash);
+			}
+		}
+		return digest.getValue();
 	}
 
 	/**
@@ -161,6 +241,8 @@ public class NextGenInstrumentationManager implements ApplicationListener<AgentD
 		// if does not exists, parse, merge & configure instrumentation points
 		if (null == type) {
 			try {
+				// share the structure with other agents having the same class
+				classStructureStore.share(platformIdent, hash, sentType);
 				classCache.getModificationService().merge(sentType);
 
 				// get real object after merging
@@ -186,7 +268,42 @@ public class NextGenInstrumentationManager implements ApplicationListener<AgentD
 			return null;
 		}
 
-		return classCache.getInstrumentationService().addAndGetInstrumentationResult(classType, configurationHolder.getAgentConfiguration(), configurationHolder.getInstrumentationAppliers());
+		// skip the appliers if same class is already known not to be instrumented
+		String resultKey = applierResultCache.getKey(configurationHolder.getInstrumentationAppliersKey(), classCache, classType);
+		if (applierResultCache.isNotInstrumented(resultKey)) {
+			return null;
+		}
+
+		InstrumentationDefinition instrumentationDefinition = classCache.getInstrumentationService().addAndGetInstrumentationResult(classType, configurationHolder.getAgentConfiguration(),
+				configurationHolder.getInstrumentationAppliers());
+		if (null == instrumentationDefinition) {
+			applierResultCache.markNotInstrumented(resultKey);
+		}
+		return instrumentationDefinition;
+	}
+
+	/**
+	 * Analyzes all given types in the iteration order of the map.
+	 *
+	 * @param platformIdent
+	 *            Id of the agent.
+	 * @param hashAndTypes
+	 *            Map of class hash codes to the types sent by the agent.
+	 * @return Map of class hash codes to the instrumentation definitions. Types without
+	 *         instrumentation definition are not contained in the map.
+	 * @throws BusinessException
+	 *             If agent with specified id does not exist.
+	 * @see #analyze(long, String, Type)
+	 */
+	public Map<String, InstrumentationDefinition> analyzeAll(long platformIdent, Map<String, Type> hashAndTypes) throws BusinessException {
+		Map<String, InstrumentationDefinition> result = new HashMap<>();
+		for (Entry<String, Type> entry : hashAndTypes.entrySet()) {
+			InstrumentationDefinition instrumentationDefinition = analyze(platformIdent, entry.getKey(), entry.getValue());
+			if (null != instrumentationDefinition) {
+				result.put(entry.getKey(), instrumentationDefinition);
+			}
+		}
+		return result;
 	}
 
 	/**
@@ -270,6 +387,40 @@ public class NextGenInstrumentationManager implements ApplicationListener<AgentD
 	@Override
 	public void onApplicationEvent(AgentDeletedEvent event) {
 		agentCacheMap.remove(event.getPlatformId());
+		classCachePersistence.delete(event.getPlatformId());
+		classStructureStore.release(event.getPlatformId());
+	}
+
+	/**
+	 * Saves the class caches of all agents that changed since the last save.
+	 */
+	public void saveClassCaches() {
+		for (AgentCacheEntry agentCacheEntry : agentCacheMap.values()) {
+			classCachePersistence.save(agentCacheEntry.getId(), agentCacheEntry.getClassCache());
+		}
+	}
+
+	/**
+	 * Schedules the periodic saving of the class caches if the persistence is active.
+	 */
+	@PostConstruct
+	public void postConstruct() {
+		if (classCachePersistence.isActive()) {
+			scheduledExecutorService.scheduleWithFixedDelay(new Runnable() {
+				@Override
+				public void run() {
+					saveClassCaches();
+				}
+			}, CLASS_CACHE_SAVE_INTERVAL_MINUTES, CLASS_CACHE_SAVE_INTERVAL_MINUTES, TimeUnit.MINUTES);
+		}
+	}
+
+	/**
+	 * Saves the class caches on shutdown.
+	 */
+	@PreDestroy
+	public void preDestroy() {
+		saveClassCaches();
 	}
 
 	/**
@@ -283,6 +434,7 @@ public class NextGenInstrumentationManager implements ApplicationListener<AgentD
 		AgentCacheEntry agentCacheEntry = agentCacheMap.get(Long.valueOf(platformIdent));
 		if (null == agentCacheEntry) {
 			ClassCache classCache = classCacheFactory.getObject();
+			classCachePersistence.restore(platformIdent, classCache);
 			ConfigurationHolder configurationHolder = configurationHolderFactory.getObject();
 			agentCacheEntry = new AgentCacheEntry(platformIdent, classCache, configurationHolder);
 			AgentCacheEntry existing = agentCacheMap.putIfAbsent(Long.valueOf(platformIdent), agentCacheEntry);
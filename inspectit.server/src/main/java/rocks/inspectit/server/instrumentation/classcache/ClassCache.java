@@ -3,6 +3,7 @@ package rocks.inspectit.server.instrumentation.classcache;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -66,6 +67,11 @@ public class ClassCache {
 	 */
 	private final List<INodeChangeListener> nodeChangeListeners = new ArrayList<>();
 
+	/**
+	 * Amount of changes to the class node and reference structure.
+	 */
+	private final AtomicLong modificationCount = new AtomicLong();
+
 	/**
 	 * Lock of the structure.
 	 */
@@ -156,6 +162,7 @@ public class ClassCache {
 	 *            the changes to the structure.
 	 */
 	void informNodeChange(NodeEvent e) {
+		modificationCount.incrementAndGet();
 		for (INodeChangeListener listener : nodeChangeListeners) {
 			listener.informNodeChange(e);
 		}
@@ -173,6 +180,7 @@ public class ClassCache {
 	 *            the changes to the structure.
 	 */
 	void informReferenceChange(ReferenceEvent e) {
+		modificationCount.incrementAndGet();
 		for (INodeChangeListener listener : nodeChangeListeners) {
 			listener.informReferenceChange(e);
 		}
@@ -185,6 +193,17 @@ public class ClassCache {
 		nodeChangeListeners.add(listener);
 	}
 
+	/**
+	 * Returns the amount of changes to the class node and reference structure since the class
+	 * cache was created. Can be used to check if the structure changed between two points in
+	 * time.
+	 *
+	 * @return Returns the amount of changes to the class node and reference structure.
+	 */
+	public long getModificationCount() {
+		return modificationCount.get();
+	}
+
 	/**
 	 * Returns the modification service. The modification service provides a set of services that
 	 * allow to change the class cache in a safe way.
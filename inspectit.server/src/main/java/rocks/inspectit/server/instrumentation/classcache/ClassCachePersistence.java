@@ -0,0 +1,604 @@
+package rocks.inspectit.server.instrumentation.classcache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import rocks.inspectit.shared.all.instrumentation.classcache.AnnotationType;
+import rocks.inspectit.shared.all.instrumentation.classcache.ClassType;
+import rocks.inspectit.shared.all.instrumentation.classcache.ImmutableType;
+import rocks.inspectit.shared.all.instrumentation.classcache.InterfaceType;
+import rocks.inspectit.shared.all.instrumentation.classcache.MethodType;
+import rocks.inspectit.shared.all.instrumentation.classcache.Type;
+import rocks.inspectit.shared.all.instrumentation.classcache.TypeWithMethods;
+import rocks.inspectit.shared.all.spring.logger.Log;
+
+/**
+ * Saves the structure of the {@link ClassCache} of an agent to the disk and restores it, so that
+ * the agents do not have to send all their classes again after the CMR restart.
+ * <p>
+ * Only the initialized types are saved, in the same form as the agent sends them: each type with
+ * its hashes, modifiers and methods, while the referenced types are saved only by their fully
+ * qualified names. Restoring merges the types back into the class cache, which rebuilds all
+ * references and indexes. The instrumentation points are not saved, as they are resolved again for
+ * the current environment of the agent when the agent registers.
+ * <p>
+ * The file is a compact binary format with a string table, so that each name and hash is written
+ * only once.
+ *
+ * @author agent
+ *
+ */
+@Component
+public class ClassCachePersistence {
+
+	/**
+	 * Version of the file format, files with different version are ignored.
+	 */
+	private static final int FORMAT_VERSION = 1;
+
+	/**
+	 * Extension of the class cache files.
+	 */
+	private static final String FILE_EXTENSION = ".classcache";
+
+	/**
+	 * Marker for the class types.
+	 */
+	private static final byte CLASS = 0;
+
+	/**
+	 * Marker for the interface types.
+	 */
+	private static final byte INTERFACE = 1;
+
+	/**
+	 * Marker for the annotation types.
+	 */
+	private static final byte ANNOTATION = 2;
+
+	/**
+	 * Index used for the <code>null</code> strings.
+	 */
+	private static final int NULL_INDEX = -1;
+
+	/**
+	 * The logger of this class.
+	 */
+	@Log
+	Logger log;
+
+	/**
+	 * Store for sharing the structures of the restored types with other agents.
+	 */
+	@Autowired
+	ClassStructureStore classStructureStore;
+
+	/**
+	 * If saving and restoring of the class caches is active.
+	 */
+	@Value("${cmr.classCachePersistence}")
+	boolean active;
+
+	/**
+	 * Folder where the class caches are saved.
+	 */
+	@Value("${cmr.classCacheFolder}")
+	String folder;
+
+	/**
+	 * Modification count of the class cache of each agent at the time of the last save or restore.
+	 * Used to skip saving if nothing changed.
+	 */
+	private final Map<Long, Long> savedModificationCounts = new ConcurrentHashMap<>();
+
+	/**
+	 * Gets {@link #active}.
+	 *
+	 * @return {@link #active}
+	 */
+	public boolean isActive() {
+		return active;
+	}
+
+	/**
+	 * Restores the saved class cache structure of the agent into the given class cache.
+	 *
+	 * @param platformIdent
+	 *            Id of the agent.
+	 * @param classCache
+	 *            Class cache to restore the structure to, should be empty.
+	 * @return <code>true</code> if any type was restored, <code>false</code> otherwise.
+	 */
+	public boolean restore(long platformIdent, ClassCache classCache) {
+		if (!active) {
+			return false;
+		}
+
+		Path file = getFile(platformIdent);
+		if (Files.notExists(file)) {
+			return false;
+		}
+
+		// decode completely first, so that nothing is merged if the file is corrupted
+		List<Type> types;
+		try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(file))) {
+			types = read(new DataInputStream(inputStream));
+		} catch (IOException | RuntimeException e) {
+			log.warn("|-Saved class cache of the agent with id " + platformIdent + " can not be read and will be deleted.", e);
+			delete(platformIdent);
+			return false;
+		}
+
+		ClassCacheModification modificationService = classCache.getModificationService();
+		for (Type type : types) {
+			try {
+				classStructureStore.share(platformIdent, type.getHashes().iterator().next(), type);
+				modificationService.merge(type);
+			} catch (ClassCacheModificationException e) {
+				log.warn("|-Type " + type.getFQN() + " from the saved class cache of the agent with id " + platformIdent + " can not be restored.", e);
+			}
+		}
+		savedModificationCounts.put(platformIdent, classCache.getModificationCount());
+
+		if (log.isInfoEnabled()) {
+			log.info("|-Restored " + types.size() + " types from the saved class cache of the agent with id " + platformIdent);
+		}
+		return !types.isEmpty();
+	}
+
+	/**
+	 * Saves the class cache structure of the agent to the disk. Nothing is done if the class cache
+	 * did not change since the last save or restore.
+	 *
+	 * @param platformIdent
+	 *            Id of the agent.
+	 * @param classCache
+	 *            Class cache to save.
+	 */
+	public void save(final long platformIdent, final ClassCache classCache) {
+		if (!active) {
+			return;
+		}
+
+		final Long savedModificationCount = savedModificationCounts.get(platformIdent);
+		if ((null != savedModificationCount) && (savedModificationCount.longValue() == classCache.getModificationCount())) {
+			return;
+		}
+
+		try {
+			// encode with the read lock so that the structure does not change, but write to disk
+			// without holding it
+			Encoded encoded = classCache.executeWithReadLock(new Callable<Encoded>() {
+				@Override
+				public Encoded call() throws Exception {
+					return new Encoded(classCache.getModificationCount(), write(classCache.getLookupService().findAll()));
+				}
+			});
+
+			Path file = getFile(platformIdent);
+			Files.createDirectories(file.getParent());
+			Path tmpFile = file.resolveSibling(file.getFileName() + ".tmp");
+			try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(tmpFile))) {
+				outputStream.write(encoded.bytes);
+			}
+			Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+			savedModificationCounts.put(platformIdent, encoded.modificationCount);
+		} catch (Exception e) { // NOPMD
+			log.warn("|-Class cache of the agent with id " + platformIdent + " can not be saved.", e);
+		}
+	}
+
+	/**
+	 * Deletes the saved class cache of the agent.
+	 *
+	 * @param platformIdent
+	 *            Id of the agent.
+	 */
+	public void delete(long platformIdent) {
+		savedModificationCounts.remove(platformIdent);
+		try {
+			Files.deleteIfExists(getFile(platformIdent));
+		} catch (IOException e) {
+			log.warn("|-Saved class cache of the agent with id " + platformIdent + " can not be deleted.", e);
+		}
+	}
+
+	/**
+	 * Returns the file where the class cache of the agent is saved.
+	 *
+	 * @param platformIdent
+	 *            Id of the agent.
+	 * @return Returns the file where the class cache of the agent is saved.
+	 */
+	Path getFile(long platformIdent) {
+		return Paths.get(folder).resolve(platformIdent + FILE_EXTENSION).toAbsolutePath();
+	}
+
+	/**
+	 * Writes the initialized types to bytes.
+	 *
+	 * @param types
+	 *            All types of the class cache.
+	 * @return Bytes holding the types and the string table.
+	 * @throws IOException
+	 *             If writing fails.
+	 */
+	byte[] write(Collection<? extends ImmutableType> types) throws IOException {
+		StringTable stringTable = new StringTable();
+		ByteArrayOutputStream typeBytes = new ByteArrayOutputStream();
+		DataOutputStream typeOut = new DataOutputStream(typeBytes);
+
+		int count = 0;
+		for (ImmutableType immutableType : types) {
+			if (immutableType.isInitialized()) {
+				writeType(typeOut, stringTable, (Type) immutableType);
+				count++;
+			}
+		}
+		typeOut.flush();
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(typeBytes.size() + (stringTable.size() * 32));
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(FORMAT_VERSION);
+		stringTable.write(out);
+		out.writeInt(count);
+		typeBytes.writeTo(out);
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Reads the types from the input.
+	 *
+	 * @param in
+	 *            Input to read from.
+	 * @return Types as they would be sent by the agent.
+	 * @throws IOException
+	 *             If reading fails or the format is not correct.
+	 */
+	List<Type> read(DataInputStream in) throws IOException {
+		int version = in.readInt();
+		if (FORMAT_VERSION != version) {
+			throw new IOException("Class cache file version " + version + " is not supported.");
+		}
+
+		String[] strings = new String[in.readInt()];
+		for (int i = 0; i < strings.length; i++) {
+			strings[i] = in.readUTF();
+		}
+
+		int count = in.readInt();
+		List<Type> types = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			types.add(readType(in, strings));
+		}
+		return types;
+	}
+
+	/**
+	 * Writes one type.
+	 *
+	 * @param out
+	 *            Output to write to.
+	 * @param stringTable
+	 *            String table to use.
+	 * @param type
+	 *            Type to write.
+	 * @throws IOException
+	 *             If writing fails.
+	 */
+	private void writeType(DataOutputStream out, StringTable stringTable, Type type) throws IOException {
+		if (type instanceof ClassType) {
+			out.writeByte(CLASS);
+		} else if (type instanceof InterfaceType) {
+			out.writeByte(INTERFACE);
+		} else {
+			out.writeByte(ANNOTATION);
+		}
+		stringTable.writeString(out, type.getFQN());
+		out.writeInt(type.getModifiers());
+		stringTable.writeStrings(out, type.getHashes());
+		stringTable.writeFqns(out, type.getAnnotations());
+
+		if (type instanceof ClassType) {
+			ClassType classType = (ClassType) type;
+			stringTable.writeFqns(out, classType.getSuperClasses());
+			stringTable.writeFqns(out, classType.getRealizedInterfaces());
+		} else if (type instanceof InterfaceType) {
+			stringTable.writeFqns(out, ((InterfaceType) type).getSuperInterfaces());
+		}
+
+		if (type instanceof TypeWithMethods) {
+			Collection<MethodType> methods = ((TypeWithMethods) type).getMethods();
+			out.writeInt(methods.size());
+			for (MethodType method : methods) {
+				stringTable.writeString(out, method.getName());
+				out.writeInt(method.getModifiers());
+				stringTable.writeString(out, method.getReturnType());
+				stringTable.writeStrings(out, method.getParameters());
+				stringTable.writeFqns(out, method.getExceptions());
+				stringTable.writeFqns(out, method.getAnnotations());
+			}
+		}
+	}
+
+	/**
+	 * Reads one type. Referenced types are created as not initialized types, same as the agent
+	 * does when sending the type.
+	 *
+	 * @param in
+	 *            Input to read from.
+	 * @param strings
+	 *            String table.
+	 * @return Read type.
+	 * @throws IOException
+	 *             If reading fails.
+	 */
+	private Type readType(DataInputStream in, String[] strings) throws IOException {
+		byte kind = in.readByte();
+		String fqn = readString(in, strings);
+		int modifiers = in.readInt();
+		List<String> hashes = readStrings(in, strings);
+		if (hashes.isEmpty()) {
+			throw new IOException("Type " + fqn + " has no hashes.");
+		}
+
+		Type type;
+		switch (kind) {
+		case CLASS:
+			type = new ClassType(fqn, hashes.get(0), modifiers);
+			break;
+		case INTERFACE:
+			type = new InterfaceType(fqn, hashes.get(0), modifiers);
+			break;
+		case ANNOTATION:
+			type = new AnnotationType(fqn, hashes.get(0), modifiers);
+			break;
+		default:
+			throw new IOException("Unknown type kind " + kind + ".");
+		}
+		for (String hash : hashes) {
+			type.addHash(hash);
+		}
+		for (String annotation : readStrings(in, strings)) {
+			type.addAnnotation(new AnnotationType(annotation));
+		}
+
+		if (type instanceof ClassType) {
+			ClassType classType = (ClassType) type;
+			for (String superClass : readStrings(in, strings)) {
+				classType.addSuperClass(new ClassType(superClass));
+			}
+			for (String realizedInterface : readStrings(in, strings)) {
+				classType.addInterface(new InterfaceType(realizedInterface));
+			}
+		} else if (type instanceof InterfaceType) {
+			InterfaceType interfaceType = (InterfaceType) type;
+			for (String superInterface : readStrings(in, strings)) {
+				interfaceType.addSuperInterface(new InterfaceType(superInterface));
+			}
+		}
+
+		if (type instanceof TypeWithMethods) {
+			int methods = in.readInt();
+			for (int i = 0; i < methods; i++) {
+				MethodType method = new MethodType();
+				method.setName(readString(in, strings));
+				method.setModifiers(in.readInt());
+				method.setReturnType(readString(in, strings));
+				List<String> parameters = readStrings(in, strings);
+				if (!parameters.isEmpty()) {
+					method.setParameters(parameters);
+				}
+				for (String exception : readStrings(in, strings)) {
+					method.addException(new ClassType(exception));
+				}
+				for (String annotation : readStrings(in, strings)) {
+					method.addAnnotation(new AnnotationType(annotation));
+				}
+				((TypeWithMethods) type).addMethod(method);
+			}
+		}
+
+		return type;
+	}
+
+	/**
+	 * Reads a string from the string table.
+	 *
+	 * @param in
+	 *            Input to read from.
+	 * @param strings
+	 *            String table.
+	 * @return String or <code>null</code>.
+	 * @throws IOException
+	 *             If reading fails or index is out of the string table.
+	 */
+	private String readString(DataInputStream in, String[] strings) throws IOException {
+		int index = in.readInt();
+		if (NULL_INDEX == index) {
+			return null;
+		}
+		if ((index < 0) || (index >= strings.length)) {
+			throw new IOException("String index " + index + " is out of the string table.");
+		}
+		return strings[index];
+	}
+
+	/**
+	 * Reads list of strings from the string table.
+	 *
+	 * @param in
+	 *            Input to read from.
+	 * @param strings
+	 *            String table.
+	 * @return List of strings.
+	 * @throws IOException
+	 *             If reading fails.
+	 */
+	private List<String> readStrings(DataInputStream in, String[] strings) throws IOException {
+		int size = in.readInt();
+		if (0 == size) {
+			return Collections.emptyList();
+		}
+		List<String> result = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			result.add(readString(in, strings));
+		}
+		return result;
+	}
+
+	/**
+	 * String table that assigns an index to each distinct string.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static final class StringTable {
+
+		/**
+		 * Strings with the assigned indexes, in the order of adding.
+		 */
+		private final Map<String, Integer> indexes = new LinkedHashMap<>();
+
+		/**
+		 * Returns amount of strings in the table.
+		 *
+		 * @return Returns amount of strings in the table.
+		 */
+		int size() {
+			return indexes.size();
+		}
+
+		/**
+		 * Writes the index of the string, adding the string to the table if needed.
+		 *
+		 * @param out
+		 *            Output to write to.
+		 * @param string
+		 *            String, can be <code>null</code>.
+		 * @throws IOException
+		 *             If writing fails.
+		 */
+		void writeString(DataOutputStream out, String string) throws IOException {
+			if (null == string) {
+				out.writeInt(NULL_INDEX);
+				return;
+			}
+			Integer index = indexes.get(string);
+			if (null == index) {
+				index = Integer.valueOf(indexes.size());
+				indexes.put(string, index);
+			}
+			out.writeInt(index.intValue());
+		}
+
+		/**
+		 * Writes the size and the indexes of the strings.
+		 *
+		 * @param out
+		 *            Output to write to.
+		 * @param strings
+		 *            Strings to write.
+		 * @throws IOException
+		 *             If writing fails.
+		 */
+		void writeStrings(DataOutputStream out, Collection<String> strings) throws IOException {
+			out.writeInt(strings.size());
+			for (String string : strings) {
+				writeString(out, string);
+			}
+		}
+
+		/**
+		 * Writes the size and the fully qualified names of the types.
+		 *
+		 * @param out
+		 *            Output to write to.
+		 * @param types
+		 *            Types to write.
+		 * @throws IOException
+		 *             If writing fails.
+		 */
+		void writeFqns(DataOutputStream out, Collection<? extends Type> types) throws IOException {
+			out.writeInt(types.size());
+			for (Type type : types) {
+				writeString(out, type.getFQN());
+			}
+		}
+
+		/**
+		 * Writes the table.
+		 *
+		 * @param out
+		 *            Output to write to.
+		 * @throws IOException
+		 *             If writing fails.
+		 */
+		void write(DataOutputStream out) throws IOException {
+			out.writeInt(indexes.size());
+			for (String string : indexes.keySet()) {
+				out.writeUTF(string);
+			}
+		}
+
+	}
+
+	/**
+	 * Encoded class cache with the modification count at the time of encoding.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static final class Encoded {
+
+		/**
+		 * Modification count of the class cache.
+		 */
+		private final long modificationCount;
+
+		/**
+		 * Encoded bytes.
+		 */
+		private final byte[] bytes;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param modificationCount
+		 *            Modification count of the class cache.
+		 * @param bytes
+		 *            Encoded bytes.
+		 */
+		Encoded(long modificationCount, byte[] bytes) {
+			this.modificationCount = modificationCount;
+			this.bytes = bytes;
+		}
+
+	}
+
+}
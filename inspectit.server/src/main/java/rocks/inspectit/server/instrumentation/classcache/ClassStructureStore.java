@@ -0,0 +1,200 @@
+package rocks.inspectit.server.instrumentation.classcache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import rocks.inspectit.shared.all.instrumentation.classcache.MethodType;
+import rocks.inspectit.shared.all.instrumentation.classcache.Type;
+import rocks.inspectit.shared.all.instrumentation.classcache.TypeWithMethods;
+
+/**
+ * CMR-wide store of the class structures addressed by the class hash. Agents running the same
+ * application load the same classes, thus the methods of a class with the same hash are equal in
+ * the class caches of all these agents. The store keeps one canonical copy of the method names,
+ * return types and parameter lists per class hash and sets them to the types sent by the agents
+ * before they are merged to the class cache, so that all class caches share them.
+ * <p>
+ * The type graph itself stays in the class cache of each agent, as the references between the
+ * types and the instrumentation points are different for every agent. Each structure is reference
+ * counted by the agents using it and removed when the last agent using it is released.
+ *
+ * @author agent
+ *
+ */
+@Component
+public class ClassStructureStore {
+
+	/**
+	 * Structures keyed by the class hash. Access must be synchronized on the store.
+	 */
+	private final Map<String, Structure> structures = new HashMap<>();
+
+	/**
+	 * Class hashes referenced by each agent. Access must be synchronized on the store.
+	 */
+	private final Map<Long, Set<String>> agentHashes = new HashMap<>();
+
+	/**
+	 * Replaces the method names, return types and parameter lists of the type with the canonical
+	 * ones for the given hash and registers the agent as user of the structure. Must be called
+	 * before the type is merged to the class cache.
+	 *
+	 * @param platformIdent
+	 *            Id of the agent sending the type.
+	 * @param hash
+	 *            Class hash.
+	 * @param type
+	 *            Type sent by the agent.
+	 */
+	public void share(long platformIdent, String hash, Type type) {
+		if ((null == hash) || !(type instanceof TypeWithMethods)) {
+			return;
+		}
+
+		Structure structure;
+		synchronized (this) {
+			structure = structures.get(hash);
+			if (null == structure) {
+				structure = new Structure();
+				structures.put(hash, structure);
+			}
+
+			Set<String> hashes = agentHashes.get(Long.valueOf(platformIdent));
+			if (null == hashes) {
+				hashes = new HashSet<>();
+				agentHashes.put(Long.valueOf(platformIdent), hashes);
+			}
+			if (hashes.add(hash)) {
+				structure.references++;
+			}
+		}
+
+		structure.share((TypeWithMethods) type);
+	}
+
+	/**
+	 * Releases all structures used by the agent. Structures that are not used by any other agent
+	 * are removed.
+	 *
+	 * @param platformIdent
+	 *            Id of the agent.
+	 */
+	public synchronized void release(long platformIdent) {
+		Set<String> hashes = agentHashes.remove(Long.valueOf(platformIdent));
+		if (null == hashes) {
+			return;
+		}
+
+		for (String hash : hashes) {
+			Structure structure = structures.get(hash);
+			if (null != structure) {
+				structure.references--;
+				if (structure.references <= 0) {
+					structures.remove(hash);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the amount of structures in the store.
+	 *
+	 * @return Returns the amount of structures in the store.
+	 */
+	public synchronized int getStructureCount() {
+		return structures.size();
+	}
+
+	/**
+	 * Returns the amount of agents using the structure of the given hash.
+	 *
+	 * @param hash
+	 *            Class hash.
+	 * @return Returns the amount of agents using the structure of the given hash.
+	 */
+	synchronized int getReferences(String hash) {
+		Structure structure = structures.get(hash);
+		if (null == structure) {
+			return 0;
+		}
+		return structure.references;
+	}
+
+	/**
+	 * Canonical method data of one class hash.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static final class Structure {
+
+		/**
+		 * Amount of agents using the structure. Access must be synchronized on the store.
+		 */
+		private int references;
+
+		/**
+		 * Canonical strings.
+		 */
+		private final Map<String, String> strings = new HashMap<>();
+
+		/**
+		 * Canonical parameter lists.
+		 */
+		private final Map<List<String>, List<String>> parameterLists = new HashMap<>();
+
+		/**
+		 * Replaces the method data of the type with the canonical one. Data not yet known is
+		 * added as canonical.
+		 *
+		 * @param type
+		 *            Type sent by the agent.
+		 */
+		synchronized void share(TypeWithMethods type) {
+			for (MethodType methodType : type.getMethods()) {
+				methodType.setName(canonical(methodType.getName()));
+				methodType.setReturnType(canonical(methodType.getReturnType()));
+
+				List<String> parameters = methodType.getParameters();
+				if (!parameters.isEmpty()) {
+					List<String> canonicalParameters = parameterLists.get(parameters);
+					if (null == canonicalParameters) {
+						canonicalParameters = new ArrayList<>(parameters.size());
+						for (String parameter : parameters) {
+							canonicalParameters.add(canonical(parameter));
+						}
+						parameterLists.put(canonicalParameters, canonicalParameters);
+					}
+					methodType.setParameters(canonicalParameters);
+				}
+			}
+		}
+
+		/**
+		 * Returns the canonical instance of the string.
+		 *
+		 * @param string
+		 *            String, can be <code>null</code>.
+		 * @return Canonical instance of the string.
+		 */
+		private String canonical(String string) {
+			if (null == string) {
+				return null;
+			}
+			String canonical = strings.get(string);
+			if (null == canonical) {
+				strings.put(string, string);
+				return string;
+			}
+			return canonical;
+		}
+
+	}
+
+}
@@ -0,0 +1,203 @@
+package rocks.inspectit.server.instrumentation.config;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+
+import org.slf4j.Logger;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import rocks.inspectit.server.instrumentation.classcache.ClassCache;
+import rocks.inspectit.server.instrumentation.config.applier.IInstrumentationApplier;
+import rocks.inspectit.shared.all.instrumentation.classcache.ImmutableAbstractInterfaceType;
+import rocks.inspectit.shared.all.instrumentation.classcache.ImmutableClassType;
+import rocks.inspectit.shared.all.instrumentation.classcache.ImmutableInterfaceType;
+import rocks.inspectit.shared.all.instrumentation.classcache.ImmutableType;
+import rocks.inspectit.shared.all.spring.logger.Log;
+
+/**
+ * CMR-wide cache of the classes for which the {@link IInstrumentationApplier}s did not add any
+ * instrumentation point. Agents running the same application send the same classes, so with this
+ * cache the appliers are executed only once for each class and configuration and not once per
+ * agent. Only the negative results are cached, as the instrumentation points hold the method ids
+ * that are registered per agent.
+ * <p>
+ * Result of the appliers depends on the appliers themselves, the class and all types in its
+ * hierarchy. Thus the key is formed from the
+ * {@link ConfigurationHolder#getInstrumentationAppliersKey()} and the names and hashes of the class
+ * and all its known super-classes and interfaces.
+ *
+ * @author agent
+ *
+ */
+@Component
+public class ApplierResultCache {
+
+	/**
+	 * Maximum amount of keys in the cache.
+	 */
+	private static final long MAX_SIZE = 200000L;
+
+	/**
+	 * Logger for the class.
+	 */
+	@Log
+	Logger log;
+
+	/**
+	 * Keys of the classes without instrumentation points.
+	 */
+	private final Cache<String, Boolean> notInstrumented = CacheBuilder.newBuilder().maximumSize(MAX_SIZE).build();
+
+	/**
+	 * Returns the key for the given class type and the appliers.
+	 *
+	 * @param instrumentationAppliersKey
+	 *            Key of the instrumentation appliers, see
+	 *            {@link ConfigurationHolder#getInstrumentationAppliersKey()}.
+	 * @param classCache
+	 *            Class cache the class type belongs to.
+	 * @param classType
+	 *            Class type.
+	 * @return Key or <code>null</code> if key can not be created and the result should not be
+	 *         cached.
+	 */
+	public String getKey(String instrumentationAppliersKey, ClassCache classCache, final ImmutableClassType classType) {
+		if ((null == instrumentationAppliersKey) || !classType.isInitialized()) {
+			return null;
+		}
+
+		try {
+			// read hierarchy with read lock so that it does not change
+			Set<String> descriptors = classCache.executeWithReadLock(new Callable<Set<String>>() {
+				@Override
+				public Set<String> call() throws Exception {
+					Set<String> descriptors = new TreeSet<>();
+					collectDescriptors(classType, descriptors, new HashSet<ImmutableType>());
+					return descriptors;
+				}
+			});
+
+			Hasher hasher = Hashing.murmur3_128().newHasher();
+			for (String descriptor : descriptors) {
+				hasher.putString(descriptor, StandardCharsets.UTF_8).putByte((byte) 0);
+			}
+			return instrumentationAppliersKey + '#' + hasher.hash().toString();
+		} catch (Exception e) {
+			log.warn("Key for caching the instrumentation result of the type " + classType.getFQN() + " can not be created.", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Returns if the class with the given key is known not to be instrumented.
+	 *
+	 * @param key
+	 *            Key created with {@link #getKey(String, ClassCache, ImmutableClassType)}, can be
+	 *            <code>null</code>.
+	 * @return <code>true</code> if appliers do not instrument the class, <code>false</code> if
+	 *         this is not known.
+	 */
+	public boolean isNotInstrumented(String key) {
+		if (null == key) {
+			return false;
+		}
+		return null != notInstrumented.getIfPresent(key);
+	}
+
+	/**
+	 * Marks that the class with the given key is not instrumented.
+	 *
+	 * @param key
+	 *            Key created with {@link #getKey(String, ClassCache, ImmutableClassType)}, can be
+	 *            <code>null</code>.
+	 */
+	public void markNotInstrumented(String key) {
+		if (null != key) {
+			notInstrumented.put(key, Boolean.TRUE);
+		}
+	}
+
+	/**
+	 * Collects the descriptors of the class and its super-classes and realized interfaces.
+	 *
+	 * @param classType
+	 *            Class type.
+	 * @param descriptors
+	 *            Set to add descriptors to.
+	 * @param visited
+	 *            Already visited types.
+	 */
+	private void collectDescriptors(ImmutableClassType classType, Set<String> descriptors, Set<ImmutableType> visited) {
+		if (!visited.add(classType)) {
+			return;
+		}
+
+		descriptors.add(getDescriptor(classType));
+		for (ImmutableClassType superClassType : classType.getImmutableSuperClasses()) {
+			collectDescriptors(superClassType, descriptors, visited);
+		}
+		for (ImmutableAbstractInterfaceType interfaceType : classType.getImmutableRealizedInterfaces()) {
+			if (interfaceType.isInterface()) {
+				collectDescriptors(interfaceType.castToInterface(), descriptors, visited);
+			} else if (visited.add(interfaceType)) {
+				descriptors.add(getDescriptor(interfaceType));
+			}
+		}
+	}
+
+	/**
+	 * Collects the descriptors of the interface and its super-interfaces.
+	 *
+	 * @param interfaceType
+	 *            Interface type.
+	 * @param descriptors
+	 *            Set to add descriptors to.
+	 * @param visited
+	 *            Already visited types.
+	 */
+	private void collectDescriptors(ImmutableInterfaceType interfaceType, Set<String> descriptors, Set<ImmutableType> visited) {
+		if (!visited.add(interfaceType)) {
+			return;
+		}
+
+		descriptors.add(getDescriptor(interfaceType));
+		for (ImmutableInterfaceType superInterfaceType : interfaceType.getImmutableSuperInterfaces()) {
+			collectDescriptors(superInterfaceType, descriptors, visited);
+		}
+	}
+
+	/**
+	 * Returns the descriptor of the type consisting of the name and sorted hashes. Types that are
+	 * not initialized have only the name in the descriptor.
+	 *
+	 * @param type
+	 *            Type.
+	 * @return Descriptor of the type.
+	 */
+	private String getDescriptor(ImmutableType type) {
+		Set<String> hashes = type.getHashes();
+		if (hashes.isEmpty()) {
+			return type.getFQN();
+		}
+
+		List<String> sortedHashes = new ArrayList<>(hashes);
+		Collections.sort(sortedHashes);
+		StringBuilder descriptor = new StringBuilder(type.getFQN());
+		for (String hash : sortedHashes) {
+			descriptor.append(':').append(hash);
+		}
+		return descriptor.toString();
+	}
+
+}
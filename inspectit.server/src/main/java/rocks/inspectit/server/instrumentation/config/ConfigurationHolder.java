@@ -56,6 +56,14 @@ public class ConfigurationHolder {
 	 */
 	private Collection<IInstrumentationApplier> instrumentationAppliers;
 
+	/**
+	 * Key identifying the {@link #instrumentationAppliers}. Can be <code>null</code> if no
+	 * environment is set.
+	 *
+	 * @see ConfigurationResolver#getInstrumentationAppliersKey(Environment)
+	 */
+	private String instrumentationAppliersKey;
+
 	/**
 	 * Cached JMX monitoring appliers for the current environment. Can be <code>null</code> if no
 	 * environment is set.
@@ -89,12 +97,15 @@ public class ConfigurationHolder {
 		if (null != environment) {
 			this.environment = environment;
 			this.agentConfiguration = configurationCreator.environmentToConfiguration(environment, platformId);
+			// resolve key before the appliers, so that key is never newer than the appliers
+			this.instrumentationAppliersKey = configurationResolver.getInstrumentationAppliersKey(environment);
 			this.instrumentationAppliers = configurationResolver.getInstrumentationAppliers(environment);
 			this.jmxMonitoringAppliers = configurationResolver.getJmxMonitoringAppliers(environment);
 		} else {
 			this.environment = null; // NOPMD
 			this.agentConfiguration = null; // NOPMD
 			this.instrumentationAppliers = null; // NOPMD
+			this.instrumentationAppliersKey = null; // NOPMD
 			this.jmxMonitoringAppliers = null; // NOPMD
 		}
 	}
@@ -126,6 +137,15 @@ public class ConfigurationHolder {
 		return instrumentationAppliers;
 	}
 
+	/**
+	 * Gets {@link #instrumentationAppliersKey}.
+	 *
+	 * @return {@link #instrumentationAppliersKey}
+	 */
+	public String getInstrumentationAppliersKey() {
+		return instrumentationAppliersKey;
+	}
+
 	/**
 	 * Gets {@link #jmxMonitoringAppliers}.
 	 *
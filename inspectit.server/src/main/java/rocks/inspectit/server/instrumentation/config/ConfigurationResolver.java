@@ -128,6 +128,40 @@ public class ConfigurationResolver {
 		return appliers;
 	}
 
+	/**
+	 * Returns the key that identifies the instrumentation appliers of the environment. Two
+	 * environments have the same key only if they have the same id and revision, and use the same
+	 * revisions of the profiles, which means that they resolve to the equal appliers.
+	 *
+	 * @param environment
+	 *            {@link Environment} to get key for.
+	 * @return Key of the instrumentation appliers or <code>null</code> if environment is
+	 *         <code>null</code>.
+	 * @see #getInstrumentationAppliers(Environment)
+	 */
+	public String getInstrumentationAppliersKey(Environment environment) {
+		if (null == environment) {
+			return null;
+		}
+
+		StringBuilder key = new StringBuilder();
+		key.append(environment.getId()).append(':').append(environment.getRevision());
+		for (String profileId : environment.getProfileIds()) {
+			key.append('|').append(profileId).append(':');
+			try {
+				Profile profile = configurationInterfaceManager.getProfile(profileId);
+				key.append(profile.getRevision());
+				if (!profile.isActive()) {
+					key.append('!');
+				}
+			} catch (BusinessException e) {
+				// profile does not exist, same as in appliers
+				key.append('-');
+			}
+		}
+		return key.toString();
+	}
+
 	/**
 	 * Returns the {@link IInstrumentationApplier} for the given sensor assignment and the
 	 * {@link Environment} it's being used in.
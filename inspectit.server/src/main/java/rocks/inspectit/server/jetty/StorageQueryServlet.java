@@ -0,0 +1,126 @@
+package rocks.inspectit.server.jetty;
+
+import java.io.IOException;
+import java.util.List;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import rocks.inspectit.server.storage.CmrStorageQueryExecutor;
+import rocks.inspectit.server.storage.CmrStorageQueryExecutor.ResultChunkHandler;
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.exception.BusinessException;
+import rocks.inspectit.shared.all.serializer.ISerializer;
+import rocks.inspectit.shared.all.serializer.SerializationException;
+import rocks.inspectit.shared.all.serializer.provider.SerializationManagerProvider;
+import rocks.inspectit.shared.cs.communication.data.cmr.StorageQueryRequest;
+
+/**
+ * Servlet that executes the {@link StorageQueryRequest} sent in the body of the POST request and
+ * streams the results back as they are produced by the {@link CmrStorageQueryExecutor}. The format
+ * of the response is described in the {@link StorageQueryRequest}.
+ *
+ * @author agent
+ *
+ */
+public class StorageQueryServlet extends HttpServlet {
+
+	/**
+	 * Generated UID.
+	 */
+	private static final long serialVersionUID = -2671833264871805736L;
+
+	/**
+	 * The log of this class.
+	 */
+	private static final Logger LOG = LoggerFactory.getLogger(StorageQueryServlet.class);
+
+	/**
+	 * Content type of the response.
+	 */
+	private static final String CONTENT_TYPE = "application/octet-stream";
+
+	/**
+	 * {@link CmrStorageQueryExecutor}.
+	 */
+	private transient CmrStorageQueryExecutor storageQueryExecutor;
+
+	/**
+	 * {@link SerializationManagerProvider}.
+	 */
+	private transient SerializationManagerProvider serializationManagerProvider;
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+		final ISerializer serializer = serializationManagerProvider.createSerializer();
+
+		Object request;
+		try (Input input = new Input(req.getInputStream())) {
+			request = serializer.deserialize(input);
+		} catch (SerializationException e) {
+			LOG.warn("Storage query request can not be deserialized.", e);
+			resp.sendError(HttpServletResponse.SC_BAD_REQUEST);
+			return;
+		}
+		if (!(request instanceof StorageQueryRequest)) {
+			resp.sendError(HttpServletResponse.SC_BAD_REQUEST);
+			return;
+		}
+
+		resp.setContentType(CONTENT_TYPE);
+		final Output output = new Output(resp.getOutputStream());
+		try {
+			storageQueryExecutor.executeQuery((StorageQueryRequest) request, serializer, new ResultChunkHandler() {
+				@Override
+				public void handleChunk(List<? extends DefaultData> chunk) throws IOException, SerializationException {
+					if (chunk.isEmpty()) {
+						return;
+					}
+					output.writeInt(chunk.size());
+					for (DefaultData element : chunk) {
+						serializer.serialize(element, output);
+					}
+					output.flush();
+				}
+			});
+			output.writeInt(StorageQueryRequest.END_OF_RESULTS);
+		} catch (BusinessException | SerializationException e) {
+			LOG.warn("Storage query " + request + " failed.", e);
+			output.writeInt(StorageQueryRequest.QUERY_FAILED);
+		} finally {
+			output.close();
+		}
+	}
+
+	/**
+	 * Sets {@link #storageQueryExecutor}.
+	 *
+	 * @param storageQueryExecutor
+	 *            New value for {@link #storageQueryExecutor}
+	 */
+	public void setStorageQueryExecutor(CmrStorageQueryExecutor storageQueryExecutor) {
+		this.storageQueryExecutor = storageQueryExecutor;
+	}
+
+	/**
+	 * Sets {@link #serializationManagerProvider}.
+	 *
+	 * @param serializationManagerProvider
+	 *            New value for {@link #serializationManagerProvider}
+	 */
+	public void setSerializationManagerProvider(SerializationManagerProvider serializationManagerProvider) {
+		this.serializationManagerProvider = serializationManagerProvider;
+	}
+
+}
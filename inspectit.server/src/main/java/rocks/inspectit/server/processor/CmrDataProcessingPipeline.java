@@ -0,0 +1,175 @@
+package rocks.inspectit.server.processor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import rocks.inspectit.server.dao.DefaultDataDao;
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.spring.logger.Log;
+
+/**
+ * Pipeline that processes the data sent by the agents asynchronously. The pipeline splits the list
+ * of the processors into ordered {@link CmrDataProcessingStage}s, each having own worker threads
+ * with bounded queues. Every batch passes the stages in the given order, thus the processors are
+ * executed on the batch in the same order as when all processors run at once. Different batches
+ * are processed by the different stages in parallel, while the batches of one agent keep their
+ * order in every stage.
+ * <p>
+ * The data is submitted to the queue of the first stage and the caller is released immediately.
+ * If the queue is full, the caller is blocked until there is space in the queue, which slows down
+ * the agents sending the data when the CMR can not keep up with processing.
+ *
+ * @author agent
+ *
+ */
+public class CmrDataProcessingPipeline {
+
+	/**
+	 * The logger of this class.
+	 */
+	@Log
+	Logger log;
+
+	/**
+	 * The default data DAO.
+	 */
+	@Autowired
+	DefaultDataDao defaultDataDao;
+
+	/**
+	 * If the asynchronous processing is active.
+	 */
+	@Value("${cmr.asyncDataProcessing}")
+	boolean active;
+
+	/**
+	 * Amount of worker threads per stage.
+	 */
+	@Value("${cmr.dataProcessingStageThreads}")
+	int stageThreads;
+
+	/**
+	 * Maximum amount of batches waiting in the queue of one stage worker.
+	 */
+	@Value("${cmr.dataProcessingQueueCapacity}")
+	int queueCapacity;
+
+	/**
+	 * Stages of the pipeline.
+	 */
+	private final List<CmrDataProcessingStage> stages;
+
+	/**
+	 * Default constructor. The processors are split into stages at the given first processors of
+	 * each stage.
+	 *
+	 * @param processors
+	 *            All processors in the order of processing.
+	 * @param stageStarts
+	 *            Stage names mapped to the first processor of the stage, in the order of the
+	 *            processors. The first stage must start with the first processor.
+	 */
+	public CmrDataProcessingPipeline(List<AbstractCmrDataProcessor> processors, Map<String, AbstractCmrDataProcessor> stageStarts) {
+		if ((null == processors) || processors.isEmpty() || (null == stageStarts) || stageStarts.isEmpty()) {
+			throw new IllegalArgumentException("Data processing pipeline must have at least one stage.");
+		}
+
+		List<CmrDataProcessingStage> stageList = new ArrayList<>(stageStarts.size());
+		Iterator<Map.Entry<String, AbstractCmrDataProcessor>> it = stageStarts.entrySet().iterator();
+		Map.Entry<String, AbstractCmrDataProcessor> stage = it.next();
+		if (processors.get(0) != stage.getValue()) { // NOPMD
+			throw new IllegalArgumentException("The first stage " + stage.getKey() + " of the data processing pipeline must start with the first processor.");
+		}
+		int start = 0;
+		while (null != stage) {
+			Map.Entry<String, AbstractCmrDataProcessor> nextStage = it.hasNext() ? it.next() : null;
+			int end = processors.size();
+			if (null != nextStage) {
+				end = processors.subList(start + 1, processors.size()).indexOf(nextStage.getValue());
+				if (end < 0) {
+					throw new IllegalArgumentException("The first processor of the stage " + nextStage.getKey() + " is not in the processor list after the stage " + stage.getKey() + ".");
+				}
+				end += start + 1;
+			}
+			stageList.add(new CmrDataProcessingStage(stage.getKey(), processors.subList(start, end)));
+			start = end;
+			stage = nextStage;
+		}
+		this.stages = Collections.unmodifiableList(stageList);
+	}
+
+	/**
+	 * Submits the data for the processing. Blocks only if the queue of the first stage is full.
+	 *
+	 * @param dataObjects
+	 *            Data to process.
+	 * @throws InterruptedException
+	 *             If interrupted while waiting for space in the queue.
+	 */
+	public void submit(List<? extends DefaultData> dataObjects) throws InterruptedException {
+		stages.get(0).put(dataObjects);
+	}
+
+	/**
+	 * Gets {@link #active}.
+	 *
+	 * @return {@link #active}
+	 */
+	public boolean isActive() {
+		return active;
+	}
+
+	/**
+	 * Gets {@link #stages}.
+	 *
+	 * @return {@link #stages}
+	 */
+	public List<CmrDataProcessingStage> getStages() {
+		return stages;
+	}
+
+	/**
+	 * Starts the stages if the asynchronous processing is active.
+	 */
+	@PostConstruct
+	public void postConstruct() {
+		if (!active) {
+			return;
+		}
+
+		for (int i = 0; i < stages.size(); i++) {
+			CmrDataProcessingStage nextStage = (i < (stages.size() - 1)) ? stages.get(i + 1) : null;
+			stages.get(i).start(defaultDataDao, nextStage, stageThreads, queueCapacity);
+		}
+
+		if (log.isInfoEnabled()) {
+			log.info("|-Data processing pipeline active with " + stages.size() + " stages...");
+		}
+	}
+
+	/**
+	 * Stops the stages in the order of processing, so that each stage processes the remaining
+	 * batches before the next one is stopped.
+	 */
+	@PreDestroy
+	public void preDestroy() {
+		if (!active) {
+			return;
+		}
+
+		for (CmrDataProcessingStage stage : stages) {
+			stage.stop();
+		}
+	}
+
+}
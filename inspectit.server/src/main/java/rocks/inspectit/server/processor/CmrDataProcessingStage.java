@@ -0,0 +1,358 @@
+package rocks.inspectit.server.processor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import rocks.inspectit.server.dao.DefaultDataDao;
+import rocks.inspectit.shared.all.communication.DefaultData;
+
+/**
+ * One stage of the {@link CmrDataProcessingPipeline}. Stage has a number of worker threads, each
+ * with own bounded queue of data batches, that run the processors of the stage on each batch in
+ * one transaction. Processed batch is handed over to the next stage. The batches are assigned to
+ * the workers by the platform ident, thus the batches of one agent are always processed by the same
+ * worker and in the order they were sent.
+ * <p>
+ * Stage keeps the statistics about the processed batches and the latency of the stage, meaning
+ * the time from putting the batch to the queue of the stage until the processors of the stage are
+ * done with it.
+ *
+ * @author agent
+ *
+ */
+public class CmrDataProcessingStage {
+
+	/**
+	 * The logger of this class.
+	 */
+	private static final Logger LOG = LoggerFactory.getLogger(CmrDataProcessingStage.class);
+
+	/**
+	 * Maximum time in milliseconds to wait for a worker to process the remaining batches when
+	 * stopping.
+	 */
+	private static final long STOP_TIMEOUT = 30000L;
+
+	/**
+	 * Batch that signals the worker to stop.
+	 */
+	private static final Batch STOP_BATCH = new Batch(Collections.<DefaultData> emptyList(), 0L);
+
+	/**
+	 * Name of the stage.
+	 */
+	private final String name;
+
+	/**
+	 * Processors to run in this stage in the given order.
+	 */
+	private final List<AbstractCmrDataProcessor> processors;
+
+	/**
+	 * Queues of batches waiting to be processed, one for each worker.
+	 */
+	private final List<BlockingQueue<Batch>> queues = new ArrayList<>();
+
+	/**
+	 * Worker threads.
+	 */
+	private final List<Thread> workers = new ArrayList<>();
+
+	/**
+	 * If the stage has been stopped.
+	 */
+	private volatile boolean stopped;
+
+	/**
+	 * DAO to run the processors with.
+	 */
+	private DefaultDataDao defaultDataDao;
+
+	/**
+	 * Next stage, can be <code>null</code> if this is the last stage.
+	 */
+	private CmrDataProcessingStage nextStage;
+
+	/**
+	 * Amount of processed batches.
+	 */
+	private final LongAdder processedBatches = new LongAdder();
+
+	/**
+	 * Amount of batches that failed to be processed.
+	 */
+	private final LongAdder failedBatches = new LongAdder();
+
+	/**
+	 * Sum of the latencies of all processed batches in nanoseconds.
+	 */
+	private final LongAdder totalLatency = new LongAdder();
+
+	/**
+	 * Maximum latency of a processed batch in nanoseconds.
+	 */
+	private final AtomicLong maxLatency = new AtomicLong();
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param name
+	 *            Name of the stage.
+	 * @param processors
+	 *            Processors to run in this stage in the given order.
+	 */
+	CmrDataProcessingStage(String name, List<AbstractCmrDataProcessor> processors) {
+		this.name = name;
+		this.processors = Collections.unmodifiableList(new ArrayList<>(processors));
+	}
+
+	/**
+	 * Starts the stage workers.
+	 *
+	 * @param defaultDataDao
+	 *            DAO to run the processors with.
+	 * @param nextStage
+	 *            Next stage or <code>null</code> if this is the last stage.
+	 * @param threads
+	 *            Amount of worker threads.
+	 * @param queueCapacity
+	 *            Maximum amount of batches waiting in the queue of one worker.
+	 */
+	void start(DefaultDataDao defaultDataDao, CmrDataProcessingStage nextStage, int threads, int queueCapacity) {
+		this.defaultDataDao = defaultDataDao;
+		this.nextStage = nextStage;
+
+		for (int i = 0; i < threads; i++) {
+			final BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(queueCapacity);
+			Thread worker = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					work(queue);
+				}
+			}, "cmr-processing-" + name + "-" + i);
+			worker.setDaemon(true);
+			queues.add(queue);
+			workers.add(worker);
+			worker.start();
+		}
+	}
+
+	/**
+	 * Stops the stage workers. The batches already in the queues are processed and handed over to
+	 * the next stage before the workers stop, thus the next stage should be stopped after this
+	 * one. Batches put to the stage after stopping are dropped.
+	 */
+	void stop() {
+		if (stopped) {
+			return;
+		}
+		stopped = true;
+
+		try {
+			for (BlockingQueue<Batch> queue : queues) {
+				queue.put(STOP_BATCH);
+			}
+			for (Thread worker : workers) {
+				worker.join(STOP_TIMEOUT);
+				if (worker.isAlive()) {
+					LOG.warn("Worker " + worker.getName() + " did not process the remaining data batches in " + STOP_TIMEOUT + " ms, stopping it.");
+					worker.interrupt();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			for (Thread worker : workers) {
+				worker.interrupt();
+			}
+		}
+		workers.clear();
+	}
+
+	/**
+	 * Puts the data to the queue of the worker responsible for the platform ident of the data.
+	 * Blocks until there is space in the queue.
+	 *
+	 * @param dataObjects
+	 *            Data to process.
+	 * @throws InterruptedException
+	 *             If interrupted while waiting for space in the queue.
+	 */
+	void put(List<? extends DefaultData> dataObjects) throws InterruptedException {
+		if (stopped) {
+			LOG.warn("Data processing stage " + name + " is stopped, " + dataObjects.size() + " data objects are dropped.");
+			return;
+		}
+
+		long platformIdent = dataObjects.isEmpty() ? 0L : dataObjects.get(0).getPlatformIdent();
+		int index = Math.floorMod(Long.hashCode(platformIdent), queues.size());
+		queues.get(index).put(new Batch(dataObjects, System.nanoTime()));
+	}
+
+	/**
+	 * Work loop of the worker threads. Ends when the {@link #STOP_BATCH} is taken from the queue.
+	 *
+	 * @param queue
+	 *            Queue of the worker.
+	 */
+	private void work(BlockingQueue<Batch> queue) {
+		try {
+			while (true) {
+				Batch batch = queue.take();
+				if (STOP_BATCH == batch) { // NOPMD
+					return;
+				}
+				if (process(batch) && (null != nextStage)) {
+					nextStage.put(batch.dataObjects);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Runs the processors of the stage on the batch.
+	 *
+	 * @param batch
+	 *            Batch to process.
+	 * @return <code>true</code> if batch was processed, <code>false</code> if processing failed.
+	 */
+	private boolean process(Batch batch) {
+		try {
+			defaultDataDao.saveAll(batch.dataObjects, processors);
+		} catch (Exception e) { // NOPMD
+			failedBatches.increment();
+			LOG.error("Error processing the data batch in the " + name + " stage, " + batch.dataObjects.size() + " data objects are dropped.", e);
+			return false;
+		}
+
+		long latency = System.nanoTime() - batch.enqueueTime;
+		processedBatches.increment();
+		totalLatency.add(latency);
+		maxLatency.accumulateAndGet(latency, Math::max);
+		return true;
+	}
+
+	/**
+	 * Gets {@link #name}.
+	 *
+	 * @return {@link #name}
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets {@link #processors}.
+	 *
+	 * @return {@link #processors}
+	 */
+	public List<AbstractCmrDataProcessor> getProcessors() {
+		return processors;
+	}
+
+	/**
+	 * Returns the amount of batches waiting in the stage queues.
+	 *
+	 * @return Returns the amount of batches waiting in the stage queues.
+	 */
+	public int getQueueDepth() {
+		int queueDepth = 0;
+		for (BlockingQueue<Batch> queue : queues) {
+			queueDepth += queue.size();
+		}
+		return queueDepth;
+	}
+
+	/**
+	 * Returns the amount of processed batches.
+	 *
+	 * @return Returns the amount of processed batches.
+	 */
+	public long getProcessedBatches() {
+		return processedBatches.sum();
+	}
+
+	/**
+	 * Returns the amount of batches that failed to be processed.
+	 *
+	 * @return Returns the amount of batches that failed to be processed.
+	 */
+	public long getFailedBatches() {
+		return failedBatches.sum();
+	}
+
+	/**
+	 * Returns the average latency of the stage in milliseconds.
+	 *
+	 * @return Returns the average latency of the stage in milliseconds.
+	 */
+	public double getAverageLatency() {
+		long processed = processedBatches.sum();
+		if (0 == processed) {
+			return 0;
+		}
+		return (double) totalLatency.sum() / processed / TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	/**
+	 * Returns the maximum latency of the stage in milliseconds.
+	 *
+	 * @return Returns the maximum latency of the stage in milliseconds.
+	 */
+	public double getMaxLatency() {
+		return (double) maxLatency.get() / TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "CmrDataProcessingStage [name=" + name + ", queueDepth=" + getQueueDepth() + ", processedBatches=" + getProcessedBatches() + ", failedBatches=" + getFailedBatches()
+				+ ", averageLatency=" + getAverageLatency() + ", maxLatency=" + getMaxLatency() + "]";
+	}
+
+	/**
+	 * Batch of data in the stage queue.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static final class Batch {
+
+		/**
+		 * Data to process.
+		 */
+		private final List<? extends DefaultData> dataObjects;
+
+		/**
+		 * Time in nanoseconds when the batch was put to the queue.
+		 */
+		private final long enqueueTime;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param dataObjects
+		 *            Data to process.
+		 * @param enqueueTime
+		 *            Time in nanoseconds when the batch was put to the queue.
+		 */
+		Batch(List<? extends DefaultData> dataObjects, long enqueueTime) {
+			this.dataObjects = dataObjects;
+			this.enqueueTime = enqueueTime;
+		}
+
+	}
+
+}
@@ -1,10 +1,15 @@
 package rocks.inspectit.server.processor.impl;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 import javax.persistence.EntityManager;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
 import rocks.inspectit.server.cache.IBuffer;
+import rocks.inspectit.server.cache.IBufferElement;
 import rocks.inspectit.server.cache.impl.BufferElement;
 import rocks.inspectit.server.processor.AbstractCmrDataProcessor;
 import rocks.inspectit.shared.all.communication.DefaultData;
@@ -27,6 +32,25 @@ public class BufferInserterCmrProcessor extends AbstractCmrDataProcessor {
 	@Autowired
 	IBuffer<MethodSensorData> buffer;
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * All data that can be processed is put to the buffer as one list.
+	 */
+	@Override
+	public void process(Collection<? extends DefaultData> defaultDatas, EntityManager entityManager) {
+		List<IBufferElement<MethodSensorData>> elements = new ArrayList<>(defaultDatas.size());
+		for (DefaultData defaultData : defaultDatas) {
+			if (canBeProcessed(defaultData)) {
+				elements.add(new BufferElement<>((MethodSensorData) defaultData));
+			}
+		}
+
+		if (!elements.isEmpty()) {
+			buffer.put(elements);
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -0,0 +1,967 @@
+package rocks.inspectit.server.processor.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.apache.commons.lang.ArrayUtils;
+
+import rocks.inspectit.shared.all.cmr.service.ICachedDataService;
+import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+import rocks.inspectit.shared.cs.ci.business.expression.AbstractExpression;
+import rocks.inspectit.shared.cs.ci.business.expression.impl.AndExpression;
+import rocks.inspectit.shared.cs.ci.business.expression.impl.BooleanExpression;
+import rocks.inspectit.shared.cs.ci.business.expression.impl.NotExpression;
+import rocks.inspectit.shared.cs.ci.business.expression.impl.OrExpression;
+import rocks.inspectit.shared.cs.ci.business.expression.impl.StringMatchingExpression;
+import rocks.inspectit.shared.cs.ci.business.impl.ApplicationDefinition;
+import rocks.inspectit.shared.cs.ci.business.impl.BusinessTransactionDefinition;
+import rocks.inspectit.shared.cs.ci.business.valuesource.PatternMatchingType;
+import rocks.inspectit.shared.cs.ci.business.valuesource.StringValueSource;
+
+/**
+ * Matching rules of the application and business transaction definitions compiled for the
+ * identification of the business context of the {@link InvocationSequenceData}. The matcher is
+ * immutable and has to be created again when definitions change.
+ * <p>
+ * On compilation equal {@link StringValueSource}s of all rules are merged, so that the values are
+ * read only once per invocation sequence, regular expressions are compiled and equals-matching on
+ * the same value source in one OR expression is merged into one hash set lookup. Expressions that
+ * can not be compiled are evaluated as they are.
+ * <p>
+ * If the rules depend only on the values of the invocation sequence root, the identification
+ * result is memoized for the combination of the values (request signature).
+ *
+ * @author agent
+ *
+ */
+class BusinessContextMatcher {
+
+	/**
+	 * Maximum amount of memoized results. When reached, memoized results are cleared.
+	 */
+	private static final int MAX_MEMOIZED_RESULTS = 10000;
+
+	/**
+	 * Distinct value sources of the compiled rules. Index in the list is the slot of the value
+	 * source in the {@link EvaluationContext}.
+	 */
+	private final List<StringValueSource> valueSources = new ArrayList<>();
+
+	/**
+	 * Slots of the value sources.
+	 */
+	private final Map<StringValueSource, Integer> valueSourceSlots = new HashMap<>();
+
+	/**
+	 * Compiled application definitions in the order of matching.
+	 */
+	private final List<CompiledApplication> applications = new ArrayList<>();
+
+	/**
+	 * Compiled default application definition.
+	 */
+	private final CompiledApplication defaultApplication;
+
+	/**
+	 * If identification results can be memoized.
+	 */
+	private boolean memoizable = true;
+
+	/**
+	 * Memoized identification results.
+	 */
+	private final ConcurrentMap<Signature, BusinessContext> results = new ConcurrentHashMap<>();
+
+	/**
+	 * Compiles the application definitions.
+	 *
+	 * @param applicationDefinitions
+	 *            Application definitions in the order of matching.
+	 */
+	BusinessContextMatcher(List<ApplicationDefinition> applicationDefinitions) {
+		for (ApplicationDefinition applicationDefinition : applicationDefinitions) {
+			applications.add(compile(applicationDefinition));
+		}
+		defaultApplication = compile(ApplicationDefinition.DEFAULT_APPLICATION_DEFINITION);
+	}
+
+	/**
+	 * Identifies the application and business transaction definition of the invocation sequence.
+	 *
+	 * @param invocSequence
+	 *            {@link InvocationSequenceData} instance providing the evaluation context.
+	 * @param cachedDataService
+	 *            {@link ICachedDataService} instance for retrieving method names, etc.
+	 * @return Identified business context, application is never <code>null</code>.
+	 */
+	BusinessContext identify(InvocationSequenceData invocSequence, ICachedDataService cachedDataService) {
+		EvaluationContext context = new EvaluationContext(invocSequence, cachedDataService, valueSources);
+
+		Signature signature = null;
+		if (memoizable) {
+			signature = context.getSignature();
+			BusinessContext businessContext = results.get(signature);
+			if (null != businessContext) {
+				return businessContext;
+			}
+		}
+
+		CompiledApplication application = defaultApplication;
+		for (CompiledApplication candidate : applications) {
+			if (candidate.matcher.matches(context)) {
+				application = candidate;
+				break;
+			}
+		}
+
+		BusinessTransactionDefinition businessTransactionDefinition = null;
+		for (int i = 0; i < application.businessTransactionMatchers.size(); i++) {
+			if (application.businessTransactionMatchers.get(i).matches(context)) {
+				businessTransactionDefinition = application.definition.getBusinessTransactionDefinitions().get(i);
+				break;
+			}
+		}
+
+		BusinessContext businessContext = new BusinessContext(application.definition, businessTransactionDefinition);
+		if (memoizable) {
+			if (results.size() >= MAX_MEMOIZED_RESULTS) {
+				results.clear();
+			}
+			results.put(signature, businessContext);
+		}
+		return businessContext;
+	}
+
+	/**
+	 * Compiles the application definition and its business transaction definitions.
+	 *
+	 * @param applicationDefinition
+	 *            Definition to compile.
+	 * @return Compiled application definition.
+	 */
+	private CompiledApplication compile(ApplicationDefinition applicationDefinition) {
+		List<Matcher> businessTransactionMatchers = new ArrayList<>();
+		for (BusinessTransactionDefinition businessTransactionDefinition : applicationDefinition.getBusinessTransactionDefinitions()) {
+			businessTransactionMatchers.add(compile(businessTransactionDefinition.getMatchingRuleExpression()));
+		}
+		return new CompiledApplication(applicationDefinition, compile(applicationDefinition.getMatchingRuleExpression()), businessTransactionMatchers);
+	}
+
+	/**
+	 * Compiles the expression.
+	 *
+	 * @param expression
+	 *            Expression to compile.
+	 * @return Matcher for the expression.
+	 */
+	private Matcher compile(AbstractExpression expression) {
+		if (null == expression) {
+			return new ConstantMatcher(false);
+		} else if (expression instanceof BooleanExpression) {
+			return new ConstantMatcher(((BooleanExpression) expression).isValue());
+		} else if (expression instanceof NotExpression) {
+			return new NotMatcher(compile(((NotExpression) expression).getOperand()));
+		} else if (expression instanceof AndExpression) {
+			List<Matcher> operands = new ArrayList<>();
+			for (AbstractExpression operand : ((AndExpression) expression).getOperands()) {
+				operands.add(compile(operand));
+			}
+			return new AndMatcher(operands);
+		} else if (expression instanceof OrExpression) {
+			return compileOr((OrExpression) expression);
+		} else if (expression instanceof StringMatchingExpression) {
+			Matcher matcher = compileStringMatching((StringMatchingExpression) expression);
+			if (null != matcher) {
+				return matcher;
+			}
+		}
+
+		memoizable = false;
+		return new ExpressionMatcher(expression);
+	}
+
+	/**
+	 * Compiles the OR expression. The equals-matching operands on the same value source are merged
+	 * into one {@link EqualsSetMatcher}.
+	 *
+	 * @param expression
+	 *            Expression to compile.
+	 * @return Matcher for the expression.
+	 */
+	private Matcher compileOr(OrExpression expression) {
+		List<Matcher> operands = new ArrayList<>();
+		Map<Integer, Set<String>> equalsSnippets = new HashMap<>();
+		for (AbstractExpression operand : expression.getOperands()) {
+			if (isRootEqualsMatching(operand)) {
+				StringMatchingExpression stringMatching = (StringMatchingExpression) operand;
+				Integer slot = getSlot(stringMatching.getStringValueSource());
+				Set<String> snippets = equalsSnippets.get(slot);
+				if (null == snippets) {
+					snippets = new HashSet<>();
+					equalsSnippets.put(slot, snippets);
+				}
+				snippets.add(stringMatching.getSnippet());
+			} else {
+				operands.add(compile(operand));
+			}
+		}
+
+		for (Map.Entry<Integer, Set<String>> entry : equalsSnippets.entrySet()) {
+			operands.add(new EqualsSetMatcher(entry.getKey().intValue(), entry.getValue()));
+		}
+		return new OrMatcher(operands);
+	}
+
+	/**
+	 * Compiles the string matching expression.
+	 *
+	 * @param expression
+	 *            Expression to compile.
+	 * @return Matcher for the expression or <code>null</code> if expression can not be compiled.
+	 */
+	private Matcher compileStringMatching(StringMatchingExpression expression) {
+		if ((null == expression.getStringValueSource()) || (null == expression.getMatchingType()) || (null == expression.getSnippet())) {
+			return null;
+		}
+
+		Pattern pattern = null;
+		if (PatternMatchingType.REGEX == expression.getMatchingType()) {
+			try {
+				pattern = Pattern.compile(expression.getSnippet());
+			} catch (PatternSyntaxException e) {
+				return null;
+			}
+		}
+
+		StringPredicate predicate = new StringPredicate(expression.getMatchingType(), expression.getSnippet(), pattern);
+		int slot = getSlot(expression.getStringValueSource()).intValue();
+		if (expression.isSearchNodeInTrace()) {
+			memoizable = false;
+			return new TraceStringMatcher(slot, expression.getStringValueSource(), predicate, expression.getMaxSearchDepth());
+		} else {
+			return new StringMatcher(slot, predicate);
+		}
+	}
+
+	/**
+	 * Checks if the expression is equals-matching on the root of the invocation sequence.
+	 *
+	 * @param expression
+	 *            Expression to check.
+	 * @return <code>true</code> if expression can be merged into {@link EqualsSetMatcher}.
+	 */
+	private boolean isRootEqualsMatching(AbstractExpression expression) {
+		if (!(expression instanceof StringMatchingExpression)) {
+			return false;
+		}
+		StringMatchingExpression stringMatching = (StringMatchingExpression) expression;
+		return (PatternMatchingType.EQUALS == stringMatching.getMatchingType()) && !stringMatching.isSearchNodeInTrace() && (null != stringMatching.getStringValueSource())
+				&& (null != stringMatching.getSnippet());
+	}
+
+	/**
+	 * Returns the slot for the value source, registering the value source if needed.
+	 *
+	 * @param valueSource
+	 *            Value source.
+	 * @return Slot of the value source.
+	 */
+	private Integer getSlot(StringValueSource valueSource) {
+		Integer slot = valueSourceSlots.get(valueSource);
+		if (null == slot) {
+			slot = Integer.valueOf(valueSources.size());
+			valueSources.add(valueSource);
+			valueSourceSlots.put(valueSource, slot);
+		}
+		return slot;
+	}
+
+	/**
+	 * Result of the business context identification.
+	 *
+	 * @author agent
+	 *
+	 */
+	static final class BusinessContext {
+
+		/**
+		 * Identified application definition.
+		 */
+		private final ApplicationDefinition applicationDefinition;
+
+		/**
+		 * Identified business transaction definition.
+		 */
+		private final BusinessTransactionDefinition businessTransactionDefinition;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param applicationDefinition
+		 *            Identified application definition.
+		 * @param businessTransactionDefinition
+		 *            Identified business transaction definition.
+		 */
+		BusinessContext(ApplicationDefinition applicationDefinition, BusinessTransactionDefinition businessTransactionDefinition) {
+			this.applicationDefinition = applicationDefinition;
+			this.businessTransactionDefinition = businessTransactionDefinition;
+		}
+
+		/**
+		 * Gets {@link #applicationDefinition}.
+		 *
+		 * @return {@link #applicationDefinition}
+		 */
+		ApplicationDefinition getApplicationDefinition() {
+			return applicationDefinition;
+		}
+
+		/**
+		 * Gets {@link #businessTransactionDefinition}.
+		 *
+		 * @return {@link #businessTransactionDefinition}
+		 */
+		BusinessTransactionDefinition getBusinessTransactionDefinition() {
+			return businessTransactionDefinition;
+		}
+
+	}
+
+	/**
+	 * Compiled application definition.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static final class CompiledApplication {
+
+		/**
+		 * Application definition.
+		 */
+		private final ApplicationDefinition definition;
+
+		/**
+		 * Matcher of the application definition.
+		 */
+		private final Matcher matcher;
+
+		/**
+		 * Matchers of the business transaction definitions in the order of definitions.
+		 */
+		private final List<Matcher> businessTransactionMatchers;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param definition
+		 *            Application definition.
+		 * @param matcher
+		 *            Matcher of the application definition.
+		 * @param businessTransactionMatchers
+		 *            Matchers of the business transaction definitions in the order of definitions.
+		 */
+		CompiledApplication(ApplicationDefinition definition, Matcher matcher, List<Matcher> businessTransactionMatchers) {
+			this.definition = definition;
+			this.matcher = matcher;
+			this.businessTransactionMatchers = businessTransactionMatchers;
+		}
+
+	}
+
+	/**
+	 * Evaluation context of one invocation sequence. Reads the values of the value sources for the
+	 * invocation sequence only once.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static final class EvaluationContext {
+
+		/**
+		 * Invocation sequence being evaluated.
+		 */
+		private final InvocationSequenceData invocSequence;
+
+		/**
+		 * {@link ICachedDataService} instance for retrieving method names, etc.
+		 */
+		private final ICachedDataService cachedDataService;
+
+		/**
+		 * Value sources by slot.
+		 */
+		private final List<StringValueSource> valueSources;
+
+		/**
+		 * Values of the value sources by slot, <code>null</code> if not read yet.
+		 */
+		private final String[][] values;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param invocSequence
+		 *            Invocation sequence being evaluated.
+		 * @param cachedDataService
+		 *            {@link ICachedDataService} instance for retrieving method names, etc.
+		 * @param valueSources
+		 *            Value sources by slot.
+		 */
+		EvaluationContext(InvocationSequenceData invocSequence, ICachedDataService cachedDataService, List<StringValueSource> valueSources) {
+			this.invocSequence = invocSequence;
+			this.cachedDataService = cachedDataService;
+			this.valueSources = valueSources;
+			this.values = new String[valueSources.size()][];
+		}
+
+		/**
+		 * Returns the values of the value source in the given slot for the invocation sequence.
+		 *
+		 * @param slot
+		 *            Slot of the value source.
+		 * @return Values, never <code>null</code>.
+		 */
+		String[] getValues(int slot) {
+			String[] result = values[slot];
+			if (null == result) {
+				result = valueSources.get(slot).getStringValues(invocSequence, cachedDataService);
+				if (null == result) {
+					result = ArrayUtils.EMPTY_STRING_ARRAY;
+				}
+				values[slot] = result;
+			}
+			return result;
+		}
+
+		/**
+		 * Returns the signature of the invocation sequence, consisting of the values of all value
+		 * sources.
+		 *
+		 * @return Signature of the invocation sequence.
+		 */
+		Signature getSignature() {
+			for (int i = 0; i < values.length; i++) {
+				getValues(i);
+			}
+			return new Signature(values);
+		}
+
+	}
+
+	/**
+	 * Values of all value sources for one invocation sequence.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static final class Signature {
+
+		/**
+		 * Values by slot.
+		 */
+		private final String[][] values;
+
+		/**
+		 * Hash code.
+		 */
+		private final int hash;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param values
+		 *            Values by slot.
+		 */
+		Signature(String[][] values) {
+			this.values = values;
+			this.hash = Arrays.deepHashCode(values);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj == null) {
+				return false;
+			}
+			if (getClass() != obj.getClass()) {
+				return false;
+			}
+			Signature other = (Signature) obj;
+			return (hash == other.hash) && Arrays.deepEquals(values, other.values);
+		}
+
+	}
+
+	/**
+	 * Compiled expression.
+	 *
+	 * @author agent
+	 *
+	 */
+	private interface Matcher {
+
+		/**
+		 * Evaluates the compiled expression.
+		 *
+		 * @param context
+		 *            Evaluation context.
+		 * @return Boolean result of evaluating the expression.
+		 */
+		boolean matches(EvaluationContext context);
+
+	}
+
+	/**
+	 * Matcher with the constant result.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static final class ConstantMatcher implements Matcher {
+
+		/**
+		 * Result.
+		 */
+		private final boolean value;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param value
+		 *            Result.
+		 */
+		ConstantMatcher(boolean value) {
+			this.value = value;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean matches(EvaluationContext context) {
+			return value;
+		}
+
+	}
+
+	/**
+	 * Negating matcher.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static final class NotMatcher implements Matcher {
+
+		/**
+		 * Matcher to negate.
+		 */
+		private final Matcher operand;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param operand
+		 *            Matcher to negate.
+		 */
+		NotMatcher(Matcher operand) {
+			this.operand = operand;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean matches(EvaluationContext context) {
+			return !operand.matches(context);
+		}
+
+	}
+
+	/**
+	 * Matcher requiring all operands to match.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static final class AndMatcher implements Matcher {
+
+		/**
+		 * Operands.
+		 */
+		private final Matcher[] operands;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param operands
+		 *            Operands.
+		 */
+		AndMatcher(List<Matcher> operands) {
+			this.operands = operands.toArray(new Matcher[operands.size()]);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean matches(EvaluationContext context) {
+			for (Matcher operand : operands) {
+				if (!operand.matches(context)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+	}
+
+	/**
+	 * Matcher requiring any of the operands to match.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static final class OrMatcher implements Matcher {
+
+		/**
+		 * Operands.
+		 */
+		private final Matcher[] operands;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param operands
+		 *            Operands.
+		 */
+		OrMatcher(List<Matcher> operands) {
+			this.operands = operands.toArray(new Matcher[operands.size()]);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean matches(EvaluationContext context) {
+			for (Matcher operand : operands) {
+				if (operand.matches(context)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+	}
+
+	/**
+	 * Matcher checking if any of the values of the value source is in the set of snippets.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static final class EqualsSetMatcher implements Matcher {
+
+		/**
+		 * Slot of the value source.
+		 */
+		private final int slot;
+
+		/**
+		 * Snippets to match.
+		 */
+		private final Set<String> snippets;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param slot
+		 *            Slot of the value source.
+		 * @param snippets
+		 *            Snippets to match.
+		 */
+		EqualsSetMatcher(int slot, Set<String> snippets) {
+			this.slot = slot;
+			this.snippets = snippets;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean matches(EvaluationContext context) {
+			for (String value : context.getValues(slot)) {
+				if ((null != value) && snippets.contains(value)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+	}
+
+	/**
+	 * Matcher checking the values of the value source of the invocation sequence root.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static final class StringMatcher implements Matcher {
+
+		/**
+		 * Slot of the value source.
+		 */
+		private final int slot;
+
+		/**
+		 * Predicate for the values.
+		 */
+		private final StringPredicate predicate;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param slot
+		 *            Slot of the value source.
+		 * @param predicate
+		 *            Predicate for the values.
+		 */
+		StringMatcher(int slot, StringPredicate predicate) {
+			this.slot = slot;
+			this.predicate = predicate;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean matches(EvaluationContext context) {
+			return predicate.matchesAny(context.getValues(slot));
+		}
+
+	}
+
+	/**
+	 * Matcher checking the values of the value source of the invocation sequence root and then of
+	 * the nested sequences up to the maximum search depth.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static final class TraceStringMatcher implements Matcher {
+
+		/**
+		 * Slot of the value source.
+		 */
+		private final int slot;
+
+		/**
+		 * Value source for the nested sequences.
+		 */
+		private final StringValueSource valueSource;
+
+		/**
+		 * Predicate for the values.
+		 */
+		private final StringPredicate predicate;
+
+		/**
+		 * Maximum search depth, negative for unlimited.
+		 */
+		private final int maxSearchDepth;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param slot
+		 *            Slot of the value source.
+		 * @param valueSource
+		 *            Value source for the nested sequences.
+		 * @param predicate
+		 *            Predicate for the values.
+		 * @param maxSearchDepth
+		 *            Maximum search depth, negative for unlimited.
+		 */
+		TraceStringMatcher(int slot, StringValueSource valueSource, StringPredicate predicate, int maxSearchDepth) {
+			this.slot = slot;
+			this.valueSource = valueSource;
+			this.predicate = predicate;
+			this.maxSearchDepth = maxSearchDepth;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean matches(EvaluationContext context) {
+			if (predicate.matchesAny(context.getValues(slot))) {
+				return true;
+			}
+			return matchesNested(context.invocSequence, context.cachedDataService, 0);
+		}
+
+		/**
+		 * Checks the nested sequences of the given invocation sequence.
+		 *
+		 * @param invocSequence
+		 *            Invocation sequence which nested sequences are checked.
+		 * @param cachedDataService
+		 *            {@link ICachedDataService} instance for retrieving method names, etc.
+		 * @param depth
+		 *            Depth of the given invocation sequence.
+		 * @return <code>true</code> if any nested sequence matches.
+		 */
+		private boolean matchesNested(InvocationSequenceData invocSequence, ICachedDataService cachedDataService, int depth) {
+			if ((maxSearchDepth >= 0) && (depth >= maxSearchDepth)) {
+				return false;
+			}
+			for (InvocationSequenceData childNode : invocSequence.getNestedSequences()) {
+				if (predicate.matchesAny(valueSource.getStringValues(childNode, cachedDataService)) || matchesNested(childNode, cachedDataService, depth + 1)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+	}
+
+	/**
+	 * Matcher delegating to the not compiled expression.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static final class ExpressionMatcher implements Matcher {
+
+		/**
+		 * Expression to evaluate.
+		 */
+		private final AbstractExpression expression;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param expression
+		 *            Expression to evaluate.
+		 */
+		ExpressionMatcher(AbstractExpression expression) {
+			this.expression = expression;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean matches(EvaluationContext context) {
+			return expression.evaluate(context.invocSequence, context.cachedDataService);
+		}
+
+	}
+
+	/**
+	 * Predicate for the string values, same as in the {@link StringMatchingExpression} but with
+	 * the pre-compiled regular expression.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static final class StringPredicate {
+
+		/**
+		 * Matching type.
+		 */
+		private final PatternMatchingType matchingType;
+
+		/**
+		 * Snippet to match.
+		 */
+		private final String snippet;
+
+		/**
+		 * Compiled snippet for the {@link PatternMatchingType#REGEX} matching.
+		 */
+		private final Pattern pattern;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param matchingType
+		 *            Matching type.
+		 * @param snippet
+		 *            Snippet to match.
+		 * @param pattern
+		 *            Compiled snippet for the {@link PatternMatchingType#REGEX} matching.
+		 */
+		StringPredicate(PatternMatchingType matchingType, String snippet, Pattern pattern) {
+			this.matchingType = matchingType;
+			this.snippet = snippet;
+			this.pattern = pattern;
+		}
+
+		/**
+		 * Checks if any of the values matches.
+		 *
+		 * @param values
+		 *            Values to check, can be <code>null</code>.
+		 * @return <code>true</code> if any of the values matches.
+		 */
+		boolean matchesAny(String[] values) {
+			if (null == values) {
+				return false;
+			}
+			for (String value : values) {
+				if ((null != value) && matches(value)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Checks if the value matches.
+		 *
+		 * @param value
+		 *            Value to check.
+		 * @return <code>true</code> if the value matches.
+		 */
+		private boolean matches(String value) {
+			switch (matchingType) {
+			case CONTAINS:
+				return value.contains(snippet);
+			case ENDS_WITH:
+				return value.endsWith(snippet);
+			case STARTS_WITH:
+				return value.startsWith(snippet);
+			case EQUALS:
+				return value.equals(snippet);
+			case REGEX:
+				return pattern.matcher(value).matches();
+			default:
+				return false;
+			}
+		}
+
+	}
+
+}
@@ -13,14 +13,13 @@ import org.springframework.context.ApplicationListener;
 import rocks.inspectit.server.ci.event.BusinessContextDefinitionUpdateEvent;
 import rocks.inspectit.server.dao.InvocationDataDao;
 import rocks.inspectit.server.processor.AbstractCmrDataProcessor;
+import rocks.inspectit.server.processor.impl.BusinessContextMatcher.BusinessContext;
 import rocks.inspectit.shared.all.cmr.service.ICachedDataService;
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
 import rocks.inspectit.shared.all.communication.data.cmr.ApplicationData;
 import rocks.inspectit.shared.all.communication.data.cmr.BusinessTransactionData;
-import rocks.inspectit.shared.cs.ci.business.impl.ApplicationDefinition;
 import rocks.inspectit.shared.cs.ci.business.impl.BusinessTransactionDefinition;
-import rocks.inspectit.shared.cs.ci.business.impl.IMatchingRuleProvider;
 import rocks.inspectit.shared.cs.cmr.service.IBusinessContextRegistryService;
 import rocks.inspectit.shared.cs.cmr.service.IConfigurationInterfaceService;
 import rocks.inspectit.shared.cs.cmr.service.cache.CachedDataService;
@@ -67,13 +66,19 @@ public class BusinessContextRecognitionProcessor extends AbstractCmrDataProcesso
 	@Resource(name = "scheduledExecutorService")
 	ScheduledExecutorService executorService;
 
+	/**
+	 * Matcher compiled from the current application definitions. Created on first use and on each
+	 * update of the business context definition.
+	 */
+	private volatile BusinessContextMatcher businessContextMatcher;
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	protected void processData(DefaultData defaultData, EntityManager entityManager) {
 		InvocationSequenceData invocSequence = (InvocationSequenceData) defaultData;
-		assignBusinessContext(invocSequence);
+		assignBusinessContext(invocSequence, getBusinessContextMatcher());
 	}
 
 	/**
@@ -81,56 +86,51 @@ public class BusinessContextRecognitionProcessor extends AbstractCmrDataProcesso
 	 *
 	 * @param invocSequence
 	 *            {@link InvocationSequenceData} instance to assign the business context for.
+	 * @param matcher
+	 *            {@link BusinessContextMatcher} to identify the business context with.
 	 */
-	private void assignBusinessContext(InvocationSequenceData invocSequence) {
-		List<ApplicationDefinition> applicationDefinitions = configurationInterfaceService.getApplicationDefinitions();
-		ApplicationDefinition appDefinition = identify(invocSequence, applicationDefinitions);
-		if (null == appDefinition) {
-			appDefinition = ApplicationDefinition.DEFAULT_APPLICATION_DEFINITION;
-		}
-		ApplicationData application = businessContextRegistryService.registerApplication(appDefinition);
+	private void assignBusinessContext(InvocationSequenceData invocSequence, BusinessContextMatcher matcher) {
+		BusinessContext businessContext = matcher.identify(invocSequence, cachedDataService);
+		ApplicationData application = businessContextRegistryService.registerApplication(businessContext.getApplicationDefinition());
 		invocSequence.setApplicationId(application.getId());
 
-		BusinessTransactionDefinition businessTxDefinition = identify(invocSequence, appDefinition.getBusinessTransactionDefinitions());
+		BusinessTransactionDefinition businessTxDefinition = businessContext.getBusinessTransactionDefinition();
 		String businessTxName = businessTxDefinition.determineBusinessTransactionName(invocSequence, cachedDataService);
 		BusinessTransactionData businessTransaction = businessContextRegistryService.registerBusinessTransaction(application, businessTxDefinition, businessTxName);
 		invocSequence.setBusinessTransactionId(businessTransaction.getId());
 	}
 
 	/**
-	 * Identifies a matching rule provider.
+	 * Returns the current {@link BusinessContextMatcher}, compiling it if it does not exist.
 	 *
-	 * @param invocSequence
-	 *            {@link InvocationSequenceData} instance providing the evaluation context.
-	 * @param ruleProviders
-	 *            list of provider candidates.
-	 * @param <E>
-	 *            the type of the {@link IMatchingRuleProvider} instance.
-	 * @return one selected rule provider if any matches, otherwise null.
+	 * @return {@link BusinessContextMatcher} for the current application definitions.
 	 */
-	private <E extends IMatchingRuleProvider> E identify(InvocationSequenceData invocSequence, List<E> ruleProviders) {
-		for (E ruleProvider : ruleProviders) {
-			boolean ruleMatches = ruleProvider.getMatchingRuleExpression().evaluate(invocSequence, cachedDataService);
-			if (ruleMatches) {
-				return ruleProvider;
-			}
+	private BusinessContextMatcher getBusinessContextMatcher() {
+		BusinessContextMatcher matcher = businessContextMatcher;
+		if (null == matcher) {
+			matcher = new BusinessContextMatcher(configurationInterfaceService.getApplicationDefinitions());
+			businessContextMatcher = matcher;
 		}
-		return null;
+		return matcher;
 	}
 
 	/**
 	 * {@inheritDoc}
+	 * <p>
+	 * Compiles the new matcher and re-assigns the business context for the invocation sequences
+	 * in the buffer in parallel.
 	 */
 	@Override
 	public void onApplicationEvent(BusinessContextDefinitionUpdateEvent event) {
+		final BusinessContextMatcher matcher = new BusinessContextMatcher(configurationInterfaceService.getApplicationDefinitions());
+		businessContextMatcher = matcher;
+
 		executorService.execute(new Runnable() {
 			@Override
 			public void run() {
 				// update business context for invocation sequences that are in the buffer
 				List<InvocationSequenceData> invocations = invocationDataDao.getInvocationSequenceDetail(0, 0, -1, null, null, null);
-				for (InvocationSequenceData invocation : invocations) {
-					assignBusinessContext(invocation);
-				}
+				invocations.parallelStream().forEach(invocation -> assignBusinessContext(invocation, matcher));
 			}
 		});
 	}
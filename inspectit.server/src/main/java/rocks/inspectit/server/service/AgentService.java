@@ -13,6 +13,7 @@ import org.springframework.stereotype.Service;
 import rocks.inspectit.server.instrumentation.NextGenInstrumentationManager;
 import rocks.inspectit.server.messaging.AgentMessageProvider;
 import rocks.inspectit.server.spring.aop.MethodLog;
+import rocks.inspectit.server.util.SqlStatementDictionary;
 import rocks.inspectit.shared.all.cmr.service.IAgentService;
 import rocks.inspectit.shared.all.communication.message.IAgentMessage;
 import rocks.inspectit.shared.all.exception.BusinessException;
@@ -49,6 +50,12 @@ public class AgentService implements IAgentService {
 	@Autowired
 	AgentMessageProvider messageProvider;
 
+	/**
+	 * {@link SqlStatementDictionary}.
+	 */
+	@Autowired
+	SqlStatementDictionary sqlStatementDictionary;
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -76,6 +83,15 @@ public class AgentService implements IAgentService {
 		return nextGenInstrumentationManager.analyze(platformIdent, hash, sentType);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@MethodLog
+	public Map<String, InstrumentationDefinition> analyzeAll(long platformIdent, Map<String, Type> hashAndTypes) throws BusinessException {
+		return nextGenInstrumentationManager.analyzeAll(platformIdent, hashAndTypes);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -85,6 +101,15 @@ public class AgentService implements IAgentService {
 		nextGenInstrumentationManager.instrumentationApplied(platformId, methodToSensorMap);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@MethodLog
+	public void registerSqlStatements(long platformIdent, Map<Integer, String> sqlStatements) {
+		sqlStatementDictionary.register(platformIdent, sqlStatements);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -10,9 +10,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import rocks.inspectit.server.dao.DefaultDataDao;
+import rocks.inspectit.server.processor.CmrDataProcessingPipeline;
 import rocks.inspectit.server.spring.aop.MethodLog;
 import rocks.inspectit.server.util.AgentStatusDataProvider;
 import rocks.inspectit.server.util.Converter;
+import rocks.inspectit.server.util.SqlStatementDictionary;
 import rocks.inspectit.shared.all.cmr.service.IAgentStorageService;
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.spring.logger.Log;
@@ -20,6 +22,9 @@ import rocks.inspectit.shared.all.spring.logger.Log;
 /**
  * The default implementation of the {@link IAgentStorageService} interface. Uses an implementation
  * of the {@link DefaultDataDao} interface to save and retrieve the data objects from the database.
+ * If the {@link CmrDataProcessingPipeline} is active, the data is only submitted to the pipeline
+ * and processed asynchronously. SQL strings of the received data are resolved with the
+ * {@link SqlStatementDictionary} before the processing.
  *
  * @author Patrice Bouillet
  *
@@ -43,6 +48,18 @@ public class AgentStorageService implements IAgentStorageService {
 	@Autowired
 	AgentStatusDataProvider agentStatusDataProvider;
 
+	/**
+	 * {@link CmrDataProcessingPipeline}.
+	 */
+	@Autowired
+	CmrDataProcessingPipeline dataProcessingPipeline;
+
+	/**
+	 * {@link SqlStatementDictionary}.
+	 */
+	@Autowired
+	SqlStatementDictionary sqlStatementDictionary;
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -52,15 +69,32 @@ public class AgentStorageService implements IAgentStorageService {
 		if (CollectionUtils.isNotEmpty(dataObjects)) {
 			agentStatusDataProvider.registerDataSent(dataObjects.get(0).getPlatformIdent());
 
+			// resolve before processing, so that all SQL strings are shared
+			sqlStatementDictionary.resolve(dataObjects);
+
 			long time = 0;
 			if (log.isDebugEnabled()) {
 				time = System.nanoTime();
 			}
 
-			defaultDataDao.saveAll(dataObjects);
+			if (dataProcessingPipeline.isActive()) {
+				try {
+					dataProcessingPipeline.submit(dataObjects);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					log.warn("Interrupted while submitting the data to the processing pipeline, " + dataObjects.size() + " data objects are dropped.");
+					return;
+				}
 
-			if (log.isDebugEnabled()) {
-				log.debug("Data Objects count: " + dataObjects.size() + " Save duration: " + Converter.nanoToMilliseconds(System.nanoTime() - time));
+				if (log.isDebugEnabled()) {
+					log.debug("Data Objects count: " + dataObjects.size() + " Submit duration: " + Converter.nanoToMilliseconds(System.nanoTime() - time));
+				}
+			} else {
+				defaultDataDao.saveAll(dataObjects);
+
+				if (log.isDebugEnabled()) {
+					log.debug("Data Objects count: " + dataObjects.size() + " Save duration: " + Converter.nanoToMilliseconds(System.nanoTime() - time));
+				}
 			}
 		}
 	}
@@ -1,5 +1,7 @@
 package rocks.inspectit.server.service;
 
+import java.util.Map;
+
 import javax.annotation.PostConstruct;
 
 import org.slf4j.Logger;
@@ -43,6 +45,18 @@ public class KeepAliveService implements IKeepAliveService {
 		agentStatusDataProvider.handleKeepAliveSignal(platformId);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void sendSamplingRates(long platformId, Map<Long, Double> samplingRates) {
+		if (log.isDebugEnabled()) {
+			log.debug("Received sampling rates " + samplingRates + " from platform " + platformId);
+		}
+
+		agentStatusDataProvider.registerSamplingRates(platformId, samplingRates);
+	}
+
 	/**
 	 * Starts a continuous thread to be able to detect dead agents.
 	 */
@@ -49,6 +49,8 @@ import rocks.inspectit.shared.all.spring.logger.Log;
 import rocks.inspectit.shared.all.version.VersionService;
 import rocks.inspectit.shared.cs.cmr.service.IServerStatusService;
 import rocks.inspectit.shared.cs.communication.data.cmr.WritingStatus;
+import rocks.inspectit.shared.cs.indexing.storage.IStorageTreeComponent;
+import rocks.inspectit.shared.cs.indexing.storage.impl.CombinedStorageBranch;
 import rocks.inspectit.shared.cs.storage.IStorageData;
 import rocks.inspectit.shared.cs.storage.StorageData;
 import rocks.inspectit.shared.cs.storage.StorageData.StorageState;
@@ -741,6 +743,56 @@ public class CmrStorageManager extends StorageManager implements ApplicationList
 		return result;
 	}
 
+	/**
+	 * Loads the indexing tree of the storage from the disk. If storage has more than one index file,
+	 * the trees are combined in the {@link CombinedStorageBranch}.
+	 *
+	 * @param storageData
+	 *            Storage to load the indexing tree for.
+	 * @return Indexing tree or <code>null</code> if storage has no index files.
+	 * @throws IOException
+	 *             If {@link IOException} occurs.
+	 * @throws SerializationException
+	 *             If index file can not be deserialized.
+	 */
+	public IStorageTreeComponent<DefaultData> getIndexingTree(StorageData storageData) throws IOException, SerializationException {
+		Path storagePath = getStoragePath(storageData);
+		if ((storagePath == null) || !Files.isDirectory(storagePath)) {
+			return null;
+		}
+
+		final ISerializer serializer = getSerializationManagerProvider().createSerializer();
+		final MutableObject mutableException = new MutableObject();
+		final List<IStorageTreeComponent<DefaultData>> indexingTrees = new ArrayList<>();
+		Files.walkFileTree(storagePath, new SimpleFileVisitor<Path>() {
+			@SuppressWarnings("unchecked")
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				if (file.toString().endsWith(StorageFileType.INDEX_FILE.getExtension())) {
+					try (Input input = new Input(Files.newInputStream(file, StandardOpenOption.READ))) {
+						indexingTrees.add((IStorageTreeComponent<DefaultData>) serializer.deserialize(input));
+					} catch (SerializationException e) {
+						mutableException.setValue(e);
+						return FileVisitResult.TERMINATE;
+					}
+				}
+				return FileVisitResult.CONTINUE;
+			}
+		});
+
+		if (null != mutableException.getValue()) {
+			throw (SerializationException) mutableException.getValue();
+		}
+
+		if (indexingTrees.isEmpty()) {
+			return null;
+		} else if (indexingTrees.size() == 1) {
+			return indexingTrees.get(0);
+		} else {
+			return new CombinedStorageBranch<>(indexingTrees);
+		}
+	}
+
 	/**
 	 * Add a label to the storage and saves new state of the storage to the disk.
 	 *
@@ -0,0 +1,322 @@
+package rocks.inspectit.server.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.esotericsoftware.kryo.io.Input;
+
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.exception.BusinessException;
+import rocks.inspectit.shared.all.exception.enumeration.StorageErrorCodeEnum;
+import rocks.inspectit.shared.all.serializer.ISerializer;
+import rocks.inspectit.shared.all.serializer.SerializationException;
+import rocks.inspectit.shared.all.serializer.util.KryoUtil;
+import rocks.inspectit.shared.all.spring.logger.Log;
+import rocks.inspectit.shared.cs.communication.data.cmr.StorageQueryRequest;
+import rocks.inspectit.shared.cs.indexing.aggregation.impl.AggregationPerformer;
+import rocks.inspectit.shared.cs.indexing.storage.IStorageDescriptor;
+import rocks.inspectit.shared.cs.indexing.storage.IStorageTreeComponent;
+import rocks.inspectit.shared.cs.indexing.storage.impl.StorageDescriptor;
+import rocks.inspectit.shared.cs.indexing.storage.impl.StorageIndexQuery;
+import rocks.inspectit.shared.cs.storage.StorageData;
+import rocks.inspectit.shared.cs.storage.nio.stream.InputStreamProvider;
+
+/**
+ * Executes the {@link StorageQueryRequest}s next to the storage data. The descriptors resulting
+ * from the indexing tree query are read in batches of {@value #MAX_BATCH_SIZE} bytes, where the
+ * reading of the next batch is started before the current one is deserialized, so that disk reads
+ * done by the {@link rocks.inspectit.shared.cs.storage.nio.read.ReadingChannelManager} overlap with
+ * the deserialization. The restrictions of the query are checked and the aggregation is performed
+ * on the CMR, thus only the final results are passed to the {@link ResultChunkHandler} in chunks
+ * of at most {@value #MAX_CHUNK_SIZE} elements.
+ * <p>
+ * If the request has a limit and no aggregator, the execution stops as soon as the limit is
+ * reached and the remaining data is never read.
+ *
+ * @author agent
+ *
+ */
+@Component
+public class CmrStorageQueryExecutor {
+
+	/**
+	 * Max amount of bytes read from the disk in one batch.
+	 */
+	static final int MAX_BATCH_SIZE = 1024 * 1024 * 10;
+
+	/**
+	 * Max amount of results passed to the {@link ResultChunkHandler} in one chunk.
+	 */
+	static final int MAX_CHUNK_SIZE = 1000;
+
+	/**
+	 * Max amount of indexing trees held in the cache.
+	 */
+	private static final int MAX_CACHED_INDEXING_TREES = 8;
+
+	/**
+	 * The log of this class.
+	 */
+	@Log
+	Logger log;
+
+	/**
+	 * {@link CmrStorageManager}.
+	 */
+	@Autowired
+	CmrStorageManager storageManager;
+
+	/**
+	 * {@link InputStreamProvider} for reading the storage data.
+	 */
+	@Autowired
+	InputStreamProvider inputStreamProvider;
+
+	/**
+	 * Least recently used cache of the loaded indexing trees, keyed by storage id. Only closed
+	 * storages can be queried, thus the cached trees never change.
+	 */
+	private final Map<String, IStorageTreeComponent<DefaultData>> indexingTreeCache = Collections.synchronizedMap(new LinkedHashMap<String, IStorageTreeComponent<DefaultData>>(16, 0.75f, true) {
+
+		/**
+		 * Generated UID.
+		 */
+		private static final long serialVersionUID = 2948512097380567101L;
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, IStorageTreeComponent<DefaultData>> eldest) {
+			return size() > MAX_CACHED_INDEXING_TREES;
+		}
+	});
+
+	/**
+	 * Executes the query request and passes the results to the given handler in chunks.
+	 *
+	 * @param request
+	 *            Request to execute.
+	 * @param serializer
+	 *            Serializer to use for deserialization of the storage data.
+	 * @param resultChunkHandler
+	 *            Handler to pass the results to.
+	 * @throws BusinessException
+	 *             If storage does not exist or is not closed.
+	 * @throws IOException
+	 *             If {@link IOException} occurs during reading or in the handler.
+	 * @throws SerializationException
+	 *             If data can not be deserialized or serialized by the handler.
+	 */
+	public void executeQuery(StorageQueryRequest request, ISerializer serializer, ResultChunkHandler resultChunkHandler) throws BusinessException, IOException, SerializationException {
+		StorageData storageData = storageManager.getStorageData(request.getStorageId());
+		if (null == storageData) {
+			throw new BusinessException("Execute query on the storage with id " + request.getStorageId() + ".", StorageErrorCodeEnum.STORAGE_DOES_NOT_EXIST);
+		}
+		if (!storageManager.isStorageClosed(storageData)) {
+			throw new BusinessException("Execute query on the storage " + storageData + ".", StorageErrorCodeEnum.STORAGE_IS_NOT_CLOSED);
+		}
+
+		int limit = request.getLimit();
+		IStorageTreeComponent<DefaultData> indexingTree = getIndexingTree(storageData);
+		if ((null == indexingTree) || (0 == limit)) {
+			return;
+		}
+
+		StorageIndexQuery query = request.getStorageIndexQuery();
+		List<IStorageDescriptor> descriptors = indexingTree.query(query);
+		if (descriptors.isEmpty()) {
+			return;
+		}
+
+		// sort the descriptors to optimize the number of read operations
+		Collections.sort(descriptors, new Comparator<IStorageDescriptor>() {
+			@Override
+			public int compare(IStorageDescriptor o1, IStorageDescriptor o2) {
+				int channelCompare = Integer.compare(o1.getChannelId(), o2.getChannelId());
+				if (channelCompare != 0) {
+					return channelCompare;
+				} else {
+					return Long.compare(o1.getPosition(), o2.getPosition());
+				}
+			}
+		});
+
+		AggregationPerformer<DefaultData> aggregationPerformer = null;
+		if (null != request.getAggregator()) {
+			aggregationPerformer = new AggregationPerformer<>(request.getAggregator());
+		}
+		int passed = 0;
+
+		List<List<IStorageDescriptor>> batches = createBatches(descriptors);
+		InputStream nextInputStream = inputStreamProvider.getExtendedByteBufferInputStream(storageData, batches.get(0));
+		try {
+			for (int i = 0; i < batches.size(); i++) {
+				InputStream inputStream = nextInputStream;
+				nextInputStream = null;
+				try {
+					// start reading the next batch before processing the current one
+					if ((i + 1) < batches.size()) {
+						nextInputStream = inputStreamProvider.getExtendedByteBufferInputStream(storageData, batches.get(i + 1));
+					}
+
+					List<DefaultData> passedData = new ArrayList<>();
+					Input input = new Input(inputStream);
+					while (KryoUtil.hasMoreBytes(input)) {
+						DefaultData element = (DefaultData) serializer.deserialize(input);
+						if ((null == element) || !element.isQueryComplied(query)) {
+							continue;
+						}
+
+						passedData.add(element);
+						boolean limitReached = (null == aggregationPerformer) && (limit > -1) && ((passed + passedData.size()) >= limit);
+						if (limitReached || (passedData.size() >= MAX_CHUNK_SIZE)) {
+							passed += passedData.size();
+							handleChunk(passedData, aggregationPerformer, resultChunkHandler);
+							passedData = new ArrayList<>();
+							if (limitReached) {
+								return;
+							}
+						}
+					}
+
+					if (!passedData.isEmpty()) {
+						passed += passedData.size();
+						handleChunk(passedData, aggregationPerformer, resultChunkHandler);
+					}
+				} finally {
+					inputStream.close();
+				}
+			}
+		} finally {
+			if (null != nextInputStream) {
+				nextInputStream.close();
+			}
+		}
+
+		if (null != aggregationPerformer) {
+			List<DefaultData> resultList = aggregationPerformer.getResultList();
+			if ((limit > -1) && (resultList.size() > limit)) {
+				resultList = resultList.subList(0, limit);
+			}
+			resultChunkHandler.handleChunk(resultList);
+		}
+	}
+
+	/**
+	 * Passes the chunk of results to the aggregation performer if one is given, otherwise directly
+	 * to the result handler.
+	 *
+	 * @param chunk
+	 *            Results that passed the query.
+	 * @param aggregationPerformer
+	 *            Aggregation performer or <code>null</code> if no aggregation is performed.
+	 * @param resultChunkHandler
+	 *            Handler to pass the results to.
+	 * @throws IOException
+	 *             If {@link IOException} occurs in the handler.
+	 * @throws SerializationException
+	 *             If results can not be serialized by the handler.
+	 */
+	private void handleChunk(List<DefaultData> chunk, AggregationPerformer<DefaultData> aggregationPerformer, ResultChunkHandler resultChunkHandler) throws IOException, SerializationException {
+		if (null != aggregationPerformer) {
+			aggregationPerformer.processCollection(chunk);
+		} else {
+			resultChunkHandler.handleChunk(chunk);
+		}
+	}
+
+	/**
+	 * Returns the indexing tree of the storage, loading it from the disk if it's not cached.
+	 *
+	 * @param storageData
+	 *            Storage.
+	 * @return Indexing tree or <code>null</code> if the storage has none.
+	 * @throws IOException
+	 *             If {@link IOException} occurs.
+	 * @throws SerializationException
+	 *             If index file can not be deserialized.
+	 */
+	private IStorageTreeComponent<DefaultData> getIndexingTree(StorageData storageData) throws IOException, SerializationException {
+		IStorageTreeComponent<DefaultData> indexingTree = indexingTreeCache.get(storageData.getId());
+		if (null == indexingTree) {
+			indexingTree = storageManager.getIndexingTree(storageData);
+			if (null != indexingTree) {
+				indexingTreeCache.put(storageData.getId(), indexingTree);
+				if (log.isDebugEnabled()) {
+					log.debug("Indexing tree of the storage " + storageData + " loaded for query execution.");
+				}
+			}
+		}
+		return indexingTree;
+	}
+
+	/**
+	 * Splits the sorted descriptors into batches not bigger than {@value #MAX_BATCH_SIZE} bytes.
+	 * Neighboring descriptors in the same batch are joined, so that the number of read operations
+	 * is minimal, but never over the batch size. Only a single descriptor bigger than
+	 * {@value #MAX_BATCH_SIZE} bytes results in a bigger batch, as descriptors can not be split.
+	 *
+	 * @param descriptors
+	 *            Descriptors sorted by channel and position.
+	 * @return Batches of descriptors.
+	 */
+	private List<List<IStorageDescriptor>> createBatches(List<IStorageDescriptor> descriptors) {
+		List<List<IStorageDescriptor>> batches = new ArrayList<>();
+		List<IStorageDescriptor> batch = new ArrayList<>();
+		StorageDescriptor current = null;
+		long size = 0;
+		for (IStorageDescriptor descriptor : descriptors) {
+			boolean fits = (size + descriptor.getSize()) <= MAX_BATCH_SIZE;
+			if ((null != current) && fits && current.join(descriptor)) {
+				size += descriptor.getSize();
+				continue;
+			}
+
+			if (null != current) {
+				batch.add(current);
+			}
+			if (!fits && !batch.isEmpty()) {
+				batches.add(batch);
+				batch = new ArrayList<>();
+				size = 0;
+			}
+			current = new StorageDescriptor(descriptor.getChannelId(), descriptor.getPosition(), descriptor.getSize());
+			size += descriptor.getSize();
+		}
+		batch.add(current);
+		batches.add(batch);
+		return batches;
+	}
+
+	/**
+	 * Handler of the query results.
+	 *
+	 * @author agent
+	 *
+	 */
+	public interface ResultChunkHandler {
+
+		/**
+		 * Handles one chunk of the results.
+		 *
+		 * @param chunk
+		 *            Results that passed the query. Never empty if no aggregation is performed.
+		 * @throws IOException
+		 *             If results can not be written.
+		 * @throws SerializationException
+		 *             If results can not be serialized.
+		 */
+		void handleChunk(List<? extends DefaultData> chunk) throws IOException, SerializationException;
+	}
+}
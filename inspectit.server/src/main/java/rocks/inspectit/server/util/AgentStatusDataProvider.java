@@ -10,6 +10,7 @@ import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Resource;
 
+import org.apache.commons.collections.MapUtils;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -106,6 +107,9 @@ public class AgentStatusDataProvider implements InitializingBean, ApplicationLis
 
 		// set instrumentation status up-to-date
 		agentStatusData.setInstrumentationStatus(InstrumentationStatus.UP_TO_DATE);
+
+		// new connection, no sampling known
+		agentStatusData.setSamplingRates(null);
 	}
 
 	/**
@@ -168,6 +172,33 @@ public class AgentStatusDataProvider implements InitializingBean, ApplicationLis
 		}
 	}
 
+	/**
+	 * Registers the sampling rates reported by the agent for a given platform ident. Empty map
+	 * denotes that agent is not sampling the data anymore.
+	 *
+	 * @param platformIdent
+	 *            ID of the platform ident.
+	 * @param samplingRates
+	 *            Map of sensor type ids to the sampling rates.
+	 */
+	public void registerSamplingRates(long platformIdent, Map<Long, Double> samplingRates) {
+		AgentStatusData agentStatusData = agentStatusDataMap.get(platformIdent);
+		if (null != agentStatusData) {
+			if (MapUtils.isEmpty(samplingRates)) {
+				if ((null != agentStatusData.getSamplingRates()) && log.isInfoEnabled()) {
+					log.info("Platform " + platformIdent + " stopped sampling the monitoring data.");
+				}
+				agentStatusData.setSamplingRates(null);
+			} else {
+				if ((null == agentStatusData.getSamplingRates()) && log.isWarnEnabled()) {
+					log.warn("Platform " + platformIdent + " is sampling the monitoring data due to the high buffer occupancy, counts of the sampled sensor types are lower than real. Sampling rates per sensor type: "
+							+ samplingRates);
+				}
+				agentStatusData.setSamplingRates(new HashMap<>(samplingRates));
+			}
+		}
+	}
+
 	/**
 	 * Registers that the agent is not sending keep-alive messages anymore.
 	 *
@@ -16,6 +16,8 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import rocks.inspectit.server.cache.IBuffer;
+import rocks.inspectit.server.processor.CmrDataProcessingPipeline;
+import rocks.inspectit.server.processor.CmrDataProcessingStage;
 import rocks.inspectit.server.storage.CmrStorageManager;
 import rocks.inspectit.shared.all.spring.logger.Log;
 import rocks.inspectit.shared.all.storage.nio.ByteBufferProvider;
@@ -102,6 +104,12 @@ public class HealthStatus {
 	@Autowired
 	private ByteBufferProvider byteBufferProvider;
 
+	/**
+	 * Data processing pipeline for the status of the processing stages.
+	 */
+	@Autowired
+	private CmrDataProcessingPipeline dataProcessingPipeline;
+
 	/**
 	 * Log all the statistics.
 	 */
@@ -118,6 +126,7 @@ public class HealthStatus {
 		}
 		if (log.isInfoEnabled()) {
 			logBufferStatistics();
+			logDataProcessingStatistics();
 			logStorageStatistics();
 		}
 	}
@@ -402,6 +411,20 @@ public class HealthStatus {
 		log.info(sb.toString());
 	}
 
+	/**
+	 * Logs the status of the data processing pipeline stages.
+	 */
+	private void logDataProcessingStatistics() {
+		if (dataProcessingPipeline.isActive()) {
+			for (CmrDataProcessingStage stage : dataProcessingPipeline.getStages()) {
+				log.info(String.format("Data processing stage %s has %d batches in the queue, processed %d batches (%d failed) with average latency of %.2f ms and maximum latency of %.2f ms.",
+						stage.getName(), stage.getQueueDepth(), stage.getProcessedBatches(), stage.getFailedBatches(), stage.getAverageLatency(), stage.getMaxLatency()));
+			}
+		} else {
+			log.info("Asynchronous data processing is not active.");
+		}
+	}
+
 	/**
 	 * Logs the storage stats.
 	 */
@@ -0,0 +1,163 @@
+package rocks.inspectit.server.util;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+import rocks.inspectit.server.event.AgentDeletedEvent;
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+import rocks.inspectit.shared.all.communication.data.SqlStatementData;
+import rocks.inspectit.shared.all.spring.logger.Log;
+
+/**
+ * Dictionary of the SQL statements registered by the agents. Agents send the SQL string of a
+ * statement only once per connection and afterwards only the id of the statement with the
+ * {@link SqlStatementData}. The dictionary resolves these ids to the SQL strings before the data is
+ * processed.
+ * <p>
+ * All SQL strings are interned, so that the buffer, indexers and storage processors share one
+ * string instance per distinct statement, regardless of the agent that sent it. Strings are held
+ * weakly by the interner, thus statements not referenced by any data anymore can be collected.
+ *
+ * @author agent
+ *
+ */
+@Component
+public class SqlStatementDictionary implements ApplicationListener<AgentDeletedEvent> {
+
+	/**
+	 * Logger for the class.
+	 */
+	@Log
+	Logger log;
+
+	/**
+	 * Interner of the SQL strings.
+	 */
+	private final Interner<String> interner = Interners.newWeakInterner();
+
+	/**
+	 * Registered statements keyed by the platform ident and the statement id.
+	 */
+	private final ConcurrentHashMap<Long, Map<Integer, String>> agentStatements = new ConcurrentHashMap<>(8, 0.75f, 1);
+
+	/**
+	 * Registers the statements of the agent. Registering an existing id replaces the statement.
+	 *
+	 * @param platformIdent
+	 *            Id of the agent.
+	 * @param sqlStatements
+	 *            Map of the statement ids to the SQL strings.
+	 */
+	public void register(long platformIdent, Map<Integer, String> sqlStatements) {
+		if ((null == sqlStatements) || sqlStatements.isEmpty()) {
+			return;
+		}
+
+		Map<Integer, String> statements = agentStatements.get(platformIdent);
+		if (null == statements) {
+			statements = new ConcurrentHashMap<>();
+			Map<Integer, String> existing = agentStatements.putIfAbsent(platformIdent, statements);
+			if (null != existing) {
+				statements = existing;
+			}
+		}
+
+		for (Entry<Integer, String> entry : sqlStatements.entrySet()) {
+			if ((null != entry.getKey()) && (null != entry.getValue())) {
+				statements.put(entry.getKey(), interner.intern(entry.getValue()));
+			}
+		}
+	}
+
+	/**
+	 * Resolves the SQL strings of all {@link SqlStatementData} in the given data objects, including
+	 * the ones in the invocation sequences. Data sent with the statement id gets the registered SQL
+	 * string, data sent with the complete SQL string gets the interned one.
+	 *
+	 * @param dataObjects
+	 *            Data objects sent by the agent.
+	 */
+	public void resolve(List<? extends DefaultData> dataObjects) {
+		for (DefaultData dataObject : dataObjects) {
+			if (dataObject instanceof SqlStatementData) {
+				resolve((SqlStatementData) dataObject);
+			} else if (dataObject instanceof InvocationSequenceData) {
+				resolve((InvocationSequenceData) dataObject);
+			}
+		}
+	}
+
+	/**
+	 * Returns the amount of statements registered by the agent.
+	 *
+	 * @param platformIdent
+	 *            Id of the agent.
+	 * @return Returns the amount of statements registered by the agent.
+	 */
+	public int getStatementCount(long platformIdent) {
+		Map<Integer, String> statements = agentStatements.get(platformIdent);
+		if (null == statements) {
+			return 0;
+		}
+		return statements.size();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onApplicationEvent(AgentDeletedEvent event) {
+		agentStatements.remove(event.getPlatformId());
+	}
+
+	/**
+	 * Resolves the SQL strings in the invocation sequence and its nested sequences.
+	 *
+	 * @param invocationSequenceData
+	 *            Invocation sequence.
+	 */
+	private void resolve(InvocationSequenceData invocationSequenceData) {
+		if (null != invocationSequenceData.getSqlStatementData()) {
+			resolve(invocationSequenceData.getSqlStatementData());
+		}
+		List<InvocationSequenceData> nestedSequences = invocationSequenceData.getNestedSequences();
+		if (null != nestedSequences) {
+			for (InvocationSequenceData nested : nestedSequences) {
+				resolve(nested);
+			}
+		}
+	}
+
+	/**
+	 * Resolves the SQL string of the {@link SqlStatementData}.
+	 *
+	 * @param sqlStatementData
+	 *            {@link SqlStatementData} sent by the agent.
+	 */
+	private void resolve(SqlStatementData sqlStatementData) {
+		int sqlId = sqlStatementData.getSqlId();
+		if (0 != sqlId) {
+			Map<Integer, String> statements = agentStatements.get(sqlStatementData.getPlatformIdent());
+			String sql = (null != statements) ? statements.get(sqlId) : null;
+			if ((null == sql) && log.isDebugEnabled()) {
+				log.debug("SQL statement with id " + sqlId + " is not registered by the agent with id " + sqlStatementData.getPlatformIdent() + ".");
+			}
+			sqlStatementData.setSql(sql);
+			// id is valid only in the agent's dictionary
+			sqlStatementData.setSqlId(0);
+		} else if (null != sqlStatementData.getSql()) {
+			sqlStatementData.setSql(interner.intern(sqlStatementData.getSql()));
+		}
+	}
+
+}
@@ -10,6 +10,9 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
 import java.util.concurrent.ExecutorService;
 
@@ -82,6 +85,90 @@ public class AtomicBufferTest extends AbstractTestNGLogSupport {
 		assertThat(element1.getNextElement(), is(equalTo(element2)));
 	}
 
+	/**
+	 * Test that batch insertion keeps the order of the list and links it after the existing
+	 * elements.
+	 */
+	@Test
+	public void insertElementsBatch() {
+		DefaultData defaultData = mock(DefaultData.class);
+		IBufferElement<DefaultData> element1 = new BufferElement<>(defaultData);
+		IBufferElement<DefaultData> element2 = new BufferElement<>(defaultData);
+		IBufferElement<DefaultData> element3 = new BufferElement<>(defaultData);
+
+		buffer.put(element1);
+		buffer.put(Arrays.asList(element2, element3));
+
+		assertThat(buffer.getInsertedElemenets(), is(3L));
+		assertThat(element1.getNextElement(), is(equalTo(element2)));
+		assertThat(element2.getNextElement(), is(equalTo(element3)));
+	}
+
+	/**
+	 * Test that batch insertion of an empty list does not change the buffer.
+	 */
+	@Test
+	public void insertEmptyBatch() {
+		buffer.put(new ArrayList<IBufferElement<DefaultData>>());
+
+		assertThat(buffer.getInsertedElemenets(), is(0L));
+	}
+
+	/**
+	 * Tests that batches put by several producers are all analyzed and accounted in the buffer
+	 * size.
+	 *
+	 * @throws Exception
+	 */
+	@Test(invocationCount = 5)
+	public void analysisOfBatches() throws Exception {
+		Random random = new Random();
+		int producers = 1 + random.nextInt(4);
+		final int batches = 1 + random.nextInt(100);
+		final int batchSize = 1 + random.nextInt(200);
+		long elements = (long) producers * batches * batchSize;
+
+		when(bufferProperties.getInitialBufferSize()).thenReturn(elements);
+		buffer.postConstruct();
+
+		final DefaultData defaultData = mock(DefaultData.class);
+		when(defaultData.getObjectSize(objectSizes)).thenReturn(1L);
+
+		BufferAnalyzer bufferAnalyzer = new BufferAnalyzer(buffer);
+		bufferAnalyzer.start();
+
+		Thread[] producerArray = new Thread[producers];
+		for (int i = 0; i < producers; i++) {
+			producerArray[i] = new Thread() {
+				@Override
+				public void run() {
+					for (int j = 0; j < batches; j++) {
+						List<IBufferElement<DefaultData>> batch = new ArrayList<>(batchSize);
+						for (int k = 0; k < batchSize; k++) {
+							batch.add(new BufferElement<>(defaultData));
+						}
+						buffer.put(batch);
+					}
+				}
+			};
+			producerArray[i].start();
+		}
+		for (Thread producer : producerArray) {
+			producer.join();
+		}
+
+		// wait to be analyzed
+		while (buffer.getAnalyzedElements() < elements) {
+			Thread.sleep(50);
+		}
+
+		bufferAnalyzer.interrupt();
+
+		assertThat(buffer.getInsertedElemenets(), is(elements));
+		assertThat(buffer.getAnalyzedElements(), is(elements));
+		assertThat(buffer.getCurrentSize(), is(elements));
+	}
+
 	/**
 	 * Tests that eviction will remove right amount of elements.
 	 *
@@ -0,0 +1,97 @@
+package rocks.inspectit.server.cache.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+
+import org.testng.annotations.Test;
+
+import rocks.inspectit.shared.all.communication.data.SqlStatementData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * Tests the {@link ColumnChunk}.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class ColumnChunkTest extends TestBase {
+
+	public static class Retain extends ColumnChunkTest {
+
+		@Test
+		public void created() {
+			ColumnChunk chunk = new ColumnChunk(2);
+
+			boolean retained = chunk.retain();
+
+			assertThat(retained, is(true));
+		}
+
+		@Test
+		public void released() {
+			ColumnChunk chunk = new ColumnChunk(2);
+			chunk.release();
+
+			boolean retained = chunk.retain();
+
+			assertThat(retained, is(false));
+		}
+
+		@Test
+		public void readableUntilLastRelease() {
+			ColumnChunk chunk = new ColumnChunk(2);
+			chunk.append(new TimerData(new Timestamp(1000L), 1L, 2L, 3L), null, 0);
+			chunk.retain();
+			chunk.release();
+
+			Timestamp timestamp = chunk.getTimestamp(0);
+			chunk.release();
+
+			assertThat(timestamp, is(new Timestamp(1000L)));
+			assertThat(chunk.retain(), is(false));
+		}
+
+	}
+
+	public static class Append extends ColumnChunkTest {
+
+		@Test
+		public void serializedBufferGrows() {
+			ColumnChunk chunk = new ColumnChunk(2);
+			SqlStatementData sqlStatementData = new SqlStatementData(new Timestamp(1000L), 1L, 2L, 3L);
+			byte[] first = new byte[48 * 1024];
+			Arrays.fill(first, (byte) 1);
+			byte[] second = new byte[48 * 1024];
+			Arrays.fill(second, (byte) 2);
+			chunk.append(sqlStatementData, first, first.length);
+			long allocatedBefore = chunk.getAllocatedBytes();
+
+			boolean appended = chunk.append(sqlStatementData, second, second.length);
+
+			assertThat(appended, is(true));
+			assertThat(chunk.getAllocatedBytes() > allocatedBefore, is(true));
+			assertThat(Arrays.equals(chunk.getSerialized(0), first), is(true));
+			assertThat(Arrays.equals(chunk.getSerialized(1), second), is(true));
+			chunk.release();
+		}
+
+		@Test
+		public void full() {
+			ColumnChunk chunk = new ColumnChunk(1);
+			chunk.append(new TimerData(new Timestamp(1000L), 1L, 2L, 3L), null, 0);
+
+			boolean appended = chunk.append(new TimerData(new Timestamp(2000L), 1L, 2L, 3L), null, 0);
+
+			assertThat(appended, is(false));
+			assertThat(chunk.getSize(), is(1));
+			chunk.release();
+		}
+
+	}
+
+}
@@ -0,0 +1,351 @@
+package rocks.inspectit.server.cache.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.slf4j.Logger;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import rocks.inspectit.server.cache.IBufferElement;
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.ExceptionSensorData;
+import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+import rocks.inspectit.shared.all.communication.data.SqlStatementData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.indexing.IIndexQuery;
+import rocks.inspectit.shared.all.serializer.SerializationException;
+import rocks.inspectit.shared.all.serializer.impl.SerializationManager;
+import rocks.inspectit.shared.all.serializer.provider.SerializationManagerProvider;
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * Tests the {@link ColumnarBuffer}.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class ColumnarBufferTest extends TestBase {
+
+	@InjectMocks
+	ColumnarBuffer<DefaultData> buffer;
+
+	@Mock
+	Logger log;
+
+	@Mock
+	BufferProperties bufferProperties;
+
+	@Mock
+	AtomicBuffer<DefaultData> atomicBuffer;
+
+	@Mock
+	SerializationManagerProvider serializationManagerProvider;
+
+	@Mock
+	SerializationManager serializer;
+
+	@Mock
+	IIndexQuery query;
+
+	@BeforeMethod
+	public void init() throws Exception {
+		when(bufferProperties.isColumnarStoreActive()).thenReturn(true);
+		when(bufferProperties.getColumnarStoreMaxSize()).thenReturn(Long.MAX_VALUE);
+		when(serializationManagerProvider.createSerializer()).thenReturn(serializer);
+		when(query.areAllRestrictionsFulfilled(any(DefaultData.class))).thenReturn(true);
+		buffer.postConstruct();
+	}
+
+	TimerData createTimerData(long id, long platformIdent, long time) {
+		TimerData timerData = new TimerData(new Timestamp(time), platformIdent, 2L, 3L);
+		timerData.setId(id);
+		timerData.setCount(2L);
+		timerData.setDuration(30d);
+		timerData.calculateMin(10d);
+		timerData.calculateMax(20d);
+		timerData.setCpuDuration(15d);
+		timerData.calculateCpuMin(5d);
+		timerData.calculateCpuMax(10d);
+		timerData.setExclusiveCount(2L);
+		timerData.setExclusiveDuration(25d);
+		timerData.calculateExclusiveMin(10d);
+		timerData.calculateExclusiveMax(15d);
+		timerData.setVariance(4d);
+		timerData.setCharting(true);
+		return timerData;
+	}
+
+	IBufferElement<DefaultData> element(DefaultData defaultData) {
+		return new BufferElement<>(defaultData);
+	}
+
+	public static class Put extends ColumnarBufferTest {
+
+		@Test
+		public void timerData() {
+			buffer.put(element(createTimerData(1L, 1L, 1000L)));
+
+			assertThat(buffer.getColumnarInsertedElements(), is(1L));
+			assertThat(buffer.getColumnarCurrentSize(), is((long) ColumnChunk.DEFAULT_CAPACITY * ColumnChunk.ROW_SIZE));
+			verifyZeroInteractions(atomicBuffer);
+		}
+
+		@Test
+		public void otherData() {
+			IBufferElement<DefaultData> element = element(new ExceptionSensorData());
+
+			buffer.put(element);
+
+			assertThat(buffer.getColumnarInsertedElements(), is(0L));
+			verify(atomicBuffer).put(element);
+		}
+
+		@Test
+		public void notActive() throws Exception {
+			when(bufferProperties.isColumnarStoreActive()).thenReturn(false);
+			buffer.postConstruct();
+			IBufferElement<DefaultData> element = element(createTimerData(1L, 1L, 1000L));
+
+			buffer.put(element);
+
+			assertThat(buffer.getColumnarInsertedElements(), is(0L));
+			verify(atomicBuffer).put(element);
+		}
+
+		@Test
+		public void serializationFailed() throws SerializationException {
+			doThrow(SerializationException.class).when(serializer).serialize(any(), any(Output.class));
+			SqlStatementData sqlStatementData = new SqlStatementData(new Timestamp(1000L), 1L, 2L, 3L);
+			IBufferElement<DefaultData> element = element(sqlStatementData);
+
+			buffer.put(element);
+
+			assertThat(buffer.getColumnarInsertedElements(), is(0L));
+			verify(atomicBuffer).put(element);
+		}
+
+		@Test
+		public void chunkEviction() {
+			buffer.chunkCapacity = 2;
+			when(bufferProperties.getColumnarStoreMaxSize()).thenReturn(4L * ColumnChunk.ROW_SIZE);
+			buffer.updateColumnarStoreMaxSize();
+
+			for (int i = 0; i < 5; i++) {
+				buffer.put(element(createTimerData(i, 1L, 1000L + i)));
+			}
+
+			assertThat(buffer.getColumnarInsertedElements(), is(5L));
+			assertThat(buffer.getColumnarEvictedElements(), is(2L));
+			assertThat(buffer.getColumnarCurrentSize(), is(4L * ColumnChunk.ROW_SIZE));
+			assertThat(buffer.getOldestElement().getId(), is(2L));
+			assertThat(buffer.getNewestElement().getId(), is(4L));
+		}
+
+		@Test
+		public void batch() {
+			IBufferElement<DefaultData> timerElement = element(createTimerData(1L, 1L, 1000L));
+			IBufferElement<DefaultData> otherElement = element(new ExceptionSensorData());
+
+			buffer.put(Arrays.asList(timerElement, otherElement));
+
+			assertThat(buffer.getColumnarInsertedElements(), is(1L));
+			verify(atomicBuffer).put(Collections.singletonList(otherElement));
+		}
+
+		@Test
+		public void batchNotActive() throws Exception {
+			when(bufferProperties.isColumnarStoreActive()).thenReturn(false);
+			buffer.postConstruct();
+			List<IBufferElement<DefaultData>> elements = Collections.singletonList(element(createTimerData(1L, 1L, 1000L)));
+
+			buffer.put(elements);
+
+			assertThat(buffer.getColumnarInsertedElements(), is(0L));
+			verify(atomicBuffer).put(elements);
+		}
+
+	}
+
+	public static class Query extends ColumnarBufferTest {
+
+		@Test
+		public void materialized() {
+			TimerData timerData = createTimerData(1L, 1L, 1000L);
+			buffer.put(element(timerData));
+
+			List<DefaultData> result = buffer.query(query);
+
+			assertThat(result, hasSize(1));
+			TimerData materialized = (TimerData) result.get(0);
+			assertThat(materialized, is(timerData));
+			assertThat(materialized.getId(), is(1L));
+			assertThat(materialized.getTimeStamp(), is(timerData.getTimeStamp()));
+			assertThat(materialized.getMin(), is(10d));
+			assertThat(materialized.getMax(), is(20d));
+			assertThat(materialized.getCpuMin(), is(5d));
+			assertThat(materialized.getExclusiveMax(), is(15d));
+			assertThat(materialized.getVariance(), is(4d));
+			assertThat(materialized.isCharting(), is(true));
+		}
+
+		@Test
+		public void serialized() throws SerializationException {
+			final SqlStatementData sqlStatementData = new SqlStatementData(new Timestamp(1000L), 1L, 2L, 3L);
+			sqlStatementData.setSql("select 1");
+			doAnswer(new Answer<Void>() {
+				@Override
+				public Void answer(InvocationOnMock invocation) throws Throwable {
+					((Output) invocation.getArguments()[1]).writeString("select 1");
+					return null;
+				}
+			}).when(serializer).serialize(any(), any(Output.class));
+			when(serializer.deserialize(any(Input.class))).thenReturn(sqlStatementData);
+			buffer.put(element(sqlStatementData));
+
+			List<DefaultData> result = buffer.query(query);
+
+			assertThat(result, contains((DefaultData) sqlStatementData));
+			assertThat(result.get(0), is(instanceOf(SqlStatementData.class)));
+		}
+
+		@Test
+		public void platformIdent() {
+			buffer.put(element(createTimerData(1L, 1L, 1000L)));
+			buffer.put(element(createTimerData(2L, 2L, 1000L)));
+			when(query.getPlatformIdent()).thenReturn(2L);
+
+			List<DefaultData> result = buffer.query(query);
+
+			assertThat(result, hasSize(1));
+			assertThat(result.get(0).getPlatformIdent(), is(2L));
+		}
+
+		@Test
+		public void interval() {
+			buffer.put(element(createTimerData(1L, 1L, 1000L)));
+			buffer.put(element(createTimerData(2L, 1L, 2000L)));
+			buffer.put(element(createTimerData(3L, 1L, 3000L)));
+			when(query.isIntervalSet()).thenReturn(true);
+			when(query.getFromDate()).thenReturn(new Timestamp(1500L));
+			when(query.getToDate()).thenReturn(new Timestamp(2000L));
+
+			List<DefaultData> result = buffer.query(query);
+
+			assertThat(result, hasSize(1));
+			assertThat(result.get(0).getId(), is(2L));
+		}
+
+		@Test
+		public void otherObjectClass() {
+			buffer.put(element(createTimerData(1L, 1L, 1000L)));
+			when(query.getObjectClasses()).thenReturn(Collections.<Class<?>> singletonList(InvocationSequenceData.class));
+
+			List<DefaultData> result = buffer.query(query);
+
+			assertThat(result, is(empty()));
+		}
+
+		@Test
+		public void restrictionNotFulfilled() {
+			buffer.put(element(createTimerData(1L, 1L, 1000L)));
+			when(query.areAllRestrictionsFulfilled(any(DefaultData.class))).thenReturn(false);
+
+			List<DefaultData> result = buffer.query(query);
+
+			assertThat(result, is(empty()));
+		}
+
+		@Test
+		public void cleared() {
+			buffer.put(element(createTimerData(1L, 1L, 1000L)));
+			buffer.clearAll();
+
+			List<DefaultData> result = buffer.query(query);
+
+			assertThat(result, is(empty()));
+			assertThat(buffer.getColumnarCurrentSize(), is(0L));
+			verify(atomicBuffer).clearAll();
+		}
+
+	}
+
+	public static class Get extends ColumnarBufferTest {
+
+		@Test
+		public void found() {
+			buffer.put(element(createTimerData(1L, 1L, 1000L)));
+			buffer.put(element(createTimerData(2L, 1L, 2000L)));
+			TimerData template = new TimerData();
+			template.setId(2L);
+
+			DefaultData result = buffer.get(template);
+
+			assertThat(result.getId(), is(2L));
+			assertThat(result.getTimeStamp(), is(new Timestamp(2000L)));
+		}
+
+		@Test
+		public void notFound() {
+			buffer.put(element(createTimerData(1L, 1L, 1000L)));
+			TimerData template = new TimerData();
+			template.setId(2L);
+
+			DefaultData result = buffer.get(template);
+
+			assertThat(result, is(nullValue()));
+		}
+
+		@Test
+		public void otherType() {
+			buffer.put(element(createTimerData(1L, 1L, 1000L)));
+			SqlStatementData template = new SqlStatementData();
+			template.setId(1L);
+
+			DefaultData result = buffer.get(template);
+
+			assertThat(result, is(nullValue()));
+		}
+
+		@Test
+		public void evicted() {
+			buffer.chunkCapacity = 1;
+			when(bufferProperties.getColumnarStoreMaxSize()).thenReturn((long) ColumnChunk.ROW_SIZE);
+			buffer.updateColumnarStoreMaxSize();
+			buffer.put(element(createTimerData(1L, 1L, 1000L)));
+			buffer.put(element(createTimerData(2L, 1L, 2000L)));
+			TimerData template = new TimerData();
+			template.setId(1L);
+
+			DefaultData result = buffer.get(template);
+
+			assertThat(result, is(nullValue()));
+		}
+
+	}
+
+}
@@ -105,6 +105,60 @@ public class TimerDataAggregatorTest extends AbstractTestNGLogSupport {
 		verifyZeroInteractions(entityManager);
 	}
 
+	/**
+	 * Tests that data of different methods is not aggregated together even if the values would
+	 * produce the same hash code.
+	 */
+	@Test
+	public void noAggregationOnHashCollision() {
+		long timestamp = System.currentTimeMillis();
+		TimerData timerData1 = new TimerData(new Timestamp(timestamp), 1L, 20L, 0L);
+		TimerData timerData2 = new TimerData(new Timestamp(timestamp), 0L, 20L, 31L);
+
+		aggregator.processTimerData(timerData1);
+		aggregator.processTimerData(timerData2);
+
+		assertThat(aggregator.getElementCount(), is(2));
+	}
+
+	/**
+	 * Tests that aggregation from many threads does not lose any data.
+	 */
+	@Test
+	public void concurrentAggregation() throws Exception {
+		final long timestamp = System.currentTimeMillis();
+		final int threads = 4;
+		final int elements = 10000;
+		Thread[] workers = new Thread[threads];
+		for (int i = 0; i < threads; i++) {
+			workers[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					for (int j = 0; j < elements; j++) {
+						TimerData timerData = new TimerData(new Timestamp(timestamp), 10L, 20L, j % 10);
+						timerData.setCount(1L);
+						aggregator.processTimerData(timerData);
+					}
+				}
+			});
+			workers[i].start();
+		}
+		for (Thread worker : workers) {
+			worker.join();
+		}
+
+		assertThat(aggregator.getElementCount(), is(10));
+		aggregator.removeAndPersistAll();
+		ArgumentCaptor<DatabaseAggregatedTimerData> argument = ArgumentCaptor.forClass(DatabaseAggregatedTimerData.class);
+		verify(entityManager, times(10)).persist(argument.capture());
+		long totalCount = 0;
+		for (DatabaseAggregatedTimerData timerData : argument.getAllValues()) {
+			totalCount += timerData.getCount();
+		}
+		assertThat(totalCount, is((long) threads * elements));
+		assertThat(aggregator.getElementCount(), is(0));
+	}
+
 	/**
 	 * Tests that persist list saving includes correct elements being saved.
 	 */
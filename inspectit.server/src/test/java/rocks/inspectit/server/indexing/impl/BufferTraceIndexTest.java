@@ -0,0 +1,148 @@
+package rocks.inspectit.server.indexing.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.mockito.InjectMocks;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.shared.all.testbase.TestBase;
+import rocks.inspectit.shared.all.tracing.data.AbstractSpan;
+import rocks.inspectit.shared.all.tracing.data.ClientSpan;
+import rocks.inspectit.shared.all.tracing.data.ServerSpan;
+import rocks.inspectit.shared.all.tracing.data.SpanIdent;
+
+/**
+ * Tests the {@link BufferTraceIndex} class.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class BufferTraceIndexTest extends TestBase {
+
+	private static final long TRACE_ID = 10L;
+
+	@InjectMocks
+	BufferTraceIndex index;
+
+	/**
+	 * Creates span with given ids.
+	 */
+	AbstractSpan createSpan(long id, long parentId, long traceId) {
+		AbstractSpan span = (0 == (id % 2)) ? new ServerSpan() : new ClientSpan();
+		span.setSpanIdent(new SpanIdent(id, traceId));
+		span.setParentSpanId(parentId);
+		span.setTimeStamp(new Timestamp(id));
+		return span;
+	}
+
+	public static class GetSpans extends BufferTraceIndexTest {
+
+		@Test
+		public void depthFirst() {
+			AbstractSpan root = createSpan(1L, 0L, TRACE_ID);
+			AbstractSpan child1 = createSpan(2L, 1L, TRACE_ID);
+			AbstractSpan child2 = createSpan(3L, 1L, TRACE_ID);
+			AbstractSpan grandChild = createSpan(4L, 2L, TRACE_ID);
+			// children arrive before parents
+			index.put(grandChild);
+			index.put(child2);
+			index.put(child1);
+			index.put(root);
+
+			List<AbstractSpan> spans = index.getSpans(TRACE_ID);
+
+			assertThat(spans, contains(root, child2, child1, grandChild));
+		}
+
+		@Test
+		public void missingParent() {
+			AbstractSpan child = createSpan(2L, 1L, TRACE_ID);
+			AbstractSpan grandChild = createSpan(3L, 2L, TRACE_ID);
+			index.put(grandChild);
+			index.put(child);
+
+			List<AbstractSpan> spans = index.getSpans(TRACE_ID);
+
+			assertThat(spans, contains(child, grandChild));
+		}
+
+		@Test
+		public void relinkedRoot() {
+			AbstractSpan root = createSpan(1L, 0L, TRACE_ID);
+			AbstractSpan child = createSpan(2L, 1L, TRACE_ID);
+			AbstractSpan newRoot = createSpan(3L, 0L, TRACE_ID);
+			index.put(root);
+			index.put(child);
+			index.put(newRoot);
+			root.setParentSpanId(3L);
+
+			List<AbstractSpan> spans = index.getSpans(TRACE_ID);
+
+			assertThat(spans, containsInAnyOrder(root, child, newRoot));
+		}
+
+		@Test
+		public void otherTrace() {
+			index.put(createSpan(1L, 0L, TRACE_ID));
+
+			List<AbstractSpan> spans = index.getSpans(TRACE_ID + 1);
+
+			assertThat(spans, is(empty()));
+		}
+
+		@Test
+		public void noSpanIdent() {
+			AbstractSpan span = new ServerSpan();
+			index.put(span);
+
+			assertThat(index.getTraceCount(), is(0));
+		}
+	}
+
+	public static class Get extends BufferTraceIndexTest {
+
+		@Test
+		public void span() {
+			AbstractSpan root = createSpan(1L, 0L, TRACE_ID);
+			AbstractSpan child = createSpan(2L, 1L, TRACE_ID);
+			index.put(root);
+			index.put(child);
+
+			AbstractSpan result = index.get(new SpanIdent(2L, TRACE_ID));
+
+			assertThat(result, is(sameInstance(child)));
+		}
+
+		@Test
+		public void notExisting() {
+			index.put(createSpan(1L, 0L, TRACE_ID));
+
+			assertThat(index.get(new SpanIdent(2L, TRACE_ID)), is(nullValue()));
+			assertThat(index.get(new SpanIdent(1L, TRACE_ID + 1)), is(nullValue()));
+		}
+	}
+
+	public static class ClearAll extends BufferTraceIndexTest {
+
+		@Test
+		public void clear() {
+			index.put(createSpan(1L, 0L, TRACE_ID));
+
+			index.clearAll();
+
+			assertThat(index.getTraceCount(), is(0));
+			assertThat(index.getSpans(TRACE_ID), is(empty()));
+		}
+	}
+
+}
@@ -3,13 +3,19 @@ package rocks.inspectit.server.instrumentation;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasEntry;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verifyZeroInteractions;
@@ -18,12 +24,16 @@ import static org.mockito.Mockito.when;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.invocation.InvocationOnMock;
@@ -34,12 +44,16 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import rocks.inspectit.server.event.AgentDeletedEvent;
 import rocks.inspectit.server.event.AgentRegisteredEvent;
 import rocks.inspectit.server.instrumentation.classcache.ClassCache;
 import rocks.inspectit.server.instrumentation.classcache.ClassCacheInstrumentation;
 import rocks.inspectit.server.instrumentation.classcache.ClassCacheLookup;
 import rocks.inspectit.server.instrumentation.classcache.ClassCacheModification;
 import rocks.inspectit.server.instrumentation.classcache.ClassCacheModificationException;
+import rocks.inspectit.server.instrumentation.classcache.ClassCachePersistence;
+import rocks.inspectit.server.instrumentation.classcache.ClassStructureStore;
+import rocks.inspectit.server.instrumentation.config.ApplierResultCache;
 import rocks.inspectit.server.instrumentation.config.ConfigurationHolder;
 import rocks.inspectit.server.instrumentation.config.ConfigurationResolver;
 import rocks.inspectit.server.instrumentation.config.applier.IInstrumentationApplier;
@@ -48,6 +62,7 @@ import rocks.inspectit.shared.all.exception.BusinessException;
 import rocks.inspectit.shared.all.instrumentation.classcache.ClassType;
 import rocks.inspectit.shared.all.instrumentation.classcache.ImmutableType;
 import rocks.inspectit.shared.all.instrumentation.classcache.Type;
+import rocks.inspectit.shared.all.instrumentation.classcache.util.ClassHashDigest;
 import rocks.inspectit.shared.all.instrumentation.config.impl.AgentConfig;
 import rocks.inspectit.shared.all.instrumentation.config.impl.InstrumentationDefinition;
 import rocks.inspectit.shared.all.instrumentation.config.impl.JmxAttributeDescriptor;
@@ -101,6 +116,18 @@ public class NextGenInstrumentationManagerTest extends TestBase {
 	@Mock
 	ApplicationEventPublisher eventPublisher;
 
+	@Mock
+	ClassCachePersistence classCachePersistence;
+
+	@Mock
+	ScheduledExecutorService scheduledExecutorService;
+
+	@Mock
+	ClassStructureStore classStructureStore;
+
+	@Mock
+	ApplierResultCache applierResultCache;
+
 	@BeforeMethod
 	public void setup() {
 		when(classCacheFactory.getObject()).thenReturn(classCache);
@@ -266,6 +293,136 @@ public class NextGenInstrumentationManagerTest extends TestBase {
 			verifyNoMoreInteractions(configurationResolver, registrationService, configurationHolder);
 			verifyZeroInteractions(classCache);
 		}
+
+		@Test
+		public void restoredClassCache() throws BusinessException {
+			long id = 10;
+			List<String> definedIPs = mock(List.class);
+			String agentName = "agentName";
+			String version = "v1";
+			final AgentConfig configuration = mock(AgentConfig.class);
+			Environment environment = mock(Environment.class);
+			Collection<IInstrumentationApplier> appliers = mock(Collection.class);
+			ClassType classType = new ClassType("fqn", "hash", 0);
+			Map<Collection<String>, InstrumentationDefinition> initialInstrumentations = mock(Map.class);
+			when(configurationResolver.getEnvironmentForAgent(definedIPs, agentName)).thenReturn(environment);
+			when(registrationService.registerPlatformIdent(definedIPs, agentName, version)).thenReturn(id);
+			when(classCachePersistence.isActive()).thenReturn(true);
+			doReturn(Collections.singletonList(classType)).when(lookupService).findAll();
+			when(configurationHolder.getInstrumentationAppliers()).thenReturn(appliers);
+			doReturn(Collections.singletonList(classType)).when(instrumentationService).addInstrumentationPoints(configuration, appliers);
+			when(instrumentationService.getInstrumentationResultsWithHashes()).thenReturn(initialInstrumentations);
+			doAnswer(new Answer<Void>() {
+				@Override
+				public Void answer(InvocationOnMock invocation) throws Throwable {
+					when(configurationHolder.getAgentConfiguration()).thenReturn(configuration);
+					when(configurationHolder.isInitialized()).thenReturn(true);
+					return null;
+				}
+			}).when(configurationHolder).update(environment, id);
+
+			AgentConfig result = manager.register(definedIPs, agentName, version);
+
+			assertThat(result, is(configuration));
+
+			ClassHashDigest digest = new ClassHashDigest();
+			digest.add("hash");
+			verify(classCachePersistence).restore(id, classCache);
+			verify(configurationHolder).update(environment, id);
+			verify(configuration).setInitialInstrumentationResults(initialInstrumentations);
+			verify(configuration).setClassCacheExistsOnCmr(true);
+			verify(configuration).setClassCacheDigest(digest.getValue());
+			// restored classes must be instrumented before the agent gets the configuration
+			InOrder inOrder = inOrder(instrumentationService, configuration);
+			inOrder.verify(instrumentationService).addInstrumentationPoints(configuration, appliers);
+			inOrder.verify(instrumentationService).getInstrumentationResultsWithHashes();
+			inOrder.verify(configuration).setInitialInstrumentationResults(initialInstrumentations);
+		}
+
+		@Test
+		public void emptyClassCacheNotRestored() throws BusinessException {
+			long id = 10;
+			List<String> definedIPs = mock(List.class);
+			String agentName = "agentName";
+			String version = "v1";
+			final AgentConfig configuration = mock(AgentConfig.class);
+			Environment environment = mock(Environment.class);
+			when(configurationResolver.getEnvironmentForAgent(definedIPs, agentName)).thenReturn(environment);
+			when(registrationService.registerPlatformIdent(definedIPs, agentName, version)).thenReturn(id);
+			when(classCachePersistence.isActive()).thenReturn(true);
+			doReturn(Collections.emptyList()).when(lookupService).findAll();
+			doAnswer(new Answer<Void>() {
+				@Override
+				public Void answer(InvocationOnMock invocation) throws Throwable {
+					when(configurationHolder.getAgentConfiguration()).thenReturn(configuration);
+					return null;
+				}
+			}).when(configurationHolder).update(environment, id);
+
+			AgentConfig result = manager.register(definedIPs, agentName, version);
+
+			assertThat(result, is(configuration));
+
+			verify(configuration, never()).setClassCacheExistsOnCmr(true);
+			verifyZeroInteractions(instrumentationService);
+		}
+	}
+
+	public class OnApplicationEvent extends NextGenInstrumentationManagerTest {
+
+		@Test
+		public void agentDeleted() {
+			long platformId = 10L;
+			AgentDeletedEvent event = new AgentDeletedEvent(this, platformId);
+
+			manager.onApplicationEvent(event);
+
+			verify(classCachePersistence).delete(platformId);
+			verify(classStructureStore).release(platformId);
+		}
+	}
+
+	public class SaveClassCaches extends NextGenInstrumentationManagerTest {
+
+		@Test
+		public void save() throws BusinessException {
+			long platformId = 10L;
+			List<String> definedIPs = mock(List.class);
+			when(registrationService.registerPlatformIdent(definedIPs, "agentName", "v1")).thenReturn(platformId);
+			manager.register(definedIPs, "agentName", "v1");
+
+			manager.saveClassCaches();
+
+			verify(classCachePersistence).save(platformId, classCache);
+		}
+
+		@Test
+		public void noAgents() {
+			manager.saveClassCaches();
+
+			verify(classCachePersistence, never()).save(anyLong(), any(ClassCache.class));
+		}
+	}
+
+	public class PostConstruct extends NextGenInstrumentationManagerTest {
+
+		@Test
+		public void scheduled() {
+			when(classCachePersistence.isActive()).thenReturn(true);
+
+			manager.postConstruct();
+
+			verify(scheduledExecutorService).scheduleWithFixedDelay(any(Runnable.class), eq(5L), eq(5L), eq(TimeUnit.MINUTES));
+		}
+
+		@Test
+		public void notActive() {
+			when(classCachePersistence.isActive()).thenReturn(false);
+
+			manager.postConstruct();
+
+			verifyZeroInteractions(scheduledExecutorService);
+		}
 	}
 
 	public class Unregister extends NextGenInstrumentationManagerTest {
@@ -311,6 +468,7 @@ public class NextGenInstrumentationManagerTest extends TestBase {
 
 			assertThat(result, is(nullValue()));
 
+			verify(classStructureStore).share(ID, HASH, type);
 			verify(modificationService).merge(type);
 			verifyNoMoreInteractions(modificationService);
 			verifyZeroInteractions(instrumentationService);
@@ -384,8 +542,64 @@ public class NextGenInstrumentationManagerTest extends TestBase {
 			assertThat(result, is(instrumentationResult));
 
 			verify(instrumentationService).addAndGetInstrumentationResult(classType, configuration, appliers);
+			verify(applierResultCache, never()).markNotInstrumented(any(String.class));
 			verifyNoMoreInteractions(instrumentationService);
-			verifyZeroInteractions(modificationService);
+			verifyZeroInteractions(modificationService, classStructureStore);
+		}
+
+		@Test
+		public void existingClassTypeNotInstrumented() throws BusinessException, ClassCacheModificationException {
+			List<String> definedIPs = mock(List.class);
+			String agentName = "agentName";
+			String version = "v1";
+			when(registrationService.registerPlatformIdent(definedIPs, agentName, version)).thenReturn(ID);
+
+			manager.register(definedIPs, agentName, version);
+
+			ClassType classType = mock(ClassType.class);
+			when(classType.isClass()).thenReturn(true);
+			when(classType.castToClass()).thenReturn(classType);
+			when(lookupService.findByHash(HASH)).thenReturn(classType);
+			when(configurationHolder.isInitialized()).thenReturn(true);
+			AgentConfig configuration = mock(AgentConfig.class);
+			Collection<IInstrumentationApplier> appliers = mock(Collection.class);
+			when(configurationHolder.getAgentConfiguration()).thenReturn(configuration);
+			when(configurationHolder.getInstrumentationAppliers()).thenReturn(appliers);
+			when(configurationHolder.getInstrumentationAppliersKey()).thenReturn("appliers");
+			when(applierResultCache.getKey("appliers", classCache, classType)).thenReturn("key");
+			when(applierResultCache.isNotInstrumented("key")).thenReturn(false);
+
+			InstrumentationDefinition result = manager.analyze(ID, HASH, type);
+
+			assertThat(result, is(nullValue()));
+
+			verify(instrumentationService).addAndGetInstrumentationResult(classType, configuration, appliers);
+			verify(applierResultCache).markNotInstrumented("key");
+		}
+
+		@Test
+		public void existingClassTypeKnownNotInstrumented() throws BusinessException, ClassCacheModificationException {
+			List<String> definedIPs = mock(List.class);
+			String agentName = "agentName";
+			String version = "v1";
+			when(registrationService.registerPlatformIdent(definedIPs, agentName, version)).thenReturn(ID);
+
+			manager.register(definedIPs, agentName, version);
+
+			ClassType classType = mock(ClassType.class);
+			when(classType.isClass()).thenReturn(true);
+			when(classType.castToClass()).thenReturn(classType);
+			when(lookupService.findByHash(HASH)).thenReturn(classType);
+			when(configurationHolder.isInitialized()).thenReturn(true);
+			when(configurationHolder.getInstrumentationAppliersKey()).thenReturn("appliers");
+			when(applierResultCache.getKey("appliers", classCache, classType)).thenReturn("key");
+			when(applierResultCache.isNotInstrumented("key")).thenReturn(true);
+
+			InstrumentationDefinition result = manager.analyze(ID, HASH, type);
+
+			assertThat(result, is(nullValue()));
+
+			verifyZeroInteractions(instrumentationService);
 		}
 
 		@Test(expectedExceptions = { BusinessException.class })
@@ -394,6 +608,62 @@ public class NextGenInstrumentationManagerTest extends TestBase {
 		}
 	}
 
+	public class AnalyzeAll extends NextGenInstrumentationManagerTest {
+
+		@Mock
+		private Type type;
+
+		@Mock
+		private Type otherType;
+
+		private final static String HASH = "hash";
+
+		private final static String OTHER_HASH = "otherHash";
+
+		private final static long ID = 10;
+
+		@Test(expectedExceptions = BusinessException.class)
+		public void agentNotRegistered() throws BusinessException {
+			manager.analyzeAll(ID, Collections.singletonMap(HASH, type));
+		}
+
+		@Test
+		public void onlyInstrumentedReturned() throws BusinessException, ClassCacheModificationException {
+			List<String> definedIPs = mock(List.class);
+			String agentName = "agentName";
+			String version = "v1";
+			when(registrationService.registerPlatformIdent(definedIPs, agentName, version)).thenReturn(ID);
+
+			manager.register(definedIPs, agentName, version);
+
+			ClassType classType = mock(ClassType.class);
+			when(classType.isClass()).thenReturn(true);
+			when(classType.castToClass()).thenReturn(classType);
+			ImmutableType nonClassType = mock(ImmutableType.class);
+			when(nonClassType.isClass()).thenReturn(false);
+			when(lookupService.findByHash(HASH)).thenReturn(classType);
+			when(lookupService.findByHash(OTHER_HASH)).thenReturn(nonClassType);
+			when(configurationHolder.isInitialized()).thenReturn(true);
+			AgentConfig configuration = mock(AgentConfig.class);
+			Collection<IInstrumentationApplier> appliers = mock(Collection.class);
+			InstrumentationDefinition instrumentationResult = mock(InstrumentationDefinition.class);
+			when(configurationHolder.getAgentConfiguration()).thenReturn(configuration);
+			when(configurationHolder.getInstrumentationAppliers()).thenReturn(appliers);
+			when(instrumentationService.addAndGetInstrumentationResult(classType, configuration, appliers)).thenReturn(instrumentationResult);
+			Map<String, Type> hashAndTypes = new LinkedHashMap<>();
+			hashAndTypes.put(OTHER_HASH, otherType);
+			hashAndTypes.put(HASH, type);
+
+			Map<String, InstrumentationDefinition> result = manager.analyzeAll(ID, hashAndTypes);
+
+			assertThat(result.size(), is(1));
+			assertThat(result, hasEntry(HASH, instrumentationResult));
+			verify(instrumentationService).addAndGetInstrumentationResult(classType, configuration, appliers);
+			verifyNoMoreInteractions(instrumentationService);
+			verifyZeroInteractions(modificationService);
+		}
+	}
+
 	public class AnalyzeJmxAttributes extends NextGenInstrumentationManagerTest {
 
 		private final static long ID = 10;
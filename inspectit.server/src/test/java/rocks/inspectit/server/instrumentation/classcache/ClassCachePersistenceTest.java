@@ -0,0 +1,239 @@
+package rocks.inspectit.server.instrumentation.classcache;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.slf4j.Logger;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.shared.all.instrumentation.classcache.AbstractInterfaceType;
+import rocks.inspectit.shared.all.instrumentation.classcache.AnnotationType;
+import rocks.inspectit.shared.all.instrumentation.classcache.ClassType;
+import rocks.inspectit.shared.all.instrumentation.classcache.InterfaceType;
+import rocks.inspectit.shared.all.instrumentation.classcache.MethodType;
+import rocks.inspectit.shared.all.instrumentation.classcache.Type;
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * Tests the {@link ClassCachePersistence} class.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class ClassCachePersistenceTest extends TestBase {
+
+	private static final long PLATFORM_ID = 10L;
+
+	@InjectMocks
+	ClassCachePersistence persistence;
+
+	@Mock
+	Logger log;
+
+	@Mock
+	ClassCache classCache;
+
+	@Mock
+	ClassCacheLookup lookupService;
+
+	@Mock
+	ClassCacheModification modificationService;
+
+	@Mock
+	ClassStructureStore classStructureStore;
+
+	Path folder;
+
+	@BeforeMethod
+	public void setup() throws Exception {
+		folder = Files.createTempDirectory("classcache");
+		persistence.folder = folder.toString();
+		persistence.active = true;
+		when(classCache.getLookupService()).thenReturn(lookupService);
+		when(classCache.getModificationService()).thenReturn(modificationService);
+		when(classCache.executeWithReadLock(any(Callable.class))).thenAnswer(new Answer<Object>() {
+			@Override
+			public Object answer(InvocationOnMock invocation) throws Throwable {
+				return ((Callable<?>) invocation.getArguments()[0]).call();
+			}
+		});
+	}
+
+	@AfterMethod
+	public void cleanUp() throws IOException {
+		Files.deleteIfExists(persistence.getFile(PLATFORM_ID));
+		Files.deleteIfExists(folder);
+	}
+
+	public class WriteRead extends ClassCachePersistenceTest {
+
+		@Test
+		public void classType() throws Exception {
+			ClassType classType = new ClassType("fqn", "hash", Modifier.PUBLIC);
+			classType.addHash("otherHash");
+			classType.addSuperClass(new ClassType("superClass"));
+			classType.addInterface(new InterfaceType("interface"));
+			classType.addAnnotation(new AnnotationType("annotation"));
+			MethodType methodType = new MethodType();
+			methodType.setName("method");
+			methodType.setModifiers(Modifier.PRIVATE);
+			methodType.setReturnType("void");
+			methodType.setParameters(Arrays.asList("int", "java.lang.String"));
+			methodType.addException(new ClassType("exception"));
+			classType.addMethod(methodType);
+
+			List<Type> types = read(persistence.write(Collections.singleton(classType)));
+
+			assertThat(types, hasSize(1));
+			assertThat(types.get(0), is(instanceOf(ClassType.class)));
+			ClassType result = (ClassType) types.get(0);
+			assertThat(result.getFQN(), is("fqn"));
+			assertThat(result.getModifiers(), is(Modifier.PUBLIC));
+			assertThat(result.getHashes(), containsInAnyOrder("hash", "otherHash"));
+			assertThat(result.getSuperClasses(), contains(new ClassType("superClass")));
+			assertThat(result.getRealizedInterfaces(), contains((AbstractInterfaceType) new InterfaceType("interface")));
+			assertThat(result.getAnnotations(), contains(new AnnotationType("annotation")));
+			assertThat(result.getMethods(), hasSize(1));
+			MethodType resultMethod = result.getMethods().iterator().next();
+			assertThat(resultMethod.getName(), is("method"));
+			assertThat(resultMethod.getModifiers(), is(Modifier.PRIVATE));
+			assertThat(resultMethod.getReturnType(), is("void"));
+			assertThat(resultMethod.getParameters(), contains("int", "java.lang.String"));
+			assertThat(resultMethod.getExceptions(), contains(new ClassType("exception")));
+		}
+
+		@Test
+		public void interfaceType() throws Exception {
+			InterfaceType interfaceType = new InterfaceType("fqn", "hash", Modifier.PUBLIC | Modifier.INTERFACE);
+			interfaceType.addSuperInterface(new InterfaceType("superInterface"));
+
+			List<Type> types = read(persistence.write(Collections.singleton(interfaceType)));
+
+			assertThat(types, hasSize(1));
+			assertThat(types.get(0), is(instanceOf(InterfaceType.class)));
+			InterfaceType result = (InterfaceType) types.get(0);
+			assertThat(result.getFQN(), is("fqn"));
+			assertThat(result.getHashes(), contains("hash"));
+			assertThat(result.getSuperInterfaces(), contains(new InterfaceType("superInterface")));
+		}
+
+		@Test
+		public void notInitializedTypeSkipped() throws Exception {
+			List<Type> types = read(persistence.write(Collections.singleton(new ClassType("fqn"))));
+
+			assertThat(types, hasSize(0));
+		}
+
+		@Test(expectedExceptions = IOException.class)
+		public void wrongVersion() throws Exception {
+			byte[] bytes = persistence.write(Collections.singleton(new ClassType("fqn", "hash", 0)));
+			bytes[3] = 0;
+
+			read(bytes);
+		}
+
+		private List<Type> read(byte[] bytes) throws IOException {
+			return persistence.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+		}
+	}
+
+	public class SaveRestore extends ClassCachePersistenceTest {
+
+		@Test
+		public void saveAndRestore() throws Exception {
+			ClassType classType = new ClassType("fqn", "hash", Modifier.PUBLIC);
+			doReturn(Collections.singleton(classType)).when(lookupService).findAll();
+			when(classCache.getModificationCount()).thenReturn(1L);
+
+			persistence.save(PLATFORM_ID, classCache);
+			boolean restored = persistence.restore(PLATFORM_ID, classCache);
+
+			assertThat(restored, is(true));
+			assertThat(Files.exists(persistence.getFile(PLATFORM_ID)), is(true));
+			verify(classStructureStore).share(PLATFORM_ID, "hash", classType);
+			verify(modificationService).merge(classType);
+		}
+
+		@Test
+		public void notSavedWhenNotModified() throws Exception {
+			doReturn(Collections.singleton(new ClassType("fqn", "hash", 0))).when(lookupService).findAll();
+			when(classCache.getModificationCount()).thenReturn(1L);
+
+			persistence.save(PLATFORM_ID, classCache);
+			Files.delete(persistence.getFile(PLATFORM_ID));
+			persistence.save(PLATFORM_ID, classCache);
+
+			assertThat(Files.exists(persistence.getFile(PLATFORM_ID)), is(false));
+		}
+
+		@Test
+		public void nothingToRestore() throws Exception {
+			boolean restored = persistence.restore(PLATFORM_ID, classCache);
+
+			assertThat(restored, is(false));
+			verifyZeroInteractions(modificationService);
+		}
+
+		@Test
+		public void corruptedFileDeleted() throws Exception {
+			Files.write(persistence.getFile(PLATFORM_ID), new byte[] { 1, 2, 3 });
+
+			boolean restored = persistence.restore(PLATFORM_ID, classCache);
+
+			assertThat(restored, is(false));
+			assertThat(Files.exists(persistence.getFile(PLATFORM_ID)), is(false));
+			verifyZeroInteractions(modificationService);
+		}
+
+		@Test
+		public void notActive() throws Exception {
+			persistence.active = false;
+			doReturn(Collections.singleton(new ClassType("fqn", "hash", 0))).when(lookupService).findAll();
+
+			persistence.save(PLATFORM_ID, classCache);
+			boolean restored = persistence.restore(PLATFORM_ID, classCache);
+
+			assertThat(restored, is(false));
+			assertThat(Files.exists(persistence.getFile(PLATFORM_ID)), is(false));
+			verify(classCache, never()).getLookupService();
+		}
+
+		@Test
+		public void delete() throws Exception {
+			Files.write(persistence.getFile(PLATFORM_ID), new byte[] { 1 });
+
+			persistence.delete(PLATFORM_ID);
+
+			assertThat(Files.exists(persistence.getFile(PLATFORM_ID)), is(false));
+		}
+	}
+
+}
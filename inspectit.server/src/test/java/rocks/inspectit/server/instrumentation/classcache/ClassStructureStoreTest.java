@@ -0,0 +1,125 @@
+package rocks.inspectit.server.instrumentation.classcache;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.mockito.InjectMocks;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.shared.all.instrumentation.classcache.AnnotationType;
+import rocks.inspectit.shared.all.instrumentation.classcache.ClassType;
+import rocks.inspectit.shared.all.instrumentation.classcache.MethodType;
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * Tests the {@link ClassStructureStore} class.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class ClassStructureStoreTest extends TestBase {
+
+	private static final String HASH = "hash";
+
+	@InjectMocks
+	ClassStructureStore store;
+
+	/**
+	 * Creates new class type with one method, all strings are new instances.
+	 */
+	ClassType createClassType() {
+		ClassType classType = new ClassType(new String("fqn"), HASH, 0);
+		MethodType methodType = new MethodType();
+		methodType.setName(new String("method"));
+		methodType.setReturnType(new String("void"));
+		methodType.setParameters(new ArrayList<>(Arrays.asList(new String("int"), new String("java.lang.String"))));
+		classType.addMethod(methodType);
+		return classType;
+	}
+
+	public class Share extends ClassStructureStoreTest {
+
+		@Test
+		public void sharedBetweenAgents() {
+			ClassType first = createClassType();
+			ClassType second = createClassType();
+
+			store.share(1L, HASH, first);
+			store.share(2L, HASH, second);
+
+			MethodType firstMethod = first.getMethods().iterator().next();
+			MethodType secondMethod = second.getMethods().iterator().next();
+			assertThat(secondMethod.getName(), is(sameInstance(firstMethod.getName())));
+			assertThat(secondMethod.getReturnType(), is(sameInstance(firstMethod.getReturnType())));
+			assertThat(secondMethod.getParameters(), is(sameInstance(firstMethod.getParameters())));
+			assertThat(secondMethod.getParameters(), contains("int", "java.lang.String"));
+			assertThat(store.getStructureCount(), is(1));
+			assertThat(store.getReferences(HASH), is(2));
+		}
+
+		@Test
+		public void notSharedForDifferentHash() {
+			ClassType first = createClassType();
+			ClassType second = createClassType();
+
+			store.share(1L, HASH, first);
+			store.share(2L, "otherHash", second);
+
+			MethodType firstMethod = first.getMethods().iterator().next();
+			MethodType secondMethod = second.getMethods().iterator().next();
+			assertThat(secondMethod.getName(), is(not(sameInstance(firstMethod.getName()))));
+			assertThat(store.getStructureCount(), is(2));
+		}
+
+		@Test
+		public void sameAgentCountedOnce() {
+			store.share(1L, HASH, createClassType());
+			store.share(1L, HASH, createClassType());
+
+			assertThat(store.getReferences(HASH), is(1));
+		}
+
+		@Test
+		public void typeWithoutMethodsIgnored() {
+			store.share(1L, HASH, new AnnotationType("fqn", HASH, 0));
+
+			assertThat(store.getStructureCount(), is(0));
+		}
+	}
+
+	public class Release extends ClassStructureStoreTest {
+
+		@Test
+		public void releasedWhenNotUsed() {
+			store.share(1L, HASH, createClassType());
+			store.share(2L, HASH, createClassType());
+
+			store.release(1L);
+
+			assertThat(store.getStructureCount(), is(1));
+			assertThat(store.getReferences(HASH), is(1));
+
+			store.release(2L);
+
+			assertThat(store.getStructureCount(), is(0));
+			assertThat(store.getReferences(HASH), is(0));
+		}
+
+		@Test
+		public void unknownAgent() {
+			store.share(1L, HASH, createClassType());
+
+			store.release(2L);
+
+			assertThat(store.getStructureCount(), is(1));
+		}
+	}
+
+}
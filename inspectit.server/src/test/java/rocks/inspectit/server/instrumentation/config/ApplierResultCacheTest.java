@@ -0,0 +1,150 @@
+package rocks.inspectit.server.instrumentation.config;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.doAnswer;
+
+import java.util.concurrent.Callable;
+
+import org.mockito.InjectMocks;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.slf4j.Logger;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.server.instrumentation.classcache.ClassCache;
+import rocks.inspectit.shared.all.instrumentation.classcache.ClassType;
+import rocks.inspectit.shared.all.instrumentation.classcache.InterfaceType;
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * Tests the {@link ApplierResultCache} class.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class ApplierResultCacheTest extends TestBase {
+
+	private static final String APPLIERS_KEY = "env:1";
+
+	@InjectMocks
+	ApplierResultCache cache;
+
+	@Mock
+	Logger log;
+
+	@Mock
+	ClassCache classCache;
+
+	@BeforeMethod
+	public void setup() throws Exception {
+		doAnswer(new Answer<Object>() {
+			@Override
+			public Object answer(InvocationOnMock invocation) throws Throwable {
+				return ((Callable<?>) invocation.getArguments()[0]).call();
+			}
+		}).when(classCache).executeWithReadLock(Matchers.<Callable<?>> anyObject());
+	}
+
+	/**
+	 * Creates class with the given super-class and interface.
+	 */
+	ClassType createClassType(ClassType superClass, InterfaceType interfaceType) {
+		ClassType classType = new ClassType("fqn", "hash", 0);
+		classType.addSuperClass(superClass);
+		classType.addInterface(interfaceType);
+		return classType;
+	}
+
+	public class GetKey extends ApplierResultCacheTest {
+
+		@Test
+		public void sameHierarchy() {
+			ClassType first = createClassType(new ClassType("super", "superHash", 0), new InterfaceType("interface", "interfaceHash", 0));
+			ClassType second = createClassType(new ClassType("super", "superHash", 0), new InterfaceType("interface", "interfaceHash", 0));
+
+			String key = cache.getKey(APPLIERS_KEY, classCache, first);
+
+			assertThat(key, is(notNullValue()));
+			assertThat(cache.getKey(APPLIERS_KEY, classCache, second), is(key));
+		}
+
+		@Test
+		public void differentAppliers() {
+			ClassType classType = createClassType(new ClassType("super", "superHash", 0), new InterfaceType("interface", "interfaceHash", 0));
+
+			String key = cache.getKey(APPLIERS_KEY, classCache, classType);
+
+			assertThat(cache.getKey("env:2", classCache, classType), is(not(key)));
+		}
+
+		@Test
+		public void differentSuperClass() {
+			ClassType first = createClassType(new ClassType("super", "superHash", 0), new InterfaceType("interface", "interfaceHash", 0));
+			ClassType second = createClassType(new ClassType("super", "otherSuperHash", 0), new InterfaceType("interface", "interfaceHash", 0));
+
+			String key = cache.getKey(APPLIERS_KEY, classCache, first);
+
+			assertThat(cache.getKey(APPLIERS_KEY, classCache, second), is(not(key)));
+		}
+
+		@Test
+		public void superInterfaceKnown() {
+			InterfaceType interfaceType = new InterfaceType("interface", "interfaceHash", 0);
+			ClassType classType = createClassType(new ClassType("super", "superHash", 0), interfaceType);
+
+			String key = cache.getKey(APPLIERS_KEY, classCache, classType);
+			interfaceType.addSuperInterface(new InterfaceType("superInterface", "superInterfaceHash", 0));
+
+			assertThat(cache.getKey(APPLIERS_KEY, classCache, classType), is(not(key)));
+		}
+
+		@Test
+		public void superClassInitialized() {
+			ClassType classType = createClassType(new ClassType("super"), new InterfaceType("interface", "interfaceHash", 0));
+			ClassType initializedSuperClass = createClassType(new ClassType("super", "superHash", 0), new InterfaceType("interface", "interfaceHash", 0));
+
+			String key = cache.getKey(APPLIERS_KEY, classCache, classType);
+
+			assertThat(cache.getKey(APPLIERS_KEY, classCache, initializedSuperClass), is(not(key)));
+		}
+
+		@Test
+		public void noAppliersKey() {
+			ClassType classType = new ClassType("fqn", "hash", 0);
+
+			assertThat(cache.getKey(null, classCache, classType), is(nullValue()));
+		}
+
+		@Test
+		public void notInitialized() {
+			assertThat(cache.getKey(APPLIERS_KEY, classCache, new ClassType("fqn")), is(nullValue()));
+		}
+	}
+
+	public class NotInstrumented extends ApplierResultCacheTest {
+
+		@Test
+		public void marked() {
+			cache.markNotInstrumented("key");
+
+			assertThat(cache.isNotInstrumented("key"), is(true));
+			assertThat(cache.isNotInstrumented("otherKey"), is(false));
+		}
+
+		@Test
+		public void nullKey() {
+			cache.markNotInstrumented(null);
+
+			assertThat(cache.isNotInstrumented(null), is(false));
+		}
+	}
+
+}
@@ -4,6 +4,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -59,6 +60,7 @@ public class ConfigurationHolderTest extends TestBase {
 			when(configurationCreator.environmentToConfiguration(environment, platformId)).thenReturn(configuration);
 			when(configurationResolver.getInstrumentationAppliers(environment)).thenReturn(Collections.singleton(applier));
 			when(configurationResolver.getJmxMonitoringAppliers(environment)).thenReturn(Collections.singleton(jmxApplier));
+			when(configurationResolver.getInstrumentationAppliersKey(environment)).thenReturn("key");
 
 			holder.update(environment, platformId);
 
@@ -69,8 +71,10 @@ public class ConfigurationHolderTest extends TestBase {
 			assertThat(holder.getInstrumentationAppliers(), hasItem(applier));
 			assertThat(holder.getJmxMonitoringAppliers(), hasSize(1));
 			assertThat(holder.getJmxMonitoringAppliers(), hasItem(jmxApplier));
+			assertThat(holder.getInstrumentationAppliersKey(), is("key"));
 
 			verify(configurationCreator).environmentToConfiguration(environment, platformId);
+			verify(configurationResolver).getInstrumentationAppliersKey(environment);
 			verify(configurationResolver).getInstrumentationAppliers(environment);
 			verify(configurationResolver).getJmxMonitoringAppliers(environment);
 			verifyNoMoreInteractions(configurationCreator, configurationResolver);
@@ -91,9 +95,11 @@ public class ConfigurationHolderTest extends TestBase {
 			holder.update(null, platformId);
 
 			assertThat(holder.isInitialized(), is(false));
+			assertThat(holder.getInstrumentationAppliersKey(), is(nullValue()));
 
 			// only one time verifications
 			verify(configurationCreator).environmentToConfiguration(environment, platformId);
+			verify(configurationResolver).getInstrumentationAppliersKey(environment);
 			verify(configurationResolver).getInstrumentationAppliers(environment);
 			verify(configurationResolver).getJmxMonitoringAppliers(environment);
 			verifyNoMoreInteractions(configurationCreator, configurationResolver);
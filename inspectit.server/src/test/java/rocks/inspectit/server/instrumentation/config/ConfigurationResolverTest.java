@@ -6,6 +6,8 @@ import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -382,6 +384,66 @@ public class ConfigurationResolverTest extends TestBase {
 
 	}
 
+	public static class GetInstrumentationAppliersKey extends ConfigurationResolverTest {
+
+		@BeforeMethod
+		public void setupEnvironment() throws BusinessException {
+			when(environment.getId()).thenReturn("env");
+			when(environment.getRevision()).thenReturn(1);
+			when(environment.getProfileIds()).thenReturn(Collections.singleton(PROFILE_ID));
+			when(configurationInterfaceManager.getProfile(PROFILE_ID)).thenReturn(profile);
+			when(profile.getRevision()).thenReturn(1);
+			when(profile.isActive()).thenReturn(true);
+		}
+
+		@Test
+		public void nullEnvironment() {
+			String key = configurationResolver.getInstrumentationAppliersKey(null);
+
+			assertThat(key, is(nullValue()));
+			verifyZeroInteractions(configurationInterfaceManager);
+		}
+
+		@Test
+		public void sameConfiguration() {
+			String key = configurationResolver.getInstrumentationAppliersKey(environment);
+
+			assertThat(configurationResolver.getInstrumentationAppliersKey(environment), is(key));
+		}
+
+		@Test
+		public void environmentRevisionChanged() {
+			String key = configurationResolver.getInstrumentationAppliersKey(environment);
+			when(environment.getRevision()).thenReturn(2);
+
+			assertThat(configurationResolver.getInstrumentationAppliersKey(environment), is(not(key)));
+		}
+
+		@Test
+		public void profileRevisionChanged() {
+			String key = configurationResolver.getInstrumentationAppliersKey(environment);
+			when(profile.getRevision()).thenReturn(2);
+
+			assertThat(configurationResolver.getInstrumentationAppliersKey(environment), is(not(key)));
+		}
+
+		@Test
+		public void profileDeactivated() {
+			String key = configurationResolver.getInstrumentationAppliersKey(environment);
+			when(profile.isActive()).thenReturn(false);
+
+			assertThat(configurationResolver.getInstrumentationAppliersKey(environment), is(not(key)));
+		}
+
+		@Test
+		public void profileDoesNotExists() throws BusinessException {
+			String key = configurationResolver.getInstrumentationAppliersKey(environment);
+			when(configurationInterfaceManager.getProfile(PROFILE_ID)).thenThrow(new BusinessException(null));
+
+			assertThat(configurationResolver.getInstrumentationAppliersKey(environment), is(not(key)));
+		}
+	}
+
 	public static class GetInstrumentationApplier extends ConfigurationResolverTest {
 
 		@Test
@@ -0,0 +1,231 @@
+package rocks.inspectit.server.processor;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.slf4j.Logger;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.server.dao.DefaultDataDao;
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * Tests the {@link CmrDataProcessingPipeline}.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class CmrDataProcessingPipelineTest extends TestBase {
+
+	CmrDataProcessingPipeline pipeline;
+
+	CmrDataProcessingStage firstStage;
+
+	CmrDataProcessingStage secondStage;
+
+	@Mock
+	Logger log;
+
+	@Mock
+	DefaultDataDao defaultDataDao;
+
+	@Mock
+	AbstractCmrDataProcessor firstProcessor;
+
+	@Mock
+	AbstractCmrDataProcessor secondProcessor;
+
+	@BeforeMethod
+	public void init() {
+		Map<String, AbstractCmrDataProcessor> stageStarts = new LinkedHashMap<>();
+		stageStarts.put("first", firstProcessor);
+		stageStarts.put("second", secondProcessor);
+		pipeline = new CmrDataProcessingPipeline(Arrays.asList(firstProcessor, secondProcessor), stageStarts);
+		firstStage = pipeline.getStages().get(0);
+		secondStage = pipeline.getStages().get(1);
+		pipeline.log = log;
+		pipeline.defaultDataDao = defaultDataDao;
+		pipeline.active = true;
+		pipeline.stageThreads = 1;
+		pipeline.queueCapacity = 10;
+	}
+
+	@AfterMethod
+	public void stop() {
+		pipeline.preDestroy();
+	}
+
+	public static class Constructor extends CmrDataProcessingPipelineTest {
+
+		@Test(expectedExceptions = IllegalArgumentException.class)
+		public void noStages() {
+			new CmrDataProcessingPipeline(Arrays.asList(firstProcessor, secondProcessor), Collections.<String, AbstractCmrDataProcessor> emptyMap());
+		}
+
+		@Test
+		public void stagesSplit() {
+			assertThat(pipeline.getStages(), hasSize(2));
+			assertThat(firstStage.getName(), is("first"));
+			assertThat(firstStage.getProcessors(), contains(firstProcessor));
+			assertThat(secondStage.getName(), is("second"));
+			assertThat(secondStage.getProcessors(), contains(secondProcessor));
+		}
+
+		@Test
+		public void oneStage() {
+			CmrDataProcessingPipeline pipeline = new CmrDataProcessingPipeline(Arrays.asList(firstProcessor, secondProcessor), Collections.singletonMap("all", firstProcessor));
+
+			assertThat(pipeline.getStages(), hasSize(1));
+			assertThat(pipeline.getStages().get(0).getProcessors(), contains(firstProcessor, secondProcessor));
+		}
+
+		@Test(expectedExceptions = IllegalArgumentException.class)
+		public void firstStageNotStartingWithFirstProcessor() {
+			new CmrDataProcessingPipeline(Arrays.asList(firstProcessor, secondProcessor), Collections.singletonMap("all", secondProcessor));
+		}
+
+		@Test(expectedExceptions = IllegalArgumentException.class)
+		public void stagesNotInProcessorOrder() {
+			Map<String, AbstractCmrDataProcessor> stageStarts = new LinkedHashMap<>();
+			stageStarts.put("first", firstProcessor);
+			stageStarts.put("second", firstProcessor);
+
+			new CmrDataProcessingPipeline(Arrays.asList(firstProcessor, secondProcessor), stageStarts);
+		}
+
+	}
+
+	public static class Submit extends CmrDataProcessingPipelineTest {
+
+		@Test
+		public void allStages() throws InterruptedException {
+			pipeline.postConstruct();
+			List<DefaultData> dataList = Collections.<DefaultData> singletonList(new TimerData());
+
+			pipeline.submit(dataList);
+
+			verify(defaultDataDao, timeout(5000)).saveAll(dataList, firstStage.getProcessors());
+			verify(defaultDataDao, timeout(5000)).saveAll(dataList, secondStage.getProcessors());
+			// stopping waits for the workers to finish, so statistics are updated
+			pipeline.preDestroy();
+			assertThat(firstStage.getProcessedBatches(), is(1L));
+			assertThat(secondStage.getProcessedBatches(), is(1L));
+			assertThat(firstStage.getFailedBatches(), is(0L));
+			assertThat(firstStage.getQueueDepth(), is(0));
+		}
+
+		@Test
+		public void failedStage() throws InterruptedException {
+			doThrow(RuntimeException.class).when(defaultDataDao).saveAll(anyListOf(DefaultData.class), eq(firstStage.getProcessors()));
+			pipeline.postConstruct();
+			List<DefaultData> dataList = Collections.<DefaultData> singletonList(new TimerData());
+
+			pipeline.submit(dataList);
+
+			verify(defaultDataDao, timeout(5000)).saveAll(dataList, firstStage.getProcessors());
+			pipeline.preDestroy();
+			assertThat(firstStage.getFailedBatches(), is(1L));
+			assertThat(secondStage.getProcessedBatches(), is(0L));
+			verify(defaultDataDao, never()).saveAll(dataList, secondStage.getProcessors());
+		}
+
+		@Test
+		public void stopDrainsQueues() throws Exception {
+			final CountDownLatch latch = new CountDownLatch(1);
+			doAnswer(new Answer<Void>() {
+				@Override
+				public Void answer(InvocationOnMock invocation) throws Throwable {
+					latch.await();
+					return null;
+				}
+			}).when(defaultDataDao).saveAll(anyListOf(DefaultData.class), eq(firstStage.getProcessors()));
+			pipeline.postConstruct();
+			List<DefaultData> firstList = Collections.<DefaultData> singletonList(new TimerData());
+			List<DefaultData> secondList = Collections.<DefaultData> singletonList(new TimerData());
+			pipeline.submit(firstList);
+			pipeline.submit(secondList);
+
+			latch.countDown();
+			pipeline.preDestroy();
+
+			verify(defaultDataDao).saveAll(firstList, secondStage.getProcessors());
+			verify(defaultDataDao).saveAll(secondList, secondStage.getProcessors());
+			assertThat(secondStage.getProcessedBatches(), is(2L));
+			assertThat(firstStage.getQueueDepth(), is(0));
+			assertThat(secondStage.getQueueDepth(), is(0));
+		}
+
+		@Test
+		public void platformOrderKept() throws Exception {
+			pipeline.stageThreads = 4;
+			pipeline.postConstruct();
+			List<List<DefaultData>> dataLists = new ArrayList<>();
+			for (int i = 0; i < 20; i++) {
+				TimerData timerData = new TimerData();
+				timerData.setPlatformIdent(1L);
+				dataLists.add(Collections.<DefaultData> singletonList(timerData));
+			}
+
+			for (List<DefaultData> dataList : dataLists) {
+				pipeline.submit(dataList);
+			}
+			pipeline.preDestroy();
+
+			InOrder inOrder = inOrder(defaultDataDao);
+			for (List<DefaultData> dataList : dataLists) {
+				inOrder.verify(defaultDataDao).saveAll(dataList, secondStage.getProcessors());
+			}
+		}
+
+		@Test
+		public void stopped() throws InterruptedException {
+			pipeline.postConstruct();
+			pipeline.preDestroy();
+
+			pipeline.submit(Collections.<DefaultData> singletonList(new TimerData()));
+
+			verifyZeroInteractions(defaultDataDao);
+		}
+
+		@Test
+		public void notActive() {
+			pipeline.active = false;
+
+			pipeline.postConstruct();
+
+			verifyZeroInteractions(defaultDataDao);
+			verify(log, never()).info(any(String.class));
+		}
+
+	}
+
+}
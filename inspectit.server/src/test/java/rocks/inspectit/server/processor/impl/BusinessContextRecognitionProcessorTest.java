@@ -36,6 +36,7 @@ import rocks.inspectit.shared.all.communication.data.cmr.ApplicationData;
 import rocks.inspectit.shared.all.communication.data.cmr.BusinessTransactionData;
 import rocks.inspectit.shared.all.exception.BusinessException;
 import rocks.inspectit.shared.all.testbase.TestBase;
+import rocks.inspectit.shared.cs.ci.business.expression.impl.OrExpression;
 import rocks.inspectit.shared.cs.ci.business.expression.impl.StringMatchingExpression;
 import rocks.inspectit.shared.cs.ci.business.impl.ApplicationDefinition;
 import rocks.inspectit.shared.cs.ci.business.impl.BusinessTransactionDefinition;
@@ -256,6 +257,64 @@ public class BusinessContextRecognitionProcessorTest extends TestBase {
 			assertThat(root.getBusinessTransactionId(), equalTo(businessTx_unknown.getId()));
 		}
 
+		@Test
+		public void matchRegex() {
+			StringMatchingExpression stringMatchingExpression = new StringMatchingExpression(PatternMatchingType.REGEX, "node/r[o]+t/");
+			stringMatchingExpression.setStringValueSource(stringValueSource);
+
+			StringMatchingExpression stringMatchingExpression_2 = new StringMatchingExpression(PatternMatchingType.REGEX, "root");
+			stringMatchingExpression_2.setStringValueSource(stringValueSource);
+
+			applicationDefinition.setMatchingRuleExpression(stringMatchingExpression);
+			applicationDefinition_empty.setMatchingRuleExpression(stringMatchingExpression_2);
+			businessTxDefinition_1.setMatchingRuleExpression(stringMatchingExpression_2);
+			businessTxDefinition_2.setMatchingRuleExpression(stringMatchingExpression);
+
+			processor.process(root, entityManager);
+
+			assertThat(root.getApplicationId(), equalTo(application.getId()));
+			assertThat(root.getBusinessTransactionId(), equalTo(businessTx_2.getId()));
+		}
+
+		@Test
+		public void matchEqualsInOr() {
+			StringMatchingExpression equals_1 = new StringMatchingExpression(PatternMatchingType.EQUALS, "node/other/");
+			equals_1.setStringValueSource(stringValueSource);
+			StringMatchingExpression equals_2 = new StringMatchingExpression(PatternMatchingType.EQUALS, "node/root/");
+			equals_2.setStringValueSource(stringValueSource);
+			StringMatchingExpression equals_3 = new StringMatchingExpression(PatternMatchingType.EQUALS, "node/");
+			equals_3.setStringValueSource(stringValueSource);
+
+			applicationDefinition.setMatchingRuleExpression(new OrExpression(equals_1, equals_3));
+			applicationDefinition_empty.setMatchingRuleExpression(new OrExpression(equals_1, equals_2));
+
+			processor.process(root, entityManager);
+
+			assertThat(root.getApplicationId(), equalTo(application_empty.getId()));
+			assertThat(root.getBusinessTransactionId(), equalTo(businessTx_unknown.getId()));
+		}
+
+		@Test
+		public void definitionsCompiledUntilUpdate() {
+			StringMatchingExpression stringMatchingExpression = new StringMatchingExpression(PatternMatchingType.CONTAINS, "root");
+			stringMatchingExpression.setStringValueSource(stringValueSource);
+
+			StringMatchingExpression stringMatchingExpression_2 = new StringMatchingExpression(PatternMatchingType.CONTAINS, "nothing");
+			stringMatchingExpression_2.setStringValueSource(stringValueSource);
+
+			applicationDefinition.setMatchingRuleExpression(stringMatchingExpression);
+			applicationDefinition_empty.setMatchingRuleExpression(stringMatchingExpression_2);
+			businessTxDefinition_1.setMatchingRuleExpression(stringMatchingExpression_2);
+			businessTxDefinition_2.setMatchingRuleExpression(stringMatchingExpression_2);
+			processor.process(root, entityManager);
+			applicationDefinition.setMatchingRuleExpression(stringMatchingExpression_2);
+
+			processor.process(root, entityManager);
+
+			assertThat(root.getApplicationId(), equalTo(application.getId()));
+			assertThat(root.getBusinessTransactionId(), equalTo(businessTx_unknown.getId()));
+		}
+
 		@Test
 		public void invalidInputData() {
 			TimerData invalidInput = new TimerData();
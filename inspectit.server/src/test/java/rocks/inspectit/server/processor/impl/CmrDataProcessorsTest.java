@@ -15,7 +15,9 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
@@ -136,6 +138,35 @@ public class CmrDataProcessorsTest {
 		assertThat(captor.getValue().getObject(), is(equalTo(((Object) invocationAwareData))));
 	}
 
+	/**
+	 * Tests that the {@link BufferInserterCmrProcessor} puts all data of a collection to the buffer
+	 * in one batch.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	@Test
+	public void bufferInserterBatch() {
+		BufferInserterCmrProcessor processor = new BufferInserterCmrProcessor();
+		processor.buffer = buffer;
+
+		// nothing to insert
+		processor.process(Collections.<DefaultData> singletonList(new CpuInformationData()), entityManager);
+		verifyZeroInteractions(buffer, entityManager);
+
+		TimerData timerData = new TimerData();
+		timerData.setCount(1L);
+		SqlStatementData sqlStatementData = new SqlStatementData();
+		sqlStatementData.setCount(1L);
+		processor.process(Arrays.<DefaultData> asList(timerData, new CpuInformationData(), sqlStatementData), entityManager);
+		ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+		verify(buffer, times(1)).put(captor.capture());
+		verifyNoMoreInteractions(buffer);
+		verifyZeroInteractions(entityManager);
+		List<IBufferElement> elements = captor.getValue();
+		assertThat(elements, hasSize(2));
+		assertThat(elements.get(0).getObject(), is(equalTo((Object) timerData)));
+		assertThat(elements.get(1).getObject(), is(equalTo((Object) sqlStatementData)));
+	}
+
 	/**
 	 * Tests the {@link CacheIdGeneratorCmrProcessor}.
 	 */
@@ -17,6 +17,7 @@ import org.testng.annotations.Test;
 
 import rocks.inspectit.server.instrumentation.NextGenInstrumentationManager;
 import rocks.inspectit.server.messaging.AgentMessageProvider;
+import rocks.inspectit.server.util.SqlStatementDictionary;
 import rocks.inspectit.shared.all.instrumentation.classcache.Type;
 import rocks.inspectit.shared.all.instrumentation.config.impl.AgentConfig;
 import rocks.inspectit.shared.all.instrumentation.config.impl.JmxAttributeDescriptor;
@@ -39,6 +40,9 @@ public class AgentServiceTest extends TestBase {
 	@Mock
 	AgentMessageProvider messageProvider;
 
+	@Mock
+	SqlStatementDictionary sqlStatementDictionary;
+
 	/**
 	 * Tests the {@link AgentService#analyze(long, String, Type)} method.
 	 */
@@ -107,6 +111,24 @@ public class AgentServiceTest extends TestBase {
 		}
 	}
 
+	/**
+	 * Tests the {@link AgentService#registerSqlStatements(long, Map)} method.
+	 */
+	public static class RegisterSqlStatements extends AgentServiceTest {
+
+		@Test
+		@SuppressWarnings("unchecked")
+		public void successful() throws Exception {
+			Map<Integer, String> sqlStatements = mock(Map.class);
+
+			agentService.registerSqlStatements(10L, sqlStatements);
+
+			verify(sqlStatementDictionary).register(10L, sqlStatements);
+			verifyNoMoreInteractions(sqlStatementDictionary);
+			verifyZeroInteractions(instrumentationManager, messageProvider, sqlStatements);
+		}
+	}
+
 	/**
 	 * Tests the {@link AgentService#register(List, String, String)} method.
 	 */
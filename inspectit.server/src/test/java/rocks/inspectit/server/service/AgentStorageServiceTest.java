@@ -1,6 +1,8 @@
 package rocks.inspectit.server.service;
 
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -10,14 +12,18 @@ import static org.mockito.Mockito.when;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.slf4j.Logger;
 import org.testng.annotations.Test;
 
 import rocks.inspectit.server.dao.DefaultDataDao;
+import rocks.inspectit.server.processor.CmrDataProcessingPipeline;
 import rocks.inspectit.server.util.AgentStatusDataProvider;
+import rocks.inspectit.server.util.SqlStatementDictionary;
 import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.SqlStatementData;
 import rocks.inspectit.shared.all.communication.data.TimerData;
 import rocks.inspectit.shared.all.testbase.TestBase;
 
@@ -45,6 +51,12 @@ public class AgentStorageServiceTest extends TestBase {
 	@Mock
 	DefaultDataDao defaultDataDao;
 
+	@Mock
+	CmrDataProcessingPipeline dataProcessingPipeline;
+
+	@Mock
+	SqlStatementDictionary sqlStatementDictionary;
+
 	public class AddDataObjects extends AgentStorageServiceTest {
 
 		/**
@@ -64,6 +76,56 @@ public class AgentStorageServiceTest extends TestBase {
 			verifyNoMoreInteractions(defaultDataDao);
 		}
 
+		@Test
+		public void sqlStatementsResolvedBeforeProcessing() throws InterruptedException {
+			List<DefaultData> dataList = new ArrayList<>();
+			SqlStatementData sqlStatementData = new SqlStatementData();
+			sqlStatementData.setPlatformIdent(1L);
+			dataList.add(sqlStatementData);
+			when(dataProcessingPipeline.isActive()).thenReturn(true);
+
+			agentStorageService.addDataObjects(dataList);
+
+			InOrder inOrder = inOrder(sqlStatementDictionary, dataProcessingPipeline);
+			inOrder.verify(sqlStatementDictionary).resolve(dataList);
+			inOrder.verify(dataProcessingPipeline).submit(dataList);
+		}
+
+		@Test
+		public void submitToPipeline() throws InterruptedException {
+			List<DefaultData> dataList = new ArrayList<>();
+			TimerData timerData = new TimerData();
+			timerData.setPlatformIdent(1L);
+			dataList.add(timerData);
+			when(dataProcessingPipeline.isActive()).thenReturn(true);
+
+			agentStorageService.addDataObjects(dataList);
+
+			verify(agentStatusDataProvider).registerDataSent(1L);
+			verify(dataProcessingPipeline).submit(dataList);
+			verifyZeroInteractions(defaultDataDao);
+		}
+
+		@Test
+		public void submitInterrupted() throws InterruptedException {
+			List<DefaultData> dataList = new ArrayList<>();
+			TimerData timerData = new TimerData();
+			timerData.setPlatformIdent(1L);
+			dataList.add(timerData);
+			when(dataProcessingPipeline.isActive()).thenReturn(true);
+			doThrow(InterruptedException.class).when(dataProcessingPipeline).submit(dataList);
+
+			try {
+				agentStorageService.addDataObjects(dataList);
+			} finally {
+				// clear the interrupted flag
+				Thread.interrupted();
+			}
+
+			verify(log).warn(anyString());
+			verifyZeroInteractions(defaultDataDao);
+		}
+
 		/**
 		 * Provides that no exception occurs when data is null.
 		 */
@@ -71,7 +133,7 @@ public class AgentStorageServiceTest extends TestBase {
 		public void nullData() {
 			agentStorageService.addDataObjects(null);
 
-			verifyZeroInteractions(agentStatusDataProvider, defaultDataDao);
+			verifyZeroInteractions(agentStatusDataProvider, defaultDataDao, dataProcessingPipeline, sqlStatementDictionary);
 		}
 
 		@Test
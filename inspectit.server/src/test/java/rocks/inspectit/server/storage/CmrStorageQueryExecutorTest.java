@@ -0,0 +1,296 @@
+package rocks.inspectit.server.storage;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.slf4j.Logger;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.esotericsoftware.kryo.io.Input;
+
+import rocks.inspectit.server.storage.CmrStorageQueryExecutor.ResultChunkHandler;
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.exception.BusinessException;
+import rocks.inspectit.shared.all.serializer.ISerializer;
+import rocks.inspectit.shared.all.testbase.TestBase;
+import rocks.inspectit.shared.cs.communication.data.cmr.StorageQueryRequest;
+import rocks.inspectit.shared.cs.indexing.aggregation.IAggregatedData;
+import rocks.inspectit.shared.cs.indexing.aggregation.IAggregator;
+import rocks.inspectit.shared.cs.indexing.storage.IStorageDescriptor;
+import rocks.inspectit.shared.cs.indexing.storage.IStorageTreeComponent;
+import rocks.inspectit.shared.cs.indexing.storage.impl.StorageDescriptor;
+import rocks.inspectit.shared.cs.indexing.storage.impl.StorageIndexQuery;
+import rocks.inspectit.shared.cs.storage.StorageData;
+import rocks.inspectit.shared.cs.storage.nio.stream.ExtendedByteBufferInputStream;
+import rocks.inspectit.shared.cs.storage.nio.stream.InputStreamProvider;
+
+/**
+ * Test for the {@link CmrStorageQueryExecutor}.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings({ "PMD", "unchecked" })
+public class CmrStorageQueryExecutorTest extends TestBase {
+
+	private static final String STORAGE_ID = "storageId";
+
+	/**
+	 * Size of descriptors so that each one is read in separate batch.
+	 */
+	private static final long BIG_SIZE = 1024 * 1024 * 11;
+
+	@InjectMocks
+	CmrStorageQueryExecutor executor;
+
+	@Mock
+	Logger log;
+
+	@Mock
+	CmrStorageManager storageManager;
+
+	@Mock
+	InputStreamProvider inputStreamProvider;
+
+	@Mock
+	StorageData storageData;
+
+	@Mock
+	IStorageTreeComponent<DefaultData> indexingTree;
+
+	@Mock
+	StorageIndexQuery query;
+
+	@Mock
+	ISerializer serializer;
+
+	@Mock
+	ResultChunkHandler resultChunkHandler;
+
+	@BeforeMethod
+	public void init() throws Exception {
+		when(storageData.getId()).thenReturn(STORAGE_ID);
+		when(storageManager.getStorageData(STORAGE_ID)).thenReturn(storageData);
+		when(storageManager.isStorageClosed(storageData)).thenReturn(true);
+		when(storageManager.getIndexingTree(storageData)).thenReturn(indexingTree);
+	}
+
+	/**
+	 * Creates the stream mock that has one byte for each element.
+	 */
+	ExtendedByteBufferInputStream createStream(int elements) throws IOException {
+		final ByteArrayInputStream bytes = new ByteArrayInputStream(new byte[elements]);
+		ExtendedByteBufferInputStream stream = mock(ExtendedByteBufferInputStream.class);
+		when(stream.read(any(byte[].class), anyInt(), anyInt())).thenAnswer(new Answer<Integer>() {
+			@Override
+			public Integer answer(InvocationOnMock invocation) throws Throwable {
+				Object[] args = invocation.getArguments();
+				return bytes.read((byte[]) args[0], (Integer) args[1], (Integer) args[2]);
+			}
+		});
+		when(stream.available()).thenAnswer(new Answer<Integer>() {
+			@Override
+			public Integer answer(InvocationOnMock invocation) throws Throwable {
+				return bytes.available();
+			}
+		});
+		return stream;
+	}
+
+	/**
+	 * Makes the serializer return given elements, one for each byte read.
+	 */
+	void deserializeTo(DefaultData... elements) throws Exception {
+		final List<DefaultData> list = new ArrayList<>(Arrays.asList(elements));
+		when(serializer.deserialize(any(Input.class))).thenAnswer(new Answer<Object>() {
+			@Override
+			public Object answer(InvocationOnMock invocation) throws Throwable {
+				((Input) invocation.getArguments()[0]).readByte();
+				return list.remove(0);
+			}
+		});
+	}
+
+	DefaultData createElement(boolean complied) {
+		DefaultData element = mock(DefaultData.class);
+		when(element.isQueryComplied(query)).thenReturn(complied);
+		return element;
+	}
+
+	public class ExecuteQuery extends CmrStorageQueryExecutorTest {
+
+		@Test(expectedExceptions = BusinessException.class)
+		public void storageDoesNotExist() throws Exception {
+			when(storageManager.getStorageData(STORAGE_ID)).thenReturn(null);
+
+			executor.executeQuery(new StorageQueryRequest(STORAGE_ID, query, null, -1), serializer, resultChunkHandler);
+		}
+
+		@Test(expectedExceptions = BusinessException.class)
+		public void storageNotClosed() throws Exception {
+			when(storageManager.isStorageClosed(storageData)).thenReturn(false);
+
+			executor.executeQuery(new StorageQueryRequest(STORAGE_ID, query, null, -1), serializer, resultChunkHandler);
+		}
+
+		@Test
+		public void noDescriptors() throws Exception {
+			when(indexingTree.query(query)).thenReturn(new ArrayList<IStorageDescriptor>());
+
+			executor.executeQuery(new StorageQueryRequest(STORAGE_ID, query, null, -1), serializer, resultChunkHandler);
+
+			verifyZeroInteractions(inputStreamProvider, resultChunkHandler);
+		}
+
+		@Test
+		public void indexingTreeCached() throws Exception {
+			when(indexingTree.query(query)).thenReturn(new ArrayList<IStorageDescriptor>());
+
+			executor.executeQuery(new StorageQueryRequest(STORAGE_ID, query, null, -1), serializer, resultChunkHandler);
+			executor.executeQuery(new StorageQueryRequest(STORAGE_ID, query, null, -1), serializer, resultChunkHandler);
+
+			verify(storageManager, times(1)).getIndexingTree(storageData);
+		}
+
+		@Test
+		public void restrictionsChecked() throws Exception {
+			DefaultData passed = createElement(true);
+			DefaultData notPassed = createElement(false);
+			deserializeTo(passed, notPassed);
+			ExtendedByteBufferInputStream stream = createStream(2);
+			when(indexingTree.query(query)).thenReturn(new ArrayList<IStorageDescriptor>(Arrays.asList(new StorageDescriptor(1, 0, 10), new StorageDescriptor(1, 10, 10))));
+			when(inputStreamProvider.getExtendedByteBufferInputStream(eq(storageData), anyListOf(IStorageDescriptor.class))).thenReturn(stream);
+
+			executor.executeQuery(new StorageQueryRequest(STORAGE_ID, query, null, -1), serializer, resultChunkHandler);
+
+			ArgumentCaptor<List> descriptorsCaptor = ArgumentCaptor.forClass(List.class);
+			verify(inputStreamProvider).getExtendedByteBufferInputStream(eq(storageData), descriptorsCaptor.capture());
+			// neighboring descriptors are joined
+			assertThat((List<IStorageDescriptor>) descriptorsCaptor.getValue(), hasSize(1));
+			ArgumentCaptor<List> chunkCaptor = ArgumentCaptor.forClass(List.class);
+			verify(resultChunkHandler).handleChunk(chunkCaptor.capture());
+			assertThat((List<DefaultData>) chunkCaptor.getValue(), contains(passed));
+			verify(stream).close();
+		}
+
+		@Test
+		public void limitStopsReading() throws Exception {
+			DefaultData first = createElement(true);
+			DefaultData second = createElement(true);
+			deserializeTo(first, second);
+			ExtendedByteBufferInputStream firstStream = createStream(2);
+			ExtendedByteBufferInputStream secondStream = createStream(1);
+			when(indexingTree.query(query)).thenReturn(new ArrayList<IStorageDescriptor>(Arrays.asList(new StorageDescriptor(2, 0, BIG_SIZE), new StorageDescriptor(1, 0, BIG_SIZE))));
+			when(inputStreamProvider.getExtendedByteBufferInputStream(eq(storageData), anyListOf(IStorageDescriptor.class))).thenReturn(firstStream, secondStream);
+
+			executor.executeQuery(new StorageQueryRequest(STORAGE_ID, query, null, 1), serializer, resultChunkHandler);
+
+			ArgumentCaptor<List> chunkCaptor = ArgumentCaptor.forClass(List.class);
+			verify(resultChunkHandler, times(1)).handleChunk(chunkCaptor.capture());
+			assertThat((List<DefaultData>) chunkCaptor.getValue(), contains(first));
+			verify(firstStream).close();
+			verify(secondStream).close();
+			verify(secondStream, never()).read(any(byte[].class), anyInt(), anyInt());
+		}
+
+		@Test
+		public void contiguousDescriptorsOverBatchSize() throws Exception {
+			long size = (CmrStorageQueryExecutor.MAX_BATCH_SIZE / 2) + 1;
+			when(indexingTree.query(query)).thenReturn(new ArrayList<IStorageDescriptor>(Arrays.asList(new StorageDescriptor(1, 0, size), new StorageDescriptor(1, size, size), new StorageDescriptor(1, 2 * size, size))));
+			ExtendedByteBufferInputStream firstStream = createStream(0);
+			ExtendedByteBufferInputStream secondStream = createStream(0);
+			ExtendedByteBufferInputStream thirdStream = createStream(0);
+			when(inputStreamProvider.getExtendedByteBufferInputStream(eq(storageData), anyListOf(IStorageDescriptor.class))).thenReturn(firstStream, secondStream, thirdStream);
+
+			executor.executeQuery(new StorageQueryRequest(STORAGE_ID, query, null, -1), serializer, resultChunkHandler);
+
+			ArgumentCaptor<List> descriptorsCaptor = ArgumentCaptor.forClass(List.class);
+			verify(inputStreamProvider, times(3)).getExtendedByteBufferInputStream(eq(storageData), descriptorsCaptor.capture());
+			for (List<IStorageDescriptor> batch : (List<List<IStorageDescriptor>>) (List<?>) descriptorsCaptor.getAllValues()) {
+				assertThat(batch, hasSize(1));
+				assertThat(batch.get(0).getSize(), is(size));
+			}
+			verify(firstStream).close();
+			verify(secondStream).close();
+			verify(thirdStream).close();
+		}
+
+		@Test
+		public void resultsPassedInChunks() throws Exception {
+			int count = CmrStorageQueryExecutor.MAX_CHUNK_SIZE + 1;
+			DefaultData[] elements = new DefaultData[count];
+			for (int i = 0; i < count; i++) {
+				elements[i] = createElement(true);
+			}
+			deserializeTo(elements);
+			ExtendedByteBufferInputStream stream = createStream(count);
+			when(indexingTree.query(query)).thenReturn(new ArrayList<IStorageDescriptor>(Arrays.asList(new StorageDescriptor(1, 0, 10))));
+			when(inputStreamProvider.getExtendedByteBufferInputStream(eq(storageData), anyListOf(IStorageDescriptor.class))).thenReturn(stream);
+
+			executor.executeQuery(new StorageQueryRequest(STORAGE_ID, query, null, -1), serializer, resultChunkHandler);
+
+			ArgumentCaptor<List> chunkCaptor = ArgumentCaptor.forClass(List.class);
+			verify(resultChunkHandler, times(2)).handleChunk(chunkCaptor.capture());
+			assertThat((List<DefaultData>) chunkCaptor.getAllValues().get(0), hasSize(CmrStorageQueryExecutor.MAX_CHUNK_SIZE));
+			assertThat((List<DefaultData>) chunkCaptor.getAllValues().get(1), contains(elements[count - 1]));
+			verify(stream).close();
+		}
+
+		@Test
+		public void zeroLimit() throws Exception {
+			executor.executeQuery(new StorageQueryRequest(STORAGE_ID, query, null, 0), serializer, resultChunkHandler);
+
+			verifyZeroInteractions(inputStreamProvider, resultChunkHandler);
+		}
+
+		@Test
+		public void aggregation() throws Exception {
+			DefaultData first = createElement(true);
+			DefaultData second = createElement(true);
+			DefaultData aggregated = mock(DefaultData.class);
+			deserializeTo(first, second);
+			IAggregator<DefaultData> aggregator = mock(IAggregator.class);
+			IAggregatedData<DefaultData> aggregatedData = mock(IAggregatedData.class);
+			when(aggregator.getAggregationKey(any(DefaultData.class))).thenReturn(1L);
+			when(aggregator.getClone(any(DefaultData.class))).thenReturn(aggregatedData);
+			when(aggregatedData.getData()).thenReturn(aggregated);
+			ExtendedByteBufferInputStream firstStream = createStream(1);
+			ExtendedByteBufferInputStream secondStream = createStream(1);
+			when(indexingTree.query(query)).thenReturn(new ArrayList<IStorageDescriptor>(Arrays.asList(new StorageDescriptor(1, 0, BIG_SIZE), new StorageDescriptor(2, 0, BIG_SIZE))));
+			when(inputStreamProvider.getExtendedByteBufferInputStream(eq(storageData), anyListOf(IStorageDescriptor.class))).thenReturn(firstStream, secondStream);
+
+			executor.executeQuery(new StorageQueryRequest(STORAGE_ID, query, aggregator, -1), serializer, resultChunkHandler);
+
+			verify(aggregator).aggregate(aggregatedData, first);
+			verify(aggregator).aggregate(aggregatedData, second);
+			verify(resultChunkHandler, times(1)).handleChunk(Collections.singletonList(aggregated));
+			verify(firstStream).close();
+			verify(secondStream).close();
+		}
+	}
+}
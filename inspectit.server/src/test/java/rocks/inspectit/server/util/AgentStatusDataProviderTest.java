@@ -11,6 +11,7 @@ import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Mockito.doAnswer;
 
+import java.util.Collections;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
@@ -206,6 +207,44 @@ public class AgentStatusDataProviderTest extends TestBase {
 		}
 	}
 
+	public class RegisterSamplingRates extends AgentStatusDataProviderTest {
+
+		@Test
+		public void neverConnected() {
+			long platformIdent = 10L;
+
+			agentStatusDataProvider.registerSamplingRates(platformIdent, Collections.singletonMap(1L, 0.5d));
+
+			AgentStatusData agentStatusData = agentStatusDataProvider.getAgentStatusDataMap().get(platformIdent);
+			assertThat(agentStatusData, is(nullValue()));
+		}
+
+		@Test
+		public void connected() {
+			long platformIdent = 10L;
+			agentStatusDataProvider.registerConnected(platformIdent);
+
+			agentStatusDataProvider.registerSamplingRates(platformIdent, Collections.singletonMap(1L, 0.5d));
+
+			AgentStatusData agentStatusData = agentStatusDataProvider.getAgentStatusDataMap().get(platformIdent);
+			assertThat(agentStatusData.getSamplingRate(1L), is(0.5d));
+			assertThat(agentStatusData.getSamplingRate(2L), is(1.0d));
+		}
+
+		@Test
+		public void samplingStopped() {
+			long platformIdent = 10L;
+			agentStatusDataProvider.registerConnected(platformIdent);
+			agentStatusDataProvider.registerSamplingRates(platformIdent, Collections.singletonMap(1L, 0.5d));
+
+			agentStatusDataProvider.registerSamplingRates(platformIdent, Collections.<Long, Double> emptyMap());
+
+			AgentStatusData agentStatusData = agentStatusDataProvider.getAgentStatusDataMap().get(platformIdent);
+			assertThat(agentStatusData.getSamplingRates(), is(nullValue()));
+			assertThat(agentStatusData.getSamplingRate(1L), is(1.0d));
+		}
+	}
+
 	// tests runnable in fact
 	public class AfterPropertiesSet extends AgentStatusDataProviderTest {
 
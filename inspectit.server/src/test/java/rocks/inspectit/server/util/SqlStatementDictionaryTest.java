@@ -0,0 +1,138 @@
+package rocks.inspectit.server.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.slf4j.Logger;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.server.event.AgentDeletedEvent;
+import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+import rocks.inspectit.shared.all.communication.data.SqlStatementData;
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * Tests the {@link SqlStatementDictionary} class.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class SqlStatementDictionaryTest extends TestBase {
+
+	private static final long PLATFORM_ID = 1L;
+
+	private static final String SQL = "SELECT * FROM table";
+
+	@InjectMocks
+	SqlStatementDictionary dictionary;
+
+	@Mock
+	Logger log;
+
+	/**
+	 * Creates SQL data as sent by the agent.
+	 */
+	SqlStatementData createSqlData(String sql, int sqlId) {
+		SqlStatementData sqlStatementData = new SqlStatementData();
+		sqlStatementData.setPlatformIdent(PLATFORM_ID);
+		sqlStatementData.setSql(sql);
+		sqlStatementData.setSqlId(sqlId);
+		return sqlStatementData;
+	}
+
+	public class Resolve extends SqlStatementDictionaryTest {
+
+		@Test
+		public void registeredId() {
+			String sql = new String(SQL);
+			dictionary.register(PLATFORM_ID, Collections.singletonMap(1, sql));
+			SqlStatementData sqlStatementData = createSqlData(null, 1);
+
+			dictionary.resolve(Collections.singletonList(sqlStatementData));
+
+			assertThat(sqlStatementData.getSql(), is(sameInstance(sql)));
+			assertThat(sqlStatementData.getSqlId(), is(0));
+		}
+
+		@Test
+		public void unknownId() {
+			SqlStatementData sqlStatementData = createSqlData(null, 1);
+
+			dictionary.resolve(Collections.singletonList(sqlStatementData));
+
+			assertThat(sqlStatementData.getSql(), is(nullValue()));
+			assertThat(sqlStatementData.getSqlId(), is(0));
+		}
+
+		@Test
+		public void idOfOtherAgent() {
+			dictionary.register(2L, Collections.singletonMap(1, SQL));
+			SqlStatementData sqlStatementData = createSqlData(null, 1);
+
+			dictionary.resolve(Collections.singletonList(sqlStatementData));
+
+			assertThat(sqlStatementData.getSql(), is(nullValue()));
+		}
+
+		@Test
+		public void completeSqlInterned() {
+			String sql = new String(SQL);
+			dictionary.register(2L, Collections.singletonMap(5, sql));
+			SqlStatementData sqlStatementData = createSqlData(new String(SQL), 0);
+
+			dictionary.resolve(Collections.singletonList(sqlStatementData));
+
+			assertThat(sqlStatementData.getSql(), is(sameInstance(sql)));
+		}
+
+		@Test
+		public void invocationSequence() {
+			String sql = new String(SQL);
+			dictionary.register(PLATFORM_ID, Collections.singletonMap(1, sql));
+			SqlStatementData sqlStatementData = createSqlData(null, 1);
+			InvocationSequenceData invocation = new InvocationSequenceData();
+			InvocationSequenceData child = new InvocationSequenceData();
+			child.setSqlStatementData(sqlStatementData);
+			invocation.getNestedSequences().add(child);
+
+			dictionary.resolve(Collections.singletonList(invocation));
+
+			assertThat(sqlStatementData.getSql(), is(sameInstance(sql)));
+		}
+
+		@Test
+		public void registeredAgain() {
+			dictionary.register(PLATFORM_ID, Collections.singletonMap(1, SQL));
+			dictionary.register(PLATFORM_ID, Collections.singletonMap(1, "other"));
+			SqlStatementData sqlStatementData = createSqlData(null, 1);
+
+			dictionary.resolve(Collections.singletonList(sqlStatementData));
+
+			assertThat(sqlStatementData.getSql(), is("other"));
+		}
+	}
+
+	public class OnApplicationEvent extends SqlStatementDictionaryTest {
+
+		@Test
+		public void agentDeleted() {
+			dictionary.register(PLATFORM_ID, Collections.singletonMap(1, SQL));
+
+			dictionary.onApplicationEvent(new AgentDeletedEvent(this, PLATFORM_ID));
+
+			assertThat(dictionary.getStatementCount(PLATFORM_ID), is(0));
+			List<SqlStatementData> dataList = Collections.singletonList(createSqlData(null, 1));
+			dictionary.resolve(dataList);
+			assertThat(dataList.get(0).getSql(), is(nullValue()));
+		}
+	}
+
+}
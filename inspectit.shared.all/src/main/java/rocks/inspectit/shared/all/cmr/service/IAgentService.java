@@ -64,6 +64,23 @@ public interface IAgentService {
 	 */
 	InstrumentationDefinition analyze(long platformIdent, String hash, Type type) throws BusinessException;
 
+	/**
+	 * Analyzes the given types in one call, same as calling {@link #analyze(long, String, Type)}
+	 * for each of them. Types are analyzed in the iteration order of the given map, thus the types
+	 * a type depends on should be placed before it.
+	 *
+	 * @param platformIdent
+	 *            Id of the agent.
+	 * @param hashAndTypes
+	 *            Map of class hash codes to the parsed {@link Type}s representing classes being
+	 *            loaded on the agent.
+	 * @return Map of class hash codes to the instrumentation definitions. Contains only the types
+	 *         for which instrumentation definition exists.
+	 * @throws BusinessException
+	 *             If agent with specified id does not exist.
+	 */
+	Map<String, InstrumentationDefinition> analyzeAll(long platformIdent, Map<String, Type> hashAndTypes) throws BusinessException;
+
 	/**
 	 * Informs the CMR that the methods have been instrumented on the agent.
 	 *
@@ -74,6 +91,19 @@ public interface IAgentService {
 	 */
 	void instrumentationApplied(long platformId, Map<Long, long[]> methodToSensorMap);
 
+	/**
+	 * Registers the SQL statements from the SQL statement dictionary of the agent. After the
+	 * registration the agent sends only the id of the statement with the
+	 * {@link rocks.inspectit.shared.all.communication.data.SqlStatementData}. Registering an
+	 * existing id replaces the statement.
+	 *
+	 * @param platformIdent
+	 *            Id of the agent.
+	 * @param sqlStatements
+	 *            Map of the statement ids to the SQL strings.
+	 */
+	void registerSqlStatements(long platformIdent, Map<Integer, String> sqlStatements);
+
 	/**
 	 * Analyzes the given {@link JmxAttributeDescriptor} and decides which ones will be monitored,
 	 * based on the current configuration.
@@ -1,6 +1,7 @@
 package rocks.inspectit.shared.all.cmr.service;
 
 import java.rmi.Remote;
+import java.util.Map;
 
 /**
  * This service is used by the Agent to continuously send a keep-alive signal to the CMR.
@@ -39,4 +40,16 @@ public interface IKeepAliveService extends Remote {
 	 */
 	void sendKeepAlive(long platformId);
 
+	/**
+	 * Sends the sampling rates of the platform with the given id. Sampling rate is the ratio of the
+	 * data that was sent by the agent for a sensor type. An empty map signals that the data is not
+	 * sampled anymore.
+	 *
+	 * @param platformId
+	 *            ID of the platform ident.
+	 * @param samplingRates
+	 *            Map of sensor type ids to the sampling rates.
+	 */
+	void sendSamplingRates(long platformId, Map<Long, Double> samplingRates);
+
 }
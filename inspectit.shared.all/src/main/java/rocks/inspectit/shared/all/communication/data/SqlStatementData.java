@@ -25,6 +25,13 @@ public class SqlStatementData extends TimerData {
 	 */
 	private String sql;
 
+	/**
+	 * Id of the {@link #sql} in the SQL statement dictionary of the agent. Set only while the data
+	 * is transferred from the agent to the CMR, in which case {@link #sql} is not sent when the
+	 * statement with this id was already registered with the CMR.
+	 */
+	private int sqlId;
+
 	/**
 	 * The URL that the connection uses.
 	 */
@@ -146,6 +153,25 @@ public class SqlStatementData extends TimerData {
 		this.sql = sql;
 	}
 
+	/**
+	 * Gets {@link #sqlId}.
+	 *
+	 * @return {@link #sqlId}
+	 */
+	public int getSqlId() {
+		return sqlId;
+	}
+
+	/**
+	 * Sets {@link #sqlId}.
+	 *
+	 * @param sqlId
+	 *            New value for {@link #sqlId}
+	 */
+	public void setSqlId(int sqlId) {
+		this.sqlId = sqlId;
+	}
+
 	/**
 	 * Gets {@link #preparedStatement}.
 	 *
@@ -334,7 +360,7 @@ public class SqlStatementData extends TimerData {
 	@Override
 	public long getObjectSize(IObjectSizes objectSizes, boolean doAlign) {
 		long size = super.getObjectSize(objectSizes, doAlign);
-		size += objectSizes.getPrimitiveTypesSize(6, 1, 0, 0, 0, 0);
+		size += objectSizes.getPrimitiveTypesSize(6, 1, 1, 0, 0, 0);
 		size += objectSizes.getSizeOf(sql);
 		size += objectSizes.getSizeOf(databaseProductName);
 		size += objectSizes.getSizeOf(databaseProductVersion);
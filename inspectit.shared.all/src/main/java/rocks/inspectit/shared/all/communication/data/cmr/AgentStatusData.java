@@ -1,6 +1,7 @@
 package rocks.inspectit.shared.all.communication.data.cmr;
 
 import java.io.Serializable;
+import java.util.Map;
 
 /**
  * Class that holds agent status data.
@@ -103,6 +104,12 @@ public class AgentStatusData implements Serializable {
 	 */
 	private InstrumentationStatus instrumentationStatus;
 
+	/**
+	 * Sampling rates reported by the agent as map of sensor type ids to the ratio of the data sent.
+	 * <code>null</code> or missing sensor type means that all data of the sensor type is sent.
+	 */
+	private Map<Long, Double> samplingRates;
+
 	/**
 	 * No-arg constructor. Calling {@link #AgentStatusData(AgentConnection)} using
 	 * {@link AgentConnection#NEVER_CONNECTED}.
@@ -254,6 +261,44 @@ public class AgentStatusData implements Serializable {
 		this.instrumentationStatus = instrumentationStatus;
 	}
 
+	/**
+	 * Gets {@link #samplingRates}.
+	 *
+	 * @return {@link #samplingRates}
+	 */
+	public Map<Long, Double> getSamplingRates() {
+		return this.samplingRates;
+	}
+
+	/**
+	 * Sets {@link #samplingRates}.
+	 *
+	 * @param samplingRates
+	 *            New value for {@link #samplingRates}
+	 */
+	public void setSamplingRates(Map<Long, Double> samplingRates) {
+		this.samplingRates = samplingRates;
+	}
+
+	/**
+	 * Returns the sampling rate for the given sensor type. The count of the data received for the
+	 * sensor type can be divided by the sampling rate in order to extrapolate the real count.
+	 *
+	 * @param sensorTypeIdent
+	 *            Sensor type id.
+	 * @return Ratio of the data sent by the agent for the given sensor type, <code>1</code> if
+	 *         data is not sampled.
+	 */
+	public double getSamplingRate(long sensorTypeIdent) {
+		if (null != samplingRates) {
+			Double samplingRate = samplingRates.get(sensorTypeIdent);
+			if (null != samplingRate) {
+				return samplingRate.doubleValue();
+			}
+		}
+		return 1.0d;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -267,6 +312,7 @@ public class AgentStatusData implements Serializable {
 		result = (prime * result) + (int) (this.lastDataSendTimestamp ^ (this.lastDataSendTimestamp >>> 32));
 		result = (prime * result) + (int) (this.lastKeepAliveTimestamp ^ (this.lastKeepAliveTimestamp >>> 32));
 		result = (prime * result) + (int) (this.pendingSinceTime ^ (this.pendingSinceTime >>> 32));
+		result = (prime * result) + ((this.samplingRates == null) ? 0 : this.samplingRates.hashCode());
 		result = (prime * result) + (int) (this.serverTimestamp ^ (this.serverTimestamp >>> 32));
 		return result;
 	}
@@ -304,6 +350,13 @@ public class AgentStatusData implements Serializable {
 		if (this.pendingSinceTime != other.pendingSinceTime) {
 			return false;
 		}
+		if (this.samplingRates == null) {
+			if (other.samplingRates != null) {
+				return false;
+			}
+		} else if (!this.samplingRates.equals(other.samplingRates)) {
+			return false;
+		}
 		if (this.serverTimestamp != other.serverTimestamp) {
 			return false;
 		}
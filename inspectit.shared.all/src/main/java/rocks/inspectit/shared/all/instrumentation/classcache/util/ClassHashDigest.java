@@ -0,0 +1,58 @@
+package rocks.inspectit.shared.all.instrumentation.classcache.util;
+
+/**
+ * Digest of a set of class hashes used to compare the classes known to the agent and the CMR
+ * without transferring the hashes. The digest does not depend on the order in which the hashes
+ * are added, but every hash must be added only once.
+ *
+ * @author agent
+ *
+ */
+public class ClassHashDigest {
+
+	/**
+	 * FNV-1a 64 bit offset basis.
+	 */
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+	/**
+	 * FNV-1a 64 bit prime.
+	 */
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	/**
+	 * Sum of the FNV-1a hashes of all added class hashes.
+	 */
+	private long sum;
+
+	/**
+	 * Amount of added class hashes.
+	 */
+	private int count;
+
+	/**
+	 * Adds the class hash to the digest.
+	 *
+	 * @param hash
+	 *            Class hash.
+	 */
+	public void add(String hash) {
+		long value = FNV_OFFSET_BASIS;
+		for (int i = 0; i < hash.length(); i++) {
+			value ^= hash.charAt(i);
+			value *= FNV_PRIME;
+		}
+		sum += value;
+		count++;
+	}
+
+	/**
+	 * Returns the digest of all added class hashes.
+	 *
+	 * @return Returns the digest of all added class hashes.
+	 */
+	public long getValue() {
+		return (31 * sum) + count;
+	}
+
+}
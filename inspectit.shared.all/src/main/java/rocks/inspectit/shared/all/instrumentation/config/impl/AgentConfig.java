@@ -28,6 +28,15 @@ public class AgentConfig {
 	 */
 	private boolean classCacheExistsOnCmr;
 
+	/**
+	 * Digest of the class hashes known to the class cache on the CMR, see
+	 * {@link rocks.inspectit.shared.all.instrumentation.classcache.util.ClassHashDigest}. Only set
+	 * if the class cache was restored from the disk, as it might miss the classes sent after it was
+	 * saved. In this case the agent can use its internal sending classes cache only if the digest
+	 * of the cache is equal.
+	 */
+	private Long classCacheDigest;
+
 	/**
 	 * Disruptor strategy config.
 	 */
@@ -124,6 +133,25 @@ public class AgentConfig {
 		this.classCacheExistsOnCmr = classCacheExistsOnCmr;
 	}
 
+	/**
+	 * Gets {@link #classCacheDigest}.
+	 *
+	 * @return {@link #classCacheDigest}
+	 */
+	public Long getClassCacheDigest() {
+		return this.classCacheDigest;
+	}
+
+	/**
+	 * Sets {@link #classCacheDigest}.
+	 *
+	 * @param classCacheDigest
+	 *            New value for {@link #classCacheDigest}
+	 */
+	public void setClassCacheDigest(Long classCacheDigest) {
+		this.classCacheDigest = classCacheDigest;
+	}
+
 	/**
 	 * Gets {@link #disruptorStrategyConfig}.
 	 *
@@ -381,6 +409,7 @@ public class AgentConfig {
 		final int prime = 31;
 		int result = 1;
 		result = (prime * result) + (this.classCacheExistsOnCmr ? 1231 : 1237);
+		result = (prime * result) + ((this.classCacheDigest == null) ? 0 : this.classCacheDigest.hashCode());
 		result = (prime * result) + ((this.configurationInfo == null) ? 0 : this.configurationInfo.hashCode());
 		result = (prime * result) + ((this.disruptorStrategyConfig == null) ? 0 : this.disruptorStrategyConfig.hashCode());
 		result = (prime * result) + ((this.eumConfig == null) ? 0 : this.eumConfig.hashCode());
@@ -414,6 +443,13 @@ public class AgentConfig {
 		if (this.classCacheExistsOnCmr != other.classCacheExistsOnCmr) {
 			return false;
 		}
+		if (this.classCacheDigest == null) {
+			if (other.classCacheDigest != null) {
+				return false;
+			}
+		} else if (!this.classCacheDigest.equals(other.classCacheDigest)) {
+			return false;
+		}
 		if (this.configurationInfo == null) {
 			if (other.configurationInfo != null) {
 				return false;
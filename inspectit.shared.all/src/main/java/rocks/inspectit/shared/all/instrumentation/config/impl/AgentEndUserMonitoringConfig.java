@@ -44,6 +44,12 @@ public class AgentEndUserMonitoringConfig {
 	 */
 	private boolean agentMinificationEnabled;
 
+	/**
+	 * Flag whether the beacons are processed asynchronously. If enabled, only the header of a beacon
+	 * is decoded in the request thread, while the elements are decoded and sent in the background.
+	 */
+	private boolean beaconProcessingAsync;
+
 	/**
 	 * Default constructor.
 	 */
@@ -64,16 +70,18 @@ public class AgentEndUserMonitoringConfig {
 	 *            {@link #listenerInstrumentationAllowed}
 	 * @param agentMinificationEnabled
 	 *            the agent minification flag, see {@link #agentMinificationEnabled}
+	 * @param beaconProcessingAsync
+	 *            the asynchronous beacon processing flag, see {@link #beaconProcessingAsync}
 	 */
 	public AgentEndUserMonitoringConfig(boolean isEnabled, String scriptBaseUrl, String activeModules, int relevancyThresholdMS, boolean listenerInstrumentationAllowed,
-			boolean agentMinificationEnabled) {
+			boolean agentMinificationEnabled, boolean beaconProcessingAsync) {
 		this.enabled = isEnabled;
 		this.scriptBaseUrl = scriptBaseUrl;
 		this.activeModules = activeModules;
 		this.relevancyThreshold = relevancyThresholdMS;
 		this.listenerInstrumentationAllowed = listenerInstrumentationAllowed;
 		this.agentMinificationEnabled = agentMinificationEnabled;
-
+		this.beaconProcessingAsync = beaconProcessingAsync;
 	}
 
 	/**
@@ -190,6 +198,25 @@ public class AgentEndUserMonitoringConfig {
 		this.agentMinificationEnabled = agentMinificationEnabled;
 	}
 
+	/**
+	 * Gets {@link #beaconProcessingAsync}.
+	 *
+	 * @return {@link #beaconProcessingAsync}
+	 */
+	public boolean isBeaconProcessingAsync() {
+		return this.beaconProcessingAsync;
+	}
+
+	/**
+	 * Sets {@link #beaconProcessingAsync}.
+	 *
+	 * @param beaconProcessingAsync
+	 *            New value for {@link #beaconProcessingAsync}
+	 */
+	public void setBeaconProcessingAsync(boolean beaconProcessingAsync) {
+		this.beaconProcessingAsync = beaconProcessingAsync;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -199,6 +226,7 @@ public class AgentEndUserMonitoringConfig {
 		int result = 1;
 		result = (prime * result) + ((this.activeModules == null) ? 0 : this.activeModules.hashCode());
 		result = (prime * result) + (this.agentMinificationEnabled ? 1231 : 1237);
+		result = (prime * result) + (this.beaconProcessingAsync ? 1231 : 1237);
 		result = (prime * result) + (this.enabled ? 1231 : 1237);
 		result = (prime * result) + (this.listenerInstrumentationAllowed ? 1231 : 1237);
 		result = (prime * result) + this.relevancyThreshold;
@@ -231,6 +259,9 @@ public class AgentEndUserMonitoringConfig {
 		if (this.agentMinificationEnabled != other.agentMinificationEnabled) {
 			return false;
 		}
+		if (this.beaconProcessingAsync != other.beaconProcessingAsync) {
+			return false;
+		}
 		if (this.enabled != other.enabled) {
 			return false;
 		}
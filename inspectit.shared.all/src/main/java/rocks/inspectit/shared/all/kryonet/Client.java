@@ -74,6 +74,18 @@ public class Client extends Connection implements EndPoint {
 	private int connectUdpPort;
 	private boolean isClosed;
 
+	/**
+	 * Compression mode to request from the server after connecting.
+	 */
+	// Added by ISE
+	private CompressionMode compressionMode = CompressionMode.NONE;
+
+	/**
+	 * Serialized size in bytes starting from which the objects are compressed.
+	 */
+	// Added by ISE
+	private int compressionThreshold;
+
 	// ISE: Removed no-arg and 2-args constructors (not needed)
 
 	// Added by ISE
@@ -217,12 +229,32 @@ public class Client extends Connection implements EndPoint {
 					}
 				}
 			}
+
+			// Added by ISE: data is sent uncompressed until server accepts the compression
+			if (CompressionMode.NONE != compressionMode) {
+				sendTCP(new CompressionNegotiation(compressionMode));
+			}
 		} catch (IOException ex) {
 			close();
 			throw ex;
 		}
 	}
 
+	/**
+	 * Sets the compression to request from the server on the next connect. The compression is
+	 * used only after the server accepts it.
+	 *
+	 * @param compressionMode
+	 *            Compression mode, {@link CompressionMode#NONE} to switch off.
+	 * @param compressionThreshold
+	 *            Serialized size in bytes starting from which the objects are compressed.
+	 */
+	// Added by ISE
+	public void setCompression(CompressionMode compressionMode, int compressionThreshold) {
+		this.compressionMode = compressionMode;
+		this.compressionThreshold = compressionThreshold;
+	}
+
 	/**
 	 * Calls {@link #connect(int, InetAddress, int) connect} with the values last passed to connect.
 	 *
@@ -345,6 +377,11 @@ public class Client extends Connection implements EndPoint {
 									if (!isConnected) {
 										continue;
 									}
+									// Added by ISE
+									if (object instanceof CompressionNegotiation) {
+										tcp.setCompression(((CompressionNegotiation) object).getCompressionMode(), compressionThreshold);
+										continue;
+									}
 									keepAlive();
 									if (DEBUG) {
 										String objectString = object == null ? "null" : object.getClass().getSimpleName();
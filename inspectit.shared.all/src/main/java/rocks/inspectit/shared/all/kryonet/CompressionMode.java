@@ -0,0 +1,61 @@
+package rocks.inspectit.shared.all.kryonet;
+
+/**
+ * Compression modes that can be negotiated for a TCP connection.
+ *
+ * @author agent
+ *
+ */
+public enum CompressionMode {
+
+	/**
+	 * No compression.
+	 */
+	NONE((byte) 0),
+
+	/**
+	 * Deflate compression with the best speed level, provided by the JVM.
+	 */
+	DEFLATE((byte) 1);
+
+	/**
+	 * Id of the mode written to the compressed frames.
+	 */
+	private final byte id;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param id
+	 *            Id of the mode written to the compressed frames.
+	 */
+	CompressionMode(byte id) {
+		this.id = id;
+	}
+
+	/**
+	 * Gets {@link #id}.
+	 *
+	 * @return {@link #id}
+	 */
+	public byte getId() {
+		return id;
+	}
+
+	/**
+	 * Returns the compression mode with the given id.
+	 *
+	 * @param id
+	 *            Id of the mode.
+	 * @return Compression mode or <code>null</code> if no mode with given id exists.
+	 */
+	public static CompressionMode fromId(byte id) {
+		for (CompressionMode compressionMode : values()) {
+			if (compressionMode.id == id) {
+				return compressionMode;
+			}
+		}
+		return null;
+	}
+
+}
@@ -0,0 +1,62 @@
+package rocks.inspectit.shared.all.kryonet;
+
+/**
+ * Message used for negotiating the compression of a TCP connection. The client sends the message
+ * with the wanted compression mode after the connection has been registered, the server replies
+ * with the mode it accepts. The client starts compressing the data only after the reply has been
+ * received, while the server can always read compressed frames.
+ *
+ * @author agent
+ *
+ */
+public class CompressionNegotiation {
+
+	/**
+	 * Requested or accepted compression mode.
+	 */
+	private CompressionMode compressionMode;
+
+	/**
+	 * No-arg constructor for serialization.
+	 */
+	public CompressionNegotiation() {
+	}
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param compressionMode
+	 *            Requested or accepted compression mode.
+	 */
+	public CompressionNegotiation(CompressionMode compressionMode) {
+		this.compressionMode = compressionMode;
+	}
+
+	/**
+	 * Gets {@link #compressionMode}.
+	 *
+	 * @return {@link #compressionMode}
+	 */
+	public CompressionMode getCompressionMode() {
+		return compressionMode;
+	}
+
+	/**
+	 * Sets {@link #compressionMode}.
+	 *
+	 * @param compressionMode
+	 *            New value for {@link #compressionMode}
+	 */
+	public void setCompressionMode(CompressionMode compressionMode) {
+		this.compressionMode = compressionMode;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "CompressionNegotiation [compressionMode=" + compressionMode + "]";
+	}
+
+}
@@ -0,0 +1,216 @@
+package rocks.inspectit.shared.all.kryonet;
+
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses and decompresses the serialized objects sent over the TCP connection. A compressed
+ * frame consists of the compression mode id, the uncompressed length and the compressed bytes.
+ * <p>
+ * The compressor keeps the {@link Deflater}, {@link Inflater} and the output buffer for re-use, thus
+ * one instance must not be used by several threads at the same time. Call {@link #close()} to
+ * release the native resources when not needed anymore.
+ * <p>
+ * The uncompressed length declared in the frame header is checked before the output is allocated,
+ * so that a corrupted or malicious frame can not force huge allocations. It must not be bigger than
+ * the maximum uncompressed length of the compressor or than the length the deflate algorithm can
+ * produce from the received compressed bytes.
+ *
+ * @author agent
+ *
+ */
+public class FrameCompressor {
+
+	/**
+	 * Size of the frame header (mode id and uncompressed length).
+	 */
+	static final int HEADER_SIZE = 5;
+
+	/**
+	 * Default maximum uncompressed length of a frame.
+	 */
+	public static final int DEFAULT_MAX_UNCOMPRESSED_LENGTH = 128 * 1024 * 1024;
+
+	/**
+	 * Maximum ratio between the uncompressed and the compressed length the deflate algorithm can
+	 * achieve.
+	 */
+	static final int MAX_DEFLATE_RATIO = 1032;
+
+	/**
+	 * Initial size of the output buffer.
+	 */
+	private static final int INITIAL_BUFFER_SIZE = 4096;
+
+	/**
+	 * Maximum uncompressed length of a frame.
+	 */
+	private final int maxUncompressedLength;
+
+	/**
+	 * Deflater for compression.
+	 */
+	private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+
+	/**
+	 * Inflater for decompression.
+	 */
+	private final Inflater inflater = new Inflater();
+
+	/**
+	 * Buffer holding the last compressed frame.
+	 */
+	private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+
+	/**
+	 * Length of the last compressed frame in the {@link #buffer}.
+	 */
+	private int length;
+
+	/**
+	 * Creates the compressor with the {@link #DEFAULT_MAX_UNCOMPRESSED_LENGTH}.
+	 */
+	public FrameCompressor() {
+		this(DEFAULT_MAX_UNCOMPRESSED_LENGTH);
+	}
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param maxUncompressedLength
+	 *            Maximum uncompressed length of a frame. Bigger frames are not compressed and not
+	 *            accepted for decompression. Must be positive.
+	 */
+	public FrameCompressor(int maxUncompressedLength) {
+		if (maxUncompressedLength <= 0) {
+			throw new IllegalArgumentException("Max uncompressed length must be positive.");
+		}
+		this.maxUncompressedLength = maxUncompressedLength;
+	}
+
+	/**
+	 * Compresses the given bytes to a frame. The frame is available via {@link #getBuffer()} and
+	 * {@link #getLength()} only if this method returns <code>true</code>.
+	 *
+	 * @param compressionMode
+	 *            Compression mode to use.
+	 * @param bytes
+	 *            Bytes to compress.
+	 * @param offset
+	 *            Offset in the bytes.
+	 * @param count
+	 *            Amount of bytes to compress.
+	 * @return <code>true</code> if the compressed frame is smaller than the given bytes,
+	 *         <code>false</code> if compression brings no benefit or the bytes are over the maximum
+	 *         uncompressed length and uncompressed bytes should be used.
+	 */
+	public boolean compress(CompressionMode compressionMode, byte[] bytes, int offset, int count) {
+		if (CompressionMode.DEFLATE != compressionMode) {
+			throw new IllegalArgumentException("Compression mode " + compressionMode + " is not supported.");
+		}
+
+		// the other side would not accept the frame
+		if (count > maxUncompressedLength) {
+			return false;
+		}
+
+		// output is only useful if smaller than the input
+		if (buffer.length < count) {
+			buffer = new byte[count];
+		}
+
+		buffer[0] = compressionMode.getId();
+		buffer[1] = (byte) (count >>> 24);
+		buffer[2] = (byte) (count >>> 16);
+		buffer[3] = (byte) (count >>> 8);
+		buffer[4] = (byte) count;
+
+		deflater.reset();
+		deflater.setInput(bytes, offset, count);
+		deflater.finish();
+
+		int position = HEADER_SIZE;
+		while (!deflater.finished()) {
+			if (position >= count) {
+				return false;
+			}
+			position += deflater.deflate(buffer, position, count - position);
+		}
+
+		length = position;
+		return true;
+	}
+
+	/**
+	 * Decompresses the frame created by the {@link #compress(CompressionMode, byte[], int, int)}.
+	 *
+	 * @param frame
+	 *            Bytes of the frame.
+	 * @param offset
+	 *            Offset in the frame bytes.
+	 * @param count
+	 *            Length of the frame.
+	 * @return Uncompressed bytes.
+	 * @throws DataFormatException
+	 *             If frame is not valid or the declared uncompressed length is over the maximum.
+	 */
+	public byte[] decompress(byte[] frame, int offset, int count) throws DataFormatException {
+		if (count < HEADER_SIZE) {
+			throw new DataFormatException("Compressed frame is too short.");
+		}
+
+		CompressionMode compressionMode = CompressionMode.fromId(frame[offset]);
+		if (CompressionMode.DEFLATE != compressionMode) {
+			throw new DataFormatException("Compression mode with id " + frame[offset] + " is not supported.");
+		}
+
+		int uncompressedLength = ((frame[offset + 1] & 0xFF) << 24) | ((frame[offset + 2] & 0xFF) << 16) | ((frame[offset + 3] & 0xFF) << 8) | (frame[offset + 4] & 0xFF);
+		// check before allocating, the length comes from the other side
+		long maxLength = Math.min(maxUncompressedLength, (long) (count - HEADER_SIZE) * MAX_DEFLATE_RATIO);
+		if ((uncompressedLength < 0) || (uncompressedLength > maxLength)) {
+			throw new DataFormatException("Invalid uncompressed length " + uncompressedLength + ", maximum for the frame is " + maxLength + ".");
+		}
+
+		byte[] result = new byte[uncompressedLength];
+		inflater.reset();
+		inflater.setInput(frame, offset + HEADER_SIZE, count - HEADER_SIZE);
+
+		int position = 0;
+		while (position < uncompressedLength) {
+			int inflated = inflater.inflate(result, position, uncompressedLength - position);
+			if ((0 == inflated) && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+				throw new DataFormatException("Compressed frame is truncated.");
+			}
+			position += inflated;
+		}
+		return result;
+	}
+
+	/**
+	 * Releases the native resources. Compressor can not be used after calling this method.
+	 */
+	public void close() {
+		deflater.end();
+		inflater.end();
+	}
+
+	/**
+	 * Gets {@link #buffer}.
+	 *
+	 * @return {@link #buffer}
+	 */
+	public byte[] getBuffer() {
+		return buffer;
+	}
+
+	/**
+	 * Gets {@link #length}.
+	 *
+	 * @return {@link #length}
+	 */
+	public int getLength() {
+		return length;
+	}
+
+}
@@ -257,6 +257,11 @@ public class Server implements EndPoint {
 										if (object == null) {
 											break;
 										}
+										// Added by ISE: all modes are supported, confirm the requested one
+										if (object instanceof CompressionNegotiation) {
+											fromConnection.sendTCP(new CompressionNegotiation(((CompressionNegotiation) object).getCompressionMode()));
+											continue;
+										}
 										if (DEBUG) {
 											String objectString = object == null ? "null" : object.getClass().getSimpleName();
 											if (!(object instanceof FrameworkMessage)) {
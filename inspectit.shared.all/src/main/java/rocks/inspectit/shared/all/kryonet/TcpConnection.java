@@ -3,7 +3,10 @@ package rocks.inspectit.shared.all.kryonet;
 import static com.esotericsoftware.minlog.Log.DEBUG;
 import static com.esotericsoftware.minlog.Log.debug;
 
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.Socket;
 import java.net.SocketAddress;
 import java.net.SocketException;
@@ -16,7 +19,9 @@ import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.DataFormatException;
 
+import com.esotericsoftware.kryo.io.Output;
 import com.esotericsoftware.kryonet.KryoNetException;
 
 import rocks.inspectit.shared.all.storage.nio.stream.ExtendedByteBufferOutputStream;
@@ -72,6 +77,62 @@ class TcpConnection {
 	// Added by ISE
 	private SocketExtendedByteBufferInputStream socketInputStream;
 
+	/**
+	 * Flag set in the frame length to mark the compressed frames.
+	 */
+	// Added by ISE
+	static final int COMPRESSED_FRAME_FLAG = 0x80000000;
+
+	/**
+	 * Initial size of the output used for serialization before compression.
+	 */
+	// Added by ISE
+	private static final int RAW_OUTPUT_SIZE = 4096;
+
+	/**
+	 * Max size of the raw output we keep between sends.
+	 */
+	// Added by ISE
+	private static final int MAX_RETAINED_RAW_OUTPUT_SIZE = 1024 * 1024;
+
+	/**
+	 * Compression mode used when sending, always {@link CompressionMode#NONE} until negotiated.
+	 */
+	// Added by ISE
+	private volatile CompressionMode compressionMode = CompressionMode.NONE;
+
+	/**
+	 * Serialized size in bytes starting from which the objects are compressed.
+	 */
+	// Added by ISE
+	private int compressionThreshold;
+
+	/**
+	 * Compressor for sending, guarded by the {@link #writeReentrantLock}.
+	 */
+	// Added by ISE
+	private FrameCompressor sendCompressor;
+
+	/**
+	 * Compressor for reading, created on first compressed frame. Guarded by the
+	 * {@link #readCompressorLock}, as the connection can be closed while the read thread is
+	 * decompressing.
+	 */
+	// Added by ISE
+	private FrameCompressor readCompressor;
+
+	/**
+	 * Lock guarding the {@link #readCompressor}.
+	 */
+	// Added by ISE
+	private final Object readCompressorLock = new Object();
+
+	/**
+	 * Output to serialize to before compression, guarded by the {@link #writeReentrantLock}.
+	 */
+	// Added by ISE
+	private Output rawOutput;
+
 	SocketChannel socketChannel;
 	int keepAliveMillis = 8000;
 	final ByteBuffer readBuffer, writeBuffer;
@@ -107,6 +168,7 @@ class TcpConnection {
 		readBuffer.clear();
 		readBuffer.flip();
 		currentObjectLength = 0;
+		compressionMode = CompressionMode.NONE; // Added by ISE
 		try {
 			this.socketChannel = socketChannel;
 			socketChannel.configureBlocking(false);
@@ -137,6 +199,7 @@ class TcpConnection {
 		readBuffer.clear();
 		readBuffer.flip();
 		currentObjectLength = 0;
+		compressionMode = CompressionMode.NONE; // Added by ISE
 		try {
 			SocketChannel socketChannel = selector.provider().openSocketChannel();
 			Socket socket = socketChannel.socket();
@@ -192,12 +255,13 @@ class TcpConnection {
 			}
 			currentObjectLength = serialization.readLength(readBuffer);
 
-			if (currentObjectLength <= 0) {
+			if ((currentObjectLength & ~COMPRESSED_FRAME_FLAG) == 0) {
 				throw new KryoNetException("Invalid object length: " + currentObjectLength);
 			}
 		}
 
-		int length = currentObjectLength;
+		int length = currentObjectLength & ~COMPRESSED_FRAME_FLAG;
+		boolean compressed = (currentObjectLength & COMPRESSED_FRAME_FLAG) != 0;
 		// reset stream
 		socketInputStream.reset(length);
 
@@ -206,7 +270,11 @@ class TcpConnection {
 		// read object
 		Object object;
 		try {
-			object = serialization.read(connection, socketInputStream);
+			if (compressed) {
+				object = readCompressed(connection, length);
+			} else {
+				object = serialization.read(connection, socketInputStream);
+			}
 		} catch (Exception ex) {
 			throw new KryoNetException("Error during deserialization.", ex);
 		}
@@ -215,6 +283,45 @@ class TcpConnection {
 		return object;
 	}
 
+	/**
+	 * Reads the compressed frame from the socket input stream and de-serializes the object.
+	 *
+	 * @param connection
+	 *            Connection to be added to kryo context.
+	 * @param length
+	 *            Length of the compressed frame.
+	 * @return De-serialized object.
+	 * @throws IOException
+	 *             If frame can not be read.
+	 * @throws DataFormatException
+	 *             If frame is not valid.
+	 */
+	// Added by ISE
+	private Object readCompressed(Connection connection, int length) throws IOException, DataFormatException {
+		// compressed frame is never bigger than the uncompressed object
+		if (length > FrameCompressor.DEFAULT_MAX_UNCOMPRESSED_LENGTH) {
+			throw new DataFormatException("Compressed frame length " + length + " is over the maximum.");
+		}
+		byte[] frame = new byte[length];
+		int read = 0;
+		while (read < length) {
+			int count = socketInputStream.read(frame, read, length - read);
+			if (count < 0) {
+				throw new EOFException("Compressed frame is truncated.");
+			}
+			read += count;
+		}
+
+		byte[] bytes;
+		synchronized (readCompressorLock) {
+			if (null == readCompressor) {
+				readCompressor = new FrameCompressor();
+			}
+			bytes = readCompressor.decompress(frame, 0, length);
+		}
+		return serialization.read(connection, new ByteArrayInputStream(bytes));
+	}
+
 	// Changed completely by ISE
 	public void writeOperation() throws IOException {
 		writeReentrantLock.lock();
@@ -302,8 +409,13 @@ class TcpConnection {
 			outputStream.write(new byte[lengthLength]);
 
 			// Write data and flush when done
+			boolean compressed = false;
 			try {
-				serialization.write(connection, outputStream, object);
+				if (CompressionMode.NONE == compressionMode) {
+					serialization.write(connection, outputStream, object);
+				} else {
+					compressed = writeCompressed(connection, outputStream, object);
+				}
 			} catch (KryoNetException ex) { // NOPMD
 				throw new KryoNetException("Error serializing object of type: " + object.getClass().getName(), ex);
 			}
@@ -314,7 +426,7 @@ class TcpConnection {
 			ByteBuffer buffer = outputStream.getAllByteBuffers().iterator().next();
 			int position = buffer.position();
 			buffer.position(0);
-			serialization.writeLength(buffer, (int) writeSize);
+			serialization.writeLength(buffer, compressed ? ((int) writeSize | COMPRESSED_FRAME_FLAG) : (int) writeSize);
 			buffer.position(position);
 
 			// Write to socket if no data was queued.
@@ -343,6 +455,63 @@ class TcpConnection {
 		}
 	}
 
+	/**
+	 * Serializes the object and writes it compressed to the output stream if the serialized size
+	 * is above the {@link #compressionThreshold} and compression reduces the size. Must be called
+	 * while holding the {@link #writeReentrantLock}.
+	 *
+	 * @param connection
+	 *            Connection to be added to kryo context.
+	 * @param outputStream
+	 *            Stream to write to.
+	 * @param object
+	 *            Object to send.
+	 * @return If compressed bytes were written.
+	 * @throws IOException
+	 *             If writing to the stream fails.
+	 */
+	// Added by ISE
+	private boolean writeCompressed(Connection connection, OutputStream outputStream, Object object) throws IOException {
+		if ((null == rawOutput) || (rawOutput.getBuffer().length > MAX_RETAINED_RAW_OUTPUT_SIZE)) {
+			rawOutput = new Output(RAW_OUTPUT_SIZE, -1);
+		}
+		if (null == sendCompressor) {
+			sendCompressor = new FrameCompressor();
+		}
+
+		rawOutput.clear();
+		serialization.write(connection, rawOutput, object);
+		int size = rawOutput.position();
+
+		if ((size >= compressionThreshold) && sendCompressor.compress(compressionMode, rawOutput.getBuffer(), 0, size)) {
+			outputStream.write(sendCompressor.getBuffer(), 0, sendCompressor.getLength());
+			return true;
+		} else {
+			outputStream.write(rawOutput.getBuffer(), 0, size);
+			return false;
+		}
+	}
+
+	/**
+	 * Sets the compression to use when sending. Should be called only after the compression has
+	 * been negotiated with the other side.
+	 *
+	 * @param compressionMode
+	 *            Compression mode, {@link CompressionMode#NONE} to switch off.
+	 * @param compressionThreshold
+	 *            Serialized size in bytes starting from which the objects are compressed.
+	 */
+	// Added by ISE
+	public void setCompression(CompressionMode compressionMode, int compressionThreshold) {
+		writeReentrantLock.lock();
+		try {
+			this.compressionThreshold = compressionThreshold;
+			this.compressionMode = compressionMode;
+		} finally {
+			writeReentrantLock.unlock();
+		}
+	}
+
 	/**
 	 * @return Returns if any data is queued for writing.
 	 */
@@ -378,6 +547,7 @@ class TcpConnection {
 			// if we are destroyed then we need to clear the idle queue
 			// otherwise we maintain the correct number of streams as connection can be reused in future
 			if (destroy) {
+				releaseCompressors();
 				while (!idleQueue.isEmpty()) {
 					ExtendedByteBufferOutputStream outputStream = idleQueue.poll();
 					if (null != outputStream) {
@@ -403,6 +573,29 @@ class TcpConnection {
 		}
 	}
 
+	/**
+	 * Releases the native resources of the compressors.
+	 */
+	// Added by ISE
+	private void releaseCompressors() {
+		writeReentrantLock.lock();
+		try {
+			if (null != sendCompressor) {
+				sendCompressor.close();
+				sendCompressor = null;
+			}
+			rawOutput = null;
+		} finally {
+			writeReentrantLock.unlock();
+		}
+		synchronized (readCompressorLock) {
+			if (null != readCompressor) {
+				readCompressor.close();
+				readCompressor = null;
+			}
+		}
+	}
+
 	public boolean needsKeepAlive(long time) {
 		return (socketChannel != null) && (keepAliveMillis > 0) && ((time - lastWriteTime) > keepAliveMillis);
 	}
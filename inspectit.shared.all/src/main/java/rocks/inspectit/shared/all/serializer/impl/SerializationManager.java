@@ -127,6 +127,8 @@ import rocks.inspectit.shared.all.instrumentation.config.impl.SensorInstrumentat
 import rocks.inspectit.shared.all.instrumentation.config.impl.SpecialInstrumentationPoint;
 import rocks.inspectit.shared.all.instrumentation.config.impl.StrategyConfig;
 import rocks.inspectit.shared.all.instrumentation.config.impl.SubstitutionDescriptor;
+import rocks.inspectit.shared.all.kryonet.CompressionMode;
+import rocks.inspectit.shared.all.kryonet.CompressionNegotiation;
 import rocks.inspectit.shared.all.pattern.EqualsMatchPattern;
 import rocks.inspectit.shared.all.pattern.WildcardMatchPattern;
 import rocks.inspectit.shared.all.serializer.HibernateAwareClassResolver;
@@ -429,6 +431,10 @@ public class SerializationManager implements ISerializer, IKryoProvider, Initial
 		kryo.register(JSEventListenerExecution.class, new FieldSerializer<JSEventListenerExecution>(kryo, JSEventListenerExecution.class), nextRegistrationId++);
 		kryo.register(JSDomEventListenerExecution.class, new FieldSerializer<JSDomEventListenerExecution>(kryo, JSDomEventListenerExecution.class), nextRegistrationId++);
 		kryo.register(UserSessionInfo.class, new FieldSerializer<UserSessionInfo>(kryo, UserSessionInfo.class), nextRegistrationId++);
+
+		// compression negotiation of the KryoNet connections
+		kryo.register(CompressionMode.class, new EnumSerializer(CompressionMode.class), nextRegistrationId++);
+		kryo.register(CompressionNegotiation.class, new FieldSerializer<CompressionNegotiation>(kryo, CompressionNegotiation.class), nextRegistrationId++);
 	}
 
 	/**
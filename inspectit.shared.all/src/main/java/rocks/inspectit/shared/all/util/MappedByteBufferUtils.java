@@ -0,0 +1,101 @@
+package rocks.inspectit.shared.all.util;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Utility for releasing memory mapped files. The JDK releases a mapping only when the buffer is
+ * garbage collected, until then the mapped file stays locked on Windows and can not be deleted.
+ * The release is done with the internal cleaner of the buffer: on Java 9 and newer via
+ * <code>sun.misc.Unsafe.invokeCleaner</code>, on older versions via the <code>cleaner()</code>
+ * method of the direct buffer.
+ * <p>
+ * <b>Attention:</b> the released buffer must never be accessed again, as this would crash the JVM.
+ *
+ * @author agent
+ *
+ */
+public final class MappedByteBufferUtils {
+
+	/**
+	 * Logger for this class.
+	 */
+	private static final Logger LOG = LoggerFactory.getLogger(MappedByteBufferUtils.class);
+
+	/**
+	 * The <code>sun.misc.Unsafe</code> instance on Java 9 and newer, otherwise <code>null</code>.
+	 */
+	private static final Object UNSAFE;
+
+	/**
+	 * The <code>sun.misc.Unsafe.invokeCleaner(ByteBuffer)</code> method on Java 9 and newer,
+	 * otherwise <code>null</code>.
+	 */
+	private static final Method INVOKE_CLEANER;
+
+	static {
+		Object unsafe = null;
+		Method invokeCleaner = null;
+		try {
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+			Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			unsafe = theUnsafe.get(null);
+		} catch (Exception e) { // NOPMD
+			// Java 8 or older, the cleaner of the buffer is used
+			invokeCleaner = null; // NOPMD
+			unsafe = null; // NOPMD
+		}
+		UNSAFE = unsafe;
+		INVOKE_CLEANER = invokeCleaner;
+	}
+
+	/**
+	 * Hidden constructor.
+	 */
+	private MappedByteBufferUtils() {
+	}
+
+	/**
+	 * Releases the memory mapping of the given buffer. Does nothing if the buffer is
+	 * <code>null</code> or not direct. The buffer must not be used after this method is called.
+	 *
+	 * @param buffer
+	 *            Mapped buffer to release.
+	 * @return <code>true</code> if the mapping was released, <code>false</code> if this was not
+	 *         possible and the mapping will be released only when the buffer is garbage collected.
+	 */
+	public static boolean unmap(ByteBuffer buffer) {
+		if ((null == buffer) || !buffer.isDirect()) {
+			return false;
+		}
+
+		try {
+			if (null != INVOKE_CLEANER) {
+				INVOKE_CLEANER.invoke(UNSAFE, buffer);
+			} else {
+				Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+				cleanerMethod.setAccessible(true);
+				Object cleaner = cleanerMethod.invoke(buffer);
+				if (null == cleaner) {
+					return false;
+				}
+				Method cleanMethod = cleaner.getClass().getMethod("clean");
+				cleanMethod.setAccessible(true);
+				cleanMethod.invoke(cleaner);
+			}
+			return true;
+		} catch (Exception e) {
+			if (LOG.isDebugEnabled()) {
+				LOG.debug("Unable to release the memory mapped buffer.", e);
+			}
+			return false;
+		}
+	}
+
+}
@@ -0,0 +1,151 @@
+package rocks.inspectit.shared.all.kryonet;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.DataFormatException;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * Tests for the {@link FrameCompressor}.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class FrameCompressorTest extends TestBase {
+
+	FrameCompressor frameCompressor;
+
+	@BeforeMethod
+	public void init() {
+		frameCompressor = new FrameCompressor();
+	}
+
+	@AfterMethod
+	public void close() {
+		frameCompressor.close();
+	}
+
+	public static class Compress extends FrameCompressorTest {
+
+		@Test
+		public void compressible() throws DataFormatException {
+			byte[] bytes = new byte[10000];
+			for (int i = 0; i < bytes.length; i++) {
+				bytes[i] = (byte) (i % 16);
+			}
+
+			boolean compressed = frameCompressor.compress(CompressionMode.DEFLATE, bytes, 0, bytes.length);
+
+			assertThat(compressed, is(true));
+			assertThat(frameCompressor.getLength(), is(lessThan(bytes.length)));
+			byte[] result = frameCompressor.decompress(frameCompressor.getBuffer(), 0, frameCompressor.getLength());
+			assertThat(Arrays.equals(result, bytes), is(true));
+		}
+
+		@Test
+		public void withOffset() throws DataFormatException {
+			byte[] bytes = new byte[1000];
+			Arrays.fill(bytes, (byte) 7);
+			bytes[0] = 1;
+
+			boolean compressed = frameCompressor.compress(CompressionMode.DEFLATE, bytes, 1, bytes.length - 1);
+
+			assertThat(compressed, is(true));
+			byte[] result = frameCompressor.decompress(frameCompressor.getBuffer(), 0, frameCompressor.getLength());
+			assertThat(Arrays.equals(result, Arrays.copyOfRange(bytes, 1, bytes.length)), is(true));
+		}
+
+		@Test
+		public void notCompressible() {
+			byte[] bytes = new byte[1000];
+			new Random(1L).nextBytes(bytes);
+
+			boolean compressed = frameCompressor.compress(CompressionMode.DEFLATE, bytes, 0, bytes.length);
+
+			assertThat(compressed, is(false));
+		}
+
+		@Test
+		public void tooSmall() {
+			byte[] bytes = new byte[] { 1, 2, 3 };
+
+			boolean compressed = frameCompressor.compress(CompressionMode.DEFLATE, bytes, 0, bytes.length);
+
+			assertThat(compressed, is(false));
+		}
+
+		@Test
+		public void overMaxLength() {
+			FrameCompressor limited = new FrameCompressor(100);
+			try {
+				boolean compressed = limited.compress(CompressionMode.DEFLATE, new byte[1000], 0, 1000);
+
+				assertThat(compressed, is(false));
+			} finally {
+				limited.close();
+			}
+		}
+
+		@Test(expectedExceptions = IllegalArgumentException.class)
+		public void noCompressionMode() {
+			frameCompressor.compress(CompressionMode.NONE, new byte[10], 0, 10);
+		}
+	}
+
+	public static class Decompress extends FrameCompressorTest {
+
+		@Test(expectedExceptions = DataFormatException.class)
+		public void tooShort() throws DataFormatException {
+			frameCompressor.decompress(new byte[] { 1, 0 }, 0, 2);
+		}
+
+		@Test(expectedExceptions = DataFormatException.class)
+		public void unknownMode() throws DataFormatException {
+			frameCompressor.decompress(new byte[] { 99, 0, 0, 0, 1, 0 }, 0, 6);
+		}
+
+		@Test(expectedExceptions = DataFormatException.class)
+		public void truncated() throws DataFormatException {
+			byte[] bytes = new byte[1000];
+			frameCompressor.compress(CompressionMode.DEFLATE, bytes, 0, bytes.length);
+
+			frameCompressor.decompress(frameCompressor.getBuffer(), 0, frameCompressor.getLength() - 2);
+		}
+
+		@Test(expectedExceptions = DataFormatException.class)
+		public void declaredLengthOverDeflateRatio() throws DataFormatException {
+			byte[] bytes = new byte[1000];
+			frameCompressor.compress(CompressionMode.DEFLATE, bytes, 0, bytes.length);
+			byte[] frame = Arrays.copyOf(frameCompressor.getBuffer(), frameCompressor.getLength());
+			// declare 2GB for the few compressed bytes
+			frame[1] = (byte) 0x7F;
+			frame[2] = (byte) 0xFF;
+			frame[3] = (byte) 0xFF;
+			frame[4] = (byte) 0xFF;
+
+			frameCompressor.decompress(frame, 0, frame.length);
+		}
+
+		@Test(expectedExceptions = DataFormatException.class)
+		public void declaredLengthOverMax() throws DataFormatException {
+			byte[] bytes = new byte[1000];
+			frameCompressor.compress(CompressionMode.DEFLATE, bytes, 0, bytes.length);
+			FrameCompressor limited = new FrameCompressor(100);
+			try {
+				limited.decompress(frameCompressor.getBuffer(), 0, frameCompressor.getLength());
+			} finally {
+				limited.close();
+			}
+		}
+	}
+}
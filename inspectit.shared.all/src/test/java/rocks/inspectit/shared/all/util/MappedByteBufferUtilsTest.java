@@ -0,0 +1,61 @@
+package rocks.inspectit.shared.all.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+
+import org.testng.annotations.Test;
+
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * Test for the {@link MappedByteBufferUtils} class.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class MappedByteBufferUtilsTest extends TestBase {
+
+	public static class Unmap extends MappedByteBufferUtilsTest {
+
+		@Test
+		public void mappedFile() throws IOException {
+			File file = File.createTempFile("mapped", ".tmp");
+			RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+			MappedByteBuffer buffer;
+			try {
+				buffer = randomAccessFile.getChannel().map(MapMode.READ_WRITE, 0, 1024);
+				buffer.putInt(0, 1);
+			} finally {
+				randomAccessFile.close();
+			}
+
+			boolean unmapped = MappedByteBufferUtils.unmap(buffer);
+
+			assertThat(unmapped, is(true));
+			assertThat(file.delete(), is(true));
+		}
+
+		@Test
+		public void heapBuffer() {
+			boolean unmapped = MappedByteBufferUtils.unmap(ByteBuffer.allocate(16));
+
+			assertThat(unmapped, is(false));
+		}
+
+		@Test
+		public void nullBuffer() {
+			boolean unmapped = MappedByteBufferUtils.unmap(null);
+
+			assertThat(unmapped, is(false));
+		}
+	}
+
+}
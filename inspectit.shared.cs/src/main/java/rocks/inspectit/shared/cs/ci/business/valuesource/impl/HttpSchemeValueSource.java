@@ -30,4 +30,29 @@ public class HttpSchemeValueSource extends StringValueSource {
 		HttpTimerData httpData = (HttpTimerData) invocSequence.getTimerData();
 		return new String[] { httpData.getHttpInfo().getScheme() };
 	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		return this.getClass().hashCode();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null) {
+			return false;
+		}
+		if (getClass() != obj.getClass()) {
+			return false;
+		}
+		return true;
+	}
 }
@@ -60,6 +60,14 @@ public class EndUserMonitoringConfig {
 	@XmlAttribute(name = "agentMinificationEnabled", required = true)
 	private boolean agentMinificationEnabled = true;
 
+	/**
+	 * Flag whether the agent processes the beacons asynchronously. If enabled, the beacon request
+	 * is answered as soon as the beacon header is decoded, while the beacon elements are decoded
+	 * and sent in the background. Optional, so that existing configurations stay valid.
+	 */
+	@XmlAttribute(name = "beaconProcessingAsync", required = false)
+	private boolean beaconProcessingAsync = false;
+
 	/**
 	 * Gets {@link #eumEnabled}.
 	 *
@@ -174,6 +182,25 @@ public class EndUserMonitoringConfig {
 		this.agentMinificationEnabled = agentMinificationEnabled;
 	}
 
+	/**
+	 * Gets {@link #beaconProcessingAsync}.
+	 *
+	 * @return {@link #beaconProcessingAsync}
+	 */
+	public boolean isBeaconProcessingAsync() {
+		return this.beaconProcessingAsync;
+	}
+
+	/**
+	 * Sets {@link #beaconProcessingAsync}.
+	 *
+	 * @param beaconProcessingAsync
+	 *            New value for {@link #beaconProcessingAsync}
+	 */
+	public void setBeaconProcessingAsync(boolean beaconProcessingAsync) {
+		this.beaconProcessingAsync = beaconProcessingAsync;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -183,6 +210,7 @@ public class EndUserMonitoringConfig {
 		int result = 1;
 		result = (prime * result) + ((this.activeModules == null) ? 0 : this.activeModules.hashCode());
 		result = (prime * result) + (this.agentMinificationEnabled ? 1231 : 1237);
+		result = (prime * result) + (this.beaconProcessingAsync ? 1231 : 1237);
 		result = (prime * result) + (this.eumEnabled ? 1231 : 1237);
 		result = (prime * result) + (this.listenerInstrumentationAllowed ? 1231 : 1237);
 		result = (prime * result) + this.relevancyThreshold;
@@ -215,6 +243,9 @@ public class EndUserMonitoringConfig {
 		if (this.agentMinificationEnabled != other.agentMinificationEnabled) {
 			return false;
 		}
+		if (this.beaconProcessingAsync != other.beaconProcessingAsync) {
+			return false;
+		}
 		if (this.eumEnabled != other.eumEnabled) {
 			return false;
 		}
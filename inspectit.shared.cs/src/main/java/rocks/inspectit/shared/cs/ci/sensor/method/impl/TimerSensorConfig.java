@@ -1,5 +1,8 @@
 package rocks.inspectit.shared.cs.ci.sensor.method.impl;
 
+import java.util.Map;
+
+import javax.xml.bind.annotation.XmlAttribute;
 import javax.xml.bind.annotation.XmlRootElement;
 
 import rocks.inspectit.shared.all.instrumentation.config.PriorityEnum;
@@ -25,6 +28,13 @@ public class TimerSensorConfig extends StringConstraintSensorConfig implements I
 	 */
 	public static final String CLASS_NAME = "rocks.inspectit.agent.java.sensor.method.timer.TimerSensor";
 
+	/**
+	 * Interval in milliseconds in which the agent aggregates the timer data of the same method
+	 * before sending. Zero or negative values mean that no aggregation is performed.
+	 */
+	@XmlAttribute(name = "aggregation-interval")
+	private long aggregationInterval;
+
 	/**
 	 * No-args constructor.
 	 */
@@ -64,4 +74,69 @@ public class TimerSensorConfig extends StringConstraintSensorConfig implements I
 		return false;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Map<String, Object> getParameters() {
+		Map<String, Object> parameters = super.getParameters();
+
+		if (aggregationInterval > 0) {
+			parameters.put("aggregationInterval", String.valueOf(aggregationInterval));
+		}
+
+		return parameters;
+	}
+
+	/**
+	 * Gets {@link #aggregationInterval}.
+	 *
+	 * @return {@link #aggregationInterval}
+	 */
+	public long getAggregationInterval() {
+		return this.aggregationInterval;
+	}
+
+	/**
+	 * Sets {@link #aggregationInterval}.
+	 *
+	 * @param aggregationInterval
+	 *            New value for {@link #aggregationInterval}
+	 */
+	public void setAggregationInterval(long aggregationInterval) {
+		this.aggregationInterval = aggregationInterval;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = super.hashCode();
+		result = (prime * result) + (int) (aggregationInterval ^ (aggregationInterval >>> 32));
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!super.equals(obj)) {
+			return false;
+		}
+		if (getClass() != obj.getClass()) {
+			return false;
+		}
+		TimerSensorConfig other = (TimerSensorConfig) obj;
+		if (aggregationInterval != other.aggregationInterval) {
+			return false;
+		}
+		return true;
+	}
+
 }
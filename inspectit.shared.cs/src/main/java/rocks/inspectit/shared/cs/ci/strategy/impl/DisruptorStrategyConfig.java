@@ -1,6 +1,6 @@
 package rocks.inspectit.shared.cs.ci.strategy.impl;
 
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 
 import javax.xml.bind.annotation.XmlAccessType;
@@ -38,6 +38,21 @@ public class DisruptorStrategyConfig implements IStrategyConfig {
 	@XmlAttribute(name = "buffer-size", required = true)
 	private int bufferSize = DEFAULT_BUFFER_SIZE;
 
+	/**
+	 * Maximum size in megabytes of the disk spool where the agent keeps the data while the CMR is
+	 * not reachable. Zero or negative values mean that the spool is not active and data is dropped
+	 * when the CMR is not reachable.
+	 */
+	@XmlAttribute(name = "spool-max-size")
+	private int spoolMaxSize;
+
+	/**
+	 * Maximum age in minutes of the data in the disk spool. Older data is dropped and never sent to
+	 * the CMR. Zero or negative values mean that there is no age limit.
+	 */
+	@XmlAttribute(name = "spool-max-age")
+	private int spoolMaxAge;
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -51,7 +66,15 @@ public class DisruptorStrategyConfig implements IStrategyConfig {
 	 */
 	@Override
 	public Map<String, String> getSettings() {
-		return Collections.singletonMap("bufferSize", String.valueOf(bufferSize));
+		Map<String, String> settings = new HashMap<>(3);
+		settings.put("bufferSize", String.valueOf(bufferSize));
+		if (spoolMaxSize > 0) {
+			settings.put("spoolMaxSize", String.valueOf(spoolMaxSize * 1024L * 1024L));
+			if (spoolMaxAge > 0) {
+				settings.put("spoolMaxAge", String.valueOf(spoolMaxAge * 60L * 1000L));
+			}
+		}
+		return settings;
 	}
 
 	/**
@@ -94,6 +117,44 @@ public class DisruptorStrategyConfig implements IStrategyConfig {
 		this.bufferSize = checkPowerOfTwo(bufferSize, DEFAULT_BUFFER_SIZE);
 	}
 
+	/**
+	 * Gets {@link #spoolMaxSize}.
+	 *
+	 * @return {@link #spoolMaxSize}
+	 */
+	public int getSpoolMaxSize() {
+		return this.spoolMaxSize;
+	}
+
+	/**
+	 * Sets {@link #spoolMaxSize}.
+	 *
+	 * @param spoolMaxSize
+	 *            New value for {@link #spoolMaxSize}
+	 */
+	public void setSpoolMaxSize(int spoolMaxSize) {
+		this.spoolMaxSize = spoolMaxSize;
+	}
+
+	/**
+	 * Gets {@link #spoolMaxAge}.
+	 *
+	 * @return {@link #spoolMaxAge}
+	 */
+	public int getSpoolMaxAge() {
+		return this.spoolMaxAge;
+	}
+
+	/**
+	 * Sets {@link #spoolMaxAge}.
+	 *
+	 * @param spoolMaxAge
+	 *            New value for {@link #spoolMaxAge}
+	 */
+	public void setSpoolMaxAge(int spoolMaxAge) {
+		this.spoolMaxAge = spoolMaxAge;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -102,6 +163,8 @@ public class DisruptorStrategyConfig implements IStrategyConfig {
 		final int prime = 31;
 		int result = 1;
 		result = (prime * result) + this.bufferSize;
+		result = (prime * result) + this.spoolMaxSize;
+		result = (prime * result) + this.spoolMaxAge;
 		return result;
 	}
 
@@ -123,6 +186,12 @@ public class DisruptorStrategyConfig implements IStrategyConfig {
 		if (this.bufferSize != other.bufferSize) {
 			return false;
 		}
+		if (this.spoolMaxSize != other.spoolMaxSize) {
+			return false;
+		}
+		if (this.spoolMaxAge != other.spoolMaxAge) {
+			return false;
+		}
 		return true;
 	}
 
@@ -131,7 +200,7 @@ public class DisruptorStrategyConfig implements IStrategyConfig {
 	 */
 	@Override
 	public String toString() {
-		return "DisruptorStrategyConfig [bufferSize=" + this.bufferSize + "]";
+		return "DisruptorStrategyConfig [bufferSize=" + this.bufferSize + ", spoolMaxSize=" + this.spoolMaxSize + ", spoolMaxAge=" + this.spoolMaxAge + "]";
 	}
 
 }
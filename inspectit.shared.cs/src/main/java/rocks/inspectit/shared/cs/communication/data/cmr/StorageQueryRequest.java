@@ -0,0 +1,165 @@
+package rocks.inspectit.shared.cs.communication.data.cmr;
+
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.cs.indexing.aggregation.IAggregator;
+import rocks.inspectit.shared.cs.indexing.storage.impl.StorageIndexQuery;
+
+/**
+ * Request for executing the query on the storage directly on the CMR. The request is sent
+ * serialized with Kryo in the body of the POST request to the {@value #SERVLET_PATH}.
+ * <p>
+ * The CMR answers with the results in chunks. Each chunk starts with the number of objects in the
+ * chunk, followed by the Kryo serialized objects. The end of the results is marked with the chunk
+ * size of {@value #END_OF_RESULTS}, while the {@value #QUERY_FAILED} signals that the query failed
+ * on the CMR.
+ *
+ * @author agent
+ *
+ */
+public class StorageQueryRequest {
+
+	/**
+	 * Path of the CMR servlet that executes the storage queries.
+	 */
+	public static final String SERVLET_PATH = "/storagequery";
+
+	/**
+	 * Chunk size marking the end of the results.
+	 */
+	public static final int END_OF_RESULTS = 0;
+
+	/**
+	 * Chunk size marking that the query failed.
+	 */
+	public static final int QUERY_FAILED = -1;
+
+	/**
+	 * Id of the storage to query.
+	 */
+	private String storageId;
+
+	/**
+	 * Query to execute.
+	 */
+	private StorageIndexQuery storageIndexQuery;
+
+	/**
+	 * Aggregator to aggregate results with, can be <code>null</code>.
+	 */
+	private IAggregator<DefaultData> aggregator;
+
+	/**
+	 * Max amount of results, <code>-1</code> means no limit.
+	 */
+	private int limit = -1;
+
+	/**
+	 * No-arg constructor.
+	 */
+	public StorageQueryRequest() {
+	}
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param storageId
+	 *            Id of the storage to query.
+	 * @param storageIndexQuery
+	 *            Query to execute.
+	 * @param aggregator
+	 *            Aggregator to aggregate results with, can be <code>null</code>.
+	 * @param limit
+	 *            Max amount of results, <code>-1</code> means no limit.
+	 */
+	public StorageQueryRequest(String storageId, StorageIndexQuery storageIndexQuery, IAggregator<DefaultData> aggregator, int limit) {
+		this.storageId = storageId;
+		this.storageIndexQuery = storageIndexQuery;
+		this.aggregator = aggregator;
+		this.limit = limit;
+	}
+
+	/**
+	 * Gets {@link #storageId}.
+	 *
+	 * @return {@link #storageId}
+	 */
+	public String getStorageId() {
+		return this.storageId;
+	}
+
+	/**
+	 * Sets {@link #storageId}.
+	 *
+	 * @param storageId
+	 *            New value for {@link #storageId}
+	 */
+	public void setStorageId(String storageId) {
+		this.storageId = storageId;
+	}
+
+	/**
+	 * Gets {@link #storageIndexQuery}.
+	 *
+	 * @return {@link #storageIndexQuery}
+	 */
+	public StorageIndexQuery getStorageIndexQuery() {
+		return this.storageIndexQuery;
+	}
+
+	/**
+	 * Sets {@link #storageIndexQuery}.
+	 *
+	 * @param storageIndexQuery
+	 *            New value for {@link #storageIndexQuery}
+	 */
+	public void setStorageIndexQuery(StorageIndexQuery storageIndexQuery) {
+		this.storageIndexQuery = storageIndexQuery;
+	}
+
+	/**
+	 * Gets {@link #aggregator}.
+	 *
+	 * @return {@link #aggregator}
+	 */
+	public IAggregator<DefaultData> getAggregator() {
+		return this.aggregator;
+	}
+
+	/**
+	 * Sets {@link #aggregator}.
+	 *
+	 * @param aggregator
+	 *            New value for {@link #aggregator}
+	 */
+	public void setAggregator(IAggregator<DefaultData> aggregator) {
+		this.aggregator = aggregator;
+	}
+
+	/**
+	 * Gets {@link #limit}.
+	 *
+	 * @return {@link #limit}
+	 */
+	public int getLimit() {
+		return this.limit;
+	}
+
+	/**
+	 * Sets {@link #limit}.
+	 *
+	 * @param limit
+	 *            New value for {@link #limit}
+	 */
+	public void setLimit(int limit) {
+		this.limit = limit;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "StorageQueryRequest [storageId=" + this.storageId + ", storageIndexQuery=" + this.storageIndexQuery + ", aggregator=" + this.aggregator + ", limit=" + this.limit + "]";
+	}
+
+}
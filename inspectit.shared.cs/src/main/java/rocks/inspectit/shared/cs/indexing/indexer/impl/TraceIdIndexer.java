@@ -0,0 +1,90 @@
+package rocks.inspectit.shared.cs.indexing.indexer.impl;
+
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.indexing.IIndexQuery;
+import rocks.inspectit.shared.all.tracing.data.AbstractSpan;
+import rocks.inspectit.shared.all.tracing.data.SpanIdent;
+import rocks.inspectit.shared.cs.indexing.indexer.AbstractSharedInstanceBranchIndexer;
+import rocks.inspectit.shared.cs.indexing.indexer.IBranchIndexer;
+import rocks.inspectit.shared.cs.indexing.storage.impl.StorageIndexQuery;
+
+/**
+ * Indexer that indexes spans based on the trace id, so that all spans of one trace are in the same
+ * branch. All other objects types are indexed with same key.
+ *
+ * @author agent
+ *
+ * @param <E>
+ */
+public class TraceIdIndexer<E extends DefaultData> extends AbstractSharedInstanceBranchIndexer<E> implements IBranchIndexer<E> {
+
+	/**
+	 * Maximum amount of branches/leaf that can be created by this indexer. Negative values means no
+	 * limit.
+	 */
+	private final int maxKeys;
+
+	/**
+	 * Default constructor. Adds no limit on the maximum amount of keys created.
+	 */
+	public TraceIdIndexer() {
+		this(-1);
+	}
+
+	/**
+	 * Additional constructor. Sets the amount of maximum keys that will be created. If unlimited
+	 * keys should be used, construct object with no-arg constructor or pass the non-positive
+	 * number.
+	 *
+	 * @param maxKeys
+	 *            Max keys that can be created by this indexer.
+	 */
+	public TraceIdIndexer(int maxKeys) {
+		this.maxKeys = maxKeys;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object getKey(E element) {
+		if (element instanceof AbstractSpan) {
+			SpanIdent spanIdent = ((AbstractSpan) element).getSpanIdent();
+			if (null != spanIdent) {
+				return getInternalKey(spanIdent.getTraceId());
+			}
+		}
+		return 0L;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object[] getKeys(IIndexQuery query) {
+		if (query instanceof StorageIndexQuery) {
+			if (0 != ((StorageIndexQuery) query).getTraceId()) {
+				Object[] keys = new Object[1];
+				keys[0] = getInternalKey(((StorageIndexQuery) query).getTraceId());
+				return keys;
+			}
+		}
+		return new Object[0];
+	}
+
+	/**
+	 * Internal key function depending on the {@link #maxKeys}.
+	 *
+	 * @param traceId
+	 *            Trace id to transform.
+	 * @return Key that can be used.
+	 */
+	private Long getInternalKey(long traceId) {
+		if (maxKeys > 0) {
+			return Long.valueOf(Math.abs(traceId % maxKeys));
+		} else {
+			return traceId;
+		}
+	}
+
+}
@@ -1,9 +1,13 @@
 package rocks.inspectit.shared.cs.indexing.restriction.impl;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.slf4j.Logger;
 import org.springframework.stereotype.Component;
@@ -13,9 +17,17 @@ import rocks.inspectit.shared.all.spring.logger.Log;
 import rocks.inspectit.shared.cs.indexing.restriction.IIndexQueryRestrictionProcessor;
 
 /**
- * This restriction processor caches the methods of each class that needs to be invoke. It also
- * marks in the cache all method that do not exist for specific class and an attempt to find them
- * was made.
+ * This restriction processor resolves the getter methods that need to be invoked for the
+ * restrictions into {@link MethodHandle}s. The getters are resolved once per runtime class of the
+ * object they are invoked on and method name and are cached. This holds for the getters on the
+ * navigation path as well, so the getters of subclasses of the declared return types are found. It
+ * also marks in the cache all getters that can not be resolved for specific class and an attempt
+ * to find them was made. Getters that are not accessible as method handles are invoked via
+ * reflection.
+ * <p>
+ * If the last getter returns a <code>long</code>, <code>int</code> or <code>double</code> and the
+ * restriction is a {@link ComparableIndexQueryRestriction} with the restriction value of the same
+ * type, the comparison is executed without boxing of the field value.
  *
  * @author Ivan Senic
  *
@@ -24,33 +36,25 @@ import rocks.inspectit.shared.cs.indexing.restriction.IIndexQueryRestrictionProc
 public class CachingIndexQueryRestrictionProcessor implements IIndexQueryRestrictionProcessor {
 
 	/**
-	 * The logger.
+	 * Marker getter for the methods that can not be resolved.
 	 */
-	@Log
-	Logger log;
+	private static final Getter NOT_RESOLVABLE = new Getter(null, null, null, null);
 
 	/**
-	 * Map for caching methods.
+	 * Generic type of the handles, taking the object and returning the (boxed) value.
 	 */
-	private final ConcurrentHashMap<Integer, Method> cacheMap;
+	private static final MethodType OBJECT_GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
 
 	/**
-	 * Marker method.
+	 * The logger.
 	 */
-	private Method markerMethod;
+	@Log
+	Logger log;
 
 	/**
-	 * Default constructor. Sets {@link #markerMethod} to refer to {@link Object#toString()}.
+	 * Map for caching the resolved getters per class and method name.
 	 */
-	public CachingIndexQueryRestrictionProcessor() {
-		cacheMap = new ConcurrentHashMap<>();
-		try {
-			// setting marker method to point to Object.toString()
-			markerMethod = Object.class.getMethod("toString", new Class[0]);
-		} catch (Exception e) {
-			throw new IllegalStateException("Method toString() can not be found", e);
-		}
-	}
+	private final ConcurrentMap<Class<?>, ConcurrentMap<String, Getter>> cacheMap = new ConcurrentHashMap<>();
 
 	/**
 	 * {@inheritDoc}
@@ -66,7 +70,9 @@ public class CachingIndexQueryRestrictionProcessor implements IIndexQueryRestric
 	}
 
 	/**
-	 * Checks if one {@link IIndexQueryRestriction} is fulfilled.
+	 * Checks if one {@link IIndexQueryRestriction} is fulfilled. Restriction is not fulfilled if
+	 * any object on the navigation path is <code>null</code> or if the restriction value is not
+	 * comparable to the field value.
 	 *
 	 * @param object
 	 *            to start from
@@ -77,75 +83,232 @@ public class CachingIndexQueryRestrictionProcessor implements IIndexQueryRestric
 	 */
 	private boolean isRestrictionFulfilled(Object object, IIndexQueryRestriction indexingRestriction) {
 		List<String> methodNames = indexingRestriction.getQualifiedMethodNames();
+		if (methodNames.isEmpty()) {
+			return false;
+		}
 
 		try {
 			Object executeOn = object;
-			for (String methodName : methodNames) {
-				Method method = getMethod(executeOn, methodName);
-				if (null == method) {
+			int last = methodNames.size() - 1;
+			for (int i = 0; i < last; i++) {
+				Getter getter = getGetter(executeOn.getClass(), methodNames.get(i));
+				if (NOT_RESOLVABLE == getter) { // NOPMD
+					return false;
+				}
+				executeOn = getter.get(executeOn);
+				if (null == executeOn) {
 					return false;
 				}
-				executeOn = method.invoke(executeOn, new Object[0]);
 			}
 
-			return indexingRestriction.isFulfilled(executeOn);
+			Getter getter = getGetter(executeOn.getClass(), methodNames.get(last));
+			if (NOT_RESOLVABLE == getter) { // NOPMD
+				return false;
+			}
+			return getter.isFulfilled(executeOn, indexingRestriction);
 		} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
 			log.error("Error in find object to execute indexing restricton check.", e);
 			return false;
+		} catch (ClassCastException e) {
+			// restriction value can not be compared to the field value, for example a long
+			// restriction on an int field, thus the restriction can not be fulfilled
+			return false;
 		}
 	}
 
 	/**
-	 * Returns the {@link Method} for the given {@link Object} with the given method name.
+	 * Returns the {@link Getter} for the given class and method name. The getter is resolved on
+	 * first request and cached afterwards.
 	 *
-	 * @param object
-	 *            Object to find method on.
+	 * @param clazz
+	 *            Runtime class of the object to invoke the getter on.
 	 * @param methodName
-	 *            Name of the method.
-	 * @return Method if one can be found.
+	 *            Name of the getter method.
+	 * @return Getter or {@link #NOT_RESOLVABLE} marker if getter can not be resolved for the
+	 *         class.
 	 */
-	private Method getMethod(Object object, String methodName) {
-		int cacheKey = getMethodCacheKey(object.getClass(), methodName);
-		Method method = cacheMap.get(cacheKey);
+	private Getter getGetter(Class<?> clazz, String methodName) {
+		ConcurrentMap<String, Getter> classCache = cacheMap.get(clazz);
+		if (null == classCache) {
+			classCache = new ConcurrentHashMap<>();
+			ConcurrentMap<String, Getter> existing = cacheMap.putIfAbsent(clazz, classCache);
+			if (null != existing) {
+				classCache = existing;
+			}
+		}
 
-		if (method == null) { // method is not yet in cache
-			try {
-				Method methodFromClass = object.getClass().getMethod(methodName, new Class<?>[0]);
-				Method existing = cacheMap.putIfAbsent(cacheKey, methodFromClass);
-				if (null != existing) {
-					methodFromClass = existing;
-				}
-				return methodFromClass;
-			} catch (NoSuchMethodException e) {
-				// not found, put marker method at this place in map
-				cacheMap.putIfAbsent(cacheKey, markerMethod);
-				return null;
-			} catch (SecurityException | IllegalArgumentException e) {
-				log.error("Error retrieve the method " + methodName + " for the object of class " + object.getClass(), e);
-				return null;
+		Getter getter = classCache.get(methodName);
+		if (null == getter) {
+			getter = resolve(clazz, methodName);
+			Getter existing = classCache.putIfAbsent(methodName, getter);
+			if (null != existing) {
+				getter = existing;
 			}
-		} else if (markerMethod.equals(method)) {
-			return null;
-		} else {
-			return method;
 		}
+		return getter;
 	}
 
 	/**
-	 * Returns key for the hash map based on the supplied class and method name.
+	 * Resolves the getter method of the class into a {@link Getter}. Methods that can not be
+	 * accessed as method handles, for example public methods of non-public classes, are invoked
+	 * via reflection.
 	 *
 	 * @param clazz
-	 *            class
+	 *            Runtime class of the object to invoke the getter on.
 	 * @param methodName
-	 *            method name
-	 * @return int key
+	 *            Name of the getter method.
+	 * @return Getter or {@link #NOT_RESOLVABLE} marker if getter can not be resolved for the
+	 *         class.
+	 */
+	private Getter resolve(Class<?> clazz, String methodName) {
+		Method method;
+		try {
+			method = clazz.getMethod(methodName);
+		} catch (NoSuchMethodException e) {
+			// not found, put marker at this place in map
+			return NOT_RESOLVABLE;
+		} catch (SecurityException e) {
+			log.error("Error retrieve the method " + methodName + " for the object of class " + clazz, e);
+			return NOT_RESOLVABLE;
+		}
+
+		Class<?> valueType = method.getReturnType();
+		try {
+			MethodHandle valueHandle = MethodHandles.publicLookup().unreflect(method);
+			MethodHandle primitiveValueHandle = null;
+			if ((long.class == valueType) || (int.class == valueType) || (double.class == valueType)) {
+				primitiveValueHandle = valueHandle.asType(MethodType.methodType(valueType, Object.class));
+			}
+			return new Getter(null, valueHandle.asType(OBJECT_GETTER_TYPE), primitiveValueHandle, valueType);
+		} catch (IllegalAccessException e) {
+			try {
+				method.setAccessible(true);
+			} catch (SecurityException securityException) {
+				log.error("Error retrieve the method " + methodName + " for the object of class " + clazz, securityException);
+				return NOT_RESOLVABLE;
+			}
+			return new Getter(method, null, null, valueType);
+		}
+	}
+
+	/**
+	 * Getter method resolved for one class of the objects.
+	 *
+	 * @author agent
+	 *
 	 */
-	private int getMethodCacheKey(Class<?> clazz, String methodName) {
-		final int prime = 31;
-		int result = 0;
-		result = (prime * result) + ((clazz == null) ? 0 : clazz.hashCode());
-		result = (prime * result) + ((methodName == null) ? 0 : methodName.hashCode());
-		return result;
+	private static final class Getter {
+
+		/**
+		 * Method to invoke via reflection or <code>null</code> if {@link #valueHandle} is used.
+		 */
+		private final Method method;
+
+		/**
+		 * Handle returning the boxed value or <code>null</code> if {@link #method} is used.
+		 */
+		private final MethodHandle valueHandle;
+
+		/**
+		 * Handle returning the primitive value or <code>null</code> if value is not of
+		 * <code>long</code>, <code>int</code> or <code>double</code> type or {@link #method} is
+		 * used.
+		 */
+		private final MethodHandle primitiveValueHandle;
+
+		/**
+		 * Type of the value.
+		 */
+		private final Class<?> valueType;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param method
+		 *            Method to invoke via reflection.
+		 * @param valueHandle
+		 *            Handle returning the boxed value.
+		 * @param primitiveValueHandle
+		 *            Handle returning the primitive value.
+		 * @param valueType
+		 *            Type of the value.
+		 */
+		Getter(Method method, MethodHandle valueHandle, MethodHandle primitiveValueHandle, Class<?> valueType) {
+			this.method = method;
+			this.valueHandle = valueHandle;
+			this.primitiveValueHandle = primitiveValueHandle;
+			this.valueType = valueType;
+		}
+
+		/**
+		 * Invokes the getter on the object.
+		 *
+		 * @param object
+		 *            Object of the class the getter was resolved for.
+		 * @return Returns the value.
+		 * @throws IllegalAccessException
+		 *             If reflective invocation is not allowed.
+		 * @throws InvocationTargetException
+		 *             If the getter throws an exception.
+		 */
+		Object get(Object object) throws IllegalAccessException, InvocationTargetException {
+			if (null == valueHandle) {
+				return method.invoke(object);
+			}
+
+			try {
+				return valueHandle.invokeExact(object);
+			} catch (Error e) {
+				throw e;
+			} catch (Throwable t) { // NOPMD
+				// invokeExact declares Throwable, wrap exceptions of the getter as the reflective
+				// invocation does
+				throw new InvocationTargetException(t);
+			}
+		}
+
+		/**
+		 * Checks if the restriction is fulfilled for the value of the getter.
+		 *
+		 * @param object
+		 *            Object of the class the getter was resolved for.
+		 * @param indexingRestriction
+		 *            {@link IIndexQueryRestriction} to check.
+		 * @return <code>true</code> if the indexing restriction is fulfilled.
+		 * @throws IllegalAccessException
+		 *             If reflective invocation is not allowed.
+		 * @throws InvocationTargetException
+		 *             If the getter throws an exception.
+		 * @throws ClassCastException
+		 *             If the restriction value is not comparable to the field value.
+		 */
+		boolean isFulfilled(Object object, IIndexQueryRestriction indexingRestriction) throws IllegalAccessException, InvocationTargetException {
+			if ((null != primitiveValueHandle) && (indexingRestriction instanceof ComparableIndexQueryRestriction)) {
+				ComparableIndexQueryRestriction comparableRestriction = (ComparableIndexQueryRestriction) indexingRestriction;
+				Object restrictionValue = comparableRestriction.getRestrictionValue();
+				try {
+					if ((long.class == valueType) && (restrictionValue instanceof Long)) {
+						long value = (long) primitiveValueHandle.invokeExact(object);
+						return comparableRestriction.isComparisonFulfilled(Long.compare(((Long) restrictionValue).longValue(), value));
+					} else if ((int.class == valueType) && (restrictionValue instanceof Integer)) {
+						int value = (int) primitiveValueHandle.invokeExact(object);
+						return comparableRestriction.isComparisonFulfilled(Integer.compare(((Integer) restrictionValue).intValue(), value));
+					} else if ((double.class == valueType) && (restrictionValue instanceof Double)) {
+						double value = (double) primitiveValueHandle.invokeExact(object);
+						return comparableRestriction.isComparisonFulfilled(Double.compare(((Double) restrictionValue).doubleValue(), value));
+					}
+				} catch (Error e) {
+					throw e;
+				} catch (Throwable t) { // NOPMD
+					// invokeExact declares Throwable, wrap exceptions of the getter as the reflective
+					// invocation does
+					throw new InvocationTargetException(t);
+				}
+			}
+
+			return indexingRestriction.isFulfilled(get(object));
+		}
+
 	}
 
 }
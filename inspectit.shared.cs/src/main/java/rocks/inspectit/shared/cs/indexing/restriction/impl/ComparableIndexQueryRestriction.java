@@ -39,4 +39,32 @@ public abstract class ComparableIndexQueryRestriction extends AbstractIndexQuery
 		return restrictionValue;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Compares the restriction value to the supplied object, by terms of
+	 * {@link Comparable#compareTo(Object)} method. If restriction value is null, method will return
+	 * false.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean isFulfilled(Object fieldValue) {
+		if (null == restrictionValue) {
+			return false;
+		}
+		return isComparisonFulfilled(restrictionValue.compareTo(fieldValue));
+	}
+
+	/**
+	 * Checks if the result of comparing the restriction value to the field value fulfills this
+	 * restriction. This allows the comparison to be executed without boxing when the field is of
+	 * a primitive type.
+	 *
+	 * @param comparison
+	 *            Result of comparing restriction value to the field value, with the semantics of
+	 *            {@link Comparable#compareTo(Object)}.
+	 * @return True if the restriction is fulfilled for the given comparison result.
+	 */
+	protected abstract boolean isComparisonFulfilled(int comparison);
+
 }
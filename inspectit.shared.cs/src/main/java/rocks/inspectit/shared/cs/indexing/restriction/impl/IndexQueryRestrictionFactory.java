@@ -283,21 +283,11 @@ public final class IndexQueryRestrictionFactory {
 		/**
 		 * {@inheritDoc}
 		 * <p>
-		 * Checks if the supplied object is greater than the restriction value, by terms of
-		 * {@link Comparable#compareTo(Object)} method. If restriction value is null, method will
-		 * return false.
-		 *
-		 * @param object
-		 * @returns
-		 * @see Comparable#compareTo(Object)
+		 * Checks if the supplied object is greater than the restriction value.
 		 */
 		@Override
-		@SuppressWarnings("unchecked")
-		public boolean isFulfilled(Object object) {
-			if (null == getRestrictionValue()) {
-				return false;
-			}
-			return 0 > getRestrictionValue().compareTo(object);
+		protected boolean isComparisonFulfilled(int comparison) {
+			return 0 > comparison;
 		}
 
 	}
@@ -327,21 +317,11 @@ public final class IndexQueryRestrictionFactory {
 		/**
 		 * {@inheritDoc}
 		 * <p>
-		 * Checks if the supplied object is greater or equal than the restriction value, by terms of
-		 * {@link Comparable#compareTo(Object)} method. If restriction value is null, method will
-		 * return false.
-		 *
-		 * @param object
-		 * @returns
-		 * @see Comparable#compareTo(Object)
+		 * Checks if the supplied object is greater or equal than the restriction value.
 		 */
 		@Override
-		@SuppressWarnings("unchecked")
-		public boolean isFulfilled(Object object) {
-			if (null == getRestrictionValue()) {
-				return false;
-			}
-			return 0 >= getRestrictionValue().compareTo(object);
+		protected boolean isComparisonFulfilled(int comparison) {
+			return 0 >= comparison;
 		}
 
 	}
@@ -371,21 +351,11 @@ public final class IndexQueryRestrictionFactory {
 		/**
 		 * {@inheritDoc}
 		 * <p>
-		 * Checks if the supplied object is less than the restriction value, by terms of
-		 * {@link Comparable#compareTo(Object)} method. If restriction value is null, method will
-		 * return false.
-		 *
-		 * @param object
-		 * @returns
-		 * @see Comparable#compareTo(Object)
+		 * Checks if the supplied object is less than the restriction value.
 		 */
 		@Override
-		@SuppressWarnings("unchecked")
-		public boolean isFulfilled(Object object) {
-			if (null == getRestrictionValue()) {
-				return false;
-			}
-			return 0 < getRestrictionValue().compareTo(object);
+		protected boolean isComparisonFulfilled(int comparison) {
+			return 0 < comparison;
 		}
 
 	}
@@ -415,21 +385,11 @@ public final class IndexQueryRestrictionFactory {
 		/**
 		 * {@inheritDoc}
 		 * <p>
-		 * Checks if the supplied object is less or equal than the restriction value, by terms of
-		 * {@link Comparable#compareTo(Object)} method. If restriction value is null, method will
-		 * return false.
-		 *
-		 * @param object
-		 * @returns
-		 * @see Comparable#compareTo(Object)
+		 * Checks if the supplied object is less or equal than the restriction value.
 		 */
 		@Override
-		@SuppressWarnings("unchecked")
-		public boolean isFulfilled(Object object) {
-			if (null == getRestrictionValue()) {
-				return false;
-			}
-			return 0 <= getRestrictionValue().compareTo(object);
+		protected boolean isComparisonFulfilled(int comparison) {
+			return 0 <= comparison;
 		}
 
 	}
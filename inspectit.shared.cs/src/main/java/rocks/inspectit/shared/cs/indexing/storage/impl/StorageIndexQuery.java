@@ -42,6 +42,11 @@ public class StorageIndexQuery extends IndexQuery {
 	 */
 	private String sql;
 
+	/**
+	 * Wanted trace id. Value <code>0</code> means that the trace id is not restricted.
+	 */
+	private long traceId;
+
 	/**
 	 * @return the onlyInvocationsWithoutChildren
 	 */
@@ -106,6 +111,25 @@ public class StorageIndexQuery extends IndexQuery {
 		this.sql = sql;
 	}
 
+	/**
+	 * Gets {@link #traceId}.
+	 *
+	 * @return {@link #traceId}
+	 */
+	public long getTraceId() {
+		return traceId;
+	}
+
+	/**
+	 * Sets {@link #traceId}.
+	 *
+	 * @param traceId
+	 *            New value for {@link #traceId}
+	 */
+	public void setTraceId(long traceId) {
+		this.traceId = traceId;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -117,6 +141,7 @@ public class StorageIndexQuery extends IndexQuery {
 		result = (prime * result) + ((includeIds == null) ? 0 : includeIds.hashCode());
 		result = (prime * result) + (onlyInvocationsWithoutChildren ? 1231 : 1237);
 		result = (prime * result) + ((sql == null) ? 0 : sql.hashCode());
+		result = (prime * result) + (int) (traceId ^ (traceId >>> 32));
 		return result;
 	}
 
@@ -159,6 +184,9 @@ public class StorageIndexQuery extends IndexQuery {
 		} else if (!sql.equals(other.sql)) {
 			return false;
 		}
+		if (traceId != other.traceId) {
+			return false;
+		}
 		return true;
 	}
 
@@ -180,6 +208,7 @@ public class StorageIndexQuery extends IndexQuery {
 		toStringBuilder.append("includeIds", includeIds);
 		toStringBuilder.append("excludeIds", excludeIds);
 		toStringBuilder.append("sql", sql);
+		toStringBuilder.append("traceId", traceId);
 		return toStringBuilder.toString();
 	}
 }
@@ -10,6 +10,7 @@ import rocks.inspectit.shared.cs.indexing.indexer.impl.ObjectTypeIndexer;
 import rocks.inspectit.shared.cs.indexing.indexer.impl.PlatformIdentIndexer;
 import rocks.inspectit.shared.cs.indexing.indexer.impl.SqlStringIndexer;
 import rocks.inspectit.shared.cs.indexing.indexer.impl.TimestampIndexer;
+import rocks.inspectit.shared.cs.indexing.indexer.impl.TraceIdIndexer;
 import rocks.inspectit.shared.cs.indexing.storage.IStorageTreeComponent;
 
 /**
@@ -29,7 +30,8 @@ public class StorageRootBranchFactory implements FactoryBean<IStorageTreeCompone
 		// the time-stamp indexer has to be the last indexer in the tree, so that the amount of
 		// files in storage won't grow with the time passing by
 		StorageBranchIndexer<DefaultData> timestampIndexer = new StorageBranchIndexer<>(new TimestampIndexer<>(), true);
-		StorageBranchIndexer<DefaultData> sqlStringIndexer = new StorageBranchIndexer<>(new SqlStringIndexer<>(10), timestampIndexer, false);
+		StorageBranchIndexer<DefaultData> traceIdIndexer = new StorageBranchIndexer<>(new TraceIdIndexer<>(10), timestampIndexer, false);
+		StorageBranchIndexer<DefaultData> sqlStringIndexer = new StorageBranchIndexer<>(new SqlStringIndexer<>(10), traceIdIndexer, false);
 		StorageBranchIndexer<DefaultData> methodIdentIndexer = new StorageBranchIndexer<>(new MethodIdentIndexer<>(), sqlStringIndexer, false);
 		StorageBranchIndexer<DefaultData> objectTypeIndexer = new StorageBranchIndexer<>(new ObjectTypeIndexer<>(), methodIdentIndexer, false);
 		StorageBranchIndexer<DefaultData> invocationChildrenIndexer = new StorageBranchIndexer<>(new InvocationChildrenIndexer<>(), objectTypeIndexer, false);
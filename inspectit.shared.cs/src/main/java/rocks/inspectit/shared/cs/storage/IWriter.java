@@ -21,7 +21,8 @@ public interface IWriter {
 	 * @return Returns the {@link Future} for the writing task of the given data or
 	 *         <code>null</code> if writing is currently suspended by the writer. This future
 	 *         provides only the information when the writing task is executed, but not when the
-	 *         serialized bytes are actually written on disk.
+	 *         serialized bytes are actually written on disk. Writer can share the same future
+	 *         between objects written in one batch.
 	 */
 	Future<Void> write(DefaultData defaultData);
 
@@ -35,7 +36,8 @@ public interface IWriter {
 	 * @return Returns the {@link Future} for the writing task of the given data or
 	 *         <code>null</code> if writing is currently suspended by the writer. This future
 	 *         provides only the information when the writing task is executed, but not when the
-	 *         serialized bytes are actually written on disk.
+	 *         serialized bytes are actually written on disk. Writer can share the same future
+	 *         between objects written in one batch.
 	 */
 	Future<Void> write(DefaultData defaultData, Map<?, ?> kryoPreferences);
 
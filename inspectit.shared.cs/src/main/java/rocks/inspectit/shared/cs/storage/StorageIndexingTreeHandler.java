@@ -45,7 +45,8 @@ import rocks.inspectit.shared.cs.storage.util.StorageIndexTreeProvider;
  * tree it is going and which descriptor was assigned to the data in write. Because of this for each
  * write there is a put and remove from a {@link HashMap} as an overhead, but since the size of the
  * map is constant (data currently in write can not be greater than the number of threads writing
- * the data, there should not be any serious performance problems.
+ * the data multiplied by the size of the writing batch, there should not be any serious performance
+ * problems.
  *
  * @author Ivan Senic
  *
@@ -10,9 +10,12 @@ import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
@@ -69,6 +72,22 @@ public class StorageWriter implements IWriter {
 	 */
 	private static final int FINALIZATION_TASKS_SLEEP_TIME = 500;
 
+	/**
+	 * Maximum amount of objects written by one writing task.
+	 */
+	private static final int WRITE_BATCH_SIZE = 512;
+
+	/**
+	 * Period in milliseconds after which the not full batch of objects is submitted for writing.
+	 */
+	private static final long WRITE_BATCH_FLUSH_PERIOD = 250;
+
+	/**
+	 * Initial size of the buffer objects are serialized to before being added to the writing
+	 * stream.
+	 */
+	private static final int SERIALIZATION_BUFFER_SIZE = 4096;
+
 	/**
 	 * Total amount of tasks submitted to {@link #writingExecutorService}.
 	 */
@@ -175,6 +194,27 @@ public class StorageWriter implements IWriter {
 	 */
 	private Set<FutureTask<?>> activeWritingTasks = Collections.newSetFromMap(new ConcurrentHashMap<FutureTask<?>, Boolean>(256, 0.75f, 4));
 
+	/**
+	 * Lock guarding the {@link #writeBatch} and {@link #writeBatchFuture}.
+	 */
+	private final Object writeBatchLock = new Object();
+
+	/**
+	 * Batch of the write tasks that is currently being filled. Can be <code>null</code> if no
+	 * object is waiting to be written.
+	 */
+	private List<WriteTask> writeBatch;
+
+	/**
+	 * Future task that will write the current {@link #writeBatch}.
+	 */
+	private WriteFutureTask writeBatchFuture;
+
+	/**
+	 * Future for the task of flushing the not full write batches.
+	 */
+	private ScheduledFuture<?> flushWriteBatchFuture;
+
 	/**
 	 * Process the list of objects against the all the {@link AbstractDataProcessor}s that are
 	 * provided. Processor define which data will be stored, when and in which format.
@@ -190,11 +230,12 @@ public class StorageWriter implements IWriter {
 	 *            List of processors. Can be null, and in this case direct write will be executed.
 	 * @return Returns collection of void {@link Future}s, one for each writing task that has been
 	 *         creating while data has been processed. These futures provide only the information
-	 *         when the single writing task is executed, but not when the serialized bytes are
-	 *         actually written on disk.
+	 *         when the writing task with the batch of objects is executed, but not when the
+	 *         serialized bytes are actually written on disk.
 	 */
 	public Collection<Future<Void>> process(Collection<? extends DefaultData> defaultDataList, Collection<AbstractDataProcessor> processors) {
-		List<Future<Void>> futureList = new ArrayList<>();
+		// objects in one batch share the future
+		Set<Future<Void>> futureList = new LinkedHashSet<>();
 		if ((null != processors) && !processors.isEmpty()) {
 			// first prepare processors
 			for (AbstractDataProcessor processor : processors) {
@@ -220,6 +261,9 @@ public class StorageWriter implements IWriter {
 				futureList.add(future);
 			}
 		}
+
+		// don't wait for the periodic flush with the data of this processing
+		flushWriteBatch();
 		return futureList;
 	}
 
@@ -257,7 +301,8 @@ public class StorageWriter implements IWriter {
 	/**
 	 * {@inheritDoc}
 	 * <p>
-	 * This method is only submitting a new writing task, thus it is thread safe and very fast.
+	 * This method is only adding the object to the current batch of objects to write, thus it is
+	 * thread safe and very fast. The returned future is shared by all objects in the batch.
 	 */
 	@Override
 	public Future<Void> write(DefaultData defaultData) {
@@ -267,7 +312,10 @@ public class StorageWriter implements IWriter {
 	/**
 	 * {@inheritDoc}
 	 * <p>
-	 * This method is only submitting a new writing task, thus it is thread safe and very fast.
+	 * This method is only adding the object to the current batch of objects to write, thus it is
+	 * thread safe and very fast. The returned future is shared by all objects in the batch. The
+	 * batch is submitted for writing when it is full, on {@link #flushWriteBatch()} or
+	 * periodically every {@value #WRITE_BATCH_FLUSH_PERIOD} milliseconds.
 	 */
 	@Override
 	public Future<Void> write(DefaultData defaultData, Map<?, ?> kryoPreferences) {
@@ -281,15 +329,51 @@ public class StorageWriter implements IWriter {
 			}
 
 			WriteTask writeTask = new WriteTask(defaultData, kryoPreferences);
-			WriteFutureTask writeFutureTask = new WriteFutureTask(writeTask);
-			activeWritingTasks.add(writeFutureTask);
-			writingExecutorService.submit(writeFutureTask);
-			return writeFutureTask;
+			synchronized (writeBatchLock) {
+				// re-check with lock, the shutdown flushes last batch
+				if (!writingOn) {
+					return null;
+				}
+
+				if (null == writeBatch) {
+					writeBatch = new ArrayList<>(WRITE_BATCH_SIZE);
+					writeBatchFuture = new WriteFutureTask(new WriteBatchTask(writeBatch));
+					activeWritingTasks.add(writeBatchFuture);
+				}
+				writeBatch.add(writeTask);
+				Future<Void> future = writeBatchFuture;
+
+				if (writeBatch.size() >= WRITE_BATCH_SIZE) {
+					submitWriteBatch();
+				}
+				return future;
+			}
 		} else {
 			return null;
 		}
 	}
 
+	/**
+	 * Submits the current batch of objects for writing, without waiting for the batch to be full.
+	 */
+	public void flushWriteBatch() {
+		synchronized (writeBatchLock) {
+			submitWriteBatch();
+		}
+	}
+
+	/**
+	 * Submits the current {@link #writeBatch} to the {@link #writingExecutorService}. Caller must
+	 * hold the {@link #writeBatchLock}.
+	 */
+	private void submitWriteBatch() {
+		if (null != writeBatch) {
+			writingExecutorService.submit(writeBatchFuture);
+			writeBatch = null;
+			writeBatchFuture = null;
+		}
+	}
+
 	/**
 	 * Informs the {@link StorageWriter} to prepare for writing. The writer will perform all
 	 * necessary operations so that calls to {@link #write(DefaultData)} can be executed. The
@@ -324,6 +408,14 @@ public class StorageWriter implements IWriter {
 				}
 			}, 30, 30, TimeUnit.SECONDS);
 
+			// periodically flush the batches that don't get full
+			flushWriteBatchFuture = scheduledExecutorService.scheduleWithFixedDelay(new Runnable() {
+				@Override
+				public void run() {
+					flushWriteBatch();
+				}
+			}, WRITE_BATCH_FLUSH_PERIOD, WRITE_BATCH_FLUSH_PERIOD, TimeUnit.MILLISECONDS);
+
 			for (AbstractWriteDataProcessor processor : writeDataProcessors) {
 				try {
 					processor.onPrepare(storageManager, this, storageData);
@@ -400,8 +492,12 @@ public class StorageWriter implements IWriter {
 			// mark writing false so that no more task are created
 			writingOn = false;
 
-			// cancel the check writing status task
+			// cancel the check writing status and flush tasks
 			checkWritingStatusFuture.cancel(false);
+			flushWriteBatchFuture.cancel(false);
+
+			// submit the objects waiting in the batch
+			flushWriteBatch();
 
 			// wait for pending tasks
 			waitForPendingWritingTasks();
@@ -561,7 +657,205 @@ public class StorageWriter implements IWriter {
 	}
 
 	/**
-	 * Task for writing one {@link DefaultData} object to the disk.
+	 * Writes the objects of the given write tasks to the disk. Objects are grouped by the channel
+	 * assigned by the indexing tree. All objects of one channel are serialized to one stream,
+	 * which is then written with a single write to the channel. Objects that can not be indexed or
+	 * serialized are skipped without affecting the other objects.
+	 *
+	 * @param writeTasks
+	 *            Write tasks holding the objects to write.
+	 */
+	void writeTasks(List<WriteTask> writeTasks) {
+		if (!storageManager.canWriteMore()) {
+			if (log.isWarnEnabled()) {
+				log.warn("Writing of data canceled because of limited hard disk space left for the storage.");
+			}
+			return;
+		}
+
+		// get channel id for each object
+		Map<Integer, List<WriteTask>> channelWriteTasks = new HashMap<>();
+		for (WriteTask writeTask : writeTasks) {
+			if (null == writeTask.getData()) {
+				log.warn("Failed to write data to storage. The data to be written was already garbage collected due to the high amount of writing tasks.");
+				continue;
+			}
+
+			int channelId = 0;
+			try {
+				channelId = indexingTreeHandler.startWrite(writeTask);
+			} catch (IndexingException e) {
+				indexingTreeHandler.writeFailed(writeTask);
+				if (log.isDebugEnabled()) {
+					log.debug("Indexing exception occurred while attempting to write data to disk.", e);
+				}
+				continue;
+			} catch (Throwable t) { // NOPMD
+				indexingTreeHandler.writeFailed(writeTask);
+				log.error("Unknown exception occurred during data write", t);
+				continue;
+			}
+
+			if (0 == channelId) {
+				indexingTreeHandler.writeFailed(writeTask);
+				log.error("Channel ID could not be obtained during attempt to write data to disk. Data will be skipped.");
+				continue;
+			}
+
+			List<WriteTask> channelTasks = channelWriteTasks.get(channelId);
+			if (null == channelTasks) {
+				channelTasks = new ArrayList<>();
+				channelWriteTasks.put(channelId, channelTasks);
+			}
+			channelTasks.add(writeTask);
+		}
+
+		if (channelWriteTasks.isEmpty()) {
+			return;
+		}
+
+		ISerializer serializer = null;
+		try {
+			serializer = serializerQueue.take();
+		} catch (InterruptedException e1) {
+			Thread.interrupted();
+		}
+		if (null == serializer) {
+			for (List<WriteTask> channelTasks : channelWriteTasks.values()) {
+				for (WriteTask writeTask : channelTasks) {
+					indexingTreeHandler.writeFailed(writeTask);
+				}
+			}
+			log.error("Serializer instance could not be obtained.");
+			return;
+		}
+
+		try {
+			Output output = new Output(SERIALIZATION_BUFFER_SIZE, -1);
+			for (Entry<Integer, List<WriteTask>> entry : channelWriteTasks.entrySet()) {
+				writeToChannel(entry.getKey().intValue(), entry.getValue(), serializer, output);
+			}
+		} finally {
+			serializerQueue.add(serializer);
+		}
+	}
+
+	/**
+	 * Serializes the objects of the given write tasks and writes them with one write to the
+	 * channel.
+	 *
+	 * @param channelId
+	 *            Id of the channel to write to.
+	 * @param writeTasks
+	 *            Write tasks with objects indexed to the channel.
+	 * @param serializer
+	 *            Serializer to use.
+	 * @param output
+	 *            Output to serialize single object to before it's added to the writing stream.
+	 */
+	private void writeToChannel(int channelId, List<WriteTask> writeTasks, ISerializer serializer, Output output) {
+		ExtendedByteBufferOutputStream extendedByteBufferOutputStream = null;
+		final List<WriteTask> serializedTasks = new ArrayList<>(writeTasks.size());
+		final long[] offsets = new long[writeTasks.size()];
+		final long[] sizes = new long[writeTasks.size()];
+		// tasks before this index are already failed or serialized
+		int nextTask = 0;
+		// set once the serialized tasks are failed or handed to the completion runnable
+		boolean serializedTasksCompleted = false;
+		try {
+			extendedByteBufferOutputStream = streamProvider.getExtendedByteBufferOutputStream();
+			long offset = 0;
+			for (; nextTask < writeTasks.size(); nextTask++) {
+				WriteTask writeTask = writeTasks.get(nextTask);
+				DefaultData data = writeTask.getData();
+				if (null == data) {
+					indexingTreeHandler.writeFailed(writeTask);
+					log.warn("Failed to write data to storage. The data to be written was already garbage collected due to the high amount of writing tasks.");
+					continue;
+				}
+
+				output.clear();
+				try {
+					serializer.serialize(data, output, writeTask.getKryoPreferences());
+				} catch (SerializationException e) {
+					indexingTreeHandler.writeFailed(writeTask);
+					if (log.isWarnEnabled()) {
+						log.warn("Serialization for the object " + data + " failed. Data will be skipped.", e);
+					}
+					continue;
+				}
+
+				int size = output.position();
+				extendedByteBufferOutputStream.write(output.getBuffer(), 0, size);
+				offsets[serializedTasks.size()] = offset;
+				sizes[serializedTasks.size()] = size;
+				serializedTasks.add(writeTask);
+				offset += size;
+			}
+
+			if (serializedTasks.isEmpty()) {
+				extendedByteBufferOutputStream.close();
+				return;
+			}
+			extendedByteBufferOutputStream.flush(false);
+
+			// final reference needed because of the runnable
+			int buffersToWrite = extendedByteBufferOutputStream.getBuffersCount();
+			final ExtendedByteBufferOutputStream finalOutputStream = extendedByteBufferOutputStream;
+			WriteReadCompletionRunnable completionRunnable = new WriteReadCompletionRunnable(buffersToWrite) {
+				@Override
+				public void run() {
+					finalOutputStream.close();
+					if (isCompleted()) {
+						// position and size of each object is relative to the complete write
+						long position = getAttemptedWriteReadPosition();
+						for (int i = 0; i < serializedTasks.size(); i++) {
+							indexingTreeHandler.writeSuccessful(serializedTasks.get(i), position + offsets[i], sizes[i]);
+						}
+					} else {
+						for (WriteTask writeTask : serializedTasks) {
+							indexingTreeHandler.writeFailed(writeTask);
+						}
+					}
+				}
+			};
+
+			// write to disk
+			Path channelPath = storageManager.getChannelPath(storageData, channelId);
+			openedChannelPaths.add(channelPath);
+			try {
+				// position will be set in the completion runnable
+				writingChannelManager.write(extendedByteBufferOutputStream, channelPath, completionRunnable);
+			} catch (IOException e) {
+				// remove from indexing tree if exception occurs
+				extendedByteBufferOutputStream.close();
+				for (WriteTask writeTask : serializedTasks) {
+					indexingTreeHandler.writeFailed(writeTask);
+				}
+				log.error("Exception occurred while attempting to write data to disk", e);
+			}
+			serializedTasksCompleted = true;
+		} catch (Throwable t) { // NOPMD
+			// catch any exception, fail only the tasks that were not completed yet
+			if (!serializedTasksCompleted) {
+				if (null != extendedByteBufferOutputStream) {
+					extendedByteBufferOutputStream.close();
+				}
+				for (WriteTask writeTask : serializedTasks) {
+					indexingTreeHandler.writeFailed(writeTask);
+				}
+			}
+			for (int i = nextTask; i < writeTasks.size(); i++) {
+				indexingTreeHandler.writeFailed(writeTasks.get(i));
+			}
+			log.error("Unknown exception occurred during data write", t);
+		}
+	}
+
+	/**
+	 * Task for writing one {@link DefaultData} object to the disk. Write tasks are collected in
+	 * batches and written by the {@link WriteBatchTask}, but a single task can also be executed
+	 * on its own.
 	 *
 	 * @author Ivan Senic
 	 *
@@ -596,112 +890,54 @@ public class StorageWriter implements IWriter {
 		 */
 		@Override
 		public void run() {
-			ExtendedByteBufferOutputStream extendedByteBufferOutputStream = null;
-			try {
-				if (!storageManager.canWriteMore()) {
-					if (log.isWarnEnabled()) {
-						log.warn("Writing of data canceled because of limited hard disk space left for the storage.");
-					}
-					return;
-				}
-
-				// get object from soft reference
-				final DefaultData data = referenceToWriteData.get();
-				if (null == data) {
-					log.warn("Failed to write data to storage. The data to be written was already garbage collected due to the high amount of writing tasks.");
-					return;
-				}
-
-				int channelId = 0;
-				// get channel id
-				try {
-					channelId = indexingTreeHandler.startWrite(this);
-				} catch (IndexingException e) {
-					indexingTreeHandler.writeFailed(this);
-					if (log.isDebugEnabled()) {
-						log.debug("Indexing exception occurred while attempting to write data to disk.", e);
-					}
-					return;
-				}
+			writeTasks(Collections.singletonList(this));
+		}
 
-				if (0 == channelId) {
-					indexingTreeHandler.writeFailed(this);
-					log.error("Channel ID could not be obtained during attempt to write data to disk. Data will be skipped.");
-					return;
-				}
+		/**
+		 * @return Returns data to be written by this task.
+		 */
+		public DefaultData getData() {
+			return referenceToWriteData.get();
+		}
 
-				ISerializer serializer = null;
-				try {
-					serializer = serializerQueue.take();
-				} catch (InterruptedException e1) {
-					Thread.interrupted();
-				}
-				if (null == serializer) {
-					indexingTreeHandler.writeFailed(this);
-					log.error("Serializer instance could not be obtained.");
-					return;
-				}
+		/**
+		 * @return Returns map of preferences to be passed to the serializer.
+		 */
+		Map<?, ?> getKryoPreferences() {
+			return kryoPreferences;
+		}
 
-				extendedByteBufferOutputStream = streamProvider.getExtendedByteBufferOutputStream();
-				try {
-					Output output = new Output(extendedByteBufferOutputStream);
-					serializer.serialize(data, output, kryoPreferences);
-					extendedByteBufferOutputStream.flush(false);
-				} catch (SerializationException e) {
-					extendedByteBufferOutputStream.close();
-					indexingTreeHandler.writeFailed(this);
-					serializerQueue.add(serializer);
-					if (log.isWarnEnabled()) {
-						log.warn("Serialization for the object " + data + " failed. Data will be skipped.", e);
-					}
-					return;
-				}
-				serializerQueue.add(serializer);
+	}
 
-				// final reference needed because of the runnable
-				int buffersToWrite = extendedByteBufferOutputStream.getBuffersCount();
-				final ExtendedByteBufferOutputStream finalOutputStream = extendedByteBufferOutputStream;
-				WriteReadCompletionRunnable completionRunnable = new WriteReadCompletionRunnable(buffersToWrite) {
-					@Override
-					public void run() {
-						finalOutputStream.close();
-						if (isCompleted()) {
-							indexingTreeHandler.writeSuccessful(WriteTask.this, getAttemptedWriteReadPosition(), getAttemptedWriteReadSize());
-						} else {
-							indexingTreeHandler.writeFailed(WriteTask.this);
+	/**
+	 * Task for writing a batch of {@link WriteTask}s to the disk.
+	 *
+	 * @author agent
+	 *
+	 */
+	class WriteBatchTask implements Runnable {
 
-						}
-					}
-				};
+		/**
+		 * Write tasks in the batch.
+		 */
+		private final List<WriteTask> writeTasks;
 
-				// write to disk
-				Path channelPath = storageManager.getChannelPath(storageData, channelId);
-				openedChannelPaths.add(channelPath);
-				try {
-					// position and size will be set in the completion runnable
-					writingChannelManager.write(extendedByteBufferOutputStream, channelPath, completionRunnable);
-				} catch (IOException e) {
-					// remove from indexing tree if exception occurs
-					extendedByteBufferOutputStream.close();
-					indexingTreeHandler.writeFailed(this);
-					log.error("Exception occurred while attempting to write data to disk", e);
-					return;
-				}
-			} catch (Throwable t) { // NOPMD
-				// catch any exception
-				if (null != extendedByteBufferOutputStream) {
-					extendedByteBufferOutputStream.close();
-				}
-				indexingTreeHandler.writeFailed(this);
-				log.error("Unknown exception occurred during data write", t);
-			}
+		/**
+		 * Default constructor.
+		 *
+		 * @param writeTasks
+		 *            Write tasks in the batch. List can be filled until the task is submitted.
+		 */
+		WriteBatchTask(List<WriteTask> writeTasks) {
+			this.writeTasks = writeTasks;
 		}
 
 		/**
-		 * @return Returns data to be written by this task.
+		 * {@inheritDoc}
 		 */
-		public DefaultData getData() {
-			return referenceToWriteData.get();
+		@Override
+		public void run() {
+			writeTasks(writeTasks);
 		}
 
 	}
@@ -11,6 +11,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Resource;
 
@@ -45,6 +46,12 @@ import rocks.inspectit.shared.cs.storage.nio.read.ReadingChannelManager;
 @Lazy
 public class ExtendedByteBufferInputStream extends AbstractExtendedByteBufferInputStream {
 
+	/**
+	 * Time in milliseconds the read task waits for an empty buffer before checking if the stream
+	 * has been closed.
+	 */
+	private static final long EMPTY_BUFFER_POLL_TIMEOUT = 100;
+
 	/**
 	 * {@link ReadingChannelManager}.
 	 */
@@ -227,6 +234,11 @@ public class ExtendedByteBufferInputStream extends AbstractExtendedByteBufferInp
 		public void run() {
 			// we run the task until all descriptors are processed
 			for (IStorageDescriptor storageDescriptor : descriptors) {
+				// stream closed before all data has been read, no one waits for the rest
+				if (isClosed()) {
+					return;
+				}
+
 				// get correct channel
 				Path channelPath = storageManager.getChannelPath(storageData, storageDescriptor);
 				openedChannelPaths.add(channelPath);
@@ -239,11 +251,17 @@ public class ExtendedByteBufferInputStream extends AbstractExtendedByteBufferInp
 				// we read until whole descriptor size has been read
 				while (descriptorReadSize < descriptorTotalSize) {
 					// get the empty buffer
+					// the buffers are released on close, so we must not wait for them forever
 					ByteBuffer buffer = null;
-					try {
-						buffer = getEmptyBuffers().take();
-					} catch (InterruptedException e) {
-						Thread.interrupted();
+					while (null == buffer) {
+						if (isClosed()) {
+							return;
+						}
+						try {
+							buffer = getEmptyBuffers().poll(EMPTY_BUFFER_POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+						} catch (InterruptedException e) {
+							Thread.interrupted();
+						}
 					}
 					buffer.clear();
 
@@ -129,6 +129,7 @@ import rocks.inspectit.shared.cs.communication.comparator.TimerDataComparatorEnu
 import rocks.inspectit.shared.cs.communication.data.cmr.Alert;
 import rocks.inspectit.shared.cs.communication.data.cmr.AlertClosingReason;
 import rocks.inspectit.shared.cs.communication.data.cmr.RecordingData;
+import rocks.inspectit.shared.cs.communication.data.cmr.StorageQueryRequest;
 import rocks.inspectit.shared.cs.communication.data.cmr.WritingStatus;
 import rocks.inspectit.shared.cs.indexing.aggregation.impl.ExceptionDataAggregator;
 import rocks.inspectit.shared.cs.indexing.aggregation.impl.HttpTimerDataAggregator;
@@ -141,6 +142,7 @@ import rocks.inspectit.shared.cs.indexing.indexer.impl.PlatformIdentIndexer;
 import rocks.inspectit.shared.cs.indexing.indexer.impl.SensorTypeIdentIndexer;
 import rocks.inspectit.shared.cs.indexing.indexer.impl.SqlStringIndexer;
 import rocks.inspectit.shared.cs.indexing.indexer.impl.TimestampIndexer;
+import rocks.inspectit.shared.cs.indexing.indexer.impl.TraceIdIndexer;
 import rocks.inspectit.shared.cs.indexing.storage.impl.ArrayBasedStorageLeaf;
 import rocks.inspectit.shared.cs.indexing.storage.impl.LeafWithNoDescriptors;
 import rocks.inspectit.shared.cs.indexing.storage.impl.SimpleStorageDescriptor;
@@ -460,6 +462,12 @@ public class SerializationManagerPostProcessor implements BeanPostProcessor {
 		// INSPECTIT-2458
 		kryo.register(RemoteAsyncApacheHttpClientSensorConfig.class, new FieldSerializer<>(kryo, RemoteAsyncApacheHttpClientSensorConfig.class), nextRegistrationId++);
 		kryo.register(ApacheClientExchangeHandlerSensorConfig.class, new FieldSerializer<>(kryo, ApacheClientExchangeHandlerSensorConfig.class), nextRegistrationId++);
+
+		// trace id indexing of the spans in storage
+		kryo.register(TraceIdIndexer.class, new FieldSerializer<TraceIdIndexer<?>>(kryo, TraceIdIndexer.class), nextRegistrationId++);
+
+		// storage queries executed on the CMR
+		kryo.register(StorageQueryRequest.class, new FieldSerializer<StorageQueryRequest>(kryo, StorageQueryRequest.class), nextRegistrationId++);
 	}
 
 }
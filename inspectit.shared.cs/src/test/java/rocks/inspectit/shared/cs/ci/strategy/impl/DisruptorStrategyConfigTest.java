@@ -1,7 +1,12 @@
 package rocks.inspectit.shared.cs.ci.strategy.impl;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+import java.util.Map;
 
 import org.mockito.InjectMocks;
 import org.testng.annotations.Test;
@@ -47,4 +52,31 @@ public class DisruptorStrategyConfigTest extends TestBase {
 		}
 
 	}
+
+	public static class GetSettings extends DisruptorStrategyConfigTest {
+
+		@Test
+		public void noSpool() {
+			config.setBufferSize(128);
+
+			Map<String, String> settings = config.getSettings();
+
+			assertThat(settings, hasEntry("bufferSize", "128"));
+			assertThat(settings, not(hasKey("spoolMaxSize")));
+			assertThat(settings, not(hasKey("spoolMaxAge")));
+		}
+
+		@Test
+		public void spool() {
+			config.setBufferSize(128);
+			config.setSpoolMaxSize(10);
+			config.setSpoolMaxAge(5);
+
+			Map<String, String> settings = config.getSettings();
+
+			assertThat(settings, hasEntry("spoolMaxSize", String.valueOf(10L * 1024 * 1024)));
+			assertThat(settings, hasEntry("spoolMaxAge", String.valueOf(5L * 60 * 1000)));
+		}
+
+	}
 }
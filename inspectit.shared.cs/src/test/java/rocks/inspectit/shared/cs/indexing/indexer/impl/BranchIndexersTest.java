@@ -23,6 +23,8 @@ import rocks.inspectit.shared.all.communication.MethodSensorData;
 import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
 import rocks.inspectit.shared.all.communication.data.SqlStatementData;
 import rocks.inspectit.shared.all.indexing.IIndexQuery;
+import rocks.inspectit.shared.all.tracing.data.ServerSpan;
+import rocks.inspectit.shared.all.tracing.data.SpanIdent;
 import rocks.inspectit.shared.cs.indexing.impl.IndexQuery;
 import rocks.inspectit.shared.cs.indexing.storage.impl.StorageIndexQuery;
 
@@ -218,6 +220,50 @@ public class BranchIndexersTest {
 		assertThat(keys[0], is(notNullValue()));
 	}
 
+	/**
+	 * Tests the functionality of the {@link TraceIdIndexer}.
+	 */
+	@Test
+	public void traceIdIndexer() {
+		ServerSpan span = new ServerSpan();
+		span.setSpanIdent(new SpanIdent(1L, 1L));
+
+		TraceIdIndexer<DefaultData> indexer = new TraceIdIndexer<>();
+
+		Object key1 = indexer.getKey(span);
+		span.setSpanIdent(new SpanIdent(2L, 2L));
+		Object key2 = indexer.getKey(span);
+
+		assertThat(key1, is(not(key2)));
+
+		// spans of the same trace have same key
+		span.setSpanIdent(new SpanIdent(3L, 2L));
+		assertThat(indexer.getKey(span), is(key2));
+
+		// assert that if max keys is set it will work
+		indexer = new TraceIdIndexer<>(1);
+
+		span.setSpanIdent(new SpanIdent(1L, 1L));
+		key1 = indexer.getKey(span);
+		span.setSpanIdent(new SpanIdent(2L, -2L));
+		key2 = indexer.getKey(span);
+
+		assertThat(key1, is(key2));
+
+		// not spans have same key
+		indexer = new TraceIdIndexer<>(10);
+		assertThat(indexer.getKey(new SqlStatementData()), is(indexer.getKey(new InvocationSequenceData())));
+
+		StorageIndexQuery query = mock(StorageIndexQuery.class);
+		assertThat(indexer.getKeys(query), is(emptyArray()));
+
+		when(query.getTraceId()).thenReturn(12L);
+		Object[] keys = indexer.getKeys(query);
+		assertThat(keys, is(arrayWithSize(1)));
+		span.setSpanIdent(new SpanIdent(1L, 12L));
+		assertThat(keys[0], is(indexer.getKey(span)));
+	}
+
 	/**
 	 * Tests the {@link TimestampIndexer}.
 	 */
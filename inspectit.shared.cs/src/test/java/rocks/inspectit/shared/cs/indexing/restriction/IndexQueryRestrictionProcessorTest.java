@@ -36,6 +36,58 @@ public class IndexQueryRestrictionProcessorTest extends TestBase {
 	@Mock
 	protected Logger log;
 
+	/**
+	 * Holder declaring the value only as {@link Object}.
+	 */
+	public static class Holder {
+
+		private final Object value;
+
+		public Holder(Object value) {
+			this.value = value;
+		}
+
+		public Object getValue() {
+			return value;
+		}
+	}
+
+	/**
+	 * Public value class.
+	 */
+	public static class Value {
+
+		private final long number;
+
+		public Value(long number) {
+			this.number = number;
+		}
+
+		public long getNumber() {
+			return number;
+		}
+
+		public long getFailing() {
+			throw new IllegalStateException();
+		}
+	}
+
+	/**
+	 * Value class that is not accessible for the method handles.
+	 */
+	private static class HiddenValue {
+
+		private final long number;
+
+		HiddenValue(long number) {
+			this.number = number;
+		}
+
+		public long getNumber() {
+			return number;
+		}
+	}
+
 	public static class AreAllRestrictionsFulfilled extends IndexQueryRestrictionProcessorTest {
 
 		/**
@@ -598,6 +650,135 @@ public class IndexQueryRestrictionProcessorTest extends TestBase {
 			assertThat(result, is(false));
 		}
 
+		/**
+		 * Test greater than restriction on the double field.
+		 */
+		@Test
+		public void greaterThanDoubleField() {
+			TimerData timerData = new TimerData();
+			timerData.setDuration(10d);
+			List<IIndexQueryRestriction> restrictions = Collections.singletonList(IndexQueryRestrictionFactory.greaterThan("duration", 5d));
+
+			boolean result = processor.areAllRestrictionsFulfilled(timerData, restrictions);
+
+			assertThat(result, is(true));
+		}
+
+		/**
+		 * Test less equal restriction on the int field.
+		 */
+		@Test
+		public void lessEqualIntField() {
+			HttpTimerData httpData = new HttpTimerData();
+			httpData.setHttpResponseStatus(404);
+			List<IIndexQueryRestriction> restrictions = Collections.singletonList(IndexQueryRestrictionFactory.lessEqual("httpResponseStatus", 399));
+
+			boolean result = processor.areAllRestrictionsFulfilled(httpData, restrictions);
+
+			assertThat(result, is(false));
+		}
+
+		/**
+		 * Test comparable restriction with the restriction value not matching the primitive field
+		 * type.
+		 */
+		@Test
+		public void greaterEqualDifferentValueType() {
+			HttpTimerData httpData = new HttpTimerData();
+			httpData.setHttpResponseStatus(404);
+			List<IIndexQueryRestriction> restrictions = Collections.singletonList(IndexQueryRestrictionFactory.greaterEqual("httpResponseStatus", 400L));
+
+			boolean result = processor.areAllRestrictionsFulfilled(httpData, restrictions);
+
+			assertThat(result, is(false));
+		}
+
+		/**
+		 * Tests that restriction is not fulfilled when object on the navigation path is null.
+		 */
+		@Test
+		public void nullNavigation() {
+			HttpTimerData httpData = new HttpTimerData();
+			httpData.setHttpInfo(null);
+			List<IIndexQueryRestriction> restrictions = Collections.singletonList(IndexQueryRestrictionFactory.isNotNull("httpInfo.id"));
+
+			boolean result = processor.areAllRestrictionsFulfilled(httpData, restrictions);
+
+			assertThat(result, is(false));
+		}
+
+		/**
+		 * Tests that the same restriction is checked for different classes.
+		 */
+		@Test
+		public void differentClasses() {
+			TimerData timerData = new TimerData();
+			timerData.setId(1L);
+			HttpTimerData httpData = new HttpTimerData();
+			httpData.setId(2L);
+			List<IIndexQueryRestriction> restrictions = Collections.singletonList(IndexQueryRestrictionFactory.lessThan("id", 2L));
+
+			boolean timerResult = processor.areAllRestrictionsFulfilled(timerData, restrictions);
+			boolean httpResult = processor.areAllRestrictionsFulfilled(httpData, restrictions);
+
+			assertThat(timerResult, is(true));
+			assertThat(httpResult, is(false));
+		}
+
+		/**
+		 * Tests that the getters on the navigation path are resolved on the runtime class of the
+		 * value.
+		 */
+		@Test
+		public void navigationRuntimeClass() {
+			Holder holder = new Holder(new Value(5L));
+			List<IIndexQueryRestriction> restrictions = Collections.singletonList(IndexQueryRestrictionFactory.greaterEqual("value.number", 5L));
+
+			boolean result = processor.areAllRestrictionsFulfilled(holder, restrictions);
+
+			assertThat(result, is(true));
+		}
+
+		/**
+		 * Tests that the navigation path is resolved for each runtime class of the value.
+		 */
+		@Test
+		public void navigationDifferentRuntimeClasses() {
+			List<IIndexQueryRestriction> restrictions = Collections.singletonList(IndexQueryRestrictionFactory.equal("value.number", 5L));
+
+			boolean valueResult = processor.areAllRestrictionsFulfilled(new Holder(new Value(5L)), restrictions);
+			boolean stringResult = processor.areAllRestrictionsFulfilled(new Holder("5"), restrictions);
+
+			assertThat(valueResult, is(true));
+			assertThat(stringResult, is(false));
+		}
+
+		/**
+		 * Tests that getters not accessible as method handles are invoked via reflection.
+		 */
+		@Test
+		public void reflectionFallback() {
+			Holder holder = new Holder(new HiddenValue(5L));
+			List<IIndexQueryRestriction> restrictions = Collections.singletonList(IndexQueryRestrictionFactory.lessThan("value.number", 6L));
+
+			boolean result = processor.areAllRestrictionsFulfilled(holder, restrictions);
+
+			assertThat(result, is(true));
+		}
+
+		/**
+		 * Tests that restriction is not fulfilled if the getter throws an exception.
+		 */
+		@Test
+		public void getterException() {
+			Holder holder = new Holder(new Value(5L));
+			List<IIndexQueryRestriction> restrictions = Collections.singletonList(IndexQueryRestrictionFactory.equal("value.failing", 5L));
+
+			boolean result = processor.areAllRestrictionsFulfilled(holder, restrictions);
+
+			assertThat(result, is(false));
+		}
+
 		/**
 		 * Tests that the field to restrict on does not exists.
 		 */
@@ -3,9 +3,12 @@ package rocks.inspectit.shared.cs.storage;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyObject;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -18,6 +21,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
@@ -27,9 +31,12 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
+import org.mockito.ArgumentCaptor;
 import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.slf4j.LoggerFactory;
 import org.testng.annotations.AfterTest;
 import org.testng.annotations.BeforeMethod;
@@ -246,6 +253,98 @@ public class StorageWriterTest {
 		verify(serializerQueue, times(1)).add(serializer);
 	}
 
+	@Test
+	public void writeBatchGroupedByChannel() throws Exception {
+		WriteTask writeTask1 = storageWriter.new WriteTask(new TimerData(), Collections.emptyMap());
+		WriteTask writeTask2 = storageWriter.new WriteTask(new TimerData(), Collections.emptyMap());
+		WriteTask writeTask3 = storageWriter.new WriteTask(new TimerData(), Collections.emptyMap());
+		when(storageIndexingTreeHandler.startWrite(writeTask3)).thenReturn(2);
+		doAnswer(new SerializeIntAnswer()).when(serializer).serialize(anyObject(), Matchers.<Output> anyObject(), Matchers.<Map<?, ?>> anyObject());
+
+		storageWriter.new WriteBatchTask(Arrays.asList(writeTask1, writeTask2, writeTask3)).run();
+
+		ArgumentCaptor<WriteReadCompletionRunnable> captor = ArgumentCaptor.forClass(WriteReadCompletionRunnable.class);
+		verify(writingChannelManager, times(2)).write(Matchers.<ExtendedByteBufferOutputStream> anyObject(), Matchers.<Path> anyObject(), captor.capture());
+		verify(extendedByteBufferOutputStream, times(3)).write(Matchers.<byte[]> anyObject(), Matchers.eq(0), Matchers.eq(4));
+		verify(serializerQueue, times(1)).take();
+		verify(serializerQueue, times(1)).add(serializer);
+		for (WriteReadCompletionRunnable completionRunnable : captor.getAllValues()) {
+			completionRunnable.setAttemptedWriteReadPosition(100L);
+			completionRunnable.run();
+		}
+		verify(storageIndexingTreeHandler, times(1)).writeSuccessful(writeTask1, 100L, 4L);
+		verify(storageIndexingTreeHandler, times(1)).writeSuccessful(writeTask2, 104L, 4L);
+		verify(storageIndexingTreeHandler, times(1)).writeSuccessful(writeTask3, 100L, 4L);
+		verify(storageIndexingTreeHandler, times(0)).writeFailed(Matchers.<WriteTask> anyObject());
+	}
+
+	@Test
+	public void writeBatchFailedSerializationOfOneObject() throws Exception {
+		TimerData failingData = new TimerData();
+		WriteTask writeTask1 = storageWriter.new WriteTask(failingData, Collections.emptyMap());
+		WriteTask writeTask2 = storageWriter.new WriteTask(new TimerData(), Collections.emptyMap());
+		doAnswer(new SerializeIntAnswer()).when(serializer).serialize(anyObject(), Matchers.<Output> anyObject(), Matchers.<Map<?, ?>> anyObject());
+		doThrow(SerializationException.class).when(serializer).serialize(Matchers.same(failingData), Matchers.<Output> anyObject(), Matchers.<Map<?, ?>> anyObject());
+
+		storageWriter.new WriteBatchTask(Arrays.asList(writeTask1, writeTask2)).run();
+
+		ArgumentCaptor<WriteReadCompletionRunnable> captor = ArgumentCaptor.forClass(WriteReadCompletionRunnable.class);
+		verify(writingChannelManager, times(1)).write(Matchers.<ExtendedByteBufferOutputStream> anyObject(), Matchers.<Path> anyObject(), captor.capture());
+		verify(storageIndexingTreeHandler, times(1)).writeFailed(writeTask1);
+		captor.getValue().setAttemptedWriteReadPosition(100L);
+		captor.getValue().run();
+		verify(storageIndexingTreeHandler, times(1)).writeSuccessful(writeTask2, 100L, 4L);
+		verify(extendedByteBufferOutputStream, times(1)).close();
+	}
+
+	@Test
+	public void writeBatchThrowableAfterFailedSerialization() throws Exception {
+		TimerData failingData = new TimerData();
+		WriteTask writeTask1 = storageWriter.new WriteTask(failingData, Collections.emptyMap());
+		WriteTask writeTask2 = storageWriter.new WriteTask(new TimerData(), Collections.emptyMap());
+		doAnswer(new SerializeIntAnswer()).when(serializer).serialize(anyObject(), Matchers.<Output> anyObject(), Matchers.<Map<?, ?>> anyObject());
+		doThrow(SerializationException.class).when(serializer).serialize(Matchers.same(failingData), Matchers.<Output> anyObject(), Matchers.<Map<?, ?>> anyObject());
+		doThrow(Throwable.class).when(writingChannelManager).write(Matchers.<ExtendedByteBufferOutputStream> anyObject(), Matchers.<Path> anyObject(),
+				Matchers.<WriteReadCompletionRunnable> anyObject());
+
+		storageWriter.new WriteBatchTask(Arrays.asList(writeTask1, writeTask2)).run();
+
+		verify(storageIndexingTreeHandler, times(1)).writeFailed(writeTask1);
+		verify(storageIndexingTreeHandler, times(1)).writeFailed(writeTask2);
+		verify(extendedByteBufferOutputStream, times(1)).close();
+	}
+
+	@Test
+	public void writeBatchThrowableDuringSerialization() throws Exception {
+		TimerData throwingData = new TimerData();
+		WriteTask writeTask1 = storageWriter.new WriteTask(new TimerData(), Collections.emptyMap());
+		WriteTask writeTask2 = storageWriter.new WriteTask(throwingData, Collections.emptyMap());
+		doAnswer(new SerializeIntAnswer()).when(serializer).serialize(anyObject(), Matchers.<Output> anyObject(), Matchers.<Map<?, ?>> anyObject());
+		doThrow(RuntimeException.class).when(serializer).serialize(Matchers.same(throwingData), Matchers.<Output> anyObject(), Matchers.<Map<?, ?>> anyObject());
+
+		storageWriter.new WriteBatchTask(Arrays.asList(writeTask1, writeTask2)).run();
+
+		verify(storageIndexingTreeHandler, times(1)).writeFailed(writeTask1);
+		verify(storageIndexingTreeHandler, times(1)).writeFailed(writeTask2);
+		verify(extendedByteBufferOutputStream, times(1)).close();
+		verifyZeroInteractions(writingChannelManager);
+	}
+
+	@Test
+	public void writeSharesBatchFuture() throws Exception {
+		StorageData storageData = new StorageData();
+		when(storageManager.getStoragePath(storageData)).thenReturn(testPath);
+		storageWriter.prepareForWrite(storageData);
+
+		Future<Void> future1 = storageWriter.write(new TimerData());
+		Future<Void> future2 = storageWriter.write(new TimerData());
+
+		assertThat(future1, is(sameInstance(future2)));
+		assertThat(storageWriter.getQueuedTaskCount(), is(1L));
+		verify(storageIndexingTreeHandler, times(0)).startWrite(Matchers.<WriteTask> anyObject());
+		verifyZeroInteractions(writingChannelManager);
+	}
+
 	@Test
 	public void objectWriteNoSerializerAvailable() throws InterruptedException {
 		when(serializerQueue.take()).thenReturn(null);
@@ -276,6 +375,18 @@ public class StorageWriterTest {
 		verifyZeroInteractions(writingChannelManager, extendedByteBufferOutputStream);
 	}
 
+	/**
+	 * Answer that serializes an int to the output passed to the serializer.
+	 */
+	private static class SerializeIntAnswer implements Answer<Void> {
+
+		@Override
+		public Void answer(InvocationOnMock invocation) throws Throwable {
+			((Output) invocation.getArguments()[1]).writeInt(1);
+			return null;
+		}
+	}
+
 	@AfterTest
 	public void cleanUp() throws IOException {
 		if (Files.exists(testPath)) {
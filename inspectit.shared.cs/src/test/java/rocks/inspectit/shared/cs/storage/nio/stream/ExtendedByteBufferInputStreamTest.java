@@ -21,6 +21,7 @@ import java.util.Random;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.mockito.Matchers;
 import org.mockito.Mock;
@@ -158,4 +159,63 @@ public class ExtendedByteBufferInputStreamTest {
 
 		verify(byteBufferProvider, times(NUMBER_OF_BUFFERS)).releaseByteBuffer(Matchers.<ByteBuffer> anyObject());
 	}
+
+	/**
+	 * Tests that the read task does not block the executor thread when the stream is closed
+	 * before all the data has been read.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void closeBeforeReadCompleted() throws Exception {
+		final int bufferSize = 1024;
+		when(byteBufferProvider.acquireByteBuffer()).thenAnswer(new Answer<ByteBuffer>() {
+			@Override
+			public ByteBuffer answer(InvocationOnMock invocation) throws Throwable {
+				return ByteBuffer.allocateDirect(bufferSize);
+			}
+		});
+
+		// more data than buffers, so that the read task waits for an empty buffer
+		IStorageDescriptor storageDescriptor = mock(StorageDescriptor.class);
+		when(storageDescriptor.getPosition()).thenReturn(0L);
+		when(storageDescriptor.getSize()).thenReturn((long) (10 * bufferSize));
+		List<IStorageDescriptor> descriptors = new ArrayList<>();
+		descriptors.add(storageDescriptor);
+
+		doAnswer(new Answer<Future<?>>() {
+			@Override
+			public Future<?> answer(InvocationOnMock invocation) throws Throwable {
+				Object[] args = invocation.getArguments();
+				ByteBuffer byteBuffer = (ByteBuffer) args[0];
+				long size = (long) args[2];
+				WriteReadCompletionRunnable writeReadCompletionRunnable = (WriteReadCompletionRunnable) args[4];
+
+				byteBuffer.position((int) size);
+				byteBuffer.flip();
+
+				writeReadCompletionRunnable.setAttemptedWriteReadSize(size);
+				writeReadCompletionRunnable.setAttemptedWriteReadPosition((long) args[1]);
+				writeReadCompletionRunnable.markSuccess();
+				writeReadCompletionRunnable.run();
+
+				return mock(Future.class);
+			}
+		}).when(readingChannelManager).read(Matchers.<ByteBuffer> anyObject(), anyLong(), anyLong(), Matchers.<Path> anyObject(), Matchers.<WriteReadCompletionRunnable> anyObject());
+
+		inputStream.setDescriptors(descriptors);
+		inputStream.prepare();
+		inputStream.read();
+		inputStream.close();
+
+		// the single executor thread must be free again
+		Future<?> future = executorService.submit(new Runnable() {
+			@Override
+			public void run() {
+			}
+		});
+		future.get(5, TimeUnit.SECONDS);
+
+		verify(byteBufferProvider, times(NUMBER_OF_BUFFERS)).releaseByteBuffer(Matchers.<ByteBuffer> anyObject());
+	}
 }
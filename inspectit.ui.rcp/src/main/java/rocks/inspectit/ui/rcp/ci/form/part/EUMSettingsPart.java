@@ -88,6 +88,11 @@ public class EUMSettingsPart extends SectionPart implements IPropertyListener {
 	 */
 	private Button listenerInstrumentationAllowedButton;
 
+	/**
+	 * Switch to enable or disable the asynchronous beacon processing.
+	 */
+	private Button beaconProcessingAsyncButton;
+
 
 	/**
 	 * Default constructor.
@@ -170,6 +175,13 @@ public class EUMSettingsPart extends SectionPart implements IPropertyListener {
 		createInfoLabel(mainComposite, toolkit,
 				"If enabled, the clients will receive a minified version of the JS Agent which reduces the size and improves the performance. Should only be disabled for debugging.");
 
+		toolkit.createLabel(mainComposite, "Process Beacons Asynchronously:").setLayoutData(new GridData(SWT.FILL, SWT.CENTER, false, false));
+		beaconProcessingAsyncButton = toolkit.createButton(mainComposite, "", SWT.CHECK);
+		beaconProcessingAsyncButton.setLayoutData(new GridData(SWT.FILL, SWT.FILL, true, false));
+		beaconProcessingAsyncButton.setSelection(environment.getEumConfig().isBeaconProcessingAsync());
+		createInfoLabel(mainComposite, toolkit,
+				"If enabled, the agent answers the beacons of the JS Agent right away and decodes the beacon data in the background. This keeps the beacon handling out of the request processing of the application. Errors in the beacon data are then only logged.");
+
 		ValidationControlDecoration<Text> scriptBaseUrlValidation = new ValidationControlDecoration<Text>(scriptBaseUrl, formPage.getManagedForm().getMessageManager()) {
 			@Override
 			protected boolean validate(Text control) {
@@ -234,6 +246,7 @@ public class EUMSettingsPart extends SectionPart implements IPropertyListener {
 		scriptBaseUrl.addListener(SWT.Modify, dirtyListener);
 		listenerInstrumentationAllowedButton.addListener(SWT.Selection, dirtyListener);
 		minificationEnabledButton.addListener(SWT.Selection, dirtyListener);
+		beaconProcessingAsyncButton.addListener(SWT.Selection, dirtyListener);
 		relevancyThresholdMS.addListener(SWT.Modify, dirtyListener);
 
 		updateEnabledState();
@@ -248,6 +261,7 @@ public class EUMSettingsPart extends SectionPart implements IPropertyListener {
 		scriptBaseUrl.setEnabled(en);
 		listenerInstrumentationAllowedButton.setEnabled(en);
 		minificationEnabledButton.setEnabled(en);
+		beaconProcessingAsyncButton.setEnabled(en);
 		relevancyThresholdMS.setEnabled(en);
 	}
 
@@ -316,6 +330,7 @@ public class EUMSettingsPart extends SectionPart implements IPropertyListener {
 			environment.getEumConfig().setEumEnabled(eumEnabledButton.getSelection());
 			environment.getEumConfig().setListenerInstrumentationAllowed(listenerInstrumentationAllowedButton.getSelection());
 			environment.getEumConfig().setAgentMinificationEnabled(minificationEnabledButton.getSelection());
+			environment.getEumConfig().setBeaconProcessingAsync(beaconProcessingAsyncButton.getSelection());
 			environment.getEumConfig().setScriptBaseUrl(scriptBaseUrl.getText());
 			environment.getEumConfig().setRelevancyThreshold(Integer.parseInt(relevancyThresholdMS.getText()));
 			StringBuilder moduleString = new StringBuilder();
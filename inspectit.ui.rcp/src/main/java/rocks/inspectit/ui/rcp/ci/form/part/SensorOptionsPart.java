@@ -90,6 +90,11 @@ public class SensorOptionsPart extends SectionPart implements IPropertyListener
 	 */
 	private Combo parametersCaptureCombo;
 
+	/**
+	 * Combo for the timer aggregation interval.
+	 */
+	private Combo timerAggregationCombo;
+
 	/**
 	 * Default constructor.
 	 *
@@ -145,6 +150,8 @@ public class SensorOptionsPart extends SectionPart implements IPropertyListener
 				if (methodSensorConfig instanceof TimerSensorConfig) {
 					stringConstraintComponent.createComponent(mainComposite, toolkit, "String length of captured context(s):",
 							"Defines the maximum string length of captured context (parameters, fields, return values) for timer sensor.", layoutColumns);
+
+					createTimerSensorConfigOptions((TimerSensorConfig) methodSensorConfig, mainComposite, toolkit);
 				} else if (methodSensorConfig instanceof HttpSensorConfig) {
 					stringConstraintComponent.createComponent(mainComposite, toolkit, "String length of captured HTTP data:",
 							"Defines the maximum string length of captured HTTP data (parameters, headers, attributes, etc) for HTTP sensor.", layoutColumns);
@@ -203,6 +210,7 @@ public class SensorOptionsPart extends SectionPart implements IPropertyListener
 		sessionCaptureCombo.addListener(SWT.Selection, dirtyListener);
 		attributesCaptureCombo.addListener(SWT.Selection, dirtyListener);
 		parametersCaptureCombo.addListener(SWT.Selection, dirtyListener);
+		timerAggregationCombo.addListener(SWT.Selection, dirtyListener);
 	}
 
 	/**
@@ -227,8 +235,9 @@ public class SensorOptionsPart extends SectionPart implements IPropertyListener
 
 					boolean extractParameters = (boolean) parametersCaptureCombo.getData(parametersCaptureCombo.getText());
 					((HttpSensorConfig) sensorTypeConfig).setParametersCapture(extractParameters);
-
-					break;
+				} else if (sensorTypeConfig instanceof TimerSensorConfig) {
+					long aggregationInterval = (long) timerAggregationCombo.getData(timerAggregationCombo.getText());
+					((TimerSensorConfig) sensorTypeConfig).setAggregationInterval(aggregationInterval);
 				}
 			}
 		}
@@ -269,6 +278,55 @@ public class SensorOptionsPart extends SectionPart implements IPropertyListener
 		label.setImage(InspectIT.getDefault().getImage(InspectITImages.IMG_INFORMATION));
 	}
 
+	/**
+	 * Creates special timer sensor related options.
+	 *
+	 * @param timerSensorConfig
+	 *            {@link TimerSensorConfig}.
+	 * @param parent
+	 *            Parent composite
+	 * @param toolkit
+	 *            {@link FormToolkit}
+	 */
+	private void createTimerSensorConfigOptions(TimerSensorConfig timerSensorConfig, Composite parent, FormToolkit toolkit) {
+		GridData layoutData = new GridData(GridData.FILL_BOTH);
+		layoutData.horizontalSpan = 2;
+
+		toolkit.createLabel(parent, "Aggregation:").setLayoutData(getIndentGridData());
+
+		timerAggregationCombo = new Combo(parent, SWT.READ_ONLY);
+		timerAggregationCombo.setLayoutData(layoutData);
+		timerAggregationCombo.add("No");
+		timerAggregationCombo.add("1 second");
+		timerAggregationCombo.add("5 seconds");
+		timerAggregationCombo.add("10 seconds");
+		timerAggregationCombo.setData("No", Long.valueOf(0L));
+		timerAggregationCombo.setData("1 second", Long.valueOf(1000L));
+		timerAggregationCombo.setData("5 seconds", Long.valueOf(5000L));
+		timerAggregationCombo.setData("10 seconds", Long.valueOf(10000L));
+		toolkit.adapt(timerAggregationCombo, false, false);
+		createInfoLabel(parent, toolkit,
+				"If active, the agent aggregates all timer measurements of the same method (and same captured context) in the given interval and sends only one aggregated object. This drastically reduces the amount of data for frequently called methods, but the single invocations can not be distinguished anymore.");
+
+		long aggregationInterval = timerSensorConfig.getAggregationInterval();
+		int selection = 0;
+		if (aggregationInterval > 0) {
+			String text = aggregationInterval + " ms";
+			for (String item : timerAggregationCombo.getItems()) {
+				if (Objects.equals(timerAggregationCombo.getData(item), Long.valueOf(aggregationInterval))) {
+					text = item;
+					break;
+				}
+			}
+			if (timerAggregationCombo.indexOf(text) < 0) {
+				timerAggregationCombo.add(text);
+				timerAggregationCombo.setData(text, Long.valueOf(aggregationInterval));
+			}
+			selection = timerAggregationCombo.indexOf(text);
+		}
+		timerAggregationCombo.select(selection);
+	}
+
 	/**
 	 * Creates special HTTP sensor related options.
 	 *
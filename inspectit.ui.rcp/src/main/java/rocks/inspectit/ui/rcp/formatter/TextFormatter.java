@@ -399,6 +399,9 @@ public final class TextFormatter {
 						styledString.append("Connected :: Last data sent " + NumberFormatter.humanReadableMillisCount(millis, true) + " ago", StyledString.DECORATIONS_STYLER);
 					} else if (agentStatusData.getInstrumentationStatus() == InstrumentationStatus.NO_CLASS_CACHE_AVAILABLE) {
 						styledString.append("Connected :: Sending data :: No class cache available", StyledString.DECORATIONS_STYLER);
+					} else if (MapUtils.isNotEmpty(agentStatusData.getSamplingRates())) {
+						styledString.append("Connected :: Sending sampled data (min. " + NumberFormatter.formatDoubleToPercent(getMinSamplingRate(agentStatusData)) + " sent)",
+								StyledString.DECORATIONS_STYLER);
 					} else {
 						styledString.append("Connected :: Sending data", StyledString.DECORATIONS_STYLER);
 					}
@@ -423,6 +426,23 @@ public final class TextFormatter {
 		return styledString;
 	}
 
+	/**
+	 * Returns the lowest sampling rate of all sensor types the agent is currently sampling.
+	 *
+	 * @param agentStatusData
+	 *            {@link AgentStatusData}
+	 * @return Lowest sampling rate or <code>1</code> if agent is not sampling data.
+	 */
+	private static double getMinSamplingRate(AgentStatusData agentStatusData) {
+		double minSamplingRate = 1.0d;
+		if (null != agentStatusData.getSamplingRates()) {
+			for (Long sensorTypeIdent : agentStatusData.getSamplingRates().keySet()) {
+				minSamplingRate = Math.min(minSamplingRate, agentStatusData.getSamplingRate(sensorTypeIdent.longValue()));
+			}
+		}
+		return minSamplingRate;
+	}
+
 	/**
 	 * @param storageState
 	 *            Storage state.
@@ -205,7 +205,7 @@ public abstract class AbstractStorageService<E extends DefaultData> {
 
 				if (null == returnList) {
 					// if not we load data regular way
-					returnList = loadData(storageIndexQuery, aggregator);
+					returnList = loadData(storageIndexQuery, aggregator, -1);
 
 					// and cache it on the CMR if we get something
 					if (CollectionUtils.isNotEmpty(returnList)) {
@@ -221,7 +221,7 @@ public abstract class AbstractStorageService<E extends DefaultData> {
 
 				if (null == returnList) {
 					// if not we load data regular way
-					returnList = loadData(storageIndexQuery, aggregator);
+					returnList = loadData(storageIndexQuery, aggregator, -1);
 
 					// and cache it locally if we get something
 					if (CollectionUtils.isNotEmpty(returnList)) {
@@ -230,7 +230,8 @@ public abstract class AbstractStorageService<E extends DefaultData> {
 				}
 			}
 		} else {
-			returnList = loadData(storageIndexQuery, aggregator);
+			// limit can be applied while loading only if results don't need sorting
+			returnList = loadData(storageIndexQuery, aggregator, (null == comparator) ? limit : -1);
 		}
 
 		// sort if needed
@@ -290,6 +291,10 @@ public abstract class AbstractStorageService<E extends DefaultData> {
 	 * {@link IAggregator} is provided. If the {@link IAggregator} is not provided, the data will be
 	 * returned not aggregated.
 	 * <P>
+	 * If the storage is not fully downloaded, the query is first executed on the CMR, so that only
+	 * the results are transfered. If the CMR can not execute the query, the data is loaded via the
+	 * HTTP and the restrictions are checked here.
+	 * <P>
 	 * This method should be used by all subclasses, because it guards against massive data loading
 	 * that can make out of memory exceptions on the UI.
 	 *
@@ -297,9 +302,19 @@ public abstract class AbstractStorageService<E extends DefaultData> {
 	 *            Query.
 	 * @param aggregator
 	 *            {@link IAggregator}
+	 * @param limit
+	 *            Limit passed to the CMR query execution. Value <code>-1</code> means no limit.
 	 * @return Return results of a query.
 	 */
-	private List<E> loadData(StorageIndexQuery storageIndexQuery, IAggregator<E> aggregator) {
+	private List<E> loadData(StorageIndexQuery storageIndexQuery, IAggregator<E> aggregator, int limit) {
+		if (!localStorageData.isFullyDownloaded()) {
+			try {
+				return dataRetriever.getQueryResultViaHttp(getCmrRepositoryDefinition(), localStorageData, storageIndexQuery, aggregator, limit);
+			} catch (IOException | SerializationException e) { // NOPMD NOCHK
+				// ignore cause we can still load results in other way
+			}
+		}
+
 		List<IStorageDescriptor> descriptors = getIndexingTree().query(storageIndexQuery);
 		// sort the descriptors to optimize the number of read operations
 		Collections.sort(descriptors, new Comparator<IStorageDescriptor>() {
@@ -335,7 +350,7 @@ public abstract class AbstractStorageService<E extends DefaultData> {
 				List<E> allData;
 				if (localStorageData.isFullyDownloaded()) {
 					try {
-						allData = dataRetriever.getDataLocally(localStorageData, descriptors);
+						allData = dataRetriever.getDataLocally(localStorageData, limitedDescriptors);
 					} catch (SerializationException e) {
 						String msg = "Data in the downloaded storage " + localStorageData + " can not be loaded with this version of the inspectIT. Version of the CMR where storage was created is "
 								+ localStorageData.getCmrVersion() + ".";
@@ -54,6 +54,8 @@ public class StorageSpanService extends AbstractStorageService<AbstractSpan> imp
 	@Override
 	public Collection<? extends Span> getSpans(long traceId) {
 		StorageIndexQuery query = spanQueryFactory.getSpans(traceId);
+		// narrow down to the trace branch in storages indexed by the trace id
+		query.setTraceId(traceId);
 		return super.executeQuery(query);
 	}
 
@@ -63,6 +65,7 @@ public class StorageSpanService extends AbstractStorageService<AbstractSpan> imp
 	@Override
 	public Span get(SpanIdent spanIdent) {
 		StorageIndexQuery query = spanQueryFactory.get(spanIdent);
+		query.setTraceId(spanIdent.getTraceId());
 		List<AbstractSpan> spans = super.executeQuery(query);
 		if (CollectionUtils.isNotEmpty(spans)) {
 			return spans.iterator().next();
@@ -32,6 +32,8 @@ import org.apache.http.HttpResponseInterceptor;
 import org.apache.http.StatusLine;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.HttpEntityWrapper;
 import org.apache.http.impl.client.DefaultHttpClient;
 import org.apache.http.protocol.HttpContext;
@@ -40,7 +42,9 @@ import org.eclipse.core.runtime.SubMonitor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatus.Series;
 
+import com.esotericsoftware.kryo.KryoException;
 import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
 
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.exception.BusinessException;
@@ -49,8 +53,11 @@ import rocks.inspectit.shared.all.serializer.ISerializer;
 import rocks.inspectit.shared.all.serializer.SerializationException;
 import rocks.inspectit.shared.all.serializer.provider.SerializationManagerProvider;
 import rocks.inspectit.shared.all.serializer.util.KryoUtil;
+import rocks.inspectit.shared.cs.communication.data.cmr.StorageQueryRequest;
+import rocks.inspectit.shared.cs.indexing.aggregation.IAggregator;
 import rocks.inspectit.shared.cs.indexing.storage.IStorageDescriptor;
 import rocks.inspectit.shared.cs.indexing.storage.impl.StorageDescriptor;
+import rocks.inspectit.shared.cs.indexing.storage.impl.StorageIndexQuery;
 import rocks.inspectit.shared.cs.storage.IStorageData;
 import rocks.inspectit.shared.cs.storage.LocalStorageData;
 import rocks.inspectit.shared.cs.storage.StorageData;
@@ -94,6 +101,11 @@ public class DataRetriever {
 	 */
 	private InputStreamProvider streamProvider;
 
+	/**
+	 * Reader for the parallel local data reading.
+	 */
+	private MappedStorageDataReader mappedStorageDataReader;
+
 	/**
 	 * Initializes the retriever.
 	 *
@@ -218,6 +230,11 @@ public class DataRetriever {
 	 * Retrieves the wanted data described in the {@link StorageDescriptor} from the desired
 	 * offline-available storage.
 	 * <p>
+	 * If the {@link MappedStorageDataReader} is set, the data is read from memory mapped files and
+	 * deserialized in parallel. Otherwise the data is read with the
+	 * {@link rocks.inspectit.shared.cs.storage.nio.stream.ExtendedByteBufferInputStream} and
+	 * deserialized on the calling thread.
+	 * <p>
 	 * It is not guaranteed that amount of returned objects in the list is same as the amount of
 	 * provided descriptors. If some of the descriptors are pointing to the wrong files or files
 	 * positions, it can happen that this influences the rest of the descriptor that point to the
@@ -240,6 +257,14 @@ public class DataRetriever {
 	@SuppressWarnings("unchecked")
 	public <E extends DefaultData> List<E> getDataLocally(LocalStorageData localStorageData, List<IStorageDescriptor> descriptors) throws IOException, SerializationException {
 		Map<Integer, List<IStorageDescriptor>> separateFilesGroup = createFilesGroup(descriptors);
+		if (null != mappedStorageDataReader) {
+			List<IStorageDescriptor> sortedDescriptors = new ArrayList<>(descriptors.size());
+			for (List<IStorageDescriptor> channelDescriptors : separateFilesGroup.values()) {
+				sortedDescriptors.addAll(channelDescriptors);
+			}
+			return mappedStorageDataReader.read(localStorageData, sortedDescriptors);
+		}
+
 		List<IStorageDescriptor> optimizedDescriptors = new ArrayList<>();
 		for (Map.Entry<Integer, List<IStorageDescriptor>> entry : separateFilesGroup.entrySet()) {
 			StorageDescriptor storageDescriptor = null;
@@ -390,6 +415,85 @@ public class DataRetriever {
 		}
 	}
 
+	/**
+	 * Executes the query on the CMR where the storage is located. The CMR reads the data, checks
+	 * the restrictions, aggregates if the aggregator is provided and streams back only the
+	 * results, thus only the results are transfered over the network.
+	 *
+	 * @param <E>
+	 *            Type of the objects are wanted.
+	 * @param cmrRepositoryDefinition
+	 *            {@link CmrRepositoryDefinition}.
+	 * @param storageData
+	 *            {@link StorageData} that points to the wanted storage.
+	 * @param storageIndexQuery
+	 *            Query to execute.
+	 * @param aggregator
+	 *            Aggregator to aggregate results with, can be <code>null</code>.
+	 * @param limit
+	 *            Max amount of results, <code>-1</code> means no limit.
+	 * @return Query results.
+	 * @throws SerializationException
+	 *             If {@link SerializationException} occurs.
+	 * @throws IOException
+	 *             If {@link IOException} occurs, if the CMR does not support the storage queries,
+	 *             if the query failed on the CMR or if the response is incomplete.
+	 */
+	@SuppressWarnings("unchecked")
+	public <E extends DefaultData> List<E> getQueryResultViaHttp(CmrRepositoryDefinition cmrRepositoryDefinition, IStorageData storageData, StorageIndexQuery storageIndexQuery,
+			IAggregator<E> aggregator, int limit) throws IOException, SerializationException {
+		StorageQueryRequest request = new StorageQueryRequest(storageData.getId(), storageIndexQuery, (IAggregator<DefaultData>) aggregator, limit);
+
+		ISerializer serializer = null;
+		try {
+			serializer = serializerQueue.take();
+		} catch (InterruptedException e) {
+			Thread.interrupted();
+		}
+		Input input = null;
+		try {
+			ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+			try (Output output = new Output(byteArrayOutputStream)) {
+				serializer.serialize(request, output);
+			}
+
+			HttpClient httpClient = new DefaultHttpClient();
+			HttpPost httpPost = new HttpPost(getServerUri(cmrRepositoryDefinition) + StorageQueryRequest.SERVLET_PATH);
+			httpPost.setEntity(new ByteArrayEntity(byteArrayOutputStream.toByteArray()));
+			HttpResponse response = httpClient.execute(httpPost);
+			StatusLine statusLine = response.getStatusLine();
+			if (!HttpStatus.valueOf(statusLine.getStatusCode()).series().equals(Series.SUCCESSFUL)) {
+				EntityUtils.consume(response.getEntity());
+				throw new IOException("Storage query failed on the CMR. Response status: " + statusLine + ".");
+			}
+
+			List<E> receivedData = new ArrayList<>();
+			input = new Input(response.getEntity().getContent());
+			int count;
+			try {
+				count = input.readInt();
+				while (count > StorageQueryRequest.END_OF_RESULTS) {
+					for (int i = 0; i < count; i++) {
+						receivedData.add((E) serializer.deserialize(input));
+					}
+					count = input.readInt();
+				}
+			} catch (KryoException e) {
+				// response ended before the end of results marker
+				throw new IOException("Storage query response from the CMR is incomplete.", e);
+			}
+			if (StorageQueryRequest.QUERY_FAILED == count) {
+				throw new IOException("Storage query failed on the CMR.");
+			}
+			return receivedData;
+		} finally {
+			if (null != input) {
+				input.close();
+			}
+			serializerQueue.add(serializer);
+		}
+	}
+
 	/**
 	 * Downloads and saves locally wanted files associated with given {@link StorageData}. Files
 	 * will be saved in passed directory. The caller can specify the type of the files to download
@@ -711,6 +815,16 @@ public class DataRetriever {
 		this.streamProvider = streamProvider;
 	}
 
+	/**
+	 * Sets {@link #mappedStorageDataReader}.
+	 *
+	 * @param mappedStorageDataReader
+	 *            New value for {@link #mappedStorageDataReader}
+	 */
+	public void setMappedStorageDataReader(MappedStorageDataReader mappedStorageDataReader) {
+		this.mappedStorageDataReader = mappedStorageDataReader;
+	}
+
 	/**
 	 * A wrapper for the {@link HttpEntity} that will surround the entity's input stream with the
 	 * {@link GZIPInputStream}. *
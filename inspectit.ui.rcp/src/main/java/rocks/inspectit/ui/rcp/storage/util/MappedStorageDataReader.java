@@ -0,0 +1,394 @@
+package rocks.inspectit.ui.rcp.storage.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.esotericsoftware.kryo.io.Input;
+
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.serializer.ISerializer;
+import rocks.inspectit.shared.all.serializer.SerializationException;
+import rocks.inspectit.shared.all.serializer.provider.SerializationManagerProvider;
+import rocks.inspectit.shared.all.serializer.util.KryoUtil;
+import rocks.inspectit.shared.all.util.MappedByteBufferUtils;
+import rocks.inspectit.shared.cs.indexing.storage.IStorageDescriptor;
+import rocks.inspectit.shared.cs.storage.IStorageData;
+import rocks.inspectit.shared.cs.storage.StorageManager;
+
+/**
+ * Reader of the data of the locally available storages. The data files are memory mapped and the
+ * descriptors are partitioned among the tasks of the {@link ForkJoinPool}, so that the
+ * deserialization runs on all available cores. Each pool thread uses its own {@link ISerializer}.
+ * The results are returned in the order of the given descriptors. The mapped regions are released
+ * as soon as the reading is done.
+ *
+ * @author agent
+ *
+ */
+public class MappedStorageDataReader {
+
+	/**
+	 * Amount of bytes below which the descriptors are deserialized in one task.
+	 */
+	static final long TASK_SIZE_THRESHOLD = 512 * 1024;
+
+	/**
+	 * Max size of one mapped region.
+	 */
+	private static final long MAX_REGION_SIZE = 256 * 1024 * 1024;
+
+	/**
+	 * {@link StorageManager}.
+	 */
+	private StorageManager storageManager;
+
+	/**
+	 * Serialization manager provider.
+	 */
+	private SerializationManagerProvider serializationManagerProvider;
+
+	/**
+	 * Pool executing the deserialization tasks.
+	 */
+	private ForkJoinPool forkJoinPool;
+
+	/**
+	 * Serializer of each pool thread.
+	 */
+	private final ThreadLocal<ISerializer> serializers = new ThreadLocal<ISerializer>() {
+		@Override
+		protected ISerializer initialValue() {
+			return serializationManagerProvider.createSerializer();
+		}
+	};
+
+	/**
+	 * Reads the data described by the descriptors.
+	 *
+	 * @param <E>
+	 *            Type of the objects are wanted.
+	 * @param storageData
+	 *            Locally available storage.
+	 * @param descriptors
+	 *            Descriptors sorted by channel and position.
+	 * @return List of objects in the order of the descriptors.
+	 * @throws IOException
+	 *             If data file can not be mapped.
+	 * @throws SerializationException
+	 *             If data can not be deserialized.
+	 */
+	@SuppressWarnings("unchecked")
+	public <E extends DefaultData> List<E> read(IStorageData storageData, List<IStorageDescriptor> descriptors) throws IOException, SerializationException {
+		if (descriptors.isEmpty()) {
+			return new ArrayList<>();
+		}
+
+		MappedRegion[] regions = mapRegions(storageData, descriptors);
+		try {
+			return (List<E>) forkJoinPool.invoke(new DeserializeTask(descriptors, regions, 0, descriptors.size()));
+		} catch (DeserializationFailedException e) {
+			Throwable cause = e.getCause();
+			while (cause instanceof DeserializationFailedException) {
+				cause = cause.getCause();
+			}
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			throw (SerializationException) cause;
+		} finally {
+			// all tasks are done at this point, so the regions are not accessed anymore
+			unmap(regions);
+		}
+	}
+
+	/**
+	 * Maps the parts of the channel files that hold the data of given descriptors. Neighboring
+	 * descriptors of the same channel share one mapped region, as long as the region does not get
+	 * bigger than {@value #MAX_REGION_SIZE} bytes.
+	 *
+	 * @param storageData
+	 *            Storage.
+	 * @param descriptors
+	 *            Descriptors sorted by channel and position.
+	 * @return Array holding the mapped region for the descriptor on the same index.
+	 * @throws IOException
+	 *             If file can not be mapped.
+	 */
+	private MappedRegion[] mapRegions(IStorageData storageData, List<IStorageDescriptor> descriptors) throws IOException {
+		MappedRegion[] regions = new MappedRegion[descriptors.size()];
+		Map<Integer, FileChannel> fileChannels = new HashMap<>();
+		boolean mapped = false;
+		try {
+			int regionFrom = 0;
+			long regionStart = descriptors.get(0).getPosition();
+			long regionEnd = regionStart + descriptors.get(0).getSize();
+			for (int i = 1; i <= descriptors.size(); i++) {
+				if (i < descriptors.size()) {
+					IStorageDescriptor descriptor = descriptors.get(i);
+					long start = Math.min(regionStart, descriptor.getPosition());
+					long end = Math.max(regionEnd, descriptor.getPosition() + descriptor.getSize());
+					if ((descriptor.getChannelId() == descriptors.get(regionFrom).getChannelId()) && ((end - start) <= MAX_REGION_SIZE)) {
+						regionStart = start;
+						regionEnd = end;
+						continue;
+					}
+				}
+
+				int channelId = descriptors.get(regionFrom).getChannelId();
+				FileChannel fileChannel = fileChannels.get(channelId);
+				if (null == fileChannel) {
+					fileChannel = FileChannel.open(storageManager.getChannelPath(storageData, channelId), StandardOpenOption.READ);
+					fileChannels.put(channelId, fileChannel);
+				}
+				// mapping stays valid after the channel is closed
+				MappedRegion region = new MappedRegion(regionStart, fileChannel.map(MapMode.READ_ONLY, regionStart, regionEnd - regionStart));
+				Arrays.fill(regions, regionFrom, i, region);
+
+				if (i < descriptors.size()) {
+					regionFrom = i;
+					regionStart = descriptors.get(i).getPosition();
+					regionEnd = regionStart + descriptors.get(i).getSize();
+				}
+			}
+			mapped = true;
+		} finally {
+			if (!mapped) {
+				unmap(regions);
+			}
+			for (FileChannel fileChannel : fileChannels.values()) {
+				fileChannel.close();
+			}
+		}
+		return regions;
+	}
+
+	/**
+	 * Releases the mappings of the given regions. Regions must not be accessed after this call.
+	 *
+	 * @param regions
+	 *            Array holding the mapped region for each descriptor, the same region is on the
+	 *            neighboring indexes.
+	 */
+	private static void unmap(MappedRegion[] regions) {
+		MappedRegion previous = null;
+		for (MappedRegion region : regions) {
+			if ((null != region) && (region != previous)) { // NOPMD
+				MappedByteBufferUtils.unmap(region.buffer);
+			}
+			previous = region;
+		}
+	}
+
+	/**
+	 * Sets {@link #storageManager}.
+	 *
+	 * @param storageManager
+	 *            New value for {@link #storageManager}
+	 */
+	public void setStorageManager(StorageManager storageManager) {
+		this.storageManager = storageManager;
+	}
+
+	/**
+	 * Sets {@link #serializationManagerProvider}.
+	 *
+	 * @param serializationManagerProvider
+	 *            New value for {@link #serializationManagerProvider}
+	 */
+	public void setSerializationManagerProvider(SerializationManagerProvider serializationManagerProvider) {
+		this.serializationManagerProvider = serializationManagerProvider;
+	}
+
+	/**
+	 * Sets {@link #forkJoinPool}.
+	 *
+	 * @param forkJoinPool
+	 *            New value for {@link #forkJoinPool}
+	 */
+	public void setForkJoinPool(ForkJoinPool forkJoinPool) {
+		this.forkJoinPool = forkJoinPool;
+	}
+
+	/**
+	 * Mapped part of one channel file.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static class MappedRegion {
+
+		/**
+		 * Position in the file where the mapping starts.
+		 */
+		private final long start;
+
+		/**
+		 * Mapped buffer. Must only be used via duplicates, as it's shared among threads.
+		 */
+		private final MappedByteBuffer buffer;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param start
+		 *            Position in the file where the mapping starts.
+		 * @param buffer
+		 *            Mapped buffer.
+		 */
+		MappedRegion(long start, MappedByteBuffer buffer) {
+			this.start = start;
+			this.buffer = buffer;
+		}
+	}
+
+	/**
+	 * Task that deserializes the range of descriptors. Range is split in two halves as long as it
+	 * describes more than {@value MappedStorageDataReader#TASK_SIZE_THRESHOLD} bytes.
+	 *
+	 * @author agent
+	 *
+	 */
+	private class DeserializeTask extends RecursiveTask<List<DefaultData>> {
+
+		/**
+		 * Generated UID.
+		 */
+		private static final long serialVersionUID = 4325981067725419062L;
+
+		/**
+		 * All descriptors.
+		 */
+		private final List<IStorageDescriptor> descriptors;
+
+		/**
+		 * Mapped region of each descriptor.
+		 */
+		private final MappedRegion[] regions;
+
+		/**
+		 * Index of the first descriptor to deserialize.
+		 */
+		private final int from;
+
+		/**
+		 * Index after the last descriptor to deserialize.
+		 */
+		private final int to;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param descriptors
+		 *            All descriptors.
+		 * @param regions
+		 *            Mapped region of each descriptor.
+		 * @param from
+		 *            Index of the first descriptor to deserialize.
+		 * @param to
+		 *            Index after the last descriptor to deserialize.
+		 */
+		DeserializeTask(List<IStorageDescriptor> descriptors, MappedRegion[] regions, int from, int to) {
+			this.descriptors = descriptors;
+			this.regions = regions;
+			this.from = from;
+			this.to = to;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		protected List<DefaultData> compute() {
+			if ((to - from) > 1) {
+				long size = 0;
+				for (int i = from; (i < to) && (size <= TASK_SIZE_THRESHOLD); i++) {
+					size += descriptors.get(i).getSize();
+				}
+				if (size > TASK_SIZE_THRESHOLD) {
+					int middle = (from + to) >>> 1;
+					DeserializeTask second = new DeserializeTask(descriptors, regions, middle, to);
+					second.fork();
+					List<DefaultData> result;
+					try {
+						result = new DeserializeTask(descriptors, regions, from, middle).compute();
+					} catch (RuntimeException e) {
+						// the regions are unmapped when this task ends, the forked one must be done
+						second.quietlyJoin();
+						throw e;
+					}
+					result.addAll(second.join());
+					return result;
+				}
+			}
+			return deserialize();
+		}
+
+		/**
+		 * Deserializes all descriptors of this task on the current thread.
+		 *
+		 * @return Deserialized objects.
+		 */
+		private List<DefaultData> deserialize() {
+			ISerializer serializer = serializers.get();
+			List<DefaultData> result = new ArrayList<>(to - from);
+			Input input = new Input();
+			byte[] bytes = new byte[0];
+			try {
+				for (int i = from; i < to; i++) {
+					IStorageDescriptor descriptor = descriptors.get(i);
+					int size = (int) descriptor.getSize();
+					if (bytes.length < size) {
+						bytes = new byte[size];
+					}
+					MappedRegion region = regions[i];
+					ByteBuffer buffer = region.buffer.duplicate();
+					buffer.position((int) (descriptor.getPosition() - region.start));
+					buffer.get(bytes, 0, size);
+
+					input.setBuffer(bytes, 0, size);
+					while (KryoUtil.hasMoreBytes(input)) {
+						result.add((DefaultData) serializer.deserialize(input));
+					}
+				}
+			} catch (SerializationException | IOException e) {
+				throw new DeserializationFailedException(e);
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Unchecked exception for passing the deserialization failure out of the fork join tasks.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static class DeserializationFailedException extends RuntimeException {
+
+		/**
+		 * Generated UID.
+		 */
+		private static final long serialVersionUID = -6012594521357741180L;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param cause
+		 *            Cause.
+		 */
+		DeserializationFailedException(Exception cause) {
+			super(cause);
+		}
+	}
+}
@@ -0,0 +1,220 @@
+package rocks.inspectit.ui.rcp.storage.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.esotericsoftware.kryo.io.Input;
+
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.serializer.ISerializer;
+import rocks.inspectit.shared.all.serializer.SerializationException;
+import rocks.inspectit.shared.all.serializer.provider.SerializationManagerProvider;
+import rocks.inspectit.shared.all.testbase.TestBase;
+import rocks.inspectit.shared.cs.indexing.storage.IStorageDescriptor;
+import rocks.inspectit.shared.cs.indexing.storage.impl.StorageDescriptor;
+import rocks.inspectit.shared.cs.storage.IStorageData;
+import rocks.inspectit.shared.cs.storage.StorageManager;
+
+/**
+ * Test for the {@link MappedStorageDataReader}.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class MappedStorageDataReaderTest extends TestBase {
+
+	/**
+	 * Size of the data described by one descriptor, so that the tasks are split after a few
+	 * descriptors.
+	 */
+	private static final int DESCRIPTOR_SIZE = 64 * 1024;
+
+	MappedStorageDataReader reader;
+
+	ForkJoinPool forkJoinPool;
+
+	Path directory;
+
+	@Mock
+	StorageManager storageManager;
+
+	@Mock
+	SerializationManagerProvider serializationManagerProvider;
+
+	@Mock
+	ISerializer serializer;
+
+	@Mock
+	IStorageData storageData;
+
+	@BeforeMethod
+	public void init() throws Exception {
+		directory = Files.createTempDirectory("storage");
+		forkJoinPool = new ForkJoinPool(4);
+		reader = new MappedStorageDataReader();
+		reader.setStorageManager(storageManager);
+		reader.setSerializationManagerProvider(serializationManagerProvider);
+		reader.setForkJoinPool(forkJoinPool);
+		when(serializationManagerProvider.createSerializer()).thenReturn(serializer);
+		// each descriptor holds one object, the id followed by the padding
+		when(serializer.deserialize(any(Input.class))).thenAnswer(new Answer<Object>() {
+			@Override
+			public Object answer(InvocationOnMock invocation) throws Throwable {
+				Input input = (Input) invocation.getArguments()[0];
+				TimerData timerData = new TimerData();
+				timerData.setId(input.readLong());
+				input.setPosition(input.limit());
+				return timerData;
+			}
+		});
+	}
+
+	@AfterMethod
+	public void cleanUp() throws IOException {
+		forkJoinPool.shutdownNow();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+			for (Path file : files) {
+				Files.delete(file);
+			}
+		}
+		Files.delete(directory);
+	}
+
+	/**
+	 * Writes the channel file holding the given amount of objects with ids starting from the
+	 * first id and returns the descriptor of each object.
+	 */
+	List<IStorageDescriptor> writeChannel(int channelId, long firstId, int count) throws IOException {
+		Path path = directory.resolve(channelId + ".data");
+		when(storageManager.getChannelPath(storageData, channelId)).thenReturn(path);
+
+		List<IStorageDescriptor> descriptors = new ArrayList<>(count);
+		try (DataOutputStream outputStream = new DataOutputStream(Files.newOutputStream(path))) {
+			for (int i = 0; i < count; i++) {
+				outputStream.writeLong(firstId + i);
+				outputStream.write(new byte[DESCRIPTOR_SIZE - 8]);
+				descriptors.add(new StorageDescriptor(channelId, (long) i * DESCRIPTOR_SIZE, DESCRIPTOR_SIZE));
+			}
+		}
+		return descriptors;
+	}
+
+	List<Long> ids(List<DefaultData> result) {
+		List<Long> ids = new ArrayList<>(result.size());
+		for (DefaultData defaultData : result) {
+			ids.add(defaultData.getId());
+		}
+		return ids;
+	}
+
+	List<Long> range(long firstId, int count) {
+		List<Long> ids = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			ids.add(firstId + i);
+		}
+		return ids;
+	}
+
+	public static class Read extends MappedStorageDataReaderTest {
+
+		@Test
+		public void noDescriptors() throws Exception {
+			List<DefaultData> result = reader.read(storageData, Collections.<IStorageDescriptor> emptyList());
+
+			assertThat(result, is(empty()));
+			verifyZeroInteractions(storageManager, serializationManagerProvider);
+		}
+
+		@Test
+		public void regionsAcrossChannels() throws Exception {
+			List<IStorageDescriptor> descriptors = new ArrayList<>();
+			descriptors.addAll(writeChannel(1, 0L, 4));
+			descriptors.addAll(writeChannel(2, 4L, 4));
+
+			List<DefaultData> result = reader.read(storageData, descriptors);
+
+			assertThat(ids(result), is(range(0L, 8)));
+			verify(storageManager, times(1)).getChannelPath(storageData, 1);
+			verify(storageManager, times(1)).getChannelPath(storageData, 2);
+		}
+
+		@Test
+		public void notNeighboringDescriptors() throws Exception {
+			List<IStorageDescriptor> written = writeChannel(1, 0L, 8);
+
+			List<DefaultData> result = reader.read(storageData, Arrays.asList(written.get(1), written.get(4), written.get(7)));
+
+			assertThat(ids(result), contains(1L, 4L, 7L));
+		}
+
+		@Test
+		public void orderPreservedWhenSplit() throws Exception {
+			// enough data so that the tasks are split many times
+			int count = (int) ((8 * MappedStorageDataReader.TASK_SIZE_THRESHOLD) / DESCRIPTOR_SIZE);
+			List<IStorageDescriptor> descriptors = new ArrayList<>();
+			descriptors.addAll(writeChannel(1, 0L, count));
+			descriptors.addAll(writeChannel(2, count, count));
+			descriptors.addAll(writeChannel(3, 2L * count, count));
+
+			List<DefaultData> result = reader.read(storageData, descriptors);
+
+			assertThat(ids(result), is(range(0L, 3 * count)));
+		}
+
+		@Test(expectedExceptions = SerializationException.class)
+		public void serializationExceptionUnwrapped() throws Exception {
+			final int count = (int) ((8 * MappedStorageDataReader.TASK_SIZE_THRESHOLD) / DESCRIPTOR_SIZE);
+			List<IStorageDescriptor> descriptors = writeChannel(1, 0L, count);
+			// fail in the last forked task
+			when(serializer.deserialize(any(Input.class))).thenAnswer(new Answer<Object>() {
+				@Override
+				public Object answer(InvocationOnMock invocation) throws Throwable {
+					Input input = (Input) invocation.getArguments()[0];
+					long id = input.readLong();
+					input.setPosition(input.limit());
+					if (id == (count - 1)) {
+						throw new SerializationException("Test");
+					}
+					return new TimerData();
+				}
+			});
+
+			reader.read(storageData, descriptors);
+		}
+
+		@Test(expectedExceptions = IOException.class)
+		public void channelFileMissing() throws Exception {
+			when(storageManager.getChannelPath(storageData, 1)).thenReturn(directory.resolve("1.data"));
+
+			reader.read(storageData, Collections.<IStorageDescriptor> singletonList(new StorageDescriptor(1, 0L, 8L)));
+		}
+	}
+
+}